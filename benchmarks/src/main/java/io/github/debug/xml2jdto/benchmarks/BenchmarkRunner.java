@@ -0,0 +1,62 @@
+package io.github.debug.xml2jdto.benchmarks;
+
+import java.io.IOException;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Command line entry point of the benchmark jar.
+ * <p>
+ * Accepts the standard JMH command line options and always attaches the {@link GCProfiler}, so every result reports the allocation rate
+ * ({@code gc.alloc.rate.norm}) next to the throughput.
+ * </p>
+ *
+ * <pre>
+ * {@code
+ * java -jar benchmarks/target/benchmarks.jar                                  # all benchmarks
+ * java -jar benchmarks/target/benchmarks.jar Unmarshal -p payloadSize=1KB,10MB  # selected ones
+ * java -jar benchmarks/target/benchmarks.jar -rf json -rff result.json          # machine readable result
+ * }
+ * </pre>
+ *
+ * @author scheffer.imrich
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+        super();
+    }
+
+    /**
+     * Runs the benchmarks selected by the JMH command line options.
+     *
+     * @param args
+     *            JMH command line options, see {@code -h}
+     * @throws RunnerException
+     *             if the benchmark run fails
+     * @throws CommandLineOptionException
+     *             if the options cannot be parsed
+     * @throws IOException
+     *             if the benchmark list cannot be read
+     */
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException, IOException {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        if (commandLineOptions.shouldHelp()) {
+            commandLineOptions.showHelp();
+            return;
+        }
+        if (commandLineOptions.shouldList() || commandLineOptions.shouldListWithParams() || commandLineOptions.shouldListProfilers()
+                || commandLineOptions.shouldListResultFormats()) {
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+        Options options = new OptionsBuilder().parent(commandLineOptions).addProfiler(GCProfiler.class).build();
+        new Runner(options).run();
+    }
+}
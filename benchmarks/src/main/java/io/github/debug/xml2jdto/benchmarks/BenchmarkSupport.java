@@ -0,0 +1,53 @@
+package io.github.debug.xml2jdto.benchmarks;
+
+/**
+ * Shared constants and helpers of the benchmark module.
+ * <p>
+ * The example schemas are resolved from the {@code example/schema} artifact through its runtime catalog ({@code xsd/catalog.cat}), exactly the way
+ * an application would configure {@code xml2jdto.catalog.path}.
+ * </p>
+ *
+ * @author scheffer.imrich
+ */
+public final class BenchmarkSupport {
+
+    /**
+     * Classpath location of the runtime catalog shipped in the example schema artifact.
+     */
+    public static final String CATALOG_PATH = "xsd/catalog.cat";
+
+    /**
+     * Classpath location of the storage XSD, the root schema of the {@code Storage} DTO.
+     */
+    public static final String STORAGE_XSD_PATH = "xsd/io/github/debugOSS/xml2jdto/example/STORAGE/1.0/storage.xsd";
+
+    /**
+     * Namespace of the storage schema.
+     */
+    public static final String STORAGE_NS = "http://example.xml2jdto.debugOSS.github.io/STORAGE/1.0/storage";
+
+    /**
+     * Namespace of the file schema, imported by the storage schema.
+     */
+    public static final String FILE_NS = "http://example.xml2jdto.debugOSS.github.io/STORAGE/1.0/file";
+
+    /**
+     * Namespace of the NTCA common schema, imported by the storage and file schemas.
+     */
+    public static final String COMMON_NS = "http://schemas.nav.gov.hu/NTCA/1.0/common";
+
+    private static final String CATALOG_PATH_PROPERTY = "xml2jdto.catalog.path";
+
+    private BenchmarkSupport() {
+        super();
+    }
+
+    /**
+     * Points the catalog configuration to the example catalog, unless it has already been configured from the command line.
+     */
+    public static void configureCatalog() {
+        if (System.getProperty(CATALOG_PATH_PROPERTY) == null) {
+            System.setProperty(CATALOG_PATH_PROPERTY, CATALOG_PATH);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package io.github.debug.xml2jdto.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.UncheckedIOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.debug.xml2jdto.core.codec.BinaryCodecs;
+import io.github.debug.xml2jdto.core.jaxb.JaxbUtil;
+import io.github.debug.xml2jdto.generator.XmlGenerator;
+import io.github.debugoss.xml2jdto.example.storage._1_0.storage.Storage;
+
+/**
+ * Round trip cost of the example {@link Storage} DTO through the generated binary codec, compared with the two forms it replaces for internal hops
+ * and caches: XML without validation and Java serialization ({@code xjc:serializable}).
+ * <p>
+ * Every benchmark encodes the DTO and decodes it again, so the result includes both sides of a hop. The size of the encoded forms is printed in the
+ * setup.
+ * </p>
+ *
+ * @author scheffer.imrich
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class BinaryCodecBenchmark {
+
+    /**
+     * Approximate size of the XML form of the DTO.
+     */
+    @Param({ "1KB", "100KB", "10MB" })
+    public String payloadSize;
+
+    private Storage storage;
+
+    /**
+     * Creates the DTO, warms up the caches and prints the encoded sizes.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkSupport.configureCatalog();
+        storage = StoragePayloads.storage(XmlGenerator.parseSize(payloadSize), 42L);
+        System.out.printf("%n%s: XML %d bytes, Java serialization %d bytes, binary codec %d bytes%n", payloadSize,
+                JaxbUtil.marshalToBytes(storage).length, serialize(storage).length, BinaryCodecs.encode(storage).length);
+    }
+
+    /**
+     * Round trip through the generated binary codec.
+     *
+     * @return the decoded DTO
+     */
+    @Benchmark
+    public Storage binaryCodec() {
+        return BinaryCodecs.decode(BinaryCodecs.encode(storage), Storage.class);
+    }
+
+    /**
+     * Round trip through XML bytes without validation.
+     *
+     * @return the decoded DTO
+     */
+    @Benchmark
+    public Storage xml() {
+        return JaxbUtil.unmarshal(new ByteArrayInputStream(JaxbUtil.marshalToBytes(storage)), Storage.class, null);
+    }
+
+    /**
+     * Round trip through Java serialization.
+     *
+     * @return the decoded DTO
+     */
+    @Benchmark
+    public Storage javaSerialization() {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(serialize(storage)))) {
+            return (Storage) in.readObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] serialize(Storage storage) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(storage);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+}
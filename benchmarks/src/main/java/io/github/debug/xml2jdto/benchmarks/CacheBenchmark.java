@@ -0,0 +1,93 @@
+package io.github.debug.xml2jdto.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.validation.Schema;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.JAXBException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.debug.xml2jdto.core.jaxb.JaxbUtil;
+import io.github.debug.xml2jdto.core.jaxb.catalog.CatalogResourceResolver;
+import io.github.debugoss.xml2jdto.example.storage._1_0.storage.Storage;
+
+/**
+ * Cost of the {@link JAXBContext} and {@link Schema} caches of {@link JaxbUtil}: a cache hit versus the work done on a cache miss.
+ * <p>
+ * A miss is measured by calling the same factory that the cache uses on a miss, so the numbers show how much a missing or evicted entry costs.
+ * </p>
+ *
+ * @author scheffer.imrich
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CacheBenchmark {
+
+    /**
+     * Warms up both caches.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkSupport.configureCatalog();
+        JaxbUtil.getJAXBContext(Storage.class);
+        JaxbUtil.getSchema(BenchmarkSupport.STORAGE_XSD_PATH);
+    }
+
+    /**
+     * Cached {@link JAXBContext} lookup.
+     *
+     * @return the context
+     */
+    @Benchmark
+    public JAXBContext contextHit() {
+        return JaxbUtil.getJAXBContext(Storage.class);
+    }
+
+    /**
+     * {@link JAXBContext} creation, as done on a cache miss.
+     *
+     * @return the context
+     * @throws JAXBException
+     *             if the context cannot be created
+     */
+    @Benchmark
+    public JAXBContext contextMiss() throws JAXBException {
+        return JAXBContext.newInstance(Storage.class);
+    }
+
+    /**
+     * Cached {@link Schema} lookup.
+     *
+     * @return the schema
+     */
+    @Benchmark
+    public Schema schemaHit() {
+        return JaxbUtil.getSchema(BenchmarkSupport.STORAGE_XSD_PATH);
+    }
+
+    /**
+     * {@link Schema} compilation with catalog resolution of the imports, as done on a cache miss.
+     *
+     * @return the schema
+     */
+    @Benchmark
+    public Schema schemaMiss() {
+        return JaxbUtil.loadSchemaFromXsdPath(BenchmarkSupport.STORAGE_XSD_PATH, new CatalogResourceResolver());
+    }
+}
@@ -0,0 +1,83 @@
+package io.github.debug.xml2jdto.benchmarks;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.concurrent.TimeUnit;
+
+import javax.xml.XMLConstants;
+import javax.xml.catalog.Catalog;
+import javax.xml.catalog.CatalogFeatures;
+import javax.xml.catalog.CatalogManager;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import io.github.debug.xml2jdto.core.jaxb.catalog.CatalogResourceResolver;
+
+/**
+ * Cost of the catalog based schema import resolution done by {@link CatalogResourceResolver} while a schema is compiled.
+ *
+ * @author scheffer.imrich
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CatalogBenchmark {
+
+    private CatalogResourceResolver resolver;
+
+    private URI catalogUri;
+
+    /**
+     * Loads the catalog.
+     *
+     * @throws URISyntaxException
+     *             if the catalog location is not a valid URI
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws URISyntaxException {
+        BenchmarkSupport.configureCatalog();
+        resolver = new CatalogResourceResolver();
+        catalogUri = Thread.currentThread().getContextClassLoader().getResource(BenchmarkSupport.CATALOG_PATH).toURI();
+        resolver.resolveResource(XMLConstants.W3C_XML_SCHEMA_NS_URI, BenchmarkSupport.STORAGE_NS, null, null, null);
+    }
+
+    /**
+     * Resolves the namespaces of the storage schema family, as done for the imports of a single schema compilation.
+     *
+     * @param blackhole
+     *            consumes the resolved inputs
+     */
+    @Benchmark
+    public void resolveImports(Blackhole blackhole) {
+        blackhole.consume(resolver.resolveResource(XMLConstants.W3C_XML_SCHEMA_NS_URI, BenchmarkSupport.STORAGE_NS, null, null, null));
+        blackhole.consume(resolver.resolveResource(XMLConstants.W3C_XML_SCHEMA_NS_URI, BenchmarkSupport.FILE_NS, null, null, null));
+        blackhole.consume(resolver.resolveResource(XMLConstants.W3C_XML_SCHEMA_NS_URI, BenchmarkSupport.COMMON_NS, null, null, null));
+    }
+
+    /**
+     * Parses the catalog file, as done once by the catalog producer.
+     *
+     * @return the catalog
+     */
+    @Benchmark
+    public Catalog loadCatalog() {
+        Catalog catalog = CatalogManager.catalog(CatalogFeatures.defaults(), catalogUri);
+        // the catalog is parsed lazily, force it by a lookup
+        catalog.matchPublic(BenchmarkSupport.STORAGE_NS);
+        return catalog;
+    }
+}
@@ -0,0 +1,92 @@
+package io.github.debug.xml2jdto.benchmarks;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.debug.xml2jdto.core.jaxb.JaxbUtil;
+import io.github.debug.xml2jdto.generator.XmlGenerator;
+import io.github.debugoss.xml2jdto.example.storage._1_0.storage.Storage;
+
+/**
+ * Marshal throughput of the example {@link Storage} DTO with and without XSD validation, at several payload sizes, into a String and into bytes.
+ *
+ * @author scheffer.imrich
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class MarshalBenchmark {
+
+    /**
+     * Approximate size of the marshalled XML document.
+     */
+    @Param({ "1KB", "100KB", "10MB", "100MB" })
+    public String payloadSize;
+
+    /**
+     * Whether the output is validated against the storage XSD.
+     */
+    @Param({ "false", "true" })
+    public boolean validate;
+
+    private Storage storage;
+
+    private String xsdPath;
+
+    /**
+     * Creates the DTO and warms up the caches.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkSupport.configureCatalog();
+        storage = StoragePayloads.storage(XmlGenerator.parseSize(payloadSize), 42L);
+        xsdPath = validate ? BenchmarkSupport.STORAGE_XSD_PATH : null;
+        JaxbUtil.marshal(storage, xsdPath);
+    }
+
+    /**
+     * Marshals the DTO into a {@link String}.
+     *
+     * @return the XML document
+     */
+    @Benchmark
+    public String marshal() {
+        return JaxbUtil.marshal(storage, xsdPath);
+    }
+
+    /**
+     * Marshals the DTO directly into UTF-8 bytes.
+     *
+     * @return the XML document
+     */
+    @Benchmark
+    public byte[] marshalToBytes() {
+        return JaxbUtil.marshalToBytes(storage, xsdPath);
+    }
+
+    /**
+     * Marshals the DTO into a {@link String} and encodes it, the way callers produced bytes before {@link JaxbUtil#marshalToBytes(Object, String)}.
+     *
+     * @return the XML document
+     */
+    @Benchmark
+    public byte[] marshalThenEncode() {
+        return JaxbUtil.marshal(storage, xsdPath).getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,156 @@
+package io.github.debug.xml2jdto.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.debug.xml2jdto.core.jaxb.ExtractedFields;
+import io.github.debug.xml2jdto.core.jaxb.FieldExtractor;
+import io.github.debug.xml2jdto.core.jaxb.PartialResult;
+import io.github.debug.xml2jdto.core.jaxb.Xml2jDto;
+import io.github.debug.xml2jdto.generator.XmlGenerator;
+import io.github.debugoss.xml2jdto.example.storage._1_0.file.FileType;
+import io.github.debugoss.xml2jdto.example.storage._1_0.storage.Storage;
+
+/**
+ * Cost of reading a part of a {@link Storage} document with {@link Xml2jDto#unmarshalPaths(java.io.InputStream, Map)} compared with binding the
+ * whole document.
+ * <p>
+ * {@code unmarshalHeader} binds the id, the name and the capacity of the storage and stops reading after them, {@code unmarshalFiles} binds the
+ * files on the storage level with JAXB and skips the directory tree, {@code unmarshalAll} binds everything with the generated StAX codec and
+ * {@code unmarshalAllJaxb} with JAXB. {@code extractHeader} and {@code extractRouting} read the same header values, the latter also counting the
+ * files, with a {@link FieldExtractor} without binding. None of them validates.
+ * </p>
+ *
+ * @author scheffer.imrich
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class PartialUnmarshalBenchmark {
+
+    private static final Map<String, Class<?>> HEADER_PATHS = new LinkedHashMap<>();
+
+    private static final Map<String, Class<?>> FILE_PATHS = Map.of("/Storage/files", FileType.class);
+
+    private static final FieldExtractor HEADER_FIELDS = FieldExtractor.builder()
+            .string("storageId", "/Storage/storageId")
+            .string("name", "/Storage/name")
+            .intValue("capacity", "/Storage/capacity")
+            .build();
+
+    private static final FieldExtractor ROUTING_FIELDS = FieldExtractor.builder()
+            .string("storageId", "/Storage/storageId")
+            .intValue("capacity", "/Storage/capacity")
+            .count("files", "/Storage/files")
+            .build();
+
+    static {
+        HEADER_PATHS.put("/Storage/storageId[1]", String.class);
+        HEADER_PATHS.put("/Storage/name[1]", String.class);
+        HEADER_PATHS.put("/Storage/capacity[1]", Integer.class);
+    }
+
+    /**
+     * Approximate size of the XML document.
+     */
+    @Param({ "1KB", "100KB", "10MB" })
+    public String payloadSize;
+
+    private final Xml2jDto engine = Xml2jDto.builder().build();
+
+    private final Xml2jDto jaxbEngine = Xml2jDto.builder().staxCodecs(false).build();
+
+    private byte[] xml;
+
+    /**
+     * Creates the XML document and warms up the caches of the engines.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        xml = StoragePayloads.storageXml(XmlGenerator.parseSize(payloadSize), 42L);
+        if (!engine.unmarshalPaths(new ByteArrayInputStream(xml), HEADER_PATHS).contains("/Storage/name[1]")) {
+            throw new IllegalStateException("No storage name in the payload");
+        }
+        engine.unmarshalPaths(new ByteArrayInputStream(xml), FILE_PATHS);
+        engine.unmarshal(new ByteArrayInputStream(xml), Storage.class, null);
+        jaxbEngine.unmarshal(new ByteArrayInputStream(xml), Storage.class, null);
+    }
+
+    /**
+     * Binds the header fields of the storage only.
+     *
+     * @return the header fields
+     */
+    @Benchmark
+    public PartialResult unmarshalHeader() {
+        return engine.unmarshalPaths(new ByteArrayInputStream(xml), HEADER_PATHS);
+    }
+
+    /**
+     * Extracts the header values of the storage.
+     *
+     * @return the values
+     */
+    @Benchmark
+    public ExtractedFields extractHeader() {
+        return HEADER_FIELDS.extract(xml);
+    }
+
+    /**
+     * Extracts the id and the capacity of the storage and counts its files.
+     *
+     * @return the values
+     */
+    @Benchmark
+    public ExtractedFields extractRouting() {
+        return ROUTING_FIELDS.extract(xml);
+    }
+
+    /**
+     * Binds the files on the storage level only.
+     *
+     * @return the files
+     */
+    @Benchmark
+    public PartialResult unmarshalFiles() {
+        return engine.unmarshalPaths(new ByteArrayInputStream(xml), FILE_PATHS);
+    }
+
+    /**
+     * Binds the whole document with JAXB.
+     *
+     * @return the DTO
+     */
+    @Benchmark
+    public Storage unmarshalAllJaxb() {
+        return jaxbEngine.unmarshal(new ByteArrayInputStream(xml), Storage.class, null);
+    }
+
+    /**
+     * Binds the whole document.
+     *
+     * @return the DTO
+     */
+    @Benchmark
+    public Storage unmarshalAll() {
+        return engine.unmarshal(new ByteArrayInputStream(xml), Storage.class, null);
+    }
+}
@@ -0,0 +1,118 @@
+package io.github.debug.xml2jdto.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.debug.xml2jdto.core.jaxb.Xml2jDto;
+import io.github.debug.xml2jdto.core.stax.StaxCodecs;
+import io.github.debug.xml2jdto.generator.XmlGenerator;
+import io.github.debugoss.xml2jdto.example.storage._1_0.storage.Storage;
+
+/**
+ * Unmarshal and marshal cost of the example {@link Storage} DTO through the StAX codec generated by {@code -Xxml2jdto-stax}, compared with JAXB.
+ * <p>
+ * Both sides run through an {@link Xml2jDto} engine, the JAXB one is built with {@link Xml2jDto.Builder#staxCodecs(boolean) staxCodecs(false)}, so
+ * the difference is the binding itself: the caches, the pools and the schema validation are the same.
+ * </p>
+ *
+ * @author scheffer.imrich
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class StaxCodecBenchmark {
+
+    /**
+     * Approximate size of the XML document.
+     */
+    @Param({ "1KB", "100KB", "10MB" })
+    public String payloadSize;
+
+    /**
+     * Whether the document is validated against the storage XSD.
+     */
+    @Param({ "false", "true" })
+    public boolean validate;
+
+    private final Xml2jDto jaxbEngine = Xml2jDto.builder().staxCodecs(false).build();
+
+    private final Xml2jDto staxEngine = Xml2jDto.builder().build();
+
+    private Storage storage;
+
+    private byte[] xml;
+
+    private String xsdPath;
+
+    /**
+     * Creates the DTO and its XML form and warms up the caches of both engines.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkSupport.configureCatalog();
+        if (!StaxCodecs.isSupported(Storage.class)) {
+            throw new IllegalStateException("No StAX codec for " + Storage.class.getName() + ", build example/dto with -Xxml2jdto-stax");
+        }
+        storage = StoragePayloads.storage(XmlGenerator.parseSize(payloadSize), 42L);
+        xml = jaxbEngine.marshalToBytes(storage);
+        xsdPath = validate ? BenchmarkSupport.STORAGE_XSD_PATH : null;
+        jaxbEngine.unmarshal(new ByteArrayInputStream(xml), Storage.class, xsdPath);
+        staxEngine.unmarshal(new ByteArrayInputStream(xml), Storage.class, xsdPath);
+    }
+
+    /**
+     * Unmarshals the document with JAXB.
+     *
+     * @return the DTO
+     */
+    @Benchmark
+    public Storage unmarshalJaxb() {
+        return jaxbEngine.unmarshal(new ByteArrayInputStream(xml), Storage.class, xsdPath);
+    }
+
+    /**
+     * Unmarshals the document with the generated StAX codec.
+     *
+     * @return the DTO
+     */
+    @Benchmark
+    public Storage unmarshalStax() {
+        return staxEngine.unmarshal(new ByteArrayInputStream(xml), Storage.class, xsdPath);
+    }
+
+    /**
+     * Marshals the DTO with JAXB.
+     *
+     * @return the XML bytes
+     */
+    @Benchmark
+    public byte[] marshalJaxb() {
+        return jaxbEngine.marshalToBytes(storage, xsdPath);
+    }
+
+    /**
+     * Marshals the DTO with the generated StAX codec.
+     *
+     * @return the XML bytes
+     */
+    @Benchmark
+    public byte[] marshalStax() {
+        return staxEngine.marshalToBytes(storage, xsdPath);
+    }
+}
@@ -0,0 +1,56 @@
+package io.github.debug.xml2jdto.benchmarks;
+
+import java.io.ByteArrayInputStream;
+
+import io.github.debug.xml2jdto.core.jaxb.JaxbUtil;
+import io.github.debug.xml2jdto.generator.XmlGenerator;
+import io.github.debugoss.xml2jdto.example.storage._1_0.storage.Storage;
+
+/**
+ * Builds deterministic, schema valid {@link Storage} payloads of an approximate target size.
+ * <p>
+ * The payloads are generated from the storage XSD by the {@link XmlGenerator}: a recursive directory tree with files, and as many directories and
+ * files on the storage level as needed to reach the requested size.
+ * </p>
+ *
+ * @author scheffer.imrich
+ */
+public final class StoragePayloads {
+
+    private StoragePayloads() {
+        super();
+    }
+
+    /**
+     * Creates a {@link Storage} DTO by unmarshalling the XML of {@link #storageXml(long, long)}.
+     *
+     * @param targetBytes
+     *            the requested size of the XML in bytes
+     * @param seed
+     *            seed of the random generator, the same seed always gives the same DTO
+     * @return the storage DTO
+     */
+    public static Storage storage(long targetBytes, long seed) {
+        return JaxbUtil.unmarshal(new ByteArrayInputStream(storageXml(targetBytes, seed)), Storage.class, null);
+    }
+
+    /**
+     * Generates a UTF-8 {@code Storage} XML document of approximately {@code targetBytes} length.
+     *
+     * @param targetBytes
+     *            the requested size of the XML in bytes
+     * @param seed
+     *            seed of the random generator, the same seed always gives the same document
+     * @return the XML document bytes
+     */
+    public static byte[] storageXml(long targetBytes, long seed) {
+        BenchmarkSupport.configureCatalog();
+        return XmlGenerator.builder()
+                .xsdPath(BenchmarkSupport.STORAGE_XSD_PATH)
+                .rootElement("Storage")
+                .targetSize(targetBytes)
+                .seed(seed)
+                .build()
+                .generate();
+    }
+}
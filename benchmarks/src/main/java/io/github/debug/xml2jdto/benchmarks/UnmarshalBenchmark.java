@@ -0,0 +1,90 @@
+package io.github.debug.xml2jdto.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.github.debug.xml2jdto.core.jaxb.JaxbUtil;
+import io.github.debug.xml2jdto.generator.XmlGenerator;
+import io.github.debugoss.xml2jdto.example.storage._1_0.storage.Storage;
+
+/**
+ * Unmarshal throughput of the example {@link Storage} document with and without XSD validation, at several payload sizes.
+ * <p>
+ * Both the {@link String} and the {@link java.io.InputStream} entry points of {@link JaxbUtil} are measured. The JAXB context and the schema are
+ * warmed up in the setup, so the benchmark measures the cache hit path.
+ * </p>
+ *
+ * @author scheffer.imrich
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class UnmarshalBenchmark {
+
+    /**
+     * Approximate size of the XML document.
+     */
+    @Param({ "1KB", "100KB", "10MB", "100MB" })
+    public String payloadSize;
+
+    /**
+     * Whether the document is validated against the storage XSD.
+     */
+    @Param({ "false", "true" })
+    public boolean validate;
+
+    private byte[] xmlBytes;
+
+    private String xml;
+
+    private String xsdPath;
+
+    /**
+     * Creates the payload and warms up the caches.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        BenchmarkSupport.configureCatalog();
+        xmlBytes = StoragePayloads.storageXml(XmlGenerator.parseSize(payloadSize), 42L);
+        xml = new String(xmlBytes, StandardCharsets.UTF_8);
+        xsdPath = validate ? BenchmarkSupport.STORAGE_XSD_PATH : null;
+        JaxbUtil.unmarshal(xml, Storage.class, xsdPath);
+    }
+
+    /**
+     * Unmarshals the document from a {@link String}.
+     *
+     * @return the unmarshalled DTO
+     */
+    @Benchmark
+    public Storage unmarshalString() {
+        return JaxbUtil.unmarshal(xml, Storage.class, xsdPath);
+    }
+
+    /**
+     * Unmarshals the document from an {@link java.io.InputStream}.
+     *
+     * @return the unmarshalled DTO
+     */
+    @Benchmark
+    public Storage unmarshalStream() {
+        return JaxbUtil.unmarshal(new ByteArrayInputStream(xmlBytes), Storage.class, xsdPath);
+    }
+}
@@ -0,0 +1,58 @@
+package io.github.debug.xml2jdto.benchmarks.soak;
+
+import java.io.ByteArrayInputStream;
+
+import io.github.debug.xml2jdto.benchmarks.BenchmarkSupport;
+import io.github.debug.xml2jdto.core.jaxb.JaxbUtil;
+import io.github.debugoss.xml2jdto.example.storage._1_0.storage.Storage;
+
+/**
+ * Operations of the soak workload. Every operation goes through the static {@link JaxbUtil} API, so all threads share its
+ * {@code JAXBContext} and {@code Schema} caches.
+ *
+ * @author scheffer.imrich
+ */
+public enum SoakOperation {
+
+    /**
+     * Unmarshalling of the payload XML into a {@link Storage}.
+     */
+    UNMARSHAL {
+        @Override
+        Object execute(Payload payload, boolean validate) {
+            return JaxbUtil.unmarshal(new ByteArrayInputStream(payload.xml()), Storage.class, validate ? BenchmarkSupport.STORAGE_XSD_PATH : null);
+        }
+    },
+
+    /**
+     * Marshalling of the payload {@link Storage}.
+     */
+    MARSHAL {
+        @Override
+        Object execute(Payload payload, boolean validate) {
+            return validate ? JaxbUtil.marshal(payload.storage(), BenchmarkSupport.STORAGE_XSD_PATH) : JaxbUtil.marshal(payload.storage());
+        }
+    };
+
+    /**
+     * Executes the operation once.
+     *
+     * @param payload
+     *            the shared, read only payload
+     * @param validate
+     *            whether to validate against the storage XSD
+     * @return the result of the operation, returned to keep it reachable until the latency is recorded
+     */
+    abstract Object execute(Payload payload, boolean validate);
+
+    /**
+     * Shared payload of the workload: the XML document and the DTO unmarshalled from it.
+     *
+     * @param xml
+     *            the XML document
+     * @param storage
+     *            the DTO
+     */
+    record Payload(byte[] xml, Storage storage) {
+    }
+}
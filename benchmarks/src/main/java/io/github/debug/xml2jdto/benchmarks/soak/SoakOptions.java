@@ -0,0 +1,187 @@
+package io.github.debug.xml2jdto.benchmarks.soak;
+
+import java.nio.file.Path;
+import java.text.MessageFormat;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.apache.commons.lang3.StringUtils;
+
+import io.github.debug.xml2jdto.generator.XmlGenerator;
+
+/**
+ * Command line options of the {@link SoakRunner}.
+ *
+ * @author scheffer.imrich
+ */
+final class SoakOptions {
+
+    static final String USAGE = """
+            Usage: SoakRunner [options]
+              --threads <n,n,...>        thread counts, one run for each (default 1,8,64,256)
+              --thread-type <type>       platform or virtual (default platform)
+              --duration <time>          measured duration of each run, e.g. 30s, 5m (default 30s)
+              --warmup <time>            unmeasured warmup of each run (default 10s)
+              --mix <op=w,...>           weights of the operations (default unmarshal=3,marshal=1)
+              --payload-size <size>      size of the payload XML, e.g. 10KB (default 10KB)
+              --validate <bool>          validate against the storage XSD (default true)
+              --result <file>            write the result as a baseline file
+              --baseline <file>          compare the result to a baseline file, exit with 1 on regression
+              --threshold <percent>      allowed throughput and p50/p99 degradation (default 10)
+              --tail-threshold <percent> allowed p99.9 degradation (default 25)
+            """;
+
+    List<Integer> threads = List.of(1, 8, 64, 256);
+    boolean virtualThreads;
+    Duration duration = Duration.ofSeconds(30);
+    Duration warmup = Duration.ofSeconds(10);
+    Map<SoakOperation, Integer> mix = new EnumMap<>(Map.of(SoakOperation.UNMARSHAL, 3, SoakOperation.MARSHAL, 1));
+    String payloadSize = "10KB";
+    boolean validate = true;
+    Path result;
+    Path baseline;
+    double threshold = 10;
+    double tailThreshold = 25;
+    boolean help;
+
+    private SoakOptions() {
+        super();
+    }
+
+    /**
+     * Parses the command line.
+     *
+     * @throws IllegalArgumentException
+     *             if an option is unknown or its value is invalid
+     */
+    static SoakOptions parse(String[] args) {
+        SoakOptions options = new SoakOptions();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            switch (arg) {
+            case "--threads" -> options.threads = threads(value(args, ++i, arg));
+            case "--thread-type" -> options.virtualThreads = threadType(value(args, ++i, arg));
+            case "--duration" -> options.duration = duration(value(args, ++i, arg));
+            case "--warmup" -> options.warmup = duration(value(args, ++i, arg));
+            case "--mix" -> options.mix = mix(value(args, ++i, arg));
+            case "--payload-size" -> options.payloadSize = size(value(args, ++i, arg));
+            case "--validate" -> options.validate = Boolean.parseBoolean(value(args, ++i, arg));
+            case "--result" -> options.result = Path.of(value(args, ++i, arg));
+            case "--baseline" -> options.baseline = Path.of(value(args, ++i, arg));
+            case "--threshold" -> options.threshold = percent(value(args, ++i, arg), arg);
+            case "--tail-threshold" -> options.tailThreshold = percent(value(args, ++i, arg), arg);
+            case "-h", "--help" -> options.help = true;
+            default -> throw new IllegalArgumentException(MessageFormat.format("Unknown option [{0}]", arg));
+            }
+        }
+        return options;
+    }
+
+    /**
+     * Description of the workload, stored in the result; a baseline is only comparable to a result of the same workload.
+     */
+    Map<String, String> workload() {
+        return Map.of(
+                "threadType",
+                virtualThreads ? "virtual" : "platform",
+                "mix",
+                mixString(),
+                "payloadSize",
+                payloadSize,
+                "validate",
+                String.valueOf(validate));
+    }
+
+    private String mixString() {
+        List<String> parts = new ArrayList<>();
+        mix.forEach((operation, weight) -> parts.add(operation.name().toLowerCase(Locale.ROOT) + "=" + weight));
+        return String.join(",", parts);
+    }
+
+    private static String value(String[] args, int index, String option) {
+        if (index >= args.length) {
+            throw new IllegalArgumentException(MessageFormat.format("Option [{0}] requires a value", option));
+        }
+        return args[index];
+    }
+
+    private static List<Integer> threads(String value) {
+        List<Integer> threads = new ArrayList<>();
+        for (String part : StringUtils.split(value, ',')) {
+            int count = integer(part.trim(), "--threads");
+            if (count < 1) {
+                throw new IllegalArgumentException(MessageFormat.format("Invalid thread count [{0}]", part));
+            }
+            threads.add(count);
+        }
+        return List.copyOf(threads);
+    }
+
+    private static boolean threadType(String value) {
+        return switch (value.toLowerCase(Locale.ROOT)) {
+        case "platform" -> false;
+        case "virtual" -> true;
+        default -> throw new IllegalArgumentException(MessageFormat.format("Invalid thread type [{0}], expected platform or virtual", value));
+        };
+    }
+
+    private static Duration duration(String value) {
+        String normalized = value.trim().toLowerCase(Locale.ROOT);
+        try {
+            if (normalized.endsWith("ms")) {
+                return Duration.ofMillis(Long.parseLong(StringUtils.removeEnd(normalized, "ms")));
+            } else if (normalized.endsWith("m")) {
+                return Duration.ofMinutes(Long.parseLong(StringUtils.removeEnd(normalized, "m")));
+            } else if (normalized.endsWith("h")) {
+                return Duration.ofHours(Long.parseLong(StringUtils.removeEnd(normalized, "h")));
+            }
+            return Duration.ofSeconds(Long.parseLong(StringUtils.removeEnd(normalized, "s")));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(MessageFormat.format("Invalid duration [{0}]", value), e);
+        }
+    }
+
+    private static Map<SoakOperation, Integer> mix(String value) {
+        Map<SoakOperation, Integer> mix = new EnumMap<>(SoakOperation.class);
+        for (String part : StringUtils.split(value, ',')) {
+            String operation = StringUtils.substringBefore(part, "=").trim();
+            try {
+                int weight = integer(StringUtils.substringAfter(part, "=").trim(), "--mix");
+                if (weight > 0) {
+                    mix.put(SoakOperation.valueOf(operation.toUpperCase(Locale.ROOT)), weight);
+                }
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(MessageFormat.format("Invalid operation weight [{0}]", part), e);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException(MessageFormat.format("The mix [{0}] contains no operation", value));
+        }
+        return mix;
+    }
+
+    private static String size(String value) {
+        XmlGenerator.parseSize(value);
+        return value.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private static double percent(String value, String option) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(MessageFormat.format("Invalid value of option [{0}]: [{1}]", option, value), e);
+        }
+    }
+
+    private static int integer(String value, String option) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(MessageFormat.format("Invalid value of option [{0}]: [{1}]", option, value), e);
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package io.github.debug.xml2jdto.benchmarks.soak;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+import org.HdrHistogram.Histogram;
+
+/**
+ * Result of a soak run: throughput and latency percentiles for every thread count and operation.
+ * <p>
+ * The result is stored as a properties file, which serves as the baseline of later runs:
+ * </p>
+ *
+ * <pre>
+ * workload.validate=true
+ * threads.8.unmarshal.throughput=2210.4
+ * threads.8.unmarshal.p50=3412
+ * threads.8.unmarshal.p99=9820
+ * threads.8.unmarshal.p999=21004
+ * </pre>
+ * <p>
+ * Throughput is in operations per second, latencies are in microseconds.
+ * </p>
+ *
+ * @author scheffer.imrich
+ */
+final class SoakResult {
+
+    private static final String WORKLOAD_PREFIX = "workload.";
+
+    private static final String THREADS_PREFIX = "threads.";
+
+    /**
+     * Metrics of a result, with the direction of a regression.
+     */
+    enum Metric {
+        THROUGHPUT("throughput", false),
+        P50("p50", true),
+        P99("p99", true),
+        P999("p999", true);
+
+        private final String key;
+
+        private final boolean higherIsWorse;
+
+        Metric(String key, boolean higherIsWorse) {
+            this.key = key;
+            this.higherIsWorse = higherIsWorse;
+        }
+    }
+
+    private final Map<String, String> workload;
+
+    /**
+     * Metric values by {@code threads.<n>.<operation>.<metric>} key.
+     */
+    private final Map<String, Double> values = new TreeMap<>();
+
+    SoakResult(Map<String, String> workload) {
+        this.workload = new TreeMap<>(workload);
+    }
+
+    /**
+     * Adds the measurement of an operation.
+     *
+     * @param threads
+     *            number of threads of the run
+     * @param operation
+     *            the operation
+     * @param histogram
+     *            latencies of the operation in nanoseconds
+     * @param seconds
+     *            measured duration of the run
+     */
+    void add(int threads, SoakOperation operation, Histogram histogram, double seconds) {
+        put(threads, operation, Metric.THROUGHPUT, histogram.getTotalCount() / seconds);
+        put(threads, operation, Metric.P50, histogram.getValueAtPercentile(50) / 1000d);
+        put(threads, operation, Metric.P99, histogram.getValueAtPercentile(99) / 1000d);
+        put(threads, operation, Metric.P999, histogram.getValueAtPercentile(99.9) / 1000d);
+    }
+
+    private void put(int threads, SoakOperation operation, Metric metric, double value) {
+        values.put(key(threads, operation, metric), value);
+    }
+
+    private static String key(int threads, SoakOperation operation, Metric metric) {
+        return THREADS_PREFIX + threads + "." + operation.name().toLowerCase(Locale.ROOT) + "." + metric.key;
+    }
+
+    /**
+     * Compares this result to a baseline. Only the measurements present in both are compared.
+     *
+     * @param baseline
+     *            the baseline
+     * @param threshold
+     *            allowed degradation of the throughput and of the p50 and p99 latency, in percent
+     * @param tailThreshold
+     *            allowed degradation of the p99.9 latency, in percent
+     * @return the description of every regression, empty if there is none
+     * @throws IllegalArgumentException
+     *             if the baseline was recorded with a different workload
+     */
+    List<String> compare(SoakResult baseline, double threshold, double tailThreshold) {
+        baseline.checkWorkload(workload);
+        List<String> regressions = new ArrayList<>();
+        for (Map.Entry<String, Double> entry : values.entrySet()) {
+            Double expected = baseline.values.get(entry.getKey());
+            if (expected == null || expected == 0) {
+                continue;
+            }
+            Metric metric = metric(entry.getKey());
+            double allowed = (metric == Metric.P999 ? tailThreshold : threshold) / 100d;
+            double change = (entry.getValue() - expected) / expected;
+            boolean regression = metric.higherIsWorse ? change > allowed : -change > allowed;
+            if (regression) {
+                regressions.add(
+                        String.format(
+                                Locale.ROOT,
+                                "%s: %.1f -> %.1f (%+.1f%%, allowed %.0f%%)",
+                                entry.getKey(),
+                                expected,
+                                entry.getValue(),
+                                change * 100,
+                                allowed * 100));
+            }
+        }
+        return regressions;
+    }
+
+    /**
+     * Checks that this result, used as a baseline, was recorded with the given workload.
+     *
+     * @throws IllegalArgumentException
+     *             if the workloads differ
+     */
+    void checkWorkload(Map<String, String> current) {
+        if (!workload.equals(new TreeMap<>(current))) {
+            throw new IllegalArgumentException(
+                    MessageFormat.format("The baseline workload {0} differs from the current workload {1}", workload, new TreeMap<>(current)));
+        }
+    }
+
+    private static Metric metric(String key) {
+        String metricKey = key.substring(key.lastIndexOf('.') + 1);
+        for (Metric metric : Metric.values()) {
+            if (metric.key.equals(metricKey)) {
+                return metric;
+            }
+        }
+        throw new IllegalArgumentException(MessageFormat.format("Unknown metric [{0}]", key));
+    }
+
+    /**
+     * Writes the result as a baseline file.
+     *
+     * @throws IOException
+     *             if the file cannot be written
+     */
+    void write(Path file) throws IOException {
+        Properties properties = new Properties();
+        workload.forEach((key, value) -> properties.setProperty(WORKLOAD_PREFIX + key, value));
+        values.forEach((key, value) -> properties.setProperty(key, String.format(Locale.ROOT, "%.1f", value)));
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            properties.store(writer, "xml2jdto soak result, throughput in ops/s, latencies in microseconds");
+        }
+    }
+
+    /**
+     * Reads a baseline file.
+     *
+     * @throws IOException
+     *             if the file cannot be read
+     */
+    static SoakResult read(Path file) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        Map<String, String> workload = new TreeMap<>();
+        Map<String, Double> values = new TreeMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            if (key.startsWith(WORKLOAD_PREFIX)) {
+                workload.put(key.substring(WORKLOAD_PREFIX.length()), properties.getProperty(key));
+            } else if (key.startsWith(THREADS_PREFIX)) {
+                values.put(key, Double.valueOf(properties.getProperty(key)));
+            }
+        }
+        SoakResult result = new SoakResult(workload);
+        result.values.putAll(values);
+        return result;
+    }
+}
@@ -0,0 +1,249 @@
+package io.github.debug.xml2jdto.benchmarks.soak;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import io.github.debug.xml2jdto.benchmarks.BenchmarkSupport;
+import io.github.debug.xml2jdto.benchmarks.StoragePayloads;
+import io.github.debug.xml2jdto.benchmarks.soak.SoakOperation.Payload;
+import io.github.debug.xml2jdto.core.jaxb.JaxbUtil;
+import io.github.debug.xml2jdto.generator.XmlGenerator;
+import io.github.debugoss.xml2jdto.example.storage._1_0.storage.Storage;
+
+/**
+ * Multi-threaded soak test of {@link JaxbUtil} with a baseline based regression gate.
+ * <p>
+ * For every configured thread count, platform or virtual threads run a weighted mix of {@link SoakOperation operations} on a shared payload
+ * for a fixed duration, after an unmeasured warmup. Every operation goes through the shared static caches of {@link JaxbUtil}, so lock
+ * contention and pool starvation show up as a throughput drop or a latency tail growing with the thread count. The latency of every single
+ * operation is recorded in an HdrHistogram; the run reports throughput and the p50, p99 and p99.9 latency.
+ * </p>
+ * <p>
+ * The workload is closed loop, every thread starts its next operation when the previous one has finished, so the latencies do not include
+ * queueing delay (coordinated omission). They are comparable between runs of the same workload, which is what the regression gate needs.
+ * </p>
+ * <p>
+ * With {@code --result} the result is written as a baseline file, with {@code --baseline} it is compared to a previous one. Exit status: 0 on
+ * success, 1 if an operation failed or a metric regressed beyond the threshold, 2 on invalid options or an incompatible baseline.
+ * </p>
+ *
+ * <pre>
+ * {@code
+ * java -cp benchmarks/target/benchmarks.jar io.github.debug.xml2jdto.benchmarks.soak.SoakRunner --duration 60s --result baseline.properties
+ * java -cp benchmarks/target/benchmarks.jar io.github.debug.xml2jdto.benchmarks.soak.SoakRunner --duration 60s --baseline baseline.properties
+ * }
+ * </pre>
+ *
+ * @author scheffer.imrich
+ */
+public final class SoakRunner {
+
+    private static final long PAYLOAD_SEED = 42L;
+
+    private final SoakOptions options;
+
+    private final PrintStream out;
+
+    private SoakRunner(SoakOptions options, PrintStream out) {
+        this.options = options;
+        this.out = out;
+    }
+
+    /**
+     * Runs the soak test and exits with a non-zero status on failure or regression.
+     *
+     * @param args
+     *            the command line options, see {@code --help}
+     * @throws InterruptedException
+     *             if the runner is interrupted
+     * @throws IOException
+     *             if the result or the baseline cannot be written or read
+     */
+    public static void main(String[] args) throws InterruptedException, IOException {
+        int status = execute(args, System.out, System.err);
+        if (status != 0) {
+            System.exit(status);
+        }
+    }
+
+    /**
+     * Runs the soak test.
+     *
+     * @param args
+     *            the command line options
+     * @param out
+     *            the stream of the report
+     * @param err
+     *            the stream of the option errors
+     * @return the exit status: 0 on success, 1 on failed operations or regression, 2 on invalid options or an incomparable baseline
+     * @throws InterruptedException
+     *             if the runner is interrupted
+     * @throws IOException
+     *             if the result or the baseline cannot be written or read
+     */
+    static int execute(String[] args, PrintStream out, PrintStream err) throws InterruptedException, IOException {
+        SoakOptions options;
+        try {
+            options = SoakOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            err.print(SoakOptions.USAGE);
+            return 2;
+        }
+        if (options.help) {
+            out.print(SoakOptions.USAGE);
+            return 0;
+        }
+        return new SoakRunner(options, out).run();
+    }
+
+    private int run() throws InterruptedException, IOException {
+        SoakResult baseline = null;
+        if (options.baseline != null) {
+            if (!Files.isReadable(options.baseline)) {
+                out.println(MessageFormat.format("Baseline file [{0}] cannot be read", options.baseline));
+                return 2;
+            }
+            baseline = SoakResult.read(options.baseline);
+            try {
+                baseline.checkWorkload(options.workload());
+            } catch (IllegalArgumentException e) {
+                out.println(e.getMessage());
+                return 2;
+            }
+        }
+        BenchmarkSupport.configureCatalog();
+        byte[] xml = StoragePayloads.storageXml(XmlGenerator.parseSize(options.payloadSize), PAYLOAD_SEED);
+        Payload payload = new Payload(xml, JaxbUtil.unmarshal(new ByteArrayInputStream(xml), Storage.class, null));
+
+        out.println(MessageFormat.format("Soak workload {0}, warmup {1}, duration {2}", options.workload(), options.warmup, options.duration));
+        out.println(String.format(Locale.ROOT, "%8s %-10s %12s %12s %10s %10s %10s %10s %8s", "threads", "operation", "ops", "ops/s", "p50 us",
+                "p99 us", "p99.9 us", "max us", "errors"));
+
+        SoakResult result = new SoakResult(options.workload());
+        long totalErrors = 0;
+        for (int threads : options.threads) {
+            totalErrors += runThreads(threads, payload, result);
+        }
+
+        if (options.result != null) {
+            result.write(options.result);
+            out.println(MessageFormat.format("Result written to [{0}]", options.result));
+        }
+        int status = totalErrors > 0 ? 1 : 0;
+        if (baseline != null) {
+            List<String> regressions = result.compare(baseline, options.threshold, options.tailThreshold);
+            if (regressions.isEmpty()) {
+                out.println(MessageFormat.format("No regression compared to [{0}]", options.baseline));
+            } else {
+                out.println(MessageFormat.format("Regressions compared to [{0}]:", options.baseline));
+                regressions.forEach(regression -> out.println("  " + regression));
+                status = 1;
+            }
+        }
+        return status;
+    }
+
+    /**
+     * Runs the workload with the given number of threads.
+     *
+     * @return the number of failed operations
+     */
+    private long runThreads(int threadCount, Payload payload, SoakResult result) throws InterruptedException {
+        Map<SoakOperation, Recorder> recorders = new EnumMap<>(SoakOperation.class);
+        Map<SoakOperation, LongAdder> errors = new EnumMap<>(SoakOperation.class);
+        for (SoakOperation operation : options.mix.keySet()) {
+            recorders.put(operation, new Recorder(3));
+            errors.put(operation, new LongAdder());
+        }
+        SoakOperation[] operations = options.mix.keySet().toArray(SoakOperation[]::new);
+        int[] cumulativeWeights = new int[operations.length];
+        int totalWeight = 0;
+        for (int i = 0; i < operations.length; i++) {
+            totalWeight += options.mix.get(operations[i]);
+            cumulativeWeights[i] = totalWeight;
+        }
+        int weightBound = totalWeight;
+
+        AtomicReference<Throwable> firstError = new AtomicReference<>();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread.Builder builder = options.virtualThreads ? Thread.ofVirtual().name("soak-", 0) : Thread.ofPlatform().name("soak-", 0);
+        List<Thread> workers = new ArrayList<>(threadCount);
+        AtomicBoolean running = new AtomicBoolean(true);
+        for (int i = 0; i < threadCount; i++) {
+            workers.add(builder.start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (running.get()) {
+                    int pick = random.nextInt(weightBound);
+                    int index = 0;
+                    while (cumulativeWeights[index] <= pick) {
+                        index++;
+                    }
+                    SoakOperation operation = operations[index];
+                    long begin = System.nanoTime();
+                    try {
+                        operation.execute(payload, options.validate);
+                        recorders.get(operation).recordValue(System.nanoTime() - begin);
+                    } catch (RuntimeException e) {
+                        errors.get(operation).increment();
+                        firstError.compareAndSet(null, e);
+                    }
+                }
+            }));
+        }
+
+        start.countDown();
+        TimeUnit.NANOSECONDS.sleep(options.warmup.toNanos());
+        // the interval histograms of the warmup are discarded
+        recorders.values().forEach(Recorder::reset);
+        errors.values().forEach(LongAdder::reset);
+        long measureStart = System.nanoTime();
+        TimeUnit.NANOSECONDS.sleep(options.duration.toNanos());
+        Map<SoakOperation, Histogram> histograms = new EnumMap<>(SoakOperation.class);
+        recorders.forEach((operation, recorder) -> histograms.put(operation, recorder.getIntervalHistogram()));
+        double seconds = (System.nanoTime() - measureStart) / 1e9;
+        running.set(false);
+        for (Thread thread : workers) {
+            thread.join();
+        }
+
+        long errorCount = 0;
+        for (Map.Entry<SoakOperation, Histogram> entry : histograms.entrySet()) {
+            Histogram histogram = entry.getValue();
+            long operationErrors = errors.get(entry.getKey()).sum();
+            errorCount += operationErrors;
+            result.add(threadCount, entry.getKey(), histogram, seconds);
+            out.println(String.format(Locale.ROOT, "%8d %-10s %12d %12.1f %10.1f %10.1f %10.1f %10.1f %8d", threadCount,
+                    entry.getKey().name().toLowerCase(Locale.ROOT), histogram.getTotalCount(), histogram.getTotalCount() / seconds,
+                    histogram.getValueAtPercentile(50) / 1000d, histogram.getValueAtPercentile(99) / 1000d,
+                    histogram.getValueAtPercentile(99.9) / 1000d, histogram.getMaxValue() / 1000d, operationErrors));
+        }
+        if (firstError.get() != null) {
+            out.println(MessageFormat.format("First failure with [{0}] threads: [{1}]", threadCount, firstError.get()));
+        }
+        return errorCount;
+    }
+}
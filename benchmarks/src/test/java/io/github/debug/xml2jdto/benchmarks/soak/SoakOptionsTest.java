@@ -0,0 +1,78 @@
+package io.github.debug.xml2jdto.benchmarks.soak;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class SoakOptionsTest {
+
+    @Test
+    public void testParse_defaults() {
+        SoakOptions options = SoakOptions.parse(new String[0]);
+
+        Assertions.assertThat(options.threads).containsExactly(1, 8, 64, 256);
+        Assertions.assertThat(options.virtualThreads).isFalse();
+        Assertions.assertThat(options.threshold).isEqualTo(10);
+        Assertions.assertThat(options.tailThreshold).isEqualTo(25);
+        Assertions.assertThat(options.baseline).isNull();
+        Assertions.assertThat(options.help).isFalse();
+    }
+
+    @Test
+    public void testExecute_invalidOptions() throws Exception {
+        for (String[] args : List.of(new String[] { "--unknown" }, new String[] { "--threads" }, new String[] { "--threads", "0" },
+                new String[] { "--thread-type", "green" }, new String[] { "--duration", "soon" }, new String[] { "--mix", "unmarshal=0" },
+                new String[] { "--mix", "parse=1" }, new String[] { "--threshold", "ten" })) {
+            ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+            int status = SoakRunner.execute(args, System.out, new PrintStream(err, true, StandardCharsets.UTF_8));
+
+            Assertions.assertThat(status).as(String.join(" ", args)).isEqualTo(2);
+            Assertions.assertThat(err.toString(StandardCharsets.UTF_8)).contains("Usage: SoakRunner");
+        }
+    }
+
+    @Test
+    public void testParse_options() {
+        SoakOptions options = SoakOptions.parse(new String[] { "--threads", "2, 4", "--thread-type", "virtual", "--duration", "2m", "--warmup",
+                "500ms", "--mix", "marshal=2", "--payload-size", "1kb", "--validate", "false", "--threshold", "5", "--tail-threshold", "15" });
+
+        Assertions.assertThat(options.threads).containsExactly(2, 4);
+        Assertions.assertThat(options.virtualThreads).isTrue();
+        Assertions.assertThat(options.duration).isEqualTo(Duration.ofMinutes(2));
+        Assertions.assertThat(options.warmup).isEqualTo(Duration.ofMillis(500));
+        Assertions.assertThat(options.mix).containsExactly(Map.entry(SoakOperation.MARSHAL, 2));
+        Assertions.assertThat(options.threshold).isEqualTo(5);
+        Assertions.assertThat(options.tailThreshold).isEqualTo(15);
+        Assertions.assertThat(options.workload())
+                .containsEntry("threadType", "virtual")
+                .containsEntry("mix", "marshal=2")
+                .containsEntry("payloadSize", "1KB")
+                .containsEntry("validate", "false");
+    }
+
+    @Test
+    public void testParse_invalidOptions() {
+        Assertions.assertThatThrownBy(() -> SoakOptions.parse(new String[] { "--unknown" }))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Unknown option [--unknown]");
+        Assertions.assertThatThrownBy(() -> SoakOptions.parse(new String[] { "--threads" }))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Option [--threads] requires a value");
+        Assertions.assertThatThrownBy(() -> SoakOptions.parse(new String[] { "--threads", "8,0" }))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid thread count [0]");
+        Assertions.assertThatThrownBy(() -> SoakOptions.parse(new String[] { "--mix", "unmarshal=0" }))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("The mix [unmarshal=0] contains no operation");
+        Assertions.assertThatThrownBy(() -> SoakOptions.parse(new String[] { "--tail-threshold", "high" }))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid value of option [--tail-threshold]: [high]");
+    }
+}
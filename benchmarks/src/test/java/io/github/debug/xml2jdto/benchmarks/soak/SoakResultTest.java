@@ -0,0 +1,117 @@
+package io.github.debug.xml2jdto.benchmarks.soak;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import org.HdrHistogram.Histogram;
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class SoakResultTest {
+
+    private static final Map<String, String> WORKLOAD = Map.of("threadType", "platform", "mix", "unmarshal=3,marshal=1");
+
+    @TempDir
+    private Path directory;
+
+    /**
+     * A result of 1000 operations in one second, 998 with the latency and 2 with the tail latency.
+     */
+    private static SoakResult result(Map<String, String> workload, int operations, long latencyMicros, long tailMicros) {
+        Histogram histogram = new Histogram(3);
+        histogram.recordValueWithCount(latencyMicros * 1000, operations - 2);
+        histogram.recordValueWithCount(tailMicros * 1000, 2);
+        SoakResult result = new SoakResult(workload);
+        result.add(8, SoakOperation.UNMARSHAL, histogram, 1);
+        return result;
+    }
+
+    @Test
+    public void testCompare_withinThreshold() {
+        SoakResult baseline = result(WORKLOAD, 1000, 100, 400);
+
+        Assertions.assertThat(result(WORKLOAD, 950, 108, 480).compare(baseline, 10, 25)).isEmpty();
+    }
+
+    @Test
+    public void testCompare_throughputDrop() {
+        SoakResult baseline = result(WORKLOAD, 1000, 100, 400);
+
+        List<String> regressions = result(WORKLOAD, 800, 100, 400).compare(baseline, 10, 25);
+
+        Assertions.assertThat(regressions).singleElement().asString().startsWith("threads.8.unmarshal.throughput: 1000.0 -> 800.0 (-20.0%");
+    }
+
+    @Test
+    public void testCompare_latencyRise() {
+        SoakResult baseline = result(WORKLOAD, 1000, 100, 400);
+
+        List<String> regressions = result(WORKLOAD, 1000, 120, 400).compare(baseline, 10, 25);
+
+        Assertions.assertThat(regressions).hasSize(2).allMatch(regression -> regression.contains("+20.0%, allowed 10%"));
+        Assertions.assertThat(regressions.get(0)).startsWith("threads.8.unmarshal.p50:");
+        Assertions.assertThat(regressions.get(1)).startsWith("threads.8.unmarshal.p99:");
+        Assertions.assertThat(result(WORKLOAD, 1200, 80, 300).compare(baseline, 10, 25)).isEmpty();
+    }
+
+    @Test
+    public void testCompare_tailThreshold() {
+        SoakResult baseline = result(WORKLOAD, 1000, 100, 400);
+
+        Assertions.assertThat(result(WORKLOAD, 1000, 100, 480).compare(baseline, 10, 25)).isEmpty();
+        Assertions.assertThat(result(WORKLOAD, 1000, 100, 560).compare(baseline, 10, 25))
+                .singleElement()
+                .asString()
+                .startsWith("threads.8.unmarshal.p999:")
+                .contains("allowed 25%");
+        Assertions.assertThat(result(WORKLOAD, 1000, 100, 480).compare(baseline, 10, 10)).singleElement().asString().contains("p999");
+    }
+
+    @Test
+    public void testCompare_workloadMismatch() {
+        SoakResult baseline = result(Map.of("threadType", "virtual", "mix", "unmarshal=3,marshal=1"), 1000, 100, 400);
+
+        Assertions.assertThatThrownBy(() -> result(WORKLOAD, 1000, 100, 400).compare(baseline, 10, 25))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("virtual")
+                .hasMessageContaining("platform");
+    }
+
+    @Test
+    public void testWriteRead_roundTrip() throws IOException {
+        Path file = directory.resolve("baseline.properties");
+        SoakResult written = result(WORKLOAD, 1000, 100, 400);
+
+        written.write(file);
+        SoakResult read = SoakResult.read(file);
+
+        // the values are written with one decimal
+        read.checkWorkload(WORKLOAD);
+        Assertions.assertThat(written.compare(read, 0.1, 0.1)).isEmpty();
+        Assertions.assertThat(read.compare(written, 0.1, 0.1)).isEmpty();
+        Assertions.assertThat(result(WORKLOAD, 980, 100, 400).compare(read, 1, 1))
+                .singleElement()
+                .asString()
+                .startsWith("threads.8.unmarshal.throughput: 1000.0 -> 980.0");
+    }
+
+    @Test
+    public void testExecute_baselineOfOtherWorkload() throws Exception {
+        Path file = directory.resolve("baseline.properties");
+        SoakOptions options = SoakOptions.parse(new String[] { "--thread-type", "virtual" });
+        result(options.workload(), 1000, 100, 400).write(file);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        int status = SoakRunner.execute(new String[] { "--baseline", file.toString() }, new PrintStream(out, true, StandardCharsets.UTF_8),
+                System.err);
+
+        Assertions.assertThat(status).isEqualTo(2);
+        Assertions.assertThat(out.toString(StandardCharsets.UTF_8)).contains("differs from the current workload");
+    }
+}
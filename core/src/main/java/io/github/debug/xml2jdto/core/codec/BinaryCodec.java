@@ -0,0 +1,41 @@
+package io.github.debug.xml2jdto.core.codec;
+
+/**
+ * Binary encoder and decoder of one generated DTO class.
+ * <p>
+ * The implementations are generated by the {@code -Xxml2jdto-binary} XJC plugin next to the DTO classes and are registered through a
+ * {@link BinaryCodecProvider}; they access the fields of the DTO directly, without reflection. A codec is stateless and thread safe.
+ * </p>
+ *
+ * @param <T>
+ *            the type of the DTO
+ * @author scheffer.imrich
+ */
+public interface BinaryCodec<T> {
+
+    /**
+     * Returns the DTO class of the codec.
+     *
+     * @return the DTO class of the codec
+     */
+    Class<T> type();
+
+    /**
+     * Writes the fields of the DTO followed by the end of group key.
+     *
+     * @param value
+     *            the DTO, not null
+     * @param out
+     *            the writer of the message
+     */
+    void write(T value, BinaryWriter out);
+
+    /**
+     * Creates a DTO and reads its fields up to the end of group key.
+     *
+     * @param in
+     *            the reader of the message
+     * @return the decoded DTO
+     */
+    T read(BinaryReader in);
+}
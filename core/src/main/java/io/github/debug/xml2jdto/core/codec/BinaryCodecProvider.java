@@ -0,0 +1,23 @@
+package io.github.debug.xml2jdto.core.codec;
+
+import java.util.List;
+
+/**
+ * Service provider of the generated {@link BinaryCodec} classes of a Java package.
+ * <p>
+ * The {@code -Xxml2jdto-binary} XJC plugin generates one provider per DTO package and lists them in
+ * {@code META-INF/services/io.github.debug.xml2jdto.core.codec.BinaryCodecProvider}, so {@link BinaryCodecs} finds them with the
+ * {@link java.util.ServiceLoader}.
+ * </p>
+ *
+ * @author scheffer.imrich
+ */
+public interface BinaryCodecProvider {
+
+    /**
+     * Returns the codecs of the package.
+     *
+     * @return the codecs of the concrete DTO classes of the package
+     */
+    List<BinaryCodec<?>> codecs();
+}
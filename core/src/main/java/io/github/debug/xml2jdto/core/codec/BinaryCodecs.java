@@ -0,0 +1,156 @@
+package io.github.debug.xml2jdto.core.codec;
+
+import java.util.Optional;
+import java.util.ServiceLoader;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import io.github.debug.xml2jdto.core.exception.ExBuilder;
+import io.github.debug.xml2jdto.core.exception.InvalidMethodParameterException;
+import io.github.debug.xml2jdto.core.exception.Xml2jDtoException;
+import io.github.debug.xml2jdto.core.jaxb.JaxbUtil;
+
+/**
+ * Registry and entry points of the compact binary codecs generated by the {@code -Xxml2jdto-binary} XJC plugin.
+ * <p>
+ * The binary form is a fast and small alternative of XML and Java serialization for the internal hops of the same DTOs, e.g. caches and messages
+ * between own services; it is not self-describing and both sides must use codecs generated from the same XSD. Fields added to the end of a content
+ * model stay compatible: an older codec skips their tags.
+ * </p>
+ * <p>
+ * The codecs are looked up with the {@link ServiceLoader} of {@link BinaryCodecProvider} from the class loader of the DTO class, once per class;
+ * the result is held in a {@link ClassValue}, which does not keep the DTO classes and their class loaders alive.
+ * </p>
+ *
+ * @author scheffer.imrich
+ */
+public final class BinaryCodecs {
+
+    private static final Logger LOGGER = Logger.getLogger(BinaryCodecs.class.getName());
+
+    private static final ClassValue<Optional<Registration>> REGISTRATIONS = new ClassValue<>() {
+        @Override
+        protected Optional<Registration> computeValue(Class<?> type) {
+            return lookup(type);
+        }
+    };
+
+    private BinaryCodecs() {
+        super();
+    }
+
+    /**
+     * Checks whether a binary codec has been generated for the class.
+     *
+     * @param type
+     *            the DTO class
+     * @return true if {@link #encode(Object)} and {@link #decode(byte[], Class)} support the class
+     */
+    public static boolean isSupported(Class<?> type) {
+        return type != null && REGISTRATIONS.get(type).isPresent();
+    }
+
+    /**
+     * Returns the generated binary codec of the class.
+     *
+     * @param <T>
+     *            the type of the DTO
+     * @param type
+     *            the DTO class
+     * @return the codec
+     * @throws InvalidMethodParameterException
+     *             if the type is null
+     * @throws Xml2jDtoException
+     *             if no codec has been generated for the class
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> BinaryCodec<T> codec(Class<T> type) {
+        return (BinaryCodec<T>) registration(type).codec;
+    }
+
+    /**
+     * Encodes the DTO into the compact binary form with its generated codec.
+     *
+     * @param <T>
+     *            the type of the DTO
+     * @param dto
+     *            the DTO; if null, the method returns null
+     * @return the encoded DTO, or null if the DTO is null
+     * @throws Xml2jDtoException
+     *             if no codec has been generated for the class of the DTO
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> byte[] encode(T dto) {
+        if (dto == null) {
+            return null;
+        }
+        Registration registration = registration(dto.getClass());
+        BinaryWriter writer = new BinaryWriter(registration.lastSize);
+        ((BinaryCodec<T>) registration.codec).write(dto, writer);
+        registration.lastSize = writer.size();
+        return writer.toByteArray();
+    }
+
+    /**
+     * Decodes a DTO encoded by {@link #encode(Object)}.
+     *
+     * @param <T>
+     *            the type of the DTO
+     * @param data
+     *            the encoded DTO; if null, the method returns null
+     * @param type
+     *            the DTO class, the same class that was encoded
+     * @return the decoded DTO, or null if the data is null
+     * @throws InvalidMethodParameterException
+     *             if the type is null
+     * @throws Xml2jDtoException
+     *             if no codec has been generated for the class or the data is corrupt
+     */
+    public static <T> T decode(byte[] data, Class<T> type) {
+        BinaryCodec<T> codec = codec(type);
+        if (data == null) {
+            return null;
+        }
+        BinaryReader reader = new BinaryReader(data);
+        T value = codec.read(reader);
+        reader.requireEnd();
+        return value;
+    }
+
+    private static Registration registration(Class<?> type) {
+        if (type == null) {
+            throw new InvalidMethodParameterException(JaxbUtil.CLAZZ_NULL_MSG);
+        }
+        return REGISTRATIONS.get(type)
+                .orElseThrow(() -> ExBuilder.newXml2jDtoException()
+                        .withMessage("No binary codec for class [{0}], generate it with the -Xxml2jdto-binary XJC plugin!", type.getName())
+                        .build());
+    }
+
+    private static Optional<Registration> lookup(Class<?> type) {
+        ClassLoader classLoader = type.getClassLoader() != null ? type.getClassLoader() : Thread.currentThread().getContextClassLoader();
+        for (BinaryCodecProvider provider : ServiceLoader.load(BinaryCodecProvider.class, classLoader)) {
+            for (BinaryCodec<?> codec : provider.codecs()) {
+                if (codec.type() == type) {
+                    LOGGER.log(Level.FINE, "Binary codec of [{0}]: [{1}]", new Object[] { type.getName(), codec.getClass().getName() });
+                    return Optional.of(new Registration(codec));
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static final class Registration {
+
+        private final BinaryCodec<?> codec;
+
+        /**
+         * Size of the last message of the class, the initial buffer size of the next one.
+         */
+        private volatile int lastSize;
+
+        private Registration(BinaryCodec<?> codec) {
+            this.codec = codec;
+        }
+    }
+}
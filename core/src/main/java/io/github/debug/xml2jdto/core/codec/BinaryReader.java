@@ -0,0 +1,394 @@
+package io.github.debug.xml2jdto.core.codec;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.xml.datatype.DatatypeConfigurationException;
+import javax.xml.datatype.DatatypeFactory;
+import javax.xml.datatype.Duration;
+import javax.xml.datatype.XMLGregorianCalendar;
+
+import io.github.debug.xml2jdto.core.exception.ExBuilder;
+import io.github.debug.xml2jdto.core.exception.Xml2jDtoException;
+
+/**
+ * Decoder of the compact binary format written by {@link BinaryWriter}.
+ * <p>
+ * Every read is bounds checked, truncated or corrupt data ends in an {@link Xml2jDtoException}. Fields with unknown tags, e.g. written by a codec
+ * generated from a newer version of the XSD, are skipped with {@link #skip(int)}. The reader is not thread safe and is meant for a single message.
+ * </p>
+ *
+ * @author scheffer.imrich
+ */
+public final class BinaryReader {
+
+    private static final VarHandle INT_LE = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private static final VarHandle LONG_LE = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    /**
+     * Maximum nesting depth of the groups of a message.
+     */
+    public static final int MAX_GROUP_DEPTH = 512;
+
+    private final List<String> stringTable = new ArrayList<>();
+
+    private final byte[] buffer;
+
+    private final int limit;
+
+    private int position;
+
+    private int depth;
+
+    /**
+     * Creates a reader of a message and checks its format version.
+     *
+     * @param data
+     *            the message written by {@link BinaryWriter}
+     * @throws Xml2jDtoException
+     *             if the message is empty or has an unsupported format version
+     */
+    public BinaryReader(byte[] data) {
+        this.buffer = data;
+        this.limit = data.length;
+        int version = limit == 0 ? -1 : buffer[position++];
+        if (version != BinaryWriter.FORMAT_VERSION) {
+            throw ExBuilder.newXml2jDtoException().withMessage("Unsupported binary format version [{0}]", String.valueOf(version)).build();
+        }
+    }
+
+    /**
+     * Reads the key of the next field.
+     *
+     * @return the key {@code tag << 3 | wireType}, or {@code 0} at the end of a group
+     */
+    public int readKey() {
+        return readVarint();
+    }
+
+    /**
+     * Reads the index of the concrete subtype of a {@link BinaryWriter#TYPED_GROUP} value.
+     *
+     * @param subtypeCount
+     *            the number of subtypes known by the generated codec
+     * @return the index of the subtype
+     * @throws Xml2jDtoException
+     *             if the index is out of range
+     */
+    public int readSubtype(int subtypeCount) {
+        int index = readVarint();
+        if (index < 0 || index >= subtypeCount) {
+            throw corrupt("subtype index " + index);
+        }
+        return index;
+    }
+
+    /**
+     * Reads the next {@link BinaryWriter#VARINT} boolean value.
+     *
+     * @return the value
+     */
+    public boolean readBoolean() {
+        return readVarint() != 0;
+    }
+
+    /**
+     * Reads the next zigzag encoded {@link BinaryWriter#VARINT} {@code int} value.
+     *
+     * @return the value
+     */
+    public int readInt() {
+        int v = readVarint();
+        return v >>> 1 ^ -(v & 1);
+    }
+
+    /**
+     * Reads the next zigzag encoded {@link BinaryWriter#VARINT} {@code long} value.
+     *
+     * @return the value
+     */
+    public long readLong() {
+        long v = readVarint64();
+        return v >>> 1 ^ -(v & 1);
+    }
+
+    /**
+     * Reads the next {@link BinaryWriter#FIXED32} {@code float} value.
+     *
+     * @return the value
+     */
+    public float readFloat() {
+        require(Integer.BYTES);
+        float value = Float.intBitsToFloat((int) INT_LE.get(buffer, position));
+        position += Integer.BYTES;
+        return value;
+    }
+
+    /**
+     * Reads the next {@link BinaryWriter#FIXED64} {@code double} value.
+     *
+     * @return the value
+     */
+    public double readDouble() {
+        require(Long.BYTES);
+        double value = Double.longBitsToDouble((long) LONG_LE.get(buffer, position));
+        position += Long.BYTES;
+        return value;
+    }
+
+    /**
+     * Reads the next {@link BinaryWriter#VARINT} enum value.
+     *
+     * @param <E>
+     *            the type of the enum
+     * @param values
+     *            the constants of the enum in declaration order
+     * @return the constant of the ordinal
+     * @throws Xml2jDtoException
+     *             if the ordinal is out of range
+     */
+    public <E extends Enum<E>> E readEnum(E[] values) {
+        int ordinal = readVarint();
+        if (ordinal < 0 || ordinal >= values.length) {
+            throw corrupt("ordinal " + ordinal + " of " + values.getClass().getComponentType().getName());
+        }
+        return values[ordinal];
+    }
+
+    /**
+     * Reads the next {@link BinaryWriter#STRING} value.
+     *
+     * @return the value
+     */
+    public String readString() {
+        int header = readVarint();
+        if ((header & 1) != 0) {
+            int index = header >>> 1;
+            if (index >= stringTable.size()) {
+                throw corrupt("string reference " + index);
+            }
+            return stringTable.get(index);
+        }
+        int length = header >>> 1;
+        require(length);
+        String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+        position += length;
+        if (value.length() <= BinaryWriter.MAX_TABLE_STRING_LENGTH && stringTable.size() < BinaryWriter.MAX_TABLE_SIZE) {
+            stringTable.add(value);
+        }
+        return value;
+    }
+
+    /**
+     * Reads the next {@link BinaryWriter#STRING} date value.
+     *
+     * @return the value
+     */
+    public XMLGregorianCalendar readCalendar() {
+        String lexical = readString();
+        try {
+            return DatatypeFactoryHolder.INSTANCE.newXMLGregorianCalendar(lexical);
+        } catch (IllegalArgumentException e) {
+            throw corrupt("date value " + lexical);
+        }
+    }
+
+    /**
+     * Reads the next {@link BinaryWriter#STRING} duration value.
+     *
+     * @return the value
+     */
+    public Duration readDuration() {
+        String lexical = readString();
+        try {
+            return DatatypeFactoryHolder.INSTANCE.newDuration(lexical);
+        } catch (IllegalArgumentException | UnsupportedOperationException e) {
+            throw corrupt("duration value " + lexical);
+        }
+    }
+
+    /**
+     * Reads the next {@link BinaryWriter#BYTES} value.
+     *
+     * @return the value
+     */
+    public byte[] readBytes() {
+        int length = readLength();
+        byte[] value = Arrays.copyOfRange(buffer, position, position + length);
+        position += length;
+        return value;
+    }
+
+    /**
+     * Reads the next {@link BinaryWriter#BYTES} {@link BigInteger} value.
+     *
+     * @return the value
+     */
+    public BigInteger readBigInteger() {
+        int length = readLength();
+        if (length == 0) {
+            throw corrupt("empty integer");
+        }
+        BigInteger value = new BigInteger(buffer, position, length);
+        position += length;
+        return value;
+    }
+
+    /**
+     * Reads the next {@link BinaryWriter#BYTES} {@link BigDecimal} value.
+     *
+     * @return the value
+     */
+    public BigDecimal readBigDecimal() {
+        int length = readLength();
+        int end = position + length;
+        int zigzagScale = readVarint();
+        int scale = zigzagScale >>> 1 ^ -(zigzagScale & 1);
+        if (end - position <= 0) {
+            throw corrupt("decimal value");
+        }
+        BigDecimal value = new BigDecimal(new BigInteger(buffer, position, end - position), scale);
+        position = end;
+        return value;
+    }
+
+    /**
+     * Skips the value of a field with an unknown tag.
+     *
+     * @param key
+     *            the key of the field returned by {@link #readKey()}
+     * @throws Xml2jDtoException
+     *             if the wire type of the key is unknown
+     */
+    public void skip(int key) {
+        switch (key & 7) {
+            case BinaryWriter.VARINT -> readVarint64();
+            case BinaryWriter.FIXED64 -> skipBytes(Long.BYTES);
+            case BinaryWriter.FIXED32 -> skipBytes(Integer.BYTES);
+            case BinaryWriter.BYTES -> skipBytes(readLength());
+            // the literals of the skipped strings are still entered into the string table
+            case BinaryWriter.STRING -> readString();
+            case BinaryWriter.GROUP -> skipGroup();
+            case BinaryWriter.TYPED_GROUP -> {
+                readVarint();
+                skipGroup();
+            }
+            default -> throw corrupt("wire type " + (key & 7));
+        }
+    }
+
+    /**
+     * Marks the start of the fields of a nested object, limiting the nesting depth of the groups, so a corrupt or hostile message cannot exhaust the
+     * stack of the recursive decoding.
+     *
+     * @throws Xml2jDtoException
+     *             if the groups are nested deeper than {@value #MAX_GROUP_DEPTH}
+     */
+    public void enterGroup() {
+        if (++depth > MAX_GROUP_DEPTH) {
+            throw corrupt("groups nested deeper than " + MAX_GROUP_DEPTH);
+        }
+    }
+
+    /**
+     * Marks the end of the fields of a nested object started by {@link #enterGroup()}.
+     */
+    public void exitGroup() {
+        depth--;
+    }
+
+    /**
+     * Checks that the whole message has been read.
+     *
+     * @throws Xml2jDtoException
+     *             if there are bytes after the end of the root object
+     */
+    public void requireEnd() {
+        if (position != limit) {
+            throw corrupt((limit - position) + " trailing bytes");
+        }
+    }
+
+    /**
+     * Creates the exception of a required value that is missing from the message, e.g. a nested group that could not be decoded.
+     *
+     * @param what
+     *            description of the corrupt value
+     * @return the exception to be thrown
+     */
+    public Xml2jDtoException corrupt(String what) {
+        return ExBuilder.newXml2jDtoException().withMessage("Corrupt binary data at offset [{0}]: [{1}]", String.valueOf(position), what).build();
+    }
+
+    private void skipGroup() {
+        enterGroup();
+        for (int key = readKey(); key != 0; key = readKey()) {
+            skip(key);
+        }
+        exitGroup();
+    }
+
+    private void skipBytes(int length) {
+        require(length);
+        position += length;
+    }
+
+    private int readLength() {
+        int length = readVarint();
+        require(length);
+        return length;
+    }
+
+    private void require(int length) {
+        if (length < 0 || limit - position < length) {
+            throw corrupt("truncated, " + length + " bytes required");
+        }
+    }
+
+    private int readVarint() {
+        int result = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            require(1);
+            byte b = buffer[position++];
+            result |= (b & 0x7f) << shift;
+            if (b >= 0) {
+                return result;
+            }
+        }
+        throw corrupt("varint too long");
+    }
+
+    private long readVarint64() {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            require(1);
+            byte b = buffer[position++];
+            result |= (long) (b & 0x7f) << shift;
+            if (b >= 0) {
+                return result;
+            }
+        }
+        throw corrupt("varint too long");
+    }
+
+    private static final class DatatypeFactoryHolder {
+
+        private static final DatatypeFactory INSTANCE = create();
+
+        private static DatatypeFactory create() {
+            try {
+                return DatatypeFactory.newInstance();
+            } catch (DatatypeConfigurationException e) {
+                throw ExBuilder.newXml2jDtoException().withMessage("Failed to create DatatypeFactory: [{0}]", e.getLocalizedMessage()).withCause(e).build();
+            }
+        }
+    }
+}
@@ -0,0 +1,363 @@
+package io.github.debug.xml2jdto.core.codec;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.xml.datatype.Duration;
+import javax.xml.datatype.XMLGregorianCalendar;
+
+import io.github.debug.xml2jdto.core.exception.ExBuilder;
+import io.github.debug.xml2jdto.core.exception.Xml2jDtoException;
+
+/**
+ * Encoder of the compact binary format of the generated {@link BinaryCodec} classes.
+ * <p>
+ * A message is a sequence of fields. Every field starts with a key, the unsigned varint {@code tag << 3 | wireType}, where the tag is the 1-based
+ * position of the property in the XSD content model of the class and its superclasses, followed by the value encoded according to the wire type.
+ * Nested objects are groups closed by the key {@code 0}, repeated elements are repeated fields with the same tag, and absent (null) values are not
+ * written at all.
+ * </p>
+ * <p>
+ * Integer numbers are zigzag varints, so small negative numbers stay small. Strings up to {@value #MAX_TABLE_STRING_LENGTH} characters are entered
+ * into the string table of the message: the first occurrence is written as UTF-8 literal, every later occurrence as the index of the literal. The
+ * writer is not thread safe and is meant for a single message.
+ * </p>
+ *
+ * @author scheffer.imrich
+ */
+public final class BinaryWriter {
+
+    /**
+     * Version of the format, the first byte of every message.
+     */
+    public static final int FORMAT_VERSION = 1;
+
+    /**
+     * Wire type of the zigzag or plain varint values: integer numbers, booleans and enum ordinals.
+     */
+    public static final int VARINT = 0;
+
+    /**
+     * Wire type of the 8 byte little-endian values, {@code double}.
+     */
+    public static final int FIXED64 = 1;
+
+    /**
+     * Wire type of the length prefixed byte values: {@code byte[]}, {@link BigInteger} and {@link BigDecimal}.
+     */
+    public static final int BYTES = 2;
+
+    /**
+     * Wire type of the nested objects, closed by the key {@code 0}.
+     */
+    public static final int GROUP = 3;
+
+    /**
+     * Wire type of the nested objects of a polymorphic property: the varint index of the concrete subtype followed by a group.
+     */
+    public static final int TYPED_GROUP = 4;
+
+    /**
+     * Wire type of the strings and of the XML date and duration values in their lexical form, a string table literal or reference.
+     */
+    public static final int STRING = 5;
+
+    /**
+     * Wire type of the 4 byte little-endian values, {@code float}.
+     */
+    public static final int FIXED32 = 6;
+
+    /**
+     * Strings up to this length are entered into the string table.
+     */
+    public static final int MAX_TABLE_STRING_LENGTH = 256;
+
+    /**
+     * Maximum number of entries of the string table of a message, the later strings are written as literals.
+     */
+    public static final int MAX_TABLE_SIZE = 1 << 16;
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+    private static final VarHandle INT_LE = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private static final VarHandle LONG_LE = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private final Map<String, Integer> stringTable = new HashMap<>();
+
+    private int stringCount;
+
+    private byte[] buffer;
+
+    private int count;
+
+    /**
+     * Creates a writer with a small initial buffer and writes the format version.
+     */
+    public BinaryWriter() {
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Creates a writer and writes the format version.
+     *
+     * @param initialCapacity
+     *            initial size of the buffer in bytes, e.g. the size of a previous message of the same type
+     */
+    public BinaryWriter(int initialCapacity) {
+        buffer = new byte[Math.max(INITIAL_CAPACITY, initialCapacity)];
+        buffer[count++] = FORMAT_VERSION;
+    }
+
+    /**
+     * Writes the key of a field.
+     *
+     * @param tag
+     *            the tag of the property, at least 1
+     * @param wireType
+     *            the wire type of the value
+     */
+    public void writeKey(int tag, int wireType) {
+        writeVarint(tag << 3 | wireType);
+    }
+
+    /**
+     * Writes the key {@code 0}, the end of a group.
+     */
+    public void writeEnd() {
+        ensureCapacity(1);
+        buffer[count++] = 0;
+    }
+
+    /**
+     * Writes the index of the concrete subtype of a {@link #TYPED_GROUP} value.
+     *
+     * @param index
+     *            the index of the subtype in the generated codec
+     */
+    public void writeSubtype(int index) {
+        writeVarint(index);
+    }
+
+    /**
+     * Writes a {@link #VARINT} boolean value.
+     *
+     * @param value
+     *            the value
+     */
+    public void writeBoolean(boolean value) {
+        ensureCapacity(1);
+        buffer[count++] = (byte) (value ? 1 : 0);
+    }
+
+    /**
+     * Writes a {@link #VARINT} {@code int} value, zigzag encoded. Also used for the {@code byte} and {@code short} values.
+     *
+     * @param value
+     *            the value
+     */
+    public void writeInt(int value) {
+        writeVarint(value << 1 ^ value >> 31);
+    }
+
+    /**
+     * Writes a {@link #VARINT} {@code long} value, zigzag encoded.
+     *
+     * @param value
+     *            the value
+     */
+    public void writeLong(long value) {
+        writeVarint64(value << 1 ^ value >> 63);
+    }
+
+    /**
+     * Writes a {@link #FIXED32} {@code float} value.
+     *
+     * @param value
+     *            the value
+     */
+    public void writeFloat(float value) {
+        ensureCapacity(Integer.BYTES);
+        INT_LE.set(buffer, count, Float.floatToRawIntBits(value));
+        count += Integer.BYTES;
+    }
+
+    /**
+     * Writes a {@link #FIXED64} {@code double} value.
+     *
+     * @param value
+     *            the value
+     */
+    public void writeDouble(double value) {
+        ensureCapacity(Long.BYTES);
+        LONG_LE.set(buffer, count, Double.doubleToRawLongBits(value));
+        count += Long.BYTES;
+    }
+
+    /**
+     * Writes a {@link #VARINT} enum value, its ordinal.
+     *
+     * @param value
+     *            the value, not null
+     */
+    public void writeEnum(Enum<?> value) {
+        writeVarint(value.ordinal());
+    }
+
+    /**
+     * Writes a {@link #STRING} value, a reference to the string table if the string has already been written, otherwise a literal.
+     *
+     * @param value
+     *            the value, not null
+     */
+    public void writeString(String value) {
+        if (value.length() <= MAX_TABLE_STRING_LENGTH) {
+            boolean full = stringCount >= MAX_TABLE_SIZE;
+            Integer index = full ? stringTable.get(value) : stringTable.putIfAbsent(value, stringCount);
+            if (index != null) {
+                writeVarint(index << 1 | 1);
+                return;
+            }
+            if (!full) {
+                stringCount++;
+            }
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        writeVarint(utf8.length << 1);
+        writeRaw(utf8, utf8.length);
+    }
+
+    /**
+     * Writes a {@link #STRING} date value in its XML lexical form.
+     *
+     * @param value
+     *            the value, not null
+     */
+    public void writeCalendar(XMLGregorianCalendar value) {
+        writeString(value.toXMLFormat());
+    }
+
+    /**
+     * Writes a {@link #STRING} duration value in its XML lexical form.
+     *
+     * @param value
+     *            the value, not null
+     */
+    public void writeDuration(Duration value) {
+        writeString(value.toString());
+    }
+
+    /**
+     * Writes a {@link #BYTES} value.
+     *
+     * @param value
+     *            the value, not null
+     */
+    public void writeBytes(byte[] value) {
+        writeVarint(value.length);
+        writeRaw(value, value.length);
+    }
+
+    /**
+     * Writes a {@link #BYTES} value, the two's-complement representation of the number.
+     *
+     * @param value
+     *            the value, not null
+     */
+    public void writeBigInteger(BigInteger value) {
+        writeBytes(value.toByteArray());
+    }
+
+    /**
+     * Writes a {@link #BYTES} value, the zigzag varint scale followed by the two's-complement representation of the unscaled value.
+     *
+     * @param value
+     *            the value, not null
+     */
+    public void writeBigDecimal(BigDecimal value) {
+        int scale = value.scale() << 1 ^ value.scale() >> 31;
+        byte[] unscaled = value.unscaledValue().toByteArray();
+        writeVarint(varintSize(scale) + unscaled.length);
+        writeVarint(scale);
+        writeRaw(unscaled, unscaled.length);
+    }
+
+    /**
+     * Returns the size of the message.
+     *
+     * @return the number of bytes written so far
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Returns the written message.
+     *
+     * @return an exact-sized copy of the written message
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, count);
+    }
+
+    /**
+     * Creates the exception of a value of a polymorphic property whose class is not known by the generated codec.
+     *
+     * @param value
+     *            the value
+     * @return the exception to be thrown
+     */
+    public static Xml2jDtoException unknownSubtype(Object value) {
+        return ExBuilder.newXml2jDtoException().withMessage("No binary codec subtype for class [{0}]", value.getClass().getName()).build();
+    }
+
+    private void writeVarint(int value) {
+        ensureCapacity(5);
+        int v = value;
+        while ((v & ~0x7f) != 0) {
+            buffer[count++] = (byte) (v & 0x7f | 0x80);
+            v >>>= 7;
+        }
+        buffer[count++] = (byte) v;
+    }
+
+    private void writeVarint64(long value) {
+        ensureCapacity(10);
+        long v = value;
+        while ((v & ~0x7fL) != 0) {
+            buffer[count++] = (byte) (v & 0x7f | 0x80);
+            v >>>= 7;
+        }
+        buffer[count++] = (byte) v;
+    }
+
+    private static int varintSize(int value) {
+        return (38 - Integer.numberOfLeadingZeros(value | 1)) / 7;
+    }
+
+    private void writeRaw(byte[] bytes, int length) {
+        ensureCapacity(length);
+        System.arraycopy(bytes, 0, buffer, count, length);
+        count += length;
+    }
+
+    private void ensureCapacity(int length) {
+        int minCapacity = count + length;
+        if (minCapacity - buffer.length <= 0) {
+            return;
+        }
+        if (minCapacity < 0 || minCapacity > MAX_ARRAY_SIZE) {
+            throw new OutOfMemoryError("Required binary buffer size too large: " + ((long) count + length));
+        }
+        buffer = Arrays.copyOf(buffer, (int) Math.min(MAX_ARRAY_SIZE, Math.max((long) buffer.length << 1, minCapacity)));
+    }
+}
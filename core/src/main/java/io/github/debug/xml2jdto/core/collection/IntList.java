@@ -0,0 +1,200 @@
+package io.github.debug.xml2jdto.core.collection;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Growable list of {@code int} values backed by an {@code int[]}, the type of the repeated {@code xs:int} elements of the classes generated with the
+ * {@code -Xxml2jdto-primitive-lists} XJC option.
+ * <p>
+ * An {@code ArrayList<Integer>} holds a reference and a boxed {@code Integer} for every value, about 20 bytes per value instead of 4. The list
+ * implements {@code List<Integer>}, so JAXB and the existing code use it unchanged, boxing on access; {@link #getInt(int)} and {@link #addInt(int)}
+ * read and add without boxing. Null elements are not permitted.
+ * </p>
+ *
+ * @author scheffer.imrich
+ */
+public class IntList extends AbstractList<Integer> implements RandomAccess, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int[] EMPTY = {};
+
+    /**
+     * The values, followed by unused capacity.
+     */
+    private int[] values;
+
+    /**
+     * Number of values in the list.
+     */
+    private int size;
+
+    /**
+     * Creates an empty list, the backing array is allocated by the first added value.
+     */
+    public IntList() {
+        this.values = EMPTY;
+    }
+
+    /**
+     * Creates an empty list with the given capacity.
+     *
+     * @param initialCapacity
+     *            the number of values the list can hold without growing
+     */
+    public IntList(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Negative capacity: " + initialCapacity);
+        }
+        this.values = initialCapacity == 0 ? EMPTY : new int[initialCapacity];
+    }
+
+    /**
+     * Returns the value at the index without boxing.
+     *
+     * @param index
+     *            index of the value
+     * @return the value
+     */
+    public int getInt(int index) {
+        Objects.checkIndex(index, size);
+        return values[index];
+    }
+
+    /**
+     * Replaces the value at the index without boxing.
+     *
+     * @param index
+     *            index of the value
+     * @param value
+     *            the new value
+     * @return the previous value
+     */
+    public int setInt(int index, int value) {
+        Objects.checkIndex(index, size);
+        int previous = values[index];
+        values[index] = value;
+        return previous;
+    }
+
+    /**
+     * Appends a value without boxing.
+     *
+     * @param value
+     *            the value
+     */
+    public void addInt(int value) {
+        modCount++;
+        if (size == values.length) {
+            grow(size + 1);
+        }
+        values[size++] = value;
+    }
+
+    /**
+     * Returns the values in a new array.
+     *
+     * @return the values
+     */
+    public int[] toIntArray() {
+        return Arrays.copyOf(values, size);
+    }
+
+    /**
+     * Grows the backing array, if needed, to hold the given number of values.
+     *
+     * @param minCapacity
+     *            the number of values
+     */
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > values.length) {
+            modCount++;
+            grow(minCapacity);
+        }
+    }
+
+    /**
+     * Shrinks the backing array to the size of the list.
+     */
+    public void trimToSize() {
+        if (size < values.length) {
+            modCount++;
+            values = size == 0 ? EMPTY : Arrays.copyOf(values, size);
+        }
+    }
+
+    @Override
+    public Integer get(int index) {
+        return getInt(index);
+    }
+
+    @Override
+    public Integer set(int index, Integer element) {
+        return setInt(index, element);
+    }
+
+    @Override
+    public boolean add(Integer element) {
+        addInt(element);
+        return true;
+    }
+
+    @Override
+    public void add(int index, Integer element) {
+        Objects.checkIndex(index, size + 1);
+        int value = element;
+        modCount++;
+        if (size == values.length) {
+            grow(size + 1);
+        }
+        System.arraycopy(values, index, values, index + 1, size - index);
+        values[index] = value;
+        size++;
+    }
+
+    @Override
+    public Integer remove(int index) {
+        Objects.checkIndex(index, size);
+        modCount++;
+        int previous = values[index];
+        System.arraycopy(values, index + 1, values, index, size - index - 1);
+        size--;
+        return previous;
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        if (o instanceof Integer value) {
+            for (int i = 0; i < size; i++) {
+                if (values[i] == value) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    @Override
+    public void clear() {
+        modCount++;
+        size = 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    private void grow(int minCapacity) {
+        values = Arrays.copyOf(values, Math.max(minCapacity, values.length < 5 ? 10 : values.length + (values.length >> 1)));
+    }
+}
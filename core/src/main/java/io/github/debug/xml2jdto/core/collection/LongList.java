@@ -0,0 +1,200 @@
+package io.github.debug.xml2jdto.core.collection;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.RandomAccess;
+
+/**
+ * Growable list of {@code long} values backed by a {@code long[]}, the type of the repeated {@code xs:long} elements of the classes generated with
+ * the {@code -Xxml2jdto-primitive-lists} XJC option.
+ * <p>
+ * An {@code ArrayList<Long>} holds a reference and a boxed {@code Long} for every value, about 24 bytes per value instead of 8. The list
+ * implements {@code List<Long>}, so JAXB and the existing code use it unchanged, boxing on access;
+ * {@link #getLong(int)} and {@link #addLong(long)} read and add without boxing. Null elements are not permitted.
+ * </p>
+ *
+ * @author scheffer.imrich
+ */
+public class LongList extends AbstractList<Long> implements RandomAccess, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final long[] EMPTY = {};
+
+    /**
+     * The values, followed by unused capacity.
+     */
+    private long[] values;
+
+    /**
+     * Number of values in the list.
+     */
+    private int size;
+
+    /**
+     * Creates an empty list, the backing array is allocated by the first added value.
+     */
+    public LongList() {
+        this.values = EMPTY;
+    }
+
+    /**
+     * Creates an empty list with the given capacity.
+     *
+     * @param initialCapacity
+     *            the number of values the list can hold without growing
+     */
+    public LongList(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("Negative capacity: " + initialCapacity);
+        }
+        this.values = initialCapacity == 0 ? EMPTY : new long[initialCapacity];
+    }
+
+    /**
+     * Returns the value at the index without boxing.
+     *
+     * @param index
+     *            index of the value
+     * @return the value
+     */
+    public long getLong(int index) {
+        Objects.checkIndex(index, size);
+        return values[index];
+    }
+
+    /**
+     * Replaces the value at the index without boxing.
+     *
+     * @param index
+     *            index of the value
+     * @param value
+     *            the new value
+     * @return the previous value
+     */
+    public long setLong(int index, long value) {
+        Objects.checkIndex(index, size);
+        long previous = values[index];
+        values[index] = value;
+        return previous;
+    }
+
+    /**
+     * Appends a value without boxing.
+     *
+     * @param value
+     *            the value
+     */
+    public void addLong(long value) {
+        modCount++;
+        if (size == values.length) {
+            grow(size + 1);
+        }
+        values[size++] = value;
+    }
+
+    /**
+     * Returns the values in a new array.
+     *
+     * @return the values
+     */
+    public long[] toLongArray() {
+        return Arrays.copyOf(values, size);
+    }
+
+    /**
+     * Grows the backing array, if needed, to hold the given number of values.
+     *
+     * @param minCapacity
+     *            the number of values
+     */
+    public void ensureCapacity(int minCapacity) {
+        if (minCapacity > values.length) {
+            modCount++;
+            grow(minCapacity);
+        }
+    }
+
+    /**
+     * Shrinks the backing array to the size of the list.
+     */
+    public void trimToSize() {
+        if (size < values.length) {
+            modCount++;
+            values = size == 0 ? EMPTY : Arrays.copyOf(values, size);
+        }
+    }
+
+    @Override
+    public Long get(int index) {
+        return getLong(index);
+    }
+
+    @Override
+    public Long set(int index, Long element) {
+        return setLong(index, element);
+    }
+
+    @Override
+    public boolean add(Long element) {
+        addLong(element);
+        return true;
+    }
+
+    @Override
+    public void add(int index, Long element) {
+        Objects.checkIndex(index, size + 1);
+        long value = element;
+        modCount++;
+        if (size == values.length) {
+            grow(size + 1);
+        }
+        System.arraycopy(values, index, values, index + 1, size - index);
+        values[index] = value;
+        size++;
+    }
+
+    @Override
+    public Long remove(int index) {
+        Objects.checkIndex(index, size);
+        modCount++;
+        long previous = values[index];
+        System.arraycopy(values, index + 1, values, index, size - index - 1);
+        size--;
+        return previous;
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        if (o instanceof Long value) {
+            for (int i = 0; i < size; i++) {
+                if (values[i] == value) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    @Override
+    public void clear() {
+        modCount++;
+        size = 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    private void grow(int minCapacity) {
+        values = Arrays.copyOf(values, Math.max(minCapacity, values.length < 5 ? 10 : values.length + (values.length >> 1)));
+    }
+}
@@ -0,0 +1,92 @@
+package io.github.debug.xml2jdto.core.collection;
+
+import java.text.MessageFormat;
+
+import io.github.debug.xml2jdto.core.exception.InvalidMethodParameterException;
+
+/**
+ * Bounded, lossy table of strings, returning one instance for equal strings, so the repeated values of a document share a single {@link String}
+ * in the bound object graph.
+ * <p>
+ * The table is a direct-mapped cache: the hash code of a string selects one slot, an equal string in the slot is returned, otherwise the string
+ * replaces the entry of the slot. The memory of the table is therefore fixed, and a value that is rare enough to be evicted costs nothing more than
+ * without the table. Unlike {@link String#intern()}, the strings are not kept beyond the lifetime of the table. Strings longer than
+ * {@link #MAX_LENGTH} are returned as they are; long values are rarely repeated and hashing them costs as much as copying them.
+ * </p>
+ * <p>
+ * The table is thread safe without locking: the slots are written racily, but a {@link String} is immutable and safely published, so a reader
+ * sees either an earlier entry or the new one; a lost write only loses a deduplication.
+ * </p>
+ *
+ * @author scheffer.imrich
+ */
+public final class StringTable {
+
+    /**
+     * Default number of slots.
+     */
+    public static final int DEFAULT_SIZE = 4096;
+
+    /**
+     * Maximum length of the deduplicated strings.
+     */
+    public static final int MAX_LENGTH = 128;
+
+    private final String[] entries;
+
+    private final int mask;
+
+    /**
+     * Creates a table with {@link #DEFAULT_SIZE} slots.
+     */
+    public StringTable() {
+        this(DEFAULT_SIZE);
+    }
+
+    /**
+     * Creates a table.
+     *
+     * @param size
+     *            the number of slots, rounded up to a power of two
+     * @throws InvalidMethodParameterException
+     *             if the size is not positive or greater than 2^30
+     */
+    public StringTable(int size) {
+        if (size <= 0 || size > 1 << 30) {
+            throw new InvalidMethodParameterException(MessageFormat.format("size must be between 1 and 2^30: [{0}]!", size));
+        }
+        int capacity = Integer.highestOneBit(size) == size ? size : Integer.highestOneBit(size) << 1;
+        this.entries = new String[capacity];
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * Returns the instance of the table equal to the value, or the value itself, which then becomes the instance of the table.
+     *
+     * @param value
+     *            the value, may be null
+     * @return an equal string, null for null
+     */
+    public String intern(String value) {
+        if (value == null || value.length() > MAX_LENGTH) {
+            return value;
+        }
+        int hash = value.hashCode();
+        int slot = (hash ^ hash >>> 16) & mask;
+        String entry = entries[slot];
+        if (value.equals(entry)) {
+            return entry;
+        }
+        entries[slot] = value;
+        return value;
+    }
+
+    /**
+     * Returns the number of slots.
+     *
+     * @return the number of slots
+     */
+    public int size() {
+        return entries.length;
+    }
+}
@@ -0,0 +1,72 @@
+package io.github.debug.xml2jdto.core.exception;
+
+import java.text.MessageFormat;
+
+/**
+ * Exception thrown when a document exceeds a parsing limit, such as its size, nesting depth or number of elements.
+ * <br/>
+ * This exception is a subclass of {@link Xml2jDtoException}. It is thrown as soon as the limit is exceeded, the rest of the document is not read.
+ *
+ * @author scheffer.imrich
+ */
+public class XmlLimitExceededException extends Xml2jDtoException {
+
+    /**
+     * The name of the exceeded limit
+     */
+    private final String limit;
+
+    /**
+     * The configured maximum
+     */
+    private final long maxValue;
+
+    /**
+     * The value reached by the document
+     */
+    private final long actualValue;
+
+    /**
+     * Constructs a new XmlLimitExceededException.
+     *
+     * @param limit
+     *            the name of the exceeded limit, e.g. {@code maxDepth}
+     * @param maxValue
+     *            the configured maximum
+     * @param actualValue
+     *            the value reached by the document, the first one above the maximum
+     */
+    public XmlLimitExceededException(String limit, long maxValue, long actualValue) {
+        super(MessageFormat.format("Xml parsing limit [{0}] exceeded: [{1}] > [{2}]", limit, String.valueOf(actualValue), String.valueOf(maxValue)));
+        this.limit = limit;
+        this.maxValue = maxValue;
+        this.actualValue = actualValue;
+    }
+
+    /**
+     * Retrieves the name of the exceeded limit.
+     *
+     * @return the name of the limit, e.g. {@code maxDepth}
+     */
+    public String getLimit() {
+        return limit;
+    }
+
+    /**
+     * Retrieves the configured maximum of the limit.
+     *
+     * @return the maximum
+     */
+    public long getMaxValue() {
+        return maxValue;
+    }
+
+    /**
+     * Retrieves the value reached by the document when parsing stopped.
+     *
+     * @return the first value above the maximum
+     */
+    public long getActualValue() {
+        return actualValue;
+    }
+}
@@ -0,0 +1,39 @@
+package io.github.debug.xml2jdto.core.exception;
+
+/**
+ * Exception thrown when parsing is stopped before the end of the document, because its deadline has passed, its future was cancelled or its thread
+ * was interrupted.
+ * <br/>
+ * This exception is a subclass of {@link Xml2jDtoException}. The interrupt status of the thread is kept, the rest of the document is not read.
+ *
+ * @author scheffer.imrich
+ */
+public class XmlParsingCancelledException extends Xml2jDtoException {
+
+    /**
+     * True if the deadline has passed, false if the parsing was cancelled or interrupted
+     */
+    private final boolean deadlineExceeded;
+
+    /**
+     * Constructs a new XmlParsingCancelledException.
+     *
+     * @param message
+     *            the detail message
+     * @param deadlineExceeded
+     *            true if the deadline has passed, false if the parsing was cancelled or interrupted
+     */
+    public XmlParsingCancelledException(String message, boolean deadlineExceeded) {
+        super(message);
+        this.deadlineExceeded = deadlineExceeded;
+    }
+
+    /**
+     * Checks whether the parsing was stopped by its deadline.
+     *
+     * @return true if the deadline has passed, false if the parsing was cancelled or interrupted
+     */
+    public boolean isDeadlineExceeded() {
+        return deadlineExceeded;
+    }
+}
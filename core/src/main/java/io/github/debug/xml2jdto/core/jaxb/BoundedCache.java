@@ -0,0 +1,184 @@
+package io.github.debug.xml2jdto.core.jaxb;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Thread-safe cache with an optional upper bound on the number of entries.
+ * <p>
+ * The entries are kept in a {@link ConcurrentHashMap}; every access stamps the entry with a global tick. When a new entry exceeds the bound, the
+ * entry with the oldest tick is evicted, which approximates LRU eviction. The eviction scans the entries, so the cache is meant for the small,
+ * expensive to build values of this library ({@code JAXBContext}, {@code Schema}), not for large data sets.
+ * </p>
+ *
+ * @param <K>
+ *            the type of the keys
+ * @param <V>
+ *            the type of the values
+ *
+ * @author scheffer.imrich
+ */
+final class BoundedCache<K, V> {
+
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+
+    private final AtomicLong tick = new AtomicLong();
+
+    private final int maxSize;
+
+    private final Xml2jDtoMetrics metrics;
+
+    private final String metricPrefix;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param maxSize
+     *            the maximum number of entries, 0 or less for an unbounded cache
+     * @param metrics
+     *            the sink of the hit, miss and eviction counters
+     * @param metricPrefix
+     *            prefix of the metric names, e.g. {@code jaxbContext.cache}
+     */
+    BoundedCache(int maxSize, Xml2jDtoMetrics metrics, String metricPrefix) {
+        this.maxSize = maxSize;
+        this.metrics = metrics;
+        this.metricPrefix = metricPrefix;
+    }
+
+    /**
+     * Returns the cached value of the key, computing and caching it if absent. A failing computation caches nothing.
+     */
+    V computeIfAbsent(K key, Function<? super K, ? extends V> loader) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            boolean[] loaded = { false };
+            entry = entries.computeIfAbsent(key, k -> {
+                loaded[0] = true;
+                V value = loader.apply(k);
+                // stamped before publishing, so a concurrent eviction does not take the new entry for the oldest one
+                return new Entry<>(value, tick.incrementAndGet());
+            });
+            if (loaded[0]) {
+                misses.increment();
+                metrics.increment(metricPrefix + Xml2jDtoMetrics.MISS);
+                evictIfNeeded(key);
+            } else {
+                hit();
+            }
+        } else {
+            hit();
+        }
+        entry.lastAccess = tick.incrementAndGet();
+        return entry.value;
+    }
+
+    /**
+     * Returns the cached value of the key without loading it.
+     */
+    V getIfPresent(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        entry.lastAccess = tick.incrementAndGet();
+        return entry.value;
+    }
+
+    /**
+     * Caches the value of the key, replacing the cached one; not counted as a hit or a miss.
+     */
+    void put(K key, V value) {
+        entries.put(key, new Entry<>(value, tick.incrementAndGet()));
+        evictIfNeeded(key);
+    }
+
+    /**
+     * Removes the entry of the key.
+     *
+     * @return the removed value, or {@code null} if the key was not cached
+     */
+    V remove(K key) {
+        Entry<V> entry = entries.remove(key);
+        return entry == null ? null : entry.value;
+    }
+
+    /**
+     * Removes every entry; the statistics are kept.
+     */
+    void clear() {
+        entries.clear();
+    }
+
+    /**
+     * @return the view of the cached keys
+     */
+    Iterable<K> keys() {
+        return entries.keySet();
+    }
+
+    /**
+     * @return the snapshot of the cached keys and values, without updating their last access
+     */
+    Map<K, V> snapshot() {
+        Map<K, V> snapshot = new LinkedHashMap<>();
+        entries.forEach((key, entry) -> snapshot.put(key, entry.value));
+        return snapshot;
+    }
+
+    /**
+     * @return the snapshot of the cached values, without updating their last access
+     */
+    List<V> values() {
+        return entries.values().stream().map(entry -> entry.value).toList();
+    }
+
+    /**
+     * @return the current statistics
+     */
+    CacheStats stats() {
+        return new CacheStats(entries.size(), maxSize, hits.sum(), misses.sum(), evictions.sum());
+    }
+
+    private void hit() {
+        hits.increment();
+        metrics.increment(metricPrefix + Xml2jDtoMetrics.HIT);
+    }
+
+    private void evictIfNeeded(K loadedKey) {
+        while (maxSize > 0 && entries.size() > maxSize) {
+            K oldestKey = null;
+            long oldestTick = Long.MAX_VALUE;
+            for (Map.Entry<K, Entry<V>> candidate : entries.entrySet()) {
+                if (!candidate.getKey().equals(loadedKey) && candidate.getValue().lastAccess < oldestTick) {
+                    oldestTick = candidate.getValue().lastAccess;
+                    oldestKey = candidate.getKey();
+                }
+            }
+            if (oldestKey == null || entries.remove(oldestKey) == null) {
+                return;
+            }
+            evictions.increment();
+            metrics.increment(metricPrefix + Xml2jDtoMetrics.EVICTION);
+        }
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private volatile long lastAccess;
+
+        private Entry(V value, long lastAccess) {
+            this.value = value;
+            this.lastAccess = lastAccess;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package io.github.debug.xml2jdto.core.jaxb;
+
+/**
+ * Point in time statistics of a cache of an {@link Xml2jDto} engine.
+ *
+ * @param size
+ *            the current number of entries
+ * @param maxSize
+ *            the configured maximum number of entries, 0 or less if the cache is unbounded
+ * @param hits
+ *            the number of lookups served from the cache
+ * @param misses
+ *            the number of lookups that had to create the value
+ * @param evictions
+ *            the number of entries removed to keep the cache within its bound
+ *
+ * @author scheffer.imrich
+ */
+public record CacheStats(int size, int maxSize, long hits, long misses, long evictions) {
+
+    /**
+     * Returns the ratio of the hits to all lookups.
+     *
+     * @return the hit ratio between 0 and 1, or 0 if there was no lookup yet
+     */
+    public double hitRatio() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+}
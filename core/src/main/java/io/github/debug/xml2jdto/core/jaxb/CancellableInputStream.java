@@ -0,0 +1,98 @@
+package io.github.debug.xml2jdto.core.jaxb;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.function.BooleanSupplier;
+
+import io.github.debug.xml2jdto.core.exception.XmlParsingCancelledException;
+
+/**
+ * Stream checking the deadline, the cancellation and the interrupt status of the thread every time the parser fills its buffer, throws
+ * {@link XmlParsingCancelledException} at the first check that fails. The parser reads the document in buffers of a few kilobytes while it works, so
+ * the checks run periodically during the whole parse without a timer thread. A read blocked on a slow source is not interrupted, the check runs when
+ * it returns.
+ *
+ * <br/>
+ * Thread-safety: This class is not thread-safe, like the stream it reads.
+ *
+ * @author scheffer.imrich
+ */
+final class CancellableInputStream extends FilterInputStream {
+
+    /**
+     * Number of single byte reads between two checks.
+     */
+    private static final int BYTES_PER_CHECK = 8192;
+
+    private final Cancellation cancellation;
+
+    private int uncheckedBytes;
+
+    /**
+     * @param in
+     *            the document
+     * @param cancellation
+     *            the deadline and the cancellation of the call
+     */
+    CancellableInputStream(InputStream in, Cancellation cancellation) {
+        super(in);
+        this.cancellation = cancellation;
+    }
+
+    /**
+     * Creates a stream with a timeout and a cancellation.
+     *
+     * @param in
+     *            the document
+     * @param timeout
+     *            the time allowed from now, null for no deadline
+     * @param cancelled
+     *            returns true once the parsing is cancelled
+     * @return the stream, checked once before it is returned
+     */
+    static CancellableInputStream withTimeout(InputStream in, Duration timeout, BooleanSupplier cancelled) {
+        CancellableInputStream stream = new CancellableInputStream(in, new Cancellation(timeout, cancelled));
+        stream.check();
+        return stream;
+    }
+
+    /**
+     * @return the deadline and the cancellation of the call, e.g. for the stream of its buffered payload
+     */
+    Cancellation cancellation() {
+        return cancellation;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (++uncheckedBytes >= BYTES_PER_CHECK) {
+            check();
+        }
+        return super.read();
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        check();
+        return super.read(b, off, len);
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        check();
+        return super.skip(n);
+    }
+
+    /**
+     * Throws if the parsing must stop.
+     *
+     * @throws XmlParsingCancelledException
+     *             if the parsing is cancelled, the thread is interrupted or the deadline has passed
+     */
+    void check() {
+        uncheckedBytes = 0;
+        cancellation.check();
+    }
+}
@@ -0,0 +1,64 @@
+package io.github.debug.xml2jdto.core.jaxb;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+
+import io.github.debug.xml2jdto.core.exception.XmlParsingCancelledException;
+
+/**
+ * Reader of a document given as a string, checking the deadline, the cancellation and the interrupt status of the thread every time the parser
+ * fills its buffer, like {@link CancellableInputStream}; throws {@link XmlParsingCancelledException} at the first check that fails.
+ *
+ * <br/>
+ * Thread-safety: This class is not thread-safe, like the reader it reads.
+ *
+ * @author scheffer.imrich
+ */
+final class CancellableReader extends FilterReader {
+
+    /**
+     * Number of single character reads between two checks.
+     */
+    private static final int CHARS_PER_CHECK = 8192;
+
+    private final Cancellation cancellation;
+
+    private int uncheckedChars;
+
+    /**
+     * @param in
+     *            the document
+     * @param cancellation
+     *            the deadline and the cancellation of the call
+     */
+    CancellableReader(Reader in, Cancellation cancellation) {
+        super(in);
+        this.cancellation = cancellation;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (++uncheckedChars >= CHARS_PER_CHECK) {
+            check();
+        }
+        return super.read();
+    }
+
+    @Override
+    public int read(char[] cbuf, int off, int len) throws IOException {
+        check();
+        return super.read(cbuf, off, len);
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        check();
+        return super.skip(n);
+    }
+
+    private void check() {
+        uncheckedChars = 0;
+        cancellation.check();
+    }
+}
@@ -0,0 +1,70 @@
+package io.github.debug.xml2jdto.core.jaxb;
+
+import java.text.MessageFormat;
+import java.time.Duration;
+import java.util.function.BooleanSupplier;
+
+import io.github.debug.xml2jdto.core.exception.XmlParsingCancelledException;
+
+/**
+ * The deadline and the cancellation of one call, checked by the {@link CancellableInputStream} and {@link CancellableReader} of the document. The
+ * deadline is counted from the creation, so every stream of the call, e.g. the buffered payload of a cached call, shares the time of the caller.
+ *
+ * <br/>
+ * Thread-safety: This class is immutable and thread-safe, the check reads the interrupt status of the calling thread.
+ *
+ * @author scheffer.imrich
+ */
+final class Cancellation {
+
+    /**
+     * Cancellation of a call without a future.
+     */
+    static final BooleanSupplier NOT_CANCELLED = () -> false;
+
+    private final long startNanos;
+
+    private final long timeoutNanos;
+
+    private final BooleanSupplier cancelled;
+
+    /**
+     * @param timeout
+     *            the time allowed from now, null for no deadline
+     * @param cancelled
+     *            returns true once the call is cancelled
+     */
+    Cancellation(Duration timeout, BooleanSupplier cancelled) {
+        this.startNanos = System.nanoTime();
+        this.timeoutNanos = timeout == null ? Long.MAX_VALUE : toNanos(timeout);
+        this.cancelled = cancelled;
+    }
+
+    private static long toNanos(Duration timeout) {
+        try {
+            return Math.max(timeout.toNanos(), -1);
+        } catch (ArithmeticException e) {
+            return timeout.isNegative() ? -1 : Long.MAX_VALUE;
+        }
+    }
+
+    /**
+     * Throws if the parsing must stop.
+     *
+     * @throws XmlParsingCancelledException
+     *             if the call is cancelled, the thread is interrupted or the deadline has passed
+     */
+    void check() {
+        if (cancelled.getAsBoolean()) {
+            throw new XmlParsingCancelledException("Xml parsing cancelled", false);
+        }
+        if (Thread.currentThread().isInterrupted()) {
+            throw new XmlParsingCancelledException("Xml parsing interrupted", false);
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+        if (elapsedNanos > timeoutNanos) {
+            throw new XmlParsingCancelledException(MessageFormat.format("Xml parsing deadline exceeded after [{0}] ms, timeout [{1}] ms",
+                    String.valueOf(elapsedNanos / 1_000_000), String.valueOf(Math.max(timeoutNanos, 0) / 1_000_000)), true);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package io.github.debug.xml2jdto.core.jaxb;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+import org.apache.commons.lang3.StringUtils;
+
+import io.github.debug.xml2jdto.core.exception.ExBuilder;
+import io.github.debug.xml2jdto.core.exception.InvalidMethodParameterException;
+import io.github.debug.xml2jdto.core.exception.InvalidXmlSchemaException;
+import io.github.debug.xml2jdto.core.exception.Xml2jDtoException;
+
+/**
+ * Training run for an AppCDS archive of an xml2jdto application.
+ * <p>
+ * Most of the startup of an application binding XML is spent loading the classes of the JAXB runtime and of the Xerces schema compiler and
+ * validator. A class data sharing archive keeps these classes parsed and verified between runs, but only the classes loaded while the archive is
+ * dumped get into it. This entry point loads them on purpose: for every configured document type it creates the {@code JAXBContext}, compiles the
+ * schema through the shared catalog, and marshals, unmarshals and validates a sample document with {@link JaxbUtil}.
+ * </p>
+ * <p>
+ * Every argument is a document type in the form {@code className[,xsdPath[,sampleXml]]}. The sample is a classpath resource or a file; without a
+ * sample an instance created by the no-argument constructor is marshalled and read back, and its validation error is expected. The archive is
+ * dumped and used with the standard JVM options:
+ * </p>
+ *
+ * <pre>
+ * {@code
+ * java -XX:ArchiveClassesAtExit=app.jsa -Dxml2jdto.catalog.path=xsd/catalog.cat -cp ... \
+ *         io.github.debug.xml2jdto.core.jaxb.CdsTraining com.example.Storage,xsd/storage.xsd,samples/storage.xml
+ * java -XX:SharedArchiveFile=app.jsa -cp ... com.example.Main
+ * }
+ * </pre>
+ *
+ * The run prints the JVM uptime and the number of loaded classes at its end, so the same run with and without the archive measures the gain. See
+ * the {@code cds} profile of the {@code example/dto} module.
+ *
+ * <br/>
+ * Thread-safety: This class is stateless and thread-safe.
+ *
+ * @author scheffer.imrich
+ */
+public final class CdsTraining {
+
+    private static final Logger log = Logger.getLogger(CdsTraining.class.getName());
+
+    private CdsTraining() {
+        super();
+    }
+
+    /**
+     * Runs the training and prints the startup measurement.
+     *
+     * @param args
+     *            the document types, each in the form {@code className[,xsdPath[,sampleXml]]}
+     * @throws InvalidMethodParameterException
+     *             if no document type is given, or one of them is invalid
+     * @throws Xml2jDtoException
+     *             if a class, a schema or a sample cannot be loaded, or a sample cannot be bound
+     */
+    public static void main(String[] args) {
+        int documents = train(List.of(args));
+        System.out.println(MessageFormat.format("xml2jdto CDS training: {0} document types, startup {1} ms, {2} classes loaded", documents,
+                String.valueOf(ManagementFactory.getRuntimeMXBean().getUptime()),
+                String.valueOf(ManagementFactory.getClassLoadingMXBean().getTotalLoadedClassCount())));
+    }
+
+    /**
+     * Exercises the contexts, schemas, marshalling and unmarshalling of the document types.
+     *
+     * @param documentTypes
+     *            the document types, each in the form {@code className[,xsdPath[,sampleXml]]}
+     * @return the number of document types trained
+     * @throws InvalidMethodParameterException
+     *             if no document type is given, or one of them is invalid
+     * @throws Xml2jDtoException
+     *             if a class, a schema or a sample cannot be loaded, or a sample cannot be bound
+     */
+    static int train(List<String> documentTypes) {
+        if (documentTypes == null || documentTypes.isEmpty()) {
+            throw new InvalidMethodParameterException("documentTypes cannot be empty, expected className[,xsdPath[,sampleXml]]!");
+        }
+        List<String[]> parsed = new ArrayList<>(documentTypes.size());
+        for (String documentType : documentTypes) {
+            String[] parts = StringUtils.defaultString(documentType).split(",", -1);
+            if (parts.length > 3 || StringUtils.isBlank(parts[0])) {
+                throw new InvalidMethodParameterException(
+                        MessageFormat.format("document type must be className[,xsdPath[,sampleXml]]: [{0}]!", documentType));
+            }
+            parsed.add(parts);
+        }
+        for (String[] parts : parsed) {
+            String xsdPath = parts.length > 1 && StringUtils.isNotBlank(parts[1]) ? parts[1].trim() : null;
+            String samplePath = parts.length > 2 && StringUtils.isNotBlank(parts[2]) ? parts[2].trim() : null;
+            train(loadClass(parts[0].trim()), xsdPath, samplePath);
+        }
+        return parsed.size();
+    }
+
+    private static <T> void train(Class<T> clazz, String xsdPath, String samplePath) {
+        long start = System.nanoTime();
+        JaxbUtil.getJAXBContext(clazz);
+        if (xsdPath != null) {
+            JaxbUtil.getSchema(xsdPath);
+        }
+        T dto;
+        byte[] xml;
+        if (samplePath != null) {
+            xml = readSample(samplePath);
+            dto = JaxbUtil.unmarshal(new ByteArrayInputStream(xml), clazz, xsdPath);
+            xml = JaxbUtil.marshalToBytes(dto, xsdPath);
+        } else {
+            xml = JaxbUtil.marshalToBytes(newInstance(clazz));
+            dto = JaxbUtil.unmarshal(new ByteArrayInputStream(xml), clazz, null);
+        }
+        JaxbUtil.unmarshal(JaxbUtil.marshal(dto), clazz);
+        if (xsdPath != null) {
+            try {
+                JaxbUtil.validate(new ByteArrayInputStream(xml), xsdPath);
+            } catch (InvalidXmlSchemaException e) {
+                // the instance created without a sample is usually invalid, the failure path is trained as well
+                log.fine(() -> MessageFormat.format("Training instance of [{0}] is not valid: [{1}]", clazz.getName(), e.getMessage()));
+            }
+        }
+        log.info(() -> MessageFormat.format("Trained [{0}] with schema [{1}] in [{2}] ms", clazz.getName(), xsdPath,
+                String.valueOf((System.nanoTime() - start) / 1_000_000)));
+    }
+
+    private static Class<?> loadClass(String className) {
+        try {
+            return Class.forName(className, true, Thread.currentThread().getContextClassLoader());
+        } catch (ClassNotFoundException e) {
+            throw ExBuilder.newXml2jDtoException().withMessage("Class of the document type cannot be found: [{0}]", className).withCause(e).build();
+        }
+    }
+
+    private static <T> T newInstance(Class<T> clazz) {
+        try {
+            return clazz.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw ExBuilder.newXml2jDtoException()
+                    .withMessage("Class without a sample must have a no-argument constructor: [{0}]", clazz.getName())
+                    .withCause(e)
+                    .build();
+        }
+    }
+
+    private static byte[] readSample(String samplePath) {
+        try (InputStream stream = Thread.currentThread().getContextClassLoader().getResourceAsStream(samplePath)) {
+            if (stream != null) {
+                return stream.readAllBytes();
+            }
+            return Files.readAllBytes(Path.of(samplePath));
+        } catch (IOException e) {
+            throw ExBuilder.newXml2jDtoException().withMessage("Sample cannot be read: [{0}]", samplePath).withCause(e).build();
+        }
+    }
+}
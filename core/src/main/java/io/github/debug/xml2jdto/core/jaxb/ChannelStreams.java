@@ -0,0 +1,179 @@
+package io.github.debug.xml2jdto.core.jaxb;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.IllegalBlockingModeException;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Objects;
+
+/**
+ * Streams reading and writing a channel through a pooled direct buffer, see {@link Xml2jDto#unmarshal(ReadableByteChannel, Class, String)}.
+ * <p>
+ * {@link java.nio.channels.Channels#newInputStream} wraps every {@code read(byte[])} of the parser into a heap buffer, which the channel copies
+ * through a temporary direct buffer of the JDK for every system call, in reads as small as the parser asks for. These streams read and write the
+ * channel with a direct buffer of the engine instead: one system call moves a whole buffer, and the only copy is between the direct buffer and the
+ * array of the parser. The channel of the caller is not closed.
+ * </p>
+ *
+ * @author scheffer.imrich
+ */
+final class ChannelStreams {
+
+    private ChannelStreams() {
+        super();
+    }
+
+    /**
+     * Returns a stream reading the channel through the buffer.
+     *
+     * @param channel
+     *            a blocking channel
+     * @param buffer
+     *            the buffer, owned by the stream until it is released by the caller
+     */
+    static InputStream input(ReadableByteChannel channel, ByteBuffer buffer) {
+        return new ChannelInputStream(channel, buffer);
+    }
+
+    /**
+     * Returns a stream writing the channel through the buffer; the written data is complete when the stream is flushed or closed.
+     *
+     * @param channel
+     *            a blocking channel
+     * @param buffer
+     *            the buffer, owned by the stream until it is released by the caller
+     */
+    static OutputStream output(WritableByteChannel channel, ByteBuffer buffer) {
+        return new ChannelOutputStream(channel, buffer);
+    }
+
+    /**
+     * A non-blocking channel returns 0 instead of waiting, the stream would spin; such a channel is fed with {@link XmlFeeder} instead.
+     */
+    private static void checkBlocking(Object channel) {
+        if (channel instanceof SelectableChannel selectable && !selectable.isBlocking()) {
+            throw new IllegalBlockingModeException();
+        }
+    }
+
+    private static final class ChannelInputStream extends InputStream {
+
+        private final ReadableByteChannel channel;
+
+        private final ByteBuffer buffer;
+
+        private boolean endOfStream;
+
+        private ChannelInputStream(ReadableByteChannel channel, ByteBuffer buffer) {
+            this.channel = channel;
+            this.buffer = buffer;
+            buffer.clear().flip();
+        }
+
+        @Override
+        public int read() throws IOException {
+            return fill() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            Objects.checkFromIndexSize(off, len, b.length);
+            if (len == 0) {
+                return 0;
+            }
+            if (!fill()) {
+                return -1;
+            }
+            int count = Math.min(len, buffer.remaining());
+            buffer.get(b, off, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+
+        private boolean fill() throws IOException {
+            while (!buffer.hasRemaining()) {
+                if (endOfStream) {
+                    return false;
+                }
+                buffer.clear();
+                int count = channel.read(buffer);
+                buffer.flip();
+                if (count < 0) {
+                    endOfStream = true;
+                } else if (count == 0) {
+                    checkBlocking(channel);
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public void close() {
+            // the channel of the caller stays open
+        }
+    }
+
+    private static final class ChannelOutputStream extends OutputStream {
+
+        private final WritableByteChannel channel;
+
+        private final ByteBuffer buffer;
+
+        private ChannelOutputStream(WritableByteChannel channel, ByteBuffer buffer) {
+            this.channel = channel;
+            this.buffer = buffer;
+            buffer.clear();
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (!buffer.hasRemaining()) {
+                drain();
+            }
+            buffer.put((byte) b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            Objects.checkFromIndexSize(off, len, b.length);
+            while (len > 0) {
+                if (!buffer.hasRemaining()) {
+                    drain();
+                }
+                int count = Math.min(len, buffer.remaining());
+                buffer.put(b, off, count);
+                off += count;
+                len -= count;
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            drain();
+        }
+
+        private void drain() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                if (channel.write(buffer) == 0) {
+                    checkBlocking(channel);
+                }
+            }
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            // the channel of the caller stays open, only the written data is flushed
+            drain();
+        }
+    }
+}
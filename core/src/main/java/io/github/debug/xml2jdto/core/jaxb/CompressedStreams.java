@@ -0,0 +1,140 @@
+package io.github.debug.xml2jdto.core.jaxb;
+
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PushbackInputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Detection and (de)compression of the {@link Compression} formats.
+ * <p>
+ * The wrappers never close the stream of the caller: closing a returned stream finishes the compressed data, releases the native zlib memory and
+ * flushes, but leaves the underlying stream open, the same way the uncompressed entry points of {@link JaxbUtil} treat the caller's streams.
+ * </p>
+ *
+ * @author scheffer.imrich
+ */
+final class CompressedStreams {
+
+    private static final int GZIP_MAGIC_1 = 0x1f;
+
+    private static final int GZIP_MAGIC_2 = 0x8b;
+
+    private static final int ZLIB_METHOD_DEFLATE = 8;
+
+    private static final int ZLIB_MAX_WINDOW_BITS = 7;
+
+    private CompressedStreams() {
+        super();
+    }
+
+    /**
+     * Detects the compression of the stream from its first two bytes, which are pushed back, so the returned stream starts at the same position.
+     */
+    static Compression detect(PushbackInputStream in) throws IOException {
+        int first = in.read();
+        if (first < 0) {
+            return Compression.NONE;
+        }
+        int second = in.read();
+        if (second >= 0) {
+            in.unread(second);
+        }
+        in.unread(first);
+        if (second < 0) {
+            return Compression.NONE;
+        }
+        if (first == GZIP_MAGIC_1 && second == GZIP_MAGIC_2) {
+            return Compression.GZIP;
+        }
+        // ZLIB header: CM = 8, CINFO <= 7 and the header as a 16 bit number is a multiple of 31;
+        // a well-formed XML document never starts with such a byte
+        if ((first & 0x0f) == ZLIB_METHOD_DEFLATE && (first >> 4) <= ZLIB_MAX_WINDOW_BITS && ((first << 8) | second) % 31 == 0) {
+            return Compression.DEFLATE;
+        }
+        return Compression.NONE;
+    }
+
+    /**
+     * Returns the decompressed content of the stream, detecting its compression.
+     *
+     * @param bufferSize
+     *            size of the buffer of the compressed input
+     */
+    static InputStream decompress(InputStream in, int bufferSize) throws IOException {
+        PushbackInputStream pushback = new PushbackInputStream(new NonClosingInputStream(in), 2);
+        return switch (detect(pushback)) {
+            case GZIP -> new GZIPInputStream(pushback, bufferSize);
+            case DEFLATE -> new InflaterInputStream(pushback, new Inflater(), bufferSize) {
+                @Override
+                public void close() throws IOException {
+                    super.close();
+                    inf.end();
+                }
+            };
+            case NONE -> pushback;
+        };
+    }
+
+    /**
+     * Returns a stream compressing into the given stream; the compressed data is complete when the returned stream is closed.
+     *
+     * @param bufferSize
+     *            size of the buffer of the compressed output
+     */
+    static OutputStream compress(OutputStream out, Compression compression, int bufferSize) throws IOException {
+        OutputStream target = new NonClosingOutputStream(out);
+        return switch (compression) {
+            case GZIP -> new GZIPOutputStream(target, bufferSize);
+            case DEFLATE -> new DeflaterOutputStream(target, new Deflater(), bufferSize) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        def.end();
+                    }
+                }
+            };
+            case NONE -> target;
+        };
+    }
+
+    private static final class NonClosingInputStream extends FilterInputStream {
+
+        private NonClosingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public void close() {
+            // the stream of the caller stays open
+        }
+    }
+
+    private static final class NonClosingOutputStream extends FilterOutputStream {
+
+        private NonClosingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            // the stream of the caller stays open, only the written data is flushed
+            out.flush();
+        }
+    }
+}
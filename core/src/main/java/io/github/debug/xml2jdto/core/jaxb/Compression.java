@@ -0,0 +1,28 @@
+package io.github.debug.xml2jdto.core.jaxb;
+
+/**
+ * Compression formats of the compressed XML entry points of {@link Xml2jDto} and {@link JaxbUtil}.
+ * <p>
+ * On input the format is detected from the magic bytes of the stream, on output it is chosen by the caller.
+ * </p>
+ *
+ * @author scheffer.imrich
+ */
+public enum Compression {
+
+    /**
+     * Uncompressed XML.
+     */
+    NONE,
+
+    /**
+     * GZIP format (RFC 1952), e.g. {@code .xml.gz} archives, detected by the magic bytes {@code 1f 8b}.
+     */
+    GZIP,
+
+    /**
+     * ZLIB wrapped deflate format (RFC 1950), the HTTP {@code deflate} content coding, detected by its two byte header. Raw deflate data without the
+     * ZLIB header cannot be detected and is not supported.
+     */
+    DEFLATE
+}
@@ -0,0 +1,198 @@
+package io.github.debug.xml2jdto.core.jaxb;
+
+import java.text.MessageFormat;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.xml.namespace.QName;
+
+import jakarta.xml.bind.annotation.XmlRootElement;
+import jakarta.xml.bind.annotation.XmlSchema;
+
+import io.github.debug.xml2jdto.core.exception.InvalidMethodParameterException;
+
+/**
+ * Immutable mapping of root element names to DTO classes and schemas, used by {@link Xml2jDto#unmarshalAny(java.io.InputStream)} to pick the
+ * target class of a document from its content.
+ * <p>
+ * Endpoints receiving several document types otherwise parse the document once to find its root element and once more to bind it. The engine reads
+ * only up to the first start tag, looks the name up here and binds the rest of the same stream with the cached context, a pooled unmarshaller and
+ * the cached schema of the entry:
+ * </p>
+ *
+ * <pre>
+ * {@code
+ * DocumentRegistry registry = DocumentRegistry.builder()
+ *         .register(Storage.class, "xsd/storage.xsd")
+ *         .register(new QName("urn:orders", "Order"), OrderType.class, null)
+ *         .build();
+ * Xml2jDto engine = Xml2jDto.builder().documentRegistry(registry).build();
+ * Object document = engine.unmarshalAny(bytes);
+ * }
+ * </pre>
+ *
+ * <br/>
+ * Thread-safety: This class is immutable and thread-safe.
+ *
+ * @author scheffer.imrich
+ */
+public final class DocumentRegistry {
+
+    private static final String DEFAULT_NAME = "##default";
+
+    private final Map<QName, DocumentType> documentTypes;
+
+    private DocumentRegistry(Map<QName, DocumentType> documentTypes) {
+        this.documentTypes = Collections.unmodifiableMap(new LinkedHashMap<>(documentTypes));
+    }
+
+    /**
+     * Creates a builder of a registry.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the document type of a root element.
+     *
+     * @param rootElement
+     *            the name of the root element
+     * @return the document type, or null if the root element is not registered
+     */
+    public DocumentType resolve(QName rootElement) {
+        return documentTypes.get(rootElement);
+    }
+
+    /**
+     * Returns the registered document types.
+     *
+     * @return the unmodifiable document types in the order of registration
+     */
+    public Collection<DocumentType> documentTypes() {
+        return documentTypes.values();
+    }
+
+    /**
+     * Returns the root element name of a class, as JAXB derives it from its {@link XmlRootElement} annotation and the {@link XmlSchema} annotation of
+     * its package.
+     *
+     * @param type
+     *            the root element class
+     * @return the name of the root element
+     * @throws InvalidMethodParameterException
+     *             if the class is not annotated with {@link XmlRootElement}
+     */
+    static QName rootElement(Class<?> type) {
+        XmlRootElement rootElement = type.getAnnotation(XmlRootElement.class);
+        if (rootElement == null) {
+            throw new InvalidMethodParameterException(MessageFormat
+                    .format("class must be annotated with @XmlRootElement or registered with a root element name: [{0}]!", type.getName()));
+        }
+        String name = DEFAULT_NAME.equals(rootElement.name()) ? decapitalize(type.getSimpleName()) : rootElement.name();
+        String namespace = rootElement.namespace();
+        if (DEFAULT_NAME.equals(namespace)) {
+            XmlSchema schema = type.getPackage() == null ? null : type.getPackage().getAnnotation(XmlSchema.class);
+            namespace = schema == null ? "" : schema.namespace();
+        }
+        return new QName(namespace, name);
+    }
+
+    /**
+     * The name derivation of JAXB, the one of {@code java.beans.Introspector}.
+     */
+    private static String decapitalize(String name) {
+        if (name.isEmpty() || name.length() > 1 && Character.isUpperCase(name.charAt(1)) && Character.isUpperCase(name.charAt(0))) {
+            return name;
+        }
+        return Character.toLowerCase(name.charAt(0)) + name.substring(1);
+    }
+
+    @Override
+    public String toString() {
+        return "DocumentRegistry" + documentTypes.values();
+    }
+
+    /**
+     * A registered document type.
+     *
+     * @param rootElement
+     *            the name of the root element
+     * @param type
+     *            the class the document is unmarshalled to
+     * @param xsdPath
+     *            the path of the schema the document is validated against, null for no validation
+     */
+    public record DocumentType(QName rootElement, Class<?> type, String xsdPath) {
+    }
+
+    /**
+     * Builder of {@link DocumentRegistry}.
+     */
+    public static final class Builder {
+
+        private final Map<QName, DocumentType> documentTypes = new LinkedHashMap<>();
+
+        private Builder() {
+            super();
+        }
+
+        /**
+         * Registers a root element class under the root element name of its {@link XmlRootElement} annotation.
+         *
+         * @param type
+         *            the root element class
+         * @param xsdPath
+         *            the path of the schema the documents are validated against, null for no validation
+         * @return this builder
+         * @throws InvalidMethodParameterException
+         *             if the class is null or not a root element class, or its root element is already registered
+         */
+        public Builder register(Class<?> type, String xsdPath) {
+            if (type == null) {
+                throw new InvalidMethodParameterException(JaxbUtil.CLAZZ_NULL_MSG);
+            }
+            return register(rootElement(type), type, xsdPath);
+        }
+
+        /**
+         * Registers a class under a root element name; the class does not need to be a root element class.
+         *
+         * @param rootElement
+         *            the name of the root element
+         * @param type
+         *            the class the documents are unmarshalled to
+         * @param xsdPath
+         *            the path of the schema the documents are validated against, null for no validation
+         * @return this builder
+         * @throws InvalidMethodParameterException
+         *             if the name or the class is null, or the root element is already registered
+         */
+        public Builder register(QName rootElement, Class<?> type, String xsdPath) {
+            if (rootElement == null) {
+                throw new InvalidMethodParameterException("rootElement cannot be null!");
+            }
+            if (type == null) {
+                throw new InvalidMethodParameterException(JaxbUtil.CLAZZ_NULL_MSG);
+            }
+            if (documentTypes.containsKey(rootElement)) {
+                throw new InvalidMethodParameterException(MessageFormat.format("root element is already registered: [{0}]!", rootElement));
+            }
+            documentTypes.put(rootElement, new DocumentType(rootElement, type, xsdPath));
+            return this;
+        }
+
+        /**
+         * Creates the registry.
+         *
+         * @return the registry
+         */
+        public DocumentRegistry build() {
+            return new DocumentRegistry(documentTypes);
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package io.github.debug.xml2jdto.core.jaxb;
+
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.github.debug.xml2jdto.core.exception.InvalidMethodParameterException;
+
+/**
+ * Element path of {@link Xml2jDto#unmarshalPaths(java.io.InputStream, java.util.Map)}, a subset of the XPath location paths.
+ * <p>
+ * A path is a sequence of steps, each preceded by {@code /} (child) or {@code //} (descendant). A step is a local name matching in any namespace,
+ * a name in the {@code {namespace}local} notation, or {@code *} matching every element, e.g. {@code /storage/name} or {@code //file}. A trailing
+ * {@code [1]} selects only the first match in document order.
+ * </p>
+ *
+ * @author scheffer.imrich
+ */
+final class ElementPath {
+
+    private final String expression;
+
+    private final Step[] steps;
+
+    private final boolean first;
+
+    private ElementPath(String expression, Step[] steps, boolean first) {
+        this.expression = expression;
+        this.steps = steps;
+        this.first = first;
+    }
+
+    /**
+     * Parses a path.
+     *
+     * @param expression
+     *            the path
+     * @return the parsed path
+     * @throws InvalidMethodParameterException
+     *             if the path is blank or not in the supported subset
+     */
+    static ElementPath parse(String expression) {
+        if (expression == null || expression.isBlank()) {
+            throw new InvalidMethodParameterException("path cannot be null or blank!");
+        }
+        String path = expression.strip();
+        boolean first = path.endsWith("[1]");
+        if (first) {
+            path = path.substring(0, path.length() - 3);
+        }
+        List<Step> steps = new ArrayList<>();
+        int position = 0;
+        while (position < path.length()) {
+            if (path.charAt(position) != '/') {
+                throw invalid(expression);
+            }
+            boolean descendant = path.startsWith("//", position);
+            position += descendant ? 2 : 1;
+            int end = position;
+            if (end < path.length() && path.charAt(end) == '{') {
+                end = path.indexOf('}', end);
+                if (end < 0) {
+                    throw invalid(expression);
+                }
+            }
+            end = path.indexOf('/', end);
+            if (end < 0) {
+                end = path.length();
+            }
+            steps.add(Step.parse(path.substring(position, end), descendant, expression));
+            position = end;
+        }
+        if (steps.isEmpty()) {
+            throw invalid(expression);
+        }
+        return new ElementPath(expression, steps.toArray(Step[]::new), first);
+    }
+
+    /**
+     * @return the path as given
+     */
+    String expression() {
+        return expression;
+    }
+
+    /**
+     * @return true if only the first match is selected
+     */
+    boolean isFirst() {
+        return first;
+    }
+
+    /**
+     * Checks whether the path selects the current element of the stack.
+     *
+     * @param stack
+     *            the open elements
+     * @return true if the path selects the element
+     */
+    boolean matches(ElementStack stack) {
+        return matches(0, 0, stack);
+    }
+
+    /**
+     * Checks whether the path may select a descendant of the current element of the stack, so the content of the element cannot be skipped.
+     *
+     * @param stack
+     *            the open elements
+     * @return true if the path may select a descendant
+     */
+    boolean mayMatchBelow(ElementStack stack) {
+        return mayMatchBelow(0, 0, stack);
+    }
+
+    private boolean matches(int stepIndex, int level, ElementStack stack) {
+        if (stepIndex == steps.length) {
+            return level == stack.depth();
+        }
+        if (level == stack.depth()) {
+            return false;
+        }
+        Step step = steps[stepIndex];
+        if (!step.descendant()) {
+            return step.matches(stack, level) && matches(stepIndex + 1, level + 1, stack);
+        }
+        for (int i = level; i < stack.depth(); i++) {
+            if (step.matches(stack, i) && matches(stepIndex + 1, i + 1, stack)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean mayMatchBelow(int stepIndex, int level, ElementStack stack) {
+        if (level == stack.depth()) {
+            return stepIndex < steps.length;
+        }
+        if (stepIndex == steps.length) {
+            return false;
+        }
+        Step step = steps[stepIndex];
+        // a descendant step can skip the rest of the open elements
+        return step.descendant()
+                || step.matches(stack, level) && mayMatchBelow(stepIndex + 1, level + 1, stack);
+    }
+
+    private static InvalidMethodParameterException invalid(String expression) {
+        return new InvalidMethodParameterException(
+                MessageFormat.format("path must be like /a/b, //b, /a/*/c, /'{'namespace'}'a or /a/b[1]: [{0}]!", expression));
+    }
+
+    @Override
+    public String toString() {
+        return expression;
+    }
+
+    /**
+     * One step of the path.
+     *
+     * @param namespace
+     *            the namespace of the element, null for any namespace
+     * @param localName
+     *            the local name of the element, null for any element
+     * @param descendant
+     *            true if the step selects descendants, false if children
+     */
+    private record Step(String namespace, String localName, boolean descendant) {
+
+        static Step parse(String step, boolean descendant, String expression) {
+            if ("*".equals(step)) {
+                return new Step(null, null, descendant);
+            }
+            String namespace = null;
+            String localName = step;
+            if (step.startsWith("{")) {
+                int end = step.indexOf('}');
+                namespace = step.substring(1, end);
+                localName = step.substring(end + 1);
+            }
+            if (localName.isEmpty() || localName.indexOf('[') >= 0 || localName.indexOf(':') >= 0 || localName.indexOf('{') >= 0) {
+                throw invalid(expression);
+            }
+            return new Step(namespace, localName, descendant);
+        }
+
+        boolean matches(ElementStack stack, int level) {
+            return (localName == null || localName.equals(stack.name(level))) && (namespace == null || namespace.equals(stack.namespace(level)));
+        }
+    }
+}
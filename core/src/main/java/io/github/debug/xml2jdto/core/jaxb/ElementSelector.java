@@ -0,0 +1,270 @@
+package io.github.debug.xml2jdto.core.jaxb;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Enumeration;
+import java.util.List;
+
+import javax.xml.transform.sax.SAXSource;
+
+import jakarta.xml.bind.JAXBException;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.DTDHandler;
+import org.xml.sax.EntityResolver;
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.AttributesImpl;
+import org.xml.sax.helpers.DefaultHandler;
+import org.xml.sax.helpers.NamespaceSupport;
+
+/**
+ * Handler selecting the elements of an {@link ElementPath} from the SAX events of a document, for the repeated element mode of {@link XmlFeeder}.
+ * <p>
+ * The events of a selected element are recorded, with the namespace declarations in scope, and replayed as a document of their own to the binder at
+ * the end tag of the element, so only one element is held at a time. The elements are not matched inside a selected element.
+ * </p>
+ *
+ * @author scheffer.imrich
+ */
+final class ElementSelector extends DefaultHandler {
+
+    /**
+     * Binds a selected element.
+     */
+    @FunctionalInterface
+    interface ElementBinder {
+
+        /**
+         * Binds the element replayed by the reader of the source.
+         *
+         * @param source
+         *            the events of the element as a document
+         * @throws JAXBException
+         *             if the element cannot be bound
+         */
+        void bind(SAXSource source) throws JAXBException;
+    }
+
+    @FunctionalInterface
+    private interface Event {
+        void replay(ContentHandler handler) throws SAXException;
+    }
+
+    private final ElementPath path;
+
+    private final ElementBinder binder;
+
+    private final ElementStack stack = new ElementStack();
+
+    private final NamespaceSupport namespaces = new NamespaceSupport();
+
+    private final List<String[]> declarations = new ArrayList<>();
+
+    private final List<Event> events = new ArrayList<>();
+
+    private final List<String> scopePrefixes = new ArrayList<>();
+
+    private final ReplayReader replayReader = new ReplayReader();
+
+    /**
+     * Depth of the recorded element, 0 if no element is recorded.
+     */
+    private int recordedDepth;
+
+    private boolean done;
+
+    /**
+     * @param path
+     *            the path of the selected elements
+     * @param binder
+     *            the binder of the selected elements
+     */
+    ElementSelector(ElementPath path, ElementBinder binder) {
+        this.path = path;
+        this.binder = binder;
+    }
+
+    @Override
+    public void startPrefixMapping(String prefix, String uri) {
+        declarations.add(new String[] { prefix, uri });
+        if (recordedDepth > 0) {
+            events.add(handler -> handler.startPrefixMapping(prefix, uri));
+        }
+    }
+
+    @Override
+    public void endPrefixMapping(String prefix) {
+        if (recordedDepth > 0) {
+            events.add(handler -> handler.endPrefixMapping(prefix));
+        }
+    }
+
+    @Override
+    public void startElement(String uri, String localName, String qName, Attributes atts) {
+        stack.push(uri, localName);
+        if (recordedDepth == 0 && !done && path.matches(stack)) {
+            recordedDepth = stack.depth();
+            scope();
+        }
+        namespaces.pushContext();
+        for (String[] declaration : declarations) {
+            namespaces.declarePrefix(declaration[0], declaration[1]);
+        }
+        declarations.clear();
+        if (recordedDepth > 0) {
+            AttributesImpl attributes = new AttributesImpl(atts);
+            events.add(handler -> handler.startElement(uri, localName, qName, attributes));
+        }
+    }
+
+    /**
+     * Records the namespace declarations in scope of the selected element, those of its ancestors and its own.
+     */
+    private void scope() {
+        scopePrefixes.clear();
+        Enumeration<String> prefixes = namespaces.getPrefixes();
+        while (prefixes.hasMoreElements()) {
+            scopePrefixes.add(prefixes.nextElement());
+        }
+        if (namespaces.getURI("") != null) {
+            scopePrefixes.add("");
+        }
+        scopePrefixes.removeIf(prefix -> NamespaceSupport.XMLNS.equals(namespaces.getURI(prefix))
+                || declarations.stream().anyMatch(declaration -> declaration[0].equals(prefix)));
+        for (String prefix : scopePrefixes) {
+            String uri = namespaces.getURI(prefix);
+            events.add(handler -> handler.startPrefixMapping(prefix, uri));
+        }
+        for (String[] declaration : declarations) {
+            events.add(handler -> handler.startPrefixMapping(declaration[0], declaration[1]));
+            scopePrefixes.add(declaration[0]);
+        }
+    }
+
+    @Override
+    public void endElement(String uri, String localName, String qName) throws SAXException {
+        if (recordedDepth > 0) {
+            events.add(handler -> handler.endElement(uri, localName, qName));
+            if (stack.depth() == recordedDepth) {
+                for (String prefix : scopePrefixes) {
+                    events.add(handler -> handler.endPrefixMapping(prefix));
+                }
+                recordedDepth = 0;
+                done = path.isFirst();
+                try {
+                    binder.bind(new SAXSource(replayReader, new InputSource()));
+                } catch (JAXBException e) {
+                    throw new SAXException(e);
+                } finally {
+                    events.clear();
+                }
+            }
+        }
+        namespaces.popContext();
+        stack.pop();
+    }
+
+    @Override
+    public void characters(char[] ch, int start, int length) {
+        if (recordedDepth > 0) {
+            char[] text = Arrays.copyOfRange(ch, start, start + length);
+            events.add(handler -> handler.characters(text, 0, text.length));
+        }
+    }
+
+    @Override
+    public void ignorableWhitespace(char[] ch, int start, int length) {
+        if (recordedDepth > 0) {
+            char[] text = Arrays.copyOfRange(ch, start, start + length);
+            events.add(handler -> handler.ignorableWhitespace(text, 0, text.length));
+        }
+    }
+
+    /**
+     * Reader replaying the recorded events of the selected element.
+     */
+    private final class ReplayReader implements XMLReader {
+
+        private ContentHandler contentHandler;
+
+        private ErrorHandler errorHandler;
+
+        @Override
+        public void parse(InputSource input) throws SAXException {
+            contentHandler.startDocument();
+            for (Event event : events) {
+                event.replay(contentHandler);
+            }
+            contentHandler.endDocument();
+        }
+
+        @Override
+        public void parse(String systemId) throws SAXException {
+            parse(new InputSource(systemId));
+        }
+
+        @Override
+        public boolean getFeature(String name) {
+            return "http://xml.org/sax/features/namespaces".equals(name);
+        }
+
+        @Override
+        public void setFeature(String name, boolean value) {
+            // the recorded events are already namespace aware
+        }
+
+        @Override
+        public Object getProperty(String name) {
+            return null;
+        }
+
+        @Override
+        public void setProperty(String name, Object value) {
+            // no properties
+        }
+
+        @Override
+        public void setEntityResolver(EntityResolver resolver) {
+            // no entities to resolve
+        }
+
+        @Override
+        public EntityResolver getEntityResolver() {
+            return null;
+        }
+
+        @Override
+        public void setDTDHandler(DTDHandler handler) {
+            // no DTD
+        }
+
+        @Override
+        public DTDHandler getDTDHandler() {
+            return null;
+        }
+
+        @Override
+        public void setContentHandler(ContentHandler handler) {
+            this.contentHandler = handler;
+        }
+
+        @Override
+        public ContentHandler getContentHandler() {
+            return contentHandler;
+        }
+
+        @Override
+        public void setErrorHandler(ErrorHandler handler) {
+            this.errorHandler = handler;
+        }
+
+        @Override
+        public ErrorHandler getErrorHandler() {
+            return errorHandler;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package io.github.debug.xml2jdto.core.jaxb;
+
+import java.util.Arrays;
+
+/**
+ * Names of the open elements of a document read with StAX, from the root to the current element, matched by the {@link ElementPath}s.
+ *
+ * @author scheffer.imrich
+ */
+final class ElementStack {
+
+    private String[] namespaces = new String[16];
+
+    private String[] names = new String[16];
+
+    private int depth;
+
+    /**
+     * Opens an element.
+     *
+     * @param namespace
+     *            the namespace of the element, null or "" for no namespace
+     * @param name
+     *            the local name of the element
+     */
+    void push(String namespace, String name) {
+        if (depth == names.length) {
+            namespaces = Arrays.copyOf(namespaces, depth * 2);
+            names = Arrays.copyOf(names, depth * 2);
+        }
+        namespaces[depth] = namespace == null ? "" : namespace;
+        names[depth] = name;
+        depth++;
+    }
+
+    /**
+     * Closes the current element.
+     */
+    void pop() {
+        depth--;
+    }
+
+    /**
+     * @return the number of open elements
+     */
+    int depth() {
+        return depth;
+    }
+
+    /**
+     * @return the namespace of the open element at the level, "" for no namespace
+     */
+    String namespace(int level) {
+        return namespaces[level];
+    }
+
+    /**
+     * @return the local name of the open element at the level
+     */
+    String name(int level) {
+        return names[level];
+    }
+}
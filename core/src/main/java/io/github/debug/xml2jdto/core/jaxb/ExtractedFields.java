@@ -0,0 +1,159 @@
+package io.github.debug.xml2jdto.core.jaxb;
+
+import io.github.debug.xml2jdto.core.exception.InvalidMethodParameterException;
+import io.github.debug.xml2jdto.core.jaxb.FieldExtractor.Kind;
+
+/**
+ * Values extracted from one document by a {@link FieldExtractor}, looked up by the names given to its builder.
+ * <p>
+ * The numbers and booleans are kept as primitives. A value that was not found in the document is reported by {@link #isPresent(String)}; the
+ * getters of the primitive values return the given default for it.
+ * </p>
+ *
+ * @author scheffer.imrich
+ */
+public final class ExtractedFields {
+
+    private final FieldExtractor extractor;
+
+    private final boolean[] found;
+
+    /**
+     * The int, long, boolean (0 or 1) and count values, and the bits of the double values.
+     */
+    private final long[] numbers;
+
+    private String[] strings;
+
+    ExtractedFields(FieldExtractor extractor, int size) {
+        this.extractor = extractor;
+        this.found = new boolean[size];
+        this.numbers = new long[size];
+    }
+
+    boolean isFound(int index) {
+        return found[index];
+    }
+
+    void setString(int index, String value) {
+        if (strings == null) {
+            strings = new String[found.length];
+        }
+        strings[index] = value;
+        found[index] = true;
+    }
+
+    void setNumber(int index, long value) {
+        numbers[index] = value;
+        found[index] = true;
+    }
+
+    void count(int index) {
+        numbers[index]++;
+        found[index] = true;
+    }
+
+    /**
+     * Checks whether the value was found in the document; a count is present if it is not 0.
+     *
+     * @param name
+     *            the name of the value
+     * @return true if the value was found
+     * @throws InvalidMethodParameterException
+     *             if the extractor has no value with the name
+     */
+    public boolean isPresent(String name) {
+        return found[extractor.index(name)];
+    }
+
+    /**
+     * Returns a string value.
+     *
+     * @param name
+     *            the name of the value
+     * @return the value, or null if it was not found
+     * @throws InvalidMethodParameterException
+     *             if the extractor has no string value with the name
+     */
+    public String getString(String name) {
+        int index = extractor.index(name, Kind.STRING);
+        return found[index] ? strings[index] : null;
+    }
+
+    /**
+     * Returns an {@code int} value.
+     *
+     * @param name
+     *            the name of the value
+     * @param defaultValue
+     *            the result if the value was not found
+     * @return the value
+     * @throws InvalidMethodParameterException
+     *             if the extractor has no int value with the name
+     */
+    public int getInt(String name, int defaultValue) {
+        int index = extractor.index(name, Kind.INT);
+        return found[index] ? (int) numbers[index] : defaultValue;
+    }
+
+    /**
+     * Returns a {@code long} value, also of an int value.
+     *
+     * @param name
+     *            the name of the value
+     * @param defaultValue
+     *            the result if the value was not found
+     * @return the value
+     * @throws InvalidMethodParameterException
+     *             if the extractor has no long or int value with the name
+     */
+    public long getLong(String name, long defaultValue) {
+        int index = extractor.index(name, Kind.LONG, Kind.INT);
+        return found[index] ? numbers[index] : defaultValue;
+    }
+
+    /**
+     * Returns a {@code double} value.
+     *
+     * @param name
+     *            the name of the value
+     * @param defaultValue
+     *            the result if the value was not found
+     * @return the value
+     * @throws InvalidMethodParameterException
+     *             if the extractor has no double value with the name
+     */
+    public double getDouble(String name, double defaultValue) {
+        int index = extractor.index(name, Kind.DOUBLE);
+        return found[index] ? Double.longBitsToDouble(numbers[index]) : defaultValue;
+    }
+
+    /**
+     * Returns a {@code boolean} value.
+     *
+     * @param name
+     *            the name of the value
+     * @param defaultValue
+     *            the result if the value was not found
+     * @return the value
+     * @throws InvalidMethodParameterException
+     *             if the extractor has no boolean value with the name
+     */
+    public boolean getBoolean(String name, boolean defaultValue) {
+        int index = extractor.index(name, Kind.BOOLEAN);
+        return found[index] ? numbers[index] != 0 : defaultValue;
+    }
+
+    /**
+     * Returns a count.
+     *
+     * @param name
+     *            the name of the count
+     * @return the number of the selected elements in the document
+     * @throws InvalidMethodParameterException
+     *             if the extractor has no count with the name
+     */
+    public long getCount(String name) {
+        return numbers[extractor.index(name, Kind.COUNT)];
+    }
+}
@@ -0,0 +1,568 @@
+package io.github.debug.xml2jdto.core.jaxb;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import jakarta.xml.bind.UnmarshalException;
+
+import io.github.debug.xml2jdto.core.exception.ExBuilder;
+import io.github.debug.xml2jdto.core.exception.InvalidMethodParameterException;
+import io.github.debug.xml2jdto.core.exception.MalformedXmlException;
+import io.github.debug.xml2jdto.core.exception.Xml2jDtoException;
+
+/**
+ * Compiled set of element and attribute paths whose values are extracted from XML documents in a single StAX pass, without binding a DTO.
+ * <p>
+ * Routing and indexing often need only a few scalar values of a message, e.g. the id of a storage, its capacity and the number of its files. The
+ * extractor is defined once and reused for every document:
+ * </p>
+ *
+ * <pre>
+ * {@code
+ * FieldExtractor extractor = FieldExtractor.builder()
+ *         .string("id", "/Storage/storageId")
+ *         .intValue("capacity", "/Storage/capacity")
+ *         .count("files", "/Storage/files")
+ *         .build();
+ * ExtractedFields fields = extractor.extract(xml);
+ * String id = fields.getString("id");
+ * int capacity = fields.getInt("capacity", 0);
+ * }
+ * </pre>
+ * <p>
+ * The paths are those of {@link Xml2jDto#unmarshalPaths(InputStream, Map)}, optionally followed by {@code /@name} or {@code /@{namespace}name}
+ * selecting an attribute of the element. A value is taken from the first match in document order; an element value is the text content of the
+ * element, which must not have child elements. Numbers and booleans are parsed with the lexical rules of the XSD types and kept as primitives.
+ * Subtrees that no path can reach are skipped, and the document is read only until every value has been found, unless there is a
+ * {@link Builder#count(String, String) count}, which needs the whole document.
+ * </p>
+ * <p>
+ * Besides the {@link ExtractedFields} and the string values, a call allocates only the reader and a text buffer. The document is not validated.
+ * </p>
+ * <br/>
+ * Thread-safety: This class is immutable and thread-safe.
+ *
+ * @author scheffer.imrich
+ */
+public final class FieldExtractor {
+
+    private static final XMLInputFactory XML_INPUT_FACTORY = newXmlInputFactory();
+
+    private final Field[] fields;
+
+    private final Map<String, Integer> indexes;
+
+    private final int valueCount;
+
+    private final boolean counting;
+
+    private FieldExtractor(List<Field> fields) {
+        this.fields = fields.toArray(Field[]::new);
+        this.indexes = new HashMap<>();
+        int values = 0;
+        for (int i = 0; i < this.fields.length; i++) {
+            indexes.put(this.fields[i].name(), i);
+            if (this.fields[i].kind() != Kind.COUNT) {
+                values++;
+            }
+        }
+        this.valueCount = values;
+        this.counting = values < this.fields.length;
+    }
+
+    /**
+     * Creates a builder of an extractor.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Extracts the values from a document.
+     *
+     * @param xml
+     *            the XML document; may be {@code null}
+     * @return the extracted values, or {@code null} if {@code xml} is {@code null}
+     * @throws MalformedXmlException
+     *             if the XML is malformed up to the last value, or an element value has child elements
+     * @throws Xml2jDtoException
+     *             if a value is not valid for its type
+     */
+    public ExtractedFields extract(byte[] xml) {
+        return xml == null ? null : extract(new ByteArrayInputStream(xml));
+    }
+
+    /**
+     * Extracts the values from a document. The stream is not closed.
+     *
+     * @param xmlInputStream
+     *            the input stream of the XML document; may be {@code null}
+     * @return the extracted values, or {@code null} if {@code xmlInputStream} is {@code null}
+     * @throws MalformedXmlException
+     *             if the XML is malformed up to the last value, or an element value has child elements
+     * @throws Xml2jDtoException
+     *             if a value is not valid for its type
+     */
+    public ExtractedFields extract(InputStream xmlInputStream) {
+        if (Objects.isNull(xmlInputStream)) {
+            return null;
+        }
+        ExtractedFields result = new ExtractedFields(this, fields.length);
+        XMLStreamReader reader = null;
+        try {
+            reader = XML_INPUT_FACTORY.createXMLStreamReader(xmlInputStream);
+            new Pass(reader, result).run();
+            return result;
+        } catch (XMLStreamException e) {
+            throw new MalformedXmlException(List.of(), new UnmarshalException(e));
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close();
+                } catch (XMLStreamException e) {
+                    // the underlying source is not closed by the reader, nothing to release
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the index of the field of one of the kinds, or of any kind if none is given
+     * @throws InvalidMethodParameterException
+     *             if there is no such field
+     */
+    int index(String name, Kind... kinds) {
+        Integer index = indexes.get(name);
+        if (index == null) {
+            throw new InvalidMethodParameterException(MessageFormat.format("field is not defined in the extractor: [{0}]!", name));
+        }
+        Kind kind = fields[index].kind();
+        if (kinds.length == 0) {
+            return index;
+        }
+        for (Kind expected : kinds) {
+            if (kind == expected) {
+                return index;
+            }
+        }
+        throw new InvalidMethodParameterException(MessageFormat.format("field [{0}] is not of the requested type: [{1}]!", name, kind));
+    }
+
+    private static XMLInputFactory newXmlInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
+    /**
+     * Type of an extracted value.
+     */
+    enum Kind {
+        STRING, INT, LONG, DOUBLE, BOOLEAN, COUNT
+    }
+
+    /**
+     * One extracted value.
+     *
+     * @param name
+     *            the name of the value
+     * @param path
+     *            the path of the element
+     * @param attributeNamespace
+     *            the namespace of the attribute, null for any namespace
+     * @param attributeName
+     *            the local name of the attribute, null for the text of the element
+     * @param kind
+     *            the type of the value
+     */
+    private record Field(String name, ElementPath path, String attributeNamespace, String attributeName, Kind kind) {
+
+        String attributeValue(XMLStreamReader reader) {
+            for (int i = 0; i < reader.getAttributeCount(); i++) {
+                if (attributeName.equals(reader.getAttributeLocalName(i))
+                        && (attributeNamespace == null || attributeNamespace.equals(Objects.toString(reader.getAttributeNamespace(i), "")))) {
+                    return reader.getAttributeValue(i);
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * State of one extraction.
+     */
+    private final class Pass {
+        private final XMLStreamReader reader;
+        private final ExtractedFields result;
+        private final ElementStack stack = new ElementStack();
+        private final StringBuilder text = new StringBuilder(64);
+        private final boolean[] textMatches = new boolean[fields.length];
+        private int remaining = valueCount;
+
+        private Pass(XMLStreamReader reader, ExtractedFields result) {
+            this.reader = reader;
+            this.result = result;
+        }
+
+        private void run() throws XMLStreamException {
+            while ((remaining > 0 || counting) && reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    stack.push(reader.getNamespaceURI(), reader.getLocalName());
+                    if (startElement()) {
+                        readText();
+                        stack.pop();
+                    } else if (!mayMatchBelow(result, stack)) {
+                        PathScanner.skipElement(reader);
+                        stack.pop();
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    stack.pop();
+                }
+            }
+        }
+
+        /**
+         * Collects the counts and the attributes of the current element.
+         *
+         * @return true if the text of the element is a value
+         */
+        private boolean startElement() {
+            boolean needsText = false;
+            for (int i = 0; i < fields.length; i++) {
+                Field field = fields[i];
+                if (field.kind() != Kind.COUNT && result.isFound(i) || !field.path().matches(stack)) {
+                    continue;
+                }
+                if (field.attributeName() != null) {
+                    String value = field.attributeValue(reader);
+                    if (value == null) {
+                        continue;
+                    }
+                    if (field.kind() == Kind.COUNT) {
+                        result.count(i);
+                    } else {
+                        set(i, value);
+                    }
+                } else if (field.kind() == Kind.COUNT) {
+                    result.count(i);
+                } else {
+                    textMatches[i] = true;
+                    needsText = true;
+                }
+            }
+            return needsText;
+        }
+
+        /**
+         * Reads the text of the current element and sets the values it was matched by, leaving the reader on the end of the element.
+         */
+        private void readText() throws XMLStreamException {
+            text.setLength(0);
+            int event = reader.next();
+            while (event != XMLStreamConstants.END_ELEMENT) {
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    throw new XMLStreamException(
+                            MessageFormat.format("element <{0}> of a text value has child elements", stack.name(stack.depth() - 1)),
+                            reader.getLocation());
+                }
+                // comments and processing instructions are not part of the text
+                if (event != XMLStreamConstants.COMMENT && event != XMLStreamConstants.PROCESSING_INSTRUCTION) {
+                    text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                }
+                event = reader.next();
+            }
+            for (int i = 0; i < fields.length; i++) {
+                if (textMatches[i]) {
+                    textMatches[i] = false;
+                    set(i, text);
+                }
+            }
+        }
+
+        private void set(int index, CharSequence value) {
+            Field field = fields[index];
+            try {
+                switch (field.kind()) {
+                    case STRING -> result.setString(index, value.toString());
+                    case INT -> result.setNumber(index, Integer.parseInt(value, start(value), end(value), 10));
+                    case LONG -> result.setNumber(index, Long.parseLong(value, start(value), end(value), 10));
+                    case DOUBLE -> result.setNumber(index, Double.doubleToRawLongBits(parseDouble(value)));
+                    case BOOLEAN -> result.setNumber(index, parseBoolean(value) ? 1 : 0);
+                    default -> throw new IllegalStateException(field.kind().name());
+                }
+            } catch (NumberFormatException e) {
+                throw ExBuilder.newXml2jDtoException()
+                        .withMessage("Invalid {0} value of field [{1}]: [{2}]", field.kind(), field.name(), value)
+                        .withCause(e)
+                        .build();
+            }
+            remaining--;
+        }
+    }
+
+    private boolean mayMatchBelow(ExtractedFields result, ElementStack stack) {
+        for (int i = 0; i < fields.length; i++) {
+            if ((fields[i].kind() == Kind.COUNT || !result.isFound(i)) && fields[i].path().mayMatchBelow(stack)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int start(CharSequence value) {
+        int start = 0;
+        while (start < value.length() && isXmlWhitespace(value.charAt(start))) {
+            start++;
+        }
+        return start;
+    }
+
+    private static int end(CharSequence value) {
+        int end = value.length();
+        while (end > 0 && isXmlWhitespace(value.charAt(end - 1))) {
+            end--;
+        }
+        return end;
+    }
+
+    private static boolean isXmlWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r';
+    }
+
+    private static double parseDouble(CharSequence value) {
+        String trimmed = value.subSequence(start(value), Math.max(start(value), end(value))).toString();
+        return switch (trimmed) {
+            case "INF", "+INF" -> Double.POSITIVE_INFINITY;
+            case "-INF" -> Double.NEGATIVE_INFINITY;
+            case "NaN" -> Double.NaN;
+            default -> {
+                // Java also accepts type suffixes, hexadecimal values and "Infinity", which are not in the XSD lexical space
+                if (!isDecimalWithExponent(trimmed)) {
+                    throw new NumberFormatException(trimmed);
+                }
+                yield Double.parseDouble(trimmed);
+            }
+        };
+    }
+
+    /**
+     * @return true if the value matches {@code (\+|-)?([0-9]+(\.[0-9]*)?|\.[0-9]+)([Ee](\+|-)?[0-9]+)?}
+     */
+    private static boolean isDecimalWithExponent(String value) {
+        int position = skipSign(value, 0);
+        int digits = 0;
+        for (; position < value.length() && isDigit(value.charAt(position)); position++) {
+            digits++;
+        }
+        if (position < value.length() && value.charAt(position) == '.') {
+            for (position++; position < value.length() && isDigit(value.charAt(position)); position++) {
+                digits++;
+            }
+        }
+        if (digits == 0) {
+            return false;
+        }
+        if (position < value.length() && (value.charAt(position) == 'e' || value.charAt(position) == 'E')) {
+            position = skipSign(value, position + 1);
+            int exponentDigits = 0;
+            for (; position < value.length() && isDigit(value.charAt(position)); position++) {
+                exponentDigits++;
+            }
+            if (exponentDigits == 0) {
+                return false;
+            }
+        }
+        return position == value.length();
+    }
+
+    private static int skipSign(String value, int position) {
+        return position < value.length() && (value.charAt(position) == '+' || value.charAt(position) == '-') ? position + 1 : position;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean parseBoolean(CharSequence value) {
+        int start = start(value);
+        int end = Math.max(start, end(value));
+        CharSequence trimmed = value.subSequence(start, end);
+        if (equals(trimmed, "true") || equals(trimmed, "1")) {
+            return true;
+        }
+        if (equals(trimmed, "false") || equals(trimmed, "0")) {
+            return false;
+        }
+        throw new NumberFormatException(trimmed.toString());
+    }
+
+    private static boolean equals(CharSequence value, String expected) {
+        return value.length() == expected.length() && expected.contentEquals(value);
+    }
+
+    /**
+     * Builder of {@link FieldExtractor}. The names of the values must be unique.
+     */
+    public static final class Builder {
+
+        private final List<Field> fields = new ArrayList<>();
+
+        private Builder() {
+            super();
+        }
+
+        /**
+         * Adds a string value.
+         *
+         * @param name
+         *            the name of the value
+         * @param path
+         *            the path of the element or attribute
+         * @return this builder
+         * @throws InvalidMethodParameterException
+         *             if the name is blank or already defined, or the path is not in the supported subset
+         */
+        public Builder string(String name, String path) {
+            return add(name, path, Kind.STRING);
+        }
+
+        /**
+         * Adds an {@code xs:int} value.
+         *
+         * @param name
+         *            the name of the value
+         * @param path
+         *            the path of the element or attribute
+         * @return this builder
+         * @throws InvalidMethodParameterException
+         *             if the name is blank or already defined, or the path is not in the supported subset
+         */
+        public Builder intValue(String name, String path) {
+            return add(name, path, Kind.INT);
+        }
+
+        /**
+         * Adds an {@code xs:long} value.
+         *
+         * @param name
+         *            the name of the value
+         * @param path
+         *            the path of the element or attribute
+         * @return this builder
+         * @throws InvalidMethodParameterException
+         *             if the name is blank or already defined, or the path is not in the supported subset
+         */
+        public Builder longValue(String name, String path) {
+            return add(name, path, Kind.LONG);
+        }
+
+        /**
+         * Adds an {@code xs:double} value.
+         *
+         * @param name
+         *            the name of the value
+         * @param path
+         *            the path of the element or attribute
+         * @return this builder
+         * @throws InvalidMethodParameterException
+         *             if the name is blank or already defined, or the path is not in the supported subset
+         */
+        public Builder doubleValue(String name, String path) {
+            return add(name, path, Kind.DOUBLE);
+        }
+
+        /**
+         * Adds an {@code xs:boolean} value.
+         *
+         * @param name
+         *            the name of the value
+         * @param path
+         *            the path of the element or attribute
+         * @return this builder
+         * @throws InvalidMethodParameterException
+         *             if the name is blank or already defined, or the path is not in the supported subset
+         */
+        public Builder booleanValue(String name, String path) {
+            return add(name, path, Kind.BOOLEAN);
+        }
+
+        /**
+         * Adds the number of the elements selected by the path, or of the elements having the attribute of the path. A count needs the whole
+         * document to be read.
+         *
+         * @param name
+         *            the name of the value
+         * @param path
+         *            the path of the element or attribute
+         * @return this builder
+         * @throws InvalidMethodParameterException
+         *             if the name is blank or already defined, or the path is not in the supported subset
+         */
+        public Builder count(String name, String path) {
+            return add(name, path, Kind.COUNT);
+        }
+
+        /**
+         * Creates the extractor.
+         *
+         * @return the extractor
+         * @throws InvalidMethodParameterException
+         *             if no value is defined
+         */
+        public FieldExtractor build() {
+            if (fields.isEmpty()) {
+                throw new InvalidMethodParameterException("at least one field must be defined!");
+            }
+            return new FieldExtractor(fields);
+        }
+
+        private Builder add(String name, String path, Kind kind) {
+            if (name == null || name.isBlank()) {
+                throw new InvalidMethodParameterException("name cannot be null or blank!");
+            }
+            if (fields.stream().anyMatch(field -> field.name().equals(name))) {
+                throw new InvalidMethodParameterException(MessageFormat.format("field is already defined: [{0}]!", name));
+            }
+            if (path == null || path.isBlank()) {
+                throw new InvalidMethodParameterException("path cannot be null or blank!");
+            }
+            String elementPath = path.strip();
+            String attributeNamespace = null;
+            String attributeName = null;
+            int attribute = elementPath.lastIndexOf("/@");
+            if (attribute >= 0) {
+                attributeName = elementPath.substring(attribute + 2);
+                elementPath = elementPath.substring(0, attribute);
+                if (attributeName.startsWith("{") && attributeName.indexOf('}') > 0) {
+                    attributeNamespace = attributeName.substring(1, attributeName.indexOf('}'));
+                    attributeName = attributeName.substring(attributeName.indexOf('}') + 1);
+                }
+                if (attributeName.isEmpty() || attributeName.indexOf('/') >= 0 || attributeName.indexOf(':') >= 0) {
+                    throw new InvalidMethodParameterException(
+                            MessageFormat.format("attribute must be like /a/@b or /a/@'{'namespace'}'b: [{0}]!", path));
+                }
+            }
+            ElementPath parsed = ElementPath.parse(elementPath);
+            if (parsed.isFirst()) {
+                throw new InvalidMethodParameterException(MessageFormat.format("path of a field cannot have a predicate: [{0}]!", path));
+            }
+            fields.add(new Field(name, parsed, attributeNamespace, attributeName, kind));
+            return this;
+        }
+    }
+}
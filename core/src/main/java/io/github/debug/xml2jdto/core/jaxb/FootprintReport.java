@@ -0,0 +1,145 @@
+package io.github.debug.xml2jdto.core.jaxb;
+
+import java.text.MessageFormat;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.github.debug.xml2jdto.core.exception.InvalidMethodParameterException;
+
+/**
+ * Estimated heap footprint of the caches and pools of an {@link Xml2jDto} engine, see {@link Xml2jDto#getFootprintReport()}.
+ * <p>
+ * Every cached {@link jakarta.xml.bind.JAXBContext JAXBContext}, its pooled unmarshallers, every cached {@link javax.xml.validation.Schema Schema},
+ * the catalog, the pooled marshal buffers and the result cache is an entry, estimated by a bounded walk of its object graph. An object shared by
+ * several entries is counted once, by the first entry reaching it in the order above, so the sum of the entries is the footprint of the engine.
+ * An entry whose graph cannot be walked at all, typically a schema compiled by the JDK without {@code --add-opens}, is unmeasured: it is listed
+ * with 0 bytes, after the measured entries, and left out of the totals and of {@link #largest(int)}. The numbers are estimates for setting the
+ * cache bounds, see {@link Xml2jDto.Builder#maxJaxbContexts(int)} and
+ * {@link Xml2jDto.Builder#maxSchemas(int)}, not exact retained sizes:
+ * </p>
+ *
+ * <pre>
+ * {@code
+ * FootprintReport report = engine.getFootprintReport();
+ * log.info(report.totalBytes(Xml2jDtoMetrics.JAXB_CONTEXT_CACHE) + " bytes in JAXB contexts");
+ * report.largest(3).forEach(entry -> log.info(entry.toString()));
+ * }
+ * </pre>
+ *
+ * <br/>
+ * Thread-safety: This class is immutable and thread-safe.
+ *
+ * @author scheffer.imrich
+ */
+public final class FootprintReport {
+
+    /**
+     * Name of the entry of the resource resolver of the engine, the catalog and its cached resolutions.
+     */
+    public static final String CATALOG = "catalog";
+
+    private final List<Entry> entries;
+
+    /**
+     * @param entries
+     *            the entries in the order of the walk
+     */
+    FootprintReport(List<Entry> entries) {
+        this.entries = List.copyOf(entries);
+    }
+
+    /**
+     * Returns the entries.
+     *
+     * @return the unmodifiable entries, the largest first and the unmeasured ones last
+     */
+    public List<Entry> entries() {
+        return entries.stream()
+                .sorted(Comparator.comparing(Entry::unmeasured).thenComparing(Comparator.comparingLong(Entry::retainedBytes).reversed()))
+                .toList();
+    }
+
+    /**
+     * Returns the entries whose graph could not be walked.
+     *
+     * @return the unmodifiable unmeasured entries, in the order of the walk
+     */
+    public List<Entry> unmeasured() {
+        return entries.stream().filter(Entry::unmeasured).toList();
+    }
+
+    /**
+     * Returns the largest measured entries.
+     *
+     * @param count
+     *            the maximum number of entries
+     * @return the unmodifiable entries, the largest first
+     * @throws InvalidMethodParameterException
+     *             if the count is negative
+     */
+    public List<Entry> largest(int count) {
+        if (count < 0) {
+            throw new InvalidMethodParameterException(MessageFormat.format("count cannot be negative: [{0}]!", count));
+        }
+        return entries().stream().filter(entry -> !entry.unmeasured()).limit(count).toList();
+    }
+
+    /**
+     * Returns the estimated footprint of every measured entry.
+     *
+     * @return the sum of the measured entries in bytes
+     */
+    public long totalBytes() {
+        return entries.stream().mapToLong(Entry::retainedBytes).sum();
+    }
+
+    /**
+     * Returns the estimated footprint of the entries of one cache or pool.
+     *
+     * @param cache
+     *            the name of the cache or pool, a name of {@link Xml2jDtoMetrics} or {@link #CATALOG}
+     * @return the sum of the measured entries of the cache in bytes, 0 if it has none
+     */
+    public long totalBytes(String cache) {
+        return entries.stream().filter(entry -> entry.cache().equals(cache)).mapToLong(Entry::retainedBytes).sum();
+    }
+
+    /**
+     * Returns the estimated footprint by cache or pool.
+     *
+     * @return the unmodifiable sums of the measured entries by cache name, in the order of the walk
+     */
+    public Map<String, Long> totalsByCache() {
+        Map<String, Long> totals = new LinkedHashMap<>();
+        entries.stream().filter(entry -> !entry.unmeasured()).forEach(entry -> totals.merge(entry.cache(), entry.retainedBytes(), Long::sum));
+        return Collections.unmodifiableMap(totals);
+    }
+
+    @Override
+    public String toString() {
+        return MessageFormat.format("FootprintReport[totalBytes={0}, totals={1}, largest={2}, unmeasured={3}]", String.valueOf(totalBytes()),
+                totalsByCache(), largest(3), unmeasured().size());
+    }
+
+    /**
+     * The estimated footprint of one cached object.
+     *
+     * @param cache
+     *            the name of the cache or pool, a name of {@link Xml2jDtoMetrics} or {@link FootprintReport#CATALOG}
+     * @param key
+     *            the cache key, e.g. the class name of a context or the path of a schema
+     * @param retainedBytes
+     *            the estimated heap of the objects reachable from this entry and not counted by an entry walked before it, 0 if unmeasured
+     * @param objects
+     *            the number of objects walked
+     * @param truncated
+     *            true if the walk stopped at its bound, the estimate is then a lower bound
+     * @param unmeasured
+     *            true if the graph of the object could not be walked at all, e.g. a schema compiled by the JDK without {@code --add-opens}
+     */
+    public record Entry(String cache, String key, long retainedBytes, int objects, boolean truncated, boolean unmeasured) {
+    }
+}
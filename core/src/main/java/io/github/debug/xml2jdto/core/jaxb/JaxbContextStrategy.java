@@ -0,0 +1,57 @@
+package io.github.debug.xml2jdto.core.jaxb;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.annotation.XmlRegistry;
+
+/**
+ * The classes a cached {@link JAXBContext} is created for, see {@link Xml2jDto.Builder#jaxbContextStrategy(JaxbContextStrategy)}.
+ * <p>
+ * A context holds the runtime model of every class reachable from the classes it is created for. The root classes generated from one schema share
+ * most of their types, so with a context per root class the same types are modelled once in every context, and the first use of every root pays
+ * for the model building again.
+ * </p>
+ *
+ * @author scheffer.imrich
+ */
+public enum JaxbContextStrategy {
+
+    /**
+     * A context for every requested class, the default.
+     */
+    PER_CLASS,
+
+    /**
+     * A context for the {@link XmlRegistry ObjectFactory} of the package of the requested class, shared by every class of the package. The context
+     * of several classes is created for the set of their object factories. A class in a package without an object factory, or one the object
+     * factory has no create method for, such as a class written by hand next to the ones generated by xjc, gets its own context.
+     */
+    PER_PACKAGE;
+
+    /**
+     * Name of the system property selecting the strategy of the {@link Xml2jDto#getDefault() default engine}, used by {@link JaxbUtil}.
+     */
+    public static final String PROPERTY = "xml2jdto.jaxb.contextStrategy";
+
+    /**
+     * Returns the strategy selected by the {@value #PROPERTY} system property.
+     *
+     * @return the selected strategy, {@link #PER_CLASS} if the property is not set or is not a constant name
+     */
+    public static JaxbContextStrategy fromSystemProperty() {
+        String property = System.getProperty(PROPERTY);
+        if (property == null) {
+            return PER_CLASS;
+        }
+        for (JaxbContextStrategy value : values()) {
+            if (value.name().equalsIgnoreCase(property.trim())) {
+                return value;
+            }
+        }
+        Logger.getLogger(JaxbContextStrategy.class.getName())
+                .log(Level.WARNING, "Unknown value of the {0} system property: [{1}]", new Object[] { PROPERTY, property });
+        return PER_CLASS;
+    }
+}
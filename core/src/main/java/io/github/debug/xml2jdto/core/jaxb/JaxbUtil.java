@@ -1,35 +1,36 @@
 package io.github.debug.xml2jdto.core.jaxb;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
-import java.io.StringReader;
-import java.io.StringWriter;
+import java.io.OutputStream;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
 import java.security.InvalidParameterException;
 import java.text.MessageFormat;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.HashMap;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Objects;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.logging.Logger;
-import java.util.stream.Collectors;
 
 import javax.xml.XMLConstants;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.transform.Source;
 import javax.xml.transform.stream.StreamSource;
 import javax.xml.validation.Schema;
 import javax.xml.validation.SchemaFactory;
 
 import jakarta.xml.bind.JAXBContext;
-import jakarta.xml.bind.JAXBException;
-import jakarta.xml.bind.MarshalException;
 import jakarta.xml.bind.Marshaller;
-import jakarta.xml.bind.PropertyException;
-import jakarta.xml.bind.UnmarshalException;
-import jakarta.xml.bind.Unmarshaller;
-import jakarta.xml.bind.ValidationEvent;
 
 import org.apache.commons.lang3.StringUtils;
 import org.w3c.dom.ls.LSResourceResolver;
@@ -39,14 +40,14 @@ import io.github.debug.xml2jdto.core.exception.InvalidMethodParameterException;
 import io.github.debug.xml2jdto.core.exception.InvalidXmlSchemaException;
 import io.github.debug.xml2jdto.core.exception.MalformedXmlException;
 import io.github.debug.xml2jdto.core.exception.Xml2jDtoException;
-import io.github.debug.xml2jdto.core.jaxb.catalog.CatalogResourceResolver;
-import io.github.debug.xml2jdto.core.jaxb.event.XsdValidationEventCollector;
+import io.github.debug.xml2jdto.core.exception.XmlParsingCancelledException;
 
 /**
  * Utility class for working with JAXB (Java Architecture for XML Binding).
  * <p>
- * This class provides methods to retrieve {@link JAXBContext} instances and to unmarshal XML strings into Java objects. It uses a cache to store
- * {@link JAXBContext} instances for different classes to improve performance.
+ * This class provides methods to retrieve {@link JAXBContext} instances and to unmarshal XML strings into Java objects. It is a static facade over
+ * the {@link Xml2jDto#getDefault() default} {@link Xml2jDto} engine, which caches the {@link JAXBContext} and {@link Schema} instances and pools
+ * the unmarshallers to improve performance. Use an own engine, see {@link Xml2jDto#builder()}, for separately bounded caches.
  * </p>
  * <p>
  * Example usage:
@@ -64,11 +65,13 @@ import io.github.debug.xml2jdto.core.jaxb.event.XsdValidationEventCollector;
  */
 public final class JaxbUtil {
 
-    private static final Map<String, JAXBContext> jaxbContextCache = new ConcurrentHashMap<>();
-    private static final Map<String, Schema> schemaCache = new ConcurrentHashMap<>();
-
     private static final Logger log = Logger.getLogger(JaxbUtil.class.getName());
 
+    /**
+     * Hardened factory of the schema reads, created once instead of a service lookup for every schema.
+     */
+    private static final XMLInputFactory XML_INPUT_FACTORY = newXmlInputFactory();
+
     /**
      * A constant error message indicating that the class parameter cannot be null.
      */
@@ -105,20 +108,7 @@ public final class JaxbUtil {
      *             if the provided class is null
      */
     public static JAXBContext getJAXBContext(Class<?> clazz) {
-        if (clazz == null) {
-            throw new InvalidMethodParameterException(CLAZZ_NULL_MSG);
-        }
-        String className = clazz.getName();
-        return jaxbContextCache.computeIfAbsent(className, key -> {
-            try {
-                return JAXBContext.newInstance(clazz);
-            } catch (JAXBException e) {
-                throw ExBuilder.newXml2jDtoException()
-                        .withMessage("Error creating JAXBContext for class [{0}]: [{1}]", clazz.getName(), e.getLocalizedMessage())
-                        .withCause(e)
-                        .build();
-            }
-        });
+        return Xml2jDto.getDefault().getJAXBContext(clazz);
     }
 
     /**
@@ -137,24 +127,7 @@ public final class JaxbUtil {
      *             if an error occurs while creating the {@link JAXBContext}
      */
     public static JAXBContext getJAXBContext(Class<?>... forClasses) {
-        if (forClasses == null) {
-            throw new InvalidParameterException("forClasses is null!");
-        }
-        String joinedClassName = Arrays.stream(forClasses).map(c -> c == null ? "null" : c.getName()).sorted().collect(Collectors.joining("|"));
-        if (jaxbContextCache.containsKey(joinedClassName)) {
-            return jaxbContextCache.get(joinedClassName);
-        } else {
-            try {
-                JAXBContext jaxbContext = JAXBContext.newInstance(forClasses);
-                jaxbContextCache.put(joinedClassName, jaxbContext);
-                return jaxbContext;
-            } catch (JAXBException | IllegalArgumentException e) {
-                throw ExBuilder.newXml2jDtoException()
-                        .withMessage("Error creating JAXBContext for class [{0}]: [{1}]", joinedClassName, e.getLocalizedMessage())
-                        .withCause(e)
-                        .build();
-            }
-        }
+        return Xml2jDto.getDefault().getJAXBContext(forClasses);
     }
 
     /**
@@ -172,29 +145,8 @@ public final class JaxbUtil {
      * @throws Xml2jDtoException
      *             if an error occurs during unmarshalling
      */
-    @SuppressWarnings("unchecked")
     public static <T> T unmarshal(String xml, Class<T> clazz) {
-        if (StringUtils.isBlank(xml)) {
-            return null;
-        }
-        if (clazz == null) {
-            throw new InvalidMethodParameterException(CLAZZ_NULL_MSG);
-        }
-        try {
-            JAXBContext jaxbContext = getJAXBContext(clazz);
-            Unmarshaller unmarshaller = jaxbContext.createUnmarshaller();
-            return (T) unmarshaller.unmarshal(new StringReader(xml));
-        } catch (JAXBException e) {
-            // we should not log the whole message, because it can be very long
-            throw ExBuilder.newXml2jDtoException()
-                    .withMessage(
-                            "Unmarshalling error for class [{0}], XML [{1}]: [{2}]",
-                            clazz.getName(),
-                            StringUtils.abbreviate(xml, 500),
-                            e.getLocalizedMessage())
-                    .withCause(e)
-                    .build();
-        }
+        return Xml2jDto.getDefault().unmarshal(xml, clazz);
     }
 
     /**
@@ -216,34 +168,118 @@ public final class JaxbUtil {
                     MessageFormat.format("xsdPath cannot be null: [{0}] or lsResourceResolver cannot be null: [{1}]!", xsdPath, lsResourceResolver));
         }
 
+        return loadSchema(List.of(xsdPath), lsResourceResolver, null, JaxbUtil::readXsd);
+    }
+
+    /**
+     * Compiles one {@link Schema} of the given XSD files, e.g. of several namespaces of a document.
+     *
+     * @param xsdPaths
+     *            the classpath locations of the XSD files, not blank
+     * @param lsResourceResolver
+     *            the resolver of the imports, not null
+     * @param namespaces
+     *            if not null, receives the target namespaces of the XSD files ({@code ""} for none) and the namespaces of the resolved imports
+     * @param xsdReader
+     *            the reader of the XSD files
+     * @return the compiled schema
+     * @throws Xml2jDtoException
+     *             if a schema cannot be found or an unexpected error occurs during schema creation
+     */
+    static Schema loadSchema(List<String> xsdPaths, LSResourceResolver lsResourceResolver, Set<String> namespaces, XsdReader xsdReader) {
         try {
-            InputStream stream = Thread.currentThread().getContextClassLoader().getResourceAsStream(xsdPath);
-            if (stream == null) {
-                throw ExBuilder.newXml2jDtoException().withMessage("Schema on path [{0}] cannot be found!", xsdPath).build();
+            Source[] sources = new Source[xsdPaths.size()];
+            for (int i = 0; i < sources.length; i++) {
+                byte[] xsd = xsdReader.read(xsdPaths.get(i));
+                if (namespaces != null) {
+                    namespaces.add(targetNamespace(xsd));
+                }
+                sources[i] = new StreamSource(new ByteArrayInputStream(xsd));
             }
-
-            StreamSource src = new StreamSource(stream);
             SchemaFactory sf = SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI);
             sf.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
             sf.setProperty(XMLConstants.ACCESS_EXTERNAL_DTD, "");
             sf.setProperty(XMLConstants.ACCESS_EXTERNAL_SCHEMA, "");
-            sf.setResourceResolver(lsResourceResolver);
-            Schema schema = sf.newSchema(src);
-            log.fine(MessageFormat.format("Schema creation finished for XSD: [{0}]", xsdPath));
+            if (namespaces == null) {
+                sf.setResourceResolver(lsResourceResolver);
+            } else {
+                sf.setResourceResolver((type, namespaceURI, publicId, systemId, baseURI) -> {
+                    if (namespaceURI != null) {
+                        namespaces.add(namespaceURI);
+                    }
+                    return lsResourceResolver.resolveResource(type, namespaceURI, publicId, systemId, baseURI);
+                });
+            }
+            Schema schema = sf.newSchema(sources);
+            log.fine(MessageFormat.format("Schema creation finished for XSD: [{0}]", String.join(", ", xsdPaths)));
             return schema;
         } catch (Xml2jDtoException e) {
             throw e;
         } catch (Exception e) {
             throw ExBuilder.newXml2jDtoException()
-                    .withMessage("Unexpected error during schema creation for XSD: [{0}]", xsdPath)
+                    .withMessage("Unexpected error during schema creation for XSD: [{0}]", String.join(", ", xsdPaths))
                     .withCause(e)
                     .build();
         }
     }
 
+    /**
+     * Reads an XSD file from the classpath.
+     */
+    static byte[] readXsd(String xsdPath) throws IOException {
+        try (InputStream stream = Thread.currentThread().getContextClassLoader().getResourceAsStream(xsdPath)) {
+            if (stream == null) {
+                throw ExBuilder.newXml2jDtoException().withMessage("Schema on path [{0}] cannot be found!", xsdPath).build();
+            }
+            return stream.readAllBytes();
+        }
+    }
+
+    /**
+     * Reader of the XSD files compiled by {@link JaxbUtil#loadSchema(List, LSResourceResolver, Set, XsdReader)}.
+     */
+    @FunctionalInterface
+    interface XsdReader {
+
+        /**
+         * Reads an XSD file.
+         *
+         * @param xsdPath
+         *            the classpath location of the XSD file
+         * @return the content of the file
+         * @throws IOException
+         *             if the file cannot be read
+         */
+        byte[] read(String xsdPath) throws IOException;
+    }
+
+    private static XMLInputFactory newXmlInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        return factory;
+    }
+
+    /**
+     * Reads the {@code targetNamespace} attribute of the root element of an XSD.
+     */
+    private static String targetNamespace(byte[] xsd) throws XMLStreamException {
+        XMLStreamReader reader = XML_INPUT_FACTORY.createXMLStreamReader(new ByteArrayInputStream(xsd));
+        try {
+            while (reader.hasNext()) {
+                if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+                    return Objects.toString(reader.getAttributeValue(null, "targetNamespace"), "");
+                }
+            }
+            return "";
+        } finally {
+            reader.close();
+        }
+    }
+
     /**
      * Retrieves the XML Schema object for the given XSD path. If the schema is already cached, it returns the cached schema. Otherwise, it loads the
-     * schema from the specified XSD path, caches it, and then returns the loaded schema.
+     * schema from the specified XSD path, caches it, and then returns the loaded schema. Imports are resolved with the shared catalog.
      *
      * @param xsdPath
      *            the path to the XSD file. Must not be null or blank.
@@ -252,10 +288,7 @@ public final class JaxbUtil {
      *             if the xsdPath is null or blank.
      */
     public static Schema getSchema(String xsdPath) {
-        if (StringUtils.isBlank(xsdPath)) {
-            throw new InvalidMethodParameterException("xsdPath cannot be null!");
-        }
-        return schemaCache.computeIfAbsent(xsdPath, key -> loadSchemaFromXsdPath(xsdPath, new CatalogResourceResolver()));
+        return Xml2jDto.getDefault().getSchema(xsdPath);
     }
 
     /**
@@ -276,47 +309,55 @@ public final class JaxbUtil {
      * @throws Xml2jDtoException
      *             if an error occurs during unmarshalling
      */
-    @SuppressWarnings("unchecked")
     public static <T> T unmarshal(String xml, Class<T> clazz, String xsdPath) {
-        if (Objects.isNull(xml)) {
-            return null;
-        }
-        if (clazz == null) {
-            throw new InvalidMethodParameterException(CLAZZ_NULL_MSG);
-        }
-        XsdValidationEventCollector eventCollector = new XsdValidationEventCollector();
-        List<ValidationEvent> events = new ArrayList<>();
-        try {
-            JAXBContext jaxbContext = getJAXBContext(clazz);
-            Unmarshaller unmarshaller = jaxbContext.createUnmarshaller();
-            unmarshaller.setEventHandler(eventCollector);
-            if (xsdPath != null) {
-                Schema schema = getSchema(xsdPath);
-                if (schema != null) {
-                    unmarshaller.setSchema(schema);
-                }
-            }
-            T result = (T) unmarshaller.unmarshal(new StringReader(xml));
+        return Xml2jDto.getDefault().unmarshal(xml, clazz, xsdPath);
+    }
 
-            events = eventCollector.getEvents();
-            if (!events.isEmpty()) {
-                throw new InvalidXmlSchemaException(events);
-            }
+    /**
+     * Unmarshals the given XML string within a timeout, see {@link Xml2jDto#unmarshal(String, Class, String, Duration)}. The deadline and the
+     * interrupt status of the thread are checked while the document is parsed.
+     *
+     * @param <T>
+     *            the type of the object to be returned
+     * @param xml
+     *            the XML string to be unmarshalled
+     * @param clazz
+     *            the class of the object to be returned
+     * @param xsdPath
+     *            the path to the XSD file. If null, no schema validation is performed.
+     * @param timeout
+     *            the time allowed from now; must not be {@code null}
+     * @return the unmarshalled object of type T, or null if the XML string is null
+     * @throws InvalidMethodParameterException
+     *             if the clazz parameter or the timeout is null
+     * @throws XmlParsingCancelledException
+     *             if the deadline passes or the thread is interrupted before the document is parsed
+     */
+    public static <T> T unmarshal(String xml, Class<T> clazz, String xsdPath, Duration timeout) {
+        return Xml2jDto.getDefault().unmarshal(xml, clazz, xsdPath, timeout);
+    }
 
-            return result;
-        } catch (UnmarshalException e) {
-            throw new MalformedXmlException(events, e);
-        } catch (JAXBException e) {
-            // we should not log the whole message, because it can be very long
-            throw ExBuilder.newXml2jDtoException()
-                    .withMessage(
-                            "Unmarshalling error for class [{0}], XML [{1}]: [{2}]",
-                            clazz.getName(),
-                            StringUtils.abbreviate(xml, 500),
-                            e.getLocalizedMessage())
-                    .withCause(e)
-                    .build();
-        }
+    /**
+     * Unmarshals the given XML string by a deadline, see {@link Xml2jDto#unmarshal(String, Class, String, Instant)}.
+     *
+     * @param <T>
+     *            the type of the object to be returned
+     * @param xml
+     *            the XML string to be unmarshalled
+     * @param clazz
+     *            the class of the object to be returned
+     * @param xsdPath
+     *            the path to the XSD file. If null, no schema validation is performed.
+     * @param deadline
+     *            the instant the parsing must end by; must not be {@code null}
+     * @return the unmarshalled object of type T, or null if the XML string is null
+     * @throws InvalidMethodParameterException
+     *             if the clazz parameter or the deadline is null
+     * @throws XmlParsingCancelledException
+     *             if the deadline passes or the thread is interrupted before the document is parsed
+     */
+    public static <T> T unmarshal(String xml, Class<T> clazz, String xsdPath, Instant deadline) {
+        return Xml2jDto.getDefault().unmarshal(xml, clazz, xsdPath, deadline);
     }
 
     /**
@@ -347,45 +388,127 @@ public final class JaxbUtil {
      *             for other JAXB-related errors during unmarshalling
      */
     public static <T> T unmarshal(InputStream xmlInputStream, Class<T> clazz, String xsdPath) {
-        if (Objects.isNull(xmlInputStream)) {
-            return null;
-        }
-        if (clazz == null) {
-            throw new InvalidParameterException(CLAZZ_NULL_MSG);
-        }
-        XsdValidationEventCollector eventCollector = new XsdValidationEventCollector();
-        List<ValidationEvent> events = new ArrayList<>();
-        try {
-            JAXBContext jaxbContext = getJAXBContext(clazz);
-            Unmarshaller unmarshaller = jaxbContext.createUnmarshaller();
-            unmarshaller.setEventHandler(eventCollector);
-            if (xsdPath != null) {
-                Schema schema = getSchema(xsdPath);
-                if (schema != null) {
-                    unmarshaller.setSchema(schema);
-                }
-            }
-            T result = clazz.cast(unmarshaller.unmarshal(xmlInputStream));
+        return Xml2jDto.getDefault().unmarshal(xmlInputStream, clazz, xsdPath);
+    }
 
-            events = eventCollector.getEvents();
-            if (!events.isEmpty()) {
-                throw new InvalidXmlSchemaException(events);
-            }
+    /**
+     * Unmarshals the given XML input stream within a timeout, see {@link Xml2jDto#unmarshal(InputStream, Class, String, Duration)}. The deadline and
+     * the interrupt status of the thread are checked while the document is parsed.
+     *
+     * @param <T>
+     *            the type of the object to unmarshal to
+     * @param xmlInputStream
+     *            the input stream containing the XML data; may be {@code null}
+     * @param clazz
+     *            the class of the object to unmarshal to; must not be {@code null}
+     * @param xsdPath
+     *            the path to the XSD schema for validation; may be {@code null} if no validation is required
+     * @param timeout
+     *            the time allowed from now; must not be {@code null}
+     * @return an instance of {@code T} populated from the XML, or {@code null} if {@code xmlInputStream} is {@code null}
+     * @throws InvalidMethodParameterException
+     *             if the timeout is null
+     * @throws XmlParsingCancelledException
+     *             if the deadline passes or the thread is interrupted before the document is parsed
+     * @throws InvalidXmlSchemaException
+     *             if XML validation against the schema fails
+     * @throws MalformedXmlException
+     *             if the XML is malformed and cannot be unmarshalled
+     */
+    public static <T> T unmarshal(InputStream xmlInputStream, Class<T> clazz, String xsdPath, Duration timeout) {
+        return Xml2jDto.getDefault().unmarshal(xmlInputStream, clazz, xsdPath, timeout);
+    }
 
-            return result;
-        } catch (UnmarshalException e) {
-            throw new MalformedXmlException(events, e);
-        } catch (JAXBException e) {
-            // we should not log the whole message, because it can be very long
-            throw ExBuilder.newXml2jDtoException()
-                    .withMessage(
-                            "Unmarshalling error for class [{0}], InputStream [{1}]: [{2}]",
-                            clazz.getName(),
-                            xmlInputStream,
-                            e.getLocalizedMessage())
-                    .withCause(e)
-                    .build();
-        }
+    /**
+     * Unmarshals the given XML input stream by a deadline, see {@link Xml2jDto#unmarshal(InputStream, Class, String, Instant)}.
+     *
+     * @param <T>
+     *            the type of the object to unmarshal to
+     * @param xmlInputStream
+     *            the input stream containing the XML data; may be {@code null}
+     * @param clazz
+     *            the class of the object to unmarshal to; must not be {@code null}
+     * @param xsdPath
+     *            the path to the XSD schema for validation; may be {@code null} if no validation is required
+     * @param deadline
+     *            the instant the parsing must end by; must not be {@code null}
+     * @return an instance of {@code T} populated from the XML, or {@code null} if {@code xmlInputStream} is {@code null}
+     * @throws InvalidMethodParameterException
+     *             if the deadline is null
+     * @throws XmlParsingCancelledException
+     *             if the deadline passes or the thread is interrupted before the document is parsed
+     */
+    public static <T> T unmarshal(InputStream xmlInputStream, Class<T> clazz, String xsdPath, Instant deadline) {
+        return Xml2jDto.getDefault().unmarshal(xmlInputStream, clazz, xsdPath, deadline);
+    }
+
+    /**
+     * Unmarshals the XML read from a blocking channel through a pooled direct buffer, see
+     * {@link Xml2jDto#unmarshal(ReadableByteChannel, Class, String)}. The channel is not closed.
+     *
+     * @param <T>
+     *            the type of the object to unmarshal to
+     * @param channel
+     *            the channel containing the XML data; may be {@code null}
+     * @param clazz
+     *            the class of the object to unmarshal to; must not be {@code null}
+     * @param xsdPath
+     *            the path to the XSD schema for validation; may be {@code null} if no validation is required
+     * @return an instance of {@code T} populated from the XML, or {@code null} if {@code channel} is {@code null}
+     * @throws InvalidParameterException
+     *             if {@code clazz} is {@code null}
+     * @throws InvalidXmlSchemaException
+     *             if XML validation against the schema fails
+     * @throws MalformedXmlException
+     *             if the XML is malformed and cannot be unmarshalled
+     * @throws Xml2jDtoException
+     *             for other JAXB-related errors during unmarshalling
+     */
+    public static <T> T unmarshal(ReadableByteChannel channel, Class<T> clazz, String xsdPath) {
+        return Xml2jDto.getDefault().unmarshal(channel, clazz, xsdPath);
+    }
+
+    /**
+     * Unmarshals the XML of a file without blocking a thread, see {@link Xml2jDto#unmarshalAsync(AsynchronousFileChannel, Class, String)}. The
+     * channel is not closed.
+     *
+     * @param <T>
+     *            the type of the object to unmarshal to
+     * @param channel
+     *            the file containing the XML data; may be {@code null}
+     * @param clazz
+     *            the class of the object to unmarshal to; must not be {@code null}
+     * @param xsdPath
+     *            the path to the XSD schema for validation; may be {@code null} if no validation is required
+     * @return the future of the result, completed with {@code null} if {@code channel} is {@code null}
+     * @throws InvalidParameterException
+     *             if {@code clazz} is {@code null}
+     */
+    public static <T> CompletableFuture<T> unmarshalAsync(AsynchronousFileChannel channel, Class<T> clazz, String xsdPath) {
+        return Xml2jDto.getDefault().unmarshalAsync(channel, clazz, xsdPath);
+    }
+
+    /**
+     * Unmarshals only the elements selected by the paths, each into the class of its path, skipping the rest of the document, see
+     * {@link Xml2jDto#unmarshalPaths(InputStream, Map)}.
+     *
+     * @param xmlInputStream
+     *            the input stream containing the XML data; may be {@code null}
+     * @param paths
+     *            the element paths, e.g. {@code /storage/name[1]} or {@code //file}, and the classes to bind their elements to; must not be
+     *            {@code null} or empty
+     * @return the bound objects of every path, or {@code null} if {@code xmlInputStream} is {@code null}
+     * @throws InvalidMethodParameterException
+     *             if the paths are null or empty, or a path is not in the supported subset
+     * @throws InvalidParameterException
+     *             if a class is {@code null}
+     * @throws MalformedXmlException
+     *             if the XML is malformed up to the last selected element
+     * @throws Xml2jDtoException
+     *             for other JAXB-related errors during unmarshalling
+     */
+    public static PartialResult unmarshalPaths(InputStream xmlInputStream, Map<String, Class<?>> paths) {
+        return Xml2jDto.getDefault().unmarshalPaths(xmlInputStream, paths);
     }
 
     /**
@@ -398,7 +521,7 @@ public final class JaxbUtil {
      * @return the XML string representation of the DTO object, or null if the DTO is null
      */
     public static <T> String marshal(T dto) {
-        return marshal(dto, null, DEFAULT_MARSHALLER_PROPERTIES, (Class<?>[]) null);
+        return Xml2jDto.getDefault().marshal(dto);
     }
 
     /**
@@ -415,9 +538,7 @@ public final class JaxbUtil {
      * @return a formatted XML string representation of the given DTO object
      */
     public static <T> String marshalFormatted(T dto) {
-        Map<String, Object> properties = new HashMap<>(DEFAULT_MARSHALLER_PROPERTIES);
-        properties.put(Marshaller.JAXB_FORMATTED_OUTPUT, true);
-        return marshal(dto, null, properties, (Class<?>[]) null);
+        return Xml2jDto.getDefault().marshalFormatted(dto);
     }
 
     /**
@@ -434,7 +555,7 @@ public final class JaxbUtil {
      *             if an error occurs during marshalling or setting properties
      */
     public static <T> String marshal(T dto, Map<String, Object> properties) {
-        return marshal(dto, null, properties, (Class<?>[]) null);
+        return Xml2jDto.getDefault().marshal(dto, properties);
     }
 
     /**
@@ -454,7 +575,7 @@ public final class JaxbUtil {
      * @return the XML string representation of the DTO object
      */
     public static <T> String marshal(T dto, String schemaPath) {
-        return marshal(dto, schemaPath, DEFAULT_MARSHALLER_PROPERTIES, (Class<?>[]) null);
+        return Xml2jDto.getDefault().marshal(dto, schemaPath);
     }
 
     /**
@@ -486,69 +607,230 @@ public final class JaxbUtil {
      *             if any other JAXB exception occurs during marshalling
      */
     public static <T> String marshal(T dto, String schemaPath, Map<String, Object> marshallerProperties, Class<?>... additionalClasses) {
-        if (dto == null) {
-            return null;
-        }
+        return Xml2jDto.getDefault().marshal(dto, schemaPath, marshallerProperties, additionalClasses);
+    }
 
-        JAXBContext jaxbContext = createJAXBContext(dto, additionalClasses);
+    /**
+     * Marshals the given DTO into UTF-8 encoded XML bytes with the default marshaller properties, without an intermediate String.
+     *
+     * @param <T>
+     *            the type of the DTO
+     * @param dto
+     *            the DTO object to be marshaled; if null, the method returns null
+     * @return the XML bytes, or null if the DTO is null
+     * @see Xml2jDto#marshalToBytes(Object, String, Map, Class...)
+     */
+    public static <T> byte[] marshalToBytes(T dto) {
+        return Xml2jDto.getDefault().marshalToBytes(dto);
+    }
 
-        List<ValidationEvent> events = new ArrayList<>();
-        try {
-            Marshaller marshaller = jaxbContext.createMarshaller();
-            setMarshallerProperties(marshaller, marshallerProperties);
+    /**
+     * Marshals the given DTO into UTF-8 encoded XML bytes validated against the given schema, without an intermediate String.
+     *
+     * @param <T>
+     *            the type of the DTO
+     * @param dto
+     *            the DTO object to be marshaled; if null, the method returns null
+     * @param schemaPath
+     *            the path to the XML schema for validation; if blank, no validation is performed
+     * @return the XML bytes, or null if the DTO is null
+     * @throws InvalidXmlSchemaException
+     *             if XML validation against the schema fails
+     * @see Xml2jDto#marshalToBytes(Object, String, Map, Class...)
+     */
+    public static <T> byte[] marshalToBytes(T dto, String schemaPath) {
+        return Xml2jDto.getDefault().marshalToBytes(dto, schemaPath);
+    }
 
-            XsdValidationEventCollector eventCollector = new XsdValidationEventCollector();
-            marshaller.setEventHandler(eventCollector);
+    /**
+     * Marshals the given DTO directly into XML bytes, encoded with the {@link Marshaller#JAXB_ENCODING} of the properties, using pooled buffers
+     * presized from the recent output sizes of the DTO class.
+     *
+     * @param <T>
+     *            the type of the DTO object to marshal
+     * @param dto
+     *            the DTO object to be marshalled; if {@code null}, returns {@code null}
+     * @param schemaPath
+     *            the path to the XML schema for validation; if blank, no validation is performed
+     * @param marshallerProperties
+     *            a map of properties to configure the JAXB marshaller
+     * @param additionalClasses
+     *            additional classes to be recognized by the JAXB context
+     * @return the XML bytes, or {@code null} if the DTO is {@code null}
+     * @throws InvalidXmlSchemaException
+     *             if XML validation against the schema fails
+     * @throws MalformedXmlException
+     *             if marshalling fails due to malformed XML
+     * @throws Xml2jDtoException
+     *             if any other JAXB exception occurs during marshalling
+     */
+    public static <T> byte[] marshalToBytes(T dto, String schemaPath, Map<String, Object> marshallerProperties, Class<?>... additionalClasses) {
+        return Xml2jDto.getDefault().marshalToBytes(dto, schemaPath, marshallerProperties, additionalClasses);
+    }
 
-            // if schemaPath is empty -> no validation, only conversion
-            if (StringUtils.isNotBlank(schemaPath)) {
-                Schema schema = getSchema(schemaPath);
-                if (schema != null) {
-                    marshaller.setSchema(schema);
-                }
-            }
-            StringWriter stringWriter = new StringWriter();
-            marshaller.marshal(dto, stringWriter);
-            events = eventCollector.getEvents();
-            if (!events.isEmpty()) {
-                throw new InvalidXmlSchemaException(events);
-            }
-            return stringWriter.getBuffer().toString();
-        } catch (MarshalException e) {
-            throw new MalformedXmlException(events, e);
-        } catch (JAXBException e) {
-            // we should not log the whole message, because it can be very long
-            throw ExBuilder.newXml2jDtoException()
-                    .withMessage("Failed DTO[{0}] -> String conversion: [{1}]", dto.getClass().getName(), e.getLocalizedMessage())
-                    .withCause(e)
-                    .build();
-        }
+    /**
+     * Unmarshals an XML input stream that may be gzip or deflate compressed; the compression is detected from the first bytes and the content is
+     * inflated while it is parsed.
+     *
+     * @param <T>
+     *            the type of the object to unmarshal to
+     * @param xmlInputStream
+     *            the input stream of the XML, compressed or not; may be {@code null}
+     * @param clazz
+     *            the class of the object to unmarshal to; must not be {@code null}
+     * @param xsdPath
+     *            the path to the XSD schema for validation; may be {@code null} if no validation is required
+     * @return an instance of {@code T} populated from the XML, or {@code null} if {@code xmlInputStream} is {@code null}
+     * @throws InvalidParameterException
+     *             if {@code clazz} is {@code null}
+     * @throws InvalidXmlSchemaException
+     *             if XML validation against the schema fails
+     * @throws MalformedXmlException
+     *             if the XML is malformed, or the compressed data is corrupt
+     * @throws Xml2jDtoException
+     *             if the stream cannot be read, or for other JAXB-related errors during unmarshalling
+     * @see Xml2jDto#unmarshalCompressed(InputStream, Class, String)
+     */
+    public static <T> T unmarshalCompressed(InputStream xmlInputStream, Class<T> clazz, String xsdPath) {
+        return Xml2jDto.getDefault().unmarshalCompressed(xmlInputStream, clazz, xsdPath);
     }
 
-    private static <T> JAXBContext createJAXBContext(T dto, Class<?>... additionalClasses) {
-        if (additionalClasses != null && additionalClasses.length > 0) {
-            List<Class<?>> contextClasses = new ArrayList<>(Arrays.asList(additionalClasses));
-            contextClasses.add(dto.getClass());
-            return getJAXBContext(contextClasses.toArray(new Class<?>[0]));
-        } else {
-            return getJAXBContext(dto.getClass());
-        }
+    /**
+     * Validates an XML input stream, that may be gzip or deflate compressed, against the given schema without binding it to objects.
+     *
+     * @param xmlInputStream
+     *            the input stream of the XML, compressed or not; if {@code null}, nothing is validated
+     * @param xsdPath
+     *            the path to the XSD schema
+     * @throws InvalidMethodParameterException
+     *             if the xsdPath is null or blank
+     * @throws InvalidXmlSchemaException
+     *             if XML validation against the schema fails
+     * @throws MalformedXmlException
+     *             if the XML is malformed, or the compressed data is corrupt
+     * @throws Xml2jDtoException
+     *             if the stream cannot be read
+     * @see Xml2jDto#validate(InputStream, String)
+     */
+    public static void validate(InputStream xmlInputStream, String xsdPath) {
+        Xml2jDto.getDefault().validate(xmlInputStream, xsdPath);
     }
 
-    private static void setMarshallerProperties(Marshaller marshaller, Map<String, Object> marshallerProperties) {
-        if (marshallerProperties == null) {
-            return;
-        }
-        for (Entry<String, Object> entry : marshallerProperties.entrySet()) {
-            try {
-                marshaller.setProperty(entry.getKey(), entry.getValue());
-            } catch (PropertyException e) {
-                throw ExBuilder.newXml2jDtoException()
-                        .withMessage("Failed to set property name[{0}], value[{1}]: [{2}]", entry.getKey(), entry.getValue(), e.getLocalizedMessage())
-                        .withCause(e)
-                        .build();
-            }
-        }
+    /**
+     * Validates an XML input stream within a timeout, see {@link Xml2jDto#validate(InputStream, String, Duration)}.
+     *
+     * @param xmlInputStream
+     *            the input stream of the XML, compressed or not; if {@code null}, nothing is validated
+     * @param xsdPath
+     *            the path to the XSD schema
+     * @param timeout
+     *            the time allowed from now; must not be {@code null}
+     * @throws InvalidMethodParameterException
+     *             if the xsdPath is null or blank, or the timeout is null
+     * @throws XmlParsingCancelledException
+     *             if the deadline passes or the thread is interrupted before the document is validated
+     * @throws InvalidXmlSchemaException
+     *             if XML validation against the schema fails
+     * @throws MalformedXmlException
+     *             if the XML is malformed, or the compressed data is corrupt
+     */
+    public static void validate(InputStream xmlInputStream, String xsdPath, Duration timeout) {
+        Xml2jDto.getDefault().validate(xmlInputStream, xsdPath, timeout);
+    }
+
+    /**
+     * Validates an XML input stream by a deadline, see {@link Xml2jDto#validate(InputStream, String, Instant)}.
+     *
+     * @param xmlInputStream
+     *            the input stream of the XML, compressed or not; if {@code null}, nothing is validated
+     * @param xsdPath
+     *            the path to the XSD schema
+     * @param deadline
+     *            the instant the validation must end by; must not be {@code null}
+     * @throws InvalidMethodParameterException
+     *             if the xsdPath is null or blank, or the deadline is null
+     * @throws XmlParsingCancelledException
+     *             if the deadline passes or the thread is interrupted before the document is validated
+     */
+    public static void validate(InputStream xmlInputStream, String xsdPath, Instant deadline) {
+        Xml2jDto.getDefault().validate(xmlInputStream, xsdPath, deadline);
+    }
+
+    /**
+     * Marshals the given DTO into the output stream, compressed in the given format, with the default marshaller properties. The stream of the caller
+     * is not closed.
+     *
+     * @param <T>
+     *            the type of the DTO object to marshal
+     * @param dto
+     *            the DTO object to be marshalled; if {@code null}, nothing is written
+     * @param outputStream
+     *            the target of the compressed XML
+     * @param compression
+     *            the compression format
+     * @param schemaPath
+     *            the path to the XML schema for validation; if blank, no validation is performed
+     * @throws InvalidXmlSchemaException
+     *             if XML validation against the schema fails
+     * @throws Xml2jDtoException
+     *             if the stream cannot be written, or any other JAXB exception occurs during marshalling
+     * @see Xml2jDto#marshalCompressed(Object, OutputStream, Compression, String, Map, Class...)
+     */
+    public static <T> void marshalCompressed(T dto, OutputStream outputStream, Compression compression, String schemaPath) {
+        Xml2jDto.getDefault().marshalCompressed(dto, outputStream, compression, schemaPath);
+    }
+
+    /**
+     * Marshals the given DTO into a blocking channel through a pooled direct buffer, see
+     * {@link Xml2jDto#marshal(Object, WritableByteChannel, String)}. The channel is not closed.
+     *
+     * @param <T>
+     *            the type of the DTO object to marshal
+     * @param dto
+     *            the DTO object to be marshalled; if {@code null}, nothing is written
+     * @param channel
+     *            the target of the XML
+     * @param schemaPath
+     *            the path to the XML schema for validation; if blank, no validation is performed
+     * @throws InvalidMethodParameterException
+     *             if the channel is null
+     * @throws InvalidXmlSchemaException
+     *             if XML validation against the schema fails
+     * @throws Xml2jDtoException
+     *             if the channel cannot be written, or any other JAXB exception occurs during marshalling
+     */
+    public static <T> void marshal(T dto, WritableByteChannel channel, String schemaPath) {
+        Xml2jDto.getDefault().marshal(dto, channel, schemaPath);
+    }
+
+    /**
+     * Marshals the given DTO into the output stream, compressed in the given format. The stream of the caller is not closed.
+     *
+     * @param <T>
+     *            the type of the DTO object to marshal
+     * @param dto
+     *            the DTO object to be marshalled; if {@code null}, nothing is written
+     * @param outputStream
+     *            the target of the compressed XML
+     * @param compression
+     *            the compression format
+     * @param schemaPath
+     *            the path to the XML schema for validation; if blank, no validation is performed
+     * @param marshallerProperties
+     *            a map of properties to configure the JAXB marshaller
+     * @param additionalClasses
+     *            additional classes to be recognized by the JAXB context
+     * @throws InvalidXmlSchemaException
+     *             if XML validation against the schema fails
+     * @throws MalformedXmlException
+     *             if marshalling fails due to malformed XML
+     * @throws Xml2jDtoException
+     *             if the stream cannot be written, or any other JAXB exception occurs during marshalling
+     * @see Xml2jDto#marshalCompressed(Object, OutputStream, Compression, String, Map, Class...)
+     */
+    public static <T> void marshalCompressed(T dto, OutputStream outputStream, Compression compression, String schemaPath,
+            Map<String, Object> marshallerProperties, Class<?>... additionalClasses) {
+        Xml2jDto.getDefault().marshalCompressed(dto, outputStream, compression, schemaPath, marshallerProperties, additionalClasses);
     }
 
 }
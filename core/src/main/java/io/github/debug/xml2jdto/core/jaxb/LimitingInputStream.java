@@ -0,0 +1,68 @@
+package io.github.debug.xml2jdto.core.jaxb;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import io.github.debug.xml2jdto.core.exception.XmlLimitExceededException;
+
+/**
+ * Stream counting the bytes read by the parser, throws {@link XmlLimitExceededException} as soon as the document is longer than
+ * {@link ParsingLimits#getMaxDocumentBytes()}. The parser never reads more than the limit and its read buffer.
+ *
+ * @author scheffer.imrich
+ */
+final class LimitingInputStream extends FilterInputStream {
+
+    private final long maxBytes;
+
+    private long count;
+
+    /**
+     * @param in
+     *            the document
+     * @param maxBytes
+     *            the maximum number of bytes, positive
+     */
+    LimitingInputStream(InputStream in, long maxBytes) {
+        super(in);
+        this.maxBytes = maxBytes;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b >= 0) {
+            count(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int read = super.read(b, off, (int) Math.min(len, maxBytes - count + 1));
+        if (read > 0) {
+            count(read);
+        }
+        return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(Math.min(n, maxBytes - count + 1));
+        count(skipped);
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    private void count(long bytes) {
+        count += bytes;
+        if (count > maxBytes) {
+            throw new XmlLimitExceededException(ParsingLimits.MAX_DOCUMENT_BYTES, maxBytes, count);
+        }
+    }
+}
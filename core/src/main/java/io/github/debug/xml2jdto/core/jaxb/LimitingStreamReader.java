@@ -0,0 +1,106 @@
+package io.github.debug.xml2jdto.core.jaxb;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.util.StreamReaderDelegate;
+
+import io.github.debug.xml2jdto.core.exception.XmlLimitExceededException;
+
+/**
+ * Reader checking the depth, element, attribute and text limits of {@link ParsingLimits} at every event, throws
+ * {@link XmlLimitExceededException} at the first event above a limit.
+ * <p>
+ * Every consumer of the engine, JAXB, the generated StAX codecs, the path scanner and the validator, reads through {@link #next()}, so the
+ * checks cannot be bypassed; {@link #nextTag()} and {@link #getElementText()} are implemented on top of it.
+ * </p>
+ *
+ * @author scheffer.imrich
+ */
+final class LimitingStreamReader extends StreamReaderDelegate {
+
+    private final ParsingLimits limits;
+
+    private int depth;
+
+    private long elements;
+
+    private long textLength;
+
+    /**
+     * @param reader
+     *            the reader of the document, before its first event
+     * @param limits
+     *            the limits
+     */
+    LimitingStreamReader(XMLStreamReader reader, ParsingLimits limits) {
+        super(reader);
+        this.limits = limits;
+    }
+
+    @Override
+    public int next() throws XMLStreamException {
+        int event = super.next();
+        switch (event) {
+            case XMLStreamConstants.START_ELEMENT -> {
+                textLength = 0;
+                check(ParsingLimits.MAX_DEPTH, limits.getMaxDepth(), ++depth);
+                check(ParsingLimits.MAX_ELEMENTS, limits.getMaxElements(), ++elements);
+                check(ParsingLimits.MAX_ATTRIBUTES, limits.getMaxAttributes(), getAttributeCount());
+            }
+            case XMLStreamConstants.END_ELEMENT -> {
+                textLength = 0;
+                depth--;
+            }
+            case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA, XMLStreamConstants.SPACE -> {
+                textLength += getTextLength();
+                check(ParsingLimits.MAX_TEXT_LENGTH, limits.getMaxTextLength(), textLength);
+            }
+            case XMLStreamConstants.COMMENT, XMLStreamConstants.PROCESSING_INSTRUCTION -> {
+                // do not split a text node
+            }
+            default -> textLength = 0;
+        }
+        return event;
+    }
+
+    @Override
+    public int nextTag() throws XMLStreamException {
+        int event = next();
+        while (event == XMLStreamConstants.CHARACTERS && isWhiteSpace() || event == XMLStreamConstants.CDATA && isWhiteSpace()
+                || event == XMLStreamConstants.SPACE || event == XMLStreamConstants.PROCESSING_INSTRUCTION || event == XMLStreamConstants.COMMENT) {
+            event = next();
+        }
+        if (event != XMLStreamConstants.START_ELEMENT && event != XMLStreamConstants.END_ELEMENT) {
+            throw new XMLStreamException("expected start or end tag", getLocation());
+        }
+        return event;
+    }
+
+    @Override
+    public String getElementText() throws XMLStreamException {
+        if (getEventType() != XMLStreamConstants.START_ELEMENT) {
+            throw new XMLStreamException("parser must be on START_ELEMENT to read next text", getLocation());
+        }
+        StringBuilder text = new StringBuilder();
+        int event = next();
+        while (event != XMLStreamConstants.END_ELEMENT) {
+            if (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA || event == XMLStreamConstants.SPACE
+                    || event == XMLStreamConstants.ENTITY_REFERENCE) {
+                text.append(getText());
+            } else if (event == XMLStreamConstants.START_ELEMENT) {
+                throw new XMLStreamException("element text content may not contain START_ELEMENT", getLocation());
+            } else if (event == XMLStreamConstants.END_DOCUMENT) {
+                throw new XMLStreamException("unexpected end of document when reading element text content", getLocation());
+            }
+            event = next();
+        }
+        return text.toString();
+    }
+
+    private static void check(String limit, long max, long actual) {
+        if (max > 0 && actual > max) {
+            throw new XmlLimitExceededException(limit, max, actual);
+        }
+    }
+}
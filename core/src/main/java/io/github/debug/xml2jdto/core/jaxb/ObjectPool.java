@@ -0,0 +1,75 @@
+package io.github.debug.xml2jdto.core.jaxb;
+
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, non-blocking pool of reusable objects that are not thread-safe, e.g. {@code Unmarshaller}.
+ * <p>
+ * {@link #borrow()} never blocks: when the pool is empty a new object is created. {@link #release(Object)} keeps at most {@code maxIdle} objects,
+ * the surplus is left to the garbage collector. With {@code maxIdle} 0 the pool is disabled and every borrow creates a new object.
+ * </p>
+ *
+ * @param <T>
+ *            the type of the pooled objects
+ *
+ * @author scheffer.imrich
+ */
+final class ObjectPool<T> {
+
+    private final Deque<T> idle = new ConcurrentLinkedDeque<>();
+
+    private final AtomicInteger idleCount = new AtomicInteger();
+
+    private final int maxIdle;
+
+    private final Supplier<T> factory;
+
+    private final Xml2jDtoMetrics metrics;
+
+    private final String metricPrefix;
+
+    ObjectPool(int maxIdle, Supplier<T> factory, Xml2jDtoMetrics metrics, String metricPrefix) {
+        this.maxIdle = maxIdle;
+        this.factory = factory;
+        this.metrics = metrics;
+        this.metricPrefix = metricPrefix;
+    }
+
+    /**
+     * Takes an idle object, or creates a new one.
+     */
+    T borrow() {
+        T object = idle.pollFirst();
+        if (object != null) {
+            idleCount.decrementAndGet();
+            metrics.increment(metricPrefix + Xml2jDtoMetrics.HIT);
+            return object;
+        }
+        metrics.increment(metricPrefix + Xml2jDtoMetrics.MISS);
+        return factory.get();
+    }
+
+    /**
+     * Returns an object to the pool. The caller must have reset its state and must not use it any more.
+     */
+    void release(T object) {
+        if (object == null) {
+            return;
+        }
+        if (idleCount.incrementAndGet() > maxIdle) {
+            idleCount.decrementAndGet();
+            return;
+        }
+        idle.offerFirst(object);
+    }
+
+    /**
+     * @return the number of idle objects
+     */
+    int idleCount() {
+        return idleCount.get();
+    }
+}
@@ -0,0 +1,228 @@
+package io.github.debug.xml2jdto.core.jaxb;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Estimates the heap retained by object graphs with a bounded reflective walk, see {@link Xml2jDto#getFootprintReport()}.
+ * <p>
+ * The shallow size of an object follows the layout of a 64-bit JVM with compressed references: a 12 byte header, the fields or the array elements,
+ * padded to 8 bytes. Static fields, classes, class loaders, threads, enum constants and the excluded objects are not followed. The fields of the
+ * JDK classes cannot be read without {@code --add-opens}, so maps, collections, strings, optionals and atomic references are followed through
+ * their public API, with an estimated size of their internal nodes, and other JDK objects count with their shallow size only.
+ * </p>
+ * <p>
+ * The walks of one estimator share the visited objects, so an object reachable from several roots is counted once, by the first root that reaches
+ * it. Every walk stops after the given number of objects and reports itself as truncated.
+ * </p>
+ *
+ * <br/>
+ * Thread-safety: This class is not thread-safe, the walked graphs may change concurrently and are then estimated approximately.
+ *
+ * @author scheffer.imrich
+ */
+final class ObjectSizeEstimator {
+
+    private static final int HEADER = 12;
+
+    private static final int ARRAY_HEADER = 16;
+
+    private static final int REFERENCE = 4;
+
+    private static final int HASH_NODE = 32;
+
+    private static final ClassValue<Layout> LAYOUTS = new ClassValue<>() {
+        @Override
+        protected Layout computeValue(Class<?> type) {
+            return layout(type);
+        }
+    };
+
+    private final Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    private final int maxObjects;
+
+    private int opaqueObjects;
+
+    /**
+     * @param maxObjects
+     *            the maximum number of objects visited by one walk, positive
+     * @param excluded
+     *            the objects not followed and not counted, e.g. the owner of the walked graphs
+     */
+    ObjectSizeEstimator(int maxObjects, Object... excluded) {
+        this.maxObjects = maxObjects;
+        Collections.addAll(visited, excluded);
+    }
+
+    /**
+     * Estimates the heap reachable from the root and not counted by a previous walk.
+     *
+     * @param root
+     *            the root of the graph, may be null
+     * @return the estimate
+     */
+    Estimate estimate(Object root) {
+        Deque<Object> pending = new ArrayDeque<>();
+        push(pending, root);
+        long bytes = 0;
+        int objects = 0;
+        opaqueObjects = 0;
+        while (!pending.isEmpty()) {
+            if (objects == maxObjects) {
+                return new Estimate(bytes, objects, opaqueObjects, true);
+            }
+            Object object = pending.pop();
+            objects++;
+            bytes += visit(object, pending);
+        }
+        return new Estimate(bytes, objects, opaqueObjects, false);
+    }
+
+    private long visit(Object object, Deque<Object> pending) {
+        Class<?> type = object.getClass();
+        if (type.isArray()) {
+            int length = Array.getLength(object);
+            Class<?> component = type.getComponentType();
+            if (!component.isPrimitive()) {
+                for (int i = 0; i < length; i++) {
+                    push(pending, Array.get(object, i));
+                }
+            }
+            return align(ARRAY_HEADER + (long) length * size(component));
+        }
+        Layout layout = LAYOUTS.get(type);
+        for (Field field : layout.references) {
+            try {
+                push(pending, field.get(object));
+            } catch (IllegalAccessException e) {
+                // checked by the layout, not expected
+            }
+        }
+        if (!layout.opaque) {
+            return layout.shallowSize;
+        }
+        return layout.shallowSize + followJdk(object, pending);
+    }
+
+    /**
+     * Follows a JDK object through its public API, returns the estimated size of its internal nodes.
+     */
+    private long followJdk(Object object, Deque<Object> pending) {
+        try {
+            if (object instanceof String string) {
+                return align(ARRAY_HEADER + (long) string.length());
+            }
+            if (object instanceof Map<?, ?> map) {
+                List<Object> elements = new ArrayList<>(map.size() * 2);
+                map.forEach((key, value) -> {
+                    elements.add(key);
+                    elements.add(value);
+                });
+                elements.forEach(element -> push(pending, element));
+                return align(ARRAY_HEADER + (long) tableSize(map.size()) * REFERENCE) + (long) map.size() * HASH_NODE;
+            }
+            if (object instanceof Collection<?> collection) {
+                List<Object> elements = new ArrayList<>(collection);
+                elements.forEach(element -> push(pending, element));
+                long nodes = object instanceof Set<?> ? (long) elements.size() * HASH_NODE : 0;
+                return align(ARRAY_HEADER + (long) elements.size() * REFERENCE) + nodes;
+            }
+            if (object instanceof Optional<?> optional) {
+                optional.ifPresent(value -> push(pending, value));
+            } else if (object instanceof AtomicReference<?> reference) {
+                push(pending, reference.get());
+            } else {
+                opaqueObjects++;
+            }
+        } catch (RuntimeException e) {
+            // concurrently modified, the nodes are not counted
+        }
+        return 0;
+    }
+
+    private void push(Deque<Object> pending, Object object) {
+        if (object == null || object instanceof Class<?> || object instanceof ClassLoader || object instanceof Thread || object instanceof Enum<?>
+                || object instanceof Module) {
+            return;
+        }
+        if (visited.add(object)) {
+            pending.push(object);
+        }
+    }
+
+    private static Layout layout(Class<?> type) {
+        long size = HEADER;
+        List<Field> references = new ArrayList<>();
+        boolean opaque = false;
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers())) {
+                    continue;
+                }
+                size += size(field.getType());
+                if (field.getType().isPrimitive()) {
+                    continue;
+                }
+                if (field.trySetAccessible()) {
+                    references.add(field);
+                } else {
+                    opaque = true;
+                }
+            }
+        }
+        return new Layout(align(size), references.toArray(new Field[0]), opaque);
+    }
+
+    private static int size(Class<?> type) {
+        if (type == long.class || type == double.class) {
+            return 8;
+        }
+        if (type == int.class || type == float.class || !type.isPrimitive()) {
+            return 4;
+        }
+        if (type == short.class || type == char.class) {
+            return 2;
+        }
+        return 1;
+    }
+
+    private static int tableSize(int size) {
+        int capacity = (int) Math.min(1 << 30, size * 4L / 3 + 1);
+        return Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+    }
+
+    private static long align(long size) {
+        return (size + 7) & ~7L;
+    }
+
+    /**
+     * The estimate of one walk.
+     *
+     * @param bytes
+     *            the estimated heap of the visited objects
+     * @param objects
+     *            the number of visited objects
+     * @param opaqueObjects
+     *            the number of visited objects with unreadable reference fields, counted with their shallow size only
+     * @param truncated
+     *            true if the walk stopped at the bound before visiting every object
+     */
+    record Estimate(long bytes, int objects, int opaqueObjects, boolean truncated) {
+    }
+
+    private record Layout(long shallowSize, Field[] references, boolean opaque) {
+    }
+}
@@ -0,0 +1,46 @@
+package io.github.debug.xml2jdto.core.jaxb;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Predicts the marshalled size of a DTO class from the sizes of its recent outputs.
+ * <p>
+ * Every class has an exponentially weighted moving average of its output sizes; a new sample has the weight 1/4, so the prediction follows a
+ * changing workload within a few calls. The prediction is the average plus 1/8 headroom, so an output of about the average size fits into a buffer
+ * allocated once. The averages are held in a {@link ClassValue}, which does not keep the DTO classes and their class loaders alive.
+ * </p>
+ *
+ * @author scheffer.imrich
+ */
+final class OutputSizePredictor {
+
+    /**
+     * Prediction for a class without samples.
+     */
+    static final int DEFAULT_SIZE = 1024;
+
+    private final ClassValue<AtomicInteger> averages = new ClassValue<>() {
+        @Override
+        protected AtomicInteger computeValue(Class<?> type) {
+            return new AtomicInteger();
+        }
+    };
+
+    /**
+     * @return the predicted output size of the class in bytes
+     */
+    int predict(Class<?> type) {
+        int average = averages.get(type).get();
+        if (average == 0) {
+            return DEFAULT_SIZE;
+        }
+        return (int) Math.min(Integer.MAX_VALUE - 8, average + (long) (average >> 3));
+    }
+
+    /**
+     * Adds the size of an output of the class to its average.
+     */
+    void record(Class<?> type, int size) {
+        averages.get(type).updateAndGet(average -> average == 0 ? Math.max(1, size) : average + ((size - average) >> 2));
+    }
+}
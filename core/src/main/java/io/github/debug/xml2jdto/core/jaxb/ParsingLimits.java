@@ -0,0 +1,301 @@
+package io.github.debug.xml2jdto.core.jaxb;
+
+import java.text.MessageFormat;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import io.github.debug.xml2jdto.core.exception.XmlLimitExceededException;
+
+/**
+ * Immutable resource limits of the parsed documents, see {@link Xml2jDto.Builder#parsingLimits(ParsingLimits)}.
+ * <p>
+ * The parser defaults accept documents of any size, nesting depth and element count, so an oversized or hostile document costs CPU and heap in
+ * proportion to its size. With limits every unmarshal and validate call of the engine counts the bytes and the parse events while it reads, and
+ * throws an {@link XmlLimitExceededException} at the first event above a limit, so the rejection costs no more than the limit:
+ * </p>
+ *
+ * <pre>
+ * {@code
+ * ParsingLimits limits = ParsingLimits.builder()
+ *         .maxDocumentBytes(10L << 20)
+ *         .maxDepth(64)
+ *         .maxElements(200_000)
+ *         .build();
+ * Xml2jDto engine = Xml2jDto.builder().parsingLimits(limits).build();
+ * }
+ * </pre>
+ *
+ * Every limit of 0 or less means unlimited. The document size is counted after decompression, in bytes for streams and in characters for strings.
+ *
+ * <br/>
+ * Thread-safety: This class is immutable and thread-safe.
+ *
+ * @author scheffer.imrich
+ */
+public final class ParsingLimits {
+
+    /**
+     * Name of the limit of the document size.
+     */
+    public static final String MAX_DOCUMENT_BYTES = "maxDocumentBytes";
+
+    /**
+     * Name of the limit of the element nesting depth, the root element is at depth 1.
+     */
+    public static final String MAX_DEPTH = "maxDepth";
+
+    /**
+     * Name of the limit of the number of elements of the document.
+     */
+    public static final String MAX_ELEMENTS = "maxElements";
+
+    /**
+     * Name of the limit of the number of attributes of an element.
+     */
+    public static final String MAX_ATTRIBUTES = "maxAttributes";
+
+    /**
+     * Name of the limit of the length of a text node, in characters.
+     */
+    public static final String MAX_TEXT_LENGTH = "maxTextLength";
+
+    /**
+     * Prefix of the system properties of the limits of the {@link Xml2jDto#getDefault() default engine}, used by {@link JaxbUtil}, e.g.
+     * {@code xml2jdto.limits.maxDepth}.
+     */
+    public static final String PROPERTY_PREFIX = "xml2jdto.limits.";
+
+    /**
+     * No limits, the default.
+     */
+    public static final ParsingLimits NONE = builder().build();
+
+    private final long maxDocumentBytes;
+
+    private final int maxDepth;
+
+    private final long maxElements;
+
+    private final int maxAttributes;
+
+    private final int maxTextLength;
+
+    private ParsingLimits(Builder builder) {
+        this.maxDocumentBytes = Math.max(builder.maxDocumentBytes, 0);
+        this.maxDepth = Math.max(builder.maxDepth, 0);
+        this.maxElements = Math.max(builder.maxElements, 0);
+        this.maxAttributes = Math.max(builder.maxAttributes, 0);
+        this.maxTextLength = Math.max(builder.maxTextLength, 0);
+    }
+
+    /**
+     * Creates a builder of limits, every limit is unlimited by default.
+     *
+     * @return a new builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the limits set by the system properties with the {@value #PROPERTY_PREFIX} prefix and the name of the limit.
+     *
+     * @return the limits, unlimited if no property is set
+     */
+    public static ParsingLimits fromSystemProperties() {
+        return builder().maxDocumentBytes(property(MAX_DOCUMENT_BYTES))
+                .maxDepth(intProperty(MAX_DEPTH))
+                .maxElements(property(MAX_ELEMENTS))
+                .maxAttributes(intProperty(MAX_ATTRIBUTES))
+                .maxTextLength(intProperty(MAX_TEXT_LENGTH))
+                .build();
+    }
+
+    private static int intProperty(String limit) {
+        return (int) Math.min(property(limit), Integer.MAX_VALUE);
+    }
+
+    private static long property(String limit) {
+        String property = System.getProperty(PROPERTY_PREFIX + limit);
+        if (property == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(property.trim());
+        } catch (NumberFormatException e) {
+            Logger.getLogger(ParsingLimits.class.getName())
+                    .log(Level.WARNING, "Invalid value of the {0} system property: [{1}]", new Object[] { PROPERTY_PREFIX + limit, property });
+            return 0;
+        }
+    }
+
+    /**
+     * Returns the maximum size of a document.
+     *
+     * @return the maximum size of a document, 0 for unlimited
+     */
+    public long getMaxDocumentBytes() {
+        return maxDocumentBytes;
+    }
+
+    /**
+     * Returns the maximum nesting depth of the elements.
+     *
+     * @return the maximum nesting depth of the elements, 0 for unlimited
+     */
+    public int getMaxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Returns the maximum number of elements of a document.
+     *
+     * @return the maximum number of elements of a document, 0 for unlimited
+     */
+    public long getMaxElements() {
+        return maxElements;
+    }
+
+    /**
+     * Returns the maximum number of attributes of an element.
+     *
+     * @return the maximum number of attributes of an element, 0 for unlimited
+     */
+    public int getMaxAttributes() {
+        return maxAttributes;
+    }
+
+    /**
+     * Returns the maximum length of a text node.
+     *
+     * @return the maximum length of a text node in characters, 0 for unlimited
+     */
+    public int getMaxTextLength() {
+        return maxTextLength;
+    }
+
+    /**
+     * Checks whether any limit is set.
+     *
+     * @return true if any limit is set
+     */
+    public boolean isLimited() {
+        return maxDocumentBytes > 0 || hasEventLimits();
+    }
+
+    /**
+     * Checks whether a limit needs the parse events to be counted.
+     */
+    boolean hasEventLimits() {
+        return maxDepth > 0 || maxElements > 0 || maxAttributes > 0 || maxTextLength > 0;
+    }
+
+    /**
+     * Checks the size of a string document before it is parsed.
+     *
+     * @throws XmlLimitExceededException
+     *             if the string is longer than the size limit
+     */
+    void checkDocumentLength(String xml) {
+        if (maxDocumentBytes > 0 && xml.length() > maxDocumentBytes) {
+            throw new XmlLimitExceededException(MAX_DOCUMENT_BYTES, maxDocumentBytes, xml.length());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return MessageFormat.format("ParsingLimits[maxDocumentBytes={0}, maxDepth={1}, maxElements={2}, maxAttributes={3}, maxTextLength={4}]",
+                String.valueOf(maxDocumentBytes), String.valueOf(maxDepth), String.valueOf(maxElements), String.valueOf(maxAttributes),
+                String.valueOf(maxTextLength));
+    }
+
+    /**
+     * Builder of {@link ParsingLimits}. Every limit of 0 or less means unlimited.
+     */
+    public static final class Builder {
+
+        private long maxDocumentBytes;
+
+        private int maxDepth;
+
+        private long maxElements;
+
+        private int maxAttributes;
+
+        private int maxTextLength;
+
+        private Builder() {
+            super();
+        }
+
+        /**
+         * Sets the maximum size of a document after decompression, in bytes for streams and in characters for strings.
+         *
+         * @param maxDocumentBytes
+         *            the limit, 0 or less for unlimited
+         * @return this builder
+         */
+        public Builder maxDocumentBytes(long maxDocumentBytes) {
+            this.maxDocumentBytes = maxDocumentBytes;
+            return this;
+        }
+
+        /**
+         * Sets the maximum nesting depth of the elements, the root element is at depth 1. Recursive types, such as nested directories, otherwise
+         * accept any depth.
+         *
+         * @param maxDepth
+         *            the limit, 0 or less for unlimited
+         * @return this builder
+         */
+        public Builder maxDepth(int maxDepth) {
+            this.maxDepth = maxDepth;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of elements of a document.
+         *
+         * @param maxElements
+         *            the limit, 0 or less for unlimited
+         * @return this builder
+         */
+        public Builder maxElements(long maxElements) {
+            this.maxElements = maxElements;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of attributes of an element, the namespace declarations not included.
+         *
+         * @param maxAttributes
+         *            the limit, 0 or less for unlimited
+         * @return this builder
+         */
+        public Builder maxAttributes(int maxAttributes) {
+            this.maxAttributes = maxAttributes;
+            return this;
+        }
+
+        /**
+         * Sets the maximum length of a text node in characters, the adjacent text and CDATA sections counted together.
+         *
+         * @param maxTextLength
+         *            the limit, 0 or less for unlimited
+         * @return this builder
+         */
+        public Builder maxTextLength(int maxTextLength) {
+            this.maxTextLength = maxTextLength;
+            return this;
+        }
+
+        /**
+         * Creates the limits.
+         *
+         * @return the limits
+         */
+        public ParsingLimits build() {
+            return new ParsingLimits(this);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package io.github.debug.xml2jdto.core.jaxb;
+
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.github.debug.xml2jdto.core.exception.InvalidMethodParameterException;
+
+/**
+ * Result of {@link Xml2jDto#unmarshalPaths(java.io.InputStream, Map)}: the objects bound from the elements selected by each path, in document
+ * order.
+ *
+ * @author scheffer.imrich
+ */
+public final class PartialResult {
+
+    private final Map<String, List<Object>> values = new LinkedHashMap<>();
+
+    PartialResult(Iterable<String> paths) {
+        for (String path : paths) {
+            values.put(path, new ArrayList<>(1));
+        }
+    }
+
+    void add(String path, Object value) {
+        values.get(path).add(value);
+    }
+
+    /**
+     * Returns the object bound from the first element selected by the path.
+     *
+     * @param <T>
+     *            the type of the object
+     * @param path
+     *            the path as given to the unmarshal call
+     * @param type
+     *            the class of the path
+     * @return the object, or null if the path selected no element
+     * @throws InvalidMethodParameterException
+     *             if the path was not given to the unmarshal call
+     * @throws ClassCastException
+     *             if the object is not of the type
+     */
+    public <T> T get(String path, Class<T> type) {
+        List<Object> list = list(path);
+        return list.isEmpty() ? null : type.cast(list.get(0));
+    }
+
+    /**
+     * Returns the objects bound from every element selected by the path.
+     *
+     * @param <T>
+     *            the type of the objects
+     * @param path
+     *            the path as given to the unmarshal call
+     * @param type
+     *            the class of the path
+     * @return the unmodifiable list of the objects in document order, empty if the path selected no element
+     * @throws InvalidMethodParameterException
+     *             if the path was not given to the unmarshal call
+     * @throws ClassCastException
+     *             if an object is not of the type
+     */
+    public <T> List<T> getAll(String path, Class<T> type) {
+        List<Object> list = list(path);
+        for (Object value : list) {
+            type.cast(value);
+        }
+        @SuppressWarnings("unchecked")
+        List<T> typed = (List<T>) Collections.unmodifiableList(list);
+        return typed;
+    }
+
+    /**
+     * Checks whether the path selected an element.
+     *
+     * @param path
+     *            the path as given to the unmarshal call
+     * @return true if at least one element was bound for the path
+     * @throws InvalidMethodParameterException
+     *             if the path was not given to the unmarshal call
+     */
+    public boolean contains(String path) {
+        return !list(path).isEmpty();
+    }
+
+    private List<Object> list(String path) {
+        List<Object> list = values.get(path);
+        if (list == null) {
+            throw new InvalidMethodParameterException(MessageFormat.format("path was not unmarshalled: [{0}]!", path));
+        }
+        return list;
+    }
+
+    @Override
+    public String toString() {
+        return "PartialResult" + values;
+    }
+}
@@ -0,0 +1,143 @@
+package io.github.debug.xml2jdto.core.jaxb;
+
+import java.util.List;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import jakarta.xml.bind.JAXBException;
+
+/**
+ * Walks a document with a {@link XMLStreamReader} and hands the elements selected by a set of {@link ElementPath}s to a binder.
+ * <p>
+ * Only the names of the open elements are kept. An element that no path can select, and that no path can select a descendant of, is skipped by
+ * reading its events without looking at them, so nothing is allocated for it. A selected element is bound as a whole, the paths are not matched
+ * inside it. When every path has a trailing {@code [1]} and has been matched, the rest of the document is not read at all.
+ * </p>
+ *
+ * @author scheffer.imrich
+ */
+final class PathScanner {
+
+    /**
+     * Binds a selected element.
+     */
+    @FunctionalInterface
+    interface ElementBinder {
+
+        /**
+         * Binds the element the reader is positioned on.
+         *
+         * @param reader
+         *            the reader, on the start of the element; it must be left on the event after the end of the element
+         * @param pathIndex
+         *            the index of the path selecting the element
+         * @return the bound object
+         * @throws XMLStreamException
+         *             if the document is malformed
+         * @throws JAXBException
+         *             if the element cannot be bound
+         */
+        Object bind(XMLStreamReader reader, int pathIndex) throws XMLStreamException, JAXBException;
+    }
+
+    private final List<ElementPath> paths;
+
+    private final boolean[] done;
+
+    private final ElementStack stack = new ElementStack();
+
+    PathScanner(List<ElementPath> paths) {
+        this.paths = paths;
+        this.done = new boolean[paths.size()];
+    }
+
+    /**
+     * Reads the document and binds the selected elements into the result.
+     *
+     * @param reader
+     *            the reader, before the root element
+     * @param binder
+     *            the binder of the selected elements
+     * @param result
+     *            the result, keyed by the expressions of the paths
+     * @throws XMLStreamException
+     *             if the document is malformed
+     * @throws JAXBException
+     *             if an element cannot be bound
+     */
+    void scan(XMLStreamReader reader, ElementBinder binder, PartialResult result) throws XMLStreamException, JAXBException {
+        boolean advance = true;
+        while (!isComplete()) {
+            int event;
+            if (advance) {
+                if (!reader.hasNext()) {
+                    return;
+                }
+                event = reader.next();
+            } else {
+                event = reader.getEventType();
+                advance = true;
+            }
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                stack.push(reader.getNamespaceURI(), reader.getLocalName());
+                int pathIndex = match();
+                if (pathIndex >= 0) {
+                    ElementPath path = paths.get(pathIndex);
+                    result.add(path.expression(), binder.bind(reader, pathIndex));
+                    done[pathIndex] = path.isFirst();
+                    stack.pop();
+                    advance = false;
+                } else if (!mayMatchBelow()) {
+                    skipElement(reader);
+                    stack.pop();
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                stack.pop();
+            }
+        }
+    }
+
+    private boolean isComplete() {
+        for (boolean pathDone : done) {
+            if (!pathDone) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int match() {
+        for (int i = 0; i < done.length; i++) {
+            if (!done[i] && paths.get(i).matches(stack)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private boolean mayMatchBelow() {
+        for (int i = 0; i < done.length; i++) {
+            if (!done[i] && paths.get(i).mayMatchBelow(stack)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reads the events up to the end of the element the reader is positioned on.
+     */
+    static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int level = 1;
+        while (level > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                level++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                level--;
+            }
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package io.github.debug.xml2jdto.core.jaxb;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+import io.github.debug.xml2jdto.core.codec.BinaryCodecs;
+import io.github.debug.xml2jdto.core.exception.InvalidXmlSchemaException;
+import io.github.debug.xml2jdto.core.exception.MalformedXmlException;
+
+/**
+ * Content-addressed cache of the outcomes of the unmarshal and validate calls of an {@link Xml2jDto} engine, for the retries and fan-outs that
+ * process byte-identical documents many times.
+ * <p>
+ * The key is the hash of the payload, its length, the target class (none for a validation) and the schema path. A hit is confirmed by comparing
+ * the cached payload with the new one outside the lock, so a hash collision is a miss and never a wrong result; a repeated document costs a hash
+ * and a comparison instead of a parse. The {@link InvalidXmlSchemaException} and {@link MalformedXmlException} of a payload are cached too and
+ * rethrown as new exceptions with the same events; other failures are not cached.
+ * </p>
+ * <p>
+ * A result is only cached if its class has a copier, the identity for the immutable ones, or a generated {@link BinaryCodecs binary codec} to
+ * copy it with. The cache keeps a copy of the result and every hit returns a new copy, so the callers never share a mutable object. The entries are
+ * evicted in LRU order when either the number of entries or the sum of the payload lengths exceeds its bound. Two concurrent misses of the same
+ * payload both compute the result.
+ * </p>
+ *
+ * @author scheffer.imrich
+ */
+final class ResultCache {
+
+    private final Map<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final int maxEntries;
+
+    private final long maxWeight;
+
+    private final Map<Class<?>, UnaryOperator<?>> copiers;
+
+    private final ClassValue<UnaryOperator<Object>> resolvedCopiers = new ClassValue<>() {
+        @Override
+        protected UnaryOperator<Object> computeValue(Class<?> type) {
+            return copier(type);
+        }
+    };
+
+    private final Xml2jDtoMetrics metrics;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    private long weight;
+
+    /**
+     * @param maxEntries
+     *            the maximum number of entries, positive
+     * @param maxWeight
+     *            the maximum sum of the payload lengths, positive
+     * @param copiers
+     *            the copiers of the results by class
+     * @param metrics
+     *            the sink of the hit, miss and eviction counters
+     */
+    ResultCache(int maxEntries, long maxWeight, Map<Class<?>, UnaryOperator<?>> copiers, Xml2jDtoMetrics metrics) {
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+        this.copiers = Map.copyOf(copiers);
+        this.metrics = metrics;
+    }
+
+    /**
+     * Checks whether the results of the class can be cached.
+     */
+    boolean isCacheable(Class<?> type) {
+        return resolvedCopiers.get(type) != null;
+    }
+
+    /**
+     * Returns a copy of the cached result of the payload, or computes, caches and returns it.
+     *
+     * @param payload
+     *            the document, a {@code String} or a {@code byte[]} owned by the cache from now on
+     * @param type
+     *            the class of the result, cacheable
+     * @param xsdPath
+     *            the schema path of the call
+     * @param loader
+     *            the uncached call
+     * @return the result
+     */
+    <T> T unmarshal(Object payload, Class<T> type, String xsdPath, Supplier<T> loader) {
+        UnaryOperator<Object> copier = resolvedCopiers.get(type);
+        return type.cast(get(new Key(hash(payload), length(payload), type, xsdPath), payload, copier, loader));
+    }
+
+    /**
+     * Validates the payload, unless the outcome of its validation is cached.
+     *
+     * @param payload
+     *            the document, owned by the cache from now on
+     * @param xsdPath
+     *            the schema path
+     * @param validation
+     *            the uncached validation
+     */
+    void validate(byte[] payload, String xsdPath, Runnable validation) {
+        get(new Key(hash(payload), payload.length, null, xsdPath), payload, UnaryOperator.identity(), () -> {
+            validation.run();
+            return Boolean.TRUE;
+        });
+    }
+
+    /**
+     * Removes the entries of a schema path, after its schema has changed.
+     */
+    synchronized void invalidateSchema(String xsdPath) {
+        Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Key, Entry> entry = iterator.next();
+            if (xsdPath.equals(entry.getKey().xsdPath())) {
+                weight -= entry.getValue().weight;
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Removes every entry; the statistics are kept.
+     */
+    synchronized void clear() {
+        entries.clear();
+        weight = 0;
+    }
+
+    /**
+     * @return the current statistics
+     */
+    CacheStats stats() {
+        int size;
+        synchronized (this) {
+            size = entries.size();
+        }
+        return new CacheStats(size, maxEntries, hits.sum(), misses.sum(), evictions.sum());
+    }
+
+    private Object get(Key key, Object payload, UnaryOperator<Object> copier, Supplier<?> loader) {
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+        }
+        if (entry != null && samePayload(entry.payload, payload)) {
+            hits.increment();
+            metrics.increment(Xml2jDtoMetrics.RESULT_CACHE + Xml2jDtoMetrics.HIT);
+            if (entry.failure != null) {
+                throw copy(entry.failure);
+            }
+            return copier.apply(entry.value);
+        }
+        misses.increment();
+        metrics.increment(Xml2jDtoMetrics.RESULT_CACHE + Xml2jDtoMetrics.MISS);
+        Object value;
+        try {
+            value = loader.get();
+        } catch (InvalidXmlSchemaException | MalformedXmlException e) {
+            put(key, new Entry(payload, null, e));
+            throw e;
+        }
+        put(key, new Entry(payload, copier.apply(value), null));
+        return value;
+    }
+
+    private synchronized void put(Key key, Entry entry) {
+        if (entry.weight > maxWeight) {
+            return;
+        }
+        Entry previous = entries.put(key, entry);
+        if (previous != null) {
+            weight -= previous.weight;
+        }
+        weight += entry.weight;
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (entries.size() > maxEntries || weight > maxWeight) {
+            weight -= eldest.next().weight;
+            eldest.remove();
+            evictions.increment();
+            metrics.increment(Xml2jDtoMetrics.RESULT_CACHE + Xml2jDtoMetrics.EVICTION);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private UnaryOperator<Object> copier(Class<?> type) {
+        UnaryOperator<?> copier = copiers.get(type);
+        if (copier != null) {
+            return (UnaryOperator<Object>) copier;
+        }
+        if (BinaryCodecs.isSupported(type)) {
+            return value -> BinaryCodecs.decode(BinaryCodecs.encode(value), type);
+        }
+        return null;
+    }
+
+    /**
+     * Creates the exception thrown by a hit, the cached one must not collect the suppressed exceptions and the stack of the callers.
+     */
+    private static RuntimeException copy(RuntimeException failure) {
+        if (failure instanceof InvalidXmlSchemaException invalid) {
+            return new InvalidXmlSchemaException(invalid.getEvents(), invalid.getCause());
+        }
+        MalformedXmlException malformed = (MalformedXmlException) failure;
+        return new MalformedXmlException(malformed.getEvents(), malformed.getCause());
+    }
+
+    private static int hash(Object payload) {
+        return payload instanceof byte[] bytes ? Arrays.hashCode(bytes) : payload.hashCode();
+    }
+
+    private static int length(Object payload) {
+        return payload instanceof byte[] bytes ? bytes.length : ((String) payload).length();
+    }
+
+    private static boolean samePayload(Object cached, Object payload) {
+        if (cached instanceof byte[] cachedBytes) {
+            return payload instanceof byte[] bytes && Arrays.equals(cachedBytes, bytes);
+        }
+        return cached.equals(payload);
+    }
+
+    private record Key(int hash, int length, Class<?> type, String xsdPath) {
+    }
+
+    private static final class Entry {
+        private final Object payload;
+        private final Object value;
+        private final RuntimeException failure;
+        private final long weight;
+
+        private Entry(Object payload, Object value, RuntimeException failure) {
+            this.payload = payload;
+            this.value = value;
+            this.failure = failure;
+            this.weight = length(payload);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package io.github.debug.xml2jdto.core.jaxb;
+
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Unsynchronized, reusable in-memory output stream, the pooled marshal buffer of {@link Xml2jDto#marshalToBytes(Object)}.
+ * <p>
+ * Unlike {@link java.io.ByteArrayOutputStream} the buffer can be presized before a write with {@link #ensureCapacity(int)} and is kept by
+ * {@link #reset()}, so a pooled instance serves many marshal calls without reallocation. The stream is confined to one thread at a time.
+ * </p>
+ *
+ * @author scheffer.imrich
+ */
+final class ReusableByteArrayOutputStream extends OutputStream {
+
+    private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+    private byte[] buffer;
+
+    private int count;
+
+    ReusableByteArrayOutputStream(int initialCapacity) {
+        this.buffer = new byte[Math.max(0, initialCapacity)];
+    }
+
+    /**
+     * Grows the buffer to at least the given capacity. A buffer that is still empty is replaced instead of copied.
+     */
+    void ensureCapacity(int minCapacity) {
+        if (minCapacity <= buffer.length) {
+            return;
+        }
+        if (minCapacity > MAX_ARRAY_SIZE) {
+            throw new OutOfMemoryError("Required marshal buffer size too large: " + minCapacity);
+        }
+        int newCapacity = (int) Math.min(MAX_ARRAY_SIZE, Math.max((long) buffer.length << 1, minCapacity));
+        buffer = count == 0 ? new byte[newCapacity] : Arrays.copyOf(buffer, newCapacity);
+    }
+
+    @Override
+    public void write(int b) {
+        ensureCapacity(count + 1);
+        buffer[count++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        Objects.checkFromIndexSize(off, len, b.length);
+        ensureCapacity(count + len);
+        System.arraycopy(b, off, buffer, count, len);
+        count += len;
+    }
+
+    /**
+     * Discards the written bytes, the buffer is kept.
+     */
+    void reset() {
+        count = 0;
+    }
+
+    /**
+     * @return the number of written bytes
+     */
+    int size() {
+        return count;
+    }
+
+    /**
+     * @return the length of the buffer
+     */
+    int capacity() {
+        return buffer.length;
+    }
+
+    /**
+     * @return an exact-sized copy of the written bytes
+     */
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, count);
+    }
+}
@@ -0,0 +1,34 @@
+package io.github.debug.xml2jdto.core.jaxb;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
+
+import javax.xml.validation.Schema;
+
+/**
+ * A compiled {@link Schema} in the cache of an {@link Xml2jDto} engine, see {@link Xml2jDto#getSchemaCacheEntries()}.
+ *
+ * @param key
+ *            the cache key, the XSD path or the name of a {@link Xml2jDto.Builder#compositeSchema(String, List) composite schema}
+ * @param xsdPaths
+ *            the XSD files compiled into the schema
+ * @param namespaces
+ *            the target namespaces of the XSD files ({@code ""} for none) and the namespaces of their resolved imports
+ * @param schema
+ *            the compiled schema
+ * @param compileTime
+ *            the duration of the compilation
+ * @param compileAllocatedBytes
+ *            the heap allocated by the thread of the compilation, -1 if the JVM does not measure it. This is not the memory used by the schema: it
+ *            counts the garbage of the parser and, for the first compilation, the loading of the catalog and the reads of the disk cache, so it is
+ *            typically an order of magnitude above the retained size
+ * @param loadedAt
+ *            the end of the compilation
+ *
+ * @author scheffer.imrich
+ */
+public record SchemaCacheEntry(String key, List<String> xsdPaths, Set<String> namespaces, Schema schema, Duration compileTime, long compileAllocatedBytes,
+        Instant loadedAt) {
+}
@@ -0,0 +1,59 @@
+package io.github.debug.xml2jdto.core.jaxb;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import io.github.debug.xml2jdto.core.collection.StringTable;
+
+/**
+ * Deduplication of the string values of the unmarshalled object graphs, see {@link Xml2jDto.Builder#stringDeduplication(StringDeduplication)}.
+ * <p>
+ * Documents repeat the same names, codes and statuses many times, and every occurrence becomes a separate {@link String} of the bound graph. With
+ * deduplication the values of the {@code String} and {@code List<String>} properties are replaced by the equal instance of a bounded
+ * {@link StringTable}, so the retained heap of a large document shrinks without a change of the DTO classes.
+ * </p>
+ *
+ * @author scheffer.imrich
+ */
+public enum StringDeduplication {
+
+    /**
+     * Every value is a separate string, the default.
+     */
+    NONE,
+
+    /**
+     * Every unmarshal call uses a new table, the strings are shared within one document.
+     */
+    PER_CALL,
+
+    /**
+     * The engine uses one table for every call, the strings are shared across documents too, e.g. by the DTOs kept in a cache.
+     */
+    SHARED;
+
+    /**
+     * Name of the system property selecting the deduplication of the {@link Xml2jDto#getDefault() default engine}, used by {@link JaxbUtil}.
+     */
+    public static final String PROPERTY = "xml2jdto.unmarshal.stringDeduplication";
+
+    /**
+     * Returns the deduplication selected by the {@value #PROPERTY} system property.
+     *
+     * @return the selected deduplication, {@link #NONE} if the property is not set or is not a constant name
+     */
+    public static StringDeduplication fromSystemProperty() {
+        String property = System.getProperty(PROPERTY);
+        if (property == null) {
+            return NONE;
+        }
+        for (StringDeduplication value : values()) {
+            if (value.name().equalsIgnoreCase(property.trim())) {
+                return value;
+            }
+        }
+        Logger.getLogger(StringDeduplication.class.getName())
+                .log(Level.WARNING, "Unknown value of the {0} system property: [{1}]", new Object[] { PROPERTY, property });
+        return NONE;
+    }
+}
@@ -0,0 +1,97 @@
+package io.github.debug.xml2jdto.core.jaxb;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import jakarta.xml.bind.Unmarshaller;
+
+import io.github.debug.xml2jdto.core.collection.StringTable;
+
+/**
+ * Unmarshaller listener replacing the values of the {@code String} and {@code List<String>} fields of every unmarshalled object with the equal
+ * instance of a {@link StringTable}.
+ * <p>
+ * JAXB calls {@link #afterUnmarshal(Object, Object)} when an object is complete, so the deduplication needs no separate walk of the graph and no
+ * change of the DTO classes. The fields of a class, including the inherited ones, are looked up once per class. Fields that cannot be made
+ * accessible are skipped.
+ * </p>
+ *
+ * @author scheffer.imrich
+ */
+final class StringDeduplicator extends Unmarshaller.Listener {
+
+    private static final Logger LOGGER = Logger.getLogger(StringDeduplicator.class.getName());
+
+    private static final ClassValue<Field[]> STRING_FIELDS = new ClassValue<>() {
+        @Override
+        protected Field[] computeValue(Class<?> type) {
+            return stringFields(type);
+        }
+    };
+
+    private final StringTable strings;
+
+    StringDeduplicator(StringTable strings) {
+        this.strings = strings;
+    }
+
+    @Override
+    public void afterUnmarshal(Object target, Object parent) {
+        for (Field field : STRING_FIELDS.get(target.getClass())) {
+            try {
+                Object value = field.get(target);
+                if (value instanceof String string) {
+                    String interned = strings.intern(string);
+                    if (interned != string) {
+                        field.set(target, interned);
+                    }
+                } else if (value instanceof List<?> list) {
+                    @SuppressWarnings("unchecked")
+                    List<String> stringList = (List<String>) list;
+                    stringList.replaceAll(strings::intern);
+                }
+            } catch (IllegalAccessException | UnsupportedOperationException e) {
+                LOGGER.log(Level.FINE, "String field not deduplicated: [{0}]", field);
+            }
+        }
+    }
+
+    private static Field[] stringFields(Class<?> type) {
+        List<Field> fields = new ArrayList<>();
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                int modifiers = field.getModifiers();
+                if (!Modifier.isStatic(modifiers) && !Modifier.isFinal(modifiers) && isStringType(field) && trySetAccessible(field)) {
+                    fields.add(field);
+                }
+            }
+        }
+        return fields.toArray(Field[]::new);
+    }
+
+    private static boolean isStringType(Field field) {
+        if (field.getType() == String.class) {
+            return true;
+        }
+        Type genericType = field.getGenericType();
+        return List.class.isAssignableFrom(field.getType())
+                && genericType instanceof ParameterizedType parameterizedType
+                && parameterizedType.getActualTypeArguments().length == 1
+                && parameterizedType.getActualTypeArguments()[0] == String.class;
+    }
+
+    private static boolean trySetAccessible(Field field) {
+        try {
+            return field.trySetAccessible();
+        } catch (SecurityException e) {
+            LOGGER.log(Level.FINE, "String field not accessible: [{0}]", field);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,3008 @@
+package io.github.debug.xml2jdto.core.jaxb;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.InvalidParameterException;
+import java.text.MessageFormat;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+import javax.xml.XMLConstants;
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+import javax.xml.transform.sax.SAXSource;
+import javax.xml.transform.stax.StAXSource;
+import javax.xml.transform.stream.StreamSource;
+import javax.xml.validation.Schema;
+import javax.xml.validation.Validator;
+import javax.xml.validation.ValidatorHandler;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.JAXBException;
+import jakarta.xml.bind.MarshalException;
+import jakarta.xml.bind.Marshaller;
+import jakarta.xml.bind.PropertyException;
+import jakarta.xml.bind.UnmarshalException;
+import jakarta.xml.bind.Unmarshaller;
+import jakarta.xml.bind.UnmarshallerHandler;
+import jakarta.xml.bind.ValidationEvent;
+import jakarta.xml.bind.annotation.XmlRegistry;
+
+import org.apache.commons.lang3.StringUtils;
+import org.w3c.dom.ls.LSResourceResolver;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import io.github.debug.xml2jdto.core.collection.StringTable;
+import io.github.debug.xml2jdto.core.exception.ExBuilder;
+import io.github.debug.xml2jdto.core.exception.InvalidMethodParameterException;
+import io.github.debug.xml2jdto.core.exception.InvalidXmlSchemaException;
+import io.github.debug.xml2jdto.core.exception.MalformedXmlException;
+import io.github.debug.xml2jdto.core.exception.Xml2jDtoException;
+import io.github.debug.xml2jdto.core.exception.XmlLimitExceededException;
+import io.github.debug.xml2jdto.core.exception.XmlParsingCancelledException;
+import io.github.debug.xml2jdto.core.jaxb.catalog.CatalogConfig;
+import io.github.debug.xml2jdto.core.jaxb.catalog.CatalogProducer;
+import io.github.debug.xml2jdto.core.jaxb.catalog.CatalogResourceResolver;
+import io.github.debug.xml2jdto.core.jaxb.catalog.SchemaDiskCache;
+import io.github.debug.xml2jdto.core.jaxb.event.XsdValidationEventCollector;
+import io.github.debug.xml2jdto.core.stax.StaxCodec;
+import io.github.debug.xml2jdto.core.stax.StaxCodecs;
+import io.github.debug.xml2jdto.core.stax.StaxReadContext;
+
+/**
+ * Instance based XML binding engine with its own, individually bounded caches.
+ * <p>
+ * An engine owns a {@link JAXBContext} cache, a {@link Schema} cache, a pool of {@link Unmarshaller} instances for every context, a catalog with its
+ * resolution cache, default marshaller properties, an executor for the asynchronous operations and a {@link Xml2jDtoMetrics metrics sink}. Separate
+ * engines share none of them, so a noisy tenant or subsystem can be isolated with its own engine and memory budget:
+ * </p>
+ *
+ * <pre>
+ * {@code
+ * Xml2jDto engine = Xml2jDto.builder()
+ *         .maxJaxbContexts(32)
+ *         .maxSchemas(8)
+ *         .maxUnmarshallersPerContext(16)
+ *         .catalogPaths(List.of("tenant-a/catalog.cat"))
+ *         .executor(tenantExecutor)
+ *         .metrics(tenantMetrics)
+ *         .build();
+ * Storage storage = engine.unmarshal(inputStream, Storage.class, "xsd/storage.xsd");
+ * }
+ * </pre>
+ * <p>
+ * The static {@link JaxbUtil} methods delegate to the {@link #getDefault() default engine}, which is built with the builder defaults and the JVM
+ * wide catalog configuration ({@code xml2jdto.catalog.path}).
+ * </p>
+ * <p>
+ * Root element classes with a {@link StaxCodec} generated by the {@code -Xxml2jdto-stax} XJC plugin are unmarshalled and marshalled by the
+ * generated code instead of JAXB, with the same validation and the same exceptions, see {@link Builder#staxCodecs(boolean)}.
+ * </p>
+ * <br/>
+ * Thread-safety: This class is thread-safe.
+ *
+ * @author scheffer.imrich
+ */
+public final class Xml2jDto {
+
+    /**
+     * Default value of {@link Builder#maxCatalogEntries(int)}.
+     */
+    public static final int DEFAULT_MAX_CATALOG_ENTRIES = 256;
+
+    /**
+     * Default value of {@link Builder#maxPooledMarshalBufferSize(int)}, 1 MiB.
+     */
+    public static final int DEFAULT_MAX_POOLED_MARSHAL_BUFFER_SIZE = 1 << 20;
+
+    /**
+     * Default value of {@link Builder#compressionBufferSize(int)}, 8 KiB.
+     */
+    public static final int DEFAULT_COMPRESSION_BUFFER_SIZE = 8192;
+
+    /**
+     * Default value of {@link Builder#channelBufferSize(int)}, 64 KiB.
+     */
+    public static final int DEFAULT_CHANNEL_BUFFER_SIZE = 64 << 10;
+
+    /**
+     * Default value of {@link Builder#maxCachedResultBytes(long)}, 64 MiB.
+     */
+    public static final long DEFAULT_MAX_CACHED_RESULT_BYTES = 64L << 20;
+
+    /**
+     * Default bound of the objects walked per entry by {@link #getFootprintReport()}.
+     */
+    public static final int DEFAULT_FOOTPRINT_MAX_OBJECTS = 1_000_000;
+
+    /**
+     * System property of the {@link Builder#maxCachedResults(int) result cache size} of the {@link #getDefault() default engine}, 0 (no cache) if
+     * not set.
+     */
+    public static final String RESULT_CACHE_SIZE_PROPERTY = "xml2jdto.unmarshal.resultCacheSize";
+
+    /**
+     * System property of the {@link Builder#schemaDiskCache(Path) schema disk cache} directory of the {@link #getDefault() default engine}, no disk
+     * cache if not set.
+     */
+    public static final String SCHEMA_DISK_CACHE_PROPERTY = "xml2jdto.schema.diskCache";
+
+    /**
+     * The XML declaration written by the JAXB marshaller, also written before the output of the generated StAX codecs.
+     */
+    private static final String XML_DECLARATION = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>";
+
+    private static final byte[] XML_DECLARATION_BYTES = XML_DECLARATION.getBytes(StandardCharsets.UTF_8);
+
+    private final BoundedCache<String, ContextHolder> jaxbContextCache;
+
+    private final JaxbContextStrategy jaxbContextStrategy;
+
+    /**
+     * The class the context of a class is created for, the object factory of its package with {@link JaxbContextStrategy#PER_PACKAGE}.
+     */
+    private final ClassValue<Class<?>> contextClasses = new ClassValue<>() {
+        @Override
+        protected Class<?> computeValue(Class<?> type) {
+            return contextClass(type);
+        }
+    };
+
+    private final BoundedCache<String, SchemaCacheEntry> schemaCache;
+
+    /**
+     * The XSD paths of the composite schemas by their keys.
+     */
+    private final Map<String, List<String>> compositeSchemas;
+
+    private final int maxUnmarshallersPerContext;
+
+    private final LSResourceResolver resourceResolver;
+
+    /**
+     * The disk cache of the XSD files and resolutions, null if disabled.
+     */
+    private final SchemaDiskCache schemaDiskCache;
+
+    private final Map<String, Object> defaultMarshallerProperties;
+
+    private final Executor executor;
+
+    private final Xml2jDtoMetrics metrics;
+
+    private final ObjectPool<ReusableByteArrayOutputStream> marshalBuffers;
+
+    private final int maxPooledMarshalBufferSize;
+
+    private final int compressionBufferSize;
+
+    private final ObjectPool<ByteBuffer> directBuffers;
+
+    private final OutputSizePredictor stringSizes = new OutputSizePredictor();
+
+    private final OutputSizePredictor byteSizes = new OutputSizePredictor();
+
+    private final boolean staxCodecs;
+
+    private final StringDeduplication stringDeduplication;
+
+    private final int stringTableSize;
+
+    /**
+     * The table of {@link StringDeduplication#SHARED}, null otherwise.
+     */
+    private final StringTable sharedStrings;
+
+    private final DocumentRegistry documentRegistry;
+
+    /**
+     * The cache of the results of the repeated payloads, null if disabled.
+     */
+    private final ResultCache resultCache;
+
+    private final XMLInputFactory xmlInputFactory;
+
+    private final XmlReaderPool xmlReaders;
+
+    private final ParsingLimits parsingLimits;
+
+    private Xml2jDto(Builder builder) {
+        this.metrics = builder.metrics;
+        this.marshalBuffers = new ObjectPool<>(
+                builder.maxPooledMarshalBuffers,
+                () -> new ReusableByteArrayOutputStream(0),
+                metrics,
+                Xml2jDtoMetrics.MARSHAL_BUFFER_POOL);
+        this.maxPooledMarshalBufferSize = builder.maxPooledMarshalBufferSize;
+        this.compressionBufferSize = builder.compressionBufferSize;
+        int channelBufferSize = builder.channelBufferSize;
+        this.directBuffers = new ObjectPool<>(
+                builder.maxPooledDirectBuffers,
+                () -> ByteBuffer.allocateDirect(channelBufferSize),
+                metrics,
+                Xml2jDtoMetrics.DIRECT_BUFFER_POOL);
+        this.jaxbContextCache = new BoundedCache<>(builder.maxJaxbContexts, metrics, Xml2jDtoMetrics.JAXB_CONTEXT_CACHE);
+        this.jaxbContextStrategy = builder.jaxbContextStrategy;
+        this.schemaCache = new BoundedCache<>(builder.maxSchemas, metrics, Xml2jDtoMetrics.SCHEMA_CACHE);
+        this.compositeSchemas = Map.copyOf(builder.compositeSchemas);
+        this.maxUnmarshallersPerContext = builder.maxUnmarshallersPerContext;
+        this.defaultMarshallerProperties = Map.copyOf(builder.defaultMarshallerProperties);
+        this.executor = builder.executor;
+        this.staxCodecs = builder.staxCodecs;
+        this.stringDeduplication = builder.stringDeduplication;
+        this.stringTableSize = builder.stringTableSize;
+        this.sharedStrings = stringDeduplication == StringDeduplication.SHARED ? new StringTable(stringTableSize) : null;
+        this.documentRegistry = builder.documentRegistry;
+        this.resultCache = builder.maxCachedResults > 0
+                ? new ResultCache(builder.maxCachedResults, builder.maxCachedResultBytes, builder.resultCopiers, metrics)
+                : null;
+        this.xmlInputFactory = XMLInputFactory.newFactory();
+        this.xmlInputFactory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        this.xmlInputFactory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        this.xmlReaders = new XmlReaderPool(builder.maxPooledXmlReaders, metrics);
+        this.parsingLimits = builder.parsingLimits;
+        LSResourceResolver resolver;
+        List<String> catalogPaths;
+        if (builder.resourceResolver != null) {
+            resolver = builder.resourceResolver;
+            catalogPaths = builder.catalogPaths;
+        } else if (builder.catalogPaths != null) {
+            CatalogConfig catalogConfig = new CatalogConfig();
+            catalogConfig.setCatalogPaths(builder.catalogPaths);
+            resolver = new CatalogResourceResolver(new CatalogProducer(catalogConfig), builder.maxCatalogEntries);
+            catalogPaths = builder.catalogPaths;
+        } else {
+            resolver = new CatalogResourceResolver(builder.maxCatalogEntries);
+            catalogPaths = builder.schemaDiskCache != null ? new CatalogConfig().getCatalogPaths() : null;
+        }
+        this.schemaDiskCache = builder.schemaDiskCache != null ? SchemaDiskCache.open(builder.schemaDiskCache, catalogPaths) : null;
+        this.resourceResolver = schemaDiskCache != null ? schemaDiskCache.resolver(resolver) : resolver;
+    }
+
+    /**
+     * Creates a new builder.
+     *
+     * @return the builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the default engine used by {@link JaxbUtil}. It is created on first use with the builder defaults.
+     *
+     * @return the default engine
+     */
+    public static Xml2jDto getDefault() {
+        return DefaultHolder.INSTANCE;
+    }
+
+    /**
+     * Retrieves the {@link JAXBContext} for the given class from the cache of this engine, creating it on a cache miss. With
+     * {@link JaxbContextStrategy#PER_PACKAGE} it is the shared context of the package of the class.
+     *
+     * @param clazz
+     *            the class for which the {@link JAXBContext} is to be retrieved
+     * @return the {@link JAXBContext} for the given class
+     * @throws InvalidMethodParameterException
+     *             if the provided class is null
+     * @throws Xml2jDtoException
+     *             if an error occurs while creating the {@link JAXBContext}
+     */
+    public JAXBContext getJAXBContext(Class<?> clazz) {
+        if (clazz == null) {
+            throw new InvalidMethodParameterException(JaxbUtil.CLAZZ_NULL_MSG);
+        }
+        return contextHolder(clazz).context;
+    }
+
+    /**
+     * Retrieves the {@link JAXBContext} for the given classes from the cache of this engine, creating it on a cache miss. The cache key is the sorted,
+     * joined names of the classes, or of their object factories with {@link JaxbContextStrategy#PER_PACKAGE}.
+     *
+     * @param forClasses
+     *            the classes to be bound by the JAXBContext; must not be {@code null}
+     * @return a {@link JAXBContext} instance for the specified classes
+     * @throws InvalidParameterException
+     *             if {@code forClasses} is {@code null}
+     * @throws Xml2jDtoException
+     *             if an error occurs while creating the {@link JAXBContext}
+     */
+    public JAXBContext getJAXBContext(Class<?>... forClasses) {
+        if (forClasses == null) {
+            throw new InvalidParameterException("forClasses is null!");
+        }
+        return contextHolder(forClasses).context;
+    }
+
+    /**
+     * Retrieves the {@link Schema} of the given XSD from the cache of this engine, compiling it on a cache miss. Imports are resolved with the catalog
+     * of this engine.
+     *
+     * @param xsdPath
+     *            the classpath location of the XSD file, or the key of a {@link Builder#compositeSchema(String, List) composite schema}. Must not be
+     *            null or blank.
+     * @return the XML Schema object corresponding to the given XSD path.
+     * @throws InvalidMethodParameterException
+     *             if the xsdPath is null or blank.
+     * @throws Xml2jDtoException
+     *             if the schema cannot be found or compiled.
+     */
+    public Schema getSchema(String xsdPath) {
+        if (StringUtils.isBlank(xsdPath)) {
+            throw new InvalidMethodParameterException("xsdPath cannot be null!");
+        }
+        return schemaCache.computeIfAbsent(xsdPath, this::compileSchema).schema();
+    }
+
+    /**
+     * Returns the schemas cached by this engine, with their compile time and the allocation of their compilation.
+     *
+     * @return the snapshot of the entries, in no particular order
+     */
+    public List<SchemaCacheEntry> getSchemaCacheEntries() {
+        return schemaCache.values();
+    }
+
+    /**
+     * Removes a schema from the cache; the next call using it compiles it again. The cached results of the
+     * {@link Builder#maxCachedResults(int) result cache} validated with it are removed too, and so are its XSD files in the
+     * {@link Builder#schemaDiskCache(Path) schema disk cache}.
+     *
+     * @param xsdPath
+     *            the XSD path or the key of a composite schema
+     * @return true if the schema was cached
+     */
+    public boolean invalidateSchema(String xsdPath) {
+        if (xsdPath == null) {
+            return false;
+        }
+        invalidateResults(xsdPath);
+        invalidateDiskCache(xsdPath);
+        return schemaCache.remove(xsdPath) != null;
+    }
+
+    /**
+     * Removes the schemas of a namespace from the cache, see {@link SchemaCacheEntry#namespaces()}.
+     *
+     * @param namespace
+     *            the namespace, {@code ""} for the schemas without a target namespace
+     * @return the number of the removed schemas
+     */
+    public int invalidateSchemaNamespace(String namespace) {
+        int invalidated = 0;
+        for (SchemaCacheEntry entry : getSchemaCacheEntries()) {
+            if (entry.namespaces().contains(namespace) && invalidateSchema(entry.key())) {
+                invalidated++;
+            }
+        }
+        return invalidated;
+    }
+
+    /**
+     * Compiles a schema again, e.g. after its XSD has been replaced on the classpath, and replaces the cached one. The cached schema stays in use
+     * until the new one is compiled, and is kept if the compilation fails. The cached results of the {@link Builder#maxCachedResults(int) result
+     * cache} validated with it are removed. The XSD files are read from the classpath, not from the {@link Builder#schemaDiskCache(Path) schema
+     * disk cache}.
+     *
+     * @param xsdPath
+     *            the XSD path or the key of a composite schema. Must not be null or blank.
+     * @return the new schema
+     * @throws InvalidMethodParameterException
+     *             if the xsdPath is null or blank.
+     * @throws Xml2jDtoException
+     *             if the schema cannot be found or compiled.
+     */
+    public Schema reloadSchema(String xsdPath) {
+        if (StringUtils.isBlank(xsdPath)) {
+            throw new InvalidMethodParameterException("xsdPath cannot be null!");
+        }
+        invalidateDiskCache(xsdPath);
+        SchemaCacheEntry entry = compileSchema(xsdPath);
+        schemaCache.put(xsdPath, entry);
+        invalidateResults(xsdPath);
+        return entry.schema();
+    }
+
+    /**
+     * Compiles the cached schemas of a namespace again, see {@link #reloadSchema(String)}.
+     *
+     * @param namespace
+     *            the namespace, {@code ""} for the schemas without a target namespace
+     * @return the number of the reloaded schemas
+     * @throws Xml2jDtoException
+     *             if a schema cannot be found or compiled; the schemas reloaded before it stay reloaded
+     */
+    public int reloadSchemaNamespace(String namespace) {
+        int reloaded = 0;
+        for (SchemaCacheEntry entry : getSchemaCacheEntries()) {
+            if (entry.namespaces().contains(namespace)) {
+                reloadSchema(entry.key());
+                reloaded++;
+            }
+        }
+        return reloaded;
+    }
+
+    /**
+     * Drops the documents of a schema from the disk cache, so the next compilation reads the XSD files of the classpath.
+     */
+    private void invalidateDiskCache(String key) {
+        if (schemaDiskCache != null) {
+            compositeSchemas.getOrDefault(key, List.of(key)).forEach(schemaDiskCache::invalidate);
+        }
+    }
+
+    private SchemaCacheEntry compileSchema(String key) {
+        List<String> xsdPaths = compositeSchemas.getOrDefault(key, List.of(key));
+        Set<String> namespaces = new LinkedHashSet<>();
+        long allocated = allocatedBytes();
+        long start = System.nanoTime();
+        JaxbUtil.XsdReader xsdReader = schemaDiskCache != null ? schemaDiskCache::readXsd : JaxbUtil::readXsd;
+        Schema schema = JaxbUtil.loadSchema(xsdPaths, resourceResolver, namespaces, xsdReader);
+        long nanos = System.nanoTime() - start;
+        if (schemaDiskCache != null) {
+            schemaDiskCache.flush();
+        }
+        metrics.recordNanos(Xml2jDtoMetrics.SCHEMA_LOAD, nanos);
+        long compileAllocated = allocated < 0 ? -1 : allocatedBytes() - allocated;
+        return new SchemaCacheEntry(
+                key,
+                xsdPaths,
+                Collections.unmodifiableSet(namespaces),
+                schema,
+                Duration.ofNanos(nanos),
+                compileAllocated,
+                Instant.now());
+    }
+
+    /**
+     * @return the bytes allocated by the current thread, or -1 if the JVM does not measure it
+     */
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads && threads.isThreadAllocatedMemoryEnabled()) {
+            return threads.getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+
+    private void invalidateResults(String xsdPath) {
+        if (resultCache != null) {
+            resultCache.invalidateSchema(xsdPath);
+        }
+    }
+
+    /**
+     * Returns the resource resolver of this engine, used to resolve the imports of the compiled schemas.
+     *
+     * @return the resource resolver
+     */
+    public LSResourceResolver getResourceResolver() {
+        return resourceResolver;
+    }
+
+    /**
+     * Returns the statistics of the {@link JAXBContext} cache.
+     *
+     * @return the statistics
+     */
+    public CacheStats getJaxbContextCacheStats() {
+        return jaxbContextCache.stats();
+    }
+
+    /**
+     * Returns the statistics of the {@link Schema} cache.
+     *
+     * @return the statistics
+     */
+    public CacheStats getSchemaCacheStats() {
+        return schemaCache.stats();
+    }
+
+    /**
+     * Returns the statistics of the result cache of this engine.
+     *
+     * @return the statistics, or null if the result cache is disabled, see {@link Builder#maxCachedResults(int)}
+     */
+    public CacheStats getResultCacheStats() {
+        return resultCache == null ? null : resultCache.stats();
+    }
+
+    /**
+     * Estimates the heap footprint of the caches and pools of this engine, walking at most {@value #DEFAULT_FOOTPRINT_MAX_OBJECTS} objects per
+     * entry.
+     *
+     * @return the report
+     * @see #getFootprintReport(int)
+     */
+    public FootprintReport getFootprintReport() {
+        return getFootprintReport(DEFAULT_FOOTPRINT_MAX_OBJECTS);
+    }
+
+    /**
+     * Estimates the heap footprint of the caches and pools of this engine: every cached {@link JAXBContext}, the idle unmarshallers of every context,
+     * every cached {@link Schema}, the catalog, the idle marshal and channel buffers and the result cache. The walk runs in the calling thread and
+     * takes time in proportion to the walked objects, so call it for diagnostics, not on every request.
+     * <p>
+     * The fields of the JDK classes are not readable without {@code --add-opens}, so a schema compiled by the JDK is walked only if the packages of
+     * its implementation in {@code java.xml} are opened, e.g.
+     * {@code --add-opens java.xml/com.sun.org.apache.xerces.internal.jaxp.validation=ALL-UNNAMED}.
+     * An entry whose graph cannot be walked at all is reported with 0 bytes and marked by {@link FootprintReport.Entry#unmeasured()}, so it does not
+     * distort the totals and the largest entries.
+     * </p>
+     *
+     * @param maxObjectsPerEntry
+     *            the maximum number of objects walked per entry
+     * @return the report
+     * @throws InvalidMethodParameterException
+     *             if the bound is not positive
+     */
+    public FootprintReport getFootprintReport(int maxObjectsPerEntry) {
+        if (maxObjectsPerEntry <= 0) {
+            throw new InvalidMethodParameterException(MessageFormat.format("maxObjectsPerEntry must be positive: [{0}]!", maxObjectsPerEntry));
+        }
+        ObjectSizeEstimator estimator = new ObjectSizeEstimator(maxObjectsPerEntry, this, metrics, executor);
+        List<FootprintReport.Entry> entries = new ArrayList<>();
+        Map<String, ContextHolder> contexts = jaxbContextCache.snapshot();
+        contexts.forEach((key, holder) -> entries.add(footprint(estimator, Xml2jDtoMetrics.JAXB_CONTEXT_CACHE, key, holder.context)));
+        contexts.forEach((key, holder) -> entries.add(footprint(estimator, Xml2jDtoMetrics.UNMARSHALLER_POOL, key, holder.unmarshallers)));
+        schemaCache.snapshot()
+                .forEach((key, entry) -> entries
+                        .add(footprint(estimator, Xml2jDtoMetrics.SCHEMA_CACHE, key, entry.schema())));
+        entries.add(footprint(estimator, FootprintReport.CATALOG, resourceResolver.getClass().getName(), resourceResolver));
+        entries.add(footprint(estimator, Xml2jDtoMetrics.XML_READER_POOL, Xml2jDtoMetrics.XML_READER_POOL, xmlReaders));
+        entries.add(footprint(estimator, Xml2jDtoMetrics.MARSHAL_BUFFER_POOL, Xml2jDtoMetrics.MARSHAL_BUFFER_POOL, marshalBuffers));
+        entries.add(footprint(estimator, Xml2jDtoMetrics.DIRECT_BUFFER_POOL, Xml2jDtoMetrics.DIRECT_BUFFER_POOL, directBuffers));
+        if (resultCache != null) {
+            entries.add(footprint(estimator, Xml2jDtoMetrics.RESULT_CACHE, Xml2jDtoMetrics.RESULT_CACHE, resultCache));
+        }
+        return new FootprintReport(entries);
+    }
+
+    /**
+     * Estimates an entry; an opaque root, whose graph cannot be walked at all, is unmeasured rather than counted with its shallow size.
+     */
+    private static FootprintReport.Entry footprint(ObjectSizeEstimator estimator, String cache, String key, Object root) {
+        ObjectSizeEstimator.Estimate estimate = estimator.estimate(root);
+        boolean unmeasured = estimate.objects() > 0 && estimate.opaqueObjects() == estimate.objects();
+        return new FootprintReport.Entry(cache, key, unmeasured ? 0 : estimate.bytes(), estimate.objects(), estimate.truncated(), unmeasured);
+    }
+
+    /**
+     * Removes every cached {@link JAXBContext}, pooled {@link Unmarshaller}, {@link Schema} and cached result of this engine.
+     */
+    public void clearCaches() {
+        jaxbContextCache.clear();
+        schemaCache.clear();
+        if (resultCache != null) {
+            resultCache.clear();
+        }
+    }
+
+    /**
+     * Unmarshals the given XML string into an object of the specified class type, without validation.
+     *
+     * @param <T>
+     *            the type of the object to be returned
+     * @param xml
+     *            the XML string to be unmarshalled
+     * @param clazz
+     *            the class of the object to be returned
+     * @return the unmarshalled object of type T, or null if the XML string is blank
+     * @throws InvalidMethodParameterException
+     *             if the clazz parameter is null
+     * @throws Xml2jDtoException
+     *             if an error occurs during unmarshalling
+     */
+    public <T> T unmarshal(String xml, Class<T> clazz) {
+        if (StringUtils.isBlank(xml)) {
+            return null;
+        }
+        if (clazz == null) {
+            throw new InvalidMethodParameterException(JaxbUtil.CLAZZ_NULL_MSG);
+        }
+        parsingLimits.checkDocumentLength(xml);
+        if (resultCache != null && resultCache.isCacheable(clazz)) {
+            return resultCache.unmarshal(xml, clazz, null, () -> unmarshalWithoutValidation(xml, clazz));
+        }
+        return unmarshalWithoutValidation(xml, clazz);
+    }
+
+    private <T> T unmarshalWithoutValidation(String xml, Class<T> clazz) {
+        StaxCodec<T> codec = staxCodec(clazz);
+        if (codec != null) {
+            return unmarshal(codec, null, false, () -> createReader(new StringReader(xml)), "XML", StringUtils.abbreviate(xml, 500));
+        }
+        long start = System.nanoTime();
+        ContextHolder holder = contextHolder(clazz);
+        Unmarshaller unmarshaller = holder.unmarshallers.borrow();
+        boolean reusable = false;
+        try {
+            deduplicateStrings(unmarshaller);
+            Object unmarshalled = parsingLimits.hasEventLimits() ? unmarshaller.unmarshal(createReader(new StringReader(xml)))
+                    : unmarshal(unmarshaller, new InputSource(new StringReader(xml)));
+            T result = clazz.cast(unmarshalled);
+            reusable = true;
+            return result;
+        } catch (XmlLimitExceededException | XmlParsingCancelledException e) {
+            metrics.increment(Xml2jDtoMetrics.UNMARSHAL + Xml2jDtoMetrics.ERROR);
+            throw e;
+        } catch (JAXBException | XMLStreamException e) {
+            metrics.increment(Xml2jDtoMetrics.UNMARSHAL + Xml2jDtoMetrics.ERROR);
+            rethrowAborted(e);
+            // we should not log the whole message, because it can be very long
+            throw ExBuilder.newXml2jDtoException()
+                    .withMessage(
+                            "Unmarshalling error for class [{0}], XML [{1}]: [{2}]",
+                            clazz.getName(),
+                            StringUtils.abbreviate(xml, 500),
+                            e.getLocalizedMessage())
+                    .withCause(e)
+                    .build();
+        } finally {
+            release(holder, unmarshaller, reusable);
+            metrics.recordNanos(Xml2jDtoMetrics.UNMARSHAL, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Unmarshals the given XML string into an object of the specified class type. If the provided XSD path is not null, the unmarshalling process is
+     * schema-validated.
+     *
+     * @param <T>
+     *            the type of the object to be returned
+     * @param xml
+     *            the XML string to be unmarshalled
+     * @param clazz
+     *            the class of the object to be returned
+     * @param xsdPath
+     *            the path to the XSD file. If null, no schema validation is performed.
+     * @return the unmarshalled object of type T, or null if the XML string is null
+     * @throws InvalidMethodParameterException
+     *             if the clazz parameter is null
+     * @throws InvalidXmlSchemaException
+     *             if XML validation against the schema fails
+     * @throws MalformedXmlException
+     *             if the XML is malformed and cannot be unmarshalled
+     * @throws Xml2jDtoException
+     *             if an error occurs during unmarshalling
+     */
+    public <T> T unmarshal(String xml, Class<T> clazz, String xsdPath) {
+        return unmarshalString(xml, clazz, xsdPath, null);
+    }
+
+    /**
+     * Unmarshals the given XML string within a timeout, see {@link #unmarshal(String, Class, String)}. The deadline and the interrupt status of the
+     * thread are checked every time the parser reads the next buffer of the string, like {@link #unmarshal(InputStream, Class, String, Duration)}.
+     *
+     * @param <T>
+     *            the type of the object to be returned
+     * @param xml
+     *            the XML string to be unmarshalled
+     * @param clazz
+     *            the class of the object to be returned
+     * @param xsdPath
+     *            the path to the XSD file. If null, no schema validation is performed.
+     * @param timeout
+     *            the time allowed from now; must not be {@code null}
+     * @return the unmarshalled object of type T, or null if the XML string is null
+     * @throws InvalidMethodParameterException
+     *             if the clazz parameter or the timeout is null
+     * @throws XmlParsingCancelledException
+     *             if the deadline passes or the thread is interrupted before the document is parsed, the interrupt status is kept
+     * @throws InvalidXmlSchemaException
+     *             if XML validation against the schema fails
+     * @throws MalformedXmlException
+     *             if the XML is malformed and cannot be unmarshalled
+     */
+    public <T> T unmarshal(String xml, Class<T> clazz, String xsdPath, Duration timeout) {
+        checkTimeout(timeout);
+        Cancellation cancellation = new Cancellation(timeout, Cancellation.NOT_CANCELLED);
+        cancellation.check();
+        return unmarshalString(xml, clazz, xsdPath, cancellation);
+    }
+
+    /**
+     * Unmarshals the given XML string by a deadline, see {@link #unmarshal(String, Class, String, Duration)}.
+     *
+     * @param <T>
+     *            the type of the object to be returned
+     * @param xml
+     *            the XML string to be unmarshalled
+     * @param clazz
+     *            the class of the object to be returned
+     * @param xsdPath
+     *            the path to the XSD file. If null, no schema validation is performed.
+     * @param deadline
+     *            the instant the parsing must end by, e.g. the deadline of the request; must not be {@code null}
+     * @return the unmarshalled object of type T, or null if the XML string is null
+     * @throws InvalidMethodParameterException
+     *             if the clazz parameter or the deadline is null
+     * @throws XmlParsingCancelledException
+     *             if the deadline passes or the thread is interrupted before the document is parsed, the interrupt status is kept
+     */
+    public <T> T unmarshal(String xml, Class<T> clazz, String xsdPath, Instant deadline) {
+        return unmarshal(xml, clazz, xsdPath, timeoutUntil(deadline));
+    }
+
+    private <T> T unmarshalString(String xml, Class<T> clazz, String xsdPath, Cancellation cancellation) {
+        if (Objects.isNull(xml)) {
+            return null;
+        }
+        if (clazz == null) {
+            throw new InvalidMethodParameterException(JaxbUtil.CLAZZ_NULL_MSG);
+        }
+        parsingLimits.checkDocumentLength(xml);
+        if (resultCache != null && resultCache.isCacheable(clazz)) {
+            return resultCache.unmarshal(xml, clazz, xsdPath, () -> unmarshalXml(xml, clazz, xsdPath, cancellation));
+        }
+        return unmarshalXml(xml, clazz, xsdPath, cancellation);
+    }
+
+    private <T> T unmarshalXml(String xml, Class<T> clazz, String xsdPath, Cancellation cancellation) {
+        StaxCodec<T> codec = staxCodec(clazz);
+        if (codec != null) {
+            return unmarshal(codec, xsdPath, true, () -> createReader(reader(xml, cancellation)), "XML", StringUtils.abbreviate(xml, 500));
+        }
+        if (parsingLimits.hasEventLimits()) {
+            return unmarshal(clazz, xsdPath, unmarshaller -> unmarshaller.unmarshal(createJaxbReader(reader(xml, cancellation))), "XML",
+                    StringUtils.abbreviate(xml, 500));
+        }
+        return unmarshal(clazz, xsdPath, unmarshaller -> unmarshal(unmarshaller, new InputSource(reader(xml, cancellation))), "XML",
+                StringUtils.abbreviate(xml, 500));
+    }
+
+    private static Reader reader(String xml, Cancellation cancellation) {
+        Reader reader = new StringReader(xml);
+        return cancellation == null ? reader : new CancellableReader(reader, cancellation);
+    }
+
+    /**
+     * Unmarshals the given XML input stream into an object of the specified class, optionally validating against an XSD schema.
+     * <p>
+     * If an XSD schema path is provided, the XML is validated against the schema during unmarshalling. Validation events are collected, and if any
+     * validation errors are found, an {@link InvalidXmlSchemaException} is thrown. If the XML is malformed, a {@link MalformedXmlException} is thrown.
+     * </p>
+     *
+     * @param <T>
+     *            the type of the object to unmarshal to
+     * @param xmlInputStream
+     *            the input stream containing the XML data; may be {@code null}
+     * @param clazz
+     *            the class of the object to unmarshal to; must not be {@code null}
+     * @param xsdPath
+     *            the path to the XSD schema for validation; may be {@code null} if no validation is required
+     * @return an instance of {@code T} populated from the XML, or {@code null} if {@code xmlInputStream} is {@code null}
+     * @throws InvalidParameterException
+     *             if {@code clazz} is {@code null}
+     * @throws InvalidXmlSchemaException
+     *             if XML validation against the schema fails
+     * @throws MalformedXmlException
+     *             if the XML is malformed and cannot be unmarshalled
+     * @throws Xml2jDtoException
+     *             for other JAXB-related errors during unmarshalling
+     */
+    public <T> T unmarshal(InputStream xmlInputStream, Class<T> clazz, String xsdPath) {
+        if (Objects.isNull(xmlInputStream)) {
+            return null;
+        }
+        if (clazz == null) {
+            throw new InvalidParameterException(JaxbUtil.CLAZZ_NULL_MSG);
+        }
+        InputStream xmlStream = limit(xmlInputStream);
+        if (resultCache != null && resultCache.isCacheable(clazz)) {
+            byte[] xml = readPayload(xmlStream, Xml2jDtoMetrics.UNMARSHAL);
+            return resultCache.unmarshal(xml, clazz, xsdPath, () -> unmarshalStream(payloadStream(xmlInputStream, xml), clazz, xsdPath));
+        }
+        return unmarshalStream(xmlStream, clazz, xsdPath);
+    }
+
+    private <T> T unmarshalStream(InputStream xmlInputStream, Class<T> clazz, String xsdPath) {
+        StaxCodec<T> codec = staxCodec(clazz);
+        if (codec != null) {
+            return unmarshal(codec, xsdPath, true, () -> createReader(xmlInputStream), "InputStream", xmlInputStream);
+        }
+        if (parsingLimits.hasEventLimits()) {
+            return unmarshal(clazz, xsdPath, unmarshaller -> unmarshaller.unmarshal(createJaxbReader(xmlInputStream)), "InputStream", xmlInputStream);
+        }
+        return unmarshal(clazz, xsdPath, unmarshaller -> unmarshal(unmarshaller, new InputSource(xmlInputStream)), "InputStream", xmlInputStream);
+    }
+
+    /**
+     * Unmarshals the given XML input stream on the executor of this engine.
+     *
+     * @param <T>
+     *            the type of the object to unmarshal to
+     * @param xmlInputStream
+     *            the input stream containing the XML data; may be {@code null}
+     * @param clazz
+     *            the class of the object to unmarshal to; must not be {@code null}
+     * @param xsdPath
+     *            the path to the XSD schema for validation; may be {@code null} if no validation is required
+     * @return the future of the result, completed exceptionally with the exceptions of {@link #unmarshal(InputStream, Class, String)}
+     */
+    public <T> CompletableFuture<T> unmarshalAsync(InputStream xmlInputStream, Class<T> clazz, String xsdPath) {
+        return supplyCancellable(cancelled -> unmarshal(cancellable(xmlInputStream, null, cancelled), clazz, xsdPath));
+    }
+
+    /**
+     * Unmarshals the given XML input stream on the executor of this engine within a timeout. The future can be {@link CompletableFuture#cancel
+     * cancelled} while the document is parsed, the parsing stops at its next check with an {@link XmlParsingCancelledException}.
+     *
+     * @param <T>
+     *            the type of the object to unmarshal to
+     * @param xmlInputStream
+     *            the input stream containing the XML data; may be {@code null}
+     * @param clazz
+     *            the class of the object to unmarshal to; must not be {@code null}
+     * @param xsdPath
+     *            the path to the XSD schema for validation; may be {@code null} if no validation is required
+     * @param timeout
+     *            the time allowed for the parsing, counted from the start of the task; must not be {@code null}
+     * @return the future of the result, completed exceptionally with the exceptions of {@link #unmarshal(InputStream, Class, String, Duration)}
+     * @throws InvalidMethodParameterException
+     *             if the timeout is null
+     */
+    public <T> CompletableFuture<T> unmarshalAsync(InputStream xmlInputStream, Class<T> clazz, String xsdPath, Duration timeout) {
+        checkTimeout(timeout);
+        return supplyCancellable(cancelled -> unmarshal(cancellable(xmlInputStream, timeout, cancelled), clazz, xsdPath));
+    }
+
+    /**
+     * Unmarshals the given XML input stream within a timeout, see {@link #unmarshal(InputStream, Class, String)}.
+     * <p>
+     * The deadline, the interrupt status of the thread and the cancellation of an {@link #unmarshalAsync(InputStream, Class, String, Duration)
+     * asynchronous} call are checked every time the parser reads the next buffer of the stream, so a slow or huge document is abandoned within
+     * a few kilobytes of parsing after the deadline. A read blocked on a slow source is not interrupted, the check runs when it returns, and the
+     * time spent loading the {@link JAXBContext} and the schema is not checked. The pooled unmarshaller is returned to its pool.
+     * </p>
+     *
+     * @param <T>
+     *            the type of the object to unmarshal to
+     * @param xmlInputStream
+     *            the input stream containing the XML data; may be {@code null}
+     * @param clazz
+     *            the class of the object to unmarshal to; must not be {@code null}
+     * @param xsdPath
+     *            the path to the XSD schema for validation; may be {@code null} if no validation is required
+     * @param timeout
+     *            the time allowed from now; must not be {@code null}
+     * @return an instance of {@code T} populated from the XML, or {@code null} if {@code xmlInputStream} is {@code null}
+     * @throws InvalidMethodParameterException
+     *             if the timeout is null
+     * @throws XmlParsingCancelledException
+     *             if the deadline passes or the thread is interrupted before the document is parsed, the interrupt status is kept
+     * @throws InvalidXmlSchemaException
+     *             if XML validation against the schema fails
+     * @throws MalformedXmlException
+     *             if the XML is malformed and cannot be unmarshalled
+     * @throws Xml2jDtoException
+     *             for other JAXB-related errors during unmarshalling
+     */
+    public <T> T unmarshal(InputStream xmlInputStream, Class<T> clazz, String xsdPath, Duration timeout) {
+        checkTimeout(timeout);
+        return unmarshal(cancellable(xmlInputStream, timeout, Cancellation.NOT_CANCELLED), clazz, xsdPath);
+    }
+
+    /**
+     * Unmarshals the given XML input stream by a deadline, see {@link #unmarshal(InputStream, Class, String, Duration)}.
+     *
+     * @param <T>
+     *            the type of the object to unmarshal to
+     * @param xmlInputStream
+     *            the input stream containing the XML data; may be {@code null}
+     * @param clazz
+     *            the class of the object to unmarshal to; must not be {@code null}
+     * @param xsdPath
+     *            the path to the XSD schema for validation; may be {@code null} if no validation is required
+     * @param deadline
+     *            the instant the parsing must end by, e.g. the deadline of the request; must not be {@code null}
+     * @return an instance of {@code T} populated from the XML, or {@code null} if {@code xmlInputStream} is {@code null}
+     * @throws InvalidMethodParameterException
+     *             if the deadline is null
+     * @throws XmlParsingCancelledException
+     *             if the deadline passes or the thread is interrupted before the document is parsed, the interrupt status is kept
+     */
+    public <T> T unmarshal(InputStream xmlInputStream, Class<T> clazz, String xsdPath, Instant deadline) {
+        return unmarshal(xmlInputStream, clazz, xsdPath, timeoutUntil(deadline));
+    }
+
+    private static void checkTimeout(Duration timeout) {
+        if (timeout == null) {
+            throw new InvalidMethodParameterException("timeout cannot be null!");
+        }
+    }
+
+    private static Duration timeoutUntil(Instant deadline) {
+        if (deadline == null) {
+            throw new InvalidMethodParameterException("deadline cannot be null!");
+        }
+        return Duration.between(Instant.now(), deadline);
+    }
+
+    private static InputStream cancellable(InputStream xmlInputStream, Duration timeout, BooleanSupplier cancelled) {
+        return xmlInputStream == null ? null : CancellableInputStream.withTimeout(xmlInputStream, timeout, cancelled);
+    }
+
+    /**
+     * Runs a task on the executor, the task receives the cancellation of the returned future.
+     */
+    private <T> CompletableFuture<T> supplyCancellable(Function<BooleanSupplier, T> task) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        executor.execute(() -> {
+            if (future.isDone()) {
+                return;
+            }
+            try {
+                future.complete(task.apply(future::isCancelled));
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Unmarshals a document into the class registered for its root element in the {@link Builder#documentRegistry(DocumentRegistry) document
+     * registry}, see {@link #unmarshalAny(InputStream)}.
+     *
+     * @param xml
+     *            the XML document; may be {@code null}
+     * @return the unmarshalled object, or {@code null} if {@code xml} is {@code null}
+     * @throws InvalidXmlSchemaException
+     *             if XML validation against the schema of the document type fails
+     * @throws MalformedXmlException
+     *             if the XML is malformed and cannot be unmarshalled
+     * @throws Xml2jDtoException
+     *             if no registry is configured, the root element is not registered, or for other JAXB-related errors during unmarshalling
+     */
+    public Object unmarshalAny(byte[] xml) {
+        return xml == null ? null : unmarshalAny(new ByteArrayInputStream(xml));
+    }
+
+    /**
+     * Unmarshals a document into the class registered for its root element in the {@link Builder#documentRegistry(DocumentRegistry) document
+     * registry}, validating it against the schema of the registered document type.
+     * <p>
+     * The stream is read only up to the first start tag to pick the document type; the same reader then continues with the generated
+     * {@link StaxCodec} of the class, or with a pooled unmarshaller of the cached context, so the document is parsed once. The stream of the caller
+     * is not closed.
+     * </p>
+     *
+     * @param xmlInputStream
+     *            the input stream containing the XML data; may be {@code null}
+     * @return the unmarshalled object, or {@code null} if {@code xmlInputStream} is {@code null}
+     * @throws InvalidXmlSchemaException
+     *             if XML validation against the schema of the document type fails
+     * @throws MalformedXmlException
+     *             if the XML is malformed and cannot be unmarshalled
+     * @throws Xml2jDtoException
+     *             if no registry is configured, the root element is not registered, or for other JAXB-related errors during unmarshalling
+     */
+    public Object unmarshalAny(InputStream xmlInputStream) {
+        if (Objects.isNull(xmlInputStream)) {
+            return null;
+        }
+        if (documentRegistry == null) {
+            throw ExBuilder.newXml2jDtoException().withMessage("No document registry is configured for unmarshalAny").build();
+        }
+        XMLStreamReader reader = null;
+        try {
+            reader = createReader(limit(xmlInputStream));
+            QName rootElement;
+            try {
+                rootElement = peekRootElement(reader);
+            } catch (XmlLimitExceededException | XmlParsingCancelledException e) {
+                // the limits of the document itself are counted by the unmarshal call
+                metrics.increment(Xml2jDtoMetrics.UNMARSHAL + Xml2jDtoMetrics.ERROR);
+                throw e;
+            }
+            DocumentRegistry.DocumentType documentType = documentRegistry.resolve(rootElement);
+            if (documentType == null) {
+                metrics.increment(Xml2jDtoMetrics.UNMARSHAL + Xml2jDtoMetrics.ERROR);
+                throw ExBuilder.newXml2jDtoException().withMessage("No document type is registered for root element [{0}]", rootElement).build();
+            }
+            XMLStreamReader rootReader = reader;
+            StaxCodec<?> codec = staxCodec(documentType.type());
+            if (codec != null && codec.rootElement().equals(rootElement)) {
+                return unmarshal(codec, documentType.xsdPath(), true, () -> rootReader, "InputStream", xmlInputStream);
+            }
+            return unmarshal(
+                    documentType.type(),
+                    documentType.xsdPath(),
+                    unmarshaller -> unmarshaller.unmarshal(rootReader, documentType.type()).getValue(),
+                    "InputStream",
+                    xmlInputStream);
+        } catch (XMLStreamException e) {
+            metrics.increment(Xml2jDtoMetrics.UNMARSHAL + Xml2jDtoMetrics.ERROR);
+            rethrowAborted(e);
+            throw new MalformedXmlException(List.of(), new UnmarshalException(e));
+        } finally {
+            close(reader);
+        }
+    }
+
+    /**
+     * Unmarshals only the elements selected by the paths, each into the class of its path. The rest of the document is skipped by the parser
+     * without binding, and reading stops as soon as no path can select more elements, so the cost follows the selected part rather than the size of
+     * the document:
+     *
+     * <pre>
+     * {@code
+     * PartialResult header = engine.unmarshalPaths(inputStream, Map.of("/storage/name[1]", String.class, "/storage/capacity[1]", Long.class));
+     * String name = header.get("/storage/name[1]", String.class);
+     * }
+     * </pre>
+     * <p>
+     * The paths are a subset of XPath: steps preceded by {@code /} (child) or {@code //} (descendant), each a local name matching in any namespace,
+     * a {@code {namespace}local} name or {@code *}. A trailing {@code [1]} selects only the first match in document order; once every path has such
+     * a match, the rest of the document is not read. A selected element is bound as a whole, and an element selected by more paths is bound for the
+     * first of them in the iteration order of the map. The classes are bound with their generated {@link StaxCodec} if the element is its root
+     * element, otherwise with JAXB as the declared type of the element, so a simple type such as {@code String} or {@code Long} works as well.
+     * </p>
+     * <p>
+     * The document is not validated, a schema cannot check a document that is read in part. The stream of the caller is not closed.
+     * </p>
+     *
+     * @param xmlInputStream
+     *            the input stream containing the XML data; may be {@code null}
+     * @param paths
+     *            the element paths and the classes to bind their elements to; must not be {@code null} or empty
+     * @return the bound objects of every path, or {@code null} if {@code xmlInputStream} is {@code null}
+     * @throws InvalidMethodParameterException
+     *             if the paths are null or empty, or a path is not in the supported subset
+     * @throws InvalidParameterException
+     *             if a class is {@code null}
+     * @throws InvalidXmlSchemaException
+     *             if a selected element cannot be converted to its class
+     * @throws MalformedXmlException
+     *             if the XML is malformed up to the last selected element
+     * @throws Xml2jDtoException
+     *             for other JAXB-related errors during unmarshalling
+     */
+    public PartialResult unmarshalPaths(InputStream xmlInputStream, Map<String, Class<?>> paths) {
+        if (Objects.isNull(xmlInputStream)) {
+            return null;
+        }
+        if (paths == null || paths.isEmpty()) {
+            throw new InvalidMethodParameterException("paths cannot be null or empty!");
+        }
+        List<ElementPath> elementPaths = new ArrayList<>(paths.size());
+        List<Class<?>> types = new ArrayList<>(paths.size());
+        for (Entry<String, Class<?>> entry : paths.entrySet()) {
+            if (entry.getValue() == null) {
+                throw new InvalidParameterException(JaxbUtil.CLAZZ_NULL_MSG);
+            }
+            elementPaths.add(ElementPath.parse(entry.getKey()));
+            types.add(entry.getValue());
+        }
+
+        long start = System.nanoTime();
+        XsdValidationEventCollector eventCollector = new XsdValidationEventCollector();
+        PartialResult result = new PartialResult(paths.keySet());
+        PathBinder binder = new PathBinder(types, eventCollector, stringTable());
+        XMLStreamReader reader = null;
+        try {
+            reader = createReader(limit(xmlInputStream));
+            new PathScanner(elementPaths).scan(reader, binder, result);
+            binder.reusable = true;
+            if (!eventCollector.getEvents().isEmpty()) {
+                metrics.increment(Xml2jDtoMetrics.UNMARSHAL + Xml2jDtoMetrics.ERROR);
+                throw new InvalidXmlSchemaException(eventCollector.getEvents());
+            }
+            return result;
+        } catch (XmlLimitExceededException | XmlParsingCancelledException e) {
+            metrics.increment(Xml2jDtoMetrics.UNMARSHAL + Xml2jDtoMetrics.ERROR);
+            throw e;
+        } catch (XMLStreamException e) {
+            metrics.increment(Xml2jDtoMetrics.UNMARSHAL + Xml2jDtoMetrics.ERROR);
+            rethrowAborted(e);
+            throw new MalformedXmlException(eventCollector.getEvents(), new UnmarshalException(e));
+        } catch (UnmarshalException e) {
+            metrics.increment(Xml2jDtoMetrics.UNMARSHAL + Xml2jDtoMetrics.ERROR);
+            rethrowAborted(e);
+            throw new MalformedXmlException(eventCollector.getEvents(), e);
+        } catch (JAXBException e) {
+            metrics.increment(Xml2jDtoMetrics.UNMARSHAL + Xml2jDtoMetrics.ERROR);
+            rethrowAborted(e);
+            // we should not log the whole message, because it can be very long
+            throw ExBuilder.newXml2jDtoException()
+                    .withMessage(
+                            "Unmarshalling error for paths [{0}], InputStream [{1}]: [{2}]",
+                            paths.keySet(),
+                            xmlInputStream,
+                            e.getLocalizedMessage())
+                    .withCause(e)
+                    .build();
+        } finally {
+            close(reader);
+            binder.release();
+            metrics.recordNanos(Xml2jDtoMetrics.UNMARSHAL, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Creates a feeder unmarshalling a document that arrives in chunks, for NIO servers that must not block a thread while waiting for the rest of
+     * the document. Every {@link XmlFeeder#feed(java.nio.ByteBuffer) feed} call parses the complete markup of its chunk and returns; the document is
+     * passed to the callback on the feeding thread as soon as the end tag of its root element is parsed.
+     * <p>
+     * If an XSD schema path is provided, the events are validated against the cached schema while they are parsed, and the first chunk with a
+     * violation throws an {@link InvalidXmlSchemaException}. The limits of the engine are checked at every chunk.
+     * </p>
+     *
+     * @param <T>
+     *            the type of the object to unmarshal to
+     * @param clazz
+     *            the class of the object to unmarshal to; must not be {@code null}
+     * @param xsdPath
+     *            the path to the XSD schema for validation; may be {@code null} if no validation is required
+     * @param callback
+     *            receives the unmarshalled document; must not be {@code null}
+     * @return the feeder of the document
+     * @throws InvalidParameterException
+     *             if {@code clazz} is {@code null}
+     * @throws InvalidMethodParameterException
+     *             if {@code callback} is {@code null}
+     */
+    public <T> XmlFeeder newFeeder(Class<T> clazz, String xsdPath, Consumer<? super T> callback) {
+        return newFeeder(null, clazz, xsdPath, callback);
+    }
+
+    /**
+     * Creates a feeder unmarshalling the elements selected by a path from a document that arrives in chunks, see
+     * {@link #newFeeder(Class, String, Consumer)}. Every selected element is passed to the callback as soon as its end tag is parsed, so a long
+     * document of repeated records is delivered record by record while it arrives and only one record is held at a time:
+     *
+     * <pre>
+     * {@code
+     * XmlFeeder feeder = engine.newFeeder("/order/item", Item.class, "xsd/order.xsd", items::add);
+     * }
+     * </pre>
+     * <p>
+     * The path is one of {@link #unmarshalPaths(InputStream, Map)}. The elements are bound with JAXB as the declared type of the element. With an XSD
+     * schema path the whole document is validated, an element is passed to the callback only if the document is valid up to its end tag.
+     * </p>
+     *
+     * @param <T>
+     *            the type of the objects to unmarshal to
+     * @param path
+     *            the path of the selected elements; must not be {@code null} or blank
+     * @param clazz
+     *            the class of the objects to unmarshal to; must not be {@code null}
+     * @param xsdPath
+     *            the path to the XSD schema for validation; may be {@code null} if no validation is required
+     * @param callback
+     *            receives the unmarshalled elements in document order; must not be {@code null}
+     * @return the feeder of the document
+     * @throws InvalidParameterException
+     *             if {@code clazz} is {@code null}
+     * @throws InvalidMethodParameterException
+     *             if {@code callback} is {@code null}, or the path is blank or not in the supported subset
+     */
+    public <T> XmlFeeder newFeeder(String path, Class<T> clazz, String xsdPath, Consumer<? super T> callback) {
+        if (clazz == null) {
+            throw new InvalidParameterException(JaxbUtil.CLAZZ_NULL_MSG);
+        }
+        if (callback == null) {
+            throw new InvalidMethodParameterException("callback cannot be null!");
+        }
+        ElementPath elementPath = path == null ? null : ElementPath.parse(path);
+        Schema schema = xsdPath == null ? null : getSchema(xsdPath);
+        XsdValidationEventCollector eventCollector = new XsdValidationEventCollector();
+        return new XmlFeeder(xmlReaders, parsingLimits, new FeedTarget<>(clazz, elementPath, schema, eventCollector, callback), eventCollector,
+                metrics);
+    }
+
+    /**
+     * Unmarshals the XML read from a channel, such as a {@code FileChannel} or a blocking {@code SocketChannel}. The channel is read through a
+     * pooled direct buffer of {@link Builder#channelBufferSize(int)} bytes, so a large document is read in few system calls without a new buffer
+     * per call; the results, exceptions and limits are those of {@link #unmarshal(InputStream, Class, String)}. The channel is not closed.
+     * <p>
+     * A non-blocking channel throws {@link java.nio.channels.IllegalBlockingModeException} when it has no data, feed it with
+     * {@link #newFeeder(Class, String, Consumer)} instead.
+     * </p>
+     *
+     * @param <T>
+     *            the type of the object to unmarshal to
+     * @param channel
+     *            the channel containing the XML data; may be {@code null}
+     * @param clazz
+     *            the class of the object to unmarshal to; must not be {@code null}
+     * @param xsdPath
+     *            the path to the XSD schema for validation; may be {@code null} if no validation is required
+     * @return an instance of {@code T} populated from the XML, or {@code null} if {@code channel} is {@code null}
+     * @throws InvalidParameterException
+     *             if {@code clazz} is {@code null}
+     * @throws InvalidXmlSchemaException
+     *             if XML validation against the schema fails
+     * @throws MalformedXmlException
+     *             if the XML is malformed and cannot be unmarshalled
+     * @throws Xml2jDtoException
+     *             for other JAXB-related errors during unmarshalling
+     */
+    public <T> T unmarshal(ReadableByteChannel channel, Class<T> clazz, String xsdPath) {
+        if (Objects.isNull(channel)) {
+            return null;
+        }
+        ByteBuffer buffer = directBuffers.borrow();
+        try {
+            return unmarshal(ChannelStreams.input(channel, buffer), clazz, xsdPath);
+        } finally {
+            directBuffers.release(buffer.clear());
+        }
+    }
+
+    /**
+     * Unmarshals the XML of a file without blocking a thread. The file is read from its start with the asynchronous reads of the channel into a
+     * pooled direct buffer, and every read is parsed by an {@link XmlFeeder} on the thread completing it, so no thread waits for the disk. The
+     * file is read to its end, so content after the root element is rejected like in the blocking calls; the channel is not closed.
+     * <p>
+     * The feeder needs an ASCII compatible encoding, such as UTF-8 or ISO-8859-1, see {@link #newFeeder(Class, String, Consumer)}.
+     * </p>
+     *
+     * @param <T>
+     *            the type of the object to unmarshal to
+     * @param channel
+     *            the file containing the XML data; may be {@code null}
+     * @param clazz
+     *            the class of the object to unmarshal to; must not be {@code null}
+     * @param xsdPath
+     *            the path to the XSD schema for validation; may be {@code null} if no validation is required
+     * @return the future of the result, completed with {@code null} if {@code channel} is {@code null}, or exceptionally with the exceptions of
+     *         {@link XmlFeeder#feed(ByteBuffer)}, or with an {@link Xml2jDtoException} if the file cannot be read
+     * @throws InvalidParameterException
+     *             if {@code clazz} is {@code null}
+     */
+    public <T> CompletableFuture<T> unmarshalAsync(AsynchronousFileChannel channel, Class<T> clazz, String xsdPath) {
+        if (Objects.isNull(channel)) {
+            return CompletableFuture.completedFuture(null);
+        }
+        FileFeed<T> feed = new FileFeed<>(channel, clazz, xsdPath);
+        feed.read(0);
+        return feed.future;
+    }
+
+    /**
+     * Unmarshals an XML input stream that may be compressed. The {@link Compression} is detected from the first bytes of the stream; compressed
+     * content is inflated while the parser reads it, the document is never buffered as a whole.
+     * <p>
+     * The stream of the caller is not closed.
+     * </p>
+     *
+     * @param <T>
+     *            the type of the object to unmarshal to
+     * @param xmlInputStream
+     *            the input stream of the XML, compressed or not; may be {@code null}
+     * @param clazz
+     *            the class of the object to unmarshal to; must not be {@code null}
+     * @param xsdPath
+     *            the path to the XSD schema for validation; may be {@code null} if no validation is required
+     * @return an instance of {@code T} populated from the XML, or {@code null} if {@code xmlInputStream} is {@code null}
+     * @throws InvalidParameterException
+     *             if {@code clazz} is {@code null}
+     * @throws InvalidXmlSchemaException
+     *             if XML validation against the schema fails
+     * @throws MalformedXmlException
+     *             if the XML is malformed, or the compressed data is corrupt
+     * @throws Xml2jDtoException
+     *             if the stream cannot be read, or for other JAXB-related errors during unmarshalling
+     */
+    public <T> T unmarshalCompressed(InputStream xmlInputStream, Class<T> clazz, String xsdPath) {
+        if (Objects.isNull(xmlInputStream)) {
+            return null;
+        }
+        if (clazz == null) {
+            throw new InvalidParameterException(JaxbUtil.CLAZZ_NULL_MSG);
+        }
+        try (InputStream xml = CompressedStreams.decompress(xmlInputStream, compressionBufferSize)) {
+            return unmarshal(xml, clazz, xsdPath);
+        } catch (IOException e) {
+            metrics.increment(Xml2jDtoMetrics.UNMARSHAL + Xml2jDtoMetrics.ERROR);
+            throw ExBuilder.newXml2jDtoException()
+                    .withMessage("Failed to read compressed InputStream [{0}]: [{1}]", xmlInputStream, e.getLocalizedMessage())
+                    .withCause(e)
+                    .build();
+        }
+    }
+
+    /**
+     * Validates an XML input stream, that may be compressed, against the given schema without binding it to objects. The {@link Compression} is
+     * detected from the first bytes of the stream and the content is validated while it is inflated.
+     * <p>
+     * The stream of the caller is not closed.
+     * </p>
+     *
+     * @param xmlInputStream
+     *            the input stream of the XML, compressed or not; if {@code null}, nothing is validated
+     * @param xsdPath
+     *            the path to the XSD schema
+     * @throws InvalidMethodParameterException
+     *             if the xsdPath is null or blank
+     * @throws InvalidXmlSchemaException
+     *             if XML validation against the schema fails
+     * @throws MalformedXmlException
+     *             if the XML is malformed, or the compressed data is corrupt
+     * @throws Xml2jDtoException
+     *             if the stream cannot be read
+     */
+    public void validate(InputStream xmlInputStream, String xsdPath) {
+        if (Objects.isNull(xmlInputStream)) {
+            return;
+        }
+        Schema schema = getSchema(xsdPath);
+        if (resultCache != null) {
+            byte[] xml = readPayload(limit(xmlInputStream), Xml2jDtoMetrics.VALIDATE);
+            resultCache.validate(xml, xsdPath, () -> validate(payloadStream(xmlInputStream, xml), schema));
+        } else {
+            validate(xmlInputStream, schema);
+        }
+    }
+
+    /**
+     * Validates an XML input stream within a timeout, see {@link #validate(InputStream, String)}. The deadline and the interrupt status of the thread
+     * are checked every time the parser reads the next buffer of the stream, like {@link #unmarshal(InputStream, Class, String, Duration)}.
+     *
+     * @param xmlInputStream
+     *            the input stream of the XML, compressed or not; if {@code null}, nothing is validated
+     * @param xsdPath
+     *            the path to the XSD schema
+     * @param timeout
+     *            the time allowed from now; must not be {@code null}
+     * @throws InvalidMethodParameterException
+     *             if the xsdPath is null or blank, or the timeout is null
+     * @throws XmlParsingCancelledException
+     *             if the deadline passes or the thread is interrupted before the document is validated, the interrupt status is kept
+     * @throws InvalidXmlSchemaException
+     *             if XML validation against the schema fails
+     * @throws MalformedXmlException
+     *             if the XML is malformed, or the compressed data is corrupt
+     */
+    public void validate(InputStream xmlInputStream, String xsdPath, Duration timeout) {
+        checkTimeout(timeout);
+        validate(cancellable(xmlInputStream, timeout, Cancellation.NOT_CANCELLED), xsdPath);
+    }
+
+    /**
+     * Validates an XML input stream by a deadline, see {@link #validate(InputStream, String, Duration)}.
+     *
+     * @param xmlInputStream
+     *            the input stream of the XML, compressed or not; if {@code null}, nothing is validated
+     * @param xsdPath
+     *            the path to the XSD schema
+     * @param deadline
+     *            the instant the validation must end by; must not be {@code null}
+     * @throws InvalidMethodParameterException
+     *             if the xsdPath is null or blank, or the deadline is null
+     * @throws XmlParsingCancelledException
+     *             if the deadline passes or the thread is interrupted before the document is validated, the interrupt status is kept
+     */
+    public void validate(InputStream xmlInputStream, String xsdPath, Instant deadline) {
+        validate(xmlInputStream, xsdPath, timeoutUntil(deadline));
+    }
+
+    private void validate(InputStream xmlInputStream, Schema schema) {
+        long start = System.nanoTime();
+        XsdValidationEventCollector eventCollector = new XsdValidationEventCollector();
+        try (InputStream xml = limit(CompressedStreams.decompress(xmlInputStream, compressionBufferSize))) {
+            Validator validator = schema.newValidator();
+            validator.setProperty(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+            validator.setProperty(XMLConstants.ACCESS_EXTERNAL_SCHEMA, "");
+            validator.setErrorHandler(eventCollector);
+            validator.validate(parsingLimits.hasEventLimits() ? new StAXSource(createReader(xml)) : new StreamSource(xml));
+        } catch (XmlLimitExceededException | XmlParsingCancelledException e) {
+            metrics.increment(Xml2jDtoMetrics.VALIDATE + Xml2jDtoMetrics.ERROR);
+            throw e;
+        } catch (SAXException | XMLStreamException e) {
+            metrics.increment(Xml2jDtoMetrics.VALIDATE + Xml2jDtoMetrics.ERROR);
+            rethrowAborted(e);
+            throw new MalformedXmlException(eventCollector.getEvents(), e);
+        } catch (IOException e) {
+            metrics.increment(Xml2jDtoMetrics.VALIDATE + Xml2jDtoMetrics.ERROR);
+            rethrowAborted(e);
+            throw ExBuilder.newXml2jDtoException()
+                    .withMessage("Validation error for InputStream [{0}]: [{1}]", xmlInputStream, e.getLocalizedMessage())
+                    .withCause(e)
+                    .build();
+        } finally {
+            metrics.recordNanos(Xml2jDtoMetrics.VALIDATE, System.nanoTime() - start);
+        }
+        List<ValidationEvent> events = eventCollector.getEvents();
+        if (!events.isEmpty()) {
+            metrics.increment(Xml2jDtoMetrics.VALIDATE + Xml2jDtoMetrics.ERROR);
+            throw new InvalidXmlSchemaException(events);
+        }
+    }
+
+    /**
+     * Marshals the given DTO into an XML string with the default marshaller properties of this engine.
+     *
+     * @param <T>
+     *            the type of the DTO
+     * @param dto
+     *            the DTO object to be marshaled; if null, the method returns null
+     * @return the XML string representation of the DTO object, or null if the DTO is null
+     */
+    public <T> String marshal(T dto) {
+        return marshal(dto, null, defaultMarshallerProperties, (Class<?>[]) null);
+    }
+
+    /**
+     * Marshals the given DTO object into a formatted XML string: the default marshaller properties of this engine with
+     * {@link Marshaller#JAXB_FORMATTED_OUTPUT} set to {@code true}.
+     *
+     * @param <T>
+     *            the type of the DTO object to marshal
+     * @param dto
+     *            the DTO object to be marshalled into XML
+     * @return a formatted XML string representation of the given DTO object
+     */
+    public <T> String marshalFormatted(T dto) {
+        Map<String, Object> properties = new HashMap<>(defaultMarshallerProperties);
+        properties.put(Marshaller.JAXB_FORMATTED_OUTPUT, true);
+        return marshal(dto, null, properties, (Class<?>[]) null);
+    }
+
+    /**
+     * Marshals the given DTO object into an XML string representation.
+     *
+     * @param <T>
+     *            the type of the DTO object
+     * @param dto
+     *            the DTO object to be marshaled; if null, the method returns null
+     * @param properties
+     *            a map of properties to be set on the marshaller; can be null
+     * @return the XML string representation of the DTO object, or null if the DTO is null
+     * @throws Xml2jDtoException
+     *             if an error occurs during marshalling or setting properties
+     */
+    public <T> String marshal(T dto, Map<String, Object> properties) {
+        return marshal(dto, null, properties, (Class<?>[]) null);
+    }
+
+    /**
+     * Marshals the given DTO object into its XML representation, validated against the given schema, with the default marshaller properties of this
+     * engine.
+     *
+     * @param <T>
+     *            the type of the DTO object to marshal
+     * @param dto
+     *            the DTO object to be marshaled into XML
+     * @param schemaPath
+     *            the path to the XML schema file used for validation
+     * @return the XML string representation of the DTO object
+     */
+    public <T> String marshal(T dto, String schemaPath) {
+        return marshal(dto, schemaPath, defaultMarshallerProperties, (Class<?>[]) null);
+    }
+
+    /**
+     * Marshals the given DTO on the executor of this engine, see {@link #marshal(Object, String)}.
+     *
+     * @param <T>
+     *            the type of the DTO object to marshal
+     * @param dto
+     *            the DTO object to be marshaled into XML
+     * @param schemaPath
+     *            the path to the XML schema file used for validation; if blank, no validation is performed
+     * @return the future of the result, completed exceptionally with the exceptions of {@link #marshal(Object, String)}
+     */
+    public <T> CompletableFuture<String> marshalAsync(T dto, String schemaPath) {
+        return CompletableFuture.supplyAsync(() -> marshal(dto, schemaPath), executor);
+    }
+
+    /**
+     * Marshals the given DTO object to its XML string representation, optionally validating against an XML schema.
+     * <p>
+     * If a schema path is specified, the XML output is validated against the schema. Additional JAXB classes and marshaller properties can be
+     * supplied. Validation events are collected, and if any validation errors occur, an {@link InvalidXmlSchemaException} is thrown. If marshalling
+     * fails due to malformed XML, a {@link MalformedXmlException} is thrown.
+     * </p>
+     *
+     * @param <T>
+     *            the type of the DTO object to marshal
+     * @param dto
+     *            the DTO object to be marshalled; if {@code null}, returns {@code null}
+     * @param schemaPath
+     *            the path to the XML schema for validation; if blank, no validation is performed
+     * @param marshallerProperties
+     *            a map of properties to configure the JAXB marshaller
+     * @param additionalClasses
+     *            additional classes to be recognized by the JAXB context
+     * @return the XML string representation of the DTO object, or {@code null} if the DTO is {@code null}
+     * @throws InvalidXmlSchemaException
+     *             if XML validation against the schema fails
+     * @throws MalformedXmlException
+     *             if marshalling fails due to malformed XML
+     * @throws Xml2jDtoException
+     *             if any other JAXB exception occurs during marshalling
+     */
+    public <T> String marshal(T dto, String schemaPath, Map<String, Object> marshallerProperties, Class<?>... additionalClasses) {
+        if (dto == null) {
+            return null;
+        }
+        Class<?> type = dto.getClass();
+        StringWriter stringWriter = new StringWriter(stringSizes.predict(type));
+        StaxCodec<T> codec = staxCodec(dto, marshallerProperties, additionalClasses);
+        if (codec != null) {
+            boolean fragment = isFragment(marshallerProperties);
+            marshal(codec, dto, schemaPath, () -> {
+                if (!fragment) {
+                    stringWriter.write(XML_DECLARATION);
+                }
+                return StaxCodecs.newWriter(stringWriter);
+            }, "String");
+        } else {
+            marshal(dto, schemaPath, marshallerProperties, additionalClasses, marshaller -> marshaller.marshal(dto, stringWriter), "String");
+        }
+        String xml = stringWriter.toString();
+        stringSizes.record(type, xml.length());
+        return xml;
+    }
+
+    /**
+     * Marshals the given DTO into XML bytes with the default marshaller properties of this engine, UTF-8 encoded by default.
+     *
+     * @param <T>
+     *            the type of the DTO
+     * @param dto
+     *            the DTO object to be marshaled; if null, the method returns null
+     * @return the XML bytes, or null if the DTO is null
+     * @see #marshalToBytes(Object, String, Map, Class...)
+     */
+    public <T> byte[] marshalToBytes(T dto) {
+        return marshalToBytes(dto, null, defaultMarshallerProperties, (Class<?>[]) null);
+    }
+
+    /**
+     * Marshals the given DTO into XML bytes validated against the given schema, with the default marshaller properties of this engine.
+     *
+     * @param <T>
+     *            the type of the DTO
+     * @param dto
+     *            the DTO object to be marshaled; if null, the method returns null
+     * @param schemaPath
+     *            the path to the XML schema for validation; if blank, no validation is performed
+     * @return the XML bytes, or null if the DTO is null
+     * @see #marshalToBytes(Object, String, Map, Class...)
+     */
+    public <T> byte[] marshalToBytes(T dto, String schemaPath) {
+        return marshalToBytes(dto, schemaPath, defaultMarshallerProperties, (Class<?>[]) null);
+    }
+
+    /**
+     * Marshals the given DTO directly into XML bytes, encoded with the {@link Marshaller#JAXB_ENCODING} of the properties.
+     * <p>
+     * Unlike {@code marshal(dto).getBytes(...)} there is no intermediate {@link StringWriter} and String: the marshaller encodes into a pooled,
+     * reusable buffer, presized from the moving average of the recent output sizes of the DTO class, and the result is one exact-sized copy of it. A
+     * buffer grown beyond {@link Builder#maxPooledMarshalBufferSize(int)} is not returned to the pool.
+     * </p>
+     *
+     * @param <T>
+     *            the type of the DTO object to marshal
+     * @param dto
+     *            the DTO object to be marshalled; if {@code null}, returns {@code null}
+     * @param schemaPath
+     *            the path to the XML schema for validation; if blank, no validation is performed
+     * @param marshallerProperties
+     *            a map of properties to configure the JAXB marshaller
+     * @param additionalClasses
+     *            additional classes to be recognized by the JAXB context
+     * @return the XML bytes, or {@code null} if the DTO is {@code null}
+     * @throws InvalidXmlSchemaException
+     *             if XML validation against the schema fails
+     * @throws MalformedXmlException
+     *             if marshalling fails due to malformed XML
+     * @throws Xml2jDtoException
+     *             if any other JAXB exception occurs during marshalling
+     */
+    public <T> byte[] marshalToBytes(T dto, String schemaPath, Map<String, Object> marshallerProperties, Class<?>... additionalClasses) {
+        if (dto == null) {
+            return null;
+        }
+        Class<?> type = dto.getClass();
+        ReusableByteArrayOutputStream buffer = marshalBuffers.borrow();
+        try {
+            buffer.ensureCapacity(byteSizes.predict(type));
+            StaxCodec<T> codec = staxCodec(dto, marshallerProperties, additionalClasses);
+            if (codec != null) {
+                marshal(codec, dto, schemaPath, () -> openUtf8Writer(buffer, isFragment(marshallerProperties)), "byte[]");
+            } else {
+                marshal(dto, schemaPath, marshallerProperties, additionalClasses, marshaller -> marshaller.marshal(dto, buffer), "byte[]");
+            }
+            byteSizes.record(type, buffer.size());
+            return buffer.toByteArray();
+        } finally {
+            buffer.reset();
+            if (buffer.capacity() <= maxPooledMarshalBufferSize) {
+                marshalBuffers.release(buffer);
+            }
+        }
+    }
+
+    /**
+     * Marshals the given DTO into the output stream, compressed in the given format, with the default marshaller properties of this engine.
+     *
+     * @param <T>
+     *            the type of the DTO object to marshal
+     * @param dto
+     *            the DTO object to be marshalled; if {@code null}, nothing is written
+     * @param outputStream
+     *            the target of the compressed XML
+     * @param compression
+     *            the compression format
+     * @param schemaPath
+     *            the path to the XML schema for validation; if blank, no validation is performed
+     * @see #marshalCompressed(Object, OutputStream, Compression, String, Map, Class...)
+     */
+    public <T> void marshalCompressed(T dto, OutputStream outputStream, Compression compression, String schemaPath) {
+        marshalCompressed(dto, outputStream, compression, schemaPath, defaultMarshallerProperties, (Class<?>[]) null);
+    }
+
+    /**
+     * Marshals the given DTO into the output stream, compressed in the given format. The marshaller writes straight into the compressor, the
+     * document is never buffered as a whole. When the method returns, the compressed data is complete and flushed; the stream of the caller is not
+     * closed.
+     *
+     * @param <T>
+     *            the type of the DTO object to marshal
+     * @param dto
+     *            the DTO object to be marshalled; if {@code null}, nothing is written
+     * @param outputStream
+     *            the target of the compressed XML
+     * @param compression
+     *            the compression format, {@link Compression#NONE} writes plain XML
+     * @param schemaPath
+     *            the path to the XML schema for validation; if blank, no validation is performed
+     * @param marshallerProperties
+     *            a map of properties to configure the JAXB marshaller
+     * @param additionalClasses
+     *            additional classes to be recognized by the JAXB context
+     * @throws InvalidMethodParameterException
+     *             if the output stream or the compression is null
+     * @throws InvalidXmlSchemaException
+     *             if XML validation against the schema fails
+     * @throws MalformedXmlException
+     *             if marshalling fails due to malformed XML
+     * @throws Xml2jDtoException
+     *             if the stream cannot be written, or any other JAXB exception occurs during marshalling
+     */
+    public <T> void marshalCompressed(T dto, OutputStream outputStream, Compression compression, String schemaPath,
+            Map<String, Object> marshallerProperties, Class<?>... additionalClasses) {
+        if (dto == null) {
+            return;
+        }
+        if (outputStream == null || compression == null) {
+            throw new InvalidMethodParameterException(
+                    MessageFormat.format("outputStream cannot be null: [{0}] or compression cannot be null: [{1}]!", outputStream, compression));
+        }
+        try (OutputStream target = CompressedStreams.compress(outputStream, compression, compressionBufferSize)) {
+            StaxCodec<T> codec = staxCodec(dto, marshallerProperties, additionalClasses);
+            if (codec != null) {
+                marshal(codec, dto, schemaPath, () -> openUtf8Writer(target, isFragment(marshallerProperties)), compression + " stream");
+            } else {
+                marshal(dto, schemaPath, marshallerProperties, additionalClasses, marshaller -> marshaller.marshal(dto, target), compression + " stream");
+            }
+        } catch (IOException e) {
+            metrics.increment(Xml2jDtoMetrics.MARSHAL + Xml2jDtoMetrics.ERROR);
+            throw ExBuilder.newXml2jDtoException()
+                    .withMessage("Failed DTO[{0}] -> {1} stream conversion: [{2}]", dto.getClass().getName(), compression, e.getLocalizedMessage())
+                    .withCause(e)
+                    .build();
+        }
+    }
+
+    /**
+     * Marshals the given DTO into a channel, such as a {@code FileChannel} or a blocking {@code SocketChannel}, with the default marshaller
+     * properties. The output is gathered in a pooled direct buffer of {@link Builder#channelBufferSize(int)} bytes and written a whole buffer per
+     * system call. When the method returns, the document is written; the channel is not closed.
+     *
+     * @param <T>
+     *            the type of the DTO object to marshal
+     * @param dto
+     *            the DTO object to be marshalled; if {@code null}, nothing is written
+     * @param channel
+     *            the target of the XML
+     * @param schemaPath
+     *            the path to the XML schema for validation; if blank, no validation is performed
+     * @throws InvalidMethodParameterException
+     *             if the channel is null
+     * @throws InvalidXmlSchemaException
+     *             if XML validation against the schema fails
+     * @throws MalformedXmlException
+     *             if marshalling fails due to malformed XML
+     * @throws Xml2jDtoException
+     *             if the channel cannot be written, or any other JAXB exception occurs during marshalling
+     */
+    public <T> void marshal(T dto, WritableByteChannel channel, String schemaPath) {
+        if (dto == null) {
+            return;
+        }
+        if (channel == null) {
+            throw new InvalidMethodParameterException("channel cannot be null!");
+        }
+        ByteBuffer buffer = directBuffers.borrow();
+        try {
+            marshalCompressed(dto, ChannelStreams.output(channel, buffer), Compression.NONE, schemaPath);
+        } finally {
+            directBuffers.release(buffer.clear());
+        }
+    }
+
+    /**
+     * Marshalling with validation event collection, shared by the String and byte[] variants.
+     */
+    private <T> void marshal(T dto, String schemaPath, Map<String, Object> marshallerProperties, Class<?>[] additionalClasses, MarshalCall call,
+            String targetKind) {
+        long start = System.nanoTime();
+        JAXBContext jaxbContext = createJAXBContext(dto, additionalClasses);
+
+        List<ValidationEvent> events = new ArrayList<>();
+        try {
+            Marshaller marshaller = jaxbContext.createMarshaller();
+            setMarshallerProperties(marshaller, marshallerProperties);
+
+            XsdValidationEventCollector eventCollector = new XsdValidationEventCollector();
+            marshaller.setEventHandler(eventCollector);
+
+            // if schemaPath is empty -> no validation, only conversion
+            if (StringUtils.isNotBlank(schemaPath)) {
+                Schema schema = getSchema(schemaPath);
+                if (schema != null) {
+                    marshaller.setSchema(schema);
+                }
+            }
+            call.marshal(marshaller);
+            events = eventCollector.getEvents();
+            if (!events.isEmpty()) {
+                metrics.increment(Xml2jDtoMetrics.MARSHAL + Xml2jDtoMetrics.ERROR);
+                throw new InvalidXmlSchemaException(events);
+            }
+        } catch (MarshalException e) {
+            metrics.increment(Xml2jDtoMetrics.MARSHAL + Xml2jDtoMetrics.ERROR);
+            throw new MalformedXmlException(events, e);
+        } catch (JAXBException e) {
+            metrics.increment(Xml2jDtoMetrics.MARSHAL + Xml2jDtoMetrics.ERROR);
+            // we should not log the whole message, because it can be very long
+            throw ExBuilder.newXml2jDtoException()
+                    .withMessage("Failed DTO[{0}] -> {1} conversion: [{2}]", dto.getClass().getName(), targetKind, e.getLocalizedMessage())
+                    .withCause(e)
+                    .build();
+        } finally {
+            metrics.recordNanos(Xml2jDtoMetrics.MARSHAL, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Unmarshalling with validation event collection, shared by the String and InputStream variants.
+     */
+    private <T> T unmarshal(Class<T> clazz, String xsdPath, UnmarshalCall call, String sourceKind, Object sourceDescription) {
+        long start = System.nanoTime();
+        XsdValidationEventCollector eventCollector = new XsdValidationEventCollector();
+        List<ValidationEvent> events = new ArrayList<>();
+        ContextHolder holder = contextHolder(clazz);
+        Unmarshaller unmarshaller = holder.unmarshallers.borrow();
+        boolean reusable = false;
+        try {
+            unmarshaller.setEventHandler(eventCollector);
+            deduplicateStrings(unmarshaller);
+            if (xsdPath != null) {
+                Schema schema = getSchema(xsdPath);
+                if (schema != null) {
+                    unmarshaller.setSchema(schema);
+                }
+            }
+            T result = clazz.cast(call.unmarshal(unmarshaller));
+            reusable = true;
+
+            events = eventCollector.getEvents();
+            if (!events.isEmpty()) {
+                metrics.increment(Xml2jDtoMetrics.UNMARSHAL + Xml2jDtoMetrics.ERROR);
+                throw new InvalidXmlSchemaException(events);
+            }
+
+            return result;
+        } catch (XmlLimitExceededException | XmlParsingCancelledException e) {
+            metrics.increment(Xml2jDtoMetrics.UNMARSHAL + Xml2jDtoMetrics.ERROR);
+            // aborted at a read of the input, JAXB clears the state of the unmarshaller
+            reusable = true;
+            throw e;
+        } catch (UnmarshalException e) {
+            metrics.increment(Xml2jDtoMetrics.UNMARSHAL + Xml2jDtoMetrics.ERROR);
+            rethrowAborted(e);
+            throw new MalformedXmlException(events, e);
+        } catch (JAXBException e) {
+            metrics.increment(Xml2jDtoMetrics.UNMARSHAL + Xml2jDtoMetrics.ERROR);
+            rethrowAborted(e);
+            // we should not log the whole message, because it can be very long
+            throw ExBuilder.newXml2jDtoException()
+                    .withMessage("Unmarshalling error for class [{0}], {1} [{2}]: [{3}]", clazz.getName(), sourceKind, sourceDescription, e.getLocalizedMessage())
+                    .withCause(e)
+                    .build();
+        } finally {
+            release(holder, unmarshaller, reusable);
+            metrics.recordNanos(Xml2jDtoMetrics.UNMARSHAL, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Unmarshalling with a generated StAX codec. With {@code collectEvents} the validation events are collected and the exceptions are those of
+     * {@link #unmarshal(Class, String, UnmarshalCall, String, Object)}, otherwise the first error ends the call like the default JAXB handler.
+     */
+    private <T> T unmarshal(StaxCodec<T> codec, String xsdPath, boolean collectEvents, StaxUnmarshalCall call, String sourceKind,
+            Object sourceDescription) {
+        long start = System.nanoTime();
+        XsdValidationEventCollector eventCollector = collectEvents ? new XsdValidationEventCollector() : null;
+        XMLStreamReader reader = null;
+        try {
+            reader = call.open();
+            if (xsdPath != null) {
+                Schema schema = getSchema(xsdPath);
+                if (schema != null) {
+                    ValidatorHandler validatorHandler = schema.newValidatorHandler();
+                    validatorHandler.setErrorHandler(eventCollector);
+                    reader = StaxCodecs.validating(reader, validatorHandler);
+                }
+            }
+            T result = StaxCodecs.read(codec, reader, eventCollector, stringTable());
+
+            if (eventCollector != null && !eventCollector.getEvents().isEmpty()) {
+                metrics.increment(Xml2jDtoMetrics.UNMARSHAL + Xml2jDtoMetrics.ERROR);
+                throw new InvalidXmlSchemaException(eventCollector.getEvents());
+            }
+            return result;
+        } catch (XmlLimitExceededException | XmlParsingCancelledException e) {
+            metrics.increment(Xml2jDtoMetrics.UNMARSHAL + Xml2jDtoMetrics.ERROR);
+            throw e;
+        } catch (XMLStreamException e) {
+            metrics.increment(Xml2jDtoMetrics.UNMARSHAL + Xml2jDtoMetrics.ERROR);
+            rethrowAborted(e);
+            if (eventCollector != null) {
+                throw new MalformedXmlException(eventCollector.getEvents(), new UnmarshalException(e));
+            }
+            // we should not log the whole message, because it can be very long
+            throw ExBuilder.newXml2jDtoException()
+                    .withMessage(
+                            "Unmarshalling error for class [{0}], {1} [{2}]: [{3}]",
+                            codec.type().getName(),
+                            sourceKind,
+                            sourceDescription,
+                            e.getLocalizedMessage())
+                    .withCause(e)
+                    .build();
+        } finally {
+            close(reader);
+            metrics.recordNanos(Xml2jDtoMetrics.UNMARSHAL, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Marshalling with a generated StAX codec and validation event collection, with the exceptions of
+     * {@link #marshal(Object, String, Map, Class[], MarshalCall, String)}. The call opens the writer and writes the XML declaration, the one JAXB
+     * writes, unless a fragment is marshalled.
+     */
+    private <T> void marshal(StaxCodec<T> codec, T dto, String schemaPath, StaxMarshalCall call, String targetKind) {
+        long start = System.nanoTime();
+        XsdValidationEventCollector eventCollector = new XsdValidationEventCollector();
+        try {
+            XMLStreamWriter writer = call.open();
+            // if schemaPath is empty -> no validation, only conversion
+            if (StringUtils.isNotBlank(schemaPath)) {
+                Schema schema = getSchema(schemaPath);
+                if (schema != null) {
+                    ValidatorHandler validatorHandler = schema.newValidatorHandler();
+                    validatorHandler.setErrorHandler(eventCollector);
+                    writer = StaxCodecs.validating(writer, validatorHandler);
+                }
+            }
+            StaxCodecs.write(codec, dto, writer);
+            writer.close();
+            if (!eventCollector.getEvents().isEmpty()) {
+                metrics.increment(Xml2jDtoMetrics.MARSHAL + Xml2jDtoMetrics.ERROR);
+                throw new InvalidXmlSchemaException(eventCollector.getEvents());
+            }
+        } catch (XMLStreamException e) {
+            metrics.increment(Xml2jDtoMetrics.MARSHAL + Xml2jDtoMetrics.ERROR);
+            throw new MalformedXmlException(eventCollector.getEvents(), new MarshalException(e));
+        } catch (IOException e) {
+            metrics.increment(Xml2jDtoMetrics.MARSHAL + Xml2jDtoMetrics.ERROR);
+            throw ExBuilder.newXml2jDtoException()
+                    .withMessage("Failed DTO[{0}] -> {1} conversion: [{2}]", dto.getClass().getName(), targetKind, e.getLocalizedMessage())
+                    .withCause(e)
+                    .build();
+        } finally {
+            metrics.recordNanos(Xml2jDtoMetrics.MARSHAL, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * @return the generated codec of the class, or null if it has none or the codecs are disabled
+     */
+    private <T> StaxCodec<T> staxCodec(Class<T> clazz) {
+        return staxCodecs && StaxCodecs.isSupported(clazz) ? StaxCodecs.codec(clazz) : null;
+    }
+
+    /**
+     * @return the generated codec of the class of the DTO, or null if it has none, the codecs are disabled, or the marshal call needs JAXB
+     */
+    @SuppressWarnings("unchecked")
+    private <T> StaxCodec<T> staxCodec(T dto, Map<String, Object> marshallerProperties, Class<?>[] additionalClasses) {
+        if (!staxCodecs || additionalClasses != null && additionalClasses.length > 0) {
+            return null;
+        }
+        if (marshallerProperties != null) {
+            for (Entry<String, Object> entry : marshallerProperties.entrySet()) {
+                boolean supported = switch (entry.getKey()) {
+                    case Marshaller.JAXB_ENCODING -> entry.getValue() instanceof String encoding
+                            && StandardCharsets.UTF_8.name().equalsIgnoreCase(encoding);
+                    case Marshaller.JAXB_FORMATTED_OUTPUT -> Boolean.FALSE.equals(entry.getValue());
+                    case Marshaller.JAXB_FRAGMENT -> entry.getValue() instanceof Boolean;
+                    default -> false;
+                };
+                if (!supported) {
+                    return null;
+                }
+            }
+        }
+        return staxCodec((Class<T>) dto.getClass());
+    }
+
+    private static boolean isFragment(Map<String, Object> marshallerProperties) {
+        return marshallerProperties != null && Boolean.TRUE.equals(marshallerProperties.get(Marshaller.JAXB_FRAGMENT));
+    }
+
+    private static XMLStreamWriter openUtf8Writer(OutputStream target, boolean fragment) throws IOException {
+        if (!fragment) {
+            target.write(XML_DECLARATION_BYTES);
+        }
+        return StaxCodecs.newWriter(target);
+    }
+
+    /**
+     * Returns the stream of the buffered payload of a cached call, checked with the deadline and the cancellation of the caller's stream, if any.
+     */
+    private static InputStream payloadStream(InputStream xmlInputStream, byte[] xml) {
+        InputStream payload = new ByteArrayInputStream(xml);
+        return xmlInputStream instanceof CancellableInputStream cancellable ? new CancellableInputStream(payload, cancellable.cancellation())
+                : payload;
+    }
+
+    /**
+     * Reads the whole payload of a cached call.
+     */
+    private byte[] readPayload(InputStream xmlInputStream, String operation) {
+        try {
+            return xmlInputStream.readAllBytes();
+        } catch (IOException e) {
+            metrics.increment(operation + Xml2jDtoMetrics.ERROR);
+            throw ExBuilder.newXml2jDtoException()
+                    .withMessage("Failed to read InputStream [{0}]: [{1}]", xmlInputStream, e.getLocalizedMessage())
+                    .withCause(e)
+                    .build();
+        }
+    }
+
+    /**
+     * Unmarshals with a pooled, hardened reader of this engine instead of the parser JAXB would create.
+     */
+    private Object unmarshal(Unmarshaller unmarshaller, InputSource source) throws JAXBException {
+        XMLReader reader = xmlReaders.borrow();
+        try {
+            return unmarshaller.unmarshal(new SAXSource(reader, source));
+        } finally {
+            xmlReaders.release(reader);
+        }
+    }
+
+    /**
+     * Applies the document size limit to a stream.
+     */
+    private InputStream limit(InputStream xmlInputStream) {
+        long maxBytes = parsingLimits.getMaxDocumentBytes();
+        return maxBytes > 0 && !(xmlInputStream instanceof LimitingInputStream) ? new LimitingInputStream(xmlInputStream, maxBytes) : xmlInputStream;
+    }
+
+    /**
+     * Creates a reader of the hardened factory with the event limits.
+     */
+    private XMLStreamReader createReader(InputStream xmlInputStream) throws XMLStreamException {
+        return limit(xmlInputFactory.createXMLStreamReader(xmlInputStream));
+    }
+
+    /**
+     * Creates a reader of the hardened factory with the event limits.
+     */
+    private XMLStreamReader createReader(Reader xml) throws XMLStreamException {
+        return limit(xmlInputFactory.createXMLStreamReader(xml));
+    }
+
+    private XMLStreamReader limit(XMLStreamReader reader) {
+        return parsingLimits.hasEventLimits() ? new LimitingStreamReader(reader, parsingLimits) : reader;
+    }
+
+    /**
+     * Creates a limited reader for a JAXB call, with the exception of the call.
+     */
+    private XMLStreamReader createJaxbReader(InputStream xmlInputStream) throws UnmarshalException {
+        try {
+            return createReader(xmlInputStream);
+        } catch (XMLStreamException e) {
+            throw new UnmarshalException(e);
+        }
+    }
+
+    /**
+     * Creates a limited reader for a JAXB call, with the exception of the call.
+     */
+    private XMLStreamReader createJaxbReader(Reader xml) throws UnmarshalException {
+        try {
+            return createReader(xml);
+        } catch (XMLStreamException e) {
+            throw new UnmarshalException(e);
+        }
+    }
+
+    /**
+     * Throws the exceeded parsing limit or the cancellation reported as the cause of a parser or JAXB exception, if any.
+     */
+    private static void rethrowAborted(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof XmlLimitExceededException limitExceeded) {
+                throw limitExceeded;
+            }
+            if (cause instanceof XmlParsingCancelledException cancelled) {
+                throw cancelled;
+            }
+        }
+    }
+
+    /**
+     * Reads up to the first start tag, leaving the reader on it.
+     *
+     * @return the name of the root element
+     */
+    private static QName peekRootElement(XMLStreamReader reader) throws XMLStreamException {
+        while (reader.hasNext()) {
+            if (reader.next() == XMLStreamConstants.START_ELEMENT) {
+                return new QName(Objects.toString(reader.getNamespaceURI(), ""), reader.getLocalName());
+            }
+        }
+        throw new XMLStreamException("The document has no root element", reader.getLocation());
+    }
+
+    private static void close(XMLStreamReader reader) {
+        if (reader == null) {
+            return;
+        }
+        try {
+            reader.close();
+        } catch (XMLStreamException e) {
+            // the underlying source is not closed by the reader, nothing to release
+        }
+    }
+
+    private ContextHolder contextHolder(Class<?> clazz) {
+        Class<?> contextClass = contextClasses.get(clazz);
+        return jaxbContextCache.computeIfAbsent(contextClass.getName(), key -> {
+            try {
+                return new ContextHolder(JAXBContext.newInstance(contextClass));
+            } catch (JAXBException e) {
+                throw ExBuilder.newXml2jDtoException()
+                        .withMessage("Error creating JAXBContext for class [{0}]: [{1}]", clazz.getName(), e.getLocalizedMessage())
+                        .withCause(e)
+                        .build();
+            }
+        });
+    }
+
+    private ContextHolder contextHolder(Class<?>... forClasses) {
+        Class<?>[] contextClassArray = Arrays.stream(forClasses)
+                .map(c -> c == null ? null : contextClasses.get(c))
+                .distinct()
+                .toArray(Class<?>[]::new);
+        String joinedClassName = Arrays.stream(contextClassArray)
+                .map(c -> c == null ? "null" : c.getName())
+                .sorted()
+                .collect(Collectors.joining("|"));
+        return jaxbContextCache.computeIfAbsent(joinedClassName, key -> {
+            try {
+                return new ContextHolder(JAXBContext.newInstance(contextClassArray));
+            } catch (JAXBException | IllegalArgumentException e) {
+                throw ExBuilder.newXml2jDtoException()
+                        .withMessage("Error creating JAXBContext for class [{0}]: [{1}]", joinedClassName, e.getLocalizedMessage())
+                        .withCause(e)
+                        .build();
+            }
+        });
+    }
+
+    private Class<?> contextClass(Class<?> type) {
+        if (jaxbContextStrategy != JaxbContextStrategy.PER_PACKAGE || type.isArray() || type.isPrimitive() || type.getPackageName().isEmpty()) {
+            return type;
+        }
+        try {
+            Class<?> objectFactory = Class.forName(type.getPackageName() + ".ObjectFactory", false, type.getClassLoader());
+            return objectFactory.isAnnotationPresent(XmlRegistry.class) && isCreatedBy(objectFactory, type) ? objectFactory : type;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return type;
+        }
+    }
+
+    /**
+     * Checks whether the context of the object factory binds the class: the factory creates every class generated next to it, a class written by
+     * hand in the same package is unknown to it and gets a context of its own.
+     */
+    private static boolean isCreatedBy(Class<?> objectFactory, Class<?> type) {
+        return type == objectFactory || Arrays.stream(objectFactory.getMethods()).anyMatch(method -> method.getReturnType() == type);
+    }
+
+    private <T> JAXBContext createJAXBContext(T dto, Class<?>... additionalClasses) {
+        if (additionalClasses != null && additionalClasses.length > 0) {
+            List<Class<?>> contextClasses = new ArrayList<>(Arrays.asList(additionalClasses));
+            contextClasses.add(dto.getClass());
+            return getJAXBContext(contextClasses.toArray(new Class<?>[0]));
+        } else {
+            return getJAXBContext(dto.getClass());
+        }
+    }
+
+    private static void setMarshallerProperties(Marshaller marshaller, Map<String, Object> marshallerProperties) {
+        if (marshallerProperties == null) {
+            return;
+        }
+        for (Entry<String, Object> entry : marshallerProperties.entrySet()) {
+            try {
+                marshaller.setProperty(entry.getKey(), entry.getValue());
+            } catch (PropertyException e) {
+                throw ExBuilder.newXml2jDtoException()
+                        .withMessage("Failed to set property name[{0}], value[{1}]: [{2}]", entry.getKey(), entry.getValue(), e.getLocalizedMessage())
+                        .withCause(e)
+                        .build();
+            }
+        }
+    }
+
+    /**
+     * @return the string table of an unmarshal call, null without {@link StringDeduplication}
+     */
+    private StringTable stringTable() {
+        return switch (stringDeduplication) {
+            case NONE -> null;
+            case PER_CALL -> new StringTable(stringTableSize);
+            case SHARED -> sharedStrings;
+        };
+    }
+
+    /**
+     * Sets the listener deduplicating the strings of the unmarshalled objects, if enabled; {@link #release} removes it.
+     */
+    private void deduplicateStrings(Unmarshaller unmarshaller) {
+        StringTable strings = stringTable();
+        if (strings != null) {
+            unmarshaller.setListener(new StringDeduplicator(strings));
+        }
+    }
+
+    /**
+     * Returns an unmarshaller to its pool after resetting the per call state. An unmarshaller that failed is dropped, its internal state is unknown.
+     */
+    private static void release(ContextHolder holder, Unmarshaller unmarshaller, boolean reusable) {
+        if (!reusable) {
+            return;
+        }
+        try {
+            unmarshaller.setSchema(null);
+            unmarshaller.setEventHandler(null);
+            unmarshaller.setListener(null);
+        } catch (JAXBException e) {
+            return;
+        }
+        holder.unmarshallers.release(unmarshaller);
+    }
+
+    @FunctionalInterface
+    private interface UnmarshalCall {
+        Object unmarshal(Unmarshaller unmarshaller) throws JAXBException;
+    }
+
+    @FunctionalInterface
+    private interface MarshalCall {
+        void marshal(Marshaller marshaller) throws JAXBException;
+    }
+
+    @FunctionalInterface
+    private interface StaxUnmarshalCall {
+        XMLStreamReader open() throws XMLStreamException;
+    }
+
+    @FunctionalInterface
+    private interface StaxMarshalCall {
+        XMLStreamWriter open() throws XMLStreamException, IOException;
+    }
+
+    /**
+     * Cached {@link JAXBContext} with the pool of its unmarshallers; the pool is dropped together with the context on eviction.
+     */
+    private final class ContextHolder {
+        private final JAXBContext context;
+        private final ObjectPool<Unmarshaller> unmarshallers;
+
+        private ContextHolder(JAXBContext context) {
+            this.context = context;
+            this.unmarshallers = new ObjectPool<>(maxUnmarshallersPerContext, () -> {
+                try {
+                    return context.createUnmarshaller();
+                } catch (JAXBException e) {
+                    throw ExBuilder.newXml2jDtoException()
+                            .withMessage("Error creating Unmarshaller: [{0}]", e.getLocalizedMessage())
+                            .withCause(e)
+                            .build();
+                }
+            }, metrics, Xml2jDtoMetrics.UNMARSHALLER_POOL);
+        }
+    }
+
+    /**
+     * Binder of the elements selected by {@link #unmarshalPaths(InputStream, Map)}. The unmarshaller of a path is borrowed by its first element and
+     * kept for the rest of the call, so a path selecting many elements pays for the pool and the per call setup only once.
+     */
+    private final class PathBinder implements PathScanner.ElementBinder {
+        private final List<Class<?>> types;
+        private final XsdValidationEventCollector eventCollector;
+        private final StringTable strings;
+        private final ContextHolder[] holders;
+        private final Unmarshaller[] unmarshallers;
+        private boolean reusable;
+
+        private PathBinder(List<Class<?>> types, XsdValidationEventCollector eventCollector, StringTable strings) {
+            this.types = types;
+            this.eventCollector = eventCollector;
+            this.strings = strings;
+            this.holders = new ContextHolder[types.size()];
+            this.unmarshallers = new Unmarshaller[types.size()];
+        }
+
+        @Override
+        public Object bind(XMLStreamReader reader, int pathIndex) throws XMLStreamException, JAXBException {
+            Class<?> type = types.get(pathIndex);
+            StaxCodec<?> codec = staxCodec(type);
+            if (codec != null && codec.rootElement().getLocalPart().equals(reader.getLocalName())
+                    && codec.rootElement().getNamespaceURI().equals(Objects.toString(reader.getNamespaceURI(), ""))) {
+                Object value = codec.read(new StaxReadContext(reader, eventCollector, strings));
+                reader.next();
+                return value;
+            }
+            return unmarshaller(pathIndex).unmarshal(reader, type).getValue();
+        }
+
+        private Unmarshaller unmarshaller(int pathIndex) throws JAXBException {
+            Unmarshaller unmarshaller = unmarshallers[pathIndex];
+            if (unmarshaller == null) {
+                holders[pathIndex] = contextHolder(types.get(pathIndex));
+                unmarshaller = holders[pathIndex].unmarshallers.borrow();
+                unmarshallers[pathIndex] = unmarshaller;
+                unmarshaller.setEventHandler(eventCollector);
+                if (strings != null) {
+                    unmarshaller.setListener(new StringDeduplicator(strings));
+                }
+            }
+            return unmarshaller;
+        }
+
+        private void release() {
+            for (int i = 0; i < unmarshallers.length; i++) {
+                if (unmarshallers[i] != null) {
+                    Xml2jDto.release(holders[i], unmarshallers[i], reusable);
+                }
+            }
+        }
+    }
+
+    /**
+     * Binding of the events of an {@link XmlFeeder}: the {@link UnmarshallerHandler} of the whole document, or the selector of the elements of a path
+     * behind the validator of the schema. The unmarshaller is borrowed once and kept for the whole document.
+     */
+    private final class FeedTarget<T> implements XmlFeeder.Target {
+        private final Class<T> type;
+        private final XsdValidationEventCollector eventCollector;
+        private final Consumer<? super T> callback;
+        private final ContentHandler handler;
+        private UnmarshallerHandler documentHandler;
+        private ContextHolder holder;
+        private Unmarshaller unmarshaller;
+
+        private FeedTarget(Class<T> type, ElementPath path, Schema schema, XsdValidationEventCollector eventCollector, Consumer<? super T> callback) {
+            this.type = type;
+            this.eventCollector = eventCollector;
+            this.callback = callback;
+            if (path == null) {
+                unmarshaller();
+                if (schema != null) {
+                    unmarshaller.setSchema(schema);
+                }
+                documentHandler = unmarshaller.getUnmarshallerHandler();
+                handler = documentHandler;
+            } else if (schema != null) {
+                ValidatorHandler validator = schema.newValidatorHandler();
+                validator.setErrorHandler(eventCollector);
+                validator.setContentHandler(new ElementSelector(path, this::bind));
+                handler = validator;
+            } else {
+                handler = new ElementSelector(path, this::bind);
+            }
+        }
+
+        private Unmarshaller unmarshaller() {
+            if (unmarshaller == null) {
+                holder = contextHolder(type);
+                unmarshaller = holder.unmarshallers.borrow();
+                try {
+                    unmarshaller.setEventHandler(eventCollector);
+                } catch (JAXBException e) {
+                    throw ExBuilder.newXml2jDtoException()
+                            .withMessage("Error configuring Unmarshaller: [{0}]", e.getLocalizedMessage())
+                            .withCause(e)
+                            .build();
+                }
+                deduplicateStrings(unmarshaller);
+            }
+            return unmarshaller;
+        }
+
+        private void bind(SAXSource source) throws JAXBException {
+            checkEvents();
+            T value = unmarshaller().unmarshal(source, type).getValue();
+            checkEvents();
+            callback.accept(value);
+        }
+
+        private void checkEvents() {
+            if (!eventCollector.getEvents().isEmpty()) {
+                throw new InvalidXmlSchemaException(eventCollector.getEvents());
+            }
+        }
+
+        @Override
+        public ContentHandler handler() {
+            return handler;
+        }
+
+        @Override
+        public void finish() throws JAXBException {
+            if (documentHandler != null) {
+                callback.accept(type.cast(documentHandler.getResult()));
+            }
+        }
+
+        @Override
+        public void release(boolean completed) {
+            if (unmarshaller != null) {
+                Xml2jDto.release(holder, unmarshaller, completed);
+            }
+        }
+    }
+
+    /**
+     * Reads a file for {@link #unmarshalAsync(AsynchronousFileChannel, Class, String)}: every completed read is fed to the feeder and starts the next
+     * read, until the end of the file completes the document, the future is cancelled or an error completes it.
+     */
+    private final class FileFeed<T> implements CompletionHandler<Integer, Long> {
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private final AsynchronousFileChannel channel;
+        private final XmlFeeder feeder;
+        private ByteBuffer buffer;
+        private T result;
+
+        private FileFeed(AsynchronousFileChannel channel, Class<T> clazz, String xsdPath) {
+            this.channel = channel;
+            this.feeder = newFeeder(clazz, xsdPath, value -> result = value);
+            this.buffer = directBuffers.borrow();
+        }
+
+        private void read(long position) {
+            try {
+                channel.read(buffer, position, position, this);
+            } catch (RuntimeException e) {
+                failed(e, position);
+            }
+        }
+
+        @Override
+        public void completed(Integer count, Long position) {
+            try {
+                if (future.isDone()) {
+                    feeder.close();
+                    release();
+                    return;
+                }
+                if (count < 0) {
+                    feeder.end();
+                    release();
+                    future.complete(result);
+                    return;
+                }
+                buffer.flip();
+                feeder.feed(buffer);
+                buffer.clear();
+                read(position + count);
+            } catch (RuntimeException e) {
+                failed(e, position);
+            }
+        }
+
+        @Override
+        public void failed(Throwable e, Long position) {
+            feeder.close();
+            release();
+            if (e instanceof RuntimeException runtimeException) {
+                future.completeExceptionally(runtimeException);
+                return;
+            }
+            metrics.increment(Xml2jDtoMetrics.UNMARSHAL + Xml2jDtoMetrics.ERROR);
+            future.completeExceptionally(ExBuilder.newXml2jDtoException()
+                    .withMessage("Error reading AsynchronousFileChannel at position [{0}]: [{1}]", position, e.getLocalizedMessage())
+                    .withCause(e)
+                    .build());
+        }
+
+        private void release() {
+            if (buffer != null) {
+                directBuffers.release(buffer.clear());
+                buffer = null;
+            }
+        }
+    }
+
+    /**
+     * Lazily created default engine.
+     */
+    private static final class DefaultHolder {
+        private static final String SCHEMA_DISK_CACHE = System.getProperty(SCHEMA_DISK_CACHE_PROPERTY);
+        private static final Xml2jDto INSTANCE = new Builder()
+                .jaxbContextStrategy(JaxbContextStrategy.fromSystemProperty())
+                .parsingLimits(ParsingLimits.fromSystemProperties())
+                .stringDeduplication(StringDeduplication.fromSystemProperty())
+                .maxCachedResults(Integer.getInteger(RESULT_CACHE_SIZE_PROPERTY, 0))
+                .schemaDiskCache(StringUtils.isBlank(SCHEMA_DISK_CACHE) ? null : Path.of(SCHEMA_DISK_CACHE))
+                .build();
+    }
+
+    /**
+     * Builder of {@link Xml2jDto}. Every limit of 0 or less means unbounded, the defaults reproduce the behaviour of the static {@link JaxbUtil} API.
+     */
+    public static final class Builder {
+
+        private int maxJaxbContexts;
+
+        private JaxbContextStrategy jaxbContextStrategy = JaxbContextStrategy.PER_CLASS;
+
+        private ParsingLimits parsingLimits = ParsingLimits.NONE;
+
+        private int maxSchemas;
+
+        private int maxUnmarshallersPerContext = Runtime.getRuntime().availableProcessors();
+
+        private int maxCatalogEntries = DEFAULT_MAX_CATALOG_ENTRIES;
+
+        private List<String> catalogPaths;
+
+        private LSResourceResolver resourceResolver;
+
+        private Map<String, Object> defaultMarshallerProperties = JaxbUtil.DEFAULT_MARSHALLER_PROPERTIES;
+
+        private Executor executor = ForkJoinPool.commonPool();
+
+        private Xml2jDtoMetrics metrics = Xml2jDtoMetrics.NOOP;
+
+        private int maxPooledMarshalBuffers = Runtime.getRuntime().availableProcessors();
+
+        private int maxPooledXmlReaders = Runtime.getRuntime().availableProcessors();
+
+        private int maxPooledMarshalBufferSize = DEFAULT_MAX_POOLED_MARSHAL_BUFFER_SIZE;
+
+        private int compressionBufferSize = DEFAULT_COMPRESSION_BUFFER_SIZE;
+
+        private int maxPooledDirectBuffers = Runtime.getRuntime().availableProcessors();
+
+        private int channelBufferSize = DEFAULT_CHANNEL_BUFFER_SIZE;
+
+        private boolean staxCodecs = true;
+
+        private StringDeduplication stringDeduplication = StringDeduplication.NONE;
+
+        private int stringTableSize = StringTable.DEFAULT_SIZE;
+
+        private DocumentRegistry documentRegistry;
+
+        private final Map<String, List<String>> compositeSchemas = new HashMap<>();
+
+        private Path schemaDiskCache;
+
+        private int maxCachedResults;
+
+        private long maxCachedResultBytes = DEFAULT_MAX_CACHED_RESULT_BYTES;
+
+        private final Map<Class<?>, UnaryOperator<?>> resultCopiers = new HashMap<>();
+
+        private Builder() {
+            super();
+        }
+
+        /**
+         * Sets the maximum number of cached {@link JAXBContext} instances, unbounded by default. The least recently used one is evicted when the
+         * bound is exceeded.
+         *
+         * @param maxJaxbContexts
+         *            the bound, 0 or less for unbounded
+         * @return this builder
+         */
+        public Builder maxJaxbContexts(int maxJaxbContexts) {
+            this.maxJaxbContexts = maxJaxbContexts;
+            return this;
+        }
+
+        /**
+         * Sets the classes the cached {@link JAXBContext} instances are created for, {@link JaxbContextStrategy#PER_CLASS} by default.
+         * <p>
+         * With {@link JaxbContextStrategy#PER_PACKAGE} every class of a generated package is served by the one context of its {@code ObjectFactory},
+         * so the shared types are modelled once and a new root class of the package costs a cache hit instead of a context creation. The default
+         * engine of {@link JaxbUtil} takes the strategy from the {@value JaxbContextStrategy#PROPERTY} system property.
+         * </p>
+         *
+         * @param jaxbContextStrategy
+         *            the strategy, not null
+         * @return this builder
+         * @throws InvalidMethodParameterException
+         *             if the strategy is null
+         */
+        public Builder jaxbContextStrategy(JaxbContextStrategy jaxbContextStrategy) {
+            if (jaxbContextStrategy == null) {
+                throw new InvalidMethodParameterException("jaxbContextStrategy cannot be null!");
+            }
+            this.jaxbContextStrategy = jaxbContextStrategy;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of cached compiled {@link Schema} instances, unbounded by default.
+         *
+         * @param maxSchemas
+         *            the bound, 0 or less for unbounded
+         * @return this builder
+         */
+        public Builder maxSchemas(int maxSchemas) {
+            this.maxSchemas = maxSchemas;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of idle {@link Unmarshaller} instances kept for reuse per {@link JAXBContext}, the number of processors by default.
+         * Unmarshallers are never shared between threads, a thread finding the pool empty creates a new one.
+         *
+         * @param maxUnmarshallersPerContext
+         *            the bound, 0 disables pooling
+         * @return this builder
+         */
+        public Builder maxUnmarshallersPerContext(int maxUnmarshallersPerContext) {
+            this.maxUnmarshallersPerContext = Math.max(0, maxUnmarshallersPerContext);
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of cached catalog resolutions, {@value Xml2jDto#DEFAULT_MAX_CATALOG_ENTRIES} by default.
+         *
+         * @param maxCatalogEntries
+         *            the bound, 0 or less disables the resolution cache
+         * @return this builder
+         */
+        public Builder maxCatalogEntries(int maxCatalogEntries) {
+            this.maxCatalogEntries = maxCatalogEntries;
+            return this;
+        }
+
+        /**
+         * Sets the classpath locations of the catalog files of this engine. By default the engine uses the JVM wide catalog configured by the
+         * {@code xml2jdto.catalog.path} system property or environment variable.
+         *
+         * @param catalogPaths
+         *            the catalog paths
+         * @return this builder
+         */
+        public Builder catalogPaths(List<String> catalogPaths) {
+            this.catalogPaths = catalogPaths == null ? null : List.copyOf(catalogPaths);
+            return this;
+        }
+
+        /**
+         * Sets a custom resolver of the schema imports, replacing the catalog based resolution.
+         *
+         * @param resourceResolver
+         *            the resolver
+         * @return this builder
+         */
+        public Builder resourceResolver(LSResourceResolver resourceResolver) {
+            this.resourceResolver = resourceResolver;
+            return this;
+        }
+
+        /**
+         * Sets the marshaller properties used when a marshal call does not specify them, {@link JaxbUtil#DEFAULT_MARSHALLER_PROPERTIES} by default.
+         *
+         * @param defaultMarshallerProperties
+         *            the properties
+         * @return this builder
+         * @throws InvalidMethodParameterException
+         *             if the properties are null
+         */
+        public Builder defaultMarshallerProperties(Map<String, Object> defaultMarshallerProperties) {
+            if (defaultMarshallerProperties == null) {
+                throw new InvalidMethodParameterException("defaultMarshallerProperties cannot be null!");
+            }
+            this.defaultMarshallerProperties = defaultMarshallerProperties;
+            return this;
+        }
+
+        /**
+         * Sets the executor of the asynchronous operations, the common fork-join pool by default.
+         *
+         * @param executor
+         *            the executor
+         * @return this builder
+         * @throws InvalidMethodParameterException
+         *             if the executor is null
+         */
+        public Builder executor(Executor executor) {
+            if (executor == null) {
+                throw new InvalidMethodParameterException("executor cannot be null!");
+            }
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Sets the sink of the metrics of the engine, {@link Xml2jDtoMetrics#NOOP} by default.
+         *
+         * @param metrics
+         *            the sink
+         * @return this builder
+         * @throws InvalidMethodParameterException
+         *             if the sink is null
+         */
+        public Builder metrics(Xml2jDtoMetrics metrics) {
+            if (metrics == null) {
+                throw new InvalidMethodParameterException("metrics cannot be null!");
+            }
+            this.metrics = metrics;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of idle buffers of {@link Xml2jDto#marshalToBytes(Object)} kept for reuse, the number of processors by default.
+         *
+         * @param maxPooledMarshalBuffers
+         *            the bound, 0 disables pooling
+         * @return this builder
+         */
+        public Builder maxPooledMarshalBuffers(int maxPooledMarshalBuffers) {
+            this.maxPooledMarshalBuffers = Math.max(0, maxPooledMarshalBuffers);
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of idle XML readers of the JAXB unmarshal calls kept for reuse, the number of processors by default. The readers
+         * are created by one hardened {@code SAXParserFactory} of the engine, which rejects DOCTYPE declarations and external entities, and are
+         * shared by every context.
+         *
+         * @param maxPooledXmlReaders
+         *            the bound, 0 disables pooling
+         * @return this builder
+         */
+        public Builder maxPooledXmlReaders(int maxPooledXmlReaders) {
+            this.maxPooledXmlReaders = Math.max(0, maxPooledXmlReaders);
+            return this;
+        }
+
+        /**
+         * Sets the capacity up to which a marshal buffer is returned to the pool, {@value Xml2jDto#DEFAULT_MAX_POOLED_MARSHAL_BUFFER_SIZE} bytes by
+         * default. A buffer grown by a larger output is left to the garbage collector, so a rare huge document does not pin its buffer.
+         *
+         * @param maxPooledMarshalBufferSize
+         *            the capacity in bytes
+         * @return this builder
+         */
+        public Builder maxPooledMarshalBufferSize(int maxPooledMarshalBufferSize) {
+            this.maxPooledMarshalBufferSize = maxPooledMarshalBufferSize;
+            return this;
+        }
+
+        /**
+         * Sets the size of the buffers of the compressed input and output, {@value Xml2jDto#DEFAULT_COMPRESSION_BUFFER_SIZE} bytes by default. Larger
+         * buffers mean fewer, larger reads and writes of the compressed streams, e.g. for files on network storage.
+         *
+         * @param compressionBufferSize
+         *            the size in bytes, must be positive
+         * @return this builder
+         * @throws InvalidMethodParameterException
+         *             if the size is not positive
+         */
+        public Builder compressionBufferSize(int compressionBufferSize) {
+            if (compressionBufferSize <= 0) {
+                throw new InvalidMethodParameterException(MessageFormat.format("compressionBufferSize must be positive: [{0}]!", compressionBufferSize));
+            }
+            this.compressionBufferSize = compressionBufferSize;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of idle direct buffers of the channel calls kept for reuse, such as
+         * {@link Xml2jDto#unmarshal(ReadableByteChannel, Class, String)}, the number of processors by default.
+         *
+         * @param maxPooledDirectBuffers
+         *            the bound, 0 disables pooling
+         * @return this builder
+         */
+        public Builder maxPooledDirectBuffers(int maxPooledDirectBuffers) {
+            this.maxPooledDirectBuffers = Math.max(0, maxPooledDirectBuffers);
+            return this;
+        }
+
+        /**
+         * Sets the size of the direct buffers of the channel calls, {@value Xml2jDto#DEFAULT_CHANNEL_BUFFER_SIZE} bytes by default. Every read and
+         * write system call moves up to one buffer; the buffers are allocated outside the heap.
+         *
+         * @param channelBufferSize
+         *            the size in bytes, positive
+         * @return this builder
+         * @throws InvalidMethodParameterException
+         *             if the size is not positive
+         */
+        public Builder channelBufferSize(int channelBufferSize) {
+            if (channelBufferSize <= 0) {
+                throw new InvalidMethodParameterException(MessageFormat.format("channelBufferSize must be positive: [{0}]!", channelBufferSize));
+            }
+            this.channelBufferSize = channelBufferSize;
+            return this;
+        }
+
+        /**
+         * Sets whether the {@link StaxCodec} classes generated by the {@code -Xxml2jdto-stax} XJC plugin are used, true by default.
+         * <p>
+         * A generated codec is used for the root element classes that have one, when the marshaller properties are limited to UTF-8
+         * {@link Marshaller#JAXB_ENCODING}, unformatted output and {@link Marshaller#JAXB_FRAGMENT}, and no additional classes are given; every
+         * other call uses JAXB. The validation events and the exceptions are the same as with JAXB, the namespace prefixes of the marshalled XML may
+         * differ.
+         * </p>
+         *
+         * @param staxCodecs
+         *            false to always use JAXB
+         * @return this builder
+         */
+        public Builder staxCodecs(boolean staxCodecs) {
+            this.staxCodecs = staxCodecs;
+            return this;
+        }
+
+        /**
+         * Sets the deduplication of the string values of the unmarshalled objects, {@link StringDeduplication#NONE} by default.
+         * <p>
+         * The values of the {@code String} and {@code List<String>} fields are replaced by the equal instance of a bounded {@link StringTable},
+         * by an unmarshaller listener with JAXB and in the generated StAX codecs. It costs a hash lookup per value and saves the heap retained by
+         * repeated values. The default engine of {@link JaxbUtil} takes the mode from the {@value StringDeduplication#PROPERTY} system property.
+         * </p>
+         *
+         * @param stringDeduplication
+         *            the mode, not null
+         * @return this builder
+         * @throws InvalidMethodParameterException
+         *             if the mode is null
+         */
+        public Builder stringDeduplication(StringDeduplication stringDeduplication) {
+            if (stringDeduplication == null) {
+                throw new InvalidMethodParameterException("stringDeduplication cannot be null!");
+            }
+            this.stringDeduplication = stringDeduplication;
+            return this;
+        }
+
+        /**
+         * Sets the number of slots of the string tables of {@link #stringDeduplication(StringDeduplication)}, {@link StringTable#DEFAULT_SIZE} by
+         * default. A table takes 4 or 8 bytes per slot, a {@link StringDeduplication#PER_CALL} table is allocated by every unmarshal call.
+         *
+         * @param stringTableSize
+         *            the number of slots, rounded up to a power of two
+         * @return this builder
+         * @throws InvalidMethodParameterException
+         *             if the size is not positive
+         */
+        public Builder stringTableSize(int stringTableSize) {
+            if (stringTableSize <= 0) {
+                throw new InvalidMethodParameterException(MessageFormat.format("stringTableSize must be positive: [{0}]!", stringTableSize));
+            }
+            this.stringTableSize = stringTableSize;
+            return this;
+        }
+
+        /**
+         * Sets the registry of the document types unmarshalled by {@link Xml2jDto#unmarshalAny(InputStream)}, none by default.
+         *
+         * @param documentRegistry
+         *            the registry, null for none
+         * @return this builder
+         */
+        public Builder documentRegistry(DocumentRegistry documentRegistry) {
+            this.documentRegistry = documentRegistry;
+            return this;
+        }
+
+        /**
+         * Defines a composite schema, compiled from several XSD files into one {@link Schema} and cached under the key. The key is used as the
+         * xsdPath of every method of the engine, e.g. to validate a document with elements of several namespaces without combining the schemas on
+         * every call.
+         *
+         * @param key
+         *            the key of the schema, it hides the XSD file of the same path
+         * @param xsdPaths
+         *            the classpath locations of the XSD files, at least one
+         * @return this builder
+         * @throws InvalidMethodParameterException
+         *             if the key is blank, or the list of the paths is empty or contains a blank path
+         */
+        public Builder compositeSchema(String key, List<String> xsdPaths) {
+            if (StringUtils.isBlank(key)) {
+                throw new InvalidMethodParameterException("key cannot be blank!");
+            }
+            if (xsdPaths == null || xsdPaths.isEmpty() || xsdPaths.stream().anyMatch(StringUtils::isBlank)) {
+                throw new InvalidMethodParameterException(
+                        MessageFormat.format("xsdPaths must be non-empty and contain no blank path: [{0}]!", xsdPaths));
+            }
+            this.compositeSchemas.put(key, List.copyOf(xsdPaths));
+            return this;
+        }
+
+        /**
+         * Sets the directory of a {@link SchemaDiskCache}, none by default. The XSD files and catalog resolutions read to compile the schemas are
+         * kept there, and the next start of the application reuses them if the classpath artifacts they came from are unchanged, without loading
+         * the catalog or reading the jars. The default engine of {@link JaxbUtil} takes the directory from the
+         * {@value Xml2jDto#SCHEMA_DISK_CACHE_PROPERTY} system property.
+         *
+         * @param schemaDiskCache
+         *            the directory, null for no disk cache
+         * @return this builder
+         */
+        public Builder schemaDiskCache(Path schemaDiskCache) {
+            this.schemaDiskCache = schemaDiskCache;
+            return this;
+        }
+
+        /**
+         * Sets the maximum number of cached results of the repeated payloads, 0 by default, which disables the result cache.
+         * <p>
+         * With the cache the unmarshal calls of the classes that have a {@link #resultCopier(Class, UnaryOperator) copier} or a generated binary
+         * codec, and the {@link Xml2jDto#validate(InputStream, String) validations}, look up their payload first: a byte-identical payload with the
+         * same class and schema path returns a copy of the cached result, or throws the cached {@link InvalidXmlSchemaException} or
+         * {@link MalformedXmlException}, at the cost of a hash and a comparison of the payload. The input streams of these calls are read fully
+         * before the parse. The default engine of {@link JaxbUtil} takes the size from the {@value Xml2jDto#RESULT_CACHE_SIZE_PROPERTY} system
+         * property.
+         * </p>
+         *
+         * @param maxCachedResults
+         *            the bound, 0 or less disables the cache
+         * @return this builder
+         */
+        public Builder maxCachedResults(int maxCachedResults) {
+            this.maxCachedResults = Math.max(0, maxCachedResults);
+            return this;
+        }
+
+        /**
+         * Sets the maximum sum of the lengths of the payloads kept by the result cache, {@value Xml2jDto#DEFAULT_MAX_CACHED_RESULT_BYTES} bytes by
+         * default. The cached results are not measured, their size follows the size of the payloads. A larger payload is not cached.
+         *
+         * @param maxCachedResultBytes
+         *            the bound in bytes, or characters of the {@code String} payloads
+         * @return this builder
+         * @throws InvalidMethodParameterException
+         *             if the bound is not positive
+         */
+        public Builder maxCachedResultBytes(long maxCachedResultBytes) {
+            if (maxCachedResultBytes <= 0) {
+                throw new InvalidMethodParameterException(
+                        MessageFormat.format("maxCachedResultBytes must be positive: [{0}]!", String.valueOf(maxCachedResultBytes)));
+            }
+            this.maxCachedResultBytes = maxCachedResultBytes;
+            return this;
+        }
+
+        /**
+         * Sets the copier of the cached results of a class; every cache hit returns the copy of the cached result. Use
+         * {@link UnaryOperator#identity()} for the immutable classes. Without a copier the results of the classes with a generated binary codec
+         * are copied with the codec, the results of other classes are not cached.
+         *
+         * @param <T>
+         *            the type of the results
+         * @param type
+         *            the class of the results
+         * @param copier
+         *            the deep copy of a result
+         * @return this builder
+         * @throws InvalidMethodParameterException
+         *             if the class or the copier is null
+         */
+        public <T> Builder resultCopier(Class<T> type, UnaryOperator<T> copier) {
+            if (type == null) {
+                throw new InvalidMethodParameterException(JaxbUtil.CLAZZ_NULL_MSG);
+            }
+            if (copier == null) {
+                throw new InvalidMethodParameterException("copier cannot be null!");
+            }
+            this.resultCopiers.put(type, copier);
+            return this;
+        }
+
+        /**
+         * Sets the resource limits of the parsed documents, {@link ParsingLimits#NONE} by default. The limits apply to every unmarshal and validate
+         * call, a document above a limit is rejected with an {@link XmlLimitExceededException} as soon as the limit is reached. With an event limit
+         * the JAXB calls read through the hardened StAX reader of the engine instead of their own parser. The default engine of {@link JaxbUtil}
+         * takes the limits from the {@value ParsingLimits#PROPERTY_PREFIX}* system properties.
+         *
+         * @param parsingLimits
+         *            the limits, not null
+         * @return this builder
+         * @throws InvalidMethodParameterException
+         *             if the limits are null
+         */
+        public Builder parsingLimits(ParsingLimits parsingLimits) {
+            if (parsingLimits == null) {
+                throw new InvalidMethodParameterException("parsingLimits cannot be null!");
+            }
+            this.parsingLimits = parsingLimits;
+            return this;
+        }
+
+        /**
+         * Creates the engine.
+         *
+         * @return the engine
+         */
+        public Xml2jDto build() {
+            return new Xml2jDto(this);
+        }
+    }
+}
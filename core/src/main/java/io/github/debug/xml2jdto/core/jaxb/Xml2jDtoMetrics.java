@@ -0,0 +1,142 @@
+package io.github.debug.xml2jdto.core.jaxb;
+
+/**
+ * Sink of the metrics of an {@link Xml2jDto} engine.
+ * <p>
+ * The engine reports counters (cache hits, misses and evictions, pool hits and misses, failures) and timings (unmarshal, marshal, schema
+ * compilation) under the names defined in this interface. Implementations typically forward them to a metrics library, e.g. a Micrometer
+ * {@code Counter} and {@code Timer} per name, and must be thread-safe and cheap: they are called on the hot path.
+ * </p>
+ *
+ * <pre>
+ * {@code
+ * Xml2jDto engine = Xml2jDto.builder().metrics(new Xml2jDtoMetrics() {
+ *     public void increment(String name) {
+ *         registry.counter("xml2jdto." + name).increment();
+ *     }
+ *
+ *     public void recordNanos(String name, long nanos) {
+ *         registry.timer("xml2jdto." + name).record(nanos, TimeUnit.NANOSECONDS);
+ *     }
+ * }).build();
+ * }
+ * </pre>
+ *
+ * @author scheffer.imrich
+ */
+public interface Xml2jDtoMetrics {
+
+    /**
+     * Sink ignoring every metric, the default of the engines.
+     */
+    Xml2jDtoMetrics NOOP = new Xml2jDtoMetrics() {
+
+        @Override
+        public void increment(String name) {
+            // ignored
+        }
+
+        @Override
+        public void recordNanos(String name, long nanos) {
+            // ignored
+        }
+    };
+
+    /**
+     * Prefix of the counters of the {@code JAXBContext} cache.
+     */
+    String JAXB_CONTEXT_CACHE = "jaxbContext.cache";
+
+    /**
+     * Prefix of the counters of the {@code Schema} cache.
+     */
+    String SCHEMA_CACHE = "schema.cache";
+
+    /**
+     * Prefix of the counters of the {@code Unmarshaller} pools.
+     */
+    String UNMARSHALLER_POOL = "unmarshaller.pool";
+
+    /**
+     * Prefix of the counters of the pool of the hardened {@code XMLReader}s of the JAXB unmarshal calls.
+     */
+    String XML_READER_POOL = "xmlReader.pool";
+
+    /**
+     * Prefix of the counters of the {@code marshalToBytes} buffer pool.
+     */
+    String MARSHAL_BUFFER_POOL = "marshal.buffer.pool";
+
+    /**
+     * Prefix of the counters of the pool of the direct buffers of the channel calls.
+     */
+    String DIRECT_BUFFER_POOL = "directBuffer.pool";
+
+    /**
+     * Prefix of the counters of the result cache.
+     */
+    String RESULT_CACHE = "result.cache";
+
+    /**
+     * Suffix of a cache or pool hit counter.
+     */
+    String HIT = ".hit";
+
+    /**
+     * Suffix of a cache or pool miss counter.
+     */
+    String MISS = ".miss";
+
+    /**
+     * Suffix of a cache eviction counter.
+     */
+    String EVICTION = ".eviction";
+
+    /**
+     * Timer of the unmarshal operations.
+     */
+    String UNMARSHAL = "unmarshal";
+
+    /**
+     * Timer of the marshal operations.
+     */
+    String MARSHAL = "marshal";
+
+    /**
+     * Timer of the validations without binding.
+     */
+    String VALIDATE = "validate";
+
+    /**
+     * Timer of the schema compilations.
+     */
+    String SCHEMA_LOAD = "schema.load";
+
+    /**
+     * Prefix of the timer of a {@link io.github.debug.xml2jdto.core.pipeline.Pipeline} stage, e.g. {@code pipeline.stage.parse}.
+     */
+    String PIPELINE_STAGE = "pipeline.stage.";
+
+    /**
+     * Suffix of a failure counter, e.g. {@code unmarshal.error}.
+     */
+    String ERROR = ".error";
+
+    /**
+     * Increments a counter.
+     *
+     * @param name
+     *            the name of the counter
+     */
+    void increment(String name);
+
+    /**
+     * Records a duration.
+     *
+     * @param name
+     *            the name of the timer
+     * @param nanos
+     *            the duration in nanoseconds
+     */
+    void recordNanos(String name, long nanos);
+}
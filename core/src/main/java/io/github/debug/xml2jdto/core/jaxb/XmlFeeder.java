@@ -0,0 +1,408 @@
+package io.github.debug.xml2jdto.core.jaxb;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import jakarta.xml.bind.JAXBException;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.ContentHandler;
+import org.xml.sax.InputSource;
+import org.xml.sax.Locator;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import io.github.debug.xml2jdto.core.exception.ExBuilder;
+import io.github.debug.xml2jdto.core.exception.InvalidMethodParameterException;
+import io.github.debug.xml2jdto.core.exception.InvalidXmlSchemaException;
+import io.github.debug.xml2jdto.core.exception.MalformedXmlException;
+import io.github.debug.xml2jdto.core.exception.XmlLimitExceededException;
+import io.github.debug.xml2jdto.core.jaxb.event.XsdValidationEventCollector;
+
+/**
+ * Non-blocking unmarshaller of a document arriving in chunks, created by {@link Xml2jDto#newFeeder(Class, String, java.util.function.Consumer)} and
+ * {@link Xml2jDto#newFeeder(String, Class, String, java.util.function.Consumer)}.
+ * <p>
+ * The blocking calls of the engine hold a thread for the whole document, waiting for the bytes of a slow peer. An NIO server instead feeds the bytes
+ * as they arrive: {@link #feed(ByteBuffer)} parses the complete markup of the chunk and returns without waiting for the rest, and the completed
+ * objects are passed to the callback on the feeding thread, the whole document at the end of its root element, or every selected element at its
+ * end tag. The cached schema of the engine validates the events along the way, and the limits of the engine are checked at every chunk.
+ * </p>
+ *
+ * <pre>
+ * {@code
+ * XmlFeeder feeder = engine.newFeeder("/order/item", Item.class, "xsd/order.xsd", items::add);
+ * // on every read of the channel
+ * buffer.flip();
+ * feeder.feed(buffer);
+ * buffer.clear();
+ * // at the end of the stream
+ * feeder.end();
+ * }
+ * </pre>
+ *
+ * The document must be in an ASCII compatible encoding, such as UTF-8 or ISO-8859-1. The feeder reads one document; the first error, such as a
+ * schema violation or malformed markup, is thrown by the feed call and closes the feeder.
+ *
+ * <br/>
+ * Thread-safety: This class is not thread-safe, the chunks of a document are fed by one thread at a time.
+ *
+ * @author scheffer.imrich
+ */
+public final class XmlFeeder implements AutoCloseable {
+
+    private final XmlSegmenter segmenter = new XmlSegmenter();
+
+    private final SegmentHandler segmentHandler = new SegmentHandler();
+
+    private final XmlReaderPool readers;
+
+    private final ParsingLimits limits;
+
+    private final Target target;
+
+    private final XsdValidationEventCollector eventCollector;
+
+    private final Xml2jDtoMetrics metrics;
+
+    private long documentBytes;
+
+    private long parseNanos;
+
+    private boolean done;
+
+    private boolean closed;
+
+    private boolean released;
+
+    /**
+     * @param readers
+     *            the pool of the readers parsing the segments
+     * @param limits
+     *            the limits of the document
+     * @param target
+     *            the binding of the parse events
+     * @param eventCollector
+     *            the collector of the validation events of the target
+     * @param metrics
+     *            the metrics sink
+     */
+    XmlFeeder(XmlReaderPool readers, ParsingLimits limits, Target target, XsdValidationEventCollector eventCollector, Xml2jDtoMetrics metrics) {
+        this.readers = readers;
+        this.limits = limits;
+        this.target = target;
+        this.eventCollector = eventCollector;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Parses the next chunk of the document. The complete markup of the chunk is parsed and the objects it completes are passed to the callback
+     * before the call returns; an incomplete tag or text is kept for the next chunk. After the root element only white space, comments and processing
+     * instructions are accepted.
+     *
+     * @param chunk
+     *            the next bytes of the document, read from its position up to its limit
+     * @throws InvalidMethodParameterException
+     *             if the chunk is null
+     * @throws IllegalStateException
+     *             if the feeder is closed
+     * @throws XmlLimitExceededException
+     *             if the document exceeds a limit of the engine
+     * @throws InvalidXmlSchemaException
+     *             if the document does not conform to the schema
+     * @throws MalformedXmlException
+     *             if the XML is malformed
+     */
+    public void feed(ByteBuffer chunk) {
+        if (chunk == null) {
+            throw new InvalidMethodParameterException("chunk cannot be null!");
+        }
+        checkOpen();
+        long start = System.nanoTime();
+        try {
+            documentBytes += chunk.remaining();
+            long maxBytes = limits.getMaxDocumentBytes();
+            if (maxBytes > 0 && documentBytes > maxBytes) {
+                throw new XmlLimitExceededException(ParsingLimits.MAX_DOCUMENT_BYTES, maxBytes, documentBytes);
+            }
+            segmenter.feed(chunk);
+            if (segmenter.hasSegment()) {
+                parseSegment();
+            }
+        } catch (RuntimeException e) {
+            metrics.increment(Xml2jDtoMetrics.UNMARSHAL + Xml2jDtoMetrics.ERROR);
+            release(false);
+            throw e;
+        } finally {
+            parseNanos += System.nanoTime() - start;
+        }
+        if (!done && segmenter.isRootClosed()) {
+            done = true;
+            metrics.recordNanos(Xml2jDtoMetrics.UNMARSHAL, parseNanos);
+            release(true);
+        }
+    }
+
+    /**
+     * Ends the document and closes the feeder.
+     *
+     * @throws IllegalStateException
+     *             if the feeder was closed before the end of the document
+     * @throws MalformedXmlException
+     *             if the document ended before the end of its root element, or in the middle of a markup
+     */
+    public void end() {
+        if (!segmenter.isComplete()) {
+            checkOpen();
+            metrics.increment(Xml2jDtoMetrics.UNMARSHAL + Xml2jDtoMetrics.ERROR);
+            release(false);
+            throw new MalformedXmlException(eventCollector.getEvents(),
+                    new SAXException("XML document structures must start and end within the same entity."));
+        }
+        closed = true;
+    }
+
+    /**
+     * Checks whether the root element of the document is parsed.
+     *
+     * @return true once the end tag of the root element is parsed and its objects are passed to the callback
+     */
+    public boolean isDone() {
+        return done;
+    }
+
+    /**
+     * Closes the feeder, an unfinished document is dropped without passing its objects to the callback.
+     */
+    @Override
+    public void close() {
+        if (!closed && !done) {
+            release(false);
+        }
+        closed = true;
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("XmlFeeder is closed");
+        }
+    }
+
+    private void parseSegment() {
+        byte[] segment = segmenter.segment();
+        segmentHandler.begin(segmenter);
+        segmenter.next();
+        XMLReader reader = readers.borrow();
+        try {
+            reader.setContentHandler(segmentHandler);
+            reader.setErrorHandler(eventCollector);
+            reader.parse(new InputSource(new ByteArrayInputStream(segment)));
+            if (!eventCollector.getEvents().isEmpty()) {
+                throw new InvalidXmlSchemaException(eventCollector.getEvents());
+            }
+            if (segmentHandler.rootClosed) {
+                target.finish();
+            }
+        } catch (SAXException e) {
+            Throwable cause = e.getException() != null ? e.getException() : e;
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new MalformedXmlException(eventCollector.getEvents(), cause);
+        } catch (JAXBException e) {
+            throw new MalformedXmlException(eventCollector.getEvents(), e);
+        } catch (IOException e) {
+            throw ExBuilder.newXml2jDtoException().withMessage("Error reading XML segment: [{0}]", e.getLocalizedMessage()).withCause(e).build();
+        } finally {
+            readers.release(reader);
+        }
+    }
+
+    private void release(boolean completed) {
+        closed = !completed;
+        if (!released) {
+            released = true;
+            target.release(completed);
+        }
+    }
+
+    /**
+     * Binding of the parse events of a feeder.
+     */
+    interface Target {
+
+        /**
+         * @return the handler of the events of the document, from its start to its end
+         */
+        ContentHandler handler();
+
+        /**
+         * Called after the end of the document, passes the document to the callback in the whole document mode.
+         */
+        void finish() throws JAXBException;
+
+        /**
+         * Returns the resources of the target, called once.
+         *
+         * @param completed
+         *            true if the document was parsed without error
+         */
+        void release(boolean completed);
+    }
+
+    /**
+     * Forwards the events of the segments to the target as the events of one document, without the synthetic tags of the segments, and checks the
+     * event limits.
+     */
+    private final class SegmentHandler implements ContentHandler, Locator {
+
+        private Locator locator;
+
+        private boolean firstSegment;
+
+        private boolean rootClosed;
+
+        private int syntheticStarts;
+
+        private int ends;
+
+        private boolean syntheticEnd;
+
+        private int depth;
+
+        private long elements;
+
+        private long textLength;
+
+        private boolean locatorSet;
+
+        private void begin(XmlSegmenter segment) {
+            firstSegment = segment.isFirstSegment();
+            rootClosed = segment.closesRoot();
+            syntheticStarts = segment.syntheticStarts();
+            ends = segment.ends();
+            syntheticEnd = false;
+        }
+
+        private ContentHandler target() {
+            return target.handler();
+        }
+
+        @Override
+        public void setDocumentLocator(Locator locator) {
+            this.locator = locator;
+            if (!locatorSet) {
+                locatorSet = true;
+                target().setDocumentLocator(this);
+            }
+        }
+
+        @Override
+        public void startDocument() throws SAXException {
+            if (firstSegment) {
+                target().startDocument();
+            }
+        }
+
+        @Override
+        public void endDocument() throws SAXException {
+            if (rootClosed) {
+                target().endDocument();
+            }
+        }
+
+        @Override
+        public void startPrefixMapping(String prefix, String uri) throws SAXException {
+            if (syntheticStarts == 0) {
+                target().startPrefixMapping(prefix, uri);
+            }
+        }
+
+        @Override
+        public void endPrefixMapping(String prefix) throws SAXException {
+            if (!syntheticEnd) {
+                target().endPrefixMapping(prefix);
+            }
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes atts) throws SAXException {
+            if (syntheticStarts > 0) {
+                syntheticStarts--;
+                return;
+            }
+            textLength = 0;
+            check(ParsingLimits.MAX_DEPTH, limits.getMaxDepth(), ++depth);
+            check(ParsingLimits.MAX_ELEMENTS, limits.getMaxElements(), ++elements);
+            check(ParsingLimits.MAX_ATTRIBUTES, limits.getMaxAttributes(), atts.getLength());
+            target().startElement(uri, localName, qName, atts);
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) throws SAXException {
+            if (ends == 0) {
+                syntheticEnd = true;
+                return;
+            }
+            ends--;
+            textLength = 0;
+            depth--;
+            target().endElement(uri, localName, qName);
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) throws SAXException {
+            if (syntheticStarts == 0 && !syntheticEnd) {
+                textLength += length;
+                check(ParsingLimits.MAX_TEXT_LENGTH, limits.getMaxTextLength(), textLength);
+                target().characters(ch, start, length);
+            }
+        }
+
+        @Override
+        public void ignorableWhitespace(char[] ch, int start, int length) throws SAXException {
+            if (syntheticStarts == 0 && !syntheticEnd) {
+                target().ignorableWhitespace(ch, start, length);
+            }
+        }
+
+        @Override
+        public void processingInstruction(String piTarget, String data) throws SAXException {
+            if (syntheticStarts == 0 && !syntheticEnd && depth > 0) {
+                target().processingInstruction(piTarget, data);
+            }
+        }
+
+        @Override
+        public void skippedEntity(String name) throws SAXException {
+            target().skippedEntity(name);
+        }
+
+        @Override
+        public String getPublicId() {
+            return locator == null ? null : locator.getPublicId();
+        }
+
+        @Override
+        public String getSystemId() {
+            return locator == null ? null : locator.getSystemId();
+        }
+
+        @Override
+        public int getLineNumber() {
+            return locator == null ? -1 : locator.getLineNumber();
+        }
+
+        @Override
+        public int getColumnNumber() {
+            return locator == null ? -1 : locator.getColumnNumber();
+        }
+
+        private static void check(String limit, long max, long actual) {
+            if (max > 0 && actual > max) {
+                throw new XmlLimitExceededException(limit, max, actual);
+            }
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package io.github.debug.xml2jdto.core.jaxb;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParserFactory;
+
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import io.github.debug.xml2jdto.core.exception.ExBuilder;
+
+/**
+ * Bounded pool of hardened, namespace aware {@link XMLReader}s for the JAXB unmarshal calls, see {@link Xml2jDto#unmarshal(String, Class)}.
+ * <p>
+ * Without a reader JAXB creates a {@link SAXParserFactory} with a service lookup and a new parser for every new unmarshaller, and the parser
+ * accepts a DOCTYPE. The pool keeps one factory, configured like the schema side of {@link JaxbUtil#loadSchemaFromXsdPath}: DOCTYPE declarations,
+ * external entities, external DTDs and XInclude are rejected. A reader is created only when the pool is empty, and is reset for the next document by
+ * the parser itself.
+ * </p>
+ *
+ * <br/>
+ * Thread-safety: This class is thread-safe, a borrowed reader is used by one thread only.
+ *
+ * @author scheffer.imrich
+ */
+final class XmlReaderPool {
+
+    private static final String DISALLOW_DOCTYPE = "http://apache.org/xml/features/disallow-doctype-decl";
+
+    private static final String EXTERNAL_GENERAL_ENTITIES = "http://xml.org/sax/features/external-general-entities";
+
+    private static final String EXTERNAL_PARAMETER_ENTITIES = "http://xml.org/sax/features/external-parameter-entities";
+
+    private static final String LOAD_EXTERNAL_DTD = "http://apache.org/xml/features/nonvalidating/load-external-dtd";
+
+    private final SAXParserFactory factory;
+
+    private final ObjectPool<XMLReader> readers;
+
+    /**
+     * @param maxIdle
+     *            the maximum number of idle readers, 0 disables pooling
+     * @param metrics
+     *            the metrics sink of the pool
+     */
+    XmlReaderPool(int maxIdle, Xml2jDtoMetrics metrics) {
+        this.factory = newFactory();
+        this.readers = new ObjectPool<>(maxIdle, this::newReader, metrics, Xml2jDtoMetrics.XML_READER_POOL);
+    }
+
+    private static SAXParserFactory newFactory() {
+        try {
+            SAXParserFactory factory = SAXParserFactory.newInstance();
+            factory.setNamespaceAware(true);
+            factory.setValidating(false);
+            factory.setXIncludeAware(false);
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            factory.setFeature(DISALLOW_DOCTYPE, true);
+            factory.setFeature(EXTERNAL_GENERAL_ENTITIES, false);
+            factory.setFeature(EXTERNAL_PARAMETER_ENTITIES, false);
+            factory.setFeature(LOAD_EXTERNAL_DTD, false);
+            return factory;
+        } catch (ParserConfigurationException | SAXException e) {
+            throw ExBuilder.newXml2jDtoException()
+                    .withMessage("Error creating SAXParserFactory: [{0}]", e.getLocalizedMessage())
+                    .withCause(e)
+                    .build();
+        }
+    }
+
+    private XMLReader newReader() {
+        try {
+            XMLReader reader;
+            // the factory is not guaranteed to be thread-safe
+            synchronized (factory) {
+                reader = factory.newSAXParser().getXMLReader();
+            }
+            reader.setProperty(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+            reader.setProperty(XMLConstants.ACCESS_EXTERNAL_SCHEMA, "");
+            return reader;
+        } catch (ParserConfigurationException | SAXException e) {
+            throw ExBuilder.newXml2jDtoException()
+                    .withMessage("Error creating XMLReader: [{0}]", e.getLocalizedMessage())
+                    .withCause(e)
+                    .build();
+        }
+    }
+
+    /**
+     * Takes an idle reader, or creates a new one.
+     */
+    XMLReader borrow() {
+        return readers.borrow();
+    }
+
+    /**
+     * Returns a reader to the pool, without the handlers of its last document.
+     */
+    void release(XMLReader reader) {
+        reader.setContentHandler(null);
+        reader.setErrorHandler(null);
+        reader.setEntityResolver(null);
+        reader.setDTDHandler(null);
+        readers.release(reader);
+    }
+}
@@ -0,0 +1,369 @@
+package io.github.debug.xml2jdto.core.jaxb;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import io.github.debug.xml2jdto.core.exception.MalformedXmlException;
+
+/**
+ * Splits the bytes of a document fed in chunks into segments a standard parser can read on its own, see {@link XmlFeeder}.
+ * <p>
+ * The segmenter only finds the ends of the markup: tags, comments, processing instructions and CDATA sections. It never blocks and never decodes the
+ * text. A segment ends after the last complete markup of the fed bytes, so a text node, a tag or an entity reference is never split. The
+ * {@link #segment() document of a segment} opens the elements left open by the previous segments with their original start tags and closes the
+ * elements the segment leaves open, so it is well-formed; the parser of the segment skips these {@link #syntheticStarts() synthetic} tags.
+ * </p>
+ * <p>
+ * The bytes are scanned as ASCII, so the document must be in an ASCII compatible encoding, such as UTF-8 or ISO-8859-1; UTF-16 is rejected. A
+ * DOCTYPE is rejected like in the other unmarshal calls of the engine.
+ * </p>
+ *
+ * <br/>
+ * Thread-safety: This class is not thread-safe.
+ *
+ * @author scheffer.imrich
+ */
+final class XmlSegmenter {
+
+    private static final int TEXT = 0;
+
+    private static final int MARKUP = 1;
+
+    private static final int START_TAG = 2;
+
+    private static final int END_TAG = 3;
+
+    private static final int BANG = 4;
+
+    private static final int COMMENT = 5;
+
+    private static final int CDATA = 6;
+
+    private static final int PI = 7;
+
+    private static final byte[] CDATA_START = "<![CDATA[".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[] UTF8_BOM = { (byte) 0xEF, (byte) 0xBB, (byte) 0xBF };
+
+    private byte[] buffer = new byte[1024];
+
+    private int length;
+
+    private int position;
+
+    private int state = TEXT;
+
+    private int tokenStart;
+
+    private byte quote;
+
+    private int cut;
+
+    /**
+     * The byte order mark and the XML declaration, the head of every segment.
+     */
+    private byte[] declaration = new byte[0];
+
+    private boolean firstSegment = true;
+
+    private boolean rootStarted;
+
+    private boolean rootClosed;
+
+    /**
+     * The start tags of the open elements, from the root.
+     */
+    private final List<byte[]> openTags = new ArrayList<>();
+
+    /**
+     * The start tags of the elements open at the start of the current segment.
+     */
+    private List<byte[]> headTags = List.of();
+
+    private int segmentEnds;
+
+    private int cutOpenTags;
+
+    private int cutEnds;
+
+    /**
+     * Appends and scans a chunk.
+     *
+     * @param chunk
+     *            the bytes, read up to its limit
+     * @throws MalformedXmlException
+     *             if the bytes cannot be a supported document
+     */
+    void feed(ByteBuffer chunk) {
+        int count = chunk.remaining();
+        if (length + count > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + count));
+        }
+        chunk.get(buffer, length, count);
+        length += count;
+        if (position == 0 && length >= 2 && (buffer[0] == (byte) 0xFE && buffer[1] == (byte) 0xFF || buffer[0] == (byte) 0xFF
+                && buffer[1] == (byte) 0xFE)) {
+            throw malformed("only ASCII compatible encodings are supported, such as UTF-8");
+        }
+        scan();
+    }
+
+    private void scan() {
+        while (position < length) {
+            byte b = buffer[position];
+            switch (state) {
+                case TEXT -> {
+                    if (b == '<') {
+                        tokenStart = position;
+                        state = MARKUP;
+                    } else if (!rootStarted && b > ' ' && !(position < UTF8_BOM.length && b == UTF8_BOM[position])) {
+                        throw malformed("content is not allowed in prolog");
+                    } else if (rootClosed && b > ' ') {
+                        throw malformed("content is not allowed after the root element");
+                    }
+                }
+                case MARKUP -> {
+                    if (b == '/') {
+                        state = END_TAG;
+                    } else if (b == '!') {
+                        state = BANG;
+                    } else if (b == '?') {
+                        state = PI;
+                    } else {
+                        state = START_TAG;
+                        quote = 0;
+                    }
+                }
+                case START_TAG -> {
+                    if (quote != 0) {
+                        if (b == quote) {
+                            quote = 0;
+                        }
+                    } else if (b == '"' || b == '\'') {
+                        quote = b;
+                    } else if (b == '>') {
+                        startTag();
+                    }
+                }
+                case END_TAG -> {
+                    if (b == '>') {
+                        endTag();
+                    }
+                }
+                case BANG -> bang(b);
+                case COMMENT -> {
+                    if (b == '>' && endsWith("--")) {
+                        markupEnd(false);
+                    }
+                }
+                case CDATA -> {
+                    if (b == '>' && endsWith("]]")) {
+                        markupEnd(false);
+                    }
+                }
+                case PI -> {
+                    if (b == '>' && buffer[position - 1] == '?' && position - tokenStart >= 3) {
+                        if (!rootStarted && tokenStart == bomLength() && startsWith(tokenStart, "<?xml ")) {
+                            declaration = Arrays.copyOf(buffer, position + 1);
+                        }
+                        markupEnd(false);
+                    }
+                }
+                default -> throw new IllegalStateException();
+            }
+            position++;
+        }
+    }
+
+    private int bomLength() {
+        return startsWith(0, UTF8_BOM) ? UTF8_BOM.length : 0;
+    }
+
+    private void bang(byte b) {
+        int read = position - tokenStart + 1;
+        if (startsWith(tokenStart, "<!--")) {
+            state = COMMENT;
+        } else if (read <= CDATA_START.length && b == CDATA_START[read - 1] && !rootClosed) {
+            if (read == CDATA_START.length) {
+                state = CDATA;
+            }
+        } else if (b == 'D' && read == 3) {
+            throw malformed("DOCTYPE is disallowed");
+        } else if (read > 2 && !(read == 3 && b == '-')) {
+            throw malformed("invalid markup");
+        }
+    }
+
+    private void startTag() {
+        boolean empty = buffer[position - 1] == '/';
+        if (rootStarted && openTags.isEmpty()) {
+            throw malformed("content is not allowed after the root element");
+        }
+        rootStarted = true;
+        if (empty) {
+            segmentEnds++;
+            rootClosed = openTags.isEmpty();
+        } else {
+            openTags.add(Arrays.copyOfRange(buffer, tokenStart, position + 1));
+        }
+        markupEnd(true);
+    }
+
+    private void endTag() {
+        if (openTags.isEmpty()) {
+            throw malformed("end tag without a start tag");
+        }
+        openTags.remove(openTags.size() - 1);
+        segmentEnds++;
+        rootClosed = openTags.isEmpty();
+        markupEnd(true);
+    }
+
+    /**
+     * Ends a markup, the next segment may start after it. The comments and processing instructions after the root element are not parsed.
+     */
+    private void markupEnd(boolean tag) {
+        state = TEXT;
+        if (tag || rootStarted && !rootClosed) {
+            cut = position + 1;
+            cutOpenTags = openTags.size();
+            cutEnds = segmentEnds;
+        }
+    }
+
+    private boolean endsWith(String end) {
+        return position - tokenStart >= 3 + end.length() && buffer[position - 1] == end.charAt(1) && buffer[position - 2] == end.charAt(0);
+    }
+
+    private boolean startsWith(int offset, String prefix) {
+        return startsWith(offset, prefix.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private boolean startsWith(int offset, byte[] prefix) {
+        if (length - offset < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (buffer[offset + i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return true if the fed bytes end a segment that was not taken yet
+     */
+    boolean hasSegment() {
+        return cut > 0;
+    }
+
+    /**
+     * @return true once the end tag of the root element is scanned
+     */
+    boolean isRootClosed() {
+        return rootClosed;
+    }
+
+    /**
+     * @return true if the root element is closed and no markup is left open after it
+     */
+    boolean isComplete() {
+        return rootClosed && state == TEXT;
+    }
+
+    /**
+     * @return true if the current segment is the first of the document
+     */
+    boolean isFirstSegment() {
+        return firstSegment;
+    }
+
+    /**
+     * @return the number of elements opened with their original start tags at the head of the current segment
+     */
+    int syntheticStarts() {
+        return headTags.size();
+    }
+
+    /**
+     * @return the number of end tags in the current segment, an empty element tag counts as a start and an end tag
+     */
+    int ends() {
+        return cutEnds;
+    }
+
+    /**
+     * @return true if the current segment closes the root element
+     */
+    boolean closesRoot() {
+        return cutOpenTags == 0;
+    }
+
+    /**
+     * Builds the document of the fed bytes up to the end of the last complete markup. {@link #next()} then drops these bytes.
+     *
+     * @return the well-formed document of the segment
+     */
+    byte[] segment() {
+        int size = cut + headTags.stream().mapToInt(tag -> tag.length).sum();
+        if (!firstSegment) {
+            size += declaration.length;
+        }
+        for (int i = 0; i < cutOpenTags; i++) {
+            size += nameLength(openTags.get(i)) + 3;
+        }
+        byte[] segment = new byte[size];
+        int offset = 0;
+        if (!firstSegment) {
+            System.arraycopy(declaration, 0, segment, 0, declaration.length);
+            offset = declaration.length;
+        }
+        for (byte[] tag : headTags) {
+            System.arraycopy(tag, 0, segment, offset, tag.length);
+            offset += tag.length;
+        }
+        System.arraycopy(buffer, 0, segment, offset, cut);
+        offset += cut;
+        for (int i = cutOpenTags - 1; i >= 0; i--) {
+            byte[] tag = openTags.get(i);
+            int nameLength = nameLength(tag);
+            segment[offset++] = '<';
+            segment[offset++] = '/';
+            System.arraycopy(tag, 1, segment, offset, nameLength);
+            offset += nameLength;
+            segment[offset++] = '>';
+        }
+        return segment;
+    }
+
+    private static int nameLength(byte[] tag) {
+        int end = 1;
+        while (end < tag.length && tag[end] > ' ' && tag[end] != '/' && tag[end] != '>') {
+            end++;
+        }
+        return end - 1;
+    }
+
+    /**
+     * Drops the bytes of the current segment, the next segment starts after them.
+     */
+    void next() {
+        System.arraycopy(buffer, cut, buffer, 0, length - cut);
+        length -= cut;
+        position -= cut;
+        tokenStart -= cut;
+        firstSegment = false;
+        headTags = List.copyOf(openTags.subList(0, cutOpenTags));
+        segmentEnds -= cutEnds;
+        cut = 0;
+        cutEnds = 0;
+    }
+
+    private static MalformedXmlException malformed(String message) {
+        return new MalformedXmlException(List.of(), new IllegalArgumentException(message));
+    }
+}
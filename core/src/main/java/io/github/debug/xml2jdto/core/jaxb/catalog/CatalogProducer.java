@@ -32,6 +32,11 @@ import io.github.debug.xml2jdto.core.exception.ExBuilder;
  * }
  * </pre>
  * 
+ * <p>
+ * Every producer loads and keeps its own catalog, so components configured with different {@link CatalogConfig} instances are isolated from each
+ * other. The catalog is loaded once, on the first {@link #getCatalog()} call.
+ * </p>
+ * 
  * @see CatalogConfig
  * @see CatalogManager
  * 
@@ -41,15 +46,26 @@ public class CatalogProducer {
 
     private static final Logger log = Logger.getLogger(CatalogProducer.class.getName());
 
-    private final CatalogConfig catalogConfig = new CatalogConfig();
+    private final CatalogConfig catalogConfig;
 
-    private static Catalog catalog;
+    private volatile Catalog catalog;
 
     /**
-     * Default constructor.
+     * Default constructor, the catalog paths are read from the {@code xml2jdto.catalog.path} system property or environment variable.
      */
     public CatalogProducer() {
+        this(new CatalogConfig());
+    }
+
+    /**
+     * Creates a producer of the catalog files listed in the given configuration.
+     *
+     * @param catalogConfig
+     *            the configuration of the catalog paths
+     */
+    public CatalogProducer(CatalogConfig catalogConfig) {
         super();
+        this.catalogConfig = catalogConfig;
     }
 
     /**
@@ -58,13 +74,20 @@ public class CatalogProducer {
      * @return the catalog object, or null if the resource could not be found
      */
     public Catalog getCatalog() {
-        if (catalog == null) {
-            findResource();
+        Catalog result = catalog;
+        if (result == null) {
+            synchronized (this) {
+                result = catalog;
+                if (result == null) {
+                    result = findResource();
+                    catalog = result;
+                }
+            }
         }
-        return catalog;
+        return result;
     }
 
-    private void findResource() {
+    private Catalog findResource() {
         List<String> paths = catalogConfig.getCatalogPaths();
         List<URI> catalogUris = new ArrayList<>();
 
@@ -81,6 +104,6 @@ public class CatalogProducer {
             }
         }
         log.info(MessageFormat.format("Number of founded catalog file: [{0}].", catalogUris.size()));
-        catalog = CatalogManager.catalog(CatalogFeatures.defaults(), catalogUris.toArray(new URI[0]));
+        return CatalogManager.catalog(CatalogFeatures.defaults(), catalogUris.toArray(new URI[0]));
     }
 }
@@ -3,7 +3,10 @@ package io.github.debug.xml2jdto.core.jaxb.catalog;
 import java.io.StringReader;
 import java.text.MessageFormat;
 import java.util.Iterator;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Logger;
 
 import javax.xml.catalog.Catalog;
@@ -21,6 +24,11 @@ import org.xml.sax.InputSource;
  * match is found, the corresponding system ID is returned. If no match is found, it logs a warning message.
  * 
  * <p>
+ * Resolvers created without a {@link CatalogProducer} share one JVM wide producer. A resolver, e.g. of an
+ * {@link io.github.debug.xml2jdto.core.jaxb.Xml2jDto} engine, may also cache its resolutions: the result of a lookup depends only on the namespace,
+ * public and system ID, so the catalog is searched only once per imported schema.
+ * 
+ * <p>
  * Note: This class is thread-safe as it does not modify the state of the catalog or the catalog producer.
  * 
  * @see LSResourceResolver
@@ -33,18 +41,61 @@ public class CatalogResourceResolver implements LSResourceResolver {
 
     private static final Logger log = Logger.getLogger(CatalogResourceResolver.class.getName());
 
-    private static final CatalogProducer catalogProducer = new CatalogProducer();
+    private static final CatalogProducer DEFAULT_CATALOG_PRODUCER = new CatalogProducer();
+
+    private final CatalogProducer catalogProducer;
+
+    private final int maxCachedResolutions;
+
+    private final Map<ResolutionKey, Optional<String>> resolutions = new ConcurrentHashMap<>();
 
     /**
-     * Default constructor.
+     * Default constructor, uses the shared catalog configured by the {@code xml2jdto.catalog.path} system property or environment variable.
      */
     public CatalogResourceResolver() {
+        this(DEFAULT_CATALOG_PRODUCER, 0);
+    }
+
+    /**
+     * Creates a resolver using the shared catalog, caching its resolutions.
+     *
+     * @param maxCachedResolutions
+     *            the maximum number of cached resolutions, 0 or less to disable caching
+     */
+    public CatalogResourceResolver(int maxCachedResolutions) {
+        this(DEFAULT_CATALOG_PRODUCER, maxCachedResolutions);
+    }
+
+    /**
+     * Creates a resolver using the catalog of the given producer.
+     *
+     * @param catalogProducer
+     *            the producer of the catalog
+     * @param maxCachedResolutions
+     *            the maximum number of cached resolutions, 0 or less to disable caching
+     */
+    public CatalogResourceResolver(CatalogProducer catalogProducer, int maxCachedResolutions) {
         super();
+        this.catalogProducer = catalogProducer;
+        this.maxCachedResolutions = maxCachedResolutions;
     }
 
     @Override
     public LSInput resolveResource(String type, String namespaceURI, String publicId, String systemId, String baseURI) {
-        String resolvedSystemId = resolve(catalogProducer.getCatalog(), publicId, systemId, namespaceURI);
+        String resolvedSystemId;
+        if (maxCachedResolutions > 0) {
+            ResolutionKey key = new ResolutionKey(namespaceURI, publicId, systemId);
+            Optional<String> cached = resolutions.get(key);
+            if (cached == null) {
+                cached = Optional.ofNullable(resolve(catalogProducer.getCatalog(), publicId, systemId, namespaceURI));
+                if (resolutions.size() < maxCachedResolutions) {
+                    resolutions.put(key, cached);
+                }
+            }
+            resolvedSystemId = cached.orElse(null);
+        } else {
+            resolvedSystemId = resolve(catalogProducer.getCatalog(), publicId, systemId, namespaceURI);
+        }
         InputSource inputSource = Objects.nonNull(resolvedSystemId) ? new InputSource(resolvedSystemId) : new InputSource(new StringReader(""));
         return inputSource.isEmpty() ? null : new CatalogLsInputImpl(inputSource.getSystemId());
     }
@@ -94,4 +145,7 @@ public class CatalogResourceResolver implements LSResourceResolver {
         }
         return resolvedSystemId;
     }
+
+    private record ResolutionKey(String namespaceURI, String publicId, String systemId) {
+    }
 }
@@ -0,0 +1,562 @@
+package io.github.debug.xml2jdto.core.jaxb.catalog;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+import org.w3c.dom.ls.LSInput;
+import org.w3c.dom.ls.LSResourceResolver;
+
+import io.github.debug.xml2jdto.core.exception.ExBuilder;
+import io.github.debug.xml2jdto.core.exception.InvalidMethodParameterException;
+
+/**
+ * Local disk cache of the XSD files and catalog resolutions used to compile schemas, which lets a restarted application skip the catalog and the
+ * classpath lookups of the previous run.
+ * <p>
+ * The cache keeps the bytes of the root XSD files and of the resolved imports in files named by the SHA-256 hash of their content, and an index of
+ * the flattened resolutions (namespace, public and system ID to the resolved system ID) and of the classpath artifacts the XSD files came from: the
+ * jar files, or the XSD files of an exploded classpath, with their size and modification time. When the cache is opened, the artifacts are checked
+ * with a file status call each; if every artifact and the catalog paths are unchanged, the cached XSD files and resolutions are used and the catalog
+ * is not even loaded, otherwise the cache is discarded and filled again. A cached XSD file whose content does not match its hash is read again from
+ * the classpath.
+ * </p>
+ *
+ * <pre>
+ * {@code
+ * Xml2jDto engine = Xml2jDto.builder()
+ *         .catalogPaths(List.of("xsd/catalog.cat"))
+ *         .schemaDiskCache(Path.of("/var/cache/app/xsd"))
+ *         .build();
+ * }
+ * </pre>
+ * <p>
+ * Only the documents of {@code file:} and {@code jar:file:} URLs are cached. The index is written by {@link #flush()} after new documents have been
+ * read; a failure to write the cache is logged and does not fail the compilation.
+ * </p>
+ * <br/>
+ * Thread-safety: This class is thread-safe.
+ *
+ * @author scheffer.imrich
+ */
+public final class SchemaDiskCache {
+
+    private static final Logger log = Logger.getLogger(SchemaDiskCache.class.getName());
+
+    private static final int FORMAT_VERSION = 1;
+
+    private static final String INDEX_FILE = "index.bin";
+
+    private static final String DOCUMENT_SUFFIX = ".xsd";
+
+    private static final Resolution UNRESOLVED = new Resolution(null, null);
+
+    private final Path directory;
+
+    private final List<String> catalogPaths;
+
+    private final Map<String, Artifact> artifacts = new ConcurrentHashMap<>();
+
+    private final Map<String, Document> xsds = new ConcurrentHashMap<>();
+
+    private final Map<ResolutionKey, Resolution> resolutions = new ConcurrentHashMap<>();
+
+    private final boolean reused;
+
+    private volatile boolean dirty;
+
+    private SchemaDiskCache(Path directory, List<String> catalogPaths) {
+        this.directory = directory;
+        this.catalogPaths = catalogPaths == null ? List.of() : List.copyOf(catalogPaths);
+        this.reused = load();
+    }
+
+    /**
+     * Opens the cache in a directory and validates its content against the classpath artifacts.
+     *
+     * @param directory
+     *            the directory of the cache, created on the first {@link #flush()}
+     * @param catalogPaths
+     *            the catalog paths of the resolver the cache is used with, null or empty for none; a cache written with other catalog paths is
+     *            discarded
+     * @return the cache
+     * @throws InvalidMethodParameterException
+     *             if the directory is null
+     */
+    public static SchemaDiskCache open(Path directory, List<String> catalogPaths) {
+        if (directory == null) {
+            throw new InvalidMethodParameterException("directory cannot be null!");
+        }
+        return new SchemaDiskCache(directory, catalogPaths);
+    }
+
+    /**
+     * Checks whether the content written by an earlier run has been found valid and is used.
+     *
+     * @return true if the cache has been reused
+     */
+    public boolean isReused() {
+        return reused;
+    }
+
+    /**
+     * Reads a root XSD file from the cache, or from the classpath on a miss.
+     *
+     * @param xsdPath
+     *            the classpath location of the XSD file
+     * @return the content of the XSD file
+     * @throws IOException
+     *             if the XSD file cannot be read
+     * @throws io.github.debug.xml2jdto.core.exception.Xml2jDtoException
+     *             if the XSD file cannot be found
+     */
+    public byte[] readXsd(String xsdPath) throws IOException {
+        Document cached = xsds.get(xsdPath);
+        if (cached != null) {
+            byte[] content = readDocument(cached.hash());
+            if (content != null) {
+                return content;
+            }
+        }
+        URL url = Thread.currentThread().getContextClassLoader().getResource(xsdPath);
+        if (url == null) {
+            throw ExBuilder.newXml2jDtoException().withMessage("Schema on path [{0}] cannot be found!", xsdPath).build();
+        }
+        byte[] content;
+        try (InputStream stream = url.openStream()) {
+            content = stream.readAllBytes();
+        }
+        Document document = store(url.toString(), content);
+        if (document != null) {
+            xsds.put(xsdPath, document);
+            dirty = true;
+        }
+        return content;
+    }
+
+    /**
+     * Drops the cached root XSD file of a path and the cached resolutions, e.g. before a schema is compiled again after its XSD files have been
+     * replaced. The artifacts are only checked when the cache is opened, so without this call the next compilation would read the documents of the
+     * previous version. The resolutions are not recorded per schema, so all of them are resolved again by the delegate on their next use; the
+     * documents that have not changed are found by their hash and not written again.
+     *
+     * @param xsdPath
+     *            the classpath location of the XSD file
+     */
+    public void invalidate(String xsdPath) {
+        if (xsdPath != null) {
+            xsds.remove(xsdPath);
+        }
+        resolutions.clear();
+        dirty = true;
+    }
+
+    /**
+     * Wraps a resolver, so its resolutions and the resolved documents are taken from the cache.
+     *
+     * @param delegate
+     *            the resolver called on a miss
+     * @return the caching resolver
+     * @throws InvalidMethodParameterException
+     *             if the delegate is null
+     */
+    public LSResourceResolver resolver(LSResourceResolver delegate) {
+        if (delegate == null) {
+            throw new InvalidMethodParameterException("delegate cannot be null!");
+        }
+        return (type, namespaceURI, publicId, systemId, baseURI) -> resolve(delegate, type, namespaceURI, publicId, systemId, baseURI);
+    }
+
+    /**
+     * Writes the index, if new documents or resolutions have been added since the last call.
+     */
+    public synchronized void flush() {
+        if (!dirty) {
+            return;
+        }
+        dirty = false;
+        try {
+            for (String catalogPath : catalogPaths) {
+                URL url = Thread.currentThread().getContextClassLoader().getResource(catalogPath);
+                if (url != null) {
+                    recordArtifact(url.toString());
+                }
+            }
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, INDEX_FILE, ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                writeIndex(out);
+            }
+            Files.move(temp, directory.resolve(INDEX_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warning(MessageFormat.format("The schema disk cache [{0}] cannot be written: [{1}]", directory, e.getLocalizedMessage()));
+        }
+    }
+
+    private LSInput resolve(LSResourceResolver delegate, String type, String namespaceURI, String publicId, String systemId, String baseURI) {
+        ResolutionKey key = new ResolutionKey(type, namespaceURI, publicId, systemId, baseURI);
+        Resolution cached = resolutions.get(key);
+        if (cached == UNRESOLVED) {
+            return null;
+        }
+        if (cached != null) {
+            byte[] content = readDocument(cached.hash());
+            if (content != null) {
+                return new CachedInput(cached.systemId(), publicId, content);
+            }
+        }
+        LSInput input = delegate.resolveResource(type, namespaceURI, publicId, systemId, baseURI);
+        if (input == null) {
+            resolutions.put(key, UNRESOLVED);
+            dirty = true;
+            return null;
+        }
+        if (input.getSystemId() == null || input.getByteStream() != null || input.getCharacterStream() != null || input.getStringData() != null) {
+            return input;
+        }
+        byte[] content;
+        try (InputStream stream = new URI(input.getSystemId()).toURL().openStream()) {
+            content = stream.readAllBytes();
+        } catch (IOException | URISyntaxException | IllegalArgumentException e) {
+            // left to the schema factory, which reports the failure
+            return input;
+        }
+        Document document = store(input.getSystemId(), content);
+        if (document != null) {
+            resolutions.put(key, new Resolution(document.systemId(), document.hash()));
+            dirty = true;
+        }
+        return new CachedInput(input.getSystemId(), publicId, content);
+    }
+
+    /**
+     * Writes the document into the cache.
+     *
+     * @return the cached document, or null if the artifact of the system ID cannot be validated
+     */
+    private Document store(String systemId, byte[] content) {
+        if (!recordArtifact(systemId)) {
+            return null;
+        }
+        String hash = hash(content);
+        Path file = directory.resolve(hash + DOCUMENT_SUFFIX);
+        try {
+            if (!Files.exists(file)) {
+                Files.createDirectories(directory);
+                Path temp = Files.createTempFile(directory, hash, ".tmp");
+                Files.write(temp, content);
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            }
+        } catch (IOException e) {
+            log.warning(MessageFormat.format("The schema disk cache [{0}] cannot be written: [{1}]", directory, e.getLocalizedMessage()));
+            return null;
+        }
+        return new Document(systemId, hash);
+    }
+
+    private byte[] readDocument(String hash) {
+        try {
+            byte[] content = Files.readAllBytes(directory.resolve(hash + DOCUMENT_SUFFIX));
+            if (hash.equals(hash(content))) {
+                return content;
+            }
+            log.warning(MessageFormat.format("The cached schema document [{0}] is corrupt, it is read again", hash));
+        } catch (IOException e) {
+            log.warning(MessageFormat.format("The cached schema document [{0}] cannot be read: [{1}]", hash, e.getLocalizedMessage()));
+        }
+        return null;
+    }
+
+    private boolean recordArtifact(String systemId) {
+        Path path = artifactPath(systemId);
+        Artifact artifact = path == null ? null : Artifact.of(path);
+        if (artifact == null) {
+            return false;
+        }
+        artifacts.put(artifact.path(), artifact);
+        return true;
+    }
+
+    private boolean load() {
+        Path index = directory.resolve(INDEX_FILE);
+        if (!Files.isRegularFile(index)) {
+            return false;
+        }
+        Map<String, Artifact> loadedArtifacts = new ConcurrentHashMap<>();
+        Map<String, Document> loadedXsds = new ConcurrentHashMap<>();
+        Map<ResolutionKey, Resolution> loadedResolutions = new ConcurrentHashMap<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(index)))) {
+            if (in.readInt() != FORMAT_VERSION) {
+                return discard("the format has changed");
+            }
+            List<String> cachedCatalogPaths = new ArrayList<>();
+            for (int i = in.readInt(); i > 0; i--) {
+                cachedCatalogPaths.add(in.readUTF());
+            }
+            if (!cachedCatalogPaths.equals(catalogPaths)) {
+                return discard("the catalog paths have changed");
+            }
+            for (int i = in.readInt(); i > 0; i--) {
+                Artifact artifact = new Artifact(in.readUTF(), in.readLong(), in.readLong());
+                if (!artifact.equals(Artifact.of(Path.of(artifact.path())))) {
+                    return discard(MessageFormat.format("the artifact [{0}] has changed", artifact.path()));
+                }
+                loadedArtifacts.put(artifact.path(), artifact);
+            }
+            for (int i = in.readInt(); i > 0; i--) {
+                loadedXsds.put(in.readUTF(), new Document(in.readUTF(), in.readUTF()));
+            }
+            for (int i = in.readInt(); i > 0; i--) {
+                ResolutionKey key = new ResolutionKey(readNullable(in), readNullable(in), readNullable(in), readNullable(in), readNullable(in));
+                String systemId = readNullable(in);
+                String hash = readNullable(in);
+                loadedResolutions.put(key, systemId == null ? UNRESOLVED : new Resolution(systemId, hash));
+            }
+        } catch (IOException | RuntimeException e) {
+            return discard(e.getLocalizedMessage());
+        }
+        artifacts.putAll(loadedArtifacts);
+        xsds.putAll(loadedXsds);
+        resolutions.putAll(loadedResolutions);
+        log.fine(MessageFormat.format("The schema disk cache [{0}] is reused, artifacts: [{1}]", directory, artifacts.size()));
+        return true;
+    }
+
+    private boolean discard(String reason) {
+        log.info(MessageFormat.format("The schema disk cache [{0}] is discarded: [{1}]", directory, reason));
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (isCacheFile(file.getFileName().toString())) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            log.warning(MessageFormat.format("The schema disk cache [{0}] cannot be cleared: [{1}]", directory, e.getLocalizedMessage()));
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether a file of the directory has been written by the cache, the other files are kept.
+     */
+    private static boolean isCacheFile(String name) {
+        return name.equals(INDEX_FILE) || name.endsWith(".tmp") || name.matches("[0-9a-f]{64}\\" + DOCUMENT_SUFFIX);
+    }
+
+    private void writeIndex(DataOutputStream out) throws IOException {
+        out.writeInt(FORMAT_VERSION);
+        out.writeInt(catalogPaths.size());
+        for (String catalogPath : catalogPaths) {
+            out.writeUTF(catalogPath);
+        }
+        List<Artifact> artifactList = List.copyOf(artifacts.values());
+        out.writeInt(artifactList.size());
+        for (Artifact artifact : artifactList) {
+            out.writeUTF(artifact.path());
+            out.writeLong(artifact.size());
+            out.writeLong(artifact.lastModified());
+        }
+        List<Map.Entry<String, Document>> xsdList = List.copyOf(xsds.entrySet());
+        out.writeInt(xsdList.size());
+        for (Map.Entry<String, Document> xsd : xsdList) {
+            out.writeUTF(xsd.getKey());
+            out.writeUTF(xsd.getValue().systemId());
+            out.writeUTF(xsd.getValue().hash());
+        }
+        List<Map.Entry<ResolutionKey, Resolution>> resolutionList = List.copyOf(resolutions.entrySet());
+        out.writeInt(resolutionList.size());
+        for (Map.Entry<ResolutionKey, Resolution> resolution : resolutionList) {
+            ResolutionKey key = resolution.getKey();
+            writeNullable(out, key.type());
+            writeNullable(out, key.namespaceURI());
+            writeNullable(out, key.publicId());
+            writeNullable(out, key.systemId());
+            writeNullable(out, key.baseURI());
+            writeNullable(out, resolution.getValue().systemId());
+            writeNullable(out, resolution.getValue().hash());
+        }
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    /**
+     * Returns the file whose status validates a document: the jar file of a {@code jar:file:} URL, the file of a {@code file:} URL.
+     *
+     * @return the file, or null for other URLs
+     */
+    private static Path artifactPath(String systemId) {
+        String spec = systemId;
+        if (spec.startsWith("jar:")) {
+            int separator = spec.indexOf("!/");
+            if (separator < 0) {
+                return null;
+            }
+            spec = spec.substring("jar:".length(), separator);
+        }
+        try {
+            URI uri = new URI(spec);
+            return "file".equalsIgnoreCase(uri.getScheme()) ? Path.of(uri) : null;
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static String hash(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Artifact(String path, long size, long lastModified) {
+
+        /**
+         * @return the current status of the file, or null if it cannot be read
+         */
+        private static Artifact of(Path path) {
+            try {
+                return new Artifact(path.toString(), Files.size(path), Files.getLastModifiedTime(path).toMillis());
+            } catch (IOException e) {
+                return null;
+            }
+        }
+    }
+
+    private record Document(String systemId, String hash) {
+    }
+
+    private record Resolution(String systemId, String hash) {
+    }
+
+    private record ResolutionKey(String type, String namespaceURI, String publicId, String systemId, String baseURI) {
+    }
+
+    /**
+     * A resolved document read from the cache.
+     */
+    private static final class CachedInput implements LSInput {
+
+        private String systemId;
+
+        private String publicId;
+
+        private InputStream byteStream;
+
+        private CachedInput(String systemId, String publicId, byte[] content) {
+            this.systemId = systemId;
+            this.publicId = publicId;
+            this.byteStream = new ByteArrayInputStream(content);
+        }
+
+        @Override
+        public Reader getCharacterStream() {
+            return null;
+        }
+
+        @Override
+        public void setCharacterStream(Reader characterStream) {
+            // the content is the byte stream
+        }
+
+        @Override
+        public InputStream getByteStream() {
+            return byteStream;
+        }
+
+        @Override
+        public void setByteStream(InputStream byteStream) {
+            this.byteStream = byteStream;
+        }
+
+        @Override
+        public String getStringData() {
+            return null;
+        }
+
+        @Override
+        public void setStringData(String stringData) {
+            // the content is the byte stream
+        }
+
+        @Override
+        public String getSystemId() {
+            return systemId;
+        }
+
+        @Override
+        public void setSystemId(String systemId) {
+            this.systemId = systemId;
+        }
+
+        @Override
+        public String getPublicId() {
+            return publicId;
+        }
+
+        @Override
+        public void setPublicId(String publicId) {
+            this.publicId = publicId;
+        }
+
+        @Override
+        public String getBaseURI() {
+            return null;
+        }
+
+        @Override
+        public void setBaseURI(String baseURI) {
+            // the system ID is absolute
+        }
+
+        @Override
+        public String getEncoding() {
+            return null;
+        }
+
+        @Override
+        public void setEncoding(String encoding) {
+            // detected from the content
+        }
+
+        @Override
+        public boolean getCertifiedText() {
+            return false;
+        }
+
+        @Override
+        public void setCertifiedText(boolean certifiedText) {
+            // not certified
+        }
+    }
+}
@@ -6,6 +6,11 @@ import java.util.List;
 
 import jakarta.xml.bind.ValidationEvent;
 import jakarta.xml.bind.ValidationEventHandler;
+import jakarta.xml.bind.helpers.ValidationEventImpl;
+import jakarta.xml.bind.helpers.ValidationEventLocatorImpl;
+
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.SAXParseException;
 
 /**
  * The {@code XsdValidationEventCollector} class implements the {@code ValidationEventHandler} interface to collect validation events during XML
@@ -13,10 +18,14 @@ import jakarta.xml.bind.ValidationEventHandler;
  * <p>
  * This class provides methods to clear the collected validation events and retrieve them as an unmodifiable list.
  * </p>
+ * <p>
+ * It is also a SAX {@link ErrorHandler}, so the errors of a plain {@link javax.xml.validation.Validator} are collected as the same
+ * {@link ValidationEvent} objects. A fatal error is collected and rethrown, the parser cannot continue after it.
+ * </p>
  * 
  * @author scheffer.imrich
  */
-public class XsdValidationEventCollector implements ValidationEventHandler {
+public class XsdValidationEventCollector implements ValidationEventHandler, ErrorHandler {
 
     private List<ValidationEvent> events;
 
@@ -56,4 +65,24 @@ public class XsdValidationEventCollector implements ValidationEventHandler {
         // don't break the un/marshalling process
         return true;
     }
+
+    @Override
+    public void warning(SAXParseException exception) {
+        getEventsList().add(toEvent(ValidationEvent.WARNING, exception));
+    }
+
+    @Override
+    public void error(SAXParseException exception) {
+        getEventsList().add(toEvent(ValidationEvent.ERROR, exception));
+    }
+
+    @Override
+    public void fatalError(SAXParseException exception) throws SAXParseException {
+        getEventsList().add(toEvent(ValidationEvent.FATAL_ERROR, exception));
+        throw exception;
+    }
+
+    private static ValidationEvent toEvent(int severity, SAXParseException exception) {
+        return new ValidationEventImpl(severity, exception.getMessage(), new ValidationEventLocatorImpl(exception), exception);
+    }
 }
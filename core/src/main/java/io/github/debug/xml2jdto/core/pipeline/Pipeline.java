@@ -0,0 +1,615 @@
+package io.github.debug.xml2jdto.core.pipeline;
+
+import java.io.ByteArrayInputStream;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.apache.commons.lang3.StringUtils;
+
+import io.github.debug.xml2jdto.core.exception.ExBuilder;
+import io.github.debug.xml2jdto.core.exception.InvalidMethodParameterException;
+import io.github.debug.xml2jdto.core.exception.Xml2jDtoException;
+import io.github.debug.xml2jdto.core.jaxb.JaxbUtil;
+import io.github.debug.xml2jdto.core.jaxb.Xml2jDto;
+import io.github.debug.xml2jdto.core.jaxb.Xml2jDtoMetrics;
+
+/**
+ * Staged parallel pipeline of records, e.g. read, unmarshal with validation, business transform and marshal.
+ * <p>
+ * A chain of blocking calls per record keeps one core busy at a time and waits for the I/O between the calls. In the pipeline every stage has its
+ * own threads and a bounded queue in front of it, so the parsing of a record overlaps with the transform of the previous one and the write of the
+ * one before; a CPU heavy stage gets more threads than the others. {@link #unmarshal(Xml2jDto, Class, String)} and
+ * {@link #marshal(Xml2jDto, String)} build the stages on the cached contexts, schemas and pooled unmarshallers of an engine, which are thread-safe.
+ * </p>
+ *
+ * <pre>
+ * {@code
+ * try (Pipeline<byte[]> pipeline = Pipeline.<byte[]>builder()
+ *         .stage("parse", 4, Pipeline.unmarshal(engine, Order.class, "xsd/order.xsd"))
+ *         .stage("transform", 2, orderService::enrich)
+ *         .stage("marshal", 2, Pipeline.marshal(engine, "xsd/order.xsd"))
+ *         .build(writer::write)) {
+ *     for (byte[] document : documents) {
+ *         pipeline.submit(document);
+ *     }
+ *     pipeline.finish();
+ * }
+ * }
+ * </pre>
+ * <p>
+ * The queues are bounded: a full queue blocks the stage before it, up to {@link #submit(Object)}, so a slow sink slows down the reading instead of
+ * filling the heap. The sink is called by one thread, in the order of the submits by default; with unordered output a record is passed to the sink
+ * as soon as it is ready. A stage returning null drops the record. The first exception of a stage cancels the pipeline and is thrown by the next
+ * {@link #submit(Object)} or by {@link #finish()}. {@link #getStageStats()} shows the time spent in every stage and waiting for the next one.
+ * </p>
+ *
+ * <br/>
+ * Thread-safety: This class is thread-safe, records can be submitted by several threads; {@link #finish()} is called after the last submit.
+ *
+ * @param <I>
+ *            the type of the submitted records
+ *
+ * @author scheffer.imrich
+ */
+public final class Pipeline<I> implements AutoCloseable {
+
+    /**
+     * Default capacity of the queue in front of every stage.
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 256;
+
+    /**
+     * Name of the stage of the sink in {@link #getStageStats()}.
+     */
+    public static final String SINK = "sink";
+
+    private static final long POLL_MILLIS = 100;
+
+    private static final Item END = new Item(-1, null);
+
+    private final List<Stage> stages = new ArrayList<>();
+
+    private final List<Thread> threads = new ArrayList<>();
+
+    private final boolean ordered;
+
+    private final Xml2jDtoMetrics metrics;
+
+    /**
+     * Bound of the records in flight with ordered output, which also bounds the records waiting for their turn at the sink.
+     */
+    private final Semaphore window;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final AtomicReference<Failure> failure = new AtomicReference<>();
+
+    private volatile boolean finished;
+
+    private volatile boolean cancelled;
+
+    private Pipeline(Builder<I, ?> builder, Consumer<Object> sink) {
+        this.ordered = builder.ordered;
+        this.metrics = builder.metrics;
+        for (StageDefinition definition : builder.definitions) {
+            stages.add(new Stage(definition.name, definition.parallelism, definition.function, builder.queueCapacity));
+        }
+        stages.add(new Stage(SINK, 1, value -> {
+            sink.accept(value);
+            return null;
+        }, builder.queueCapacity));
+        this.window = ordered ? new Semaphore(builder.queueCapacity * stages.size()) : null;
+        for (int i = 0; i < stages.size(); i++) {
+            Stage stage = stages.get(i);
+            Stage next = i + 1 < stages.size() ? stages.get(i + 1) : null;
+            ThreadFactory factory = builder.threadFactory != null ? builder.threadFactory
+                    : Thread.ofPlatform().daemon().name("xml2jdto-pipeline-" + stage.name + "-", 0).factory();
+            for (int j = 0; j < stage.parallelism; j++) {
+                Runnable worker = next != null ? () -> work(stage, next) : () -> sink(stage);
+                threads.add(factory.newThread(worker));
+            }
+        }
+        threads.forEach(Thread::start);
+    }
+
+    /**
+     * Creates a new builder.
+     *
+     * @param <I>
+     *            the type of the submitted records
+     * @return the builder
+     */
+    public static <I> Builder<I, I> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Returns a stage function unmarshalling and validating a document with the {@link Xml2jDto#getDefault() default engine} of {@link JaxbUtil}.
+     *
+     * @param <T>
+     *            the type of the DTO
+     * @param clazz
+     *            the DTO class
+     * @param xsdPath
+     *            the path of the XSD, null for no validation
+     * @return the function, thread-safe
+     * @see #unmarshal(Xml2jDto, Class, String)
+     */
+    public static <T> Function<byte[], T> unmarshal(Class<T> clazz, String xsdPath) {
+        return unmarshal(Xml2jDto.getDefault(), clazz, xsdPath);
+    }
+
+    /**
+     * Returns a stage function unmarshalling and validating a document with the cached context and schema and the pooled unmarshallers of the engine.
+     *
+     * @param <T>
+     *            the type of the DTO
+     * @param engine
+     *            the engine
+     * @param clazz
+     *            the DTO class
+     * @param xsdPath
+     *            the path of the XSD, null for no validation
+     * @return the function, thread-safe
+     * @throws InvalidMethodParameterException
+     *             if the engine or the class is null
+     */
+    public static <T> Function<byte[], T> unmarshal(Xml2jDto engine, Class<T> clazz, String xsdPath) {
+        if (engine == null) {
+            throw new InvalidMethodParameterException("engine cannot be null!");
+        }
+        if (clazz == null) {
+            throw new InvalidMethodParameterException("clazz cannot be null!");
+        }
+        return document -> engine.unmarshal(new ByteArrayInputStream(document), clazz, xsdPath);
+    }
+
+    /**
+     * Returns a stage function validating and marshalling a DTO with the {@link Xml2jDto#getDefault() default engine} of {@link JaxbUtil}.
+     *
+     * @param <T>
+     *            the type of the DTO
+     * @param schemaPath
+     *            the path of the XSD, null for no validation
+     * @return the function, thread-safe
+     * @see #marshal(Xml2jDto, String)
+     */
+    public static <T> Function<T, byte[]> marshal(String schemaPath) {
+        return marshal(Xml2jDto.getDefault(), schemaPath);
+    }
+
+    /**
+     * Returns a stage function validating and marshalling a DTO with the cached context and schema and the pooled buffers of the engine.
+     *
+     * @param <T>
+     *            the type of the DTO
+     * @param engine
+     *            the engine
+     * @param schemaPath
+     *            the path of the XSD, null for no validation
+     * @return the function, thread-safe
+     * @throws InvalidMethodParameterException
+     *             if the engine is null
+     */
+    public static <T> Function<T, byte[]> marshal(Xml2jDto engine, String schemaPath) {
+        if (engine == null) {
+            throw new InvalidMethodParameterException("engine cannot be null!");
+        }
+        return dto -> engine.marshalToBytes(dto, schemaPath);
+    }
+
+    /**
+     * Submits a record to the first stage, waiting while the queue of the stage is full.
+     *
+     * @param record
+     *            the record
+     * @throws InvalidMethodParameterException
+     *             if the record is null
+     * @throws IllegalStateException
+     *             if the pipeline is finished or closed
+     * @throws Xml2jDtoException
+     *             if a stage has failed, or the calling thread is interrupted while waiting
+     */
+    public void submit(I record) {
+        if (record == null) {
+            throw new InvalidMethodParameterException("record cannot be null!");
+        }
+        if (finished) {
+            throw new IllegalStateException("Pipeline is finished");
+        }
+        checkFailure();
+        try {
+            if (window != null) {
+                while (!window.tryAcquire(POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                    checkFailure();
+                }
+            }
+            Item item = new Item(sequence.getAndIncrement(), record);
+            BlockingQueue<Item> input = stages.get(0).input;
+            while (!input.offer(item, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                checkFailure();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw ExBuilder.newXml2jDtoException().withMessage("Interrupted while submitting a record to the pipeline").withCause(e).build();
+        }
+    }
+
+    /**
+     * Ends the input and waits until every submitted record has passed through the stages and the sink; the threads of the pipeline stop.
+     *
+     * @throws IllegalStateException
+     *             if the pipeline is closed
+     * @throws Xml2jDtoException
+     *             if a stage has failed, or the calling thread is interrupted while waiting
+     */
+    public void finish() {
+        checkFailure();
+        try {
+            if (!finished) {
+                finished = true;
+                Stage first = stages.get(0);
+                for (int i = 0; i < first.parallelism; i++) {
+                    while (!first.input.offer(END, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                        checkFailure();
+                    }
+                }
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw ExBuilder.newXml2jDtoException().withMessage("Interrupted while finishing the pipeline").withCause(e).build();
+        }
+        checkFailure();
+    }
+
+    /**
+     * Cancels an unfinished pipeline, the records in flight are dropped, and waits for its threads to stop. A finished pipeline is not affected.
+     */
+    @Override
+    public void close() {
+        if (threads.stream().noneMatch(Thread::isAlive)) {
+            return;
+        }
+        finished = true;
+        cancel();
+        boolean interrupted = false;
+        for (Thread thread : threads) {
+            while (thread.isAlive()) {
+                try {
+                    thread.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Returns the statistics of the stages, the last one is the {@value #SINK}.
+     *
+     * @return a snapshot of the statistics, in the order of the stages
+     */
+    public List<StageStats> getStageStats() {
+        return stages.stream().map(Stage::stats).toList();
+    }
+
+    private void work(Stage stage, Stage next) {
+        try {
+            while (true) {
+                Item item = stage.input.take();
+                if (item == END) {
+                    break;
+                }
+                Object result = item.value == null ? null : stage.apply(item.value, metrics);
+                if (result != null || ordered) {
+                    stage.put(next, new Item(item.sequence, result));
+                }
+            }
+            if (stage.running.decrementAndGet() == 0) {
+                for (int i = 0; i < next.parallelism; i++) {
+                    stage.put(next, END);
+                }
+            }
+        } catch (InterruptedException e) {
+            // cancelled
+        } catch (RuntimeException | Error e) {
+            fail(stage, e);
+        }
+    }
+
+    private void sink(Stage stage) {
+        PriorityQueue<Item> pending = new PriorityQueue<>(Comparator.comparingLong(Item::sequence));
+        long expected = 0;
+        try {
+            while (true) {
+                Item item = stage.input.take();
+                if (item == END) {
+                    break;
+                }
+                if (!ordered) {
+                    stage.apply(item.value, metrics);
+                    continue;
+                }
+                pending.add(item);
+                while (!pending.isEmpty() && pending.peek().sequence == expected) {
+                    Object value = pending.poll().value;
+                    if (value != null) {
+                        stage.apply(value, metrics);
+                    }
+                    window.release();
+                    expected++;
+                }
+            }
+        } catch (InterruptedException e) {
+            // cancelled
+        } catch (RuntimeException | Error e) {
+            fail(stage, e);
+        }
+    }
+
+    /**
+     * Records the first failure and cancels the pipeline; the exceptions of the functions interrupted by the cancellation are ignored.
+     */
+    private void fail(Stage stage, Throwable cause) {
+        if (!cancelled) {
+            metrics.increment(stage.metricName + Xml2jDtoMetrics.ERROR);
+            if (failure.compareAndSet(null, new Failure(stage.name, cause))) {
+                cancel();
+            }
+        }
+    }
+
+    /**
+     * Stops the threads of the stages and drops the queued records, so the waiting submits and the threads blocked on a full queue return.
+     */
+    private void cancel() {
+        cancelled = true;
+        for (Thread thread : threads) {
+            if (thread != Thread.currentThread()) {
+                thread.interrupt();
+            }
+        }
+        stages.forEach(stage -> stage.input.clear());
+    }
+
+    private void checkFailure() {
+        Failure current = failure.get();
+        if (current != null) {
+            throw ExBuilder.newXml2jDtoException()
+                    .withMessage("Pipeline stage [{0}] failed: [{1}]", current.stage, current.cause.getLocalizedMessage())
+                    .withCause(current.cause)
+                    .build();
+        }
+        if (cancelled) {
+            throw new IllegalStateException("Pipeline is closed");
+        }
+    }
+
+    private record Item(long sequence, Object value) {
+    }
+
+    private record Failure(String stage, Throwable cause) {
+    }
+
+    private record StageDefinition(String name, int parallelism, Function<Object, Object> function) {
+    }
+
+    /**
+     * A stage with its input queue and its statistics.
+     */
+    private static final class Stage {
+
+        private final String name;
+
+        private final String metricName;
+
+        private final int parallelism;
+
+        private final Function<Object, Object> function;
+
+        private final BlockingQueue<Item> input;
+
+        private final AtomicInteger running;
+
+        private final LongAdder records = new LongAdder();
+
+        private final LongAdder busyNanos = new LongAdder();
+
+        private final LongAdder blockedNanos = new LongAdder();
+
+        private Stage(String name, int parallelism, Function<Object, Object> function, int queueCapacity) {
+            this.name = name;
+            this.metricName = Xml2jDtoMetrics.PIPELINE_STAGE + name;
+            this.parallelism = parallelism;
+            this.function = function;
+            this.input = new ArrayBlockingQueue<>(queueCapacity);
+            this.running = new AtomicInteger(parallelism);
+        }
+
+        private Object apply(Object value, Xml2jDtoMetrics metrics) {
+            long start = System.nanoTime();
+            Object result = function.apply(value);
+            long nanos = System.nanoTime() - start;
+            records.increment();
+            busyNanos.add(nanos);
+            metrics.recordNanos(metricName, nanos);
+            return result;
+        }
+
+        /**
+         * Puts an item into the queue of the next stage, the time waiting for room is the blocked time of this stage.
+         */
+        private void put(Stage next, Item item) throws InterruptedException {
+            if (!next.input.offer(item)) {
+                long start = System.nanoTime();
+                next.input.put(item);
+                blockedNanos.add(System.nanoTime() - start);
+            }
+        }
+
+        private StageStats stats() {
+            return new StageStats(name, parallelism, records.sum(), busyNanos.sum(), blockedNanos.sum(), input.size());
+        }
+    }
+
+    /**
+     * Builder of {@link Pipeline}, the stages are added in the order of the processing.
+     *
+     * @param <I>
+     *            the type of the submitted records
+     * @param <O>
+     *            the type of the output of the last added stage
+     */
+    public static final class Builder<I, O> {
+
+        private final List<StageDefinition> definitions = new ArrayList<>();
+
+        private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+
+        private boolean ordered = true;
+
+        private ThreadFactory threadFactory;
+
+        private Xml2jDtoMetrics metrics = Xml2jDtoMetrics.NOOP;
+
+        private Builder() {
+            super();
+        }
+
+        /**
+         * Adds a stage processing the output of the previous stage, or the submitted records for the first stage.
+         *
+         * @param <R>
+         *            the type of the output of the stage
+         * @param name
+         *            the name of the stage, unique in the pipeline
+         * @param parallelism
+         *            the number of threads of the stage, positive
+         * @param function
+         *            the function of the stage, called by several threads if the parallelism is greater than 1; returns null to drop the record
+         * @return this builder
+         * @throws InvalidMethodParameterException
+         *             if the name is blank or not unique, the parallelism is not positive or the function is null
+         */
+        @SuppressWarnings("unchecked")
+        public <R> Builder<I, R> stage(String name, int parallelism, Function<? super O, ? extends R> function) {
+            if (StringUtils.isBlank(name)) {
+                throw new InvalidMethodParameterException("name cannot be blank!");
+            }
+            if (SINK.equals(name) || definitions.stream().anyMatch(definition -> definition.name.equals(name))) {
+                throw new InvalidMethodParameterException(MessageFormat.format("stage name must be unique: [{0}]!", name));
+            }
+            if (parallelism <= 0) {
+                throw new InvalidMethodParameterException(MessageFormat.format("parallelism must be positive: [{0}]!", parallelism));
+            }
+            if (function == null) {
+                throw new InvalidMethodParameterException("function cannot be null!");
+            }
+            definitions.add(new StageDefinition(name, parallelism, (Function<Object, Object>) function));
+            return (Builder<I, R>) this;
+        }
+
+        /**
+         * Sets the capacity of the queue in front of every stage, {@value Pipeline#DEFAULT_QUEUE_CAPACITY} by default. With ordered output the
+         * records in flight are bounded by the capacity times the number of stages, including the sink.
+         *
+         * @param queueCapacity
+         *            the capacity, positive
+         * @return this builder
+         * @throws InvalidMethodParameterException
+         *             if the capacity is not positive
+         */
+        public Builder<I, O> queueCapacity(int queueCapacity) {
+            if (queueCapacity <= 0) {
+                throw new InvalidMethodParameterException(MessageFormat.format("queueCapacity must be positive: [{0}]!", queueCapacity));
+            }
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        /**
+         * Sets whether the sink receives the records in the order of the submits, true by default. Unordered output passes a record to the sink as
+         * soon as it is ready, so a slow record does not hold back the ones after it.
+         *
+         * @param ordered
+         *            true for the order of the submits
+         * @return this builder
+         */
+        public Builder<I, O> ordered(boolean ordered) {
+            this.ordered = ordered;
+            return this;
+        }
+
+        /**
+         * Sets the factory of the threads of the stages, daemon platform threads named {@code xml2jdto-pipeline-<stage>-<n>} by default.
+         *
+         * @param threadFactory
+         *            the factory
+         * @return this builder
+         * @throws InvalidMethodParameterException
+         *             if the factory is null
+         */
+        public Builder<I, O> threadFactory(ThreadFactory threadFactory) {
+            if (threadFactory == null) {
+                throw new InvalidMethodParameterException("threadFactory cannot be null!");
+            }
+            this.threadFactory = threadFactory;
+            return this;
+        }
+
+        /**
+         * Sets the sink of the metrics of the stages, {@link Xml2jDtoMetrics#NOOP} by default. Every stage records its time per record in the
+         * {@link Xml2jDtoMetrics#PIPELINE_STAGE} timer of its name.
+         *
+         * @param metrics
+         *            the sink
+         * @return this builder
+         * @throws InvalidMethodParameterException
+         *             if the sink is null
+         */
+        public Builder<I, O> metrics(Xml2jDtoMetrics metrics) {
+            if (metrics == null) {
+                throw new InvalidMethodParameterException("metrics cannot be null!");
+            }
+            this.metrics = metrics;
+            return this;
+        }
+
+        /**
+         * Builds and starts the pipeline.
+         *
+         * @param sink
+         *            the consumer of the output of the last stage, called by one thread
+         * @return the running pipeline
+         * @throws InvalidMethodParameterException
+         *             if the sink is null
+         */
+        @SuppressWarnings("unchecked")
+        public Pipeline<I> build(Consumer<? super O> sink) {
+            if (sink == null) {
+                throw new InvalidMethodParameterException("sink cannot be null!");
+            }
+            return new Pipeline<>(this, (Consumer<Object>) sink);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package io.github.debug.xml2jdto.core.pipeline;
+
+/**
+ * Point in time statistics of a stage of a {@link Pipeline}.
+ * <p>
+ * The busy time is spent in the function of the stage, the blocked time in waiting for room in the queue of the next stage. A stage that is busy
+ * most of the time is the bottleneck; a stage that is mostly blocked waits for a slower stage after it.
+ * </p>
+ *
+ * @param name
+ *            the name of the stage, {@value Pipeline#SINK} for the sink
+ * @param parallelism
+ *            the number of threads of the stage
+ * @param records
+ *            the number of records the stage has processed
+ * @param busyNanos
+ *            the time spent in the function of the stage, summed over its threads
+ * @param blockedNanos
+ *            the time spent waiting for room in the queue of the next stage, summed over its threads
+ * @param queued
+ *            the current number of records in the input queue of the stage
+ *
+ * @author scheffer.imrich
+ */
+public record StageStats(String name, int parallelism, long records, long busyNanos, long blockedNanos, int queued) {
+
+    /**
+     * Returns the average time of a record in the function of the stage.
+     *
+     * @return the average busy time per record in nanoseconds, or 0 if no record was processed yet
+     */
+    public long averageNanos() {
+        return records == 0 ? 0 : busyNanos / records;
+    }
+}
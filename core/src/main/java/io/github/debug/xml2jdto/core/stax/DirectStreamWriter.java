@@ -0,0 +1,466 @@
+package io.github.debug.xml2jdto.core.stax;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+
+import javax.xml.XMLConstants;
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+/**
+ * Non-repairing writer appending the markup to a char buffer, which is passed to the target writer, or encoded to UTF-8 into the target stream, only
+ * when it is full.
+ * <p>
+ * The JDK writer passes every name and every escaped character to its target one by one and keeps a namespace context per element; over an
+ * {@link java.io.OutputStreamWriter} every such write goes through the charset encoder. The generated codecs declare the namespaces themselves, see
+ * {@link StaxWriteContext}, so this writer only records the declarations for {@link #getPrefix(String)} and escapes like the JAXB marshaller:
+ * {@code &}, {@code <} and {@code >} in text, and {@code "} in attribute values too. Like in the JDK writer, a context set with
+ * {@link #setNamespaceContext(NamespaceContext)} resolves the namespaces not declared in the document.
+ * </p>
+ *
+ * @author scheffer.imrich
+ */
+final class DirectStreamWriter implements XMLStreamWriter {
+
+    private static final int BUFFER_SIZE = 4096;
+
+    private final Writer writer;
+
+    private final OutputStream stream;
+
+    private final CharsetEncoder encoder;
+
+    private final char[] buffer = new char[BUFFER_SIZE];
+
+    private final byte[] bytes;
+
+    private int count;
+
+    private String[] openElements = new String[16];
+
+    private int depth;
+
+    private boolean startTagOpen;
+
+    private boolean emptyElement;
+
+    private String[] boundPrefixes = new String[4];
+
+    private String[] boundNamespaces = new String[4];
+
+    private int[] boundDepths = new int[4];
+
+    private int boundCount;
+
+    /**
+     * The context of the caller, consulted for the namespaces not declared in the document.
+     */
+    private NamespaceContext rootContext;
+
+    DirectStreamWriter(Writer writer) {
+        this.writer = writer;
+        this.stream = null;
+        this.encoder = null;
+        this.bytes = null;
+    }
+
+    DirectStreamWriter(OutputStream stream) {
+        this.writer = null;
+        this.stream = stream;
+        this.encoder = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.bytes = new byte[(int) (BUFFER_SIZE * encoder.maxBytesPerChar())];
+    }
+
+    @Override
+    public void writeStartElement(String localName) throws XMLStreamException {
+        startElement(localName);
+    }
+
+    @Override
+    public void writeStartElement(String namespaceURI, String localName) throws XMLStreamException {
+        startElement(qName(boundPrefix(namespaceURI), localName));
+    }
+
+    @Override
+    public void writeStartElement(String prefix, String localName, String namespaceURI) throws XMLStreamException {
+        startElement(qName(prefix, localName));
+    }
+
+    @Override
+    public void writeEmptyElement(String namespaceURI, String localName) throws XMLStreamException {
+        writeStartElement(namespaceURI, localName);
+        emptyElement = true;
+    }
+
+    @Override
+    public void writeEmptyElement(String prefix, String localName, String namespaceURI) throws XMLStreamException {
+        writeStartElement(prefix, localName, namespaceURI);
+        emptyElement = true;
+    }
+
+    @Override
+    public void writeEmptyElement(String localName) throws XMLStreamException {
+        writeStartElement(localName);
+        emptyElement = true;
+    }
+
+    @Override
+    public void writeEndElement() throws XMLStreamException {
+        if (emptyElement) {
+            closeStartTag();
+        }
+        if (depth == 0) {
+            throw new XMLStreamException("No element to end");
+        }
+        String qName = openElements[--depth];
+        if (startTagOpen) {
+            startTagOpen = false;
+            emptyElement = false;
+            append("/>");
+        } else {
+            append("</");
+            append(qName);
+            append('>');
+        }
+        unbind();
+    }
+
+    @Override
+    public void writeEndDocument() throws XMLStreamException {
+        while (depth > 0) {
+            writeEndElement();
+        }
+    }
+
+    @Override
+    public void close() throws XMLStreamException {
+        flush();
+    }
+
+    @Override
+    public void flush() throws XMLStreamException {
+        closeStartTag();
+        flushBuffer();
+        try {
+            if (writer != null) {
+                writer.flush();
+            } else {
+                stream.flush();
+            }
+        } catch (IOException e) {
+            throw new XMLStreamException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void writeAttribute(String localName, String value) throws XMLStreamException {
+        attribute(localName, value);
+    }
+
+    @Override
+    public void writeAttribute(String prefix, String namespaceURI, String localName, String value) throws XMLStreamException {
+        attribute(qName(prefix, localName), value);
+    }
+
+    @Override
+    public void writeAttribute(String namespaceURI, String localName, String value) throws XMLStreamException {
+        attribute(qName(boundPrefix(namespaceURI), localName), value);
+    }
+
+    @Override
+    public void writeNamespace(String prefix, String namespaceURI) throws XMLStreamException {
+        if (prefix == null || prefix.isEmpty() || XMLConstants.XMLNS_ATTRIBUTE.equals(prefix)) {
+            writeDefaultNamespace(namespaceURI);
+            return;
+        }
+        attribute(XMLConstants.XMLNS_ATTRIBUTE + ':' + prefix, namespaceURI);
+        bind(prefix, namespaceURI, depth);
+    }
+
+    @Override
+    public void writeDefaultNamespace(String namespaceURI) throws XMLStreamException {
+        attribute(XMLConstants.XMLNS_ATTRIBUTE, namespaceURI);
+        bind(XMLConstants.DEFAULT_NS_PREFIX, namespaceURI, depth);
+    }
+
+    @Override
+    public void writeComment(String data) throws XMLStreamException {
+        closeStartTag();
+        append("<!--");
+        append(data);
+        append("-->");
+    }
+
+    @Override
+    public void writeProcessingInstruction(String target) throws XMLStreamException {
+        writeProcessingInstruction(target, null);
+    }
+
+    @Override
+    public void writeProcessingInstruction(String target, String data) throws XMLStreamException {
+        closeStartTag();
+        append("<?");
+        append(target);
+        if (data != null && !data.isEmpty()) {
+            append(' ');
+            append(data);
+        }
+        append("?>");
+    }
+
+    @Override
+    public void writeCData(String data) throws XMLStreamException {
+        closeStartTag();
+        append("<![CDATA[");
+        append(data);
+        append("]]>");
+    }
+
+    @Override
+    public void writeDTD(String dtd) throws XMLStreamException {
+        append(dtd);
+    }
+
+    @Override
+    public void writeEntityRef(String name) throws XMLStreamException {
+        closeStartTag();
+        append('&');
+        append(name);
+        append(';');
+    }
+
+    @Override
+    public void writeStartDocument() throws XMLStreamException {
+        writeStartDocument(StandardCharsets.UTF_8.name(), "1.0");
+    }
+
+    @Override
+    public void writeStartDocument(String version) throws XMLStreamException {
+        writeStartDocument(StandardCharsets.UTF_8.name(), version);
+    }
+
+    @Override
+    public void writeStartDocument(String encoding, String version) throws XMLStreamException {
+        append("<?xml version=\"");
+        append(version);
+        append("\" encoding=\"");
+        append(encoding);
+        append("\"?>");
+    }
+
+    @Override
+    public void writeCharacters(String text) throws XMLStreamException {
+        closeStartTag();
+        escape(text, false);
+    }
+
+    @Override
+    public void writeCharacters(char[] text, int start, int len) throws XMLStreamException {
+        writeCharacters(new String(text, start, len));
+    }
+
+    @Override
+    public String getPrefix(String uri) {
+        for (int i = boundCount - 1; i >= 0; i--) {
+            if (boundNamespaces[i].equals(uri)) {
+                return boundPrefixes[i];
+            }
+        }
+        return rootContext == null ? null : rootContext.getPrefix(uri);
+    }
+
+    @Override
+    public void setPrefix(String prefix, String uri) {
+        bind(prefix, uri, depth + (startTagOpen ? 0 : 1));
+    }
+
+    @Override
+    public void setDefaultNamespace(String uri) {
+        setPrefix(XMLConstants.DEFAULT_NS_PREFIX, uri);
+    }
+
+    @Override
+    public void setNamespaceContext(NamespaceContext context) {
+        this.rootContext = context;
+    }
+
+    @Override
+    public NamespaceContext getNamespaceContext() {
+        return new NamespaceContext() {
+            @Override
+            public String getNamespaceURI(String prefix) {
+                for (int i = boundCount - 1; i >= 0; i--) {
+                    if (boundPrefixes[i].equals(prefix)) {
+                        return boundNamespaces[i];
+                    }
+                }
+                String namespaceURI = rootContext == null ? null : rootContext.getNamespaceURI(prefix);
+                if (namespaceURI != null) {
+                    return namespaceURI;
+                }
+                return XMLConstants.DEFAULT_NS_PREFIX.equals(prefix) ? XMLConstants.NULL_NS_URI : null;
+            }
+
+            @Override
+            public String getPrefix(String namespaceURI) {
+                return DirectStreamWriter.this.getPrefix(namespaceURI);
+            }
+
+            @Override
+            public Iterator<String> getPrefixes(String namespaceURI) {
+                String prefix = getPrefix(namespaceURI);
+                return prefix == null ? Collections.emptyIterator() : Collections.singletonList(prefix).iterator();
+            }
+        };
+    }
+
+    @Override
+    public Object getProperty(String name) {
+        throw new IllegalArgumentException("Unsupported property: " + name);
+    }
+
+    private void startElement(String qName) throws XMLStreamException {
+        closeStartTag();
+        if (depth == openElements.length) {
+            openElements = Arrays.copyOf(openElements, depth * 2);
+        }
+        openElements[depth++] = qName;
+        append('<');
+        append(qName);
+        startTagOpen = true;
+    }
+
+    private void attribute(String qName, String value) throws XMLStreamException {
+        if (!startTagOpen) {
+            throw new XMLStreamException("Attribute [" + qName + "] outside of a start tag");
+        }
+        append(' ');
+        append(qName);
+        append("=\"");
+        escape(value, true);
+        append('"');
+    }
+
+    private void closeStartTag() throws XMLStreamException {
+        if (!startTagOpen) {
+            return;
+        }
+        startTagOpen = false;
+        if (emptyElement) {
+            emptyElement = false;
+            depth--;
+            append("/>");
+            unbind();
+        } else {
+            append('>');
+        }
+    }
+
+    private String boundPrefix(String namespaceURI) throws XMLStreamException {
+        String prefix = getPrefix(namespaceURI);
+        if (prefix == null) {
+            throw new XMLStreamException("Namespace [" + namespaceURI + "] is not bound to a prefix");
+        }
+        return prefix;
+    }
+
+    private void bind(String prefix, String namespaceURI, int bindingDepth) {
+        if (boundCount == boundPrefixes.length) {
+            boundPrefixes = Arrays.copyOf(boundPrefixes, boundCount * 2);
+            boundNamespaces = Arrays.copyOf(boundNamespaces, boundCount * 2);
+            boundDepths = Arrays.copyOf(boundDepths, boundCount * 2);
+        }
+        boundPrefixes[boundCount] = prefix;
+        boundNamespaces[boundCount] = namespaceURI;
+        boundDepths[boundCount++] = bindingDepth;
+    }
+
+    /**
+     * Drops the namespaces declared on the element just ended.
+     */
+    private void unbind() {
+        while (boundCount > 0 && boundDepths[boundCount - 1] > depth) {
+            boundCount--;
+        }
+    }
+
+    private void escape(String text, boolean attribute) throws XMLStreamException {
+        int length = text.length();
+        int start = 0;
+        for (int i = 0; i < length; i++) {
+            String entity = switch (text.charAt(i)) {
+                case '&' -> "&amp;";
+                case '<' -> "&lt;";
+                case '>' -> "&gt;";
+                case '"' -> attribute ? "&quot;" : null;
+                default -> null;
+            };
+            if (entity != null) {
+                append(text, start, i);
+                append(entity);
+                start = i + 1;
+            }
+        }
+        append(text, start, length);
+    }
+
+    private void append(char c) throws XMLStreamException {
+        if (count == BUFFER_SIZE) {
+            flushBuffer();
+        }
+        buffer[count++] = c;
+    }
+
+    private void append(String text) throws XMLStreamException {
+        append(text, 0, text.length());
+    }
+
+    private void append(String text, int start, int end) throws XMLStreamException {
+        while (start < end) {
+            if (count == BUFFER_SIZE) {
+                flushBuffer();
+            }
+            int chunk = Math.min(end - start, BUFFER_SIZE - count);
+            text.getChars(start, start + chunk, buffer, count);
+            count += chunk;
+            start += chunk;
+        }
+    }
+
+    /**
+     * Passes the buffered chars to the target; a high surrogate at the end of the buffer stays there until its low surrogate arrives.
+     */
+    private void flushBuffer() throws XMLStreamException {
+        try {
+            if (writer != null) {
+                writer.write(buffer, 0, count);
+                count = 0;
+                return;
+            }
+            CharBuffer chars = CharBuffer.wrap(buffer, 0, count);
+            ByteBuffer encoded = ByteBuffer.wrap(bytes);
+            encoder.encode(chars, encoded, false);
+            stream.write(bytes, 0, encoded.position());
+            count = chars.remaining();
+            System.arraycopy(buffer, chars.position(), buffer, 0, count);
+        } catch (IOException e) {
+            throw new XMLStreamException(e.getMessage(), e);
+        }
+    }
+
+    private static String qName(String prefix, String localName) {
+        return prefix == null || prefix.isEmpty() ? localName : prefix + ':' + localName;
+    }
+}
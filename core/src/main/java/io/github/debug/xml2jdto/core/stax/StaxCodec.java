@@ -0,0 +1,57 @@
+package io.github.debug.xml2jdto.core.stax;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamException;
+
+/**
+ * Reflection-free StAX reader and writer of one generated root element class.
+ * <p>
+ * The implementations are generated by the {@code -Xxml2jdto-stax} XJC plugin next to the DTO classes and are registered through a
+ * {@link StaxCodecProvider}; they read and write the fields of the DTO directly, in straight-line code derived from the XSD content model. A codec
+ * is stateless and thread safe.
+ * </p>
+ *
+ * @param <T>
+ *            the type of the DTO
+ * @author scheffer.imrich
+ */
+public interface StaxCodec<T> {
+
+    /**
+     * Returns the DTO class of the codec.
+     *
+     * @return the DTO class of the codec
+     */
+    Class<T> type();
+
+    /**
+     * Returns the name of the root element of the DTO class, the name of its {@code XmlRootElement}.
+     *
+     * @return the name of the root element
+     */
+    QName rootElement();
+
+    /**
+     * Creates a DTO and reads its attributes and content. The reader of the context is positioned on the start of the root element, and is left on
+     * its end.
+     *
+     * @param context
+     *            the context of the document
+     * @return the DTO
+     * @throws XMLStreamException
+     *             if the document is malformed, or an invalid value is not accepted by the event handler of the context
+     */
+    T read(StaxReadContext context) throws XMLStreamException;
+
+    /**
+     * Writes the DTO as the root element.
+     *
+     * @param value
+     *            the DTO, not null
+     * @param context
+     *            the context of the document
+     * @throws XMLStreamException
+     *             if the writer fails
+     */
+    void write(T value, StaxWriteContext context) throws XMLStreamException;
+}
@@ -0,0 +1,23 @@
+package io.github.debug.xml2jdto.core.stax;
+
+import java.util.List;
+
+/**
+ * Service provider of the generated {@link StaxCodec} classes of a Java package.
+ * <p>
+ * The {@code -Xxml2jdto-stax} XJC plugin generates one provider per DTO package and lists them in
+ * {@code META-INF/services/io.github.debug.xml2jdto.core.stax.StaxCodecProvider}, so {@link StaxCodecs} finds them with the
+ * {@link java.util.ServiceLoader}.
+ * </p>
+ *
+ * @author scheffer.imrich
+ */
+public interface StaxCodecProvider {
+
+    /**
+     * Returns the codecs of the package.
+     *
+     * @return the codecs of the root element classes of the package
+     */
+    List<StaxCodec<?>> codecs();
+}
@@ -0,0 +1,237 @@
+package io.github.debug.xml2jdto.core.stax;
+
+import java.io.OutputStream;
+import java.io.Writer;
+import java.text.MessageFormat;
+import java.util.Optional;
+import java.util.ServiceLoader;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+import javax.xml.validation.ValidatorHandler;
+
+import jakarta.xml.bind.ValidationEventHandler;
+
+import io.github.debug.xml2jdto.core.collection.StringTable;
+import io.github.debug.xml2jdto.core.exception.ExBuilder;
+import io.github.debug.xml2jdto.core.exception.InvalidMethodParameterException;
+import io.github.debug.xml2jdto.core.exception.Xml2jDtoException;
+import io.github.debug.xml2jdto.core.jaxb.JaxbUtil;
+
+/**
+ * Registry and entry points of the StAX codecs generated by the {@code -Xxml2jdto-stax} XJC plugin.
+ * <p>
+ * The generated codecs bind the XML of the root element classes without the reflection and the per call machinery of JAXB; the
+ * {@link io.github.debug.xml2jdto.core.jaxb.Xml2jDto engine} uses them automatically for the classes that have one and falls back to JAXB for the
+ * rest. Schema validation runs in the same pass through a {@link ValidatorHandler}, the same component the JAXB unmarshaller and marshaller
+ * validate with.
+ * </p>
+ * <p>
+ * The codecs are looked up with the {@link ServiceLoader} of {@link StaxCodecProvider} from the class loader of the DTO class, once per class; the
+ * result is held in a {@link ClassValue}, which does not keep the DTO classes and their class loaders alive.
+ * </p>
+ *
+ * @author scheffer.imrich
+ */
+public final class StaxCodecs {
+
+    private static final Logger LOGGER = Logger.getLogger(StaxCodecs.class.getName());
+
+    private static final ClassValue<Optional<StaxCodec<?>>> CODECS = new ClassValue<>() {
+        @Override
+        protected Optional<StaxCodec<?>> computeValue(Class<?> type) {
+            return lookup(type);
+        }
+    };
+
+    private StaxCodecs() {
+        super();
+    }
+
+    /**
+     * Checks whether a StAX codec has been generated for the class.
+     *
+     * @param type
+     *            the DTO class
+     * @return true if the class is a root element class with a generated codec
+     */
+    public static boolean isSupported(Class<?> type) {
+        return type != null && CODECS.get(type).isPresent();
+    }
+
+    /**
+     * Returns the generated StAX codec of the class.
+     *
+     * @param <T>
+     *            the type of the DTO
+     * @param type
+     *            the DTO class
+     * @return the codec
+     * @throws InvalidMethodParameterException
+     *             if the type is null
+     * @throws Xml2jDtoException
+     *             if no codec has been generated for the class
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> StaxCodec<T> codec(Class<T> type) {
+        if (type == null) {
+            throw new InvalidMethodParameterException(JaxbUtil.CLAZZ_NULL_MSG);
+        }
+        return (StaxCodec<T>) CODECS.get(type)
+                .orElseThrow(() -> ExBuilder.newXml2jDtoException()
+                        .withMessage("No StAX codec for class [{0}], generate it with the -Xxml2jdto-stax XJC plugin!", type.getName())
+                        .build());
+    }
+
+    /**
+     * Reads a whole document with the codec: the root element is bound, the rest of the document is only checked to be well-formed.
+     *
+     * @param <T>
+     *            the type of the DTO
+     * @param codec
+     *            the codec of the root element
+     * @param reader
+     *            the reader of the document, before or on the start of the root element
+     * @param eventHandler
+     *            the handler of the validation events, null for the behaviour of the default JAXB handler
+     * @return the DTO
+     * @throws XMLStreamException
+     *             if the document is malformed, the root element has another name, or a validation event is not accepted by the handler
+     */
+    public static <T> T read(StaxCodec<T> codec, XMLStreamReader reader, ValidationEventHandler eventHandler) throws XMLStreamException {
+        return read(codec, reader, eventHandler, null);
+    }
+
+    /**
+     * Reads a whole document with the codec like {@link #read(StaxCodec, XMLStreamReader, ValidationEventHandler)}, deduplicating the values of the
+     * string properties with the table.
+     *
+     * @param <T>
+     *            the type of the DTO
+     * @param codec
+     *            the codec of the root element
+     * @param reader
+     *            the reader of the document, before or on the start of the root element
+     * @param eventHandler
+     *            the handler of the validation events, null for the behaviour of the default JAXB handler
+     * @param strings
+     *            the table deduplicating the string values, null to keep every value
+     * @return the DTO
+     * @throws XMLStreamException
+     *             if the document is malformed, the root element has another name, or a validation event is not accepted by the handler
+     */
+    public static <T> T read(StaxCodec<T> codec, XMLStreamReader reader, ValidationEventHandler eventHandler, StringTable strings)
+            throws XMLStreamException {
+        StaxReadContext context = new StaxReadContext(reader, eventHandler, strings);
+        QName root = codec.rootElement();
+        boolean onElement = reader.getEventType() == XMLStreamConstants.START_ELEMENT || context.nextElement();
+        if (!onElement || !context.isElement(root.getNamespaceURI(), root.getLocalPart())) {
+            throw new XMLStreamException(
+                    MessageFormat.format(
+                            "unexpected element (uri:\"{0}\", local:\"{1}\"). Expected element is <{2}>",
+                            reader.getNamespaceURI() == null ? "" : reader.getNamespaceURI(),
+                            reader.getLocalName(),
+                            root),
+                    reader.getLocation());
+        }
+        T value = codec.read(context);
+        while (reader.hasNext()) {
+            reader.next();
+        }
+        return value;
+    }
+
+    /**
+     * Writes the DTO as a whole document with the codec, without the XML declaration, and flushes the writer.
+     *
+     * @param <T>
+     *            the type of the DTO
+     * @param codec
+     *            the codec of the root element
+     * @param value
+     *            the DTO, not null
+     * @param writer
+     *            the writer of the document
+     * @throws XMLStreamException
+     *             if the writer fails
+     */
+    public static <T> void write(StaxCodec<T> codec, T value, XMLStreamWriter writer) throws XMLStreamException {
+        codec.write(value, new StaxWriteContext(writer));
+        writer.writeEndDocument();
+        writer.flush();
+    }
+
+    /**
+     * Wraps a reader, so every event read through the wrapper is validated by the handler. The errors are reported to the error handler of the
+     * validator handler.
+     *
+     * @param reader
+     *            the reader of the document, before the root element
+     * @param validatorHandler
+     *            the validator, e.g. from {@link javax.xml.validation.Schema#newValidatorHandler()}
+     * @return the validating reader
+     * @throws XMLStreamException
+     *             if the validator rejects the start of the document
+     */
+    public static XMLStreamReader validating(XMLStreamReader reader, ValidatorHandler validatorHandler) throws XMLStreamException {
+        return new ValidatingStreamReader(reader, validatorHandler);
+    }
+
+    /**
+     * Wraps a writer, so everything written through the wrapper is validated by the handler. The errors are reported to the error handler of the
+     * validator handler.
+     *
+     * @param writer
+     *            the writer of the document
+     * @param validatorHandler
+     *            the validator, e.g. from {@link javax.xml.validation.Schema#newValidatorHandler()}
+     * @return the validating writer
+     * @throws XMLStreamException
+     *             if the validator rejects the start of the document
+     */
+    public static XMLStreamWriter validating(XMLStreamWriter writer, ValidatorHandler validatorHandler) throws XMLStreamException {
+        return new ValidatingStreamWriter(writer, validatorHandler);
+    }
+
+    /**
+     * Creates a writer for the generated codecs, encoding the document to UTF-8 into the stream. The writer does not repair namespaces and does not
+     * write the XML declaration, unless asked by {@link XMLStreamWriter#writeStartDocument()}.
+     *
+     * @param target
+     *            the stream of the document, not closed by the writer
+     * @return the writer
+     */
+    public static XMLStreamWriter newWriter(OutputStream target) {
+        return new DirectStreamWriter(target);
+    }
+
+    /**
+     * Creates a writer for the generated codecs, writing the document into the writer. The writer does not repair namespaces and does not write the
+     * XML declaration, unless asked by {@link XMLStreamWriter#writeStartDocument()}.
+     *
+     * @param target
+     *            the writer of the document, not closed by the writer
+     * @return the writer
+     */
+    public static XMLStreamWriter newWriter(Writer target) {
+        return new DirectStreamWriter(target);
+    }
+
+    private static Optional<StaxCodec<?>> lookup(Class<?> type) {
+        ClassLoader classLoader = type.getClassLoader() != null ? type.getClassLoader() : Thread.currentThread().getContextClassLoader();
+        for (StaxCodecProvider provider : ServiceLoader.load(StaxCodecProvider.class, classLoader)) {
+            for (StaxCodec<?> codec : provider.codecs()) {
+                if (codec.type() == type) {
+                    LOGGER.log(Level.FINE, "StAX codec of [{0}]: [{1}]", new Object[] { type.getName(), codec.getClass().getName() });
+                    return Optional.of(codec);
+                }
+            }
+        }
+        return Optional.empty();
+    }
+}
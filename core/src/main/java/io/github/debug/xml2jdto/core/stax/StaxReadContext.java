@@ -0,0 +1,575 @@
+package io.github.debug.xml2jdto.core.stax;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.text.MessageFormat;
+
+import javax.xml.XMLConstants;
+import javax.xml.datatype.DatatypeConfigurationException;
+import javax.xml.datatype.DatatypeFactory;
+import javax.xml.datatype.Duration;
+import javax.xml.datatype.XMLGregorianCalendar;
+import javax.xml.namespace.QName;
+import javax.xml.stream.Location;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import jakarta.xml.bind.DatatypeConverter;
+import jakarta.xml.bind.ValidationEvent;
+import jakarta.xml.bind.ValidationEventHandler;
+import jakarta.xml.bind.annotation.adapters.CollapsedStringAdapter;
+import jakarta.xml.bind.annotation.adapters.NormalizedStringAdapter;
+import jakarta.xml.bind.helpers.ValidationEventImpl;
+import jakarta.xml.bind.helpers.ValidationEventLocatorImpl;
+
+import io.github.debug.xml2jdto.core.collection.StringTable;
+import io.github.debug.xml2jdto.core.exception.ExBuilder;
+
+/**
+ * State of the reading of one document by the generated {@link StaxCodec} classes, with the helpers of the generated code.
+ * <p>
+ * Problems the JAXB unmarshaller reports as validation events are reported the same way to the {@link ValidationEventHandler} of the context:
+ * unexpected elements, unknown {@code xsi:type} names and values that cannot be parsed. If the handler accepts the event, the element or value is
+ * skipped and the reading continues, otherwise it ends in an {@link XMLStreamException}. Without a handler unexpected elements are skipped silently
+ * and every other event ends the reading, like the default handler of JAXB.
+ * </p>
+ * <p>
+ * The lexical values are parsed like the JAXB runtime parses them, with {@link DatatypeConverter} and {@link DatatypeFactory}. A context is not
+ * thread safe and is meant for a single document.
+ * </p>
+ *
+ * @author scheffer.imrich
+ */
+public final class StaxReadContext {
+
+    /**
+     * Maximum nesting depth of the elements read by the generated codecs, every nested element is a recursive call.
+     */
+    public static final int MAX_DEPTH = 1024;
+
+    private static final CollapsedStringAdapter COLLAPSED_STRING_ADAPTER = new CollapsedStringAdapter();
+
+    private static final NormalizedStringAdapter NORMALIZED_STRING_ADAPTER = new NormalizedStringAdapter();
+
+    private final XMLStreamReader reader;
+
+    private final ValidationEventHandler eventHandler;
+
+    private final StringTable strings;
+
+    private int depth;
+
+    /**
+     * Creates the context of a document.
+     *
+     * @param reader
+     *            the reader of the document
+     * @param eventHandler
+     *            the handler of the validation events, null for the behaviour of the default JAXB handler
+     */
+    public StaxReadContext(XMLStreamReader reader, ValidationEventHandler eventHandler) {
+        this(reader, eventHandler, null);
+    }
+
+    /**
+     * Creates the context of a document, deduplicating the string values.
+     *
+     * @param reader
+     *            the reader of the document
+     * @param eventHandler
+     *            the handler of the validation events, null for the behaviour of the default JAXB handler
+     * @param strings
+     *            the table deduplicating the values of the string properties, null to keep every value
+     */
+    public StaxReadContext(XMLStreamReader reader, ValidationEventHandler eventHandler, StringTable strings) {
+        this.reader = reader;
+        this.eventHandler = eventHandler;
+        this.strings = strings;
+    }
+
+    /**
+     * Returns the reader of the document.
+     *
+     * @return the reader of the document
+     */
+    public XMLStreamReader reader() {
+        return reader;
+    }
+
+    /**
+     * Checks the name of the current start element.
+     *
+     * @param namespace
+     *            the namespace URI, empty for no namespace
+     * @param localName
+     *            the local name
+     * @return true if the current element has the given name
+     */
+    public boolean isElement(String namespace, String localName) {
+        return localName.equals(reader.getLocalName()) && namespace.equals(nullToEmpty(reader.getNamespaceURI()));
+    }
+
+    /**
+     * Returns the number of attributes of the current start element.
+     *
+     * @return the number of attributes
+     */
+    public int attributeCount() {
+        return reader.getAttributeCount();
+    }
+
+    /**
+     * Checks the name of an attribute of the current start element.
+     *
+     * @param index
+     *            the index of the attribute
+     * @param namespace
+     *            the namespace URI, empty for no namespace
+     * @param localName
+     *            the local name
+     * @return true if the attribute has the given name
+     */
+    public boolean isAttribute(int index, String namespace, String localName) {
+        return localName.equals(reader.getAttributeLocalName(index)) && namespace.equals(nullToEmpty(reader.getAttributeNamespace(index)));
+    }
+
+    /**
+     * Returns the value of an attribute of the current start element.
+     *
+     * @param index
+     *            the index of the attribute
+     * @return the normalized value of the attribute
+     */
+    public String attributeValue(int index) {
+        return reader.getAttributeValue(index);
+    }
+
+    /**
+     * Marks the start of the content of a nested element, limiting the nesting depth, so a hostile document cannot exhaust the stack of the
+     * recursive reading.
+     *
+     * @throws XMLStreamException
+     *             if the elements are nested deeper than {@value #MAX_DEPTH}
+     */
+    public void enterElement() throws XMLStreamException {
+        if (++depth > MAX_DEPTH) {
+            throw new XMLStreamException("Elements nested deeper than " + MAX_DEPTH, reader.getLocation());
+        }
+    }
+
+    /**
+     * Marks the end of the content of a nested element started by {@link #enterElement()}.
+     */
+    public void exitElement() {
+        depth--;
+    }
+
+    /**
+     * Moves to the next child element of the current element, skipping text, comments and processing instructions.
+     *
+     * @return true if the reader is on the start of a child element, false if it is on the end of the current element
+     * @throws XMLStreamException
+     *             if the document is malformed or ends
+     */
+    public boolean nextElement() throws XMLStreamException {
+        while (true) {
+            switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    return true;
+                case XMLStreamConstants.END_ELEMENT:
+                    return false;
+                case XMLStreamConstants.END_DOCUMENT:
+                    throw new XMLStreamException("Unexpected end of document", reader.getLocation());
+                default:
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Reads the text content of the current element, leaving the reader on the end of the element.
+     *
+     * @return the text content
+     * @throws XMLStreamException
+     *             if the element has child elements or the document is malformed
+     */
+    public String text() throws XMLStreamException {
+        return reader.getElementText();
+    }
+
+    /**
+     * Skips the current element and its content, leaving the reader on the end of the element.
+     *
+     * @throws XMLStreamException
+     *             if the document is malformed
+     */
+    public void skipElement() throws XMLStreamException {
+        int level = 1;
+        while (level > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                level++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                level--;
+            }
+        }
+    }
+
+    /**
+     * Reports and skips the current element, which is not a property of the class being read.
+     *
+     * @throws XMLStreamException
+     *             if the event handler does not accept the event, or the document is malformed
+     */
+    public void unexpectedElement() throws XMLStreamException {
+        if (eventHandler != null) {
+            String message = MessageFormat.format("unexpected element (uri:\"{0}\", local:\"{1}\")", nullToEmpty(reader.getNamespaceURI()),
+                    reader.getLocalName());
+            report(ValidationEvent.ERROR, message, null);
+        }
+        skipElement();
+    }
+
+    /**
+     * Returns the {@code xsi:type} of the current start element.
+     *
+     * @return the resolved type name, or null if the element has no {@code xsi:type} attribute
+     * @throws XMLStreamException
+     *             if the prefix of the type name is not bound and the event handler does not accept the event
+     */
+    public QName xsiType() throws XMLStreamException {
+        String lexical = reader.getAttributeValue(XMLConstants.W3C_XML_SCHEMA_INSTANCE_NS_URI, "type");
+        if (lexical == null) {
+            return null;
+        }
+        String name = COLLAPSED_STRING_ADAPTER.unmarshal(lexical);
+        int colon = name.indexOf(':');
+        String prefix = colon < 0 ? XMLConstants.DEFAULT_NS_PREFIX : name.substring(0, colon);
+        String namespace = reader.getNamespaceContext().getNamespaceURI(prefix);
+        if (namespace == null || (colon >= 0 && namespace.isEmpty())) {
+            report(ValidationEvent.ERROR, MessageFormat.format("undefined prefix of type name: {0}", name), null);
+            return null;
+        }
+        return new QName(namespace, name.substring(colon + 1));
+    }
+
+    /**
+     * Reports an {@code xsi:type} that is not a known subtype of the type of the current element.
+     *
+     * @param type
+     *            the type name
+     * @throws XMLStreamException
+     *             if the event handler does not accept the event
+     */
+    public void unknownType(QName type) throws XMLStreamException {
+        report(ValidationEvent.ERROR, MessageFormat.format("unrecognized type name: {0}", type), null);
+    }
+
+    /**
+     * Reports an abstract type that cannot be instantiated, because the current element has no {@code xsi:type} of a concrete subtype.
+     *
+     * @param type
+     *            the DTO class of the type
+     * @throws XMLStreamException
+     *             if the event handler does not accept the event
+     */
+    public void abstractType(Class<?> type) throws XMLStreamException {
+        report(ValidationEvent.ERROR, MessageFormat.format("Unable to create an instance of {0}", type.getName()), null);
+    }
+
+    /**
+     * Reports a lexical value that cannot be parsed, e.g. an unknown enum value.
+     *
+     * @param lexical
+     *            the lexical value
+     * @param cause
+     *            the exception of the parser
+     * @throws XMLStreamException
+     *             if the event handler does not accept the event
+     */
+    public void invalidValue(String lexical, Exception cause) throws XMLStreamException {
+        String message = cause.getMessage() != null ? cause.getMessage() : MessageFormat.format("Invalid value: {0}", lexical);
+        report(ValidationEvent.ERROR, message, cause);
+    }
+
+    /**
+     * Parses an {@code xs:boolean} value.
+     *
+     * @param lexical
+     *            the lexical value
+     * @return the value, or null if it is invalid and the event handler accepts the event
+     * @throws XMLStreamException
+     *             if the value is invalid and the event handler does not accept the event
+     */
+    public Boolean parseBoolean(String lexical) throws XMLStreamException {
+        switch (lexical.strip()) {
+            case "true", "1":
+                return Boolean.TRUE;
+            case "false", "0":
+                return Boolean.FALSE;
+            default:
+                invalidValue(lexical, new IllegalArgumentException("Not a boolean: " + lexical));
+                return null;
+        }
+    }
+
+    /**
+     * Parses an {@code xs:byte} value.
+     *
+     * @param lexical
+     *            the lexical value
+     * @return the value, or null if it is invalid and the event handler accepts the event
+     * @throws XMLStreamException
+     *             if the value is invalid and the event handler does not accept the event
+     */
+    public Byte parseByte(String lexical) throws XMLStreamException {
+        try {
+            return DatatypeConverter.parseByte(lexical);
+        } catch (IllegalArgumentException e) {
+            invalidValue(lexical, e);
+            return null;
+        }
+    }
+
+    /**
+     * Parses an {@code xs:short} value.
+     *
+     * @param lexical
+     *            the lexical value
+     * @return the value, or null if it is invalid and the event handler accepts the event
+     * @throws XMLStreamException
+     *             if the value is invalid and the event handler does not accept the event
+     */
+    public Short parseShort(String lexical) throws XMLStreamException {
+        try {
+            return DatatypeConverter.parseShort(lexical);
+        } catch (IllegalArgumentException e) {
+            invalidValue(lexical, e);
+            return null;
+        }
+    }
+
+    /**
+     * Parses an {@code xs:int} value.
+     *
+     * @param lexical
+     *            the lexical value
+     * @return the value, or null if it is invalid and the event handler accepts the event
+     * @throws XMLStreamException
+     *             if the value is invalid and the event handler does not accept the event
+     */
+    public Integer parseInt(String lexical) throws XMLStreamException {
+        try {
+            return DatatypeConverter.parseInt(lexical);
+        } catch (IllegalArgumentException e) {
+            invalidValue(lexical, e);
+            return null;
+        }
+    }
+
+    /**
+     * Parses an {@code xs:long} value.
+     *
+     * @param lexical
+     *            the lexical value
+     * @return the value, or null if it is invalid and the event handler accepts the event
+     * @throws XMLStreamException
+     *             if the value is invalid and the event handler does not accept the event
+     */
+    public Long parseLong(String lexical) throws XMLStreamException {
+        try {
+            return DatatypeConverter.parseLong(lexical);
+        } catch (IllegalArgumentException e) {
+            invalidValue(lexical, e);
+            return null;
+        }
+    }
+
+    /**
+     * Parses an {@code xs:float} value, including {@code INF}, {@code -INF} and {@code NaN}.
+     *
+     * @param lexical
+     *            the lexical value
+     * @return the value, or null if it is invalid and the event handler accepts the event
+     * @throws XMLStreamException
+     *             if the value is invalid and the event handler does not accept the event
+     */
+    public Float parseFloat(String lexical) throws XMLStreamException {
+        try {
+            return DatatypeConverter.parseFloat(lexical);
+        } catch (IllegalArgumentException e) {
+            invalidValue(lexical, e);
+            return null;
+        }
+    }
+
+    /**
+     * Parses an {@code xs:double} value, including {@code INF}, {@code -INF} and {@code NaN}.
+     *
+     * @param lexical
+     *            the lexical value
+     * @return the value, or null if it is invalid and the event handler accepts the event
+     * @throws XMLStreamException
+     *             if the value is invalid and the event handler does not accept the event
+     */
+    public Double parseDouble(String lexical) throws XMLStreamException {
+        try {
+            return DatatypeConverter.parseDouble(lexical);
+        } catch (IllegalArgumentException e) {
+            invalidValue(lexical, e);
+            return null;
+        }
+    }
+
+    /**
+     * Parses an {@code xs:integer} value.
+     *
+     * @param lexical
+     *            the lexical value
+     * @return the value, or null if it is invalid and the event handler accepts the event
+     * @throws XMLStreamException
+     *             if the value is invalid and the event handler does not accept the event
+     */
+    public BigInteger parseInteger(String lexical) throws XMLStreamException {
+        try {
+            return DatatypeConverter.parseInteger(lexical);
+        } catch (IllegalArgumentException e) {
+            invalidValue(lexical, e);
+            return null;
+        }
+    }
+
+    /**
+     * Parses an {@code xs:decimal} value.
+     *
+     * @param lexical
+     *            the lexical value
+     * @return the value, or null if it is invalid and the event handler accepts the event
+     * @throws XMLStreamException
+     *             if the value is invalid and the event handler does not accept the event
+     */
+    public BigDecimal parseDecimal(String lexical) throws XMLStreamException {
+        try {
+            return DatatypeConverter.parseDecimal(lexical);
+        } catch (IllegalArgumentException e) {
+            invalidValue(lexical, e);
+            return null;
+        }
+    }
+
+    /**
+     * Parses an {@code xs:base64Binary} value.
+     *
+     * @param lexical
+     *            the lexical value
+     * @return the value, or null if it is invalid and the event handler accepts the event
+     * @throws XMLStreamException
+     *             if the value is invalid and the event handler does not accept the event
+     */
+    public byte[] parseBase64Binary(String lexical) throws XMLStreamException {
+        try {
+            return DatatypeConverter.parseBase64Binary(lexical);
+        } catch (IllegalArgumentException e) {
+            invalidValue(lexical, e);
+            return null;
+        }
+    }
+
+    /**
+     * Parses a date or time value, e.g. {@code xs:dateTime} or {@code xs:date}.
+     *
+     * @param lexical
+     *            the lexical value
+     * @return the value, or null if it is invalid and the event handler accepts the event
+     * @throws XMLStreamException
+     *             if the value is invalid and the event handler does not accept the event
+     */
+    public XMLGregorianCalendar parseCalendar(String lexical) throws XMLStreamException {
+        try {
+            return DatatypeFactoryHolder.INSTANCE.newXMLGregorianCalendar(lexical.strip());
+        } catch (IllegalArgumentException e) {
+            invalidValue(lexical, e);
+            return null;
+        }
+    }
+
+    /**
+     * Parses an {@code xs:duration} value.
+     *
+     * @param lexical
+     *            the lexical value
+     * @return the value, or null if it is invalid and the event handler accepts the event
+     * @throws XMLStreamException
+     *             if the value is invalid and the event handler does not accept the event
+     */
+    public Duration parseDuration(String lexical) throws XMLStreamException {
+        try {
+            return DatatypeFactoryHolder.INSTANCE.newDuration(lexical.strip());
+        } catch (IllegalArgumentException | UnsupportedOperationException e) {
+            invalidValue(lexical, e);
+            return null;
+        }
+    }
+
+    /**
+     * Returns the value of a string property, the equal instance of the string table of the context if it has one.
+     *
+     * @param value
+     *            the value, may be null
+     * @return the value to store
+     */
+    public String string(String value) {
+        return strings == null ? value : strings.intern(value);
+    }
+
+    /**
+     * Collapses the white space of a value like {@link CollapsedStringAdapter}, the adapter of {@code xs:token} and its subtypes.
+     *
+     * @param lexical
+     *            the lexical value
+     * @return the collapsed value
+     */
+    public String collapse(String lexical) {
+        return COLLAPSED_STRING_ADAPTER.unmarshal(lexical);
+    }
+
+    /**
+     * Normalizes the white space of a value like {@link NormalizedStringAdapter}, the adapter of {@code xs:normalizedString}.
+     *
+     * @param lexical
+     *            the lexical value
+     * @return the normalized value
+     */
+    public String normalize(String lexical) {
+        return NORMALIZED_STRING_ADAPTER.unmarshal(lexical);
+    }
+
+    private void report(int severity, String message, Throwable cause) throws XMLStreamException {
+        Location location = reader.getLocation();
+        ValidationEventLocatorImpl locator = new ValidationEventLocatorImpl();
+        locator.setLineNumber(location.getLineNumber());
+        locator.setColumnNumber(location.getColumnNumber());
+        locator.setOffset(location.getCharacterOffset());
+        if (eventHandler == null || !eventHandler.handleEvent(new ValidationEventImpl(severity, message, locator, cause))) {
+            throw new XMLStreamException(message, location, cause);
+        }
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? XMLConstants.NULL_NS_URI : value;
+    }
+
+    private static final class DatatypeFactoryHolder {
+
+        private static final DatatypeFactory INSTANCE = create();
+
+        private static DatatypeFactory create() {
+            try {
+                return DatatypeFactory.newInstance();
+            } catch (DatatypeConfigurationException e) {
+                throw ExBuilder.newXml2jDtoException().withMessage("Failed to create DatatypeFactory: [{0}]", e.getLocalizedMessage()).withCause(e).build();
+            }
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package io.github.debug.xml2jdto.core.stax;
+
+import java.util.Arrays;
+
+import javax.xml.XMLConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import io.github.debug.xml2jdto.core.exception.ExBuilder;
+import io.github.debug.xml2jdto.core.exception.Xml2jDtoException;
+
+/**
+ * State of the writing of one document by the generated {@link StaxCodec} classes, with the helpers of the generated code.
+ * <p>
+ * The context binds the namespace prefixes itself: the root element declares the namespaces the generated codec knows to be reachable from the root
+ * class as {@code ns1}, {@code ns2}, ... and the XML Schema instance namespace as {@code xsi}, so the rest of the document needs no declarations; a
+ * namespace that is not bound yet is declared on the element that uses it. The default namespace is never bound, so unqualified elements need no
+ * undeclaration. A context is not thread safe and is meant for a single document.
+ * </p>
+ *
+ * @author scheffer.imrich
+ */
+public final class StaxWriteContext {
+
+    private static final String PREFIX = "ns";
+
+    private static final String XSI_PREFIX = "xsi";
+
+    private final XMLStreamWriter writer;
+
+    private String[] boundNamespaces = new String[8];
+
+    private String[] boundPrefixes = new String[8];
+
+    private int[] boundDepths = new int[8];
+
+    private int boundCount;
+
+    private int prefixCount;
+
+    private int depth;
+
+    /**
+     * Creates the context of a document.
+     *
+     * @param writer
+     *            the writer of the document
+     */
+    public StaxWriteContext(XMLStreamWriter writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * Returns the writer of the document.
+     *
+     * @return the writer of the document
+     */
+    public XMLStreamWriter writer() {
+        return writer;
+    }
+
+    /**
+     * Writes the start of an element, declaring its namespace if it is not bound yet.
+     *
+     * @param namespace
+     *            the namespace URI, empty for no namespace
+     * @param localName
+     *            the local name
+     * @throws XMLStreamException
+     *             if the writer fails
+     */
+    public void startElement(String namespace, String localName) throws XMLStreamException {
+        depth++;
+        if (namespace.isEmpty()) {
+            writer.writeStartElement(XMLConstants.DEFAULT_NS_PREFIX, localName, XMLConstants.NULL_NS_URI);
+            return;
+        }
+        String prefix = prefix(namespace);
+        if (prefix != null) {
+            writer.writeStartElement(prefix, localName, namespace);
+        } else {
+            prefix = newPrefix(namespace);
+            writer.writeStartElement(prefix, localName, namespace);
+            writer.writeNamespace(prefix, namespace);
+        }
+    }
+
+    /**
+     * Declares the namespaces on the current start element, typically the root element, that are not bound yet.
+     *
+     * @param namespaces
+     *            the namespace URIs
+     * @throws XMLStreamException
+     *             if the writer fails
+     */
+    public void declareNamespaces(String... namespaces) throws XMLStreamException {
+        for (String namespace : namespaces) {
+            bindPrefix(namespace);
+        }
+    }
+
+    /**
+     * Writes an attribute of the current start element, declaring its namespace if it is not bound yet.
+     *
+     * @param namespace
+     *            the namespace URI, empty for no namespace
+     * @param localName
+     *            the local name
+     * @param value
+     *            the lexical value
+     * @throws XMLStreamException
+     *             if the writer fails
+     */
+    public void attribute(String namespace, String localName, String value) throws XMLStreamException {
+        if (namespace.isEmpty()) {
+            writer.writeAttribute(localName, value);
+        } else {
+            writer.writeAttribute(bindPrefix(namespace), namespace, localName, value);
+        }
+    }
+
+    /**
+     * Writes the {@code xsi:type} attribute of the current start element, the name of the subtype of the value.
+     *
+     * @param namespace
+     *            the namespace URI of the type name, empty for no namespace
+     * @param localName
+     *            the local name of the type name
+     * @throws XMLStreamException
+     *             if the writer fails
+     */
+    public void xsiType(String namespace, String localName) throws XMLStreamException {
+        String typeName = namespace.isEmpty() ? localName : bindPrefix(namespace) + ':' + localName;
+        attribute(XMLConstants.W3C_XML_SCHEMA_INSTANCE_NS_URI, "type", typeName);
+    }
+
+    /**
+     * Writes text content of the current element.
+     *
+     * @param text
+     *            the text, escaped by the writer
+     * @throws XMLStreamException
+     *             if the writer fails
+     */
+    public void text(String text) throws XMLStreamException {
+        writer.writeCharacters(text);
+    }
+
+    /**
+     * Writes an element with text content.
+     *
+     * @param namespace
+     *            the namespace URI, empty for no namespace
+     * @param localName
+     *            the local name
+     * @param text
+     *            the text, escaped by the writer
+     * @throws XMLStreamException
+     *             if the writer fails
+     */
+    public void simpleElement(String namespace, String localName, String text) throws XMLStreamException {
+        startElement(namespace, localName);
+        writer.writeCharacters(text);
+        endElement();
+    }
+
+    /**
+     * Writes the end of the current element and drops the namespaces declared on it.
+     *
+     * @throws XMLStreamException
+     *             if the writer fails
+     */
+    public void endElement() throws XMLStreamException {
+        writer.writeEndElement();
+        while (boundCount > 0 && boundDepths[boundCount - 1] == depth) {
+            boundCount--;
+        }
+        depth--;
+    }
+
+    /**
+     * Creates the exception of a value whose class is not known by the generated codec of a polymorphic property.
+     *
+     * @param value
+     *            the value
+     * @return the exception to be thrown
+     */
+    public static Xml2jDtoException unknownSubtype(Object value) {
+        return ExBuilder.newXml2jDtoException().withMessage("No StAX codec subtype for class [{0}]", value.getClass().getName()).build();
+    }
+
+    private String prefix(String namespace) {
+        for (int i = boundCount - 1; i >= 0; i--) {
+            if (boundNamespaces[i].equals(namespace)) {
+                return boundPrefixes[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the prefix of the namespace, declared on the current start element if it is not bound yet
+     */
+    private String bindPrefix(String namespace) throws XMLStreamException {
+        String prefix = prefix(namespace);
+        if (prefix == null) {
+            prefix = newPrefix(namespace);
+            writer.writeNamespace(prefix, namespace);
+        }
+        return prefix;
+    }
+
+    private String newPrefix(String namespace) {
+        String prefix = XMLConstants.W3C_XML_SCHEMA_INSTANCE_NS_URI.equals(namespace) ? XSI_PREFIX : PREFIX + ++prefixCount;
+        if (boundCount == boundNamespaces.length) {
+            boundNamespaces = Arrays.copyOf(boundNamespaces, boundCount << 1);
+            boundPrefixes = Arrays.copyOf(boundPrefixes, boundCount << 1);
+            boundDepths = Arrays.copyOf(boundDepths, boundCount << 1);
+        }
+        boundNamespaces[boundCount] = namespace;
+        boundPrefixes[boundCount] = prefix;
+        boundDepths[boundCount++] = depth;
+        return prefix;
+    }
+}
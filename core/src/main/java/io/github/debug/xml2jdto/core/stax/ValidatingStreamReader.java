@@ -0,0 +1,186 @@
+package io.github.debug.xml2jdto.core.stax;
+
+import javax.xml.XMLConstants;
+import javax.xml.stream.Location;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.util.StreamReaderDelegate;
+import javax.xml.validation.ValidatorHandler;
+
+import org.xml.sax.Locator;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.AttributesImpl;
+
+/**
+ * Reader passing every event it reads to a {@link ValidatorHandler}, so the document is validated in the same single pass that binds it, the way the
+ * JAXB unmarshaller validates.
+ * <p>
+ * {@link #getElementText()} and {@link #nextTag()} are implemented with {@link #next()}, the delegated methods would read past the validator.
+ * </p>
+ *
+ * @author scheffer.imrich
+ */
+final class ValidatingStreamReader extends StreamReaderDelegate {
+
+    private final ValidatorHandler validatorHandler;
+
+    private final AttributesImpl attributes = new AttributesImpl();
+
+    ValidatingStreamReader(XMLStreamReader reader, ValidatorHandler validatorHandler) throws XMLStreamException {
+        super(reader);
+        this.validatorHandler = validatorHandler;
+        validatorHandler.setDocumentLocator(new ReaderLocator(reader));
+        try {
+            validatorHandler.startDocument();
+        } catch (SAXException e) {
+            throw new XMLStreamException(e.getMessage(), reader.getLocation(), e);
+        }
+        if (reader.getEventType() == XMLStreamConstants.START_ELEMENT) {
+            validate(XMLStreamConstants.START_ELEMENT);
+        }
+    }
+
+    @Override
+    public int next() throws XMLStreamException {
+        int event = super.next();
+        validate(event);
+        return event;
+    }
+
+    @Override
+    public int nextTag() throws XMLStreamException {
+        int event = next();
+        while (event == XMLStreamConstants.SPACE || event == XMLStreamConstants.COMMENT || event == XMLStreamConstants.PROCESSING_INSTRUCTION
+                || (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA) && isWhiteSpace()) {
+            event = next();
+        }
+        if (event != XMLStreamConstants.START_ELEMENT && event != XMLStreamConstants.END_ELEMENT) {
+            throw new XMLStreamException("expected start or end tag", getLocation());
+        }
+        return event;
+    }
+
+    @Override
+    public String getElementText() throws XMLStreamException {
+        if (getEventType() != XMLStreamConstants.START_ELEMENT) {
+            throw new XMLStreamException("parser must be on START_ELEMENT to read next text", getLocation());
+        }
+        StringBuilder text = null;
+        String single = null;
+        for (int event = next(); event != XMLStreamConstants.END_ELEMENT; event = next()) {
+            switch (event) {
+                case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA, XMLStreamConstants.SPACE, XMLStreamConstants.ENTITY_REFERENCE:
+                    if (single == null) {
+                        single = getText();
+                    } else {
+                        if (text == null) {
+                            text = new StringBuilder(single);
+                        }
+                        text.append(getText());
+                    }
+                    break;
+                case XMLStreamConstants.PROCESSING_INSTRUCTION, XMLStreamConstants.COMMENT:
+                    break;
+                case XMLStreamConstants.START_ELEMENT:
+                    throw new XMLStreamException("element text content may not contain START_ELEMENT", getLocation());
+                default:
+                    throw new XMLStreamException("Unexpected event type " + event, getLocation());
+            }
+        }
+        if (text != null) {
+            return text.toString();
+        }
+        return single == null ? "" : single;
+    }
+
+    private void validate(int event) throws XMLStreamException {
+        try {
+            switch (event) {
+                case XMLStreamConstants.START_ELEMENT:
+                    startElement();
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    validatorHandler.endElement(namespace(getNamespaceURI()), getLocalName(), qName(getPrefix(), getLocalName()));
+                    for (int i = getNamespaceCount() - 1; i >= 0; i--) {
+                        validatorHandler.endPrefixMapping(prefix(getNamespacePrefix(i)));
+                    }
+                    break;
+                case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA, XMLStreamConstants.SPACE:
+                    validatorHandler.characters(getTextCharacters(), getTextStart(), getTextLength());
+                    break;
+                case XMLStreamConstants.END_DOCUMENT:
+                    validatorHandler.endDocument();
+                    break;
+                default:
+                    break;
+            }
+        } catch (SAXException e) {
+            throw new XMLStreamException(e.getMessage(), getLocation(), e);
+        }
+    }
+
+    private void startElement() throws SAXException {
+        for (int i = 0; i < getNamespaceCount(); i++) {
+            validatorHandler.startPrefixMapping(prefix(getNamespacePrefix(i)), namespace(getNamespaceURI(i)));
+        }
+        attributes.clear();
+        for (int i = 0; i < getAttributeCount(); i++) {
+            attributes.addAttribute(
+                    namespace(getAttributeNamespace(i)),
+                    getAttributeLocalName(i),
+                    qName(getAttributePrefix(i), getAttributeLocalName(i)),
+                    getAttributeType(i),
+                    getAttributeValue(i));
+        }
+        validatorHandler.startElement(namespace(getNamespaceURI()), getLocalName(), qName(getPrefix(), getLocalName()), attributes);
+    }
+
+    private static String prefix(String prefix) {
+        return prefix == null ? XMLConstants.DEFAULT_NS_PREFIX : prefix;
+    }
+
+    private static String namespace(String namespace) {
+        return namespace == null ? XMLConstants.NULL_NS_URI : namespace;
+    }
+
+    private static String qName(String prefix, String localName) {
+        return prefix == null || prefix.isEmpty() ? localName : prefix + ':' + localName;
+    }
+
+    /**
+     * The location of the reader as SAX locator, the position of the validation events.
+     */
+    private static final class ReaderLocator implements Locator {
+
+        private final XMLStreamReader reader;
+
+        private ReaderLocator(XMLStreamReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public String getPublicId() {
+            return location().getPublicId();
+        }
+
+        @Override
+        public String getSystemId() {
+            return location().getSystemId();
+        }
+
+        @Override
+        public int getLineNumber() {
+            return location().getLineNumber();
+        }
+
+        @Override
+        public int getColumnNumber() {
+            return location().getColumnNumber();
+        }
+
+        private Location location() {
+            return reader.getLocation();
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package io.github.debug.xml2jdto.core.stax;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import javax.xml.XMLConstants;
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import javax.xml.validation.ValidatorHandler;
+
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.AttributesImpl;
+
+/**
+ * Writer passing every element, attribute and text it writes to a {@link ValidatorHandler}, so the document is validated while it is written, the
+ * way the JAXB marshaller validates.
+ * <p>
+ * The attributes follow their start element in the StAX API, so the start of an element is passed to the validator when its first content, child or
+ * end is written.
+ * </p>
+ *
+ * @author scheffer.imrich
+ */
+final class ValidatingStreamWriter implements XMLStreamWriter {
+
+    private static final String CDATA = "CDATA";
+
+    private final XMLStreamWriter writer;
+
+    private final ValidatorHandler validatorHandler;
+
+    private final Deque<Element> elements = new ArrayDeque<>();
+
+    private final AttributesImpl attributes = new AttributesImpl();
+
+    private Element pending;
+
+    ValidatingStreamWriter(XMLStreamWriter writer, ValidatorHandler validatorHandler) throws XMLStreamException {
+        this.writer = writer;
+        this.validatorHandler = validatorHandler;
+        try {
+            validatorHandler.startDocument();
+        } catch (SAXException e) {
+            throw new XMLStreamException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void writeStartElement(String localName) throws XMLStreamException {
+        writer.writeStartElement(localName);
+        start(namespace(writer.getNamespaceContext().getNamespaceURI(XMLConstants.DEFAULT_NS_PREFIX)), localName, localName);
+    }
+
+    @Override
+    public void writeStartElement(String namespaceURI, String localName) throws XMLStreamException {
+        writer.writeStartElement(namespaceURI, localName);
+        start(namespaceURI, localName, qName(writer.getPrefix(namespaceURI), localName));
+    }
+
+    @Override
+    public void writeStartElement(String prefix, String localName, String namespaceURI) throws XMLStreamException {
+        writer.writeStartElement(prefix, localName, namespaceURI);
+        start(namespaceURI, localName, qName(prefix, localName));
+    }
+
+    @Override
+    public void writeEmptyElement(String namespaceURI, String localName) throws XMLStreamException {
+        writer.writeEmptyElement(namespaceURI, localName);
+        start(namespaceURI, localName, qName(writer.getPrefix(namespaceURI), localName));
+        end();
+    }
+
+    @Override
+    public void writeEmptyElement(String prefix, String localName, String namespaceURI) throws XMLStreamException {
+        writer.writeEmptyElement(prefix, localName, namespaceURI);
+        start(namespaceURI, localName, qName(prefix, localName));
+        end();
+    }
+
+    @Override
+    public void writeEmptyElement(String localName) throws XMLStreamException {
+        writer.writeEmptyElement(localName);
+        start(namespace(writer.getNamespaceContext().getNamespaceURI(XMLConstants.DEFAULT_NS_PREFIX)), localName, localName);
+        end();
+    }
+
+    @Override
+    public void writeEndElement() throws XMLStreamException {
+        writer.writeEndElement();
+        end();
+    }
+
+    @Override
+    public void writeEndDocument() throws XMLStreamException {
+        writer.writeEndDocument();
+        while (pending != null || !elements.isEmpty()) {
+            end();
+        }
+        try {
+            validatorHandler.endDocument();
+        } catch (SAXException e) {
+            throw new XMLStreamException(e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void close() throws XMLStreamException {
+        writer.close();
+    }
+
+    @Override
+    public void flush() throws XMLStreamException {
+        writer.flush();
+    }
+
+    @Override
+    public void writeAttribute(String localName, String value) throws XMLStreamException {
+        writer.writeAttribute(localName, value);
+        attributes.addAttribute(XMLConstants.NULL_NS_URI, localName, localName, CDATA, value);
+    }
+
+    @Override
+    public void writeAttribute(String prefix, String namespaceURI, String localName, String value) throws XMLStreamException {
+        writer.writeAttribute(prefix, namespaceURI, localName, value);
+        attributes.addAttribute(namespaceURI, localName, qName(prefix, localName), CDATA, value);
+    }
+
+    @Override
+    public void writeAttribute(String namespaceURI, String localName, String value) throws XMLStreamException {
+        writer.writeAttribute(namespaceURI, localName, value);
+        attributes.addAttribute(namespaceURI, localName, qName(writer.getPrefix(namespaceURI), localName), CDATA, value);
+    }
+
+    @Override
+    public void writeNamespace(String prefix, String namespaceURI) throws XMLStreamException {
+        writer.writeNamespace(prefix, namespaceURI);
+        declare(prefix == null ? XMLConstants.DEFAULT_NS_PREFIX : prefix, namespaceURI);
+    }
+
+    @Override
+    public void writeDefaultNamespace(String namespaceURI) throws XMLStreamException {
+        writer.writeDefaultNamespace(namespaceURI);
+        declare(XMLConstants.DEFAULT_NS_PREFIX, namespaceURI);
+    }
+
+    @Override
+    public void writeComment(String data) throws XMLStreamException {
+        writer.writeComment(data);
+    }
+
+    @Override
+    public void writeProcessingInstruction(String target) throws XMLStreamException {
+        writer.writeProcessingInstruction(target);
+    }
+
+    @Override
+    public void writeProcessingInstruction(String target, String data) throws XMLStreamException {
+        writer.writeProcessingInstruction(target, data);
+    }
+
+    @Override
+    public void writeCData(String data) throws XMLStreamException {
+        writer.writeCData(data);
+        characters(data.toCharArray(), 0, data.length());
+    }
+
+    @Override
+    public void writeDTD(String dtd) throws XMLStreamException {
+        writer.writeDTD(dtd);
+    }
+
+    @Override
+    public void writeEntityRef(String name) throws XMLStreamException {
+        writer.writeEntityRef(name);
+    }
+
+    @Override
+    public void writeStartDocument() throws XMLStreamException {
+        writer.writeStartDocument();
+    }
+
+    @Override
+    public void writeStartDocument(String version) throws XMLStreamException {
+        writer.writeStartDocument(version);
+    }
+
+    @Override
+    public void writeStartDocument(String encoding, String version) throws XMLStreamException {
+        writer.writeStartDocument(encoding, version);
+    }
+
+    @Override
+    public void writeCharacters(String text) throws XMLStreamException {
+        writer.writeCharacters(text);
+        characters(text.toCharArray(), 0, text.length());
+    }
+
+    @Override
+    public void writeCharacters(char[] text, int start, int len) throws XMLStreamException {
+        writer.writeCharacters(text, start, len);
+        characters(text, start, len);
+    }
+
+    @Override
+    public String getPrefix(String uri) throws XMLStreamException {
+        return writer.getPrefix(uri);
+    }
+
+    @Override
+    public void setPrefix(String prefix, String uri) throws XMLStreamException {
+        writer.setPrefix(prefix, uri);
+    }
+
+    @Override
+    public void setDefaultNamespace(String uri) throws XMLStreamException {
+        writer.setDefaultNamespace(uri);
+    }
+
+    @Override
+    public void setNamespaceContext(NamespaceContext context) throws XMLStreamException {
+        writer.setNamespaceContext(context);
+    }
+
+    @Override
+    public NamespaceContext getNamespaceContext() {
+        return writer.getNamespaceContext();
+    }
+
+    @Override
+    public Object getProperty(String name) {
+        return writer.getProperty(name);
+    }
+
+    private void start(String namespaceURI, String localName, String qName) throws XMLStreamException {
+        flushStart();
+        pending = new Element(namespace(namespaceURI), localName, qName);
+    }
+
+    private void declare(String prefix, String namespaceURI) {
+        if (pending != null) {
+            pending.prefixes.add(prefix);
+            pending.namespaces.add(namespaceURI);
+        }
+    }
+
+    private void characters(char[] text, int start, int length) throws XMLStreamException {
+        flushStart();
+        try {
+            validatorHandler.characters(text, start, length);
+        } catch (SAXException e) {
+            throw new XMLStreamException(e.getMessage(), e);
+        }
+    }
+
+    private void end() throws XMLStreamException {
+        flushStart();
+        Element element = elements.pop();
+        try {
+            validatorHandler.endElement(element.namespaceURI, element.localName, element.qName);
+            for (int i = element.prefixes.size() - 1; i >= 0; i--) {
+                validatorHandler.endPrefixMapping(element.prefixes.get(i));
+            }
+        } catch (SAXException e) {
+            throw new XMLStreamException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Passes the pending start element to the validator, with the namespaces and attributes written since.
+     */
+    private void flushStart() throws XMLStreamException {
+        if (pending == null) {
+            return;
+        }
+        Element element = pending;
+        pending = null;
+        try {
+            for (int i = 0; i < element.prefixes.size(); i++) {
+                validatorHandler.startPrefixMapping(element.prefixes.get(i), element.namespaces.get(i));
+            }
+            validatorHandler.startElement(element.namespaceURI, element.localName, element.qName, attributes);
+        } catch (SAXException e) {
+            throw new XMLStreamException(e.getMessage(), e);
+        } finally {
+            attributes.clear();
+        }
+        elements.push(element);
+    }
+
+    private static String namespace(String namespace) {
+        return namespace == null ? XMLConstants.NULL_NS_URI : namespace;
+    }
+
+    private static String qName(String prefix, String localName) {
+        return prefix == null || prefix.isEmpty() ? localName : prefix + ':' + localName;
+    }
+
+    private static final class Element {
+
+        private final String namespaceURI;
+
+        private final String localName;
+
+        private final String qName;
+
+        private final List<String> prefixes = new ArrayList<>(0);
+
+        private final List<String> namespaces = new ArrayList<>(0);
+
+        private Element(String namespaceURI, String localName, String qName) {
+            this.namespaceURI = namespaceURI;
+            this.localName = localName;
+            this.qName = qName;
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package io.github.debug.xml2jdto.core.codec;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.xml.datatype.DatatypeFactory;
+import javax.xml.datatype.Duration;
+import javax.xml.datatype.XMLGregorianCalendar;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import io.github.debug.xml2jdto.core.dto.Person;
+import io.github.debug.xml2jdto.core.exception.InvalidMethodParameterException;
+import io.github.debug.xml2jdto.core.exception.Xml2jDtoException;
+
+@DisplayName("Binary Codec Tests")
+public class BinaryCodecsTest {
+
+    private enum Color {
+        RED, GREEN, BLUE
+    }
+
+    /**
+     * Hand written equivalent of a generated codec, registered in the test {@code META-INF/services}.
+     */
+    public static final class PersonCodec implements BinaryCodec<Person> {
+
+        @Override
+        public Class<Person> type() {
+            return Person.class;
+        }
+
+        @Override
+        public void write(Person value, BinaryWriter out) {
+            if (value.getName() != null) {
+                out.writeKey(1, BinaryWriter.STRING);
+                out.writeString(value.getName());
+            }
+            out.writeKey(2, BinaryWriter.VARINT);
+            out.writeInt(value.getAge());
+            out.writeEnd();
+        }
+
+        @Override
+        public Person read(BinaryReader in) {
+            Person value = new Person();
+            in.enterGroup();
+            for (int key = in.readKey(); key != 0; key = in.readKey()) {
+                switch (key) {
+                    case 1 << 3 | BinaryWriter.STRING -> value.setName(in.readString());
+                    case 2 << 3 | BinaryWriter.VARINT -> value.setAge(in.readInt());
+                    default -> in.skip(key);
+                }
+            }
+            in.exitGroup();
+            return value;
+        }
+    }
+
+    /**
+     * Provider of {@link PersonCodec}.
+     */
+    public static final class PersonCodecProvider implements BinaryCodecProvider {
+
+        @Override
+        public List<BinaryCodec<?>> codecs() {
+            return List.of(new PersonCodec());
+        }
+    }
+
+    private static Person person(String name, int age) {
+        Person person = new Person();
+        person.setName(name);
+        person.setAge(age);
+        return person;
+    }
+
+    @DisplayName("Writer and Reader Tests")
+    @Nested
+    class WriterReader {
+
+        @Test
+        public void testRoundTrip_withAllValueTypes() throws Exception {
+            XMLGregorianCalendar calendar = DatatypeFactory.newInstance().newXMLGregorianCalendar("2025-01-31T23:59:59.123Z");
+            Duration duration = DatatypeFactory.newInstance().newDuration("-P1Y2MT3.5S");
+            BinaryWriter out = new BinaryWriter();
+            out.writeBoolean(true);
+            out.writeInt(Integer.MIN_VALUE);
+            out.writeInt(-1);
+            out.writeLong(Long.MAX_VALUE);
+            out.writeFloat(Float.NaN);
+            out.writeDouble(-0.0d);
+            out.writeString("Árvíztűrő tükörfúrógép");
+            out.writeCalendar(calendar);
+            out.writeDuration(duration);
+            out.writeBytes(new byte[] { 0, -1, 127 });
+            out.writeBigInteger(new BigInteger("-123456789012345678901234567890"));
+            out.writeBigDecimal(new BigDecimal("1234.5600"));
+            out.writeEnum(Color.BLUE);
+
+            BinaryReader in = new BinaryReader(out.toByteArray());
+            Assertions.assertThat(in.readBoolean()).isTrue();
+            Assertions.assertThat(in.readInt()).isEqualTo(Integer.MIN_VALUE);
+            Assertions.assertThat(in.readInt()).isEqualTo(-1);
+            Assertions.assertThat(in.readLong()).isEqualTo(Long.MAX_VALUE);
+            Assertions.assertThat(in.readFloat()).isNaN();
+            Assertions.assertThat(Double.doubleToRawLongBits(in.readDouble())).isEqualTo(Double.doubleToRawLongBits(-0.0d));
+            Assertions.assertThat(in.readString()).isEqualTo("Árvíztűrő tükörfúrógép");
+            Assertions.assertThat(in.readCalendar()).isEqualTo(calendar);
+            Assertions.assertThat(in.readDuration()).isEqualTo(duration);
+            Assertions.assertThat(in.readBytes()).containsExactly(0, -1, 127);
+            Assertions.assertThat(in.readBigInteger()).isEqualTo(new BigInteger("-123456789012345678901234567890"));
+            Assertions.assertThat(in.readBigDecimal()).isEqualTo(new BigDecimal("1234.5600"));
+            Assertions.assertThat(in.readEnum(Color.values())).isEqualTo(Color.BLUE);
+            in.requireEnd();
+        }
+
+        @Test
+        public void testWriteInt_withSmallValues() {
+            BinaryWriter out = new BinaryWriter();
+            out.writeInt(-64);
+            out.writeInt(63);
+
+            // version byte and one byte per zigzag varint
+            Assertions.assertThat(out.size()).isEqualTo(3);
+        }
+
+        @Test
+        public void testWriteString_withRepeatedValues() {
+            String value = "a repeated string value";
+            BinaryWriter out = new BinaryWriter();
+            for (int i = 0; i < 100; i++) {
+                out.writeString(value);
+            }
+
+            Assertions.assertThat(out.size()).isLessThan(value.length() + 1 + 2 + 100);
+            BinaryReader in = new BinaryReader(out.toByteArray());
+            for (int i = 0; i < 100; i++) {
+                Assertions.assertThat(in.readString()).isEqualTo(value);
+            }
+        }
+
+        @Test
+        public void testWriteString_withLongValue() {
+            String value = "x".repeat(BinaryWriter.MAX_TABLE_STRING_LENGTH + 1);
+            BinaryWriter out = new BinaryWriter();
+            out.writeString(value);
+            out.writeString("short");
+            out.writeString(value);
+            out.writeString("short");
+
+            BinaryReader in = new BinaryReader(out.toByteArray());
+            Assertions.assertThat(List.of(in.readString(), in.readString(), in.readString(), in.readString()))
+                    .containsExactly(value, "short", value, "short");
+            Assertions.assertThat(out.size()).isGreaterThan(2 * value.length());
+        }
+
+        @Test
+        public void testSkip_withUnknownFields() {
+            BinaryWriter out = new BinaryWriter();
+            out.writeKey(7, BinaryWriter.STRING);
+            out.writeString("skipped");
+            out.writeKey(8, BinaryWriter.GROUP);
+            out.writeKey(1, BinaryWriter.FIXED64);
+            out.writeDouble(1.0d);
+            out.writeKey(2, BinaryWriter.TYPED_GROUP);
+            out.writeSubtype(3);
+            out.writeKey(1, BinaryWriter.BYTES);
+            out.writeBigDecimal(BigDecimal.TEN);
+            out.writeEnd();
+            out.writeEnd();
+            out.writeKey(9, BinaryWriter.FIXED32);
+            out.writeFloat(1.0f);
+            out.writeKey(10, BinaryWriter.STRING);
+            out.writeString("skipped");
+
+            BinaryReader in = new BinaryReader(out.toByteArray());
+            for (int i = 0; i < 3; i++) {
+                in.skip(in.readKey());
+            }
+            Assertions.assertThat(in.readKey()).isEqualTo(10 << 3 | BinaryWriter.STRING);
+            // the skipped literal is still in the string table
+            Assertions.assertThat(in.readString()).isEqualTo("skipped");
+            in.requireEnd();
+        }
+
+        @Test
+        public void testRead_withTruncatedData() {
+            BinaryWriter out = new BinaryWriter();
+            out.writeString("truncated");
+            byte[] data = out.toByteArray();
+            BinaryReader in = new BinaryReader(Arrays.copyOf(data, data.length - 1));
+
+            Assertions.assertThatThrownBy(in::readString).isInstanceOf(Xml2jDtoException.class).hasMessageContaining("truncated");
+        }
+
+        @Test
+        public void testRead_withUnknownVersion() {
+            Assertions.assertThatThrownBy(() -> new BinaryReader(new byte[] { 9 }))
+                    .isInstanceOf(Xml2jDtoException.class)
+                    .hasMessage("Unsupported binary format version [9]");
+            Assertions.assertThatThrownBy(() -> new BinaryReader(new byte[0])).isInstanceOf(Xml2jDtoException.class);
+        }
+
+        @Test
+        public void testRead_withInvalidEnumOrdinal() {
+            BinaryWriter out = new BinaryWriter();
+            out.writeSubtype(5);
+            BinaryReader in = new BinaryReader(out.toByteArray());
+
+            Assertions.assertThatThrownBy(() -> in.readEnum(Color.values())).isInstanceOf(Xml2jDtoException.class).hasMessageContaining("ordinal 5");
+        }
+
+        @Test
+        public void testSkip_withDeeplyNestedGroups() {
+            BinaryWriter out = new BinaryWriter();
+            for (int i = 0; i <= BinaryReader.MAX_GROUP_DEPTH; i++) {
+                out.writeKey(1, BinaryWriter.GROUP);
+            }
+            BinaryReader in = new BinaryReader(out.toByteArray());
+
+            Assertions.assertThatThrownBy(() -> in.skip(in.readKey())).isInstanceOf(Xml2jDtoException.class).hasMessageContaining("nested deeper");
+        }
+    }
+
+    @DisplayName("Registry Tests")
+    @Nested
+    class Registry {
+
+        @Test
+        public void testEncode_withRegisteredCodec() {
+            byte[] encoded = BinaryCodecs.encode(person("John", 30));
+
+            Person decoded = BinaryCodecs.decode(encoded, Person.class);
+            Assertions.assertThat(decoded.getName()).isEqualTo("John");
+            Assertions.assertThat(decoded.getAge()).isEqualTo(30);
+            Assertions.assertThat(BinaryCodecs.isSupported(Person.class)).isTrue();
+            Assertions.assertThat(BinaryCodecs.codec(Person.class)).isInstanceOf(PersonCodec.class);
+        }
+
+        @Test
+        public void testEncode_withNull() {
+            Assertions.assertThat(BinaryCodecs.encode(null)).isNull();
+            Assertions.assertThat(BinaryCodecs.decode(null, Person.class)).isNull();
+        }
+
+        @Test
+        public void testDecode_withNullType() {
+            Assertions.assertThatThrownBy(() -> BinaryCodecs.decode(new byte[] { 1 }, null)).isInstanceOf(InvalidMethodParameterException.class);
+        }
+
+        @Test
+        public void testEncode_withoutCodec() {
+            Assertions.assertThat(BinaryCodecs.isSupported(String.class)).isFalse();
+            Assertions.assertThatThrownBy(() -> BinaryCodecs.encode("text"))
+                    .isInstanceOf(Xml2jDtoException.class)
+                    .hasMessageStartingWith("No binary codec for class [java.lang.String]");
+        }
+
+        @Test
+        public void testDecode_withTrailingBytes() {
+            byte[] encoded = BinaryCodecs.encode(person("John", 30));
+            byte[] trailing = Arrays.copyOf(encoded, encoded.length + 1);
+
+            Assertions.assertThatThrownBy(() -> BinaryCodecs.decode(trailing, Person.class))
+                    .isInstanceOf(Xml2jDtoException.class)
+                    .hasMessageContaining("trailing bytes");
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package io.github.debug.xml2jdto.core.collection;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+@DisplayName("Primitive Lists Tests")
+public class PrimitiveListsTest {
+
+    @Test
+    public void testIntList_behavesLikeArrayList() {
+        IntList list = new IntList();
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            list.addInt(i * 3);
+            expected.add(i * 3);
+        }
+        list.add(0, -1);
+        expected.add(0, -1);
+        list.remove(50);
+        expected.remove(50);
+        list.set(10, 99);
+        expected.set(10, 99);
+        list.subList(20, 30).clear();
+        expected.subList(20, 30).clear();
+
+        Assertions.assertThat(list).isEqualTo(expected).hasSameHashCodeAs(expected);
+        Assertions.assertThat(list.indexOf(99)).isEqualTo(10);
+        Assertions.assertThat(list.contains(3L)).isFalse();
+        Assertions.assertThat(list.toIntArray()).containsExactly(expected.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    @Test
+    public void testIntList_rejectsNullAndBadIndex() {
+        IntList list = new IntList(0);
+        list.addInt(1);
+
+        Assertions.assertThatThrownBy(() -> list.add(null)).isInstanceOf(NullPointerException.class);
+        Assertions.assertThatThrownBy(() -> list.getInt(1)).isInstanceOf(IndexOutOfBoundsException.class);
+        Assertions.assertThatThrownBy(() -> new IntList(-1)).isInstanceOf(IllegalArgumentException.class);
+        Assertions.assertThat(list).containsExactly(1);
+    }
+
+    @Test
+    public void testIntList_iteratorFailsFast() {
+        IntList list = new IntList();
+        list.addInt(1);
+        list.addInt(2);
+        Iterator<Integer> iterator = list.iterator();
+        iterator.next();
+        list.addInt(3);
+
+        Assertions.assertThatThrownBy(iterator::next).isInstanceOf(ConcurrentModificationException.class);
+    }
+
+    @Test
+    public void testLongList_keepsFullRange() {
+        LongList list = new LongList();
+        list.addLong(Long.MIN_VALUE);
+        list.addLong(Long.MAX_VALUE);
+        list.trimToSize();
+
+        Assertions.assertThat(list).containsExactly(Long.MIN_VALUE, Long.MAX_VALUE);
+        Assertions.assertThat(list.getLong(1)).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    public void testDoubleList_equalsLikeDouble() {
+        DoubleList list = new DoubleList();
+        list.addDouble(Double.NaN);
+        list.addDouble(-0.0);
+
+        Assertions.assertThat(list.indexOf(Double.NaN)).isZero();
+        Assertions.assertThat(list.indexOf(0.0)).isEqualTo(-1);
+        Assertions.assertThat(list).isEqualTo(List.of(Double.NaN, -0.0));
+    }
+
+    @Test
+    public void testSerialization() throws Exception {
+        IntList list = new IntList();
+        list.addInt(5);
+        list.clear();
+        list.addInt(6);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(list);
+        }
+
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            Assertions.assertThat(in.readObject()).isEqualTo(List.of(6));
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package io.github.debug.xml2jdto.core.collection;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.github.debug.xml2jdto.core.exception.InvalidMethodParameterException;
+
+@DisplayName("String Table Tests")
+public class StringTableTest {
+
+    @Test
+    public void testIntern_returnsFirstInstance() {
+        StringTable table = new StringTable();
+        String first = new String("ACTIVE");
+        String second = new String("ACTIVE");
+
+        Assertions.assertThat(table.intern(first)).isSameAs(first);
+        Assertions.assertThat(table.intern(second)).isSameAs(first);
+        Assertions.assertThat(table.intern(null)).isNull();
+    }
+
+    @Test
+    public void testIntern_skipsLongValues() {
+        StringTable table = new StringTable();
+        String first = "x".repeat(StringTable.MAX_LENGTH + 1);
+        String second = new String(first);
+
+        table.intern(first);
+
+        Assertions.assertThat(table.intern(second)).isSameAs(second);
+    }
+
+    @Test
+    public void testIntern_evictsOnCollision() {
+        StringTable table = new StringTable(1);
+        String first = new String("A");
+
+        table.intern(first);
+        table.intern("B");
+
+        Assertions.assertThat(table.intern(new String("A"))).isEqualTo("A").isNotSameAs(first);
+    }
+
+    @Test
+    public void testSize_roundedUpToPowerOfTwo() {
+        Assertions.assertThat(new StringTable(1000).size()).isEqualTo(1024);
+        Assertions.assertThat(new StringTable(1).size()).isEqualTo(1);
+        Assertions.assertThatThrownBy(() -> new StringTable(0)).isInstanceOf(InvalidMethodParameterException.class);
+    }
+}
@@ -0,0 +1,30 @@
+package io.github.debug.xml2jdto.core.dto.order;
+
+import jakarta.xml.bind.annotation.XmlAccessType;
+import jakarta.xml.bind.annotation.XmlAccessorType;
+import jakarta.xml.bind.annotation.XmlRootElement;
+import jakarta.xml.bind.annotation.XmlType;
+
+@XmlRootElement(name = "item")
+@XmlAccessorType(XmlAccessType.FIELD)
+@XmlType(name = "item", propOrder = { "name", "quantity" })
+public class Item {
+    private String name;
+    private int quantity;
+
+    public String getName() {
+        return name;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public void setQuantity(int quantity) {
+        this.quantity = quantity;
+    }
+}
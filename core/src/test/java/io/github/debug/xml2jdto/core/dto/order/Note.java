@@ -0,0 +1,21 @@
+package io.github.debug.xml2jdto.core.dto.order;
+
+import jakarta.xml.bind.annotation.XmlAccessType;
+import jakarta.xml.bind.annotation.XmlAccessorType;
+import jakarta.xml.bind.annotation.XmlRootElement;
+import jakarta.xml.bind.annotation.XmlType;
+
+@XmlRootElement(name = "note")
+@XmlAccessorType(XmlAccessType.FIELD)
+@XmlType(name = "note", propOrder = { "text" })
+public class Note {
+    private String text;
+
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+}
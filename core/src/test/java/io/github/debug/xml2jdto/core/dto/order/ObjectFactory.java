@@ -0,0 +1,15 @@
+package io.github.debug.xml2jdto.core.dto.order;
+
+import jakarta.xml.bind.annotation.XmlRegistry;
+
+@XmlRegistry
+public class ObjectFactory {
+
+    public Order createOrder() {
+        return new Order();
+    }
+
+    public Item createItem() {
+        return new Item();
+    }
+}
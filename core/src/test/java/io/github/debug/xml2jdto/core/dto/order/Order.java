@@ -0,0 +1,29 @@
+package io.github.debug.xml2jdto.core.dto.order;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import jakarta.xml.bind.annotation.XmlAccessType;
+import jakarta.xml.bind.annotation.XmlAccessorType;
+import jakarta.xml.bind.annotation.XmlRootElement;
+import jakarta.xml.bind.annotation.XmlType;
+
+@XmlRootElement(name = "order")
+@XmlAccessorType(XmlAccessType.FIELD)
+@XmlType(name = "order", propOrder = { "id", "items" })
+public class Order {
+    private String id;
+    private List<Item> items = new ArrayList<>();
+
+    public String getId() {
+        return id;
+    }
+
+    public List<Item> getItems() {
+        return items;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+}
@@ -0,0 +1,64 @@
+package io.github.debug.xml2jdto.core.jaxb;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class BoundedCacheTest {
+
+    @Test
+    public void testComputeIfAbsent_evictsLeastRecentlyUsed() {
+        BoundedCache<String, String> cache = new BoundedCache<>(2, Xml2jDtoMetrics.NOOP, "test");
+
+        cache.computeIfAbsent("a", String::toUpperCase);
+        cache.computeIfAbsent("b", String::toUpperCase);
+        cache.computeIfAbsent("a", String::toUpperCase);
+        cache.computeIfAbsent("c", String::toUpperCase);
+
+        Assertions.assertThat(cache.snapshot()).containsOnlyKeys("a", "c");
+        Assertions.assertThat(cache.stats()).isEqualTo(new CacheStats(2, 2, 1, 3, 1));
+    }
+
+    @Test
+    public void testComputeIfAbsent_keepsEntryLoadedConcurrently() throws InterruptedException {
+        CountDownLatch published = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread[] loading = new Thread[1];
+        // holds the loading thread after the entry is published, before computeIfAbsent returns
+        Xml2jDtoMetrics metrics = new Xml2jDtoMetrics() {
+
+            @Override
+            public void increment(String name) {
+                if (Thread.currentThread() == loading[0]) {
+                    published.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+
+            @Override
+            public void recordNanos(String name, long nanos) {
+                // ignored
+            }
+        };
+        BoundedCache<String, String> cache = new BoundedCache<>(2, metrics, "test");
+        cache.put("old", "OLD");
+        loading[0] = new Thread(() -> cache.computeIfAbsent("new", String::toUpperCase));
+        loading[0].start();
+        try {
+            Assertions.assertThat(published.await(10, TimeUnit.SECONDS)).isTrue();
+
+            cache.computeIfAbsent("other", String::toUpperCase);
+
+            Assertions.assertThat(cache.snapshot()).containsOnlyKeys("new", "other");
+        } finally {
+            release.countDown();
+            loading[0].join();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package io.github.debug.xml2jdto.core.jaxb;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.github.debug.xml2jdto.core.dto.Person;
+import io.github.debug.xml2jdto.core.exception.InvalidMethodParameterException;
+import io.github.debug.xml2jdto.core.exception.Xml2jDtoException;
+
+public class CdsTrainingTest {
+
+    private static final String XSD_PATH = "xsd/valid-schema.xsd";
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    public void testTrain_withSampleAndWithout() throws Exception {
+        Person person = new Person();
+        person.setName("Test Name");
+        person.setAge(30);
+        person.setAddress("Test Address");
+        Path sample = directory.resolve("person.xml");
+        Files.writeString(sample, JaxbUtil.marshal(person), StandardCharsets.UTF_8);
+
+        int trained = CdsTraining.train(List.of(Person.class.getName() + "," + XSD_PATH + "," + sample, Person.class.getName() + "," + XSD_PATH));
+
+        Assertions.assertThat(trained).isEqualTo(2);
+    }
+
+    @Test
+    public void testTrain_withInvalidDocumentType() {
+        Assertions.assertThatThrownBy(() -> CdsTraining.train(List.of())).isInstanceOf(InvalidMethodParameterException.class);
+        Assertions.assertThatThrownBy(() -> CdsTraining.train(List.of(",xsd/valid-schema.xsd"))).isInstanceOf(InvalidMethodParameterException.class);
+        Assertions.assertThatThrownBy(() -> CdsTraining.train(List.of("com.example.Missing"))).isInstanceOf(Xml2jDtoException.class);
+    }
+}
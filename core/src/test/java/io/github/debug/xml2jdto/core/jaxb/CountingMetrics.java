@@ -0,0 +1,30 @@
+package io.github.debug.xml2jdto.core.jaxb;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Metrics sink counting the increments and the recorded durations per name.
+ *
+ * @author scheffer.imrich
+ */
+final class CountingMetrics implements Xml2jDtoMetrics {
+
+    private final Map<String, AtomicLong> counts = new ConcurrentHashMap<>();
+
+    @Override
+    public void increment(String name) {
+        counts.computeIfAbsent(name, key -> new AtomicLong()).incrementAndGet();
+    }
+
+    @Override
+    public void recordNanos(String name, long nanos) {
+        increment(name);
+    }
+
+    long count(String name) {
+        AtomicLong count = counts.get(name);
+        return count == null ? 0 : count.get();
+    }
+}
@@ -0,0 +1,107 @@
+package io.github.debug.xml2jdto.core.jaxb;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.github.debug.xml2jdto.core.exception.InvalidMethodParameterException;
+import io.github.debug.xml2jdto.core.exception.MalformedXmlException;
+import io.github.debug.xml2jdto.core.exception.Xml2jDtoException;
+
+public class FieldExtractorTest {
+
+    private static final String STORAGE_XML = "<s:Storage xmlns:s=\"urn:storage\" version=\"1.0\">"
+            + "<storageId> 42a </storageId><capacity>\n 1024 </capacity><ratio>1.5E2</ratio><active>1</active>"
+            + "<files name=\"a\"><size>10</size></files><files name=\"b\"><size>20</size></files><files><size>30</size></files>"
+            + "</s:Storage>";
+
+    private static final FieldExtractor EXTRACTOR = FieldExtractor.builder()
+            .string("id", "/Storage/storageId")
+            .intValue("capacity", "/Storage/capacity")
+            .longValue("firstSize", "//files/size")
+            .doubleValue("ratio", "/Storage/ratio")
+            .booleanValue("active", "/Storage/active")
+            .string("version", "/{urn:storage}Storage/@version")
+            .count("files", "/Storage/files")
+            .count("namedFiles", "/Storage/files/@name")
+            .build();
+
+    @Test
+    public void testExtract() {
+        ExtractedFields fields = EXTRACTOR.extract(STORAGE_XML.getBytes(StandardCharsets.UTF_8));
+
+        Assertions.assertThat(fields.getString("id")).isEqualTo(" 42a ");
+        Assertions.assertThat(fields.getInt("capacity", -1)).isEqualTo(1024);
+        Assertions.assertThat(fields.getLong("capacity", -1)).isEqualTo(1024);
+        Assertions.assertThat(fields.getLong("firstSize", -1)).isEqualTo(10);
+        Assertions.assertThat(fields.getDouble("ratio", -1)).isEqualTo(150.0);
+        Assertions.assertThat(fields.getBoolean("active", false)).isTrue();
+        Assertions.assertThat(fields.getString("version")).isEqualTo("1.0");
+        Assertions.assertThat(fields.getCount("files")).isEqualTo(3);
+        Assertions.assertThat(fields.getCount("namedFiles")).isEqualTo(2);
+        Assertions.assertThat(fields.isPresent("files")).isTrue();
+    }
+
+    @Test
+    public void testExtract_withMissingValues() {
+        ExtractedFields fields = EXTRACTOR.extract(new ByteArrayInputStream("<Storage/>".getBytes(StandardCharsets.UTF_8)));
+
+        Assertions.assertThat(fields.isPresent("id")).isFalse();
+        Assertions.assertThat(fields.getString("id")).isNull();
+        Assertions.assertThat(fields.getInt("capacity", -1)).isEqualTo(-1);
+        Assertions.assertThat(fields.getDouble("ratio", Double.NaN)).isNaN();
+        Assertions.assertThat(fields.getCount("files")).isZero();
+        Assertions.assertThat(EXTRACTOR.extract((byte[]) null)).isNull();
+    }
+
+    @Test
+    public void testExtract_stopsWhenValuesFound() {
+        FieldExtractor extractor = FieldExtractor.builder().string("id", "/Storage/storageId").intValue("capacity", "/Storage/capacity").build();
+        // the document is truncated after the values, the reader must not get that far
+        String xml = "<Storage><storageId>42</storageId><capacity>7</capacity><files><size>";
+
+        ExtractedFields fields = extractor.extract(xml.getBytes(StandardCharsets.UTF_8));
+
+        Assertions.assertThat(fields.getString("id")).isEqualTo("42");
+        Assertions.assertThat(fields.getInt("capacity", -1)).isEqualTo(7);
+    }
+
+    @Test
+    public void testExtract_withInvalidValues() {
+        FieldExtractor extractor = FieldExtractor.builder().doubleValue("value", "/a").build();
+        for (String value : new String[] { "1.5f", "0x10", "Infinity", "1e", "." }) {
+            Assertions.assertThatThrownBy(() -> extractor.extract(("<a>" + value + "</a>").getBytes(StandardCharsets.UTF_8)))
+                    .as(value)
+                    .isInstanceOf(Xml2jDtoException.class)
+                    .hasMessageContaining("Invalid DOUBLE value of field [value]");
+        }
+        Assertions.assertThat(extractor.extract("<a> -INF </a>".getBytes(StandardCharsets.UTF_8)).getDouble("value", 0))
+                .isEqualTo(Double.NEGATIVE_INFINITY);
+        Assertions.assertThatThrownBy(() -> FieldExtractor.builder().booleanValue("flag", "/a").build().extract("<a>yes</a>".getBytes()))
+                .isInstanceOf(Xml2jDtoException.class);
+        Assertions.assertThatThrownBy(() -> FieldExtractor.builder().intValue("number", "/a").build().extract("<a>2147483648</a>".getBytes()))
+                .isInstanceOf(Xml2jDtoException.class);
+    }
+
+    @Test
+    public void testExtract_withMalformedXml() {
+        Assertions.assertThatThrownBy(() -> EXTRACTOR.extract("<Storage><storageId>42</Storage>".getBytes(StandardCharsets.UTF_8)))
+                .isInstanceOf(MalformedXmlException.class);
+        Assertions.assertThatThrownBy(() -> EXTRACTOR.extract("<Storage><storageId><x/></storageId></Storage>".getBytes(StandardCharsets.UTF_8)))
+                .isInstanceOf(MalformedXmlException.class);
+    }
+
+    @Test
+    public void testBuilder_withInvalidFields() {
+        Assertions.assertThatThrownBy(() -> FieldExtractor.builder().build()).isInstanceOf(InvalidMethodParameterException.class);
+        Assertions.assertThatThrownBy(() -> FieldExtractor.builder().string("a", "/a").string("a", "/b"))
+                .isInstanceOf(InvalidMethodParameterException.class);
+        Assertions.assertThatThrownBy(() -> FieldExtractor.builder().string("a", "/a[1]")).isInstanceOf(InvalidMethodParameterException.class);
+        Assertions.assertThatThrownBy(() -> FieldExtractor.builder().string("a", "/a/@")).isInstanceOf(InvalidMethodParameterException.class);
+        Assertions.assertThatThrownBy(() -> EXTRACTOR.extract("<a/>".getBytes()).getInt("id", 0)).isInstanceOf(InvalidMethodParameterException.class);
+        Assertions.assertThatThrownBy(() -> EXTRACTOR.extract("<a/>".getBytes()).isPresent("unknown"))
+                .isInstanceOf(InvalidMethodParameterException.class);
+    }
+}
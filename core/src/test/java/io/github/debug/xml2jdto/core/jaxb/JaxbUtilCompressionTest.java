@@ -0,0 +1,218 @@
+package io.github.debug.xml2jdto.core.jaxb;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import io.github.debug.xml2jdto.core.dto.Person;
+import io.github.debug.xml2jdto.core.exception.InvalidMethodParameterException;
+import io.github.debug.xml2jdto.core.exception.InvalidXmlSchemaException;
+import io.github.debug.xml2jdto.core.exception.MalformedXmlException;
+import io.github.debug.xml2jdto.core.exception.Xml2jDtoException;
+
+@DisplayName("JaxbUtil Compression Tests")
+public class JaxbUtilCompressionTest {
+
+    private static final String XSD_PATH = "xsd/valid-schema.xsd";
+
+    private static final String VALID_XML = "<?xml version=\"1.0\" encoding=\"UTF-8\"?><person><name>John</name><age>30</age><address>Street</address></person>";
+
+    private static final String INVALID_XML = "<person><name>John</name><age>-1</age><address>Street</address></person>";
+
+    private static byte[] gzip(String xml) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (OutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(xml.getBytes(StandardCharsets.UTF_8));
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] deflate(String xml) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (OutputStream deflate = new DeflaterOutputStream(out)) {
+            deflate.write(xml.getBytes(StandardCharsets.UTF_8));
+        }
+        return out.toByteArray();
+    }
+
+    private static Person person() {
+        Person person = new Person();
+        person.setName("John íöüó");
+        person.setAge(30);
+        person.setAddress("Street");
+        return person;
+    }
+
+    @DisplayName("Unmarshal Tests")
+    @Nested
+    class Unmarshal {
+
+        @Test
+        public void withGzip() throws IOException {
+            Person result = JaxbUtil.unmarshalCompressed(new ByteArrayInputStream(gzip(VALID_XML)), Person.class, XSD_PATH);
+            Assertions.assertThat(result.getName()).isEqualTo("John");
+        }
+
+        @Test
+        public void withDeflate() throws IOException {
+            Person result = JaxbUtil.unmarshalCompressed(new ByteArrayInputStream(deflate(VALID_XML)), Person.class, XSD_PATH);
+            Assertions.assertThat(result.getName()).isEqualTo("John");
+        }
+
+        @Test
+        public void withUncompressed() {
+            Person result = JaxbUtil.unmarshalCompressed(new ByteArrayInputStream(VALID_XML.getBytes(StandardCharsets.UTF_8)), Person.class, null);
+            Assertions.assertThat(result.getAge()).isEqualTo(30);
+        }
+
+        @Test
+        public void withNullInputStream() {
+            Assertions.assertThat(JaxbUtil.unmarshalCompressed(null, Person.class, XSD_PATH)).isNull();
+        }
+
+        @Test
+        public void withInvalidXml() throws IOException {
+            ByteArrayInputStream input = new ByteArrayInputStream(gzip(INVALID_XML));
+            Assertions.assertThatThrownBy(() -> JaxbUtil.unmarshalCompressed(input, Person.class, XSD_PATH))
+                    .isInstanceOf(InvalidXmlSchemaException.class);
+        }
+
+        @Test
+        public void withCorruptGzipHeader() {
+            // gzip magic bytes followed by an invalid compression method
+            ByteArrayInputStream input = new ByteArrayInputStream(new byte[] { 0x1f, (byte) 0x8b, 0x01, 0x00 });
+            Assertions.assertThatThrownBy(() -> JaxbUtil.unmarshalCompressed(input, Person.class, null))
+                    .isInstanceOf(Xml2jDtoException.class)
+                    .hasMessageStartingWith("Failed to read compressed InputStream");
+        }
+
+        @Test
+        public void withTruncatedGzip() throws IOException {
+            byte[] gzip = gzip(VALID_XML);
+            ByteArrayInputStream input = new ByteArrayInputStream(gzip, 0, gzip.length / 2);
+            Assertions.assertThatThrownBy(() -> JaxbUtil.unmarshalCompressed(input, Person.class, null)).isInstanceOf(MalformedXmlException.class);
+        }
+
+        @Test
+        public void callerStreamNotClosed() throws IOException {
+            boolean[] closed = { false };
+            InputStream input = new FilterInputStream(new ByteArrayInputStream(gzip(VALID_XML))) {
+                @Override
+                public void close() throws IOException {
+                    closed[0] = true;
+                    super.close();
+                }
+            };
+            JaxbUtil.unmarshalCompressed(input, Person.class, null);
+            Assertions.assertThat(closed[0]).isFalse();
+        }
+    }
+
+    @DisplayName("Marshal Tests")
+    @Nested
+    class Marshal {
+
+        @Test
+        public void withGzip() throws IOException {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            JaxbUtil.marshalCompressed(person(), out, Compression.GZIP, XSD_PATH);
+
+            byte[] xml;
+            try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+                xml = in.readAllBytes();
+            }
+            Person result = JaxbUtil.unmarshal(new ByteArrayInputStream(xml), Person.class, XSD_PATH);
+            Assertions.assertThat(result.getName()).isEqualTo("John íöüó");
+        }
+
+        @Test
+        public void withDeflateRoundTrip() {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            JaxbUtil.marshalCompressed(person(), out, Compression.DEFLATE, XSD_PATH);
+
+            Person result = JaxbUtil.unmarshalCompressed(new ByteArrayInputStream(out.toByteArray()), Person.class, XSD_PATH);
+            Assertions.assertThat(result.getName()).isEqualTo("John íöüó");
+        }
+
+        @Test
+        public void withNone() {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            JaxbUtil.marshalCompressed(person(), out, Compression.NONE, null);
+
+            Assertions.assertThat(out.toByteArray()).isEqualTo(JaxbUtil.marshalToBytes(person()));
+        }
+
+        @Test
+        public void withNullDto() {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            JaxbUtil.marshalCompressed(null, out, Compression.GZIP, null);
+            Assertions.assertThat(out.size()).isZero();
+        }
+
+        @Test
+        public void withNullOutputStream() {
+            Assertions.assertThatThrownBy(() -> JaxbUtil.marshalCompressed(person(), null, Compression.GZIP, null))
+                    .isInstanceOf(InvalidMethodParameterException.class);
+        }
+
+        @Test
+        public void withInvalidDto() {
+            Person person = new Person();
+            person.setName("John");
+            Assertions.assertThatThrownBy(() -> JaxbUtil.marshalCompressed(person, new ByteArrayOutputStream(), Compression.GZIP, XSD_PATH))
+                    .isInstanceOf(InvalidXmlSchemaException.class);
+        }
+    }
+
+    @DisplayName("Validate Tests")
+    @Nested
+    class Validate {
+
+        @Test
+        public void withValidGzip() throws IOException {
+            JaxbUtil.validate(new ByteArrayInputStream(gzip(VALID_XML)), XSD_PATH);
+        }
+
+        @Test
+        public void withValidUncompressed() {
+            JaxbUtil.validate(new ByteArrayInputStream(VALID_XML.getBytes(StandardCharsets.UTF_8)), XSD_PATH);
+        }
+
+        @Test
+        public void withNullInputStream() {
+            JaxbUtil.validate(null, XSD_PATH);
+        }
+
+        @Test
+        public void withInvalidXml() throws IOException {
+            ByteArrayInputStream input = new ByteArrayInputStream(deflate(INVALID_XML));
+            Assertions.assertThatThrownBy(() -> JaxbUtil.validate(input, XSD_PATH))
+                    .isInstanceOf(InvalidXmlSchemaException.class)
+                    .satisfies(e -> Assertions.assertThat(((InvalidXmlSchemaException) e).getEvents()).isNotEmpty());
+        }
+
+        @Test
+        public void withMalformedXml() throws IOException {
+            ByteArrayInputStream input = new ByteArrayInputStream(gzip("<person><name>John</person>"));
+            Assertions.assertThatThrownBy(() -> JaxbUtil.validate(input, XSD_PATH)).isInstanceOf(MalformedXmlException.class);
+        }
+
+        @Test
+        public void withBlankXsdPath() {
+            ByteArrayInputStream input = new ByteArrayInputStream(VALID_XML.getBytes(StandardCharsets.UTF_8));
+            Assertions.assertThatThrownBy(() -> JaxbUtil.validate(input, " ")).isInstanceOf(InvalidMethodParameterException.class);
+        }
+    }
+}
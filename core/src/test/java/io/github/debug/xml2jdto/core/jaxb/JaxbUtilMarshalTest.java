@@ -2,8 +2,12 @@ package io.github.debug.xml2jdto.core.jaxb;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Map;
 
+import jakarta.xml.bind.Marshaller;
+
 import org.assertj.core.api.Assertions;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -187,6 +191,63 @@ public class JaxbUtilMarshalTest {
         }
     }
 
+    @DisplayName("To Bytes Tests")
+    @Nested
+    class ToBytes {
+
+        @Test
+        public void withNullDto() {
+            assertThat(JaxbUtil.marshalToBytes(null)).isNull();
+            assertThat(JaxbUtil.marshalToBytes(null, XSD_PATH)).isNull();
+        }
+
+        @Test
+        public void withDefaultProperties() {
+            Person dto = new Person();
+            dto.setName("Test Name íöüóőúéáűôňäýžťčšľ");
+            dto.setAge(30);
+            dto.setAddress("Test Address");
+
+            byte[] result = JaxbUtil.marshalToBytes(dto, XSD_PATH);
+            Assertions.assertThat(new String(result, StandardCharsets.UTF_8)).startsWith("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>");
+            Person parsed = JaxbUtil.unmarshal(new ByteArrayInputStream(result), Person.class, XSD_PATH);
+            Assertions.assertThat(parsed.getName()).isEqualTo("Test Name íöüóőúéáűôňäýžťčšľ");
+            Assertions.assertThat(parsed.getAge()).isEqualTo(30);
+            Assertions.assertThat(parsed.getAddress()).isNotNull();
+        }
+
+        @Test
+        public void withChangingOutputSizes() {
+            Person dto = new Person();
+            dto.setAge(30);
+            // the reused buffers must never leak bytes of a previous, longer output
+            for (int length : new int[] { 10, 5000, 100, 20000, 1 }) {
+                dto.setName("n".repeat(length));
+                String expected = JaxbUtil.marshal(dto);
+                Assertions.assertThat(new String(JaxbUtil.marshalToBytes(dto), StandardCharsets.UTF_8)).isEqualTo(expected);
+            }
+        }
+
+        @Test
+        public void withEncodingProperty() {
+            Person dto = new Person();
+            dto.setName("Test Name áé");
+            dto.setAge(30);
+            dto.setAddress("Test Address");
+
+            byte[] result = JaxbUtil.marshalToBytes(dto, null, Map.of(Marshaller.JAXB_ENCODING, "ISO-8859-1"));
+            Assertions.assertThat(new String(result, StandardCharsets.ISO_8859_1)).contains("encoding=\"ISO-8859-1\"").contains("Test Name áé");
+        }
+
+        @Test
+        public void withInvalidDto() {
+            Person dto = new Person();
+            dto.setName("Test Name");
+
+            Assertions.assertThatThrownBy(() -> JaxbUtil.marshalToBytes(dto, XSD_PATH)).isInstanceOf(InvalidXmlSchemaException.class);
+        }
+    }
+
     // Test DTO class for testing purposes
     public static class TestDto {
         private int id;
@@ -0,0 +1,104 @@
+package io.github.debug.xml2jdto.core.jaxb;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.github.debug.xml2jdto.core.dto.Person;
+import io.github.debug.xml2jdto.core.exception.InvalidMethodParameterException;
+import io.github.debug.xml2jdto.core.exception.MalformedXmlException;
+
+public class JaxbUtilUnmarshalPathsTest {
+
+    private static final String PEOPLE_XML = "<people><title>Team</title><size>2</size><members>"
+            + "<person><name>John</name><age>30</age><address>Street</address></person>"
+            + "<person><name>Jane</name><age>28</age><address>Road</address></person>"
+            + "</members></people>";
+
+    @Test
+    public void testUnmarshalPathsWithNullStream() {
+        Assertions.assertThat(JaxbUtil.unmarshalPaths(null, Map.of("/people", Person.class))).isNull();
+    }
+
+    @Test
+    public void testUnmarshalPathsWithInvalidPaths() {
+        Assertions.assertThatThrownBy(() -> JaxbUtil.unmarshalPaths(stream(PEOPLE_XML), Map.of()))
+                .isInstanceOf(InvalidMethodParameterException.class);
+        for (String path : new String[] { "people", "/people/", "///people", "/ns:people", "/people[2]/title" }) {
+            Assertions.assertThatThrownBy(() -> JaxbUtil.unmarshalPaths(stream(PEOPLE_XML), Map.of(path, String.class)))
+                    .as(path)
+                    .isInstanceOf(InvalidMethodParameterException.class);
+        }
+    }
+
+    @Test
+    public void testUnmarshalPathsWithSimpleTypesAndElements() {
+        Map<String, Class<?>> paths = new LinkedHashMap<>();
+        paths.put("/people/title", String.class);
+        paths.put("/people/size", Integer.class);
+        paths.put("/people/members/person", Person.class);
+        paths.put("/people/missing", String.class);
+
+        PartialResult result = JaxbUtil.unmarshalPaths(stream(PEOPLE_XML), paths);
+
+        Assertions.assertThat(result.get("/people/title", String.class)).isEqualTo("Team");
+        Assertions.assertThat(result.get("/people/size", Integer.class)).isEqualTo(2);
+        Assertions.assertThat(result.getAll("/people/members/person", Person.class))
+                .extracting(Person::getName)
+                .containsExactly("John", "Jane");
+        Assertions.assertThat(result.contains("/people/missing")).isFalse();
+        Assertions.assertThat(result.get("/people/missing", String.class)).isNull();
+        Assertions.assertThatThrownBy(() -> result.get("/people/other", String.class)).isInstanceOf(InvalidMethodParameterException.class);
+    }
+
+    @Test
+    public void testUnmarshalPathsWithDescendantAndWildcardSteps() {
+        PartialResult result = JaxbUtil.unmarshalPaths(stream(PEOPLE_XML), Map.of("//name", String.class, "/people/*/person/age", Integer.class));
+
+        Assertions.assertThat(result.getAll("//name", String.class)).containsExactly("John", "Jane");
+        Assertions.assertThat(result.getAll("/people/*/person/age", Integer.class)).containsExactly(30, 28);
+    }
+
+    @Test
+    public void testUnmarshalPathsWithNamespaces() {
+        String xml = "<a:root xmlns:a=\"urn:a\" xmlns:b=\"urn:b\"><b:value>other</b:value><a:value>mine</a:value></a:root>";
+
+        Map<String, Class<?>> paths = new LinkedHashMap<>();
+        paths.put("/root/{urn:a}value", String.class);
+        // matches both elements, but the first path takes the element in urn:a
+        paths.put("/root/value", String.class);
+
+        PartialResult result = JaxbUtil.unmarshalPaths(stream(xml), paths);
+
+        Assertions.assertThat(result.getAll("/root/{urn:a}value", String.class)).containsExactly("mine");
+        Assertions.assertThat(result.getAll("/root/value", String.class)).containsExactly("other");
+    }
+
+    @Test
+    public void testUnmarshalPathsStopsAfterFirstMatches() {
+        // the document is truncated after the header, the reader must not get that far
+        String xml = "<people><title>Team</title><size>2</size><members><person><name>John";
+
+        PartialResult result = JaxbUtil.unmarshalPaths(stream(xml), Map.of("/people/title[1]", String.class, "/people/size[1]", Integer.class));
+
+        Assertions.assertThat(result.get("/people/title[1]", String.class)).isEqualTo("Team");
+        Assertions.assertThat(result.get("/people/size[1]", Integer.class)).isEqualTo(2);
+    }
+
+    @Test
+    public void testUnmarshalPathsWithMalformedXml() {
+        String xml = "<people><title>Team</title><members><person><name>John";
+
+        Assertions.assertThatThrownBy(() -> JaxbUtil.unmarshalPaths(stream(xml), Map.of("//name", String.class)))
+                .isInstanceOf(MalformedXmlException.class);
+    }
+
+    private static InputStream stream(String xml) {
+        return new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,57 @@
+package io.github.debug.xml2jdto.core.jaxb;
+
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.github.debug.xml2jdto.core.dto.Person;
+import io.github.debug.xml2jdto.core.exception.InvalidMethodParameterException;
+import io.github.debug.xml2jdto.core.exception.MalformedXmlException;
+
+public class Xml2jDtoChannelsTest {
+
+    private static final String XSD_PATH = "xsd/valid-schema.xsd";
+
+    private static final String PERSON_XML = "<person><name>John</name><age>30</age><address>Street</address></person>";
+
+    @Test
+    public void testChannels_withPooledDirectBuffers(@TempDir Path directory) throws Exception {
+        CountingMetrics metrics = new CountingMetrics();
+        Xml2jDto engine = Xml2jDto.builder().metrics(metrics).channelBufferSize(16).build();
+        Path file = directory.resolve("person.xml");
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            engine.marshal(engine.unmarshal(PERSON_XML, Person.class), channel, XSD_PATH);
+        }
+        Assertions.assertThat(Files.readString(file)).contains("<name>John</name>");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            Assertions.assertThat(engine.unmarshal(channel, Person.class, XSD_PATH).getName()).isEqualTo("John");
+        }
+        try (AsynchronousFileChannel channel = AsynchronousFileChannel.open(file, StandardOpenOption.READ)) {
+            Assertions.assertThat(engine.unmarshalAsync(channel, Person.class, XSD_PATH).get(10, TimeUnit.SECONDS).getAge()).isEqualTo(30);
+        }
+        Files.writeString(file, "<person><name>John</name>");
+        try (AsynchronousFileChannel channel = AsynchronousFileChannel.open(file, StandardOpenOption.READ)) {
+            CompletableFuture<Person> future = engine.unmarshalAsync(channel, Person.class, XSD_PATH);
+            Assertions.assertThatThrownBy(() -> future.get(10, TimeUnit.SECONDS)).hasCauseInstanceOf(MalformedXmlException.class);
+        }
+        // the trailing content is several buffers after the end of the root element
+        Files.writeString(file, PERSON_XML + " ".repeat(64) + "<extra/>");
+        try (AsynchronousFileChannel channel = AsynchronousFileChannel.open(file, StandardOpenOption.READ)) {
+            CompletableFuture<Person> future = engine.unmarshalAsync(channel, Person.class, XSD_PATH);
+            Assertions.assertThatThrownBy(() -> future.get(10, TimeUnit.SECONDS)).hasCauseInstanceOf(MalformedXmlException.class);
+        }
+
+        Assertions.assertThat(metrics.count(Xml2jDtoMetrics.DIRECT_BUFFER_POOL + Xml2jDtoMetrics.MISS)).isEqualTo(1);
+        Assertions.assertThat(metrics.count(Xml2jDtoMetrics.DIRECT_BUFFER_POOL + Xml2jDtoMetrics.HIT)).isEqualTo(4);
+        Assertions.assertThatThrownBy(() -> Xml2jDto.builder().channelBufferSize(0)).isInstanceOf(InvalidMethodParameterException.class);
+    }
+}
@@ -0,0 +1,200 @@
+package io.github.debug.xml2jdto.core.jaxb;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.github.debug.xml2jdto.core.dto.Person;
+import io.github.debug.xml2jdto.core.exception.InvalidMethodParameterException;
+import io.github.debug.xml2jdto.core.exception.XmlParsingCancelledException;
+
+public class Xml2jDtoDeadlineTest {
+
+    private static final String XSD_PATH = "xsd/valid-schema.xsd";
+
+    private static final String PERSON_XML = "<person><name>John</name><age>30</age><address>Street</address></person>";
+
+    @Test
+    public void testUnmarshal_withDeadline() {
+        CountingMetrics metrics = new CountingMetrics();
+        Xml2jDto engine = Xml2jDto.builder().metrics(metrics).build();
+
+        Assertions.assertThatThrownBy(() -> engine.unmarshal(new EndlessPersonStream(1), Person.class, null, Duration.ofMillis(50)))
+                .isInstanceOfSatisfying(XmlParsingCancelledException.class, e -> Assertions.assertThat(e.isDeadlineExceeded()).isTrue());
+        Assertions.assertThatThrownBy(() -> engine.validate(new EndlessPersonStream(1), XSD_PATH, Instant.now().plusMillis(50)))
+                .isInstanceOf(XmlParsingCancelledException.class);
+        Assertions.assertThatThrownBy(() -> engine.unmarshal(stream(PERSON_XML), Person.class, null, Instant.now().minusSeconds(1)))
+                .isInstanceOf(XmlParsingCancelledException.class);
+        Assertions.assertThat(engine.unmarshal(stream(PERSON_XML), Person.class, XSD_PATH, Duration.ofMinutes(1)).getName()).isEqualTo("John");
+        Assertions.assertThat(metrics.count(Xml2jDtoMetrics.UNMARSHALLER_POOL + Xml2jDtoMetrics.HIT)).isEqualTo(1);
+        Assertions.assertThat(metrics.count(Xml2jDtoMetrics.UNMARSHAL + Xml2jDtoMetrics.ERROR)).isEqualTo(1);
+        Assertions.assertThat(metrics.count(Xml2jDtoMetrics.VALIDATE + Xml2jDtoMetrics.ERROR)).isEqualTo(1);
+        Assertions.assertThatThrownBy(() -> engine.unmarshal(stream(PERSON_XML), Person.class, null, (Duration) null))
+                .isInstanceOf(InvalidMethodParameterException.class);
+    }
+
+    @Test
+    public void testUnmarshal_withDeadlineAndResultCache() {
+        Xml2jDto engine = Xml2jDto.builder().maxCachedResults(8).resultCopier(Person.class, Xml2jDtoDeadlineTest::copy).build();
+
+        // the deadline passes after the payload is buffered, the parse of the buffer must still check it
+        Assertions.assertThatThrownBy(() -> engine.unmarshal(new SlowEndStream(PERSON_XML, 100), Person.class, XSD_PATH, Duration.ofMillis(50)))
+                .isInstanceOfSatisfying(XmlParsingCancelledException.class, e -> Assertions.assertThat(e.isDeadlineExceeded()).isTrue());
+        Assertions.assertThatThrownBy(() -> engine.validate(new SlowEndStream(PERSON_XML, 100), XSD_PATH, Duration.ofMillis(50)))
+                .isInstanceOf(XmlParsingCancelledException.class);
+        Assertions.assertThat(engine.getResultCacheStats().size()).isZero();
+        Assertions.assertThat(engine.unmarshal(new SlowEndStream(PERSON_XML, 0), Person.class, XSD_PATH, Duration.ofMinutes(1)).getName())
+                .isEqualTo("John");
+    }
+
+    @Test
+    public void testUnmarshalString_withDeadline() {
+        Xml2jDto engine = Xml2jDto.builder().maxCachedResults(8).resultCopier(Person.class, Xml2jDtoDeadlineTest::copy).build();
+
+        Assertions.assertThatThrownBy(() -> engine.unmarshal(PERSON_XML, Person.class, XSD_PATH, Instant.now().minusSeconds(1)))
+                .isInstanceOfSatisfying(XmlParsingCancelledException.class, e -> Assertions.assertThat(e.isDeadlineExceeded()).isTrue());
+        Assertions.assertThat(engine.unmarshal(PERSON_XML, Person.class, XSD_PATH, Duration.ofMinutes(1)).getName()).isEqualTo("John");
+        Assertions.assertThat(JaxbUtil.unmarshal(PERSON_XML, Person.class, null, Instant.now().plusSeconds(60)).getAge()).isEqualTo(30);
+        Assertions.assertThatThrownBy(() -> engine.unmarshal(PERSON_XML, Person.class, null, (Instant) null))
+                .isInstanceOf(InvalidMethodParameterException.class);
+    }
+
+    @Test
+    public void testCancellableReader_checksWhileReading() throws IOException {
+        AtomicInteger checks = new AtomicInteger();
+        char[] buffer = new char[16];
+        Cancellation cancellation = new Cancellation(null, () -> checks.incrementAndGet() > 1);
+
+        try (CancellableReader reader = new CancellableReader(new StringReader(PERSON_XML), cancellation)) {
+            Assertions.assertThat(reader.read(buffer, 0, buffer.length)).isEqualTo(buffer.length);
+            Assertions.assertThatThrownBy(() -> reader.read(buffer, 0, buffer.length))
+                    .isInstanceOfSatisfying(XmlParsingCancelledException.class, e -> Assertions.assertThat(e.isDeadlineExceeded()).isFalse());
+        }
+    }
+
+    @Test
+    public void testUnmarshal_withInterruptedThread() {
+        Xml2jDto engine = Xml2jDto.builder().build();
+
+        Thread.currentThread().interrupt();
+        try {
+            Assertions.assertThatThrownBy(() -> engine.unmarshal(stream(PERSON_XML), Person.class, XSD_PATH, Duration.ofMinutes(1)))
+                    .isInstanceOfSatisfying(XmlParsingCancelledException.class, e -> Assertions.assertThat(e.isDeadlineExceeded()).isFalse());
+            Assertions.assertThat(Thread.currentThread().isInterrupted()).isTrue();
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    @Test
+    public void testUnmarshalAsync_cancelled() throws Exception {
+        CountingMetrics metrics = new CountingMetrics();
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Xml2jDto engine = Xml2jDto.builder().executor(executor).metrics(metrics).build();
+            EndlessPersonStream stream = new EndlessPersonStream(1);
+
+            CompletableFuture<Person> future = engine.unmarshalAsync(stream, Person.class, null);
+            while (stream.reads.get() < 3) {
+                Thread.sleep(1);
+            }
+            future.cancel(true);
+
+            executor.shutdown();
+            Assertions.assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+            Assertions.assertThat(future).isCancelled();
+            Assertions.assertThat(metrics.count(Xml2jDtoMetrics.UNMARSHAL + Xml2jDtoMetrics.ERROR)).isEqualTo(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static ByteArrayInputStream stream(String xml) {
+        return new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Person copy(Person person) {
+        Person copy = new Person();
+        copy.setName(person.getName());
+        copy.setAge(person.getAge());
+        copy.setAddress(person.getAddress());
+        return copy;
+    }
+
+    /**
+     * A document read at once, with a slow end of the stream.
+     */
+    private static final class SlowEndStream extends ByteArrayInputStream {
+
+        private final long delayMillis;
+
+        private SlowEndStream(String xml, long delayMillis) {
+            super(xml.getBytes(StandardCharsets.UTF_8));
+            this.delayMillis = delayMillis;
+        }
+
+        @Override
+        public synchronized int read(byte[] b, int off, int len) {
+            if (available() == 0) {
+                try {
+                    Thread.sleep(delayMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return super.read(b, off, len);
+        }
+    }
+
+    /**
+     * A person with an address that never ends, read slowly.
+     */
+    private static final class EndlessPersonStream extends InputStream {
+
+        private final byte[] head = "<person><name>John</name><age>30</age><address>".getBytes(StandardCharsets.UTF_8);
+
+        private final long delayMillis;
+
+        private final AtomicInteger reads = new AtomicInteger();
+
+        private int position;
+
+        private EndlessPersonStream(long delayMillis) {
+            this.delayMillis = delayMillis;
+        }
+
+        @Override
+        public int read() {
+            return position < head.length ? head[position++] : 'x';
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            reads.incrementAndGet();
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            }
+            int count = Math.min(len, 64);
+            for (int i = 0; i < count; i++) {
+                b[off + i] = (byte) read();
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package io.github.debug.xml2jdto.core.jaxb;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import javax.xml.namespace.QName;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.github.debug.xml2jdto.core.dto.Person;
+import io.github.debug.xml2jdto.core.exception.InvalidMethodParameterException;
+import io.github.debug.xml2jdto.core.exception.InvalidXmlSchemaException;
+import io.github.debug.xml2jdto.core.exception.MalformedXmlException;
+import io.github.debug.xml2jdto.core.exception.Xml2jDtoException;
+import io.github.debug.xml2jdto.core.jaxb.JaxbUtilUnmarshalTest.SimpleExample;
+
+public class Xml2jDtoDocumentRegistryTest {
+
+    private static final String XSD_PATH = "xsd/valid-schema.xsd";
+
+    private static final String PERSON_XML = "<person><name>John</name><age>30</age><address>Street</address></person>";
+
+    @Test
+    public void testUnmarshalAny() {
+        Xml2jDto engine = Xml2jDto.builder()
+                .documentRegistry(DocumentRegistry.builder().register(Person.class, XSD_PATH).register(SimpleExample.class, null).build())
+                .build();
+
+        Object person = engine.unmarshalAny(("<!-- leading comment --><?pi data?>" + PERSON_XML).getBytes(StandardCharsets.UTF_8));
+        Object example = engine.unmarshalAny(
+                new ByteArrayInputStream("<ExampleRoot><exampleValue>test</exampleValue></ExampleRoot>".getBytes(StandardCharsets.UTF_8)));
+
+        Assertions.assertThat(person).isInstanceOfSatisfying(Person.class, value -> Assertions.assertThat(value.getAge()).isEqualTo(30));
+        Assertions.assertThat(example)
+                .isInstanceOfSatisfying(SimpleExample.class, value -> Assertions.assertThat(value.getExampleValue()).isEqualTo("test"));
+        Assertions.assertThat(engine.unmarshalAny((byte[]) null)).isNull();
+    }
+
+    @Test
+    public void testUnmarshalAny_validatesAgainstRegisteredSchema() {
+        Xml2jDto engine = Xml2jDto.builder().documentRegistry(DocumentRegistry.builder().register(Person.class, XSD_PATH).build()).build();
+
+        Assertions.assertThatThrownBy(() -> engine.unmarshalAny("<person><name>John</name></person>".getBytes(StandardCharsets.UTF_8)))
+                .isInstanceOf(InvalidXmlSchemaException.class);
+    }
+
+    @Test
+    public void testUnmarshalAny_withUnknownRootElement() {
+        Xml2jDto engine = Xml2jDto.builder()
+                .documentRegistry(DocumentRegistry.builder().register(new QName("urn:people", "person"), Person.class, null).build())
+                .build();
+
+        Assertions.assertThatThrownBy(() -> engine.unmarshalAny(PERSON_XML.getBytes(StandardCharsets.UTF_8)))
+                .isInstanceOf(Xml2jDtoException.class)
+                .hasMessageContaining("No document type is registered for root element [person]");
+        Assertions.assertThatThrownBy(() -> engine.unmarshalAny("<!-- no root -->".getBytes(StandardCharsets.UTF_8)))
+                .isInstanceOf(MalformedXmlException.class);
+        Assertions.assertThatThrownBy(() -> Xml2jDto.builder().build().unmarshalAny(PERSON_XML.getBytes(StandardCharsets.UTF_8)))
+                .isInstanceOf(Xml2jDtoException.class)
+                .hasMessageContaining("No document registry");
+    }
+
+    @Test
+    public void testDocumentRegistry() {
+        DocumentRegistry registry = DocumentRegistry.builder()
+                .register(Person.class, XSD_PATH)
+                .register(new QName("urn:people", "person"), Person.class, null)
+                .build();
+
+        Assertions.assertThat(registry.resolve(new QName("person")).xsdPath()).isEqualTo(XSD_PATH);
+        Assertions.assertThat(registry.resolve(new QName("urn:people", "person")).type()).isEqualTo(Person.class);
+        Assertions.assertThat(registry.resolve(new QName("ExampleRoot"))).isNull();
+        Assertions.assertThat(registry.documentTypes()).hasSize(2);
+        Assertions.assertThatThrownBy(() -> DocumentRegistry.builder().register(Person.class, null).register(Person.class, XSD_PATH))
+                .isInstanceOf(InvalidMethodParameterException.class)
+                .hasMessageContaining("root element is already registered");
+        Assertions.assertThatThrownBy(() -> DocumentRegistry.builder().register(String.class, null))
+                .isInstanceOf(InvalidMethodParameterException.class);
+    }
+}
@@ -0,0 +1,45 @@
+package io.github.debug.xml2jdto.core.jaxb;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.github.debug.xml2jdto.core.dto.Person;
+import io.github.debug.xml2jdto.core.exception.InvalidMethodParameterException;
+import io.github.debug.xml2jdto.core.jaxb.JaxbUtilUnmarshalTest.SimpleExample;
+
+public class Xml2jDtoFootprintTest {
+
+    private static final String XSD_PATH = "xsd/valid-schema.xsd";
+
+    private static final String PERSON_XML = "<person><name>John</name><age>30</age><address>Street</address></person>";
+
+    @Test
+    public void testFootprintReport() {
+        Xml2jDto engine = Xml2jDto.builder().maxCachedResults(4).build();
+        engine.unmarshal(PERSON_XML, Person.class, XSD_PATH);
+        engine.getJAXBContext(SimpleExample.class);
+
+        FootprintReport report = engine.getFootprintReport();
+
+        Assertions.assertThat(report.entries())
+                .extracting(FootprintReport.Entry::cache, FootprintReport.Entry::key)
+                .contains(Assertions.tuple(Xml2jDtoMetrics.JAXB_CONTEXT_CACHE, Person.class.getName()),
+                        Assertions.tuple(Xml2jDtoMetrics.UNMARSHALLER_POOL, Person.class.getName()),
+                        Assertions.tuple(Xml2jDtoMetrics.SCHEMA_CACHE, XSD_PATH),
+                        Assertions.tuple(Xml2jDtoMetrics.RESULT_CACHE, Xml2jDtoMetrics.RESULT_CACHE));
+        Assertions.assertThat(report.entries()).allSatisfy(entry -> Assertions.assertThat(entry.truncated()).isFalse());
+        Assertions.assertThat(report.totalBytes(Xml2jDtoMetrics.JAXB_CONTEXT_CACHE)).isGreaterThan(10_000);
+        // the schema compiled by the JDK is not walkable without --add-opens
+        Assertions.assertThat(report.unmeasured()).singleElement().satisfies(entry -> {
+            Assertions.assertThat(entry.cache()).isEqualTo(Xml2jDtoMetrics.SCHEMA_CACHE);
+            Assertions.assertThat(entry.retainedBytes()).isZero();
+        });
+        Assertions.assertThat(report.entries()).last().isEqualTo(report.unmeasured().get(0));
+        Assertions.assertThat(report.totalsByCache()).doesNotContainKey(Xml2jDtoMetrics.SCHEMA_CACHE);
+        Assertions.assertThat(report.totalsByCache().values().stream().mapToLong(Long::longValue).sum()).isEqualTo(report.totalBytes());
+        Assertions.assertThat(report.largest(100)).hasSize(report.entries().size() - 1).noneMatch(FootprintReport.Entry::unmeasured);
+        Assertions.assertThat(report.largest(1).get(0).retainedBytes()).isEqualTo(report.entries().get(0).retainedBytes());
+        Assertions.assertThat(engine.getFootprintReport(10).entries()).anySatisfy(entry -> Assertions.assertThat(entry.truncated()).isTrue());
+        Assertions.assertThatThrownBy(() -> engine.getFootprintReport(0)).isInstanceOf(InvalidMethodParameterException.class);
+    }
+}
@@ -0,0 +1,82 @@
+package io.github.debug.xml2jdto.core.jaxb;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.github.debug.xml2jdto.core.dto.Person;
+import io.github.debug.xml2jdto.core.exception.InvalidMethodParameterException;
+import io.github.debug.xml2jdto.core.exception.MalformedXmlException;
+import io.github.debug.xml2jdto.core.exception.Xml2jDtoException;
+import io.github.debug.xml2jdto.core.exception.XmlLimitExceededException;
+
+public class Xml2jDtoParsingLimitsTest {
+
+    private static final String XSD_PATH = "xsd/valid-schema.xsd";
+
+    private static final String PERSON_XML = "<person><name>John</name><age>30</age><address>Street</address></person>";
+
+    @Test
+    public void testParsingLimits_rejectsAboveLimit() {
+        String deepXml = "<person><name>John</name><age>30</age><address>" + "<a>".repeat(50) + "</a>".repeat(50) + "</address></person>";
+        CountingMetrics metrics = new CountingMetrics();
+        Xml2jDto engine = Xml2jDto.builder().parsingLimits(ParsingLimits.builder().maxDepth(10).build()).metrics(metrics).build();
+
+        Assertions.assertThatThrownBy(() -> engine.unmarshal(deepXml, Person.class))
+                .isInstanceOfSatisfying(XmlLimitExceededException.class, e -> {
+                    Assertions.assertThat(e.getLimit()).isEqualTo(ParsingLimits.MAX_DEPTH);
+                    Assertions.assertThat(e.getMaxValue()).isEqualTo(10);
+                    Assertions.assertThat(e.getActualValue()).isEqualTo(11);
+                });
+        Assertions.assertThatThrownBy(() -> engine.unmarshal(stream(deepXml), Person.class, XSD_PATH))
+                .isInstanceOf(XmlLimitExceededException.class);
+        Assertions.assertThatThrownBy(() -> engine.validate(stream(deepXml), XSD_PATH)).isInstanceOf(XmlLimitExceededException.class);
+        Assertions.assertThatThrownBy(() -> engine.unmarshalPaths(stream(deepXml), Map.of("/person/phone", String.class)))
+                .isInstanceOf(XmlLimitExceededException.class);
+        Assertions.assertThat(engine.unmarshalPaths(stream(deepXml), Map.of("/person/name[1]", String.class)).get("/person/name[1]", String.class))
+                .isEqualTo("John");
+        Assertions.assertThat(engine.unmarshal(PERSON_XML, Person.class, XSD_PATH).getName()).isEqualTo("John");
+        Assertions.assertThat(metrics.count(Xml2jDtoMetrics.UNMARSHAL + Xml2jDtoMetrics.ERROR)).isEqualTo(3);
+        Assertions.assertThat(metrics.count(Xml2jDtoMetrics.VALIDATE + Xml2jDtoMetrics.ERROR)).isEqualTo(1);
+    }
+
+    @Test
+    public void testParsingLimits_eachLimit() {
+        assertLimitExceeded(ParsingLimits.builder().maxDocumentBytes(PERSON_XML.length() - 1).build(), ParsingLimits.MAX_DOCUMENT_BYTES);
+        assertLimitExceeded(ParsingLimits.builder().maxElements(3).build(), ParsingLimits.MAX_ELEMENTS);
+        assertLimitExceeded(ParsingLimits.builder().maxTextLength(5).build(), ParsingLimits.MAX_TEXT_LENGTH);
+        assertLimitExceeded(ParsingLimits.builder().maxAttributes(1).build(), ParsingLimits.MAX_ATTRIBUTES);
+
+        ParsingLimits limits = ParsingLimits.builder().maxDocumentBytes(PERSON_XML.length()).maxElements(4).maxTextLength(6).maxAttributes(2).build();
+        Xml2jDto engine = Xml2jDto.builder().parsingLimits(limits).build();
+        Assertions.assertThat(engine.unmarshal(PERSON_XML, Person.class).getAddress()).isNotNull();
+        Assertions.assertThat(engine.unmarshal(stream(PERSON_XML), Person.class, XSD_PATH).getAge()).isEqualTo(30);
+        Assertions.assertThat(ParsingLimits.NONE.isLimited()).isFalse();
+        Assertions.assertThatThrownBy(() -> Xml2jDto.builder().parsingLimits(null)).isInstanceOf(InvalidMethodParameterException.class);
+    }
+
+    private static void assertLimitExceeded(ParsingLimits limits, String limit) {
+        String xml = PERSON_XML.replace("<person>", "<person a=\"1\" b=\"2\">");
+        Xml2jDto engine = Xml2jDto.builder().parsingLimits(limits).build();
+        Assertions.assertThatThrownBy(() -> engine.unmarshal(xml, Person.class))
+                .isInstanceOfSatisfying(XmlLimitExceededException.class, e -> Assertions.assertThat(e.getLimit()).isEqualTo(limit));
+        Assertions.assertThatThrownBy(() -> engine.unmarshal(stream(xml), Person.class, null))
+                .isInstanceOfSatisfying(XmlLimitExceededException.class, e -> Assertions.assertThat(e.getLimit()).isEqualTo(limit));
+    }
+
+    @Test
+    public void testUnmarshal_rejectsDoctype() {
+        Xml2jDto engine = Xml2jDto.builder().build();
+        String xml = "<!DOCTYPE person [<!ENTITY name \"Jane\">]><person><name>&name;</name><age>30</age><address>Street</address></person>";
+
+        Assertions.assertThatThrownBy(() -> engine.unmarshal(xml, Person.class)).isInstanceOf(Xml2jDtoException.class);
+        Assertions.assertThatThrownBy(() -> engine.unmarshal(stream(xml), Person.class, XSD_PATH)).isInstanceOf(MalformedXmlException.class);
+    }
+
+    private static ByteArrayInputStream stream(String xml) {
+        return new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8));
+    }
+}
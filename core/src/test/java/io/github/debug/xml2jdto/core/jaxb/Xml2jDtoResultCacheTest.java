@@ -0,0 +1,84 @@
+package io.github.debug.xml2jdto.core.jaxb;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.github.debug.xml2jdto.core.dto.Person;
+import io.github.debug.xml2jdto.core.exception.InvalidXmlSchemaException;
+import io.github.debug.xml2jdto.core.jaxb.JaxbUtilUnmarshalTest.SimpleExample;
+
+public class Xml2jDtoResultCacheTest {
+
+    private static final String XSD_PATH = "xsd/valid-schema.xsd";
+
+    private static final String PERSON_XML = "<person><name>John</name><age>30</age><address>Street</address></person>";
+
+    @Test
+    public void testResultCache() {
+        Xml2jDto engine = Xml2jDto.builder().maxCachedResults(8).resultCopier(Person.class, Xml2jDtoResultCacheTest::copy).build();
+
+        Person first = engine.unmarshal(PERSON_XML, Person.class, XSD_PATH);
+        Person second = engine.unmarshal(PERSON_XML, Person.class, XSD_PATH);
+        Person fromStream = engine.unmarshal(new ByteArrayInputStream(PERSON_XML.getBytes(StandardCharsets.UTF_8)), Person.class, XSD_PATH);
+        Person fromSameStream = engine.unmarshal(new ByteArrayInputStream(PERSON_XML.getBytes(StandardCharsets.UTF_8)), Person.class, XSD_PATH);
+
+        Assertions.assertThat(second).isNotSameAs(first).extracting(Person::getName, Person::getAge).containsExactly("John", 30);
+        Assertions.assertThat(fromSameStream).isNotSameAs(fromStream).extracting(Person::getName, Person::getAge).containsExactly("John", 30);
+        Assertions.assertThat(engine.getResultCacheStats().hits()).isEqualTo(2);
+        Assertions.assertThat(engine.getResultCacheStats().misses()).isEqualTo(2);
+        // the results of classes without a copier are not cached
+        engine.unmarshal("<ExampleRoot><exampleValue>test</exampleValue></ExampleRoot>", SimpleExample.class, null);
+        Assertions.assertThat(engine.getResultCacheStats().size()).isEqualTo(2);
+        Assertions.assertThat(Xml2jDto.builder().build().getResultCacheStats()).isNull();
+    }
+
+    @Test
+    public void testResultCache_cachesValidationFailures() {
+        CountingMetrics metrics = new CountingMetrics();
+        Xml2jDto engine = Xml2jDto.builder().maxCachedResults(8).resultCopier(Person.class, Xml2jDtoResultCacheTest::copy).metrics(metrics).build();
+        String xml = "<person><name>John</name></person>";
+
+        InvalidXmlSchemaException first = Assertions.catchThrowableOfType(() -> engine.unmarshal(xml, Person.class, XSD_PATH),
+                InvalidXmlSchemaException.class);
+        InvalidXmlSchemaException second = Assertions.catchThrowableOfType(() -> engine.unmarshal(xml, Person.class, XSD_PATH),
+                InvalidXmlSchemaException.class);
+        for (int i = 0; i < 2; i++) {
+            Assertions.assertThatThrownBy(() -> engine.validate(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)), XSD_PATH))
+                    .isInstanceOf(InvalidXmlSchemaException.class);
+        }
+        engine.validate(new ByteArrayInputStream(PERSON_XML.getBytes(StandardCharsets.UTF_8)), XSD_PATH);
+
+        Assertions.assertThat(second).isNotSameAs(first).hasMessage(first.getMessage());
+        Assertions.assertThat(second.getEvents()).isEqualTo(first.getEvents());
+        Assertions.assertThat(metrics.count(Xml2jDtoMetrics.RESULT_CACHE + Xml2jDtoMetrics.HIT)).isEqualTo(2);
+        Assertions.assertThat(metrics.count(Xml2jDtoMetrics.RESULT_CACHE + Xml2jDtoMetrics.MISS)).isEqualTo(3);
+    }
+
+    @Test
+    public void testResultCache_evictsByWeight() {
+        Xml2jDto engine = Xml2jDto.builder()
+                .maxCachedResults(8)
+                .maxCachedResultBytes(PERSON_XML.length() + 10L)
+                .resultCopier(Person.class, Xml2jDtoResultCacheTest::copy)
+                .build();
+
+        engine.unmarshal(PERSON_XML, Person.class);
+        engine.unmarshal(PERSON_XML.replace("John", "Jane"), Person.class);
+        engine.unmarshal(PERSON_XML.replace("Street", "A much longer street name"), Person.class);
+
+        Assertions.assertThat(engine.getResultCacheStats()).isEqualTo(new CacheStats(1, 8, 0, 3, 1));
+        engine.clearCaches();
+        Assertions.assertThat(engine.getResultCacheStats().size()).isZero();
+    }
+
+    private static Person copy(Person person) {
+        Person copy = new Person();
+        copy.setName(person.getName());
+        copy.setAge(person.getAge());
+        copy.setAddress(person.getAddress());
+        return copy;
+    }
+}
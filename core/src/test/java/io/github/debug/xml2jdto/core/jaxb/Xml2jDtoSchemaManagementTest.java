@@ -0,0 +1,82 @@
+package io.github.debug.xml2jdto.core.jaxb;
+
+import java.util.List;
+
+import javax.xml.validation.Schema;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.github.debug.xml2jdto.core.dto.Person;
+import io.github.debug.xml2jdto.core.exception.InvalidMethodParameterException;
+import io.github.debug.xml2jdto.core.exception.InvalidXmlSchemaException;
+
+public class Xml2jDtoSchemaManagementTest {
+
+    private static final String XSD_PATH = "xsd/valid-schema.xsd";
+
+    private static final String STORAGE_NAMESPACE = "http://schemas.debug.github.io/STORAGE/1.0/storage";
+
+    private static final String COMMON_NAMESPACE = "http://schemas.nav.gov.hu/NTCA/1.0/common";
+
+    private static final String PERSON_XML = "<person><name>John</name><age>30</age><address>Street</address></person>";
+
+    @Test
+    public void testGetSchema_withCatalogPaths() {
+        Xml2jDto engine = Xml2jDto.builder().catalogPaths(List.of("xsd/storage/catalog.cat")).build();
+
+        Assertions.assertThat(engine.getSchema("xsd/storage/storage.xsd")).isNotNull();
+    }
+
+    @Test
+    public void testSchemaCacheEntries() {
+        Xml2jDto engine = Xml2jDto.builder().catalogPaths(List.of("xsd/storage/catalog.cat")).build();
+        Schema schema = engine.getSchema("xsd/storage/storage.xsd");
+
+        Assertions.assertThat(engine.getSchemaCacheEntries()).singleElement().satisfies(entry -> {
+            Assertions.assertThat(entry.key()).isEqualTo("xsd/storage/storage.xsd");
+            Assertions.assertThat(entry.xsdPaths()).containsExactly("xsd/storage/storage.xsd");
+            Assertions.assertThat(entry.namespaces())
+                    .containsExactlyInAnyOrder(STORAGE_NAMESPACE, COMMON_NAMESPACE, "http://schemas.debug.github.io/STORAGE/1.0/file");
+            Assertions.assertThat(entry.schema()).isSameAs(schema);
+            Assertions.assertThat(entry.compileTime()).isPositive();
+            Assertions.assertThat(entry.compileAllocatedBytes()).isNotZero();
+        });
+    }
+
+    @Test
+    public void testInvalidateAndReloadSchema() {
+        Xml2jDto engine = Xml2jDto.builder().catalogPaths(List.of("xsd/storage/catalog.cat")).build();
+        Schema storage = engine.getSchema("xsd/storage/storage.xsd");
+        Schema person = engine.getSchema(XSD_PATH);
+
+        Schema reloaded = engine.reloadSchema(XSD_PATH);
+
+        Assertions.assertThat(reloaded).isNotSameAs(person);
+        Assertions.assertThat(engine.getSchema(XSD_PATH)).isSameAs(reloaded);
+        Assertions.assertThat(engine.reloadSchemaNamespace(STORAGE_NAMESPACE)).isEqualTo(1);
+        Assertions.assertThat(engine.getSchema("xsd/storage/storage.xsd")).isNotSameAs(storage);
+        Assertions.assertThat(engine.invalidateSchemaNamespace(COMMON_NAMESPACE)).isEqualTo(1);
+        Assertions.assertThat(engine.invalidateSchema(XSD_PATH)).isTrue();
+        Assertions.assertThat(engine.invalidateSchema(XSD_PATH)).isFalse();
+        Assertions.assertThat(engine.getSchemaCacheEntries()).isEmpty();
+        Assertions.assertThat(engine.getSchema(XSD_PATH)).isNotSameAs(reloaded);
+    }
+
+    @Test
+    public void testCompositeSchema() {
+        Xml2jDto engine = Xml2jDto.builder().compositeSchema("people", List.of(XSD_PATH, "xsd/common.xsd")).build();
+
+        Person person = engine.unmarshal(PERSON_XML, Person.class, "people");
+
+        Assertions.assertThat(person.getName()).isEqualTo("John");
+        Assertions.assertThat(engine.getSchemaCacheEntries()).singleElement().satisfies(entry -> {
+            Assertions.assertThat(entry.xsdPaths()).containsExactly(XSD_PATH, "xsd/common.xsd");
+            Assertions.assertThat(entry.namespaces()).containsExactly("", COMMON_NAMESPACE);
+        });
+        Assertions.assertThatThrownBy(() -> engine.unmarshal("<person><name>John</name></person>", Person.class, "people"))
+                .isInstanceOf(InvalidXmlSchemaException.class);
+        Assertions.assertThatThrownBy(() -> Xml2jDto.builder().compositeSchema("empty", List.of()))
+                .isInstanceOf(InvalidMethodParameterException.class);
+    }
+}
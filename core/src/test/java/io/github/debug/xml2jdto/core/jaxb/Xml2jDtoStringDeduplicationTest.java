@@ -0,0 +1,46 @@
+package io.github.debug.xml2jdto.core.jaxb;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.github.debug.xml2jdto.core.dto.Person;
+
+public class Xml2jDtoStringDeduplicationTest {
+
+    private static final String XSD_PATH = "xsd/valid-schema.xsd";
+
+    private static final String PERSON_XML = "<person><name>John</name><age>30</age><address>Street</address></person>";
+
+    @Test
+    public void testUnmarshal_withSharedStringDeduplication() {
+        Xml2jDto engine = Xml2jDto.builder().stringDeduplication(StringDeduplication.SHARED).build();
+
+        Person first = engine.unmarshal(PERSON_XML, Person.class);
+        Person second = engine.unmarshal(PERSON_XML, Person.class, XSD_PATH);
+
+        Assertions.assertThat(second.getName()).isEqualTo("John").isSameAs(first.getName());
+    }
+
+    @Test
+    public void testUnmarshal_withoutStringDeduplication() {
+        Xml2jDto engine = Xml2jDto.builder().build();
+
+        Person first = engine.unmarshal(PERSON_XML, Person.class);
+        Person second = engine.unmarshal(PERSON_XML, Person.class);
+
+        Assertions.assertThat(second.getName()).isEqualTo(first.getName()).isNotSameAs(first.getName());
+    }
+
+    @Test
+    public void testStringDeduplication_fromSystemProperty() {
+        try {
+            System.setProperty(StringDeduplication.PROPERTY, " per_call ");
+            Assertions.assertThat(StringDeduplication.fromSystemProperty()).isEqualTo(StringDeduplication.PER_CALL);
+            System.setProperty(StringDeduplication.PROPERTY, "unknown");
+            Assertions.assertThat(StringDeduplication.fromSystemProperty()).isEqualTo(StringDeduplication.NONE);
+        } finally {
+            System.clearProperty(StringDeduplication.PROPERTY);
+        }
+        Assertions.assertThat(StringDeduplication.fromSystemProperty()).isEqualTo(StringDeduplication.NONE);
+    }
+}
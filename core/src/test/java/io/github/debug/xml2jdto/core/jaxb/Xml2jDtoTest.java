@@ -0,0 +1,233 @@
+package io.github.debug.xml2jdto.core.jaxb;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.Marshaller;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.github.debug.xml2jdto.core.dto.Person;
+import io.github.debug.xml2jdto.core.dto.order.Item;
+import io.github.debug.xml2jdto.core.dto.order.Note;
+import io.github.debug.xml2jdto.core.dto.order.ObjectFactory;
+import io.github.debug.xml2jdto.core.dto.order.Order;
+import io.github.debug.xml2jdto.core.exception.InvalidMethodParameterException;
+import io.github.debug.xml2jdto.core.exception.InvalidXmlSchemaException;
+import io.github.debug.xml2jdto.core.exception.Xml2jDtoException;
+import io.github.debug.xml2jdto.core.jaxb.JaxbUtilUnmarshalTest.SimpleExample;
+
+public class Xml2jDtoTest extends AbstractTest {
+
+    private static final String XSD_PATH = "xsd/valid-schema.xsd";
+
+    private static final String PERSON_XML = "<person><name>John</name><age>30</age><address>Street</address></person>";
+
+    @Test
+    public void testDefault_sharedWithJaxbUtil() {
+        Assertions.assertThat(Xml2jDto.getDefault()).isSameAs(Xml2jDto.getDefault());
+        Assertions.assertThat(JaxbUtil.getJAXBContext(Person.class)).isSameAs(Xml2jDto.getDefault().getJAXBContext(Person.class));
+        Assertions.assertThat(JaxbUtil.getSchema(XSD_PATH)).isSameAs(Xml2jDto.getDefault().getSchema(XSD_PATH));
+    }
+
+    @Test
+    public void testCaches_isolatedBetweenEngines() {
+        Xml2jDto first = Xml2jDto.builder().build();
+        Xml2jDto second = Xml2jDto.builder().build();
+
+        JAXBContext context = first.getJAXBContext(Person.class);
+
+        Assertions.assertThat(first.getJAXBContext(Person.class)).isSameAs(context);
+        Assertions.assertThat(second.getJAXBContext(Person.class)).isNotSameAs(context);
+        Assertions.assertThat(first.getSchema(XSD_PATH)).isNotSameAs(second.getSchema(XSD_PATH));
+        Assertions.assertThat(first.getJaxbContextCacheStats().hits()).isEqualTo(1);
+        Assertions.assertThat(second.getJaxbContextCacheStats().hits()).isZero();
+    }
+
+    @Test
+    public void testBuilder_nullParameters() {
+        Assertions.assertThatThrownBy(() -> Xml2jDto.builder().defaultMarshallerProperties(null))
+                .isInstanceOf(InvalidMethodParameterException.class)
+                .hasMessage("defaultMarshallerProperties cannot be null!");
+        Assertions.assertThatThrownBy(() -> Xml2jDto.builder().executor(null))
+                .isInstanceOf(InvalidMethodParameterException.class)
+                .hasMessage("executor cannot be null!");
+        Assertions.assertThatThrownBy(() -> Xml2jDto.builder().metrics(null))
+                .isInstanceOf(InvalidMethodParameterException.class)
+                .hasMessage("metrics cannot be null!");
+    }
+
+    @Test
+    public void testJaxbContextCache_withMaxJaxbContexts() {
+        Xml2jDto engine = Xml2jDto.builder().maxJaxbContexts(1).build();
+
+        JAXBContext personContext = engine.getJAXBContext(Person.class);
+        engine.getJAXBContext(SimpleExample.class);
+
+        CacheStats stats = engine.getJaxbContextCacheStats();
+        Assertions.assertThat(stats.size()).isEqualTo(1);
+        Assertions.assertThat(stats.maxSize()).isEqualTo(1);
+        Assertions.assertThat(stats.evictions()).isEqualTo(1);
+        Assertions.assertThat(engine.getJAXBContext(Person.class)).isNotSameAs(personContext);
+    }
+
+    @Test
+    public void testJaxbContextStrategy_perPackage() {
+        Xml2jDto engine = Xml2jDto.builder().jaxbContextStrategy(JaxbContextStrategy.PER_PACKAGE).build();
+
+        JAXBContext orderContext = engine.getJAXBContext(Order.class);
+        Item item = engine.unmarshal("<item><name>pen</name><quantity>2</quantity></item>", Item.class);
+
+        Assertions.assertThat(engine.getJAXBContext(Item.class)).isSameAs(orderContext).isSameAs(engine.getJAXBContext(ObjectFactory.class));
+        Assertions.assertThat(engine.getJAXBContext(Order.class, Item.class)).isSameAs(orderContext);
+        Assertions.assertThat(item.getQuantity()).isEqualTo(2);
+        Assertions.assertThat(engine.getJAXBContext(Person.class)).isNotSameAs(orderContext);
+        Assertions.assertThat(engine.getJaxbContextCacheStats().size()).isEqualTo(2);
+        Assertions.assertThat(Xml2jDto.builder().build().getJAXBContext(Item.class)).isNotSameAs(orderContext);
+    }
+
+    @Test
+    public void testPerPackageStrategy_classUnknownToObjectFactory() {
+        Xml2jDto engine = Xml2jDto.builder().jaxbContextStrategy(JaxbContextStrategy.PER_PACKAGE).build();
+
+        Note note = engine.unmarshal("<note><text>fragile</text></note>", Note.class);
+
+        Assertions.assertThat(note.getText()).isEqualTo("fragile");
+        Assertions.assertThat(new String(engine.marshalToBytes(note), StandardCharsets.UTF_8)).contains("<note><text>fragile</text></note>");
+        Assertions.assertThat(engine.getJAXBContext(Note.class)).isNotSameAs(engine.getJAXBContext(Order.class));
+    }
+
+    @Test
+    public void testClearCaches() {
+        Xml2jDto engine = Xml2jDto.builder().build();
+        JAXBContext context = engine.getJAXBContext(Person.class);
+        engine.getSchema(XSD_PATH);
+
+        engine.clearCaches();
+
+        Assertions.assertThat(engine.getJaxbContextCacheStats().size()).isZero();
+        Assertions.assertThat(engine.getSchemaCacheStats().size()).isZero();
+        Assertions.assertThat(engine.getJAXBContext(Person.class)).isNotSameAs(context);
+    }
+
+    @Test
+    public void testMetrics_withPooledUnmarshallers() {
+        CountingMetrics metrics = new CountingMetrics();
+        Xml2jDto engine = Xml2jDto.builder().maxUnmarshallersPerContext(2).metrics(metrics).build();
+
+        for (int i = 0; i < 3; i++) {
+            Person person = engine.unmarshal(PERSON_XML, Person.class, XSD_PATH);
+            Assertions.assertThat(person.getName()).isEqualTo("John");
+        }
+
+        Assertions.assertThat(metrics.count(Xml2jDtoMetrics.UNMARSHALLER_POOL + Xml2jDtoMetrics.MISS)).isEqualTo(1);
+        Assertions.assertThat(metrics.count(Xml2jDtoMetrics.UNMARSHALLER_POOL + Xml2jDtoMetrics.HIT)).isEqualTo(2);
+        Assertions.assertThat(metrics.count(Xml2jDtoMetrics.SCHEMA_CACHE + Xml2jDtoMetrics.MISS)).isEqualTo(1);
+        Assertions.assertThat(metrics.count(Xml2jDtoMetrics.UNMARSHAL)).isEqualTo(3);
+        Assertions.assertThat(metrics.count(Xml2jDtoMetrics.SCHEMA_LOAD)).isEqualTo(1);
+    }
+
+    @Test
+    public void testUnmarshal_pooledUnmarshallerWithoutSchema() {
+        Xml2jDto engine = Xml2jDto.builder().maxUnmarshallersPerContext(1).build();
+
+        engine.unmarshal(PERSON_XML, Person.class, XSD_PATH);
+        // the pooled unmarshaller must not keep the schema of the previous call
+        Person person = engine.unmarshal("<person><name>John</name><age>-1</age><address/></person>", Person.class);
+
+        Assertions.assertThat(person.getAge()).isEqualTo(-1);
+    }
+
+    @Test
+    public void testUnmarshal_withInvalidXmlCountsError() {
+        CountingMetrics metrics = new CountingMetrics();
+        Xml2jDto engine = Xml2jDto.builder().metrics(metrics).build();
+
+        Assertions.assertThatThrownBy(() -> engine.unmarshal("<person><name>John</name></person>", Person.class, XSD_PATH))
+                .isInstanceOf(InvalidXmlSchemaException.class);
+        Assertions.assertThat(metrics.count(Xml2jDtoMetrics.UNMARSHAL + Xml2jDtoMetrics.ERROR)).isEqualTo(1);
+    }
+
+    @Test
+    public void testUnmarshal_withPooledXmlReaders() {
+        CountingMetrics metrics = new CountingMetrics();
+        Xml2jDto engine = Xml2jDto.builder().metrics(metrics).build();
+
+        Assertions.assertThat(engine.unmarshal(PERSON_XML, Person.class).getName()).isEqualTo("John");
+        Assertions.assertThat(engine.unmarshal(PERSON_XML, Person.class, XSD_PATH).getAge()).isEqualTo(30);
+        Assertions.assertThat(engine.unmarshal(stream(PERSON_XML), Person.class, XSD_PATH).getName()).isEqualTo("John");
+        Assertions.assertThatThrownBy(() -> engine.unmarshal("<person><name>John</person>", Person.class)).isInstanceOf(Xml2jDtoException.class);
+        Assertions.assertThat(engine.unmarshal(PERSON_XML, Person.class).getName()).isEqualTo("John");
+
+        Assertions.assertThat(metrics.count(Xml2jDtoMetrics.XML_READER_POOL + Xml2jDtoMetrics.MISS)).isEqualTo(1);
+        Assertions.assertThat(metrics.count(Xml2jDtoMetrics.XML_READER_POOL + Xml2jDtoMetrics.HIT)).isEqualTo(4);
+    }
+
+    @Test
+    public void testUnmarshalAsync() throws Exception {
+        Xml2jDto engine = Xml2jDto.builder().executor(Runnable::run).build();
+
+        Person person = engine.unmarshalAsync(new ByteArrayInputStream(PERSON_XML.getBytes(StandardCharsets.UTF_8)), Person.class, XSD_PATH)
+                .get(10, TimeUnit.SECONDS);
+
+        Assertions.assertThat(person.getName()).isEqualTo("John");
+    }
+
+    @Test
+    public void testMarshalAsync_withInvalidDto() {
+        Xml2jDto engine = Xml2jDto.builder().build();
+        Person person = new Person();
+        person.setName("John");
+
+        Assertions.assertThatThrownBy(() -> engine.marshalAsync(person, XSD_PATH).join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(InvalidXmlSchemaException.class);
+    }
+
+    @Test
+    public void testMarshal_withDefaultMarshallerProperties() {
+        Xml2jDto engine = Xml2jDto.builder().defaultMarshallerProperties(Map.of(Marshaller.JAXB_FRAGMENT, true)).build();
+        Person person = new Person();
+        person.setName("John");
+
+        Assertions.assertThat(engine.marshal(person)).startsWith("<person>");
+    }
+
+    @Test
+    public void testMarshalToBytes_reusesPooledBuffer() {
+        CountingMetrics metrics = new CountingMetrics();
+        Xml2jDto engine = Xml2jDto.builder().maxPooledMarshalBuffers(1).metrics(metrics).build();
+        Person person = new Person();
+        person.setName("John");
+        person.setAge(30);
+
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertThat(engine.marshalToBytes(person)).isEqualTo(engine.marshal(person).getBytes(StandardCharsets.UTF_8));
+        }
+
+        Assertions.assertThat(metrics.count(Xml2jDtoMetrics.MARSHAL_BUFFER_POOL + Xml2jDtoMetrics.MISS)).isEqualTo(1);
+        Assertions.assertThat(metrics.count(Xml2jDtoMetrics.MARSHAL_BUFFER_POOL + Xml2jDtoMetrics.HIT)).isEqualTo(2);
+    }
+
+    @Test
+    public void testMarshalToBytes_withMaxPooledMarshalBufferSize() {
+        CountingMetrics metrics = new CountingMetrics();
+        Xml2jDto engine = Xml2jDto.builder().maxPooledMarshalBufferSize(64).metrics(metrics).build();
+        Person person = new Person();
+        person.setName("John");
+
+        engine.marshalToBytes(person);
+        engine.marshalToBytes(person);
+
+        Assertions.assertThat(metrics.count(Xml2jDtoMetrics.MARSHAL_BUFFER_POOL + Xml2jDtoMetrics.MISS)).isEqualTo(2);
+    }
+
+    private static ByteArrayInputStream stream(String xml) {
+        return new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,107 @@
+package io.github.debug.xml2jdto.core.jaxb;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import io.github.debug.xml2jdto.core.dto.Person;
+import io.github.debug.xml2jdto.core.dto.order.Item;
+import io.github.debug.xml2jdto.core.exception.InvalidMethodParameterException;
+import io.github.debug.xml2jdto.core.exception.InvalidXmlSchemaException;
+import io.github.debug.xml2jdto.core.exception.MalformedXmlException;
+import io.github.debug.xml2jdto.core.exception.XmlLimitExceededException;
+
+public class XmlFeederTest {
+
+    private static final String XSD_PATH = "xsd/valid-schema.xsd";
+
+    private static final String PERSON_XML = "<person><name>John</name><age>30</age><address>Street</address></person>";
+
+    @Test
+    public void testNewFeeder_wholeDocument() {
+        Xml2jDto engine = Xml2jDto.builder().build();
+        String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<!-- header -->\n<person><name>J\u00f6rg &amp; <![CDATA[<Ann>]]></name>"
+                + "<age>30</age><address>Street</address></person>\n<!-- trailer -->\n";
+
+        for (int chunkSize : new int[] { 1, 3, 7, xml.length() }) {
+            List<Person> people = new ArrayList<>();
+            XmlFeeder feeder = engine.newFeeder(Person.class, XSD_PATH, people::add);
+            feed(feeder, xml, chunkSize);
+            feeder.end();
+
+            Assertions.assertThat(feeder.isDone()).isTrue();
+            Assertions.assertThat(people).singleElement().satisfies(person -> {
+                Assertions.assertThat(person.getName()).isEqualTo("J\u00f6rg & <Ann>");
+                Assertions.assertThat(person.getAge()).isEqualTo(30);
+            });
+        }
+    }
+
+    @Test
+    public void testNewFeeder_repeatedElements() {
+        Xml2jDto engine = Xml2jDto.builder().build();
+        String first = "<o:orders xmlns:o=\"urn:orders\"><id>1</id><item><name>pen</name><quantity>2</quantity></item>";
+        String xml = first + "<!-- next --><item><name>ink</name><quantity>5</quantity></item></o:orders>";
+
+        for (int chunkSize : new int[] { 1, 5, xml.length() }) {
+            List<Item> items = new ArrayList<>();
+            XmlFeeder feeder = engine.newFeeder("/{urn:orders}orders/item", Item.class, null, items::add);
+            feed(feeder, first, chunkSize);
+            Assertions.assertThat(items).extracting(Item::getName).containsExactly("pen");
+
+            feed(feeder, xml.substring(first.length()), chunkSize);
+            feeder.end();
+            Assertions.assertThat(items).extracting(Item::getQuantity).containsExactly(2, 5);
+        }
+
+        List<Person> people = new ArrayList<>();
+        XmlFeeder feeder = engine.newFeeder("//person[1]", Person.class, null, people::add);
+        feed(feeder, "<people>" + PERSON_XML + PERSON_XML.replace("John", "Jane") + "</people>", 4);
+        Assertions.assertThat(people).extracting(Person::getName).containsExactly("John");
+    }
+
+    @Test
+    public void testNewFeeder_failures() {
+        CountingMetrics metrics = new CountingMetrics();
+        Xml2jDto engine = Xml2jDto.builder().metrics(metrics).parsingLimits(ParsingLimits.builder().maxDepth(3).build()).build();
+        List<Person> people = new ArrayList<>();
+
+        XmlFeeder invalid = engine.newFeeder(Person.class, XSD_PATH, people::add);
+        Assertions.assertThatThrownBy(() -> feed(invalid, PERSON_XML.replace("30", "x"), 8)).isInstanceOf(InvalidXmlSchemaException.class);
+        Assertions.assertThatThrownBy(() -> invalid.feed(ByteBuffer.allocate(0))).isInstanceOf(IllegalStateException.class);
+
+        XmlFeeder malformed = engine.newFeeder("/person", Person.class, null, people::add);
+        Assertions.assertThatThrownBy(() -> feed(malformed, "<person><name>John</age></person>", 8)).isInstanceOf(MalformedXmlException.class);
+
+        XmlFeeder doctype = engine.newFeeder(Person.class, null, people::add);
+        Assertions.assertThatThrownBy(() -> feed(doctype, "<!DOCTYPE person [<!ENTITY x \"y\">]>" + PERSON_XML, 8))
+                .isInstanceOf(MalformedXmlException.class);
+
+        XmlFeeder deep = engine.newFeeder(Person.class, null, people::add);
+        Assertions.assertThatThrownBy(() -> feed(deep, PERSON_XML.replace("Street", "<a><b>Street</b></a>"), 8))
+                .isInstanceOf(XmlLimitExceededException.class);
+
+        XmlFeeder truncated = engine.newFeeder(Person.class, XSD_PATH, people::add);
+        feed(truncated, PERSON_XML.substring(0, 20), 8);
+        Assertions.assertThatThrownBy(truncated::end).isInstanceOf(MalformedXmlException.class);
+
+        XmlFeeder trailing = engine.newFeeder(Person.class, null, people::add);
+        Assertions.assertThatThrownBy(() -> feed(trailing, PERSON_XML + "<person/>", 8)).isInstanceOf(MalformedXmlException.class);
+
+        Assertions.assertThat(people).hasSize(1);
+        Assertions.assertThat(metrics.count(Xml2jDtoMetrics.UNMARSHAL + Xml2jDtoMetrics.ERROR)).isEqualTo(6);
+        Assertions.assertThatThrownBy(() -> engine.newFeeder("person", Person.class, null, people::add))
+                .isInstanceOf(InvalidMethodParameterException.class);
+    }
+
+    private static void feed(XmlFeeder feeder, String xml, int chunkSize) {
+        byte[] bytes = xml.getBytes(StandardCharsets.UTF_8);
+        for (int offset = 0; offset < bytes.length; offset += chunkSize) {
+            feeder.feed(ByteBuffer.wrap(bytes, offset, Math.min(chunkSize, bytes.length - offset)));
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package io.github.debug.xml2jdto.core.jaxb.catalog;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.w3c.dom.ls.LSResourceResolver;
+
+import io.github.debug.xml2jdto.core.dto.Person;
+import io.github.debug.xml2jdto.core.exception.InvalidXmlSchemaException;
+import io.github.debug.xml2jdto.core.jaxb.Xml2jDto;
+
+public class SchemaDiskCacheTest {
+
+    private static final List<String> CATALOG_PATHS = List.of("xsd/storage/catalog.cat");
+
+    private static final String STORAGE_XSD = "xsd/storage/storage.xsd";
+
+    private static final String RELOAD_XSD = "reload/person.xsd";
+
+    @TempDir
+    private Path directory;
+
+    private static LSResourceResolver catalogResolver(AtomicInteger calls) {
+        CatalogConfig catalogConfig = new CatalogConfig();
+        catalogConfig.setCatalogPaths(CATALOG_PATHS);
+        CatalogResourceResolver resolver = new CatalogResourceResolver(new CatalogProducer(catalogConfig), 0);
+        return (type, namespaceURI, publicId, systemId, baseURI) -> {
+            calls.incrementAndGet();
+            return resolver.resolveResource(type, namespaceURI, publicId, systemId, baseURI);
+        };
+    }
+
+    private Xml2jDto engine(AtomicInteger calls) {
+        return Xml2jDto.builder().resourceResolver(catalogResolver(calls)).catalogPaths(CATALOG_PATHS).schemaDiskCache(directory).build();
+    }
+
+    @Test
+    public void testReuse_withoutResolution() {
+        AtomicInteger coldCalls = new AtomicInteger();
+        AtomicInteger warmCalls = new AtomicInteger();
+
+        engine(coldCalls).getSchema(STORAGE_XSD);
+        Xml2jDto warmEngine = engine(warmCalls);
+
+        Assertions.assertThat(coldCalls).hasPositiveValue();
+        Assertions.assertThat(warmEngine.getSchema(STORAGE_XSD)).isNotNull();
+        Assertions.assertThat(warmCalls).hasValue(0);
+        Assertions.assertThat(warmEngine.getSchemaCacheEntries().get(0).namespaces())
+                .contains("http://schemas.nav.gov.hu/NTCA/1.0/common", "http://schemas.debug.github.io/STORAGE/1.0/file");
+    }
+
+    @Test
+    public void testOpen_withChangedCatalogPaths() {
+        engine(new AtomicInteger()).getSchema(STORAGE_XSD);
+
+        Assertions.assertThat(SchemaDiskCache.open(directory, CATALOG_PATHS).isReused()).isTrue();
+        Assertions.assertThat(SchemaDiskCache.open(directory, List.of("xsd/other.cat")).isReused()).isFalse();
+        Assertions.assertThat(SchemaDiskCache.open(directory, CATALOG_PATHS).isReused()).isFalse();
+    }
+
+    @Test
+    public void testReadXsd_withCorruptDocument() throws IOException {
+        byte[] expected;
+        try (var stream = Thread.currentThread().getContextClassLoader().getResourceAsStream(STORAGE_XSD)) {
+            expected = stream.readAllBytes();
+        }
+        SchemaDiskCache cache = SchemaDiskCache.open(directory, List.of());
+        cache.readXsd(STORAGE_XSD);
+        cache.flush();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(file -> file.toString().endsWith(".xsd")).toList()) {
+                Files.writeString(file, "corrupt");
+            }
+        }
+
+        SchemaDiskCache reopened = SchemaDiskCache.open(directory, List.of());
+
+        Assertions.assertThat(reopened.isReused()).isTrue();
+        Assertions.assertThat(reopened.readXsd(STORAGE_XSD)).isEqualTo(expected);
+    }
+
+    @Test
+    public void testReloadSchema_withReplacedXsd() throws IOException {
+        Path classes = Files.createDirectories(directory.resolve("classes/reload"));
+        Path xsd = classes.resolve("person.xsd");
+        Files.writeString(xsd, personXsd("xs:positiveInteger"));
+        String xml = "<person><name>John</name><age>30</age><address>Street</address></person>";
+        Thread thread = Thread.currentThread();
+        ClassLoader contextClassLoader = thread.getContextClassLoader();
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[] { directory.resolve("classes").toUri().toURL() }, contextClassLoader)) {
+            thread.setContextClassLoader(classLoader);
+            Xml2jDto engine = Xml2jDto.builder().schemaDiskCache(directory.resolve("cache")).build();
+            Assertions.assertThat(engine.unmarshal(xml, Person.class, RELOAD_XSD).getAge()).isEqualTo(30);
+
+            Files.writeString(xsd, personXsd("adult"));
+            engine.reloadSchema(RELOAD_XSD);
+
+            Assertions.assertThatThrownBy(() -> engine.unmarshal(xml.replace("30", "12"), Person.class, RELOAD_XSD))
+                    .isInstanceOf(InvalidXmlSchemaException.class);
+
+            Files.writeString(xsd, personXsd("xs:positiveInteger"));
+            engine.invalidateSchema(RELOAD_XSD);
+
+            Assertions.assertThat(engine.unmarshal(xml.replace("30", "12"), Person.class, RELOAD_XSD).getAge()).isEqualTo(12);
+        } finally {
+            thread.setContextClassLoader(contextClassLoader);
+        }
+    }
+
+    private static String personXsd(String ageType) {
+        return "<xs:schema xmlns:xs=\"http://www.w3.org/2001/XMLSchema\">"
+                + "<xs:simpleType name=\"adult\"><xs:restriction base=\"xs:int\"><xs:minInclusive value=\"18\"/></xs:restriction></xs:simpleType>"
+                + "<xs:element name=\"person\"><xs:complexType><xs:sequence><xs:element name=\"name\" type=\"xs:string\"/>"
+                + "<xs:element name=\"age\" type=\"" + ageType + "\"/><xs:element name=\"address\"/></xs:sequence></xs:complexType></xs:element>"
+                + "</xs:schema>";
+    }
+}
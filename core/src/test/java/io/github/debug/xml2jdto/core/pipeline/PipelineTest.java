@@ -0,0 +1,283 @@
+package io.github.debug.xml2jdto.core.pipeline;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import io.github.debug.xml2jdto.core.dto.Person;
+import io.github.debug.xml2jdto.core.exception.InvalidMethodParameterException;
+import io.github.debug.xml2jdto.core.exception.MalformedXmlException;
+import io.github.debug.xml2jdto.core.exception.Xml2jDtoException;
+import io.github.debug.xml2jdto.core.jaxb.Xml2jDto;
+import io.github.debug.xml2jdto.core.jaxb.Xml2jDtoMetrics;
+
+@DisplayName("Pipeline Tests")
+public class PipelineTest {
+
+    private static final String XSD_PATH = "xsd/valid-schema.xsd";
+
+    @Test
+    public void testOrderedOutput_withParallelStages() {
+        List<String> output = new ArrayList<>();
+        try (Pipeline<Integer> pipeline = Pipeline.<Integer>builder()
+                .stage("square", 4, value -> {
+                    pause();
+                    return value * value;
+                })
+                .stage("format", 2, value -> "v" + value)
+                .queueCapacity(8)
+                .build(output::add)) {
+            IntStream.range(0, 200).forEach(pipeline::submit);
+            pipeline.finish();
+
+            Assertions.assertThat(output).containsExactlyElementsOf(IntStream.range(0, 200).mapToObj(i -> "v" + i * i).toList());
+            Assertions.assertThat(pipeline.getStageStats())
+                    .extracting(StageStats::name, StageStats::parallelism, StageStats::records, StageStats::queued)
+                    .containsExactly(Assertions.tuple("square", 4, 200L, 0), Assertions.tuple("format", 2, 200L, 0),
+                            Assertions.tuple(Pipeline.SINK, 1, 200L, 0));
+            Assertions.assertThat(pipeline.getStageStats().get(0).averageNanos()).isPositive();
+        }
+    }
+
+    @Test
+    public void testUnorderedOutput_dropsNullResults() {
+        List<Integer> output = new ArrayList<>();
+        try (Pipeline<Integer> pipeline = Pipeline.<Integer>builder()
+                .stage("even", 3, value -> {
+                    pause();
+                    return value % 2 == 0 ? value : null;
+                })
+                .ordered(false)
+                .build(output::add)) {
+            IntStream.range(0, 100).forEach(pipeline::submit);
+            pipeline.finish();
+
+            Assertions.assertThat(output).containsExactlyInAnyOrderElementsOf(IntStream.range(0, 100).filter(i -> i % 2 == 0).boxed().toList());
+            Assertions.assertThat(pipeline.getStageStats().get(1).records()).isEqualTo(50);
+        }
+    }
+
+    @Test
+    public void testOrderedOutput_dropsNullResults() {
+        List<Integer> output = new ArrayList<>();
+        try (Pipeline<Integer> pipeline = Pipeline.<Integer>builder()
+                .stage("odd", 2, value -> value % 2 == 1 ? value : null)
+                .stage("negate", 2, value -> -value)
+                .build(output::add)) {
+            IntStream.range(0, 100).forEach(pipeline::submit);
+            pipeline.finish();
+
+            Assertions.assertThat(output).containsExactlyElementsOf(IntStream.range(0, 100).filter(i -> i % 2 == 1).mapToObj(i -> -i).toList());
+        }
+    }
+
+    @Test
+    public void testBackPressure_blocksSubmitWhileSinkIsSlow() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger submitted = new AtomicInteger();
+        List<Integer> output = new ArrayList<>();
+        try (Pipeline<Integer> pipeline = Pipeline.<Integer>builder()
+                .stage("identity", 1, value -> value)
+                .queueCapacity(1)
+                .ordered(false)
+                .build(value -> {
+                    await(release);
+                    output.add(value);
+                })) {
+            Thread producer = Thread.ofPlatform().start(() -> {
+                for (int i = 0; i < 20; i++) {
+                    pipeline.submit(i);
+                    submitted.incrementAndGet();
+                }
+            });
+            producer.join(300);
+
+            // the sink, its queue, the stage and its queue hold a record each
+            Assertions.assertThat(producer.isAlive()).isTrue();
+            Assertions.assertThat(submitted.get()).isLessThanOrEqualTo(4);
+
+            release.countDown();
+            producer.join();
+            pipeline.finish();
+
+            Assertions.assertThat(output).hasSize(20);
+            Assertions.assertThat(pipeline.getStageStats().get(0).blockedNanos()).isPositive();
+        }
+    }
+
+    @Test
+    public void testFailure_cancelsPipeline() {
+        List<Integer> output = new ArrayList<>();
+        try (Pipeline<Integer> pipeline = Pipeline.<Integer>builder()
+                .stage("check", 2, value -> {
+                    if (value == 5) {
+                        throw new IllegalArgumentException("invalid record 5");
+                    }
+                    return value;
+                })
+                .queueCapacity(2)
+                .build(output::add)) {
+            Assertions.assertThatThrownBy(() -> {
+                for (int i = 0; i < 10_000; i++) {
+                    pipeline.submit(i);
+                }
+                pipeline.finish();
+            })
+                    .isInstanceOf(Xml2jDtoException.class)
+                    .hasMessageContaining("[check]")
+                    .hasMessageContaining("invalid record 5")
+                    .hasCauseInstanceOf(IllegalArgumentException.class);
+            Assertions.assertThatThrownBy(pipeline::finish).isInstanceOf(Xml2jDtoException.class);
+            Assertions.assertThat(output).doesNotContain(5).hasSizeLessThan(10_000);
+        }
+    }
+
+    @Test
+    public void testClose_cancelsUnfinishedPipeline() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        Pipeline<Integer> pipeline = Pipeline.<Integer>builder()
+                .stage("wait", 1, value -> {
+                    started.countDown();
+                    await(new CountDownLatch(1));
+                    return value;
+                })
+                .build(value -> {
+                });
+        pipeline.submit(1);
+        pipeline.submit(2);
+        Assertions.assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        pipeline.close();
+
+        Assertions.assertThatThrownBy(() -> pipeline.submit(3)).isInstanceOf(IllegalStateException.class);
+        Assertions.assertThatThrownBy(pipeline::finish).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void testEngineStages_unmarshalTransformMarshal() {
+        CountingMetrics metrics = new CountingMetrics();
+        Xml2jDto engine = Xml2jDto.builder().build();
+        List<String> output = new ArrayList<>();
+        try (Pipeline<byte[]> pipeline = Pipeline.<byte[]>builder()
+                .stage("parse", 3, Pipeline.unmarshal(engine, Person.class, XSD_PATH))
+                .stage("transform", 2, person -> {
+                    person.setName(person.getName().toUpperCase());
+                    return person;
+                })
+                .stage("marshal", 2, Pipeline.marshal(engine, XSD_PATH))
+                .metrics(metrics)
+                .build(bytes -> output.add(new String(bytes, StandardCharsets.UTF_8)))) {
+            for (int i = 0; i < 50; i++) {
+                pipeline.submit(person("name" + i, i + 1).getBytes(StandardCharsets.UTF_8));
+            }
+            pipeline.finish();
+
+            Assertions.assertThat(output).hasSize(50);
+            for (int i = 0; i < 50; i++) {
+                Assertions.assertThat(output.get(i)).contains("<name>NAME" + i + "</name>", "<age>" + (i + 1) + "</age>");
+            }
+            Assertions.assertThat(metrics.count(Xml2jDtoMetrics.PIPELINE_STAGE + "parse")).isEqualTo(50);
+            Assertions.assertThat(metrics.count(Xml2jDtoMetrics.PIPELINE_STAGE + "marshal")).isEqualTo(50);
+            Assertions.assertThat(metrics.count(Xml2jDtoMetrics.PIPELINE_STAGE + Pipeline.SINK)).isEqualTo(50);
+        }
+    }
+
+    @Test
+    public void testEngineStages_malformedDocumentFailsParseStage() {
+        CountingMetrics metrics = new CountingMetrics();
+        try (Pipeline<byte[]> pipeline = Pipeline.<byte[]>builder()
+                .stage("parse", 2, Pipeline.unmarshal(Person.class, XSD_PATH))
+                .metrics(metrics)
+                .build(person -> {
+                })) {
+            pipeline.submit(person("name", 1).getBytes(StandardCharsets.UTF_8));
+            pipeline.submit("<person><name>".getBytes(StandardCharsets.UTF_8));
+
+            Assertions.assertThatThrownBy(pipeline::finish)
+                    .isInstanceOf(Xml2jDtoException.class)
+                    .hasMessageContaining("[parse]")
+                    .hasCauseInstanceOf(MalformedXmlException.class);
+            Assertions.assertThat(metrics.count(Xml2jDtoMetrics.PIPELINE_STAGE + "parse" + Xml2jDtoMetrics.ERROR)).isEqualTo(1);
+        }
+    }
+
+    @Test
+    public void testBuilder_invalidParameters() {
+        Assertions.assertThatThrownBy(() -> Pipeline.<Integer>builder().stage(" ", 1, value -> value))
+                .isInstanceOf(InvalidMethodParameterException.class);
+        Assertions.assertThatThrownBy(() -> Pipeline.<Integer>builder().stage(Pipeline.SINK, 1, value -> value))
+                .isInstanceOf(InvalidMethodParameterException.class);
+        Assertions.assertThatThrownBy(() -> Pipeline.<Integer>builder().stage("a", 1, value -> value).stage("a", 1, value -> value))
+                .isInstanceOf(InvalidMethodParameterException.class);
+        Assertions.assertThatThrownBy(() -> Pipeline.<Integer>builder().stage("a", 0, value -> value))
+                .isInstanceOf(InvalidMethodParameterException.class);
+        Assertions.assertThatThrownBy(() -> Pipeline.<Integer>builder().stage("a", 1, null)).isInstanceOf(InvalidMethodParameterException.class);
+        Assertions.assertThatThrownBy(() -> Pipeline.<Integer>builder().queueCapacity(0)).isInstanceOf(InvalidMethodParameterException.class);
+        Assertions.assertThatThrownBy(() -> Pipeline.<Integer>builder().build(null)).isInstanceOf(InvalidMethodParameterException.class);
+        Assertions.assertThatThrownBy(() -> Pipeline.<Integer>builder().threadFactory(null))
+                .isInstanceOf(InvalidMethodParameterException.class)
+                .hasMessage("threadFactory cannot be null!");
+        Assertions.assertThatThrownBy(() -> Pipeline.<Integer>builder().metrics(null))
+                .isInstanceOf(InvalidMethodParameterException.class)
+                .hasMessage("metrics cannot be null!");
+        try (Pipeline<Integer> pipeline = Pipeline.<Integer>builder().build(value -> {
+        })) {
+            Assertions.assertThatThrownBy(() -> pipeline.submit(null)).isInstanceOf(InvalidMethodParameterException.class);
+            pipeline.finish();
+            Assertions.assertThatThrownBy(() -> pipeline.submit(1)).isInstanceOf(IllegalStateException.class);
+        }
+    }
+
+    private static String person(String name, int age) {
+        return "<?xml version=\"1.0\" encoding=\"UTF-8\"?><person><name>" + name + "</name><age>" + age + "</age><address>Street</address></person>";
+    }
+
+    private static void pause() {
+        try {
+            Thread.sleep(0, ThreadLocalRandom.current().nextInt(500_000));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class CountingMetrics implements Xml2jDtoMetrics {
+
+        private final Map<String, AtomicLong> counts = new ConcurrentHashMap<>();
+
+        @Override
+        public void increment(String name) {
+            counts.computeIfAbsent(name, key -> new AtomicLong()).incrementAndGet();
+        }
+
+        @Override
+        public void recordNanos(String name, long nanos) {
+            increment(name);
+        }
+
+        private long count(String name) {
+            AtomicLong count = counts.get(name);
+            return count == null ? 0 : count.get();
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package io.github.debug.xml2jdto.core.stax;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.xml.sax.helpers.NamespaceSupport;
+
+@DisplayName("StAX Codecs Tests")
+public class StaxCodecsTest {
+
+    private static final String NS = "urn:test";
+
+    @Test
+    public void testNewWriter_writesElementsAttributesAndNamespaces() throws XMLStreamException {
+        StringWriter target = new StringWriter();
+        XMLStreamWriter writer = StaxCodecs.newWriter(target);
+
+        writer.writeStartElement("ns1", "root", NS);
+        writer.writeNamespace("ns1", NS);
+        writer.writeAttribute("id", "1");
+        writer.writeStartElement("ns1", "child", NS);
+        writer.writeCharacters("text");
+        writer.writeEndElement();
+        writer.writeEmptyElement("ns1", "empty", NS);
+        writer.writeStartElement("ns1", "blank", NS);
+        writer.writeEndElement();
+        writer.writeEndDocument();
+        writer.close();
+
+        Assertions.assertThat(target)
+                .hasToString("<ns1:root xmlns:ns1=\"urn:test\" id=\"1\"><ns1:child>text</ns1:child><ns1:empty/><ns1:blank/></ns1:root>");
+    }
+
+    @Test
+    public void testNewWriter_escapesLikeJaxb() throws XMLStreamException {
+        StringWriter target = new StringWriter();
+        XMLStreamWriter writer = StaxCodecs.newWriter(target);
+
+        writer.writeStartElement("a");
+        writer.writeAttribute("v", "<\"x\" & 'y'>");
+        writer.writeCharacters("<\"x\" & 'y'>");
+        writer.writeEndDocument();
+        writer.flush();
+
+        Assertions.assertThat(target).hasToString("<a v=\"&lt;&quot;x&quot; &amp; 'y'&gt;\">&lt;\"x\" &amp; 'y'&gt;</a>");
+    }
+
+    @Test
+    public void testNewWriter_encodesUtf8AcrossBufferBoundaries() throws XMLStreamException {
+        String text = "á€😀".repeat(3000);
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+        XMLStreamWriter writer = StaxCodecs.newWriter(target);
+
+        writer.writeStartElement("a");
+        writer.writeCharacters(text);
+        writer.writeEndElement();
+        writer.close();
+
+        Assertions.assertThat(target.toString(StandardCharsets.UTF_8)).isEqualTo("<a>" + text + "</a>");
+    }
+
+    @Test
+    public void testNewWriter_resolvesDeclaredPrefixes() throws XMLStreamException {
+        StringWriter target = new StringWriter();
+        XMLStreamWriter writer = StaxCodecs.newWriter(target);
+
+        writer.writeStartElement("p", "root", NS);
+        writer.writeNamespace("p", NS);
+        writer.writeStartElement(NS, "child");
+        Assertions.assertThat(writer.getNamespaceContext().getNamespaceURI("p")).isEqualTo(NS);
+        writer.writeEndElement();
+        writer.writeEndElement();
+
+        Assertions.assertThat(writer.getPrefix(NS)).isNull();
+        Assertions.assertThatThrownBy(() -> writer.writeStartElement(NS, "other")).isInstanceOf(XMLStreamException.class);
+        writer.flush();
+        Assertions.assertThat(target).hasToString("<p:root xmlns:p=\"urn:test\"><p:child/></p:root>");
+    }
+
+    @Test
+    public void testNewWriter_resolvesPrefixesOfNamespaceContext() throws XMLStreamException {
+        NamespaceSupport context = new NamespaceSupport();
+        context.declarePrefix("c", "urn:context");
+        StringWriter target = new StringWriter();
+        XMLStreamWriter writer = StaxCodecs.newWriter(target);
+        writer.setNamespaceContext(new NamespaceContext() {
+            @Override
+            public String getNamespaceURI(String prefix) {
+                return context.getURI(prefix);
+            }
+
+            @Override
+            public String getPrefix(String namespaceURI) {
+                return context.getPrefix(namespaceURI);
+            }
+
+            @Override
+            public Iterator<String> getPrefixes(String namespaceURI) {
+                return context.getPrefixes(namespaceURI).asIterator();
+            }
+        });
+
+        writer.writeStartElement("urn:context", "root");
+        writer.writeNamespace("p", NS);
+        writer.writeEmptyElement(NS, "child");
+        writer.writeEndElement();
+        writer.flush();
+
+        Assertions.assertThat(writer.getPrefix("urn:context")).isEqualTo("c");
+        Assertions.assertThat(writer.getNamespaceContext().getNamespaceURI("c")).isEqualTo("urn:context");
+        Assertions.assertThat(target).hasToString("<c:root xmlns:p=\"urn:test\"><p:child/></c:root>");
+    }
+
+    @Test
+    public void testNewWriter_outputReadableByStaxReader() throws XMLStreamException {
+        StringWriter target = new StringWriter();
+        XMLStreamWriter writer = StaxCodecs.newWriter(target);
+        writer.writeStartDocument();
+        writer.writeStartElement("ns1", "root", NS);
+        writer.writeNamespace("ns1", NS);
+        writer.writeAttribute("q", "a\"b");
+        writer.writeCharacters("1 < 2 && 3 > 2");
+        writer.writeEndDocument();
+        writer.close();
+
+        XMLStreamReader reader = XMLInputFactory.newFactory().createXMLStreamReader(new StringReader(target.toString()));
+        Assertions.assertThat(reader.nextTag()).isEqualTo(XMLStreamConstants.START_ELEMENT);
+        Assertions.assertThat(reader.getNamespaceURI()).isEqualTo(NS);
+        Assertions.assertThat(reader.getAttributeValue(null, "q")).isEqualTo("a\"b");
+        Assertions.assertThat(reader.getElementText()).isEqualTo("1 < 2 && 3 > 2");
+    }
+}
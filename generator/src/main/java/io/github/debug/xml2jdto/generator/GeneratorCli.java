@@ -0,0 +1,202 @@
+package io.github.debug.xml2jdto.generator;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.MessageFormat;
+
+import javax.xml.transform.stream.StreamSource;
+
+import org.apache.commons.lang3.StringUtils;
+import org.xml.sax.SAXException;
+
+import io.github.debug.xml2jdto.core.jaxb.JaxbUtil;
+
+/**
+ * Command line interface of the {@link XmlGenerator}.
+ * <p>
+ * The XSD and the catalog are looked up on the classpath, so the jars containing them have to be added to the classpath, e.g.:
+ * </p>
+ *
+ * <pre>
+ * java -cp generator.jar:core.jar:commons-lang3.jar:schema.jar io.github.debug.xml2jdto.generator.GeneratorCli \
+ *     --xsd xsd/io/github/debugOSS/xml2jdto/example/STORAGE/1.0/storage.xsd --catalog xsd/catalog.cat \
+ *     --root Storage --size 10MB --seed 42 --out storage.xml
+ * </pre>
+ *
+ * @author scheffer.imrich
+ */
+public final class GeneratorCli {
+
+    private static final String CATALOG_PATH_PROPERTY = "xml2jdto.catalog.path";
+
+    private static final String USAGE = """
+            Usage: GeneratorCli --xsd <classpath xsd> [options]
+              --xsd <path>         classpath location of the XSD (mandatory)
+              --root <name>        root element, local name or {namespace}name
+              --catalog <path>     classpath location of the XML catalog (sets xml2jdto.catalog.path)
+              --size <size>        approximate document size, e.g. 512KB, 10MB
+              --seed <long>        seed of the random generator (default 0)
+              --max-depth <int>    depth of optional content (default 4)
+              --max-occurs <int>   repetitions of repeatable content outside the size budget (default 3)
+              --count <int>        number of documents, document i uses seed + i (default 1)
+              --out <file>         target file, with --count > 1 the index is appended to the name (default stdout)
+              --validate           validate the generated documents against the XSD
+            """;
+
+    private GeneratorCli() {
+        super();
+    }
+
+    /**
+     * Entry point of the command line interface, exits with a non-zero status on error.
+     *
+     * @param args
+     *            the command line arguments, see the usage printed with {@code --help}
+     */
+    public static void main(String[] args) {
+        int status = run(args, System.out, System.err);
+        if (status != 0) {
+            System.exit(status);
+        }
+    }
+
+    /**
+     * Runs the generator.
+     *
+     * @return the exit status: 0 on success, 1 on generation or validation failure, 2 on invalid arguments
+     */
+    static int run(String[] args, OutputStream stdout, PrintStream stderr) {
+        Options options;
+        try {
+            options = Options.parse(args);
+        } catch (IllegalArgumentException e) {
+            stderr.println(e.getMessage());
+            stderr.print(USAGE);
+            return 2;
+        }
+        if (options.help) {
+            stderr.print(USAGE);
+            return 0;
+        }
+        if (options.catalog != null) {
+            System.setProperty(CATALOG_PATH_PROPERTY, options.catalog);
+        }
+
+        try {
+            XmlGenerator generator = XmlGenerator.builder()
+                    .xsdPath(options.xsd)
+                    .rootElement(options.root)
+                    .seed(options.seed)
+                    .targetSize(options.size)
+                    .maxDepth(options.maxDepth)
+                    .maxOccurs(options.maxOccurs)
+                    .build();
+            for (int i = 0; i < options.count; i++) {
+                long seed = options.seed + i;
+                if (options.out == null) {
+                    if (options.validate) {
+                        byte[] document;
+                        try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
+                            generator.generate(baos, seed);
+                            document = baos.toByteArray();
+                        }
+                        validate(options.xsd, new ByteArrayInputStream(document), "stdout");
+                        stdout.write(document);
+                    } else {
+                        generator.generate(stdout, seed);
+                    }
+                    stdout.flush();
+                } else {
+                    Path target = options.count == 1 ? options.out : indexed(options.out, i);
+                    try (OutputStream os = Files.newOutputStream(target)) {
+                        generator.generate(os, seed);
+                    }
+                    if (options.validate) {
+                        try (InputStream is = Files.newInputStream(target)) {
+                            validate(options.xsd, is, target.toString());
+                        }
+                    }
+                    stderr.println(MessageFormat.format("Generated [{0}], [{1}] bytes", target, Files.size(target)));
+                }
+            }
+            return 0;
+        } catch (IOException | SAXException | RuntimeException e) {
+            stderr.println(MessageFormat.format("Generation failed: [{0}]", e.getLocalizedMessage()));
+            return 1;
+        }
+    }
+
+    private static void validate(String xsdPath, InputStream document, String name) throws IOException, SAXException {
+        try {
+            JaxbUtil.getSchema(xsdPath).newValidator().validate(new StreamSource(document));
+        } catch (SAXException e) {
+            throw new SAXException(MessageFormat.format("Document [{0}] is not valid: [{1}]", name, e.getLocalizedMessage()), e);
+        }
+    }
+
+    private static Path indexed(Path out, int index) {
+        String fileName = out.getFileName().toString();
+        String extension = StringUtils.substringAfterLast(fileName, ".");
+        String base = extension.isEmpty() ? fileName : StringUtils.removeEnd(fileName, "." + extension);
+        return out.resolveSibling(base + "-" + index + (extension.isEmpty() ? "" : "." + extension));
+    }
+
+    /**
+     * Parsed command line options.
+     */
+    private static final class Options {
+        private String xsd;
+        private String root;
+        private String catalog;
+        private long size;
+        private long seed;
+        private int maxDepth = XmlGenerator.DEFAULT_MAX_DEPTH;
+        private int maxOccurs = XmlGenerator.DEFAULT_MAX_OCCURS;
+        private int count = 1;
+        private Path out;
+        private boolean validate;
+        private boolean help;
+
+        private static Options parse(String[] args) {
+            Options options = new Options();
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                try {
+                    switch (arg) {
+                    case "--xsd" -> options.xsd = value(args, ++i, arg);
+                    case "--root" -> options.root = value(args, ++i, arg);
+                    case "--catalog" -> options.catalog = value(args, ++i, arg);
+                    case "--size" -> options.size = XmlGenerator.parseSize(value(args, ++i, arg));
+                    case "--seed" -> options.seed = Long.parseLong(value(args, ++i, arg));
+                    case "--max-depth" -> options.maxDepth = Integer.parseInt(value(args, ++i, arg));
+                    case "--max-occurs" -> options.maxOccurs = Integer.parseInt(value(args, ++i, arg));
+                    case "--count" -> options.count = Integer.parseInt(value(args, ++i, arg));
+                    case "--out" -> options.out = Path.of(value(args, ++i, arg));
+                    case "--validate" -> options.validate = true;
+                    case "-h", "--help" -> options.help = true;
+                    default -> throw new IllegalArgumentException(MessageFormat.format("Unknown option [{0}]", arg));
+                    }
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException(MessageFormat.format("Invalid value of option [{0}]: [{1}]", arg, args[i]), e);
+                }
+            }
+            if (options.xsd == null && !options.help) {
+                throw new IllegalArgumentException("Option [--xsd] is mandatory");
+            }
+            return options;
+        }
+
+        private static String value(String[] args, int index, String option) {
+            if (index >= args.length) {
+                throw new IllegalArgumentException(MessageFormat.format("Option [{0}] requires a value", option));
+            }
+            return args[index];
+        }
+    }
+}
@@ -0,0 +1,307 @@
+package io.github.debug.xml2jdto.generator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import io.github.debug.xml2jdto.core.exception.ExBuilder;
+
+/**
+ * Generates strings matching an XSD {@code pattern} facet.
+ * <p>
+ * Supports the subset of the XML Schema regular expression language that appears in practice in facet definitions: literals, escapes
+ * ({@code \d}, {@code \s}, {@code \w}, ...), character classes with ranges and negation, groups with alternatives, and the {@code ?}, {@code *},
+ * {@code +}, {@code {n}}, {@code {n,}} and {@code {n,m}} quantifiers. Open quantifiers are capped at {@value #OPEN_QUANTIFIER_CAP} repetitions.
+ * Character class subtraction and Unicode blocks are approximated.
+ * </p>
+ *
+ * @author scheffer.imrich
+ */
+final class RegexValueGenerator {
+
+    private static final int OPEN_QUANTIFIER_CAP = 8;
+
+    private static final char[] DIGITS = "0123456789".toCharArray();
+    private static final char[] WORD = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789".toCharArray();
+    private static final char[] NAME_START = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ_".toCharArray();
+    private static final char[] SPACE = { ' ' };
+    private static final char[] PRINTABLE = printableAscii();
+
+    private final Node root;
+
+    private RegexValueGenerator(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * Compiles an XSD pattern.
+     *
+     * @param pattern
+     *            the pattern facet value
+     * @return the generator of matching strings
+     */
+    static RegexValueGenerator compile(String pattern) {
+        Parser parser = new Parser(pattern);
+        Node node = parser.alternation();
+        if (parser.pos < pattern.length()) {
+            throw ExBuilder.newXml2jDtoException().withMessage("Unsupported pattern [{0}] at position [{1}]", pattern, parser.pos).build();
+        }
+        return new RegexValueGenerator(node);
+    }
+
+    /**
+     * Generates a random string matching the pattern.
+     *
+     * @param random
+     *            the random source
+     * @return a matching string
+     */
+    String generate(Random random) {
+        StringBuilder sb = new StringBuilder();
+        root.append(sb, random);
+        return sb.toString();
+    }
+
+    private sealed interface Node permits Literal, CharSet, Alternation, Sequence, Repeat {
+
+        void append(StringBuilder sb, Random random);
+    }
+
+    private record Literal(char c) implements Node {
+
+        @Override
+        public void append(StringBuilder sb, Random random) {
+            sb.append(c);
+        }
+    }
+
+    private record CharSet(char[] chars) implements Node {
+
+        @Override
+        public void append(StringBuilder sb, Random random) {
+            sb.append(chars[random.nextInt(chars.length)]);
+        }
+    }
+
+    private record Alternation(List<Node> alternatives) implements Node {
+
+        @Override
+        public void append(StringBuilder sb, Random random) {
+            alternatives.get(random.nextInt(alternatives.size())).append(sb, random);
+        }
+    }
+
+    private record Sequence(List<Node> nodes) implements Node {
+
+        @Override
+        public void append(StringBuilder sb, Random random) {
+            for (Node node : nodes) {
+                node.append(sb, random);
+            }
+        }
+    }
+
+    private record Repeat(Node node, int min, int max) implements Node {
+
+        @Override
+        public void append(StringBuilder sb, Random random) {
+            int count = min + random.nextInt(max - min + 1);
+            for (int i = 0; i < count; i++) {
+                node.append(sb, random);
+            }
+        }
+    }
+
+    private static final class Parser {
+
+        private final String pattern;
+
+        private int pos;
+
+        private Parser(String pattern) {
+            this.pattern = pattern;
+        }
+
+        private Node alternation() {
+            List<Node> alternatives = new ArrayList<>();
+            alternatives.add(sequence());
+            while (pos < pattern.length() && pattern.charAt(pos) == '|') {
+                pos++;
+                alternatives.add(sequence());
+            }
+            return alternatives.size() == 1 ? alternatives.get(0) : new Alternation(alternatives);
+        }
+
+        private Node sequence() {
+            List<Node> nodes = new ArrayList<>();
+            while (pos < pattern.length() && pattern.charAt(pos) != '|' && pattern.charAt(pos) != ')') {
+                nodes.add(quantified(atom()));
+            }
+            return new Sequence(nodes);
+        }
+
+        private Node atom() {
+            char c = pattern.charAt(pos++);
+            switch (c) {
+            case '(':
+                Node group = alternation();
+                expect(')');
+                return group;
+            case '[':
+                return charClass();
+            case '\\':
+                return escape();
+            case '.':
+                return new CharSet(PRINTABLE);
+            default:
+                return new Literal(c);
+            }
+        }
+
+        private Node quantified(Node atom) {
+            if (pos >= pattern.length()) {
+                return atom;
+            }
+            char c = pattern.charAt(pos);
+            switch (c) {
+            case '?':
+                pos++;
+                return new Repeat(atom, 0, 1);
+            case '*':
+                pos++;
+                return new Repeat(atom, 0, OPEN_QUANTIFIER_CAP);
+            case '+':
+                pos++;
+                return new Repeat(atom, 1, OPEN_QUANTIFIER_CAP);
+            case '{':
+                pos++;
+                int close = pattern.indexOf('}', pos);
+                String[] bounds = pattern.substring(pos, close).split(",", -1);
+                pos = close + 1;
+                int min = Integer.parseInt(bounds[0].trim());
+                int max;
+                if (bounds.length == 1) {
+                    max = min;
+                } else if (bounds[1].isBlank()) {
+                    max = min + OPEN_QUANTIFIER_CAP;
+                } else {
+                    max = Integer.parseInt(bounds[1].trim());
+                }
+                return new Repeat(atom, min, max);
+            default:
+                return atom;
+            }
+        }
+
+        private Node escape() {
+            char c = pattern.charAt(pos++);
+            return switch (c) {
+            case 'd' -> new CharSet(DIGITS);
+            case 'w' -> new CharSet(WORD);
+            case 's' -> new CharSet(SPACE);
+            case 'i', 'c' -> new CharSet(NAME_START);
+            case 'D', 'S', 'W', 'I', 'C' -> new CharSet(WORD);
+            case 'p', 'P' -> {
+                skipCategory();
+                yield new CharSet(WORD);
+            }
+            case 'n' -> new Literal('\n');
+            case 'r' -> new Literal('\r');
+            case 't' -> new Literal('\t');
+            default -> new Literal(c);
+            };
+        }
+
+        private Node charClass() {
+            boolean negated = pos < pattern.length() && pattern.charAt(pos) == '^';
+            if (negated) {
+                pos++;
+            }
+            StringBuilder members = new StringBuilder();
+            while (pattern.charAt(pos) != ']') {
+                char c = pattern.charAt(pos++);
+                if (c == '-' && pattern.charAt(pos) == '[') {
+                    // character class subtraction, approximated by ignoring it
+                    skipNestedClass();
+                    continue;
+                }
+                if (c == '\\') {
+                    char e = pattern.charAt(pos++);
+                    switch (e) {
+                    case 'd' -> members.append(DIGITS);
+                    case 'w' -> members.append(WORD);
+                    case 's' -> members.append(SPACE);
+                    case 'i', 'c' -> members.append(NAME_START);
+                    case 'p', 'P' -> {
+                        skipCategory();
+                        members.append(WORD);
+                    }
+                    case 'n' -> members.append('\n');
+                    case 'r' -> members.append('\r');
+                    case 't' -> members.append('\t');
+                    default -> members.append(e);
+                    }
+                } else if (pos + 1 < pattern.length() && pattern.charAt(pos) == '-' && pattern.charAt(pos + 1) != ']' && pattern.charAt(pos + 1) != '[') {
+                    char to = pattern.charAt(pos + 1);
+                    pos += 2;
+                    for (char r = c; r <= to; r++) {
+                        members.append(r);
+                    }
+                } else {
+                    members.append(c);
+                }
+            }
+            pos++;
+            if (negated) {
+                StringBuilder complement = new StringBuilder();
+                for (char p : PRINTABLE) {
+                    if (members.indexOf(String.valueOf(p)) < 0) {
+                        complement.append(p);
+                    }
+                }
+                return new CharSet(complement.toString().toCharArray());
+            }
+            return new CharSet(members.toString().toCharArray());
+        }
+
+        private void skipCategory() {
+            if (pos < pattern.length() && pattern.charAt(pos) == '{') {
+                pos = pattern.indexOf('}', pos) + 1;
+            }
+        }
+
+        private void skipNestedClass() {
+            int depth = 0;
+            do {
+                char c = pattern.charAt(pos++);
+                if (c == '[') {
+                    depth++;
+                } else if (c == ']') {
+                    depth--;
+                }
+            } while (depth > 0);
+        }
+
+        private void expect(char c) {
+            if (pos >= pattern.length() || pattern.charAt(pos) != c) {
+                throw ExBuilder.newXml2jDtoException().withMessage("Unsupported pattern [{0}], expected [{1}] at position [{2}]", pattern, c, pos).build();
+            }
+            pos++;
+        }
+    }
+
+    private static char[] printableAscii() {
+        StringBuilder sb = new StringBuilder();
+        for (char c = 'a'; c <= 'z'; c++) {
+            sb.append(c);
+        }
+        for (char c = 'A'; c <= 'Z'; c++) {
+            sb.append(c);
+        }
+        for (char c = '0'; c <= '9'; c++) {
+            sb.append(c);
+        }
+        sb.append(" -_.");
+        return sb.toString().toCharArray();
+    }
+}
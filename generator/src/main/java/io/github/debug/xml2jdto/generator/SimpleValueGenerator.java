@@ -0,0 +1,318 @@
+package io.github.debug.xml2jdto.generator;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import javax.xml.namespace.QName;
+
+import io.github.debug.xml2jdto.core.exception.ExBuilder;
+import io.github.debug.xml2jdto.generator.XsdModel.SimpleTypeDef;
+
+/**
+ * Generates facet valid lexical values of simple types.
+ * <p>
+ * The restriction chain of a type is flattened: the most derived value of each facet is used, while the patterns of every derivation step must all
+ * match, as required by XML Schema. Instances are thread safe. A value is first generated from the built-in base type within the length and range facets; if it does not
+ * satisfy the patterns, it is generated from the most derived pattern instead and checked again.
+ * </p>
+ *
+ * @author scheffer.imrich
+ */
+final class SimpleValueGenerator {
+
+    private static final int MAX_ATTEMPTS = 32;
+
+    private static final String WORDS = "abcdefghijklmnopqrstuvwxyz";
+
+    private final XsdModel model;
+
+    private final Map<String, RegexValueGenerator> regexGenerators = new ConcurrentHashMap<>();
+
+    private final Map<String, Optional<Pattern>> patterns = new ConcurrentHashMap<>();
+
+    SimpleValueGenerator(XsdModel model) {
+        this.model = model;
+    }
+
+    /**
+     * Generates a value of a named simple type.
+     *
+     * @param typeName
+     *            name of the type, built-in or defined in the model
+     * @param random
+     *            the random source
+     * @return the lexical value
+     */
+    String generate(QName typeName, Random random) {
+        if (XsdModel.isBuiltIn(typeName)) {
+            return builtIn(typeName.getLocalPart(), new Restriction(), random);
+        }
+        SimpleTypeDef type = model.simpleTypes.get(typeName);
+        if (type == null) {
+            throw ExBuilder.newXml2jDtoException().withMessage("Simple type [{0}] is not defined", typeName).build();
+        }
+        return generate(type, random);
+    }
+
+    /**
+     * Generates a value of a simple type definition.
+     *
+     * @param type
+     *            the type definition
+     * @param random
+     *            the random source
+     * @return the lexical value
+     */
+    String generate(SimpleTypeDef type, Random random) {
+        if (type.listItemType() != null) {
+            int count = 1 + random.nextInt(3);
+            List<String> items = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                items.add(generate(type.listItemType(), random));
+            }
+            return String.join(" ", items);
+        }
+        if (type.unionMemberTypes() != null && !type.unionMemberTypes().isEmpty()) {
+            return generate(type.unionMemberTypes().get(random.nextInt(type.unionMemberTypes().size())), random);
+        }
+
+        Restriction restriction = new Restriction();
+        String builtIn = flatten(type, restriction);
+        if (!restriction.enumerations.isEmpty()) {
+            return restriction.enumerations.get(random.nextInt(restriction.enumerations.size()));
+        }
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            String candidate = builtIn(builtIn, restriction, random);
+            if (restriction.accepts(candidate, this)) {
+                return candidate;
+            }
+            if (!restriction.patterns.isEmpty()) {
+                candidate = regexGenerators.computeIfAbsent(restriction.patterns.get(0), RegexValueGenerator::compile).generate(random);
+                if (restriction.accepts(candidate, this)) {
+                    return candidate;
+                }
+            }
+        }
+        throw ExBuilder.newXml2jDtoException()
+                .withMessage("Cannot generate a facet valid value for type [{0}] after [{1}] attempts", type.name(), MAX_ATTEMPTS)
+                .build();
+    }
+
+    /**
+     * Collects the facets of the restriction chain, the most derived first.
+     *
+     * @return the local name of the built-in type at the root of the chain
+     */
+    private String flatten(SimpleTypeDef type, Restriction restriction) {
+        SimpleTypeDef current = type;
+        while (true) {
+            restriction.merge(current.facets());
+            if (current.inlineBaseType() != null) {
+                current = current.inlineBaseType();
+            } else if (XsdModel.isBuiltIn(current.baseType())) {
+                return current.baseType().getLocalPart();
+            } else {
+                SimpleTypeDef base = model.simpleTypes.get(current.baseType());
+                if (base == null) {
+                    return "string";
+                }
+                current = base;
+            }
+        }
+    }
+
+    private String builtIn(String type, Restriction restriction, Random random) {
+        return switch (type) {
+        case "boolean" -> random.nextBoolean() ? "true" : "false";
+        case "int", "integer", "long", "short", "byte", "nonNegativeInteger", "positiveInteger", "negativeInteger", "nonPositiveInteger",
+                "unsignedInt", "unsignedLong", "unsignedShort", "unsignedByte" -> integer(type, restriction, random);
+        case "decimal" -> decimal(restriction, random);
+        case "double", "float" -> String.valueOf(Math.round(random.nextDouble() * 1_000_000d) / 100d);
+        case "date" -> String.format("%04d-%02d-%02dZ", 2000 + random.nextInt(30), 1 + random.nextInt(12), 1 + random.nextInt(28));
+        case "dateTime" -> String.format(
+                "%04d-%02d-%02dT%02d:%02d:%02d.%03dZ",
+                2000 + random.nextInt(30),
+                1 + random.nextInt(12),
+                1 + random.nextInt(28),
+                random.nextInt(24),
+                random.nextInt(60),
+                random.nextInt(60),
+                random.nextInt(1000));
+        case "time" -> String.format("%02d:%02d:%02dZ", random.nextInt(24), random.nextInt(60), random.nextInt(60));
+        case "gYear" -> String.valueOf(2000 + random.nextInt(30));
+        case "duration" -> "PT" + (1 + random.nextInt(3600)) + "S";
+        case "base64Binary" -> Base64.getEncoder().encodeToString(bytes(restriction, random));
+        case "hexBinary" -> hex(bytes(restriction, random));
+        case "anyURI" -> "urn:xml2jdto:" + word(random, 8);
+        case "QName", "NCName", "Name", "ID", "IDREF", "NMTOKEN", "language" -> "en";
+        default -> string(restriction, random);
+        };
+    }
+
+    private static String integer(String type, Restriction restriction, Random random) {
+        long min = switch (type) {
+        case "byte" -> Byte.MIN_VALUE;
+        case "short" -> Short.MIN_VALUE;
+        case "int" -> Integer.MIN_VALUE;
+        case "positiveInteger" -> 1;
+        case "nonNegativeInteger", "unsignedInt", "unsignedLong", "unsignedShort", "unsignedByte" -> 0;
+        default -> -1_000_000_000L;
+        };
+        long max = switch (type) {
+        case "byte" -> Byte.MAX_VALUE;
+        case "short" -> Short.MAX_VALUE;
+        case "int" -> Integer.MAX_VALUE;
+        case "unsignedByte" -> 255;
+        case "unsignedShort" -> 65_535;
+        case "unsignedInt" -> 4_294_967_295L;
+        case "negativeInteger" -> -1;
+        case "nonPositiveInteger" -> 0;
+        default -> 1_000_000_000L;
+        };
+        if (restriction.minInclusive != null) {
+            min = Math.max(min, new BigDecimal(restriction.minInclusive).setScale(0, RoundingMode.CEILING).longValue());
+        }
+        if (restriction.minExclusive != null) {
+            min = Math.max(min, new BigDecimal(restriction.minExclusive).setScale(0, RoundingMode.FLOOR).longValue() + 1);
+        }
+        if (restriction.maxInclusive != null) {
+            max = Math.min(max, new BigDecimal(restriction.maxInclusive).setScale(0, RoundingMode.FLOOR).longValue());
+        }
+        if (restriction.maxExclusive != null) {
+            max = Math.min(max, new BigDecimal(restriction.maxExclusive).setScale(0, RoundingMode.CEILING).longValue() - 1);
+        }
+        if (restriction.totalDigits != null) {
+            long limit = (long) Math.pow(10, Math.min(restriction.totalDigits, 18)) - 1;
+            min = Math.max(min, -limit);
+            max = Math.min(max, limit);
+        }
+        if (max <= min) {
+            return String.valueOf(min);
+        }
+        return String.valueOf(min + Math.floorMod(random.nextLong(), max - min + 1));
+    }
+
+    private static String decimal(Restriction restriction, Random random) {
+        int fractionDigits = restriction.fractionDigits == null ? 2 : restriction.fractionDigits;
+        BigDecimal min = restriction.minInclusive != null ? new BigDecimal(restriction.minInclusive) : BigDecimal.valueOf(-1_000_000);
+        BigDecimal max = restriction.maxInclusive != null ? new BigDecimal(restriction.maxInclusive) : BigDecimal.valueOf(1_000_000);
+        if (restriction.minExclusive != null) {
+            min = new BigDecimal(restriction.minExclusive).add(BigDecimal.ONE.movePointLeft(fractionDigits));
+        }
+        if (restriction.maxExclusive != null) {
+            max = new BigDecimal(restriction.maxExclusive).subtract(BigDecimal.ONE.movePointLeft(fractionDigits));
+        }
+        if (restriction.totalDigits != null) {
+            BigDecimal limit = BigDecimal.TEN.pow(Math.max(0, restriction.totalDigits - fractionDigits)).subtract(BigDecimal.ONE);
+            min = min.max(limit.negate());
+            max = max.min(limit);
+        }
+        BigDecimal value = min.add(max.subtract(min).multiply(BigDecimal.valueOf(random.nextDouble())));
+        return value.setScale(fractionDigits, RoundingMode.DOWN).toPlainString();
+    }
+
+    private static String string(Restriction restriction, Random random) {
+        int minLength;
+        int maxLength;
+        if (restriction.length != null) {
+            minLength = restriction.length;
+            maxLength = restriction.length;
+        } else {
+            minLength = restriction.minLength == null ? 1 : restriction.minLength;
+            maxLength = restriction.maxLength == null ? Math.max(minLength, 16) : Math.min(restriction.maxLength, Math.max(minLength, 16));
+        }
+        return word(random, minLength + random.nextInt(maxLength - minLength + 1));
+    }
+
+    private static String word(Random random, int length) {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(WORDS.charAt(random.nextInt(WORDS.length())));
+        }
+        return sb.toString();
+    }
+
+    private static byte[] bytes(Restriction restriction, Random random) {
+        int length = restriction.length != null ? restriction.length : restriction.minLength != null ? restriction.minLength : 8;
+        byte[] bytes = new byte[length];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+
+    private static String hex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            sb.append(String.format("%02X", b));
+        }
+        return sb.toString();
+    }
+
+    private Optional<Pattern> pattern(String xsdPattern) {
+        return patterns.computeIfAbsent(xsdPattern, p -> {
+            try {
+                return Optional.of(Pattern.compile(p));
+            } catch (PatternSyntaxException e) {
+                // not expressible as a Java pattern, the generated value is accepted unchecked
+                return Optional.empty();
+            }
+        });
+    }
+
+    /**
+     * Facets of a flattened restriction chain.
+     */
+    private static final class Restriction {
+        private final List<String> patterns = new ArrayList<>();
+        private final List<String> enumerations = new ArrayList<>();
+        private Integer length;
+        private Integer minLength;
+        private Integer maxLength;
+        private String minInclusive;
+        private String maxInclusive;
+        private String minExclusive;
+        private String maxExclusive;
+        private Integer totalDigits;
+        private Integer fractionDigits;
+
+        private void merge(XsdModel.Facets facets) {
+            // the pattern of the most derived type is kept first, it is the one used for generation
+            patterns.addAll(facets.patterns);
+            if (enumerations.isEmpty()) {
+                enumerations.addAll(facets.enumerations);
+            }
+            length = length != null ? length : facets.length;
+            minLength = minLength != null ? minLength : facets.minLength;
+            maxLength = maxLength != null ? maxLength : facets.maxLength;
+            minInclusive = minInclusive != null ? minInclusive : facets.minInclusive;
+            maxInclusive = maxInclusive != null ? maxInclusive : facets.maxInclusive;
+            minExclusive = minExclusive != null ? minExclusive : facets.minExclusive;
+            maxExclusive = maxExclusive != null ? maxExclusive : facets.maxExclusive;
+            totalDigits = totalDigits != null ? totalDigits : facets.totalDigits;
+            fractionDigits = fractionDigits != null ? fractionDigits : facets.fractionDigits;
+        }
+
+        private boolean accepts(String value, SimpleValueGenerator generator) {
+            int codePoints = value.codePointCount(0, value.length());
+            if ((length != null && codePoints != length) || (minLength != null && codePoints < minLength)
+                    || (maxLength != null && codePoints > maxLength)) {
+                return false;
+            }
+            for (String xsdPattern : patterns) {
+                Optional<Pattern> pattern = generator.pattern(xsdPattern);
+                if (pattern.isPresent() && !pattern.get().matcher(value).matches()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,661 @@
+package io.github.debug.xml2jdto.generator;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+import javax.xml.XMLConstants;
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.apache.commons.lang3.StringUtils;
+import org.w3c.dom.ls.LSResourceResolver;
+
+import io.github.debug.xml2jdto.core.exception.ExBuilder;
+import io.github.debug.xml2jdto.core.exception.InvalidMethodParameterException;
+import io.github.debug.xml2jdto.core.jaxb.catalog.CatalogResourceResolver;
+import io.github.debug.xml2jdto.generator.XsdModel.AttributeDecl;
+import io.github.debug.xml2jdto.generator.XsdModel.ComplexTypeDef;
+import io.github.debug.xml2jdto.generator.XsdModel.Compositor;
+import io.github.debug.xml2jdto.generator.XsdModel.ElementDecl;
+import io.github.debug.xml2jdto.generator.XsdModel.ElementParticle;
+import io.github.debug.xml2jdto.generator.XsdModel.ElementRef;
+import io.github.debug.xml2jdto.generator.XsdModel.GroupRef;
+import io.github.debug.xml2jdto.generator.XsdModel.ModelGroup;
+import io.github.debug.xml2jdto.generator.XsdModel.Particle;
+import io.github.debug.xml2jdto.generator.XsdModel.SimpleTypeDef;
+
+/**
+ * Schema driven generator of synthetic, valid XML instance documents for load and performance testing.
+ * <p>
+ * The XSD is read from the classpath and its imports are resolved with the same catalog based {@link CatalogResourceResolver} that
+ * {@link io.github.debug.xml2jdto.core.jaxb.JaxbUtil#getSchema(String)} uses, so the generator needs no configuration beyond the
+ * {@code xml2jdto.catalog.path} already set for the application. The documents are streamed with an {@link XMLStreamWriter}, the size of the generated
+ * document is therefore not limited by the heap.
+ * </p>
+ * <p>
+ * Generation is reproducible: the same schema, options and seed always give byte-identical documents. The shape of the document is controlled by:
+ * </p>
+ * <ul>
+ * <li>{@code targetSize} - when set, the repeatable particles of the root element are repeated until the document reaches approximately this size.
+ * The budget is shared evenly between them, e.g. the {@code directories} and {@code files} of a {@code Storage}.</li>
+ * <li>{@code maxOccurs} - upper bound of the repetitions of every other repeatable particle.</li>
+ * <li>{@code maxDepth} - element depth below which optional content, e.g. recursive {@code subDirectories}, is no longer generated.</li>
+ * </ul>
+ * <p>
+ * Simple values satisfy the facets of their type: enumerations, patterns (e.g. GUIDs), lengths, ranges and digits. Identity constraints, wildcards
+ * and substitution groups are not supported. Instances are thread safe and can be reused for any number of documents.
+ * </p>
+ * <p>
+ * Usage:
+ * </p>
+ *
+ * <pre>
+ * XmlGenerator generator = XmlGenerator.builder()
+ *         .xsdPath("xsd/io/github/debugOSS/xml2jdto/example/STORAGE/1.0/storage.xsd")
+ *         .rootElement("Storage")
+ *         .targetSize(10 * 1024 * 1024)
+ *         .seed(42)
+ *         .build();
+ * try (OutputStream os = Files.newOutputStream(path)) {
+ *     generator.generate(os);
+ * }
+ * </pre>
+ *
+ * @author scheffer.imrich
+ */
+public final class XmlGenerator {
+
+    /**
+     * Default value of {@link Builder#maxDepth(int)}.
+     */
+    public static final int DEFAULT_MAX_DEPTH = 4;
+
+    /**
+     * Default value of {@link Builder#maxOccurs(int)}.
+     */
+    public static final int DEFAULT_MAX_OCCURS = 3;
+
+    private static final int HARD_DEPTH_LIMIT = 64;
+
+    private static final String PREFIX = "ns";
+
+    private final XsdModel model;
+
+    private final ElementDecl root;
+
+    private final long seed;
+
+    private final long targetSize;
+
+    private final int maxDepth;
+
+    private final int maxOccurs;
+
+    private final SimpleValueGenerator values;
+
+    /**
+     * Namespace URI to prefix binding, declared on the root element.
+     */
+    private final Map<String, String> prefixes = new LinkedHashMap<>();
+
+    private final String defaultNamespace;
+
+    /**
+     * Repeatable particles of the root element sharing the size budget, with their position.
+     */
+    private final Map<Particle, Integer> budgetParticles = new IdentityHashMap<>();
+
+    private XmlGenerator(Builder builder) {
+        this.model = new XsdModelLoader(builder.resourceResolver != null ? builder.resourceResolver : new CatalogResourceResolver()).load(builder.xsdPath);
+        this.root = rootElement(builder.rootElement);
+        this.seed = builder.seed;
+        this.targetSize = builder.targetSize;
+        this.maxDepth = builder.maxDepth;
+        this.maxOccurs = builder.maxOccurs;
+        this.values = new SimpleValueGenerator(model);
+
+        int index = 1;
+        for (String namespace : new TreeSet<>(model.namespaces)) {
+            if (StringUtils.isNotEmpty(namespace)) {
+                prefixes.put(namespace, PREFIX + index++);
+            }
+        }
+        this.defaultNamespace = model.allElementsQualified ? root.name().getNamespaceURI() : null;
+
+        if (targetSize > 0) {
+            List<Particle> repeatable = new ArrayList<>();
+            ComplexTypeDef type = complexType(root);
+            if (type != null) {
+                collectRepeatable(content(type), repeatable);
+            }
+            for (int i = 0; i < repeatable.size(); i++) {
+                budgetParticles.put(repeatable.get(i), i);
+            }
+        }
+    }
+
+    /**
+     * Creates a new builder.
+     *
+     * @return the builder
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Generates a document with the configured seed.
+     *
+     * @param outputStream
+     *            the target of the UTF-8 encoded document, it is flushed but not closed
+     */
+    public void generate(OutputStream outputStream) {
+        generate(outputStream, seed);
+    }
+
+    /**
+     * Generates a document with the given seed, e.g. to generate a series of different documents with the same generator.
+     *
+     * @param outputStream
+     *            the target of the UTF-8 encoded document, it is flushed but not closed
+     * @param documentSeed
+     *            seed of the random generator, the same seed always gives the same document
+     */
+    public void generate(OutputStream outputStream, long documentSeed) {
+        if (outputStream == null) {
+            throw new InvalidMethodParameterException("outputStream cannot be null!");
+        }
+        CountingOutputStream counter = new CountingOutputStream(new BufferedOutputStream(outputStream));
+        try {
+            XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(counter, "UTF-8");
+            writer.writeStartDocument("UTF-8", "1.0");
+            new Generation(writer, counter, new Random(documentSeed)).element(root, 0);
+            writer.writeEndDocument();
+            writer.close();
+            counter.flushThrough();
+        } catch (XMLStreamException | IOException e) {
+            throw ExBuilder.newXml2jDtoException()
+                    .withMessage("Cannot generate [{0}] document: [{1}]", root.name(), e.getLocalizedMessage())
+                    .withCause(e)
+                    .build();
+        }
+    }
+
+    /**
+     * Generates a document with the configured seed into memory.
+     *
+     * @return the UTF-8 encoded document
+     */
+    public byte[] generate() {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream((int) Math.min(Math.max(targetSize, 8192) + 8192, Integer.MAX_VALUE - 8));
+        generate(baos);
+        return baos.toByteArray();
+    }
+
+    /**
+     * Parses a human readable size, a number with an optional {@code KB}, {@code MB} or {@code GB} (binary) unit, e.g. {@code 512KB}.
+     *
+     * @param size
+     *            the size
+     * @return the size in bytes
+     * @throws IllegalArgumentException
+     *             if the size cannot be parsed
+     */
+    public static long parseSize(String size) {
+        String normalized = size.trim().toUpperCase(Locale.ROOT);
+        long multiplier = 1;
+        if (normalized.endsWith("KB")) {
+            multiplier = 1024L;
+        } else if (normalized.endsWith("MB")) {
+            multiplier = 1024L * 1024L;
+        } else if (normalized.endsWith("GB")) {
+            multiplier = 1024L * 1024L * 1024L;
+        }
+        String number = multiplier == 1 ? StringUtils.removeEnd(normalized, "B") : normalized.substring(0, normalized.length() - 2);
+        try {
+            return Long.parseLong(number.trim()) * multiplier;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid size [" + size + "]", e);
+        }
+    }
+
+    private ElementDecl rootElement(String rootElement) {
+        if (StringUtils.isBlank(rootElement)) {
+            if (model.rootDocumentElements.size() == 1) {
+                return model.elements.get(model.rootDocumentElements.get(0));
+            }
+            throw ExBuilder.newXml2jDtoException()
+                    .withMessage("The root element must be set, global elements of the root XSD document: [{0}]", joined(model.rootDocumentElements))
+                    .build();
+        }
+        QName name = QName.valueOf(rootElement);
+        List<ElementDecl> candidates = model.elements.values()
+                .stream()
+                .filter(e -> StringUtils.isEmpty(name.getNamespaceURI()) ? e.name().getLocalPart().equals(name.getLocalPart()) : e.name().equals(name))
+                .toList();
+        if (candidates.size() != 1) {
+            throw ExBuilder.newXml2jDtoException()
+                    .withMessage(
+                            "Root element [{0}] is {1} in the schema, global elements: [{2}]",
+                            rootElement,
+                            candidates.isEmpty() ? "not found" : "ambiguous",
+                            joined(model.elements.keySet()))
+                    .build();
+        }
+        return candidates.get(0);
+    }
+
+    private static String joined(Collection<QName> names) {
+        return names.stream().map(QName::toString).collect(Collectors.joining(", "));
+    }
+
+    /**
+     * Collects the repeatable element particles of a content model that are not nested in a repeatable group.
+     */
+    private void collectRepeatable(Particle particle, List<Particle> repeatable) {
+        if (particle == null) {
+            return;
+        }
+        if (particle.maxOccurs() == XsdModel.UNBOUNDED || particle.maxOccurs() > 1) {
+            repeatable.add(particle);
+        } else if (particle instanceof ModelGroup group && group.compositor() != Compositor.CHOICE) {
+            group.particles().forEach(p -> collectRepeatable(p, repeatable));
+        } else if (particle instanceof GroupRef ref) {
+            collectRepeatable(model.groups.get(ref.ref()), repeatable);
+        }
+    }
+
+    private ComplexTypeDef complexType(ElementDecl element) {
+        if (element.inlineComplexType() != null) {
+            return element.inlineComplexType();
+        }
+        return element.typeName() == null ? null : model.complexTypes.get(element.typeName());
+    }
+
+    /**
+     * Effective content model of a complex type: the content of an extension follows the content of its base.
+     */
+    private Particle content(ComplexTypeDef type) {
+        if (!type.extension() || type.baseType() == null || !model.complexTypes.containsKey(type.baseType())) {
+            return type.content();
+        }
+        Particle baseContent = content(model.complexTypes.get(type.baseType()));
+        if (baseContent == null) {
+            return type.content();
+        }
+        if (type.content() == null) {
+            return baseContent;
+        }
+        return new ModelGroup(Compositor.SEQUENCE, List.of(baseContent, type.content()), 1, 1);
+    }
+
+    /**
+     * Effective attributes of a complex type, inherited ones first, references and attribute groups resolved.
+     */
+    private Map<QName, AttributeDecl> attributes(ComplexTypeDef type) {
+        Map<QName, AttributeDecl> attributes = new LinkedHashMap<>();
+        if (type.baseType() != null && model.complexTypes.containsKey(type.baseType())) {
+            attributes.putAll(attributes(model.complexTypes.get(type.baseType())));
+        }
+        addAttributes(type.attributes(), attributes);
+        return attributes;
+    }
+
+    private void addAttributes(List<AttributeDecl> declarations, Map<QName, AttributeDecl> attributes) {
+        for (AttributeDecl attribute : declarations) {
+            if (attribute.groupRef() != null) {
+                addAttributes(model.attributeGroups.getOrDefault(attribute.groupRef(), List.of()), attributes);
+            } else if (attribute.ref() != null) {
+                AttributeDecl global = model.attributes.get(attribute.ref());
+                if (global != null) {
+                    attributes.put(
+                            global.name(),
+                            new AttributeDecl(
+                                    global.name(),
+                                    global.typeName(),
+                                    global.inlineType(),
+                                    attribute.required(),
+                                    attribute.fixedValue() != null ? attribute.fixedValue() : global.fixedValue(),
+                                    null,
+                                    null));
+                }
+            } else {
+                attributes.put(attribute.name(), attribute);
+            }
+        }
+    }
+
+    /**
+     * State of the generation of a single document.
+     */
+    private final class Generation {
+
+        private final XMLStreamWriter writer;
+
+        private final CountingOutputStream counter;
+
+        private final Random random;
+
+        private Generation(XMLStreamWriter writer, CountingOutputStream counter, Random random) {
+            this.writer = writer;
+            this.counter = counter;
+            this.random = random;
+        }
+
+        private void element(ElementDecl element, int depth) throws XMLStreamException {
+            if (depth > HARD_DEPTH_LIMIT) {
+                throw ExBuilder.newXml2jDtoException()
+                        .withMessage("Required content of element [{0}] is nested deeper than [{1}] levels", element.name(), HARD_DEPTH_LIMIT)
+                        .build();
+            }
+            String namespace = element.name().getNamespaceURI();
+            if (StringUtils.isEmpty(namespace)) {
+                writer.writeStartElement(element.name().getLocalPart());
+            } else if (namespace.equals(defaultNamespace)) {
+                writer.writeStartElement("", element.name().getLocalPart(), namespace);
+            } else {
+                writer.writeStartElement(prefixes.get(namespace), element.name().getLocalPart(), namespace);
+            }
+            if (depth == 0) {
+                if (defaultNamespace != null) {
+                    writer.writeDefaultNamespace(defaultNamespace);
+                }
+                for (Map.Entry<String, String> binding : prefixes.entrySet()) {
+                    writer.writeNamespace(binding.getValue(), binding.getKey());
+                }
+            }
+
+            ComplexTypeDef complexType = complexType(element);
+            if (complexType == null) {
+                writer.writeCharacters(element.fixedValue() != null ? element.fixedValue() : simpleValue(element.typeName(), element.inlineSimpleType()));
+            } else {
+                for (AttributeDecl attribute : attributes(complexType).values()) {
+                    attribute(attribute, depth);
+                }
+                if (element.fixedValue() != null) {
+                    writer.writeCharacters(element.fixedValue());
+                } else if (complexType.simpleContentType() != null || complexType.inlineSimpleContentType() != null) {
+                    writer.writeCharacters(simpleContent(complexType));
+                } else {
+                    particle(content(complexType), depth);
+                }
+            }
+            writer.writeEndElement();
+        }
+
+        private void attribute(AttributeDecl attribute, int depth) throws XMLStreamException {
+            if (!attribute.required() && (depth >= maxDepth || random.nextBoolean())) {
+                return;
+            }
+            String value = attribute.fixedValue() != null ? attribute.fixedValue() : simpleValue(attribute.typeName(), attribute.inlineType());
+            String namespace = attribute.name().getNamespaceURI();
+            if (StringUtils.isEmpty(namespace)) {
+                writer.writeAttribute(attribute.name().getLocalPart(), value);
+            } else if (XMLConstants.XML_NS_URI.equals(namespace)) {
+                writer.writeAttribute(XMLConstants.XML_NS_PREFIX, namespace, attribute.name().getLocalPart(), value);
+            } else {
+                writer.writeAttribute(prefixes.get(namespace), namespace, attribute.name().getLocalPart(), value);
+            }
+        }
+
+        private String simpleContent(ComplexTypeDef type) {
+            if (type.inlineSimpleContentType() != null) {
+                return values.generate(type.inlineSimpleContentType(), random);
+            }
+            ComplexTypeDef base = model.complexTypes.get(type.simpleContentType());
+            return base != null ? simpleContent(base) : values.generate(type.simpleContentType(), random);
+        }
+
+        private String simpleValue(QName typeName, SimpleTypeDef inlineType) {
+            return inlineType != null ? values.generate(inlineType, random) : values.generate(typeName, random);
+        }
+
+        private void particle(Particle particle, int depth) throws XMLStreamException {
+            if (particle == null) {
+                return;
+            }
+            Integer budgetIndex = budgetParticles.get(particle);
+            if (depth == 0 && budgetIndex != null) {
+                // the budget of the i-th repeatable particle ends at (i + 1) / k of the target size
+                long threshold = targetSize * (budgetIndex + 1) / budgetParticles.size();
+                int max = particle.maxOccurs() == XsdModel.UNBOUNDED ? Integer.MAX_VALUE : particle.maxOccurs();
+                for (int i = 0; i < max; i++) {
+                    if (i >= particle.minOccurs()) {
+                        writer.flush();
+                        if (counter.count >= threshold) {
+                            break;
+                        }
+                    }
+                    occurrence(particle, depth);
+                }
+                return;
+            }
+            int occurrences = occurrences(particle, depth);
+            for (int i = 0; i < occurrences; i++) {
+                occurrence(particle, depth);
+            }
+        }
+
+        private int occurrences(Particle particle, int depth) {
+            int min = particle.minOccurs();
+            if (depth >= maxDepth) {
+                return min;
+            }
+            int max = particle.maxOccurs() == XsdModel.UNBOUNDED ? maxOccurs : Math.min(particle.maxOccurs(), maxOccurs);
+            return max <= min ? min : min + random.nextInt(max - min + 1);
+        }
+
+        private void occurrence(Particle particle, int depth) throws XMLStreamException {
+            switch (particle) {
+            case ElementParticle ep -> element(ep.element(), depth + 1);
+            case ElementRef er -> {
+                ElementDecl element = model.elements.get(er.ref());
+                if (element == null) {
+                    throw ExBuilder.newXml2jDtoException().withMessage("Referenced element [{0}] is not defined", er.ref()).build();
+                }
+                element(element, depth + 1);
+            }
+            case GroupRef gr -> {
+                Particle group = model.groups.get(gr.ref());
+                if (group == null) {
+                    throw ExBuilder.newXml2jDtoException().withMessage("Referenced group [{0}] is not defined", gr.ref()).build();
+                }
+                particle(group, depth);
+            }
+            case ModelGroup mg -> {
+                if (mg.compositor() == Compositor.CHOICE) {
+                    if (!mg.particles().isEmpty()) {
+                        particle(mg.particles().get(random.nextInt(mg.particles().size())), depth);
+                    }
+                } else {
+                    for (Particle child : mg.particles()) {
+                        particle(child, depth);
+                    }
+                }
+            }
+            }
+        }
+    }
+
+    /**
+     * Counts the bytes written by the stream writer. Flushes of the writer are not propagated, they are only used to bring the count up to date.
+     */
+    private static final class CountingOutputStream extends FilterOutputStream {
+
+        private long count;
+
+        private CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void flush() {
+            // the count is already up to date, the underlying stream is flushed at the end of the document
+        }
+
+        @Override
+        public void close() {
+            // the caller owns the underlying stream
+        }
+
+        private void flushThrough() throws IOException {
+            out.flush();
+        }
+    }
+
+    /**
+     * Builder of {@link XmlGenerator}.
+     */
+    public static final class Builder {
+
+        private String xsdPath;
+
+        private String rootElement;
+
+        private long seed;
+
+        private long targetSize;
+
+        private int maxDepth = DEFAULT_MAX_DEPTH;
+
+        private int maxOccurs = DEFAULT_MAX_OCCURS;
+
+        private LSResourceResolver resourceResolver;
+
+        private Builder() {
+            super();
+        }
+
+        /**
+         * Sets the classpath location of the XSD, mandatory.
+         *
+         * @param xsdPath
+         *            classpath location of the XSD
+         * @return this builder
+         */
+        public Builder xsdPath(String xsdPath) {
+            this.xsdPath = xsdPath;
+            return this;
+        }
+
+        /**
+         * Sets the root element of the documents, either a local name ({@code Storage}) or a qualified name in {@link QName#toString()} form
+         * ({@code {namespace}Storage}). May be omitted when the root XSD document declares a single global element.
+         *
+         * @param rootElement
+         *            name of the root element
+         * @return this builder
+         */
+        public Builder rootElement(String rootElement) {
+            this.rootElement = rootElement;
+            return this;
+        }
+
+        /**
+         * Sets the seed of the random generator, 0 by default.
+         *
+         * @param seed
+         *            the seed
+         * @return this builder
+         */
+        public Builder seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        /**
+         * Sets the approximate size of the documents in bytes. When not set, the size is driven only by {@link #maxOccurs(int)} and
+         * {@link #maxDepth(int)}.
+         *
+         * @param targetSize
+         *            the size in bytes, 0 for no target
+         * @return this builder
+         */
+        public Builder targetSize(long targetSize) {
+            this.targetSize = targetSize;
+            return this;
+        }
+
+        /**
+         * Sets the element depth from which optional content is no longer generated, {@value XmlGenerator#DEFAULT_MAX_DEPTH} by default. The root
+         * element is on depth 0.
+         *
+         * @param maxDepth
+         *            the depth
+         * @return this builder
+         */
+        public Builder maxDepth(int maxDepth) {
+            this.maxDepth = maxDepth;
+            return this;
+        }
+
+        /**
+         * Sets the upper bound of repetitions of repeatable particles outside the size budget, {@value XmlGenerator#DEFAULT_MAX_OCCURS} by default.
+         * The number of repetitions is chosen randomly between {@code minOccurs} and this bound.
+         *
+         * @param maxOccurs
+         *            the bound
+         * @return this builder
+         */
+        public Builder maxOccurs(int maxOccurs) {
+            this.maxOccurs = maxOccurs;
+            return this;
+        }
+
+        /**
+         * Sets the resolver of the imported and included XSD documents, a {@link CatalogResourceResolver} by default.
+         *
+         * @param resourceResolver
+         *            the resolver
+         * @return this builder
+         */
+        public Builder resourceResolver(LSResourceResolver resourceResolver) {
+            this.resourceResolver = resourceResolver;
+            return this;
+        }
+
+        /**
+         * Reads the schema and creates the generator.
+         *
+         * @return the generator
+         */
+        public XmlGenerator build() {
+            if (StringUtils.isBlank(xsdPath)) {
+                throw new InvalidMethodParameterException("xsdPath cannot be blank!");
+            }
+            if (maxDepth < 0 || maxOccurs < 0 || targetSize < 0) {
+                throw new InvalidMethodParameterException(
+                        MessageFormat.format("maxDepth [{0}], maxOccurs [{1}] and targetSize [{2}] cannot be negative!", maxDepth, maxOccurs, targetSize));
+            }
+            return new XmlGenerator(this);
+        }
+    }
+}
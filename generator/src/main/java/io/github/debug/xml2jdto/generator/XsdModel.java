@@ -0,0 +1,132 @@
+package io.github.debug.xml2jdto.generator;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.xml.XMLConstants;
+import javax.xml.namespace.QName;
+
+/**
+ * Minimal, generation oriented model of a set of XSD documents.
+ * <p>
+ * Only the constructs needed to produce valid instance documents are kept: global and local element declarations, complex types with model groups,
+ * attributes and simple content, and simple types with their restriction facets. Identity constraints, wildcards and substitution groups are not
+ * modelled.
+ * </p>
+ *
+ * @author scheffer.imrich
+ */
+final class XsdModel {
+
+    /**
+     * Marker of an unbounded {@code maxOccurs}.
+     */
+    static final int UNBOUNDED = -1;
+
+    final Map<QName, ElementDecl> elements = new HashMap<>();
+    final Map<QName, ComplexTypeDef> complexTypes = new HashMap<>();
+    final Map<QName, SimpleTypeDef> simpleTypes = new HashMap<>();
+    final Map<QName, Particle> groups = new HashMap<>();
+    final Map<QName, List<AttributeDecl>> attributeGroups = new HashMap<>();
+    final Map<QName, AttributeDecl> attributes = new HashMap<>();
+    final Set<String> namespaces = new HashSet<>();
+    /**
+     * Global elements declared in the root XSD document, in document order.
+     */
+    final List<QName> rootDocumentElements = new ArrayList<>();
+    boolean allElementsQualified = true;
+
+    static boolean isBuiltIn(QName typeName) {
+        return typeName != null && XMLConstants.W3C_XML_SCHEMA_NS_URI.equals(typeName.getNamespaceURI());
+    }
+
+    /**
+     * Particle of a content model: an element, an element reference, a model group or a group reference.
+     */
+    sealed interface Particle permits ElementParticle, ElementRef, ModelGroup, GroupRef {
+
+        int minOccurs();
+
+        int maxOccurs();
+    }
+
+    /**
+     * Local element declaration used as a particle.
+     */
+    record ElementParticle(ElementDecl element, int minOccurs, int maxOccurs) implements Particle {
+    }
+
+    /**
+     * Reference to a global element declaration.
+     */
+    record ElementRef(QName ref, int minOccurs, int maxOccurs) implements Particle {
+    }
+
+    /**
+     * Reference to a named model group.
+     */
+    record GroupRef(QName ref, int minOccurs, int maxOccurs) implements Particle {
+    }
+
+    /**
+     * {@code sequence}, {@code choice} or {@code all} model group.
+     */
+    record ModelGroup(Compositor compositor, List<Particle> particles, int minOccurs, int maxOccurs) implements Particle {
+    }
+
+    /**
+     * Kind of a model group.
+     */
+    enum Compositor {
+        SEQUENCE,
+        CHOICE,
+        ALL
+    }
+
+    /**
+     * Element declaration, either with a named type or with an anonymous (inline) type.
+     */
+    record ElementDecl(QName name, QName typeName, ComplexTypeDef inlineComplexType, SimpleTypeDef inlineSimpleType, String fixedValue) {
+    }
+
+    /**
+     * Attribute declaration with its use.
+     */
+    record AttributeDecl(QName name, QName typeName, SimpleTypeDef inlineType, boolean required, String fixedValue, QName ref, QName groupRef) {
+    }
+
+    /**
+     * Complex type definition. The content of a derived type is stored relative to its base: for an extension the base content precedes the own
+     * content, for a restriction only the own content is used.
+     */
+    record ComplexTypeDef(QName name, QName baseType, boolean extension, Particle content, List<AttributeDecl> attributes, QName simpleContentType,
+            SimpleTypeDef inlineSimpleContentType) {
+    }
+
+    /**
+     * Simple type definition, restricting a base type with facets, or a list or union of other types.
+     */
+    record SimpleTypeDef(QName name, QName baseType, SimpleTypeDef inlineBaseType, Facets facets, QName listItemType, List<QName> unionMemberTypes) {
+    }
+
+    /**
+     * Constraining facets of a simple type restriction.
+     */
+    static final class Facets {
+        final List<String> patterns = new ArrayList<>();
+        final List<String> enumerations = new ArrayList<>();
+        Integer length;
+        Integer minLength;
+        Integer maxLength;
+        String minInclusive;
+        String maxInclusive;
+        String minExclusive;
+        String maxExclusive;
+        Integer totalDigits;
+        Integer fractionDigits;
+    }
+}
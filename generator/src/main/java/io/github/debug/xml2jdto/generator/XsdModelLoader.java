@@ -0,0 +1,404 @@
+package io.github.debug.xml2jdto.generator;
+
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URL;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.logging.Logger;
+
+import javax.xml.XMLConstants;
+import javax.xml.namespace.QName;
+import javax.xml.parsers.DocumentBuilder;
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.apache.commons.lang3.StringUtils;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.ls.LSInput;
+import org.w3c.dom.ls.LSResourceResolver;
+
+import io.github.debug.xml2jdto.core.exception.ExBuilder;
+import io.github.debug.xml2jdto.generator.XsdModel.AttributeDecl;
+import io.github.debug.xml2jdto.generator.XsdModel.ComplexTypeDef;
+import io.github.debug.xml2jdto.generator.XsdModel.Compositor;
+import io.github.debug.xml2jdto.generator.XsdModel.ElementDecl;
+import io.github.debug.xml2jdto.generator.XsdModel.ElementParticle;
+import io.github.debug.xml2jdto.generator.XsdModel.ElementRef;
+import io.github.debug.xml2jdto.generator.XsdModel.Facets;
+import io.github.debug.xml2jdto.generator.XsdModel.GroupRef;
+import io.github.debug.xml2jdto.generator.XsdModel.ModelGroup;
+import io.github.debug.xml2jdto.generator.XsdModel.Particle;
+import io.github.debug.xml2jdto.generator.XsdModel.SimpleTypeDef;
+
+/**
+ * Reads an XSD from the classpath into an {@link XsdModel}, following {@code import} and {@code include} declarations.
+ * <p>
+ * Imported documents are located with the given {@link LSResourceResolver}, normally the catalog based
+ * {@link io.github.debug.xml2jdto.core.jaxb.catalog.CatalogResourceResolver}, the same way the schema is resolved when it is compiled by
+ * {@link io.github.debug.xml2jdto.core.jaxb.JaxbUtil#getSchema(String)}. When the resolver has no answer, the {@code schemaLocation} is resolved
+ * against the importing document.
+ * </p>
+ *
+ * @author scheffer.imrich
+ */
+final class XsdModelLoader {
+
+    private static final Logger log = Logger.getLogger(XsdModelLoader.class.getName());
+
+    private static final String XS = XMLConstants.W3C_XML_SCHEMA_NS_URI;
+
+    private final LSResourceResolver resourceResolver;
+
+    private final XsdModel model = new XsdModel();
+
+    private final Set<String> loadedDocuments = new HashSet<>();
+
+    private final DocumentBuilder documentBuilder;
+
+    private String rootSystemId;
+
+    XsdModelLoader(LSResourceResolver resourceResolver) {
+        this.resourceResolver = resourceResolver;
+        try {
+            DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
+            dbf.setNamespaceAware(true);
+            dbf.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+            dbf.setAttribute(XMLConstants.ACCESS_EXTERNAL_DTD, "");
+            dbf.setAttribute(XMLConstants.ACCESS_EXTERNAL_SCHEMA, "");
+            documentBuilder = dbf.newDocumentBuilder();
+        } catch (Exception e) {
+            throw ExBuilder.newXml2jDtoException().withMessage("Cannot create XSD document builder: [{0}]", e.getLocalizedMessage()).withCause(e).build();
+        }
+    }
+
+    /**
+     * Loads the XSD on the given classpath location together with every document it imports or includes.
+     *
+     * @param xsdPath
+     *            classpath location of the root XSD
+     * @return the model of the whole schema
+     */
+    XsdModel load(String xsdPath) {
+        URL url = Thread.currentThread().getContextClassLoader().getResource(xsdPath);
+        if (url == null) {
+            throw ExBuilder.newXml2jDtoException().withMessage("Schema on path [{0}] cannot be found!", xsdPath).build();
+        }
+        rootSystemId = url.toString();
+        loadDocument(rootSystemId);
+        return model;
+    }
+
+    private void loadDocument(String systemId) {
+        if (!loadedDocuments.add(systemId)) {
+            return;
+        }
+        log.fine(MessageFormat.format("Reading XSD document [{0}]", systemId));
+        Document document;
+        try (InputStream is = URI.create(systemId).toURL().openStream()) {
+            document = documentBuilder.parse(is, systemId);
+        } catch (Exception e) {
+            throw ExBuilder.newXml2jDtoException()
+                    .withMessage("Cannot read XSD document [{0}]: [{1}]", systemId, e.getLocalizedMessage())
+                    .withCause(e)
+                    .build();
+        }
+        Element schema = document.getDocumentElement();
+        SchemaDocument doc = new SchemaDocument(
+                systemId,
+                schema.getAttribute("targetNamespace"),
+                "qualified".equals(schema.getAttribute("elementFormDefault")),
+                "qualified".equals(schema.getAttribute("attributeFormDefault")));
+        model.namespaces.add(doc.targetNamespace);
+
+        for (Element child : children(schema)) {
+            switch (child.getLocalName()) {
+            case "import" -> loadReferenced(doc, child.getAttribute("namespace"), child.getAttribute("schemaLocation"));
+            case "include", "redefine", "override" -> loadReferenced(doc, doc.targetNamespace, child.getAttribute("schemaLocation"));
+            case "element" -> {
+                ElementDecl element = element(doc, child, true);
+                model.elements.put(element.name(), element);
+                if (systemId.equals(rootSystemId)) {
+                    model.rootDocumentElements.add(element.name());
+                }
+            }
+            case "complexType" -> {
+                ComplexTypeDef type = complexType(doc, child);
+                model.complexTypes.put(type.name(), type);
+            }
+            case "simpleType" -> {
+                SimpleTypeDef type = simpleType(doc, child);
+                model.simpleTypes.put(type.name(), type);
+            }
+            case "group" -> model.groups.put(new QName(doc.targetNamespace, child.getAttribute("name")), groupContent(doc, child));
+            case "attributeGroup" -> model.attributeGroups.put(new QName(doc.targetNamespace, child.getAttribute("name")), attributes(doc, child));
+            case "attribute" -> {
+                AttributeDecl attribute = attribute(doc, child, true);
+                model.attributes.put(attribute.name(), attribute);
+            }
+            default -> {
+                // annotation, notation: nothing to generate
+            }
+            }
+        }
+    }
+
+    private void loadReferenced(SchemaDocument doc, String namespace, String schemaLocation) {
+        String resolved = null;
+        LSInput input = resourceResolver.resolveResource(
+                XS,
+                StringUtils.defaultIfEmpty(namespace, null),
+                null,
+                StringUtils.defaultIfEmpty(schemaLocation, null),
+                doc.systemId);
+        if (input != null) {
+            resolved = input.getSystemId();
+        }
+        if (resolved == null && StringUtils.isNotEmpty(schemaLocation)) {
+            try {
+                resolved = new URL(new URL(doc.systemId), schemaLocation).toString();
+            } catch (Exception e) {
+                throw ExBuilder.newXml2jDtoException()
+                        .withMessage("Cannot resolve schemaLocation [{0}] of [{1}]", schemaLocation, doc.systemId)
+                        .withCause(e)
+                        .build();
+            }
+        }
+        if (resolved == null) {
+            throw ExBuilder.newXml2jDtoException()
+                    .withMessage("Cannot resolve the import of namespace [{0}] in [{1}], check the catalog configuration", namespace, doc.systemId)
+                    .build();
+        }
+        loadDocument(resolved);
+    }
+
+    private ElementDecl element(SchemaDocument doc, Element el, boolean global) {
+        boolean qualified = global || "qualified".equals(el.getAttribute("form")) || (!el.hasAttribute("form") && doc.elementQualified);
+        if (!qualified) {
+            model.allElementsQualified = false;
+        }
+        QName name = new QName(qualified ? doc.targetNamespace : "", el.getAttribute("name"));
+        QName typeName = el.hasAttribute("type") ? qname(el, el.getAttribute("type")) : null;
+        ComplexTypeDef inlineComplex = null;
+        SimpleTypeDef inlineSimple = null;
+        for (Element child : children(el)) {
+            if ("complexType".equals(child.getLocalName())) {
+                inlineComplex = complexType(doc, child);
+            } else if ("simpleType".equals(child.getLocalName())) {
+                inlineSimple = simpleType(doc, child);
+            }
+        }
+        if (typeName == null && inlineComplex == null && inlineSimple == null) {
+            typeName = new QName(XS, "string");
+        }
+        String fixed = el.hasAttribute("fixed") ? el.getAttribute("fixed") : null;
+        return new ElementDecl(name, typeName, inlineComplex, inlineSimple, fixed);
+    }
+
+    private ComplexTypeDef complexType(SchemaDocument doc, Element el) {
+        QName name = el.hasAttribute("name") ? new QName(doc.targetNamespace, el.getAttribute("name")) : null;
+        QName baseType = null;
+        boolean extension = false;
+        Particle content = null;
+        List<AttributeDecl> attributes = new ArrayList<>();
+        QName simpleContentType = null;
+        SimpleTypeDef inlineSimpleContentType = null;
+
+        for (Element child : children(el)) {
+            switch (child.getLocalName()) {
+            case "sequence", "choice", "all" -> content = modelGroup(doc, child);
+            case "group" -> content = particle(doc, child);
+            case "attribute", "attributeGroup" -> attributes.add(attributeOrGroup(doc, child));
+            case "complexContent", "simpleContent" -> {
+                boolean simple = "simpleContent".equals(child.getLocalName());
+                for (Element derivation : children(child)) {
+                    if (!"extension".equals(derivation.getLocalName()) && !"restriction".equals(derivation.getLocalName())) {
+                        continue;
+                    }
+                    extension = "extension".equals(derivation.getLocalName());
+                    baseType = qname(derivation, derivation.getAttribute("base"));
+                    if (simple) {
+                        simpleContentType = baseType;
+                    }
+                    for (Element part : children(derivation)) {
+                        switch (part.getLocalName()) {
+                        case "sequence", "choice", "all" -> content = modelGroup(doc, part);
+                        case "group" -> content = particle(doc, part);
+                        case "attribute", "attributeGroup" -> attributes.add(attributeOrGroup(doc, part));
+                        case "simpleType" -> inlineSimpleContentType = simpleType(doc, part);
+                        default -> {
+                            // facets of a simple content restriction are ignored
+                        }
+                        }
+                    }
+                }
+            }
+            default -> {
+                // annotation, anyAttribute
+            }
+            }
+        }
+        return new ComplexTypeDef(name, baseType, extension, content, attributes, simpleContentType, inlineSimpleContentType);
+    }
+
+    private Particle groupContent(SchemaDocument doc, Element group) {
+        for (Element child : children(group)) {
+            if ("sequence".equals(child.getLocalName()) || "choice".equals(child.getLocalName()) || "all".equals(child.getLocalName())) {
+                return modelGroup(doc, child);
+            }
+        }
+        return new ModelGroup(Compositor.SEQUENCE, List.of(), 1, 1);
+    }
+
+    private ModelGroup modelGroup(SchemaDocument doc, Element el) {
+        Compositor compositor = switch (el.getLocalName()) {
+        case "choice" -> Compositor.CHOICE;
+        case "all" -> Compositor.ALL;
+        default -> Compositor.SEQUENCE;
+        };
+        List<Particle> particles = new ArrayList<>();
+        for (Element child : children(el)) {
+            Particle particle = particle(doc, child);
+            if (particle != null) {
+                particles.add(particle);
+            }
+        }
+        return new ModelGroup(compositor, particles, minOccurs(el), maxOccurs(el));
+    }
+
+    private Particle particle(SchemaDocument doc, Element el) {
+        return switch (el.getLocalName()) {
+        case "element" -> el.hasAttribute("ref")
+                ? new ElementRef(qname(el, el.getAttribute("ref")), minOccurs(el), maxOccurs(el))
+                : new ElementParticle(element(doc, el, false), minOccurs(el), maxOccurs(el));
+        case "group" -> new GroupRef(qname(el, el.getAttribute("ref")), minOccurs(el), maxOccurs(el));
+        case "sequence", "choice", "all" -> modelGroup(doc, el);
+        default -> null;
+        };
+    }
+
+    private List<AttributeDecl> attributes(SchemaDocument doc, Element el) {
+        List<AttributeDecl> attributes = new ArrayList<>();
+        for (Element child : children(el)) {
+            if ("attribute".equals(child.getLocalName()) || "attributeGroup".equals(child.getLocalName())) {
+                attributes.add(attributeOrGroup(doc, child));
+            }
+        }
+        return attributes;
+    }
+
+    private AttributeDecl attributeOrGroup(SchemaDocument doc, Element el) {
+        if ("attributeGroup".equals(el.getLocalName())) {
+            return new AttributeDecl(null, null, null, false, null, null, qname(el, el.getAttribute("ref")));
+        }
+        return attribute(doc, el, false);
+    }
+
+    private AttributeDecl attribute(SchemaDocument doc, Element el, boolean global) {
+        boolean required = "required".equals(el.getAttribute("use"));
+        String fixed = el.hasAttribute("fixed") ? el.getAttribute("fixed") : null;
+        if (el.hasAttribute("ref")) {
+            return new AttributeDecl(null, null, null, required, fixed, qname(el, el.getAttribute("ref")), null);
+        }
+        boolean qualified = global || "qualified".equals(el.getAttribute("form")) || (!el.hasAttribute("form") && doc.attributeQualified);
+        QName name = new QName(qualified ? doc.targetNamespace : "", el.getAttribute("name"));
+        QName typeName = el.hasAttribute("type") ? qname(el, el.getAttribute("type")) : null;
+        SimpleTypeDef inlineType = null;
+        for (Element child : children(el)) {
+            if ("simpleType".equals(child.getLocalName())) {
+                inlineType = simpleType(doc, child);
+            }
+        }
+        if (typeName == null && inlineType == null) {
+            typeName = new QName(XS, "string");
+        }
+        return new AttributeDecl(name, typeName, inlineType, required, fixed, null, null);
+    }
+
+    private SimpleTypeDef simpleType(SchemaDocument doc, Element el) {
+        QName name = el.hasAttribute("name") ? new QName(doc.targetNamespace, el.getAttribute("name")) : null;
+        QName baseType = null;
+        SimpleTypeDef inlineBaseType = null;
+        Facets facets = new Facets();
+        QName listItemType = null;
+        List<QName> unionMemberTypes = null;
+
+        for (Element child : children(el)) {
+            switch (child.getLocalName()) {
+            case "restriction" -> {
+                if (child.hasAttribute("base")) {
+                    baseType = qname(child, child.getAttribute("base"));
+                }
+                for (Element facet : children(child)) {
+                    String value = facet.getAttribute("value");
+                    switch (facet.getLocalName()) {
+                    case "simpleType" -> inlineBaseType = simpleType(doc, facet);
+                    case "pattern" -> facets.patterns.add(value);
+                    case "enumeration" -> facets.enumerations.add(value);
+                    case "length" -> facets.length = Integer.valueOf(value);
+                    case "minLength" -> facets.minLength = Integer.valueOf(value);
+                    case "maxLength" -> facets.maxLength = Integer.valueOf(value);
+                    case "minInclusive" -> facets.minInclusive = value;
+                    case "maxInclusive" -> facets.maxInclusive = value;
+                    case "minExclusive" -> facets.minExclusive = value;
+                    case "maxExclusive" -> facets.maxExclusive = value;
+                    case "totalDigits" -> facets.totalDigits = Integer.valueOf(value);
+                    case "fractionDigits" -> facets.fractionDigits = Integer.valueOf(value);
+                    default -> {
+                        // whiteSpace, annotation
+                    }
+                    }
+                }
+            }
+            case "list" -> listItemType = child.hasAttribute("itemType") ? qname(child, child.getAttribute("itemType")) : new QName(XS, "string");
+            case "union" -> {
+                unionMemberTypes = new ArrayList<>();
+                for (String member : StringUtils.split(child.getAttribute("memberTypes"))) {
+                    unionMemberTypes.add(qname(child, member));
+                }
+            }
+            default -> {
+                // annotation
+            }
+            }
+        }
+        return new SimpleTypeDef(name, baseType, inlineBaseType, facets, listItemType, unionMemberTypes);
+    }
+
+    private static int minOccurs(Element el) {
+        return el.hasAttribute("minOccurs") ? Integer.parseInt(el.getAttribute("minOccurs")) : 1;
+    }
+
+    private static int maxOccurs(Element el) {
+        if (!el.hasAttribute("maxOccurs")) {
+            return 1;
+        }
+        String value = el.getAttribute("maxOccurs");
+        return "unbounded".equals(value) ? XsdModel.UNBOUNDED : Integer.parseInt(value);
+    }
+
+    private static QName qname(Element context, String prefixedName) {
+        int colon = prefixedName.indexOf(':');
+        String prefix = colon < 0 ? null : prefixedName.substring(0, colon);
+        String localName = colon < 0 ? prefixedName : prefixedName.substring(colon + 1);
+        String namespace = context.lookupNamespaceURI(prefix);
+        return new QName(namespace == null ? "" : namespace, localName);
+    }
+
+    private static List<Element> children(Element parent) {
+        List<Element> children = new ArrayList<>();
+        for (Node node = parent.getFirstChild(); node != null; node = node.getNextSibling()) {
+            if (node instanceof Element child && XS.equals(child.getNamespaceURI())) {
+                children.add(child);
+            }
+        }
+        return children;
+    }
+
+    private record SchemaDocument(String systemId, String targetNamespace, boolean elementQualified, boolean attributeQualified) {
+    }
+}
@@ -0,0 +1,109 @@
+package io.github.debug.xml2jdto.generator;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import javax.xml.transform.stream.StreamSource;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import io.github.debug.xml2jdto.core.exception.InvalidMethodParameterException;
+import io.github.debug.xml2jdto.core.exception.Xml2jDtoException;
+import io.github.debug.xml2jdto.core.jaxb.JaxbUtil;
+
+public class XmlGeneratorTest {
+
+    private static final String STORAGE_XSD_PATH = "xsd/io/github/debugOSS/xml2jdto/example/STORAGE/1.0/storage.xsd";
+
+    private static final String GUID_PATTERN = "[a-fA-F0-9]{8}-[a-fA-F0-9]{4}-[a-fA-F0-9]{4}-[a-fA-F0-9]{4}-[a-fA-F0-9]{12}";
+
+    @BeforeAll
+    public static void beforeAll() {
+        System.setProperty("xml2jdto.catalog.path", "xsd/catalog.cat");
+    }
+
+    @Test
+    public void testGenerate_withSameSeed() {
+        byte[] first = storageGenerator(64 * 1024, 7).generate();
+        byte[] second = storageGenerator(64 * 1024, 7).generate();
+        byte[] other = storageGenerator(64 * 1024, 8).generate();
+
+        Assertions.assertThat(first).isEqualTo(second);
+        Assertions.assertThat(first).isNotEqualTo(other);
+    }
+
+    @Test
+    public void testGenerate_isValid() throws Exception {
+        for (long seed = 0; seed < 10; seed++) {
+            byte[] xml = storageGenerator(16 * 1024, seed).generate();
+
+            JaxbUtil.getSchema(STORAGE_XSD_PATH).newValidator().validate(new StreamSource(new ByteArrayInputStream(xml)));
+        }
+    }
+
+    @Test
+    public void testGenerate_withTargetSize() {
+        long targetSize = 1024 * 1024;
+
+        byte[] xml = storageGenerator(targetSize, 42).generate();
+
+        Assertions.assertThat((double) xml.length).isCloseTo(targetSize, Assertions.withinPercentage(5));
+    }
+
+    @Test
+    public void testGenerate_withRecursiveContent() {
+        String xml = new String(storageGenerator(64 * 1024, 42).generate(), StandardCharsets.UTF_8);
+
+        Assertions.assertThat(xml).startsWith("<?xml version=\"1.0\" encoding=\"UTF-8\"?><Storage xmlns=");
+        Assertions.assertThat(xml).containsPattern("<ns\\d:subDirectories>.*<ns\\d:subDirectories>.*<ns\\d:subDirectories>");
+        Assertions.assertThat(xml).containsPattern("<ns\\d:fileId>" + GUID_PATTERN + "</ns\\d:fileId>");
+    }
+
+    @Test
+    public void testGenerate_withMaxDepth() {
+        String xml = new String(
+                XmlGenerator.builder().xsdPath(STORAGE_XSD_PATH).rootElement("Storage").maxDepth(1).maxOccurs(5).build().generate(),
+                StandardCharsets.UTF_8);
+
+        Assertions.assertThat(xml).contains("directories>").doesNotContain("subDirectories>");
+    }
+
+    @Test
+    public void testBuild_withUnknownRootElement() {
+        Assertions.assertThatThrownBy(() -> XmlGenerator.builder().xsdPath(STORAGE_XSD_PATH).rootElement("Unknown").build())
+                .isInstanceOf(Xml2jDtoException.class)
+                .hasMessageContaining("Root element [Unknown] is not found in the schema");
+    }
+
+    @Test
+    public void testBuild_withNullXsdPath() {
+        Assertions.assertThatThrownBy(() -> XmlGenerator.builder().build())
+                .isInstanceOf(InvalidMethodParameterException.class)
+                .hasMessageContaining("xsdPath cannot be blank");
+    }
+
+    @Test
+    public void testRegexValueGenerator_withGuidPattern() {
+        RegexValueGenerator generator = RegexValueGenerator.compile(GUID_PATTERN);
+        Random random = new Random(1);
+
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertThat(generator.generate(random)).matches(GUID_PATTERN);
+        }
+    }
+
+    @Test
+    public void testParseSize() {
+        Assertions.assertThat(XmlGenerator.parseSize("512")).isEqualTo(512L);
+        Assertions.assertThat(XmlGenerator.parseSize("1KB")).isEqualTo(1024L);
+        Assertions.assertThat(XmlGenerator.parseSize("10mb")).isEqualTo(10L * 1024 * 1024);
+        Assertions.assertThatThrownBy(() -> XmlGenerator.parseSize("ten")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static XmlGenerator storageGenerator(long targetSize, long seed) {
+        return XmlGenerator.builder().xsdPath(STORAGE_XSD_PATH).rootElement("Storage").targetSize(targetSize).seed(seed).build();
+    }
+}
@@ -0,0 +1,252 @@
+package io.github.debug.xml2jdto.xjc;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.xml.sax.ErrorHandler;
+
+import com.sun.codemodel.JBlock;
+import com.sun.codemodel.JClass;
+import com.sun.codemodel.JDefinedClass;
+import com.sun.codemodel.JExpr;
+import com.sun.codemodel.JExpression;
+import com.sun.codemodel.JFieldRef;
+import com.sun.codemodel.JFieldVar;
+import com.sun.codemodel.JForLoop;
+import com.sun.codemodel.JInvocation;
+import com.sun.codemodel.JMethod;
+import com.sun.codemodel.JMod;
+import com.sun.codemodel.JSwitch;
+import com.sun.codemodel.JVar;
+import com.sun.tools.xjc.outline.ClassOutline;
+import com.sun.tools.xjc.outline.Outline;
+
+/**
+ * Generates the binary codecs of the classes of one XJC compilation, see {@link BinaryCodecPlugin}.
+ * <p>
+ * A class is not encoded if it has a property without a binary form (wildcards, mixed content, {@code JAXBElement} references, several element
+ * types in one property), if it inherits or references such a class, or if one of its subclasses is not encoded, see {@link CodecGenerator}.
+ * </p>
+ *
+ * @author scheffer.imrich
+ */
+final class BinaryCodecGenerator extends CodecGenerator {
+
+    private static final String RUNTIME_PACKAGE = "io.github.debug.xml2jdto.core.codec";
+
+    private final JClass writerClass;
+
+    private final JClass readerClass;
+
+    private final Map<PropertyPlan, Integer> tags = new IdentityHashMap<>();
+
+    BinaryCodecGenerator(Outline outline, ErrorHandler errorHandler) {
+        super(outline, errorHandler, "binary", RUNTIME_PACKAGE, "BinaryCodec", BinaryCodecPlugin.CODEC_SUFFIX, BinaryCodecPlugin.PROVIDER_NAME);
+        this.writerClass = runtimeClass("BinaryWriter");
+        this.readerClass = runtimeClass("BinaryReader");
+    }
+
+    @Override
+    boolean isRegistered(ClassPlan plan) {
+        return !plan.isAbstract();
+    }
+
+    @Override
+    String codecJavadoc(ClassPlan plan) {
+        return "Compact binary codec of {@link " + plan.name() + "}, generated from the XSD content model of the class.\n"
+                + "<p>\nThe tags of the properties follow their order in the content model of the class and its superclasses.\n</p>";
+    }
+
+    @Override
+    void generateCodec(ClassPlan plan) {
+        JDefinedClass codec = plan.codec;
+        JDefinedClass implClass = plan.classOutline.implClass;
+        int tag = firstTag(plan);
+        for (PropertyPlan property : plan.properties) {
+            tags.put(property, tag++);
+        }
+
+        if (!plan.isAbstract()) {
+            codec.field(JMod.PUBLIC | JMod.STATIC | JMod.FINAL, codec, "INSTANCE", JExpr._new(codec)).javadoc().add("The codec instance.");
+        }
+        codec.constructor(JMod.PRIVATE);
+
+        if (!plan.isAbstract()) {
+            JMethod type = codec.method(JMod.PUBLIC, codeModel.ref(Class.class).narrow(implClass), "type");
+            type.annotate(Override.class);
+            type.body()._return(implClass.dotclass());
+
+            JMethod write = codec.method(JMod.PUBLIC, codeModel.VOID, "write");
+            write.annotate(Override.class);
+            JVar value = write.param(implClass, "value");
+            JVar out = write.param(writerClass, "out");
+            write.body().add(codec.staticInvoke("writeFields").arg(value).arg(out));
+            write.body().add(out.invoke("writeEnd"));
+
+            JMethod read = codec.method(JMod.PUBLIC, implClass, "read");
+            read.annotate(Override.class);
+            JVar in = read.param(readerClass, "in");
+            JVar result = read.body().decl(implClass, "value", JExpr._new(implClass));
+            read.body().add(in.invoke("enterGroup"));
+            JForLoop loop = read.body()._for();
+            JVar key = loop.init(codeModel.INT, "key", in.invoke("readKey"));
+            loop.test(key.ne(JExpr.lit(0)));
+            loop.update(key.assign(in.invoke("readKey")));
+            loop.body()._if(codec.staticInvoke("readField").arg(result).arg(key).arg(in).not())._then().add(in.invoke("skip").arg(key));
+            read.body().add(in.invoke("exitGroup"));
+            read.body()._return(result);
+        }
+
+        generateWriteFields(plan);
+        generateReadField(plan);
+        if (!plan.subclasses.isEmpty()) {
+            generatePolymorphic(plan);
+        }
+    }
+
+    private void generateWriteFields(ClassPlan plan) {
+        JMethod method = plan.codec.method(JMod.PUBLIC | JMod.STATIC, codeModel.VOID, "writeFields");
+        method.javadoc().add("Writes the properties of the class and its superclasses, without the end of group key.");
+        JVar value = method.param(plan.classOutline.implClass, "value");
+        JVar out = method.param(writerClass, "out");
+        ClassOutline superClass = plan.classOutline.getSuperClass();
+        if (superClass != null) {
+            method.body().add(plans.get(superClass).codec.staticInvoke("writeFields").arg(value).arg(out));
+        }
+        for (PropertyPlan property : plan.properties) {
+            JFieldRef field = value.ref(property.field);
+            JBlock block = method.body();
+            if (property.info.isCollection()) {
+                ItemLoop loop = forEachItem(block, value, property);
+                writeValue(loop.body(), property, loop.item(), out);
+            } else if (property.field.type().isPrimitive()) {
+                writeValue(block, property, field, out);
+            } else {
+                writeValue(block._if(field.ne(JExpr._null()))._then(), property, field, out);
+            }
+        }
+    }
+
+    private void writeValue(JBlock block, PropertyPlan property, JExpression value, JVar out) {
+        ValueKind.WireType wireType = wireType(property);
+        block.add(out.invoke("writeKey").arg(JExpr.lit(tags.get(property))).arg(writerClass.staticRef(wireType.name())));
+        if (property.kind != ValueKind.OBJECT) {
+            block.add(out.invoke(property.kind.writeMethod()).arg(value));
+        } else if (wireType == ValueKind.WireType.TYPED_GROUP) {
+            block.add(plans.get(property.target).codec.staticInvoke("writeValue").arg(value).arg(out));
+        } else {
+            block.add(plans.get(property.target).codec.staticRef("INSTANCE").invoke("write").arg(value).arg(out));
+        }
+    }
+
+    private void generateReadField(ClassPlan plan) {
+        JMethod method = plan.codec.method(JMod.PUBLIC | JMod.STATIC, codeModel.BOOLEAN, "readField");
+        method.javadoc().add("Reads the value of a property of the class or its superclasses.");
+        method.javadoc().addReturn().add("false if the key is not a property of the class");
+        JVar value = method.param(plan.classOutline.implClass, "value");
+        JVar key = method.param(codeModel.INT, "key");
+        JVar in = method.param(readerClass, "in");
+        if (!plan.properties.isEmpty()) {
+            JSwitch keySwitch = method.body()._switch(key);
+            for (PropertyPlan property : plan.properties) {
+                JBlock block = keySwitch._case(JExpr.lit(tags.get(property) << 3 | wireType(property).id())).body();
+                JExpression read = readValue(plan, property, in);
+                if (property.info.isCollection()) {
+                    block.add(addItem(value, property, read));
+                } else {
+                    block.assign(value.ref(property.field), read);
+                }
+                block._return(JExpr.TRUE);
+            }
+        }
+        ClassOutline superClass = plan.classOutline.getSuperClass();
+        if (superClass != null) {
+            method.body()._return(plans.get(superClass).codec.staticInvoke("readField").arg(value).arg(key).arg(in));
+        } else {
+            method.body()._return(JExpr.FALSE);
+        }
+    }
+
+    private JExpression readValue(ClassPlan plan, PropertyPlan property, JVar in) {
+        JInvocation read = in.invoke(property.kind.readMethod());
+        return switch (property.kind) {
+            case BYTE -> JExpr.cast(codeModel.BYTE, read);
+            case SHORT -> JExpr.cast(codeModel.SHORT, read);
+            case ENUM -> read.arg(enumValues(plan, (JClass) property.valueType));
+            case OBJECT -> wireType(property) == ValueKind.WireType.TYPED_GROUP
+                    ? plans.get(property.target).codec.staticInvoke("readValue").arg(in)
+                    : plans.get(property.target).codec.staticRef("INSTANCE").invoke("read").arg(in);
+            default -> read;
+        };
+    }
+
+    /**
+     * @return the constant of the codec holding the values of the enum, {@code values()} copies the array on every call
+     */
+    private JFieldVar enumValues(ClassPlan plan, JClass enumClass) {
+        return plan.constants.computeIfAbsent(enumClass.fullName(), name -> {
+            String fieldName = enumClass.name().replaceAll("([a-z0-9])([A-Z])", "$1_$2").toUpperCase() + "_VALUES";
+            while (plan.codec.fields().containsKey(fieldName)) {
+                fieldName = "_" + fieldName;
+            }
+            return plan.codec.field(JMod.PRIVATE | JMod.STATIC | JMod.FINAL, enumClass.array(), fieldName, enumClass.staticInvoke("values"));
+        });
+    }
+
+    /**
+     * Generates the dispatch of a class with subclasses: the value of a property may be an instance of any of them, so it is written with the index
+     * of its concrete class.
+     */
+    private void generatePolymorphic(ClassPlan plan) {
+        List<ClassPlan> subtypes = plan.concreteSubtypes();
+        JDefinedClass implClass = plan.classOutline.implClass;
+
+        JMethod write = plan.codec.method(JMod.PUBLIC | JMod.STATIC, codeModel.VOID, "writeValue");
+        write.javadoc().add("Writes the index of the concrete class of the value followed by the value as a group.");
+        JVar value = write.param(implClass, "value");
+        JVar out = write.param(writerClass, "out");
+        List<ClassPlan> checkOrder = new ArrayList<>(subtypes);
+        // the most derived classes first, an instance of a subclass is also an instance of its superclasses
+        checkOrder.sort(Comparator.comparingInt(ClassPlan::depth).reversed().thenComparing(ClassPlan::name));
+        for (ClassPlan subtype : checkOrder) {
+            JBlock block = subtype == plan ? write.body() : write.body()._if(value._instanceof(subtype.classOutline.implClass))._then();
+            JExpression cast = subtype == plan ? value : JExpr.cast(subtype.classOutline.implClass, value);
+            block.add(out.invoke("writeSubtype").arg(JExpr.lit(subtypes.indexOf(subtype))));
+            block.add(subtype.codec.staticRef("INSTANCE").invoke("write").arg(cast).arg(out));
+            if (subtype == plan) {
+                break;
+            }
+            block._return();
+        }
+        if (plan.isAbstract()) {
+            write.body()._throw(writerClass.staticInvoke("unknownSubtype").arg(value));
+        }
+
+        JMethod read = plan.codec.method(JMod.PUBLIC | JMod.STATIC, implClass, "readValue");
+        read.javadoc().add("Reads a value written by {@link #writeValue}.");
+        JVar in = read.param(readerClass, "in");
+        JSwitch subtypeSwitch = read.body()._switch(in.invoke("readSubtype").arg(JExpr.lit(subtypes.size())));
+        for (int i = 0; i < subtypes.size(); i++) {
+            JBlock block = i < subtypes.size() - 1 ? subtypeSwitch._case(JExpr.lit(i)).body() : subtypeSwitch._default().body();
+            block._return(subtypes.get(i).codec.staticRef("INSTANCE").invoke("read").arg(in));
+        }
+    }
+
+    private ValueKind.WireType wireType(PropertyPlan property) {
+        if (property.kind == ValueKind.OBJECT && !plans.get(property.target).subclasses.isEmpty()) {
+            return ValueKind.WireType.TYPED_GROUP;
+        }
+        return property.kind.wireType();
+    }
+
+    /**
+     * @return the tag of the first property of the class, the properties of the superclasses come first
+     */
+    private int firstTag(ClassPlan plan) {
+        ClassPlan superPlan = plan.superPlan();
+        return superPlan == null ? 1 : firstTag(superPlan) + superPlan.properties.size();
+    }
+}
@@ -0,0 +1,71 @@
+package io.github.debug.xml2jdto.xjc;
+
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.SAXException;
+
+import com.sun.tools.xjc.Options;
+import com.sun.tools.xjc.Plugin;
+import com.sun.tools.xjc.outline.Outline;
+
+/**
+ * XJC plugin generating a compact binary codec for every generated class, activated by the {@code -Xxml2jdto-binary} option.
+ * <p>
+ * For a class {@code FileType} the plugin generates {@code FileTypeBinaryCodec} in the same package, an implementation of
+ * {@code io.github.debug.xml2jdto.core.codec.BinaryCodec}. The codecs read and write the fields of the DTO directly, in straight-line code derived
+ * from the XSD content model: the tag of a property is its position in the content model of the class and its superclasses, simple values are
+ * varints, fixed size numbers or string table entries, nested classes are groups encoded by their own codec. Every package gets a
+ * {@value #PROVIDER_NAME} listing its codecs, registered in {@code META-INF/services}, so the runtime registry
+ * {@code io.github.debug.xml2jdto.core.codec.BinaryCodecs} finds them without configuration.
+ * </p>
+ * <p>
+ * Classes that cannot be encoded completely (e.g. {@code xs:any} or mixed content) get no codec, the plugin reports them as warnings. The
+ * generated code depends on the {@code core} artifact of xml2jdto at compile and run time.
+ * </p>
+ *
+ * @author scheffer.imrich
+ */
+public class BinaryCodecPlugin extends Plugin {
+
+    /**
+     * Name of the command line option activating the plugin, without the leading dash.
+     */
+    public static final String OPTION_NAME = "Xxml2jdto-binary";
+
+    /**
+     * Suffix of the name of the generated codec classes.
+     */
+    public static final String CODEC_SUFFIX = "BinaryCodec";
+
+    /**
+     * Name of the generated codec provider class of every package.
+     */
+    public static final String PROVIDER_NAME = "Xml2jDtoBinaryCodecProvider";
+
+    /**
+     * Package of the service files in the generated sources, that is the {@code META-INF/services} directory.
+     */
+    static final String SERVICES_DIRECTORY = "META-INF.services";
+
+    /**
+     * Default constructor, constructs a new object.
+     */
+    public BinaryCodecPlugin() {
+        super();
+    }
+
+    @Override
+    public String getOptionName() {
+        return OPTION_NAME;
+    }
+
+    @Override
+    public String getUsage() {
+        return "  -" + OPTION_NAME + "  :  generate compact binary codecs (xml2jdto core BinaryCodec) for the generated classes";
+    }
+
+    @Override
+    public boolean run(Outline outline, Options options, ErrorHandler errorHandler) throws SAXException {
+        new BinaryCodecGenerator(outline, errorHandler).generate();
+        return true;
+    }
+}
@@ -0,0 +1,495 @@
+package io.github.debug.xml2jdto.xjc;
+
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.Locator;
+import org.xml.sax.SAXException;
+import org.xml.sax.SAXParseException;
+
+import com.sun.codemodel.JBlock;
+import com.sun.codemodel.JClass;
+import com.sun.codemodel.JClassAlreadyExistsException;
+import com.sun.codemodel.JCodeModel;
+import com.sun.codemodel.JDefinedClass;
+import com.sun.codemodel.JExpr;
+import com.sun.codemodel.JExpression;
+import com.sun.codemodel.JFieldRef;
+import com.sun.codemodel.JFieldVar;
+import com.sun.codemodel.JForEach;
+import com.sun.codemodel.JForLoop;
+import com.sun.codemodel.JInvocation;
+import com.sun.codemodel.JMethod;
+import com.sun.codemodel.JMod;
+import com.sun.codemodel.JPackage;
+import com.sun.codemodel.JType;
+import com.sun.codemodel.JVar;
+import com.sun.codemodel.fmt.JTextFile;
+import com.sun.tools.xjc.model.CElementPropertyInfo;
+import com.sun.tools.xjc.model.CPropertyInfo;
+import com.sun.tools.xjc.model.CReferencePropertyInfo;
+import com.sun.tools.xjc.outline.ClassOutline;
+import com.sun.tools.xjc.outline.EnumOutline;
+import com.sun.tools.xjc.outline.FieldOutline;
+import com.sun.tools.xjc.outline.Outline;
+
+/**
+ * Common steps of the codec generators of the plugins of the module, one codec class per generated class.
+ * <p>
+ * The generation has three steps: every property is classified by the type of its field, the classes that cannot be handled completely are removed
+ * until no more class depends on a removed one, and the codecs and the providers are generated for the rest. A class gets no codec if it has a
+ * property the format cannot handle (wildcards, mixed content, {@code JAXBElement} references, several element types in one property, or what the
+ * concrete generator rejects), if it inherits or references such a class, or if one of its subclasses gets no codec, because a property of the class
+ * may hold an instance of the subclass.
+ * </p>
+ *
+ * @author scheffer.imrich
+ */
+abstract class CodecGenerator {
+
+    /**
+     * Name of the loop variable of the items of a list in the generated code.
+     */
+    static final String ITEM = "item";
+
+    final Outline outline;
+
+    final JCodeModel codeModel;
+
+    final ErrorHandler errorHandler;
+
+    final Map<ClassOutline, ClassPlan> plans = new LinkedHashMap<>();
+
+    private final String formatName;
+
+    private final String runtimePackage;
+
+    private final String codecInterfaceName;
+
+    private final String codecSuffix;
+
+    private final String providerName;
+
+    private final Map<String, ClassOutline> classesByName = new HashMap<>();
+
+    private final Set<String> enumNames = new HashSet<>();
+
+    /**
+     * @param formatName
+     *            name of the format in the warnings and the documentation of the generated code, e.g. {@code binary}
+     * @param runtimePackage
+     *            package of the runtime interfaces in the {@code core} artifact
+     * @param codecInterfaceName
+     *            simple name of the codec interface, the provider interface is named with the {@code Provider} suffix
+     * @param codecSuffix
+     *            suffix of the names of the generated codec classes
+     * @param providerName
+     *            name of the generated provider class of every package
+     */
+    CodecGenerator(Outline outline, ErrorHandler errorHandler, String formatName, String runtimePackage, String codecInterfaceName, String codecSuffix,
+            String providerName) {
+        this.outline = outline;
+        this.codeModel = outline.getCodeModel();
+        this.errorHandler = errorHandler;
+        this.formatName = formatName;
+        this.runtimePackage = runtimePackage;
+        this.codecInterfaceName = codecInterfaceName;
+        this.codecSuffix = codecSuffix;
+        this.providerName = providerName;
+    }
+
+    /**
+     * Generates the codecs, the providers of their packages and the service file of the providers.
+     *
+     * @throws SAXException
+     *             if the error handler aborts the compilation on a warning or a codec class name is already taken
+     */
+    void generate() throws SAXException {
+        for (ClassOutline classOutline : outline.getClasses()) {
+            classesByName.put(classOutline.implClass.fullName(), classOutline);
+        }
+        for (EnumOutline enumOutline : outline.getEnums()) {
+            enumNames.add(enumOutline.clazz.fullName());
+        }
+        for (ClassOutline classOutline : outline.getClasses()) {
+            plans.put(classOutline, plan(classOutline));
+        }
+        for (ClassOutline classOutline : outline.getClasses()) {
+            ClassPlan plan = plans.get(classOutline);
+            if (classOutline.getSuperClass() != null) {
+                plans.get(classOutline.getSuperClass()).subclasses.add(plan);
+            }
+        }
+        removeUnsupported();
+
+        List<ClassPlan> supported = new ArrayList<>();
+        for (ClassPlan plan : plans.values()) {
+            if (plan.unsupportedReason != null) {
+                warning(plan.classOutline.target.getLocator(), "No {0} codec for class [{1}]: {2}", formatName, plan.classOutline.implClass.fullName(),
+                        plan.unsupportedReason);
+            } else {
+                supported.add(plan);
+            }
+        }
+        for (ClassPlan plan : supported) {
+            declareCodec(plan);
+        }
+        for (ClassPlan plan : supported) {
+            generateCodec(plan);
+        }
+        generateProviders(supported);
+    }
+
+    /**
+     * Generates the members of the declared codec class of a supported class.
+     */
+    abstract void generateCodec(ClassPlan plan);
+
+    /**
+     * @return true if the codec of the class implements the codec interface and is listed by the provider of its package
+     */
+    abstract boolean isRegistered(ClassPlan plan);
+
+    /**
+     * @return the javadoc of the codec class
+     */
+    abstract String codecJavadoc(ClassPlan plan);
+
+    /**
+     * Checks the format specific restrictions of a property, called after it has been classified.
+     *
+     * @return the reason why the property is not supported, or null
+     */
+    String unsupportedReason(PropertyPlan property) {
+        return null;
+    }
+
+    /**
+     * Adds an item to the list of a collection property through its getter, which creates the list of the type the field has at the end of the
+     * generation, even if {@link PrimitiveListPlugin} runs after the codec plugin.
+     *
+     * @return the statement adding the item
+     */
+    JInvocation addItem(JExpression value, PropertyPlan property, JExpression item) {
+        String addMethod = property.primitiveList != null ? property.primitiveList.addMethod() : "add";
+        return value.invoke(property.getter).invoke(addMethod).arg(item);
+    }
+
+    /**
+     * Adds the iteration over the non-null items of a collection property, a primitive-backed list is iterated by index without boxing.
+     *
+     * @return the body of the loop and the item variable
+     */
+    ItemLoop forEachItem(JBlock block, JExpression value, PropertyPlan property) {
+        JFieldRef field = value.ref(property.field);
+        JBlock notNull = block._if(field.ne(JExpr._null()))._then();
+        if (property.primitiveList == null) {
+            JForEach each = notNull.forEach((JClass) property.valueType, ITEM, field);
+            return new ItemLoop(each.body()._if(each.var().ne(JExpr._null()))._then(), each.var());
+        }
+        JVar size = notNull.decl(codeModel.INT, "size", field.invoke("size"));
+        JForLoop loop = notNull._for();
+        JVar index = loop.init(codeModel.INT, "i", JExpr.lit(0));
+        loop.test(index.lt(size));
+        loop.update(index.incr());
+        JVar item = loop.body().decl(property.valueType.unboxify(), ITEM, field.invoke(property.primitiveList.getMethod()).arg(index));
+        return new ItemLoop(loop.body(), item);
+    }
+
+    /**
+     * @return the runtime class of the {@code core} artifact with the given simple name
+     */
+    JClass runtimeClass(String simpleName) {
+        return codeModel.ref(runtimePackage + "." + simpleName);
+    }
+
+    private ClassPlan plan(ClassOutline classOutline) {
+        ClassPlan plan = new ClassPlan(classOutline);
+        if (classOutline.target.declaresAttributeWildcard()) {
+            plan.unsupportedReason = "attribute wildcard";
+        } else if (classOutline.getSuperClass() == null && classOutline.target.getRefBaseClass() != null) {
+            plan.unsupportedReason = "base class outside of the compilation";
+        }
+        for (FieldOutline fieldOutline : classOutline.getDeclaredFields()) {
+            PropertyPlan property = plan(classOutline, fieldOutline.getPropertyInfo());
+            if (property.unsupportedReason == null) {
+                property.unsupportedReason = unsupportedReason(property);
+            }
+            if (property.unsupportedReason != null && plan.unsupportedReason == null) {
+                plan.unsupportedReason = MessageFormat.format("property [{0}]: {1}", property.info.getName(false), property.unsupportedReason);
+            }
+            plan.properties.add(property);
+        }
+        return plan;
+    }
+
+    private PropertyPlan plan(ClassOutline classOutline, CPropertyInfo info) {
+        PropertyPlan property = new PropertyPlan(info);
+        if (info instanceof CReferencePropertyInfo) {
+            property.unsupportedReason = "wildcard, mixed or JAXBElement content";
+            return property;
+        }
+        if (info instanceof CElementPropertyInfo elementInfo && elementInfo.getTypes().size() > 1) {
+            property.unsupportedReason = "choice of several element types";
+            return property;
+        }
+        property.field = classOutline.implClass.fields().get(info.getName(false));
+        if (property.field == null || (property.field.mods().getValue() & JMod.PRIVATE) != 0) {
+            property.unsupportedReason = "no accessible field";
+            return property;
+        }
+        JType valueType = property.field.type();
+        if (info.isCollection()) {
+            property.getter = classOutline.implClass.getMethod("get" + info.getName(true), new JType[0]);
+            property.primitiveList = PrimitiveList.ofField(valueType);
+            if (property.getter == null) {
+                property.unsupportedReason = "no getter of the list";
+                return property;
+            }
+            if (property.primitiveList != null) {
+                valueType = property.primitiveList.itemType(codeModel);
+            } else if (valueType instanceof JClass listType && listType.getTypeParameters().size() == 1) {
+                valueType = listType.getTypeParameters().get(0);
+            } else {
+                property.unsupportedReason = "unknown collection type " + valueType.fullName();
+                return property;
+            }
+        }
+        property.valueType = valueType;
+        property.kind = ValueKind.ofBuiltin(valueType);
+        if (property.kind == null) {
+            if (enumNames.contains(valueType.fullName())) {
+                property.kind = ValueKind.ENUM;
+            } else if (classesByName.containsKey(valueType.fullName())) {
+                property.kind = ValueKind.OBJECT;
+                property.target = classesByName.get(valueType.fullName());
+            } else {
+                property.unsupportedReason = "no " + formatName + " form of type " + valueType.fullName();
+            }
+        }
+        return property;
+    }
+
+    /**
+     * Removes the classes depending on an unsupported class, until a fixpoint is reached.
+     */
+    private void removeUnsupported() {
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            for (ClassPlan plan : plans.values()) {
+                if (plan.unsupportedReason == null) {
+                    plan.unsupportedReason = dependencyReason(plan);
+                    changed |= plan.unsupportedReason != null;
+                }
+            }
+        }
+    }
+
+    private String dependencyReason(ClassPlan plan) {
+        ClassOutline superClass = plan.classOutline.getSuperClass();
+        if (superClass != null && plans.get(superClass).unsupportedReason != null) {
+            return MessageFormat.format("superclass {0} has no {1} codec", superClass.implClass.fullName(), formatName);
+        }
+        for (PropertyPlan property : plan.properties) {
+            if (property.target != null && plans.get(property.target).unsupportedReason != null) {
+                return MessageFormat.format("property [{0}]: class {1} has no {2} codec", property.info.getName(false),
+                        property.target.implClass.fullName(), formatName);
+            }
+        }
+        for (ClassPlan subclass : plan.subclasses) {
+            if (subclass.unsupportedReason != null) {
+                return MessageFormat.format("subclass {0} has no {1} codec", subclass.classOutline.implClass.fullName(), formatName);
+            }
+        }
+        if (plan.isAbstract() && plan.concreteSubtypes().isEmpty()) {
+            return "abstract class without concrete subclasses";
+        }
+        return null;
+    }
+
+    private void declareCodec(ClassPlan plan) throws SAXException {
+        JDefinedClass implClass = plan.classOutline.implClass;
+        String name = implClass.fullName().substring(implClass._package().name().isEmpty() ? 0 : implClass._package().name().length() + 1)
+                .replace(".", "") + codecSuffix;
+        try {
+            plan.codec = implClass._package()._class(JMod.PUBLIC | JMod.FINAL, name);
+        } catch (JClassAlreadyExistsException e) {
+            SAXParseException exception = new SAXParseException(capitalizedFormatName() + " codec class name already taken: "
+                    + e.getExistingClass().fullName(), plan.classOutline.target.getLocator());
+            errorHandler.error(exception);
+            throw exception;
+        }
+        plan.codec.javadoc().add(codecJavadoc(plan));
+        if (isRegistered(plan)) {
+            plan.codec._implements(runtimeClass(codecInterfaceName).narrow(implClass));
+        }
+    }
+
+    /**
+     * Generates a provider of the registered codecs per package and the service file listing the providers.
+     */
+    private void generateProviders(List<ClassPlan> supported) throws SAXException {
+        Map<JPackage, List<ClassPlan>> byPackage = new TreeMap<>(Comparator.comparing(JPackage::name));
+        for (ClassPlan plan : supported) {
+            if (isRegistered(plan)) {
+                byPackage.computeIfAbsent(plan.classOutline.implClass._package(), p -> new ArrayList<>()).add(plan);
+            }
+        }
+        if (byPackage.isEmpty()) {
+            return;
+        }
+        JClass codecListType = codeModel.ref(List.class).narrow(runtimeClass(codecInterfaceName).narrow(codeModel.ref(Object.class).wildcard()));
+        Set<String> providerNames = new TreeSet<>();
+        for (Map.Entry<JPackage, List<ClassPlan>> entry : byPackage.entrySet()) {
+            JDefinedClass provider;
+            try {
+                provider = entry.getKey()._class(JMod.PUBLIC | JMod.FINAL, providerName);
+            } catch (JClassAlreadyExistsException e) {
+                SAXParseException exception = new SAXParseException(
+                        capitalizedFormatName() + " codec provider class name already taken: " + e.getExistingClass().fullName(), null);
+                errorHandler.error(exception);
+                throw exception;
+            }
+            provider._implements(runtimeClass(codecInterfaceName + "Provider"));
+            provider.javadoc().add("Provider of the " + formatName + " codecs of the package, registered as a {@code java.util.ServiceLoader} service.");
+            JMethod codecs = provider.method(JMod.PUBLIC, codecListType, "codecs");
+            codecs.annotate(Override.class);
+            JInvocation list = codeModel.ref(List.class).staticInvoke("of");
+            entry.getValue().sort(Comparator.comparing(ClassPlan::name));
+            for (ClassPlan plan : entry.getValue()) {
+                list.arg(plan.codec.staticRef("INSTANCE"));
+            }
+            codecs.body()._return(list);
+            providerNames.add(provider.fullName());
+        }
+        JTextFile serviceFile = new JTextFile(runtimePackage + "." + codecInterfaceName + "Provider");
+        serviceFile.setContents(String.join("\n", providerNames) + "\n");
+        codeModel._package(BinaryCodecPlugin.SERVICES_DIRECTORY).addResourceFile(serviceFile);
+    }
+
+    private String capitalizedFormatName() {
+        return Character.toUpperCase(formatName.charAt(0)) + formatName.substring(1);
+    }
+
+    private void warning(Locator locator, String pattern, Object... arguments) throws SAXException {
+        errorHandler.warning(new SAXParseException(MessageFormat.format(pattern, arguments), locator));
+    }
+
+    /**
+     * The codec plan of a generated class.
+     */
+    final class ClassPlan {
+
+        final ClassOutline classOutline;
+
+        final List<PropertyPlan> properties = new ArrayList<>();
+
+        final List<ClassPlan> subclasses = new ArrayList<>();
+
+        /**
+         * Constants of the codec, e.g. the values of the enums, by a key of the generator.
+         */
+        final Map<String, JFieldVar> constants = new HashMap<>();
+
+        String unsupportedReason;
+
+        JDefinedClass codec;
+
+        private ClassPlan(ClassOutline classOutline) {
+            this.classOutline = classOutline;
+        }
+
+        String name() {
+            return classOutline.implClass.fullName();
+        }
+
+        boolean isAbstract() {
+            return classOutline.implClass.isAbstract();
+        }
+
+        int depth() {
+            return superPlan() == null ? 0 : superPlan().depth() + 1;
+        }
+
+        /**
+         * @return the plan of the superclass, or null if the class has no superclass in the compilation
+         */
+        ClassPlan superPlan() {
+            return classOutline.getSuperClass() == null ? null : plans.get(classOutline.getSuperClass());
+        }
+
+        /**
+         * @return the concrete classes among the class and its subclasses, ordered by name
+         */
+        List<ClassPlan> concreteSubtypes() {
+            List<ClassPlan> result = new ArrayList<>();
+            collectConcrete(this, result);
+            result.sort(Comparator.comparing(ClassPlan::name));
+            return result;
+        }
+
+        private void collectConcrete(ClassPlan plan, List<ClassPlan> result) {
+            if (!plan.isAbstract()) {
+                result.add(plan);
+            }
+            for (ClassPlan subclass : plan.subclasses) {
+                collectConcrete(subclass, result);
+            }
+        }
+    }
+
+    /**
+     * Body and item variable of a loop over the items of a list.
+     */
+    record ItemLoop(JBlock body, JVar item) {
+    }
+
+    /**
+     * The codec plan of a property declared by a generated class.
+     */
+    static final class PropertyPlan {
+
+        final CPropertyInfo info;
+
+        JFieldVar field;
+
+        /**
+         * Getter of a list, it creates the list on first access.
+         */
+        JMethod getter;
+
+        /**
+         * Type of the field, the item type of a list.
+         */
+        JType valueType;
+
+        /**
+         * Primitive-backed list of the field, see {@link PrimitiveListPlugin}.
+         */
+        PrimitiveList primitiveList;
+
+        ValueKind kind;
+
+        /**
+         * Class of an {@link ValueKind#OBJECT} value.
+         */
+        ClassOutline target;
+
+        String unsupportedReason;
+
+        private PropertyPlan(CPropertyInfo info) {
+            this.info = info;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package io.github.debug.xml2jdto.xjc;
+
+import com.sun.codemodel.JClass;
+import com.sun.codemodel.JCodeModel;
+import com.sun.codemodel.JType;
+
+/**
+ * The primitive-backed list classes of the runtime, with the item type they replace and their methods reading and adding without boxing.
+ *
+ * @author scheffer.imrich
+ */
+enum PrimitiveList {
+
+    INT(Integer.class, "IntList", "getInt", "addInt"),
+
+    LONG(Long.class, "LongList", "getLong", "addLong"),
+
+    DOUBLE(Double.class, "DoubleList", "getDouble", "addDouble");
+
+    /**
+     * Package of the list classes in the {@code core} artifact.
+     */
+    static final String RUNTIME_PACKAGE = "io.github.debug.xml2jdto.core.collection";
+
+    private final Class<?> itemType;
+
+    private final String className;
+
+    private final String getMethod;
+
+    private final String addMethod;
+
+    PrimitiveList(Class<?> itemType, String simpleName, String getMethod, String addMethod) {
+        this.itemType = itemType;
+        this.className = RUNTIME_PACKAGE + '.' + simpleName;
+        this.getMethod = getMethod;
+        this.addMethod = addMethod;
+    }
+
+    JClass listClass(JCodeModel codeModel) {
+        return codeModel.ref(className);
+    }
+
+    JClass itemType(JCodeModel codeModel) {
+        return codeModel.ref(itemType);
+    }
+
+    String getMethod() {
+        return getMethod;
+    }
+
+    String addMethod() {
+        return addMethod;
+    }
+
+    /**
+     * @return the list replacing a list of the item type, or null if there is none
+     */
+    static PrimitiveList ofItem(JType itemType) {
+        for (PrimitiveList list : values()) {
+            if (list.itemType.getName().equals(itemType.fullName())) {
+                return list;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the list of the type of a field, or null if the field is not a primitive-backed list
+     */
+    static PrimitiveList ofField(JType fieldType) {
+        for (PrimitiveList list : values()) {
+            if (list.className.equals(fieldType.fullName())) {
+                return list;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,99 @@
+package io.github.debug.xml2jdto.xjc;
+
+import java.util.List;
+
+import com.sun.codemodel.JClass;
+import com.sun.codemodel.JCodeModel;
+import com.sun.codemodel.JCommentPart;
+import com.sun.codemodel.JDefinedClass;
+import com.sun.codemodel.JDocComment;
+import com.sun.codemodel.JExpr;
+import com.sun.codemodel.JFieldVar;
+import com.sun.codemodel.JMethod;
+import com.sun.codemodel.JType;
+import com.sun.tools.xjc.model.CElementPropertyInfo;
+import com.sun.tools.xjc.model.CPropertyInfo;
+import com.sun.tools.xjc.outline.ClassOutline;
+import com.sun.tools.xjc.outline.FieldOutline;
+import com.sun.tools.xjc.outline.Outline;
+
+/**
+ * Replaces the {@code List<Integer>}, {@code List<Long>} and {@code List<Double>} fields of the repeated simple-typed elements with the
+ * primitive-backed lists of the runtime.
+ * <p>
+ * The type of the field and the return type of its getter become the list class, e.g. {@code IntList}, and the getter creates that class instead of
+ * an {@code ArrayList}. JAXB instantiates the declared class of a collection field, so it fills the same list when unmarshalling. Lists of values
+ * ({@code xs:list}), nillable elements and properties with an adapter keep their list, these may hold null or are bound by the adapter.
+ * </p>
+ *
+ * @author scheffer.imrich
+ */
+final class PrimitiveListGenerator {
+
+    private final Outline outline;
+
+    private final JCodeModel codeModel;
+
+    PrimitiveListGenerator(Outline outline) {
+        this.outline = outline;
+        this.codeModel = outline.getCodeModel();
+    }
+
+    void generate() {
+        for (ClassOutline classOutline : outline.getClasses()) {
+            for (FieldOutline fieldOutline : classOutline.getDeclaredFields()) {
+                CPropertyInfo info = fieldOutline.getPropertyInfo();
+                if (!isSimpleElementList(info)) {
+                    continue;
+                }
+                JFieldVar field = classOutline.implClass.fields().get(info.getName(false));
+                JMethod getter = classOutline.implClass.getMethod("get" + info.getName(true), new JType[0]);
+                PrimitiveList list = field == null ? null : primitiveList(field.type());
+                if (list != null && getter != null) {
+                    specialize(classOutline.implClass, field, getter, list.listClass(codeModel));
+                }
+            }
+        }
+    }
+
+    private static boolean isSimpleElementList(CPropertyInfo info) {
+        return info.isCollection()
+                && info.getAdapter() == null
+                && info instanceof CElementPropertyInfo elementInfo
+                && !elementInfo.isValueList()
+                && elementInfo.getTypes().size() == 1
+                && !elementInfo.getTypes().get(0).isNillable();
+    }
+
+    private static PrimitiveList primitiveList(JType fieldType) {
+        if (fieldType instanceof JClass listType && listType.getTypeParameters().size() == 1) {
+            return PrimitiveList.ofItem(listType.getTypeParameters().get(0));
+        }
+        return null;
+    }
+
+    /**
+     * Changes the type of the field and replaces the getter, its body creates the list so it cannot be kept; the javadoc and the position of the
+     * getter are kept.
+     */
+    private static void specialize(JDefinedClass implClass, JFieldVar field, JMethod getter, JClass listClass) {
+        field.type(listClass);
+        List<JMethod> methods = (List<JMethod>) implClass.methods();
+        int position = methods.indexOf(getter);
+        methods.remove(position);
+        JMethod specialized = implClass.method(getter.mods().getValue(), listClass, getter.name());
+        methods.remove(specialized);
+        methods.add(position, specialized);
+        copy(getter.javadoc(), specialized.javadoc());
+        specialized.body()._if(JExpr._this().ref(field).eq(JExpr._null()))._then().assign(JExpr._this().ref(field), JExpr._new(listClass));
+        specialized.body()._return(JExpr._this().ref(field));
+    }
+
+    private static void copy(JDocComment from, JDocComment to) {
+        to.addAll(from);
+        JCommentPart returnPart = from.addReturn();
+        if (!returnPart.isEmpty()) {
+            to.addReturn().addAll(returnPart);
+        }
+    }
+}
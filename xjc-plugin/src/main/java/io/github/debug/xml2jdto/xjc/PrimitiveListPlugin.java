@@ -0,0 +1,54 @@
+package io.github.debug.xml2jdto.xjc;
+
+import org.xml.sax.ErrorHandler;
+
+import com.sun.tools.xjc.Options;
+import com.sun.tools.xjc.Plugin;
+import com.sun.tools.xjc.outline.Outline;
+
+/**
+ * XJC plugin generating primitive-backed lists for the repeated numeric elements, activated by the {@code -Xxml2jdto-primitive-lists} option.
+ * <p>
+ * A repeated {@code xs:int}, {@code xs:long} or {@code xs:double} element (or any element bound to {@code Integer}, {@code Long} or {@code Double})
+ * is generated as an {@code io.github.debug.xml2jdto.core.collection.IntList}, {@code LongList} or {@code DoubleList} instead of an
+ * {@code ArrayList} of boxed values. These implement {@code List} of the boxed type, so JAXB and the code using the getter work unchanged, while the
+ * list holds 4 or 8 bytes per value instead of a reference and an object. The {@code xs:decimal} and {@code xs:integer} values are objects in Java
+ * either way, their lists are not changed.
+ * </p>
+ * <p>
+ * Put the option before {@code -Xxml2jdto-binary} and {@code -Xxml2jdto-stax}: the codecs generated after it read and write these lists without
+ * boxing. The generated code depends on the {@code core} artifact of xml2jdto at compile and run time.
+ * </p>
+ *
+ * @author scheffer.imrich
+ */
+public class PrimitiveListPlugin extends Plugin {
+
+    /**
+     * Name of the command line option activating the plugin, without the leading dash.
+     */
+    public static final String OPTION_NAME = "Xxml2jdto-primitive-lists";
+
+    /**
+     * Default constructor, constructs a new object.
+     */
+    public PrimitiveListPlugin() {
+        super();
+    }
+
+    @Override
+    public String getOptionName() {
+        return OPTION_NAME;
+    }
+
+    @Override
+    public String getUsage() {
+        return "  -" + OPTION_NAME + "  :  generate int/long/double backed lists (xml2jdto core IntList...) for the repeated numeric elements";
+    }
+
+    @Override
+    public boolean run(Outline outline, Options options, ErrorHandler errorHandler) {
+        new PrimitiveListGenerator(outline).generate();
+        return true;
+    }
+}
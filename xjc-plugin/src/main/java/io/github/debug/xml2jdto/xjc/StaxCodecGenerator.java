@@ -0,0 +1,587 @@
+package io.github.debug.xml2jdto.xjc;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+
+import javax.xml.XMLConstants;
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamException;
+
+import org.glassfish.jaxb.core.v2.model.core.ID;
+import org.xml.sax.ErrorHandler;
+
+import com.sun.codemodel.JBlock;
+import com.sun.codemodel.JCatchBlock;
+import com.sun.codemodel.JClass;
+import com.sun.codemodel.JDefinedClass;
+import com.sun.codemodel.JExpr;
+import com.sun.codemodel.JExpression;
+import com.sun.codemodel.JFieldRef;
+import com.sun.codemodel.JForLoop;
+import com.sun.codemodel.JInvocation;
+import com.sun.codemodel.JMethod;
+import com.sun.codemodel.JMod;
+import com.sun.codemodel.JTryBlock;
+import com.sun.codemodel.JType;
+import com.sun.codemodel.JVar;
+import com.sun.tools.xjc.model.CAdapter;
+import com.sun.tools.xjc.model.CAttributePropertyInfo;
+import com.sun.tools.xjc.model.CElementPropertyInfo;
+import com.sun.tools.xjc.model.CPropertyInfo;
+import com.sun.tools.xjc.model.CValuePropertyInfo;
+import com.sun.tools.xjc.outline.Outline;
+
+import jakarta.xml.bind.annotation.adapters.CollapsedStringAdapter;
+import jakarta.xml.bind.annotation.adapters.NormalizedStringAdapter;
+
+/**
+ * Generates the StAX codecs of the classes of one XJC compilation, see {@link StaxCodecPlugin}.
+ * <p>
+ * Every supported class gets a codec with static methods reading and writing its attributes and content, the codecs of the subclasses delegate the
+ * inherited properties to the codec of their superclass. Only the codecs of the concrete root element classes implement
+ * {@code io.github.debug.xml2jdto.core.stax.StaxCodec} and are registered. Besides the properties the binary codecs cannot handle either, a class is
+ * not supported if it has nillable elements, lists of simple values, {@code IDREF} references or adapters other than the whitespace adapters of
+ * {@code xs:token} and {@code xs:normalizedString}, see {@link CodecGenerator}.
+ * </p>
+ *
+ * @author scheffer.imrich
+ */
+final class StaxCodecGenerator extends CodecGenerator {
+
+    private static final String RUNTIME_PACKAGE = "io.github.debug.xml2jdto.core.stax";
+
+    private static final String VALUE = "value";
+
+    private static final String CONTEXT = "context";
+
+    private static final String TEXT = "text";
+
+    private final JClass readContextClass;
+
+    private final JClass writeContextClass;
+
+    private final JClass datatypeConverter;
+
+    StaxCodecGenerator(Outline outline, ErrorHandler errorHandler) {
+        super(outline, errorHandler, "StAX", RUNTIME_PACKAGE, "StaxCodec", StaxCodecPlugin.CODEC_SUFFIX, StaxCodecPlugin.PROVIDER_NAME);
+        this.readContextClass = runtimeClass("StaxReadContext");
+        this.writeContextClass = runtimeClass("StaxWriteContext");
+        this.datatypeConverter = codeModel.ref("jakarta.xml.bind.DatatypeConverter");
+    }
+
+    @Override
+    boolean isRegistered(ClassPlan plan) {
+        return !plan.isAbstract() && plan.classOutline.target.isElement();
+    }
+
+    @Override
+    String codecJavadoc(ClassPlan plan) {
+        return "StAX codec of {@link " + plan.name() + "}, generated from the XSD content model of the class.\n"
+                + "<p>\nThe static methods read and write the attributes and the content of the class, the codecs of the subclasses and of the classes"
+                + " referencing it call them.\n</p>";
+    }
+
+    @Override
+    String unsupportedReason(PropertyPlan property) {
+        CPropertyInfo info = property.info;
+        if (info instanceof CElementPropertyInfo elementInfo) {
+            if (elementInfo.isValueList()) {
+                return "list of simple values";
+            }
+            if (elementInfo.getTypes().get(0).isNillable()) {
+                return "nillable element";
+            }
+        }
+        if (info.id() == ID.IDREF) {
+            return "IDREF reference";
+        }
+        CAdapter adapter = info.getAdapter();
+        if (adapter != null) {
+            String adapterName = adapter.getAdapterClass(outline).fullName();
+            if (property.kind != ValueKind.STRING
+                    || !CollapsedStringAdapter.class.getName().equals(adapterName) && !NormalizedStringAdapter.class.getName().equals(adapterName)) {
+                return "adapter " + adapterName;
+            }
+        }
+        if (property.kind == ValueKind.ENUM
+                && ((JDefinedClass) property.valueType).getMethod("fromValue", new JType[] { codeModel.ref(String.class) }) == null) {
+            return "enum without String value " + property.valueType.fullName();
+        }
+        return null;
+    }
+
+    @Override
+    void generateCodec(ClassPlan plan) {
+        JDefinedClass codec = plan.codec;
+
+        if (isRegistered(plan)) {
+            codec.field(JMod.PUBLIC | JMod.STATIC | JMod.FINAL, codec, "INSTANCE", JExpr._new(codec)).javadoc().add("The codec instance.");
+            QName rootElement = plan.classOutline.target.getElementName();
+            codec.field(JMod.PRIVATE | JMod.STATIC | JMod.FINAL, QName.class, "ROOT_ELEMENT",
+                    JExpr._new(codeModel.ref(QName.class)).arg(rootElement.getNamespaceURI()).arg(rootElement.getLocalPart()));
+        }
+        codec.constructor(JMod.PRIVATE);
+
+        if (isRegistered(plan)) {
+            generateRootMethods(plan);
+        }
+        if (hasProperties(plan, CAttributePropertyInfo.class::isInstance)) {
+            generateReadAttribute(plan);
+        }
+        if (hasProperties(plan, CElementPropertyInfo.class::isInstance)) {
+            generateReadElement(plan);
+        }
+        if (plan.properties.stream().anyMatch(property -> property.info instanceof CValuePropertyInfo)) {
+            generateReadText(plan);
+        }
+        if (!plan.isAbstract()) {
+            generateReadInstance(plan);
+        }
+        if (!plan.subclasses.isEmpty()) {
+            generateReadValue(plan);
+            generateWriteValue(plan);
+        }
+        if (hasProperties(plan, CAttributePropertyInfo.class::isInstance)) {
+            generateWriteAttributes(plan);
+        }
+        if (hasContent(plan)) {
+            generateWriteContent(plan);
+        }
+    }
+
+    private void generateRootMethods(ClassPlan plan) {
+        JDefinedClass codec = plan.codec;
+        JDefinedClass implClass = plan.classOutline.implClass;
+
+        JMethod type = codec.method(JMod.PUBLIC, codeModel.ref(Class.class).narrow(implClass), "type");
+        type.annotate(Override.class);
+        type.body()._return(implClass.dotclass());
+
+        JMethod rootElement = codec.method(JMod.PUBLIC, QName.class, "rootElement");
+        rootElement.annotate(Override.class);
+        rootElement.body()._return(codec.fields().get("ROOT_ELEMENT"));
+
+        JMethod read = codec.method(JMod.PUBLIC, implClass, "read");
+        read.annotate(Override.class);
+        read._throws(XMLStreamException.class);
+        JVar readContext = read.param(readContextClass, CONTEXT);
+        read.body()._return(codec.staticInvoke(plan.subclasses.isEmpty() ? "readInstance" : "readValue").arg(readContext));
+
+        JMethod write = codec.method(JMod.PUBLIC, codeModel.VOID, "write");
+        write.annotate(Override.class);
+        write._throws(XMLStreamException.class);
+        JVar value = write.param(implClass, VALUE);
+        JVar writeContext = write.param(writeContextClass, CONTEXT);
+        QName name = plan.classOutline.target.getElementName();
+        write.body().add(writeContext.invoke("startElement").arg(name.getNamespaceURI()).arg(name.getLocalPart()));
+        Set<String> namespaces = reachableNamespaces(plan);
+        namespaces.remove(name.getNamespaceURI());
+        if (!namespaces.isEmpty()) {
+            JInvocation declare = writeContext.invoke("declareNamespaces");
+            for (String namespace : namespaces) {
+                declare.arg(namespace);
+            }
+            write.body().add(declare);
+        }
+        writeBody(write.body(), plan, value, writeContext);
+        write.body().add(writeContext.invoke("endElement"));
+    }
+
+    private void generateReadAttribute(ClassPlan plan) {
+        JMethod method = plan.codec.method(JMod.PUBLIC | JMod.STATIC, codeModel.BOOLEAN, "readAttribute");
+        method.javadoc().add("Reads an attribute of the current element into a property of the class or its superclasses.");
+        method.javadoc().addReturn().add("false if the attribute is not a property of the class");
+        method._throws(XMLStreamException.class);
+        JVar value = method.param(plan.classOutline.implClass, VALUE);
+        JVar index = method.param(codeModel.INT, "index");
+        JVar context = method.param(readContextClass, CONTEXT);
+        for (PropertyPlan property : plan.properties) {
+            if (property.info instanceof CAttributePropertyInfo attributeInfo) {
+                QName name = attributeInfo.getXmlName();
+                JBlock block = method.body()._if(context.invoke("isAttribute").arg(index).arg(name.getNamespaceURI()).arg(name.getLocalPart()))._then();
+                JVar text = block.decl(codeModel.ref(String.class), TEXT, context.invoke("attributeValue").arg(index));
+                readSimpleValue(block, value, property, text, context);
+                block._return(JExpr.TRUE);
+            }
+        }
+        ClassPlan superPlan = plan.superPlan();
+        if (superPlan != null && hasProperties(superPlan, CAttributePropertyInfo.class::isInstance)) {
+            method.body()._return(superPlan.codec.staticInvoke("readAttribute").arg(value).arg(index).arg(context));
+        } else {
+            method.body()._return(JExpr.FALSE);
+        }
+    }
+
+    private void generateReadElement(ClassPlan plan) {
+        JMethod method = plan.codec.method(JMod.PUBLIC | JMod.STATIC, codeModel.BOOLEAN, "readElement");
+        method.javadoc().add("Reads the current child element into a property of the class or its superclasses.");
+        method.javadoc().addReturn().add("false if the element is not a property of the class, the reader is not moved then");
+        method._throws(XMLStreamException.class);
+        JVar value = method.param(plan.classOutline.implClass, VALUE);
+        JVar context = method.param(readContextClass, CONTEXT);
+        for (PropertyPlan property : plan.properties) {
+            if (property.info instanceof CElementPropertyInfo elementInfo) {
+                QName name = elementInfo.getTypes().get(0).getTagName();
+                JBlock block = method.body()._if(context.invoke("isElement").arg(name.getNamespaceURI()).arg(name.getLocalPart()))._then();
+                if (property.kind == ValueKind.OBJECT) {
+                    ClassPlan target = plans.get(property.target);
+                    if (target.subclasses.isEmpty()) {
+                        store(block, value, property, target.codec.staticInvoke("readInstance").arg(context));
+                    } else {
+                        JVar item = block.decl(target.classOutline.implClass, ITEM, target.codec.staticInvoke("readValue").arg(context));
+                        store(block._if(item.ne(JExpr._null()))._then(), value, property, item);
+                    }
+                } else {
+                    JVar text = block.decl(codeModel.ref(String.class), TEXT, context.invoke("text"));
+                    readSimpleValue(block, value, property, text, context);
+                }
+                block._return(JExpr.TRUE);
+            }
+        }
+        ClassPlan superPlan = plan.superPlan();
+        if (superPlan != null && hasProperties(superPlan, CElementPropertyInfo.class::isInstance)) {
+            method.body()._return(superPlan.codec.staticInvoke("readElement").arg(value).arg(context));
+        } else {
+            method.body()._return(JExpr.FALSE);
+        }
+    }
+
+    private void generateReadText(ClassPlan plan) {
+        JMethod method = plan.codec.method(JMod.PUBLIC | JMod.STATIC, codeModel.VOID, "readText");
+        method.javadoc().add("Reads the text content of the current element into the value property of the class.");
+        method._throws(XMLStreamException.class);
+        JVar value = method.param(plan.classOutline.implClass, VALUE);
+        JVar text = method.param(String.class, TEXT);
+        JVar context = method.param(readContextClass, CONTEXT);
+        for (PropertyPlan property : plan.properties) {
+            if (property.info instanceof CValuePropertyInfo) {
+                readSimpleValue(method.body(), value, property, text, context);
+            }
+        }
+    }
+
+    private void generateReadInstance(ClassPlan plan) {
+        JDefinedClass implClass = plan.classOutline.implClass;
+        JMethod method = plan.codec.method(JMod.PUBLIC | JMod.STATIC, implClass, "readInstance");
+        method.javadoc().add("Reads the current element as an instance of the class, leaving the reader on the end of the element.");
+        method._throws(XMLStreamException.class);
+        JVar context = method.param(readContextClass, CONTEXT);
+        JBlock body = method.body();
+        JVar value = body.decl(implClass, VALUE, JExpr._new(implClass));
+        if (hasProperties(plan, CAttributePropertyInfo.class::isInstance)) {
+            JVar count = body.decl(codeModel.INT, "count", context.invoke("attributeCount"));
+            JForLoop loop = body._for();
+            JVar index = loop.init(codeModel.INT, "i", JExpr.lit(0));
+            loop.test(index.lt(count));
+            loop.update(index.incr());
+            loop.body().add(plan.codec.staticInvoke("readAttribute").arg(value).arg(index).arg(context));
+        }
+        body.add(context.invoke("enterElement"));
+        ClassPlan textPlan = valuePlan(plan);
+        if (textPlan != null) {
+            body.add(textPlan.codec.staticInvoke("readText").arg(value).arg(context.invoke("text")).arg(context));
+        } else {
+            JBlock loop = body._while(context.invoke("nextElement")).body();
+            if (hasProperties(plan, CElementPropertyInfo.class::isInstance)) {
+                loop._if(plan.codec.staticInvoke("readElement").arg(value).arg(context).not())._then().add(context.invoke("unexpectedElement"));
+            } else {
+                loop.add(context.invoke("unexpectedElement"));
+            }
+        }
+        body.add(context.invoke("exitElement"));
+        body._return(value);
+    }
+
+    /**
+     * Generates the reading of a property of a class with subclasses: the {@code xsi:type} of the element selects the class of the value.
+     */
+    private void generateReadValue(ClassPlan plan) {
+        JDefinedClass implClass = plan.classOutline.implClass;
+        JMethod method = plan.codec.method(JMod.PUBLIC | JMod.STATIC, implClass, "readValue");
+        method.javadoc().add("Reads the current element as an instance of the class or of the subclass selected by its {@code xsi:type}.");
+        method.javadoc().addReturn().add("the value, or null if its class cannot be determined and the event handler accepts the event");
+        method._throws(XMLStreamException.class);
+        JVar context = method.param(readContextClass, CONTEXT);
+        JBlock body = method.body();
+        JVar type = body.decl(codeModel.ref(QName.class), "type", context.invoke("xsiType"));
+        JBlock typed = body._if(type.ne(JExpr._null()))._then();
+        for (ClassPlan subtype : plan.concreteSubtypes()) {
+            QName typeName = subtype.classOutline.target.getTypeName();
+            if (typeName != null) {
+                typed._if(JExpr.lit(typeName.getLocalPart()).invoke("equals").arg(type.invoke("getLocalPart"))
+                        .cand(JExpr.lit(typeName.getNamespaceURI()).invoke("equals").arg(type.invoke("getNamespaceURI"))))
+                        ._then()
+                        ._return(subtype.codec.staticInvoke("readInstance").arg(context));
+            }
+        }
+        typed.add(context.invoke("unknownType").arg(type));
+        if (plan.isAbstract()) {
+            body.add(context.invoke("abstractType").arg(implClass.dotclass()));
+            body.add(context.invoke("skipElement"));
+            body._return(JExpr._null());
+        } else {
+            body._return(plan.codec.staticInvoke("readInstance").arg(context));
+        }
+    }
+
+    /**
+     * Generates the writing of a property of a class with subclasses: the value is written with the {@code xsi:type} of its concrete class.
+     */
+    private void generateWriteValue(ClassPlan plan) {
+        JDefinedClass implClass = plan.classOutline.implClass;
+        JMethod method = plan.codec.method(JMod.PUBLIC | JMod.STATIC, codeModel.VOID, "writeValue");
+        method.javadoc().add("Writes the attributes and the content of the value, with the {@code xsi:type} of its class if it is a subclass.");
+        method._throws(XMLStreamException.class);
+        JVar value = method.param(implClass, VALUE);
+        JVar context = method.param(writeContextClass, CONTEXT);
+        List<ClassPlan> checkOrder = new ArrayList<>(plan.concreteSubtypes());
+        // the most derived classes first, an instance of a subclass is also an instance of its superclasses
+        checkOrder.sort(Comparator.comparingInt(ClassPlan::depth).reversed().thenComparing(ClassPlan::name));
+        for (ClassPlan subtype : checkOrder) {
+            if (subtype == plan) {
+                writeBody(method.body(), plan, value, context);
+                return;
+            }
+            JBlock block = method.body()._if(value._instanceof(subtype.classOutline.implClass))._then();
+            QName typeName = subtype.classOutline.target.getTypeName();
+            if (typeName == null) {
+                // a root element extending the type anonymously has no xsi:type name, JAXB cannot write it in the place of the type either
+                block._throw(writeContextClass.staticInvoke("unknownSubtype").arg(value));
+                continue;
+            }
+            block.add(context.invoke("xsiType").arg(typeName.getNamespaceURI()).arg(typeName.getLocalPart()));
+            writeBody(block, subtype, JExpr.cast(subtype.classOutline.implClass, value), context);
+            block._return();
+        }
+        method.body()._throw(writeContextClass.staticInvoke("unknownSubtype").arg(value));
+    }
+
+    private void generateWriteAttributes(ClassPlan plan) {
+        JMethod method = plan.codec.method(JMod.PUBLIC | JMod.STATIC, codeModel.VOID, "writeAttributes");
+        method.javadoc().add("Writes the attribute properties of the class and its superclasses.");
+        method._throws(XMLStreamException.class);
+        JVar value = method.param(plan.classOutline.implClass, VALUE);
+        JVar context = method.param(writeContextClass, CONTEXT);
+        ClassPlan superPlan = plan.superPlan();
+        if (superPlan != null && hasProperties(superPlan, CAttributePropertyInfo.class::isInstance)) {
+            method.body().add(superPlan.codec.staticInvoke("writeAttributes").arg(value).arg(context));
+        }
+        for (PropertyPlan property : plan.properties) {
+            if (property.info instanceof CAttributePropertyInfo attributeInfo) {
+                QName name = attributeInfo.getXmlName();
+                JFieldRef field = value.ref(property.field);
+                JBlock block = property.field.type().isPrimitive() ? method.body() : method.body()._if(field.ne(JExpr._null()))._then();
+                block.add(context.invoke("attribute").arg(name.getNamespaceURI()).arg(name.getLocalPart()).arg(print(property, field)));
+            }
+        }
+    }
+
+    private void generateWriteContent(ClassPlan plan) {
+        JMethod method = plan.codec.method(JMod.PUBLIC | JMod.STATIC, codeModel.VOID, "writeContent");
+        method.javadoc().add("Writes the child elements or the text content of the class and its superclasses.");
+        method._throws(XMLStreamException.class);
+        JVar value = method.param(plan.classOutline.implClass, VALUE);
+        JVar context = method.param(writeContextClass, CONTEXT);
+        ClassPlan superPlan = plan.superPlan();
+        if (superPlan != null && hasContent(superPlan)) {
+            method.body().add(superPlan.codec.staticInvoke("writeContent").arg(value).arg(context));
+        }
+        for (PropertyPlan property : plan.properties) {
+            if (property.info instanceof CAttributePropertyInfo) {
+                continue;
+            }
+            JFieldRef field = value.ref(property.field);
+            if (property.info.isCollection()) {
+                ItemLoop loop = forEachItem(method.body(), value, property);
+                writeElement(loop.body(), property, loop.item(), context);
+            } else {
+                JBlock block = property.field.type().isPrimitive() ? method.body() : method.body()._if(field.ne(JExpr._null()))._then();
+                if (property.info instanceof CValuePropertyInfo) {
+                    block.add(context.invoke(TEXT).arg(print(property, field)));
+                } else {
+                    writeElement(block, property, field, context);
+                }
+            }
+        }
+    }
+
+    private void writeElement(JBlock block, PropertyPlan property, JExpression value, JVar context) {
+        QName name = ((CElementPropertyInfo) property.info).getTypes().get(0).getTagName();
+        if (property.kind != ValueKind.OBJECT) {
+            block.add(context.invoke("simpleElement").arg(name.getNamespaceURI()).arg(name.getLocalPart()).arg(print(property, value)));
+            return;
+        }
+        ClassPlan target = plans.get(property.target);
+        block.add(context.invoke("startElement").arg(name.getNamespaceURI()).arg(name.getLocalPart()));
+        if (target.subclasses.isEmpty()) {
+            writeBody(block, target, value, context);
+        } else {
+            block.add(target.codec.staticInvoke("writeValue").arg(value).arg(context));
+        }
+        block.add(context.invoke("endElement"));
+    }
+
+    /**
+     * Adds the writing of the attributes and the content of a value of the class, the start and the end of its element are written by the caller.
+     */
+    private void writeBody(JBlock block, ClassPlan plan, JExpression value, JVar context) {
+        if (hasProperties(plan, CAttributePropertyInfo.class::isInstance)) {
+            block.add(plan.codec.staticInvoke("writeAttributes").arg(value).arg(context));
+        }
+        if (hasContent(plan)) {
+            block.add(plan.codec.staticInvoke("writeContent").arg(value).arg(context));
+        }
+    }
+
+    /**
+     * Adds the parsing of the lexical value of a simple property and its assignment, invalid values are reported to the context and not assigned.
+     */
+    private void readSimpleValue(JBlock block, JVar value, PropertyPlan property, JVar text, JVar context) {
+        switch (property.kind) {
+            case STRING -> store(block, value, property, context.invoke("string").arg(whitespace(property, text, context)));
+            case ENUM -> {
+                JTryBlock tryBlock = block._try();
+                store(tryBlock.body(), value, property, ((JClass) property.valueType).staticInvoke("fromValue").arg(text));
+                JCatchBlock catchBlock = tryBlock._catch(codeModel.ref(IllegalArgumentException.class));
+                JVar exception = catchBlock.param("e");
+                catchBlock.body().add(context.invoke("invalidValue").arg(text).arg(exception));
+            }
+            default -> {
+                JVar parsed = block.decl(property.valueType.boxify(), "parsed", context.invoke(parseMethod(property.kind)).arg(text));
+                store(block._if(parsed.ne(JExpr._null()))._then(), value, property, parsed);
+            }
+        }
+    }
+
+    private void store(JBlock block, JVar value, PropertyPlan property, JExpression item) {
+        if (property.info.isCollection()) {
+            block.add(addItem(value, property, item));
+        } else {
+            block.assign(value.ref(property.field), item);
+        }
+    }
+
+    private JExpression whitespace(PropertyPlan property, JVar text, JVar context) {
+        CAdapter adapter = property.info.getAdapter();
+        if (adapter == null) {
+            return text;
+        }
+        String adapterName = adapter.getAdapterClass(outline).fullName();
+        return context.invoke(CollapsedStringAdapter.class.getName().equals(adapterName) ? "collapse" : "normalize").arg(text);
+    }
+
+    private JExpression print(PropertyPlan property, JExpression value) {
+        return switch (property.kind) {
+            case STRING -> value;
+            case ENUM -> value.invoke("value");
+            case CALENDAR -> value.invoke("toXMLFormat");
+            case DURATION -> value.invoke("toString");
+            case BOOLEAN -> datatypeConverter.staticInvoke("printBoolean").arg(value);
+            case BYTE -> datatypeConverter.staticInvoke("printByte").arg(value);
+            case SHORT -> datatypeConverter.staticInvoke("printShort").arg(value);
+            case INT -> datatypeConverter.staticInvoke("printInt").arg(value);
+            case LONG -> datatypeConverter.staticInvoke("printLong").arg(value);
+            case FLOAT -> datatypeConverter.staticInvoke("printFloat").arg(value);
+            case DOUBLE -> datatypeConverter.staticInvoke("printDouble").arg(value);
+            case BYTES -> datatypeConverter.staticInvoke("printBase64Binary").arg(value);
+            case BIG_INTEGER -> datatypeConverter.staticInvoke("printInteger").arg(value);
+            case BIG_DECIMAL -> datatypeConverter.staticInvoke("printDecimal").arg(value);
+            case OBJECT -> throw new IllegalArgumentException("No lexical form of " + property.valueType.fullName());
+        };
+    }
+
+    private static String parseMethod(ValueKind kind) {
+        return switch (kind) {
+            case BOOLEAN -> "parseBoolean";
+            case BYTE -> "parseByte";
+            case SHORT -> "parseShort";
+            case INT -> "parseInt";
+            case LONG -> "parseLong";
+            case FLOAT -> "parseFloat";
+            case DOUBLE -> "parseDouble";
+            case CALENDAR -> "parseCalendar";
+            case DURATION -> "parseDuration";
+            case BYTES -> "parseBase64Binary";
+            case BIG_INTEGER -> "parseInteger";
+            case BIG_DECIMAL -> "parseDecimal";
+            default -> throw new IllegalArgumentException("No parse method of " + kind);
+        };
+    }
+
+    /**
+     * @return true if the class or one of its superclasses declares a property matching the filter
+     */
+    private static boolean hasProperties(ClassPlan plan, Predicate<CPropertyInfo> filter) {
+        for (ClassPlan current = plan; current != null; current = current.superPlan()) {
+            if (current.properties.stream().anyMatch(property -> filter.test(property.info))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasContent(ClassPlan plan) {
+        return hasProperties(plan, info -> !(info instanceof CAttributePropertyInfo));
+    }
+
+    /**
+     * @return the class declaring the value property of a class with simple content, or null if the class has complex content
+     */
+    private static ClassPlan valuePlan(ClassPlan plan) {
+        for (ClassPlan current = plan; current != null; current = current.superPlan()) {
+            if (current.properties.stream().anyMatch(property -> property.info instanceof CValuePropertyInfo)) {
+                return current;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Collects the namespaces of the elements, attributes and {@code xsi:type} names a root element may contain, so they are declared once on the
+     * root element and not on every element using them.
+     */
+    private Set<String> reachableNamespaces(ClassPlan root) {
+        Set<String> namespaces = new TreeSet<>();
+        Set<ClassPlan> visited = new HashSet<>();
+        Deque<ClassPlan> queue = new ArrayDeque<>();
+        queue.add(root);
+        while (!queue.isEmpty()) {
+            ClassPlan plan = queue.poll();
+            if (!visited.add(plan)) {
+                continue;
+            }
+            if (plan.superPlan() != null) {
+                queue.add(plan.superPlan());
+            }
+            for (PropertyPlan property : plan.properties) {
+                if (property.info instanceof CAttributePropertyInfo attributeInfo) {
+                    namespaces.add(attributeInfo.getXmlName().getNamespaceURI());
+                } else if (property.info instanceof CElementPropertyInfo elementInfo) {
+                    namespaces.add(elementInfo.getTypes().get(0).getTagName().getNamespaceURI());
+                }
+                if (property.target != null) {
+                    ClassPlan target = plans.get(property.target);
+                    queue.add(target);
+                    if (!target.subclasses.isEmpty()) {
+                        namespaces.add(XMLConstants.W3C_XML_SCHEMA_INSTANCE_NS_URI);
+                        for (ClassPlan subtype : target.concreteSubtypes()) {
+                            queue.add(subtype);
+                            if (subtype != target && subtype.classOutline.target.getTypeName() != null) {
+                                namespaces.add(subtype.classOutline.target.getTypeName().getNamespaceURI());
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        namespaces.remove(XMLConstants.NULL_NS_URI);
+        return namespaces;
+    }
+}
@@ -0,0 +1,66 @@
+package io.github.debug.xml2jdto.xjc;
+
+import org.xml.sax.ErrorHandler;
+import org.xml.sax.SAXException;
+
+import com.sun.tools.xjc.Options;
+import com.sun.tools.xjc.Plugin;
+import com.sun.tools.xjc.outline.Outline;
+
+/**
+ * XJC plugin generating a reflection-free StAX reader and writer for every generated class, activated by the {@code -Xxml2jdto-stax} option.
+ * <p>
+ * For a class {@code FileType} the plugin generates {@code FileTypeStaxCodec} in the same package. The codec reads and writes the fields of the DTO
+ * directly, in straight-line code derived from the XSD content model: attributes and child elements are matched by their name, simple values are
+ * parsed and printed like the JAXB runtime does, nested classes are read and written by their own codec, subclasses are selected by their
+ * {@code xsi:type}. The codecs of the root element classes implement {@code io.github.debug.xml2jdto.core.stax.StaxCodec}; every package gets a
+ * {@value #PROVIDER_NAME} listing them, registered in {@code META-INF/services}, so the
+ * {@code io.github.debug.xml2jdto.core.jaxb.Xml2jDto} engine uses them instead of JAXB without configuration.
+ * </p>
+ * <p>
+ * Classes the codecs cannot bind like JAXB does (e.g. {@code xs:any}, mixed content or nillable elements) get no codec, the plugin reports them as
+ * warnings and the engine binds them with JAXB. The generated code depends on the {@code core} artifact of xml2jdto at compile and run time.
+ * </p>
+ *
+ * @author scheffer.imrich
+ */
+public class StaxCodecPlugin extends Plugin {
+
+    /**
+     * Name of the command line option activating the plugin, without the leading dash.
+     */
+    public static final String OPTION_NAME = "Xxml2jdto-stax";
+
+    /**
+     * Suffix of the name of the generated codec classes.
+     */
+    public static final String CODEC_SUFFIX = "StaxCodec";
+
+    /**
+     * Name of the generated codec provider class of every package.
+     */
+    public static final String PROVIDER_NAME = "Xml2jDtoStaxCodecProvider";
+
+    /**
+     * Default constructor, constructs a new object.
+     */
+    public StaxCodecPlugin() {
+        super();
+    }
+
+    @Override
+    public String getOptionName() {
+        return OPTION_NAME;
+    }
+
+    @Override
+    public String getUsage() {
+        return "  -" + OPTION_NAME + "  :  generate StAX readers and writers (xml2jdto core StaxCodec) for the generated classes";
+    }
+
+    @Override
+    public boolean run(Outline outline, Options options, ErrorHandler errorHandler) throws SAXException {
+        new StaxCodecGenerator(outline, errorHandler).generate();
+        return true;
+    }
+}
@@ -0,0 +1,125 @@
+package io.github.debug.xml2jdto.xjc;
+
+import com.sun.codemodel.JType;
+
+/**
+ * The kinds of property values the generated codecs can encode, with the matching wire type and the methods of the runtime writer and reader.
+ *
+ * @author scheffer.imrich
+ */
+enum ValueKind {
+
+    BOOLEAN(WireType.VARINT, "writeBoolean", "readBoolean"),
+
+    BYTE(WireType.VARINT, "writeInt", "readInt"),
+
+    SHORT(WireType.VARINT, "writeInt", "readInt"),
+
+    INT(WireType.VARINT, "writeInt", "readInt"),
+
+    LONG(WireType.VARINT, "writeLong", "readLong"),
+
+    FLOAT(WireType.FIXED32, "writeFloat", "readFloat"),
+
+    DOUBLE(WireType.FIXED64, "writeDouble", "readDouble"),
+
+    STRING(WireType.STRING, "writeString", "readString"),
+
+    CALENDAR(WireType.STRING, "writeCalendar", "readCalendar"),
+
+    DURATION(WireType.STRING, "writeDuration", "readDuration"),
+
+    BYTES(WireType.BYTES, "writeBytes", "readBytes"),
+
+    BIG_INTEGER(WireType.BYTES, "writeBigInteger", "readBigInteger"),
+
+    BIG_DECIMAL(WireType.BYTES, "writeBigDecimal", "readBigDecimal"),
+
+    /**
+     * Enum generated in the same compilation, written as its ordinal.
+     */
+    ENUM(WireType.VARINT, "writeEnum", "readEnum"),
+
+    /**
+     * Class generated in the same compilation, written as a nested group by its own codec.
+     */
+    OBJECT(WireType.GROUP, "write", "read");
+
+    private final WireType wireType;
+
+    private final String writeMethod;
+
+    private final String readMethod;
+
+    ValueKind(WireType wireType, String writeMethod, String readMethod) {
+        this.wireType = wireType;
+        this.writeMethod = writeMethod;
+        this.readMethod = readMethod;
+    }
+
+    WireType wireType() {
+        return wireType;
+    }
+
+    String writeMethod() {
+        return writeMethod;
+    }
+
+    String readMethod() {
+        return readMethod;
+    }
+
+    /**
+     * Classifies a built-in Java type of the XSD simple types; wrapper types are classified as their primitive.
+     *
+     * @return the kind, or null if the type is not a built-in value type
+     */
+    static ValueKind ofBuiltin(JType type) {
+        return switch (type.unboxify().fullName()) {
+            case "boolean" -> BOOLEAN;
+            case "byte" -> BYTE;
+            case "short" -> SHORT;
+            case "int" -> INT;
+            case "long" -> LONG;
+            case "float" -> FLOAT;
+            case "double" -> DOUBLE;
+            case "java.lang.String" -> STRING;
+            case "javax.xml.datatype.XMLGregorianCalendar" -> CALENDAR;
+            case "javax.xml.datatype.Duration" -> DURATION;
+            case "byte[]" -> BYTES;
+            case "java.math.BigInteger" -> BIG_INTEGER;
+            case "java.math.BigDecimal" -> BIG_DECIMAL;
+            default -> null;
+        };
+    }
+
+    /**
+     * Wire types of the runtime {@code BinaryWriter}, by the name of its constant.
+     */
+    enum WireType {
+
+        VARINT(0),
+
+        FIXED64(1),
+
+        BYTES(2),
+
+        GROUP(3),
+
+        TYPED_GROUP(4),
+
+        STRING(5),
+
+        FIXED32(6);
+
+        private final int id;
+
+        WireType(int id) {
+            this.id = id;
+        }
+
+        int id() {
+            return id;
+        }
+    }
+}
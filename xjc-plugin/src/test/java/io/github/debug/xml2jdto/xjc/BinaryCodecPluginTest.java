@@ -0,0 +1,128 @@
+package io.github.debug.xml2jdto.xjc;
+
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.lang.reflect.Field;
+import java.nio.file.Path;
+import java.util.List;
+
+import jakarta.xml.bind.JAXBContext;
+import jakarta.xml.bind.JAXBException;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.github.debug.xml2jdto.core.codec.BinaryCodecs;
+import io.github.debug.xml2jdto.core.exception.Xml2jDtoException;
+import io.github.debug.xml2jdto.core.jaxb.Xml2jDto;
+
+public class BinaryCodecPluginTest {
+
+    private static final String SERVICE_FILE = "META-INF/services/io.github.debug.xml2jdto.core.codec.BinaryCodecProvider";
+
+    @TempDir
+    private static Path workDirectory;
+
+    private static XjcCompilation compilation;
+
+    private static Class<?> sampleClass;
+
+    @BeforeAll
+    public static void beforeAll() throws Exception {
+        compilation = XjcCompilation.compile(workDirectory, "xsd/codec.xsd", "-" + BinaryCodecPlugin.OPTION_NAME);
+        sampleClass = compilation.loadClass("Sample");
+    }
+
+    @AfterAll
+    public static void afterAll() throws Exception {
+        compilation.close();
+    }
+
+    private static Object unmarshalSample() throws Exception {
+        try (InputStream xml = BinaryCodecPluginTest.class.getClassLoader().getResourceAsStream("xml/sample.xml")) {
+            return JAXBContext.newInstance(sampleClass).createUnmarshaller().unmarshal(xml);
+        }
+    }
+
+    private static String marshal(Object dto) throws JAXBException {
+        StringWriter writer = new StringWriter();
+        JAXBContext.newInstance(dto.getClass()).createMarshaller().marshal(dto, writer);
+        return writer.toString();
+    }
+
+    @Test
+    public void testGenerate_codecPerEncodableClass() {
+        for (String name : List.of("Sample", "NodeType", "AmountType", "ShapeType", "CircleType", "SquareType")) {
+            Assertions.assertThat(compilation.hasSource("test/codec/" + name + BinaryCodecPlugin.CODEC_SUFFIX + ".java")).as(name).isTrue();
+        }
+        Assertions.assertThat(compilation.source(SERVICE_FILE)).isEqualTo("test.codec." + BinaryCodecPlugin.PROVIDER_NAME + "\n");
+        Assertions.assertThat(compilation.source("test/codec/SampleBinaryCodec.java")).doesNotContain("java.lang.reflect");
+    }
+
+    @Test
+    public void testGenerate_withUnsupportedContent() throws Exception {
+        Assertions.assertThat(compilation.hasSource("test/codec/ExtensibleTypeBinaryCodec.java")).isFalse();
+        Assertions.assertThat(compilation.hasSource("test/codec/HolderBinaryCodec.java")).isFalse();
+        Assertions.assertThat(compilation.output())
+                .contains("No binary codec for class [test.codec.ExtensibleType]: property [any]")
+                .contains("No binary codec for class [test.codec.Holder]: property [extensible]: class test.codec.ExtensibleType has no binary codec");
+        Assertions.assertThat(BinaryCodecs.isSupported(compilation.loadClass("Holder"))).isFalse();
+    }
+
+    @Test
+    public void testRoundTrip_withAllValueKinds() throws Exception {
+        Object sample = unmarshalSample();
+
+        byte[] encoded = BinaryCodecs.encode(sample);
+        Object decoded = BinaryCodecs.decode(encoded, sampleClass);
+
+        Assertions.assertThat(decoded).isInstanceOf(sampleClass).isNotSameAs(sample);
+        Assertions.assertThat(marshal(decoded)).isEqualTo(marshal(sample));
+        Assertions.assertThat(encoded.length).isLessThan(marshal(sample).length() / 3);
+    }
+
+    @Test
+    public void testResultCache_copiesWithCodec() throws Exception {
+        Xml2jDto engine = Xml2jDto.builder().maxCachedResults(4).build();
+        String xml = marshal(unmarshalSample());
+
+        Object first = engine.unmarshal(xml, sampleClass, "xsd/codec.xsd");
+        Object second = engine.unmarshal(xml, sampleClass, "xsd/codec.xsd");
+
+        Assertions.assertThat(second).isInstanceOf(sampleClass).isNotSameAs(first);
+        Assertions.assertThat(marshal(second)).isEqualTo(marshal(first));
+        Assertions.assertThat(engine.getResultCacheStats().hits()).isEqualTo(1);
+    }
+
+    @Test
+    public void testRoundTrip_keepsSubtypes() throws Exception {
+        Object decoded = BinaryCodecs.decode(BinaryCodecs.encode(unmarshalSample()), sampleClass);
+
+        List<?> shapes = (List<?>) sampleClass.getMethod("getShape").invoke(decoded);
+        Assertions.assertThat(shapes).extracting(shape -> shape.getClass().getSimpleName()).containsExactly("CircleType", "SquareType");
+    }
+
+    @Test
+    public void testRoundTrip_withEmptyObject() throws Exception {
+        Object empty = sampleClass.getConstructor().newInstance();
+
+        Object decoded = BinaryCodecs.decode(BinaryCodecs.encode(empty), sampleClass);
+
+        Assertions.assertThat(sampleClass.getMethod("getText").invoke(decoded)).isNull();
+        Field tag = sampleClass.getDeclaredField("tag");
+        tag.setAccessible(true);
+        Assertions.assertThat(tag.get(decoded)).isNull();
+    }
+
+    @Test
+    public void testDecode_withOtherClass() throws Exception {
+        byte[] encoded = BinaryCodecs.encode(unmarshalSample());
+
+        Assertions.assertThatThrownBy(() -> BinaryCodecs.decode(encoded, compilation.loadClass("Holder")))
+                .isInstanceOf(Xml2jDtoException.class)
+                .hasMessageStartingWith("No binary codec for class [test.codec.Holder]");
+    }
+}
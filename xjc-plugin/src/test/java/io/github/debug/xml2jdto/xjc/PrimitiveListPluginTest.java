@@ -0,0 +1,104 @@
+package io.github.debug.xml2jdto.xjc;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.github.debug.xml2jdto.core.codec.BinaryCodecs;
+import io.github.debug.xml2jdto.core.collection.DoubleList;
+import io.github.debug.xml2jdto.core.collection.IntList;
+import io.github.debug.xml2jdto.core.collection.LongList;
+import io.github.debug.xml2jdto.core.jaxb.Xml2jDto;
+
+public class PrimitiveListPluginTest {
+
+    private static final String XSD_PATH = "xsd/codec.xsd";
+
+    @TempDir
+    private static Path workDirectory;
+
+    private static XjcCompilation compilation;
+
+    private static Class<?> sampleClass;
+
+    private static String sampleXml;
+
+    private final Xml2jDto jaxbEngine = Xml2jDto.builder().staxCodecs(false).build();
+
+    private final Xml2jDto staxEngine = Xml2jDto.builder().build();
+
+    @BeforeAll
+    public static void beforeAll() throws Exception {
+        compilation = XjcCompilation.compile(workDirectory, XSD_PATH, "-" + PrimitiveListPlugin.OPTION_NAME, "-" + BinaryCodecPlugin.OPTION_NAME,
+                "-" + StaxCodecPlugin.OPTION_NAME);
+        sampleClass = compilation.loadClass("Sample");
+        try (InputStream xml = PrimitiveListPluginTest.class.getClassLoader().getResourceAsStream("xml/sample.xml")) {
+            sampleXml = new String(xml.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @AfterAll
+    public static void afterAll() throws IOException {
+        compilation.close();
+    }
+
+    @Test
+    public void testGenerate_primitiveListFields() throws Exception {
+        Assertions.assertThat(sampleClass.getDeclaredField("values").getType()).isEqualTo(IntList.class);
+        Assertions.assertThat(sampleClass.getMethod("getValues").getReturnType()).isEqualTo(IntList.class);
+        Assertions.assertThat(sampleClass.getDeclaredField("ids").getType()).isEqualTo(LongList.class);
+        Assertions.assertThat(sampleClass.getDeclaredField("readings").getType()).isEqualTo(DoubleList.class);
+        // strings, enums and classes keep their list
+        Assertions.assertThat(sampleClass.getDeclaredField("tag").getType()).isEqualTo(List.class);
+        Assertions.assertThat(sampleClass.getDeclaredField("shape").getType()).isEqualTo(List.class);
+        Assertions.assertThat(compilation.source("test/codec/Sample.java")).contains("public IntList getValues()").contains("new IntList()");
+    }
+
+    @Test
+    public void testGenerate_codecsWithoutBoxing() {
+        Assertions.assertThat(compilation.source("test/codec/SampleStaxCodec.java")).contains(".addInt(").contains(".getLong(").contains(".addDouble(");
+        Assertions.assertThat(compilation.source("test/codec/SampleBinaryCodec.java")).contains(".addInt(").contains(".getInt(");
+    }
+
+    @Test
+    public void testUnmarshal_jaxbFillsPrimitiveLists() throws Exception {
+        Object dto = jaxbEngine.unmarshal(sampleXml, sampleClass, XSD_PATH);
+
+        Object values = sampleClass.getMethod("getValues").invoke(dto);
+        Assertions.assertThat(values).isInstanceOf(IntList.class).isEqualTo(List.of(0, -1, Integer.MAX_VALUE));
+        Assertions.assertThat(sampleClass.getMethod("getIds").invoke(dto)).isEqualTo(List.of(Long.MIN_VALUE, 42L));
+        Assertions.assertThat(sampleClass.getMethod("getReadings").invoke(dto)).isEqualTo(List.of(-0.0, Double.NaN, 1.0E-300));
+    }
+
+    @Test
+    public void testRoundTrip_sameAsJaxb() {
+        Object expected = jaxbEngine.unmarshal(sampleXml, sampleClass, XSD_PATH);
+        String expectedXml = jaxbEngine.marshal(expected);
+
+        Object stax = staxEngine.unmarshal(sampleXml, sampleClass, XSD_PATH);
+        Object binary = BinaryCodecs.decode(BinaryCodecs.encode(expected), sampleClass);
+
+        Assertions.assertThat(jaxbEngine.marshal(stax)).isEqualTo(expectedXml);
+        Assertions.assertThat(jaxbEngine.marshal(binary)).isEqualTo(expectedXml);
+        Assertions.assertThat(jaxbEngine.marshal(staxEngine.unmarshal(staxEngine.marshal(expected), sampleClass, XSD_PATH))).isEqualTo(expectedXml);
+    }
+
+    @Test
+    public void testGetter_createsPrimitiveList() throws Exception {
+        Object dto = sampleClass.getConstructor().newInstance();
+
+        IntList values = (IntList) sampleClass.getMethod("getValues").invoke(dto);
+        values.addInt(7);
+
+        Assertions.assertThat(sampleClass.getMethod("getValues").invoke(dto)).isSameAs(values);
+        Assertions.assertThat(jaxbEngine.marshal(dto)).contains("<values>7</values>");
+    }
+}
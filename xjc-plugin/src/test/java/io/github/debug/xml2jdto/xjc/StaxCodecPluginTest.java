@@ -0,0 +1,221 @@
+package io.github.debug.xml2jdto.xjc;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import org.assertj.core.api.Assertions;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.github.debug.xml2jdto.core.exception.InvalidXmlSchemaException;
+import io.github.debug.xml2jdto.core.exception.MalformedXmlException;
+import io.github.debug.xml2jdto.core.jaxb.DocumentRegistry;
+import io.github.debug.xml2jdto.core.jaxb.PartialResult;
+import io.github.debug.xml2jdto.core.jaxb.Xml2jDto;
+import io.github.debug.xml2jdto.core.stax.StaxCodecs;
+
+public class StaxCodecPluginTest {
+
+    private static final String SERVICE_FILE = "META-INF/services/io.github.debug.xml2jdto.core.stax.StaxCodecProvider";
+
+    private static final String XSD_PATH = "xsd/codec.xsd";
+
+    @TempDir
+    private static Path workDirectory;
+
+    private static XjcCompilation compilation;
+
+    private static Class<?> sampleClass;
+
+    private static String sampleXml;
+
+    private final Xml2jDto jaxbEngine = Xml2jDto.builder().staxCodecs(false).build();
+
+    private final Xml2jDto staxEngine = Xml2jDto.builder().build();
+
+    @BeforeAll
+    public static void beforeAll() throws Exception {
+        compilation = XjcCompilation.compile(workDirectory, XSD_PATH, "-" + StaxCodecPlugin.OPTION_NAME);
+        sampleClass = compilation.loadClass("Sample");
+        try (InputStream xml = StaxCodecPluginTest.class.getClassLoader().getResourceAsStream("xml/sample.xml")) {
+            sampleXml = new String(xml.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @AfterAll
+    public static void afterAll() throws IOException {
+        compilation.close();
+    }
+
+    @Test
+    public void testGenerate_codecPerSupportedClass() throws Exception {
+        for (String name : List.of("Sample", "NodeType", "AmountType", "ShapeType", "CircleType", "SquareType")) {
+            Assertions.assertThat(compilation.hasSource("test/codec/" + name + StaxCodecPlugin.CODEC_SUFFIX + ".java")).as(name).isTrue();
+        }
+        Assertions.assertThat(compilation.source(SERVICE_FILE)).isEqualTo("test.codec." + StaxCodecPlugin.PROVIDER_NAME + "\n");
+        Assertions.assertThat(compilation.source("test/codec/SampleStaxCodec.java")).doesNotContain("java.lang.reflect");
+        Assertions.assertThat(StaxCodecs.isSupported(sampleClass)).isTrue();
+        // only the root element classes are registered
+        Assertions.assertThat(StaxCodecs.isSupported(compilation.loadClass("NodeType"))).isFalse();
+    }
+
+    @Test
+    public void testGenerate_withUnsupportedContent() throws Exception {
+        Assertions.assertThat(compilation.hasSource("test/codec/ExtensibleTypeStaxCodec.java")).isFalse();
+        Assertions.assertThat(compilation.hasSource("test/codec/HolderStaxCodec.java")).isFalse();
+        Assertions.assertThat(compilation.output())
+                .contains("No StAX codec for class [test.codec.ExtensibleType]: property [any]")
+                .contains("No StAX codec for class [test.codec.Holder]: property [extensible]: class test.codec.ExtensibleType has no StAX codec");
+        Assertions.assertThat(StaxCodecs.isSupported(compilation.loadClass("Holder"))).isFalse();
+    }
+
+    @Test
+    public void testUnmarshal_sameAsJaxb() {
+        Object expected = jaxbEngine.unmarshal(sampleXml, sampleClass, XSD_PATH);
+
+        Object actual = staxEngine.unmarshal(sampleXml, sampleClass, XSD_PATH);
+
+        Assertions.assertThat(actual).isInstanceOf(sampleClass);
+        Assertions.assertThat(jaxbEngine.marshal(actual)).isEqualTo(jaxbEngine.marshal(expected));
+    }
+
+    @Test
+    public void testUnmarshal_fromInputStream() {
+        Object expected = jaxbEngine.unmarshal(sampleXml, sampleClass);
+
+        Object actual = staxEngine.unmarshal(new ByteArrayInputStream(sampleXml.getBytes(StandardCharsets.UTF_8)), sampleClass, XSD_PATH);
+
+        Assertions.assertThat(jaxbEngine.marshal(actual)).isEqualTo(jaxbEngine.marshal(expected));
+    }
+
+    @Test
+    public void testUnmarshal_keepsSubtypes() throws Exception {
+        Object actual = staxEngine.unmarshal(sampleXml, sampleClass);
+
+        List<?> shapes = (List<?>) sampleClass.getMethod("getShape").invoke(actual);
+        Assertions.assertThat(shapes).extracting(shape -> shape.getClass().getSimpleName()).containsExactly("CircleType", "SquareType");
+    }
+
+    @Test
+    public void testUnmarshalPaths_sameAsJaxb() {
+        String batch = "<batch><id>1</id>" + sampleXml.substring(sampleXml.indexOf("?>") + 2) + "</batch>";
+        Map<String, Class<?>> paths = Map.of("/batch/{http://xml2jdto.debugOSS.github.io/test/codec}Sample", sampleClass, "//tag", String.class);
+
+        PartialResult expected = jaxbEngine.unmarshalPaths(new ByteArrayInputStream(batch.getBytes(StandardCharsets.UTF_8)), paths);
+        PartialResult actual = staxEngine.unmarshalPaths(new ByteArrayInputStream(batch.getBytes(StandardCharsets.UTF_8)), paths);
+
+        Object sample = actual.get("/batch/{http://xml2jdto.debugOSS.github.io/test/codec}Sample", sampleClass);
+        Assertions.assertThat(jaxbEngine.marshal(sample))
+                .isEqualTo(jaxbEngine.marshal(expected.get("/batch/{http://xml2jdto.debugOSS.github.io/test/codec}Sample", sampleClass)));
+        // the tags are inside the selected Sample element
+        Assertions.assertThat(actual.contains("//tag")).isFalse();
+    }
+
+    @Test
+    public void testUnmarshalAny_sameAsJaxb() {
+        DocumentRegistry registry = DocumentRegistry.builder().register(sampleClass, XSD_PATH).build();
+        Xml2jDto jaxbDispatcher = Xml2jDto.builder().staxCodecs(false).documentRegistry(registry).build();
+        Xml2jDto staxDispatcher = Xml2jDto.builder().documentRegistry(registry).build();
+
+        Object expected = jaxbDispatcher.unmarshalAny(sampleXml.getBytes(StandardCharsets.UTF_8));
+        Object actual = staxDispatcher.unmarshalAny(sampleXml.getBytes(StandardCharsets.UTF_8));
+
+        Assertions.assertThat(actual).isInstanceOf(sampleClass);
+        Assertions.assertThat(jaxbEngine.marshal(actual)).isEqualTo(jaxbEngine.marshal(expected));
+        String invalidXml = sampleXml.replace("<count>-42</count>", "<count>x1</count>");
+        Assertions.assertThatThrownBy(() -> staxDispatcher.unmarshalAny(invalidXml.getBytes(StandardCharsets.UTF_8)))
+                .isInstanceOf(InvalidXmlSchemaException.class);
+    }
+
+    @Test
+    public void testUnmarshal_withUnexpectedElementWithoutSchema() {
+        String xml = sampleXml.replace("<count>", "<unknown><text>x</text></unknown><count>");
+
+        Object actual = staxEngine.unmarshal(xml, sampleClass);
+
+        Assertions.assertThat(jaxbEngine.marshal(actual)).isEqualTo(jaxbEngine.marshal(jaxbEngine.unmarshal(xml, sampleClass)));
+    }
+
+    @Test
+    public void testUnmarshal_withInvalidValue() {
+        String xml = sampleXml.replace("<count>-42</count>", "<count>x1</count>");
+
+        Assertions.assertThatThrownBy(() -> jaxbEngine.unmarshal(xml, sampleClass, XSD_PATH)).isInstanceOf(InvalidXmlSchemaException.class);
+        Assertions.assertThatThrownBy(() -> staxEngine.unmarshal(xml, sampleClass, XSD_PATH))
+                .isInstanceOf(InvalidXmlSchemaException.class)
+                .hasMessageContaining("x1");
+    }
+
+    @Test
+    public void testUnmarshal_withUnknownEnumValue() {
+        String xml = sampleXml.replace("<color>BLUE</color>", "<color>PINK</color>");
+
+        Assertions.assertThatThrownBy(() -> staxEngine.unmarshal(xml, sampleClass, XSD_PATH))
+                .isInstanceOf(InvalidXmlSchemaException.class)
+                .hasMessageContaining("PINK");
+    }
+
+    @Test
+    public void testUnmarshal_withMalformedXml() {
+        String xml = sampleXml.replace("</text>", "</txt>");
+
+        Assertions.assertThatThrownBy(() -> jaxbEngine.unmarshal(xml, sampleClass, XSD_PATH)).isInstanceOf(MalformedXmlException.class);
+        Assertions.assertThatThrownBy(() -> staxEngine.unmarshal(xml, sampleClass, XSD_PATH)).isInstanceOf(MalformedXmlException.class);
+    }
+
+    @Test
+    public void testUnmarshal_withOtherRootElement() {
+        String xml = "<Holder xmlns=\"http://xml2jdto.debugOSS.github.io/test/codec\"/>";
+
+        Assertions.assertThatThrownBy(() -> staxEngine.unmarshal(xml, sampleClass, XSD_PATH))
+                .isInstanceOf(MalformedXmlException.class)
+                .rootCause()
+                .hasMessageContaining("unexpected element (uri:\"http://xml2jdto.debugOSS.github.io/test/codec\", local:\"Holder\")."
+                        + " Expected element is <{http://xml2jdto.debugOSS.github.io/test/codec}Sample>");
+    }
+
+    @Test
+    public void testMarshal_readableByJaxb() {
+        Object dto = jaxbEngine.unmarshal(sampleXml, sampleClass);
+
+        String xml = staxEngine.marshal(dto, XSD_PATH);
+
+        Assertions.assertThat(xml).startsWith("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?><ns1:Sample");
+        Assertions.assertThat(jaxbEngine.marshal(jaxbEngine.unmarshal(xml, sampleClass, XSD_PATH))).isEqualTo(jaxbEngine.marshal(dto));
+    }
+
+    @Test
+    public void testMarshal_toBytes() {
+        Object dto = jaxbEngine.unmarshal(sampleXml, sampleClass);
+
+        byte[] xml = staxEngine.marshalToBytes(dto);
+
+        Assertions.assertThat(new String(xml, StandardCharsets.UTF_8)).isEqualTo(staxEngine.marshal(dto));
+    }
+
+    @Test
+    public void testMarshal_withInvalidContent() throws Exception {
+        Object dto = jaxbEngine.unmarshal(sampleXml, sampleClass);
+        sampleClass.getMethod("setText", String.class).invoke(dto, (Object) null);
+
+        Assertions.assertThatThrownBy(() -> jaxbEngine.marshal(dto, XSD_PATH)).isInstanceOf(InvalidXmlSchemaException.class);
+        Assertions.assertThatThrownBy(() -> staxEngine.marshal(dto, XSD_PATH)).isInstanceOf(InvalidXmlSchemaException.class);
+    }
+
+    @Test
+    public void testMarshal_fallbackToJaxb() throws Exception {
+        Object dto = jaxbEngine.unmarshal(sampleXml, sampleClass);
+
+        Assertions.assertThat(staxEngine.marshalFormatted(dto)).isEqualTo(jaxbEngine.marshalFormatted(dto));
+        String holder = "<Holder xmlns=\"http://xml2jdto.debugOSS.github.io/test/codec\"><extensible><name>n</name></extensible></Holder>";
+        Object holderDto = staxEngine.unmarshal(holder, compilation.loadClass("Holder"), XSD_PATH);
+        Assertions.assertThat(staxEngine.marshal(holderDto)).isEqualTo(jaxbEngine.marshal(holderDto));
+    }
+}
@@ -0,0 +1,110 @@
+package io.github.debug.xml2jdto.xjc;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import com.sun.tools.xjc.Driver;
+
+/**
+ * Runs XJC with the plugins of the module on a test schema, compiles the generated sources and loads them in an isolated class loader, the way the
+ * {@code example/dto} build does.
+ */
+final class XjcCompilation implements AutoCloseable {
+
+    static final String PACKAGE = "test.codec";
+
+    private final Path sourceDirectory;
+
+    private final String output;
+
+    private final URLClassLoader classLoader;
+
+    private XjcCompilation(Path sourceDirectory, String output, URLClassLoader classLoader) {
+        this.sourceDirectory = sourceDirectory;
+        this.output = output;
+        this.classLoader = classLoader;
+    }
+
+    static XjcCompilation compile(Path workDirectory, String xsdResource, String... xjcOptions) throws Exception {
+        Path sources = Files.createDirectories(workDirectory.resolve("sources"));
+        Path classes = Files.createDirectories(workDirectory.resolve("classes"));
+        Path xsd = Path.of(XjcCompilation.class.getClassLoader().getResource(xsdResource).toURI());
+
+        List<String> arguments = new ArrayList<>(List.of("-d", sources.toString(), "-p", PACKAGE, "-no-header"));
+        arguments.addAll(List.of(xjcOptions));
+        arguments.add(xsd.toString());
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (PrintStream printStream = new PrintStream(output, true, StandardCharsets.UTF_8)) {
+            int result = Driver.run(arguments.toArray(String[]::new), printStream, printStream);
+            if (result != 0) {
+                throw new IllegalStateException("XJC failed: " + output.toString(StandardCharsets.UTF_8));
+            }
+        }
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        List<String> compilerArguments = new ArrayList<>(List.of("-d", classes.toString(), "-classpath", runtimeClasspath()));
+        try (Stream<Path> files = Files.walk(sources)) {
+            files.filter(file -> file.toString().endsWith(".java")).map(Path::toString).forEach(compilerArguments::add);
+        }
+        ByteArrayOutputStream compilerOutput = new ByteArrayOutputStream();
+        if (compiler.run(null, compilerOutput, compilerOutput, compilerArguments.toArray(String[]::new)) != 0) {
+            throw new IllegalStateException("Compilation of the generated sources failed: " + compilerOutput.toString(StandardCharsets.UTF_8));
+        }
+
+        // the generated resources (META-INF/services) stay in the source directory, the way the jaxb-maven-plugin adds it as a resource root
+        URLClassLoader classLoader = new URLClassLoader(new URL[] { classes.toUri().toURL(), sources.toUri().toURL() },
+                XjcCompilation.class.getClassLoader());
+        return new XjcCompilation(sources, output.toString(StandardCharsets.UTF_8), classLoader);
+    }
+
+    private static String runtimeClasspath() throws URISyntaxException {
+        List<String> entries = new ArrayList<>();
+        for (Class<?> type : new Class<?>[] { io.github.debug.xml2jdto.core.codec.BinaryCodec.class, jakarta.xml.bind.JAXBElement.class }) {
+            entries.add(Path.of(type.getProtectionDomain().getCodeSource().getLocation().toURI()).toString());
+        }
+        return String.join(File.pathSeparator, entries);
+    }
+
+    /**
+     * @return the console output of XJC, including the warnings of the plugins
+     */
+    String output() {
+        return output;
+    }
+
+    boolean hasSource(String relativePath) {
+        return Files.exists(sourceDirectory.resolve(relativePath));
+    }
+
+    String source(String relativePath) {
+        try {
+            return Files.readString(sourceDirectory.resolve(relativePath));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    Class<?> loadClass(String simpleName) throws ClassNotFoundException {
+        return Class.forName(PACKAGE + "." + simpleName, true, classLoader);
+    }
+
+    @Override
+    public void close() throws IOException {
+        classLoader.close();
+    }
+}